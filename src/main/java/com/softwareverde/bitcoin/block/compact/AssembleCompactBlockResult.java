@@ -0,0 +1,40 @@
+package com.softwareverde.bitcoin.block.compact;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.constable.list.List;
+
+public class AssembleCompactBlockResult {
+    private BlockHeader _blockHeader;
+    private Transaction[] _transactions;
+
+    protected AssembleCompactBlockResult(final Block block, final List<Integer> missingTransactionIndexes) {
+        this.block = block;
+        this.missingTransactionIndexes = missingTransactionIndexes.asConst();
+    }
+
+    protected void allowReassembly(final BlockHeader blockHeader, final Transaction[] transactions) {
+        _blockHeader = blockHeader;
+        _transactions = transactions;
+    }
+
+    protected BlockHeader getBlockHeader() { return _blockHeader; }
+    protected Transaction[] getTransactions() { return _transactions; }
+
+    public final Block block;
+
+    /**
+     * The indexes of the Transactions that could not be found within the mempool, in ascending order.
+     *  These indexes are to be requested from the peer via a getblocktxn message.
+     */
+    public final List<Integer> missingTransactionIndexes;
+
+    public Boolean wasSuccessful() {
+        return (this.block != null);
+    }
+
+    public Boolean canBeReassembled() {
+        return ( (_blockHeader != null) && (_transactions != null) );
+    }
+}
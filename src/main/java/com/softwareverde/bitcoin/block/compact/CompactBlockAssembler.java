@@ -0,0 +1,182 @@
+package com.softwareverde.bitcoin.block.compact;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.MutableBlock;
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.server.module.node.MemoryPoolEnquirer;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.Util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Reconstructs BIP152 compact blocks from the Transactions within the mempool.
+ *  Short transaction ids are matched against the mempool's transaction hashes; short ids that match more than one mempool
+ *  Transaction are treated as missing, so that they are requested from the peer instead of guessed.
+ */
+public class CompactBlockAssembler {
+    public interface BlockHeaderEnquirer {
+        Boolean isBlockHeaderKnown(Sha256Hash blockHash);
+    }
+
+    protected final MemoryPoolEnquirer _memoryPoolEnquirer;
+    protected final BlockHeaderEnquirer _blockHeaderEnquirer;
+
+    protected static AssembleCompactBlockResult _failure() {
+        return new AssembleCompactBlockResult(null, new MutableList<Integer>(0));
+    }
+
+    /**
+     * Returns the Block containing the provided Transactions, or null if the Transactions do not hash to the header's merkle root.
+     *  Since the MutableBlock's merkle root is calculated from its Transactions, any mismatched Transaction (i.e. a short id
+     *  collision) results in a Block whose hash differs from the header's hash.
+     */
+    protected static Block _assembleBlock(final BlockHeader blockHeader, final Transaction[] transactions) {
+        final MutableList<Transaction> transactionList = new MutableList<Transaction>(transactions.length);
+        for (final Transaction transaction : transactions) {
+            transactionList.add(transaction);
+        }
+
+        final MutableBlock mutableBlock = new MutableBlock(blockHeader, transactionList);
+        if (! mutableBlock.isValid()) { return null; }
+
+        final Sha256Hash expectedBlockHash = blockHeader.getHash();
+        final Sha256Hash blockHash = mutableBlock.getHash();
+        if (! Util.areEqual(expectedBlockHash, blockHash)) { return null; }
+
+        return mutableBlock;
+    }
+
+    public CompactBlockAssembler(final MemoryPoolEnquirer memoryPoolEnquirer) {
+        this(memoryPoolEnquirer, null);
+    }
+
+    public CompactBlockAssembler(final MemoryPoolEnquirer memoryPoolEnquirer, final BlockHeaderEnquirer blockHeaderEnquirer) {
+        _memoryPoolEnquirer = memoryPoolEnquirer;
+        _blockHeaderEnquirer = blockHeaderEnquirer;
+    }
+
+    /**
+     * Returns true if the blockHeader's parent is a known block, and therefore the compact block would extend the known chain.
+     *  Unrequested compact blocks should only be assembled if their parent is known, since assembly scans the entire mempool.
+     *  Returns false if the CompactBlockAssembler was not provided a BlockHeaderEnquirer.
+     */
+    public Boolean isParentBlockKnown(final BlockHeader blockHeader) {
+        if (_blockHeaderEnquirer == null) { return false; }
+
+        final Sha256Hash previousBlockHash = blockHeader.getPreviousBlockHash();
+        return _blockHeaderEnquirer.isBlockHeaderKnown(previousBlockHash);
+    }
+
+    public AssembleCompactBlockResult assembleCompactBlock(final BlockHeader blockHeader, final Long nonce, final List<Long> shortTransactionIds, final List<PrefilledTransaction> prefilledTransactions) {
+        final int transactionCount = (shortTransactionIds.getCount() + prefilledTransactions.getCount());
+        if (transactionCount == 0) { return _failure(); }
+
+        final Transaction[] transactions = new Transaction[transactionCount];
+        for (final PrefilledTransaction prefilledTransaction : prefilledTransactions) {
+            final int index = prefilledTransaction.getIndex();
+            if ( (index < 0) || (index >= transactionCount) ) { return _failure(); }
+            if (transactions[index] != null) { return _failure(); }
+
+            transactions[index] = prefilledTransaction.getTransaction();
+        }
+
+        // Short ids are assigned, in order, to the indexes not occupied by a prefilled Transaction...
+        final HashMap<Long, Integer> shortTransactionIdIndexes = new HashMap<Long, Integer>(shortTransactionIds.getCount());
+        {
+            int shortTransactionIdIndex = 0;
+            for (int i = 0; i < transactionCount; ++i) {
+                if (transactions[i] != null) { continue; }
+
+                final Long shortTransactionId = shortTransactionIds.get(shortTransactionIdIndex);
+                final Integer previousIndex = shortTransactionIdIndexes.put(shortTransactionId, i);
+                if (previousIndex != null) { return _failure(); } // BIP152 requires the full block be requested when the block contains duplicate short ids...
+
+                shortTransactionIdIndex += 1;
+            }
+        }
+
+        final HashMap<Integer, Sha256Hash> matchedTransactionHashes = new HashMap<Integer, Sha256Hash>();
+        {
+            final ShortTransactionIdHasher shortTransactionIdHasher = new ShortTransactionIdHasher(blockHeader, nonce);
+            final HashSet<Integer> collidedIndexes = new HashSet<Integer>();
+
+            final List<Sha256Hash> memoryPoolTransactionHashes = _memoryPoolEnquirer.getTransactionHashes();
+            for (final Sha256Hash transactionHash : memoryPoolTransactionHashes) {
+                final Long shortTransactionId = shortTransactionIdHasher.getShortTransactionId(transactionHash);
+                final Integer index = shortTransactionIdIndexes.get(shortTransactionId);
+                if (index == null) { continue; }
+
+                final Sha256Hash previousTransactionHash = matchedTransactionHashes.put(index, transactionHash);
+                if (previousTransactionHash != null) {
+                    collidedIndexes.add(index);
+                }
+            }
+
+            for (final Integer index : collidedIndexes) {
+                matchedTransactionHashes.remove(index);
+            }
+        }
+
+        if (! matchedTransactionHashes.isEmpty()) {
+            final MutableList<Sha256Hash> transactionHashes = new MutableList<Sha256Hash>(matchedTransactionHashes.size());
+            for (final Sha256Hash transactionHash : matchedTransactionHashes.values()) {
+                transactionHashes.add(transactionHash);
+            }
+
+            final Map<Sha256Hash, Transaction> memoryPoolTransactions = _memoryPoolEnquirer.getTransactions(transactionHashes);
+            for (final Map.Entry<Integer, Sha256Hash> entry : matchedTransactionHashes.entrySet()) {
+                final Integer index = entry.getKey();
+                final Sha256Hash transactionHash = entry.getValue();
+
+                final Transaction transaction = memoryPoolTransactions.get(transactionHash);
+                if (transaction == null) { continue; } // The Transaction may have been removed from the mempool since its hash was loaded...
+
+                transactions[index] = transaction;
+            }
+        }
+
+        final MutableList<Integer> missingTransactionIndexes = new MutableList<Integer>();
+        for (int i = 0; i < transactionCount; ++i) {
+            if (transactions[i] == null) {
+                missingTransactionIndexes.add(i);
+            }
+        }
+
+        if (! missingTransactionIndexes.isEmpty()) {
+            final AssembleCompactBlockResult assembleCompactBlockResult = new AssembleCompactBlockResult(null, missingTransactionIndexes);
+            assembleCompactBlockResult.allowReassembly(blockHeader, transactions);
+            return assembleCompactBlockResult;
+        }
+
+        final Block block = _assembleBlock(blockHeader, transactions);
+        return new AssembleCompactBlockResult(block, new MutableList<Integer>(0));
+    }
+
+    /**
+     * Completes the compact block with the Transactions returned via a blocktxn message.
+     *  The missingTransactions must be in the order of AssembleCompactBlockResult::missingTransactionIndexes.
+     *  Returns null if the block could not be completed, in which case the full block should be requested instead.
+     */
+    public Block reassembleCompactBlock(final AssembleCompactBlockResult assembleCompactBlockResult, final List<Transaction> missingTransactions) {
+        if (! assembleCompactBlockResult.canBeReassembled()) { return null; }
+
+        final List<Integer> missingTransactionIndexes = assembleCompactBlockResult.missingTransactionIndexes;
+        if (! Util.areEqual(missingTransactionIndexes.getCount(), missingTransactions.getCount())) { return null; }
+
+        final BlockHeader blockHeader = assembleCompactBlockResult.getBlockHeader();
+        final Transaction[] transactions = assembleCompactBlockResult.getTransactions().clone();
+
+        for (int i = 0; i < missingTransactions.getCount(); ++i) {
+            final Integer index = missingTransactionIndexes.get(i);
+            transactions[index] = missingTransactions.get(i);
+        }
+
+        return _assembleBlock(blockHeader, transactions);
+    }
+}
@@ -0,0 +1,24 @@
+package com.softwareverde.bitcoin.block.compact;
+
+import com.softwareverde.bitcoin.transaction.Transaction;
+
+/**
+ * A Transaction sent in full within a compact block, along with its (absolute) index within the block.
+ */
+public class PrefilledTransaction {
+    protected final Integer _index;
+    protected final Transaction _transaction;
+
+    public PrefilledTransaction(final Integer index, final Transaction transaction) {
+        _index = index;
+        _transaction = transaction.asConst();
+    }
+
+    public Integer getIndex() {
+        return _index;
+    }
+
+    public Transaction getTransaction() {
+        return _transaction;
+    }
+}
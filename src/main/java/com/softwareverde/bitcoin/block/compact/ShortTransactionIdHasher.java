@@ -0,0 +1,96 @@
+package com.softwareverde.bitcoin.block.compact;
+
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.block.header.BlockHeaderDeflater;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+/**
+ * Calculates the BIP152 short transaction ids of a compact block.
+ *  The SipHash-2-4 key is the first 16 bytes of SHA-256(blockHeader || nonce), so every compact block (and every nonce)
+ *  produces a different set of short ids, which prevents collisions from being crafted ahead of time.
+ *  The short id is the lower 6 bytes of the SipHash of the transaction's (little-endian) hash.
+ */
+public class ShortTransactionIdHasher {
+    public static final Integer SHORT_TRANSACTION_ID_BYTE_COUNT = 6;
+
+    protected static final long SHORT_TRANSACTION_ID_MASK = 0xFFFFFFFFFFFFL;
+
+    protected static long _readLittleEndianLong(final byte[] bytes, final int offset) {
+        long value = 0L;
+        for (int i = 7; i >= 0; --i) {
+            value = ((value << 8) | (bytes[offset + i] & 0xFFL));
+        }
+        return value;
+    }
+
+    protected static void _sipRound(final long[] v) {
+        v[0] += v[1]; v[1] = Long.rotateLeft(v[1], 13); v[1] ^= v[0]; v[0] = Long.rotateLeft(v[0], 32);
+        v[2] += v[3]; v[3] = Long.rotateLeft(v[3], 16); v[3] ^= v[2];
+        v[0] += v[3]; v[3] = Long.rotateLeft(v[3], 21); v[3] ^= v[0];
+        v[2] += v[1]; v[1] = Long.rotateLeft(v[1], 17); v[1] ^= v[2]; v[2] = Long.rotateLeft(v[2], 32);
+    }
+
+    /**
+     * Returns the SipHash-2-4 of the message, keyed by the little-endian words k0 and k1.
+     */
+    public static long sipHash(final long k0, final long k1, final byte[] message) {
+        final long[] v = new long[] {
+            (k0 ^ 0x736F6D6570736575L),
+            (k1 ^ 0x646F72616E646F6DL),
+            (k0 ^ 0x6C7967656E657261L),
+            (k1 ^ 0x7465646279746573L)
+        };
+
+        final int byteCount = message.length;
+        final int blockByteCount = (byteCount - (byteCount % 8));
+        for (int offset = 0; offset < blockByteCount; offset += 8) {
+            final long m = _readLittleEndianLong(message, offset);
+            v[3] ^= m;
+            _sipRound(v);
+            _sipRound(v);
+            v[0] ^= m;
+        }
+
+        long lastBlock = (((long) byteCount) << 56);
+        for (int i = blockByteCount; i < byteCount; ++i) {
+            lastBlock |= ((message[i] & 0xFFL) << (8 * (i - blockByteCount)));
+        }
+
+        v[3] ^= lastBlock;
+        _sipRound(v);
+        _sipRound(v);
+        v[0] ^= lastBlock;
+
+        v[2] ^= 0xFFL;
+        _sipRound(v);
+        _sipRound(v);
+        _sipRound(v);
+        _sipRound(v);
+
+        return (v[0] ^ v[1] ^ v[2] ^ v[3]);
+    }
+
+    protected final long _k0;
+    protected final long _k1;
+
+    public ShortTransactionIdHasher(final BlockHeader blockHeader, final Long nonce) {
+        final BlockHeaderDeflater blockHeaderDeflater = new BlockHeaderDeflater();
+
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendBytes(blockHeaderDeflater.toBytes(blockHeader));
+        byteArrayBuilder.appendBytes(ByteUtil.longToBytes(nonce), Endian.LITTLE);
+
+        final byte[] hash = HashUtil.sha256(byteArrayBuilder.build());
+        _k0 = _readLittleEndianLong(hash, 0);
+        _k1 = _readLittleEndianLong(hash, 8);
+    }
+
+    public Long getShortTransactionId(final Sha256Hash transactionHash) {
+        final byte[] littleEndianTransactionHash = transactionHash.toReversedEndian().getBytes();
+        return (ShortTransactionIdHasher.sipHash(_k0, _k1, littleEndianTransactionHash) & SHORT_TRANSACTION_ID_MASK);
+    }
+}
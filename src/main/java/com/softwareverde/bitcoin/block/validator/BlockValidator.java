@@ -10,12 +10,15 @@ import com.softwareverde.bitcoin.block.header.BlockHeaderInflater;
 import com.softwareverde.bitcoin.block.header.difficulty.Difficulty;
 import com.softwareverde.bitcoin.block.header.difficulty.PrototypeDifficulty;
 import com.softwareverde.bitcoin.block.validator.thread.ParalleledTaskSpawner;
+import com.softwareverde.bitcoin.block.validator.thread.SignatureVerificationTaskHandler;
 import com.softwareverde.bitcoin.block.validator.thread.TaskHandler;
 import com.softwareverde.bitcoin.block.validator.thread.TaskHandlerFactory;
 import com.softwareverde.bitcoin.block.validator.thread.TotalExpenditureTaskHandler;
 import com.softwareverde.bitcoin.block.validator.thread.TransactionValidationTaskHandler;
 import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
 import com.softwareverde.bitcoin.context.TransactionValidatorFactory;
+import com.softwareverde.bitcoin.secp256k1.DeferredSignature;
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.coinbase.CoinbaseTransaction;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
@@ -51,6 +54,7 @@ public class BlockValidator {
     protected Boolean _shouldLogValidBlocks = true;
     protected Integer _maxThreadCount = 4;
     protected Long _trustedBlockHeight = DO_NOT_TRUST_BLOCKS;
+    protected Boolean _shouldDeferSignatureVerification = true;
 
     protected BlockValidationResult _validateTransactions(final Block block, final Long blockHeight) {
         final Thread currentThread = Thread.currentThread();
@@ -105,12 +109,13 @@ public class BlockValidator {
             }
         });
 
+        final SignatureBatch signatureBatch = (_shouldDeferSignatureVerification ? new SignatureBatch() : null);
         final TransactionValidator transactionValidator = _context.getTransactionValidator(blockOutputs, _context);
         final ParalleledTaskSpawner<Transaction, TransactionValidationTaskHandler.TransactionValidationTaskResult> transactionValidationTaskSpawner = new ParalleledTaskSpawner<Transaction, TransactionValidationTaskHandler.TransactionValidationTaskResult>("Validation", threadPool);
         transactionValidationTaskSpawner.setTaskHandlerFactory(new TaskHandlerFactory<Transaction, TransactionValidationTaskHandler.TransactionValidationTaskResult>() {
             @Override
             public TaskHandler<Transaction, TransactionValidationTaskHandler.TransactionValidationTaskResult> newInstance() {
-                return new TransactionValidationTaskHandler(blockHeight, transactionValidator);
+                return new TransactionValidationTaskHandler(blockHeight, transactionValidator, signatureBatch);
             }
         });
 
@@ -195,6 +200,26 @@ public class BlockValidator {
         if (currentThread.isInterrupted()) { BlockValidationResult.invalid("Validation aborted."); } // Bail out if an abort occurred...
         if (transactionValidationTaskResults == null) { return BlockValidationResult.invalid("An internal error occurred during InputsValidatorTask."); }
 
+        final List<List<DeferredSignature>> signatureVerificationResults;
+        if (signatureBatch != null) { // Verify the signatures deferred during script execution...
+            final List<DeferredSignature> deferredSignatures = signatureBatch.getSignatures();
+            final ParalleledTaskSpawner<DeferredSignature, List<DeferredSignature>> signatureVerificationTaskSpawner = new ParalleledTaskSpawner<DeferredSignature, List<DeferredSignature>>("Signatures", threadPool);
+            signatureVerificationTaskSpawner.setTaskHandlerFactory(new TaskHandlerFactory<DeferredSignature, List<DeferredSignature>>() {
+                @Override
+                public TaskHandler<DeferredSignature, List<DeferredSignature>> newInstance() {
+                    return new SignatureVerificationTaskHandler();
+                }
+            });
+
+            signatureVerificationTaskSpawner.executeTasks(deferredSignatures, Math.max(_maxThreadCount, 1));
+            signatureVerificationResults = signatureVerificationTaskSpawner.waitForResults();
+            if (currentThread.isInterrupted()) { return BlockValidationResult.invalid("Validation aborted."); } // Bail out if an abort occurred...
+            if (signatureVerificationResults == null) { return BlockValidationResult.invalid("An internal error occurred during SignatureVerificationTask."); }
+        }
+        else {
+            signatureVerificationResults = null;
+        }
+
         threadPool.stop();
 
         final MutableList<Sha256Hash> invalidTransactions = new MutableList<Sha256Hash>();
@@ -238,6 +263,25 @@ public class BlockValidator {
         }
         if (! invalidTransactions.isEmpty()) { return BlockValidationResult.invalid(errorMessage.toString(), invalidTransactions); }
 
+        if (signatureVerificationResults != null) {
+            final StringBuilder signatureErrorMessage = new StringBuilder("Transactions contain invalid signatures.");
+            for (final List<DeferredSignature> invalidSignatures : signatureVerificationResults) {
+                for (final DeferredSignature invalidSignature : invalidSignatures) {
+                    final Sha256Hash invalidTransactionHash = invalidSignature.getTransactionHash();
+                    if (! invalidTransactions.contains(invalidTransactionHash)) {
+                        invalidTransactions.add(invalidTransactionHash);
+                    }
+
+                    signatureErrorMessage.append("\n");
+                    signatureErrorMessage.append(invalidTransactionHash);
+                    signatureErrorMessage.append(":");
+                    signatureErrorMessage.append(invalidSignature.getTransactionInputIndex());
+                    signatureErrorMessage.append(": Invalid signature.");
+                }
+            }
+            if (! invalidTransactions.isEmpty()) { return BlockValidationResult.invalid(signatureErrorMessage.toString(), invalidTransactions); }
+        }
+
         final MedianBlockTime medianBlockTime = _context.getMedianBlockTime(blockHeight);
         if (HF20200515.isEnabled(medianBlockTime)) { // Enforce maximum Signature operation count...
             final int maximumSignatureOperationCount = (BlockHeaderInflater.BLOCK_HEADER_BYTE_COUNT / BlockValidator.MIN_BYTES_PER_SIGNATURE_OPERATION);
@@ -325,6 +369,14 @@ public class BlockValidator {
         _trustedBlockHeight = trustedBlockHeight;
     }
 
+    /**
+     * When enabled, signatures that would fail their script if invalid are collected while the Block's scripts are executed,
+     *  and are then verified in parallel once every Transaction's scripts have been executed.
+     */
+    public void setShouldDeferSignatureVerification(final Boolean shouldDeferSignatureVerification) {
+        _shouldDeferSignatureVerification = shouldDeferSignatureVerification;
+    }
+
     public BlockValidationResult validateBlock(final Block block, final Long blockHeight) {
         return _validateBlock(block, blockHeight);
     }
@@ -0,0 +1,40 @@
+package com.softwareverde.bitcoin.block.validator.thread;
+
+import com.softwareverde.bitcoin.secp256k1.DeferredSignature;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.logging.Logger;
+
+/**
+ * Verifies the DeferredSignatures sent to executeTask.
+ *  The result is the list of DeferredSignatures that failed verification; an empty list indicates every signature was valid.
+ */
+public class SignatureVerificationTaskHandler implements TaskHandler<DeferredSignature, List<DeferredSignature>> {
+    protected final MutableList<DeferredSignature> _invalidSignatures = new MutableList<DeferredSignature>(0);
+
+    public SignatureVerificationTaskHandler() { }
+
+    @Override
+    public void init() { }
+
+    @Override
+    public void executeTask(final DeferredSignature deferredSignature) {
+        Boolean signatureIsValid;
+        try {
+            signatureIsValid = deferredSignature.verify();
+        }
+        catch (final Exception exception) {
+            signatureIsValid = false;
+            Logger.debug(exception);
+        }
+
+        if (! signatureIsValid) {
+            _invalidSignatures.add(deferredSignature);
+        }
+    }
+
+    @Override
+    public List<DeferredSignature> getResult() {
+        return _invalidSignatures;
+    }
+}
@@ -1,5 +1,6 @@
 package com.softwareverde.bitcoin.block.validator.thread;
 
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidationResult;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidator;
@@ -65,10 +66,20 @@ public class TransactionValidationTaskHandler implements TaskHandler<Transaction
     protected final AtomicInteger _signatureOperationCount = new AtomicInteger(0);
 
     protected final TransactionValidator _transactionValidator;
+    protected final SignatureBatch _signatureBatch;
 
     public TransactionValidationTaskHandler(final Long blockHeight, final TransactionValidator transactionValidator) {
+        this(blockHeight, transactionValidator, null);
+    }
+
+    /**
+     * If signatureBatch is provided, signatures may be deferred to the signatureBatch instead of being verified immediately;
+     *  the caller is responsible for verifying the signatureBatch before considering the Transactions valid.
+     */
+    public TransactionValidationTaskHandler(final Long blockHeight, final TransactionValidator transactionValidator, final SignatureBatch signatureBatch) {
         _blockHeight = blockHeight;
         _transactionValidator = transactionValidator;
+        _signatureBatch = signatureBatch;
     }
 
     @Override
@@ -82,7 +93,7 @@ public class TransactionValidationTaskHandler implements TaskHandler<Transaction
         {
             TransactionValidationResult validationResult;
             try {
-                validationResult = _transactionValidator.validateTransaction(_blockHeight, transaction);
+                validationResult = _transactionValidator.validateTransaction(_blockHeight, transaction, _signatureBatch);
             }
             catch (final Exception exception) {
                 validationResult = TransactionValidationResult.invalid("An internal error occurred.");
@@ -9,4 +9,12 @@ public interface TransactionValidatorFactory {
     default TransactionValidator getUnconfirmedTransactionValidator(final TransactionValidator.Context transactionValidatorContext) {
         return this.getTransactionValidator(null, transactionValidatorContext);
     }
+
+    /**
+     * Returns a TransactionValidator used to speculatively validate the Transactions of a Block before the Block is processed.
+     *  Implementations should cache the results of successful validations so that the Block's eventual validation is faster.
+     */
+    default TransactionValidator getSpeculativeTransactionValidator(final BlockOutputs blockOutputs, final TransactionValidator.Context transactionValidatorContext) {
+        return this.getTransactionValidator(blockOutputs, transactionValidatorContext);
+    }
 }
@@ -0,0 +1,67 @@
+package com.softwareverde.bitcoin.context.core;
+
+import com.softwareverde.bitcoin.context.UnspentTransactionOutputContext;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.constable.Const;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.Util;
+
+import java.util.HashMap;
+
+/**
+ * A point-in-time copy of a MutableUnspentTransactionOutputSet.
+ *  The copy is unaffected by subsequent updates to the original set, so it may be read concurrently without synchronization.
+ */
+public class ImmutableUnspentTransactionOutputSet implements UnspentTransactionOutputContext, Const {
+    protected final HashMap<TransactionOutputIdentifier, TransactionOutput> _transactionOutputs;
+    protected final HashMap<Sha256Hash, Long> _transactionBlockHeights;
+    protected final HashMap<Long, Sha256Hash> _coinbaseTransactionHashesByBlockHeight;
+    protected final HashMap<Sha256Hash, Boolean> _transactionCoinbaseStatuses;
+    protected final HashMap<Long, Sha256Hash> _blockHashesByBlockHeight;
+
+    /**
+     * Requires synchronization on the mutableUnspentTransactionOutputSet; see MutableUnspentTransactionOutputSet::asConst.
+     */
+    protected ImmutableUnspentTransactionOutputSet(final MutableUnspentTransactionOutputSet mutableUnspentTransactionOutputSet) {
+        _transactionOutputs = new HashMap<TransactionOutputIdentifier, TransactionOutput>(mutableUnspentTransactionOutputSet._transactionOutputs);
+        _transactionBlockHeights = new HashMap<Sha256Hash, Long>(mutableUnspentTransactionOutputSet._transactionBlockHeights);
+        _coinbaseTransactionHashesByBlockHeight = new HashMap<Long, Sha256Hash>(mutableUnspentTransactionOutputSet._coinbaseTransactionHashesByBlockHeight);
+        _transactionCoinbaseStatuses = new HashMap<Sha256Hash, Boolean>(mutableUnspentTransactionOutputSet._transactionCoinbaseStatuses);
+        _blockHashesByBlockHeight = new HashMap<Long, Sha256Hash>(mutableUnspentTransactionOutputSet._blockHashesByBlockHeight);
+    }
+
+    @Override
+    public TransactionOutput getTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) {
+        return _transactionOutputs.get(transactionOutputIdentifier);
+    }
+
+    @Override
+    public Long getBlockHeight(final TransactionOutputIdentifier transactionOutputIdentifier) {
+        final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+        return _transactionBlockHeights.get(transactionHash);
+    }
+
+    @Override
+    public Sha256Hash getBlockHash(final TransactionOutputIdentifier transactionOutputIdentifier) {
+        final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+        final Long blockHeight = _transactionBlockHeights.get(transactionHash);
+        if (blockHeight == null) { return null; }
+        return _blockHashesByBlockHeight.get(blockHeight);
+    }
+
+    @Override
+    public Boolean isCoinbaseTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) {
+        final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+        final Boolean isCoinbase = _transactionCoinbaseStatuses.get(transactionHash);
+        if (isCoinbase != null) { return isCoinbase; }
+
+        final Long blockHeight = _transactionBlockHeights.get(transactionHash);
+        if (blockHeight == null) { return null; }
+
+        final Sha256Hash blockCoinbaseTransactionHash = _coinbaseTransactionHashesByBlockHeight.get(blockHeight);
+        if (blockCoinbaseTransactionHash == null) { return null; }
+
+        return Util.areEqual(blockCoinbaseTransactionHash, transactionHash);
+    }
+}
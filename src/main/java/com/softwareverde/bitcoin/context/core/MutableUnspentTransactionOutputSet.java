@@ -15,6 +15,7 @@ import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnod
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.bitcoin.transaction.validator.UtxoUndoLog;
 import com.softwareverde.constable.list.JavaListWrapper;
@@ -33,6 +34,7 @@ public class MutableUnspentTransactionOutputSet implements UnspentTransactionOut
     protected final HashMap<TransactionOutputIdentifier, TransactionOutput> _transactionOutputs = new HashMap<TransactionOutputIdentifier, TransactionOutput>();
     protected final HashMap<Sha256Hash, Long> _transactionBlockHeights = new HashMap<Sha256Hash, Long>();
     protected final HashMap<Long, Sha256Hash> _coinbaseTransactionHashesByBlockHeight = new HashMap<Long, Sha256Hash>();
+    protected final HashMap<Sha256Hash, Boolean> _transactionCoinbaseStatuses = new HashMap<Sha256Hash, Boolean>(); // Populated from the UTXO set, whose coinbase Transactions may not be within _coinbaseTransactionHashesByBlockHeight.
     protected final HashMap<Long, Sha256Hash> _blockHashesByBlockHeight = new HashMap<Long, Sha256Hash>();
 
     public MutableUnspentTransactionOutputSet() { }
@@ -208,23 +210,12 @@ public class MutableUnspentTransactionOutputSet implements UnspentTransactionOut
             return _loadOutputsForAlternateBlock(databaseManager, blockId, requiredTransactionOutputs, transactionsWithUnknownBlockHeights);
         }
 
-        { // Load the BlockHeights for the unknown Transactions (the previous Transactions being spent by (and outside of) this block)...
-            final Map<Sha256Hash, BlockId> transactionBlockIds = transactionDatabaseManager.getBlockIds(blockchainSegmentId, JavaListWrapper.wrap(transactionsWithUnknownBlockHeights));
-            final HashSet<BlockId> uniqueBlockIds = new HashSet<BlockId>(transactionBlockIds.values());
-            final Map<BlockId, Long> blockHeights = blockHeaderDatabaseManager.getBlockHeights(JavaListWrapper.wrap(uniqueBlockIds));
-            for (final Sha256Hash transactionHash : transactionBlockIds.keySet()) {
-                final BlockId transactionBlockId = transactionBlockIds.get(transactionHash);
-                final Long transactionBlockHeight = blockHeights.get(transactionBlockId);
-                _transactionBlockHeights.put(transactionHash, transactionBlockHeight);
-            }
-        }
-
         boolean allTransactionOutputsWereLoaded = true;
         final List<TransactionOutputIdentifier> transactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>(requiredTransactionOutputs);
-        final List<TransactionOutput> transactionOutputs = unspentTransactionOutputDatabaseManager.getUnspentTransactionOutputs(transactionOutputIdentifiers);
+        final List<UnspentTransactionOutput> transactionOutputs = unspentTransactionOutputDatabaseManager.getUnspentTransactionOutputs(transactionOutputIdentifiers);
         for (int i = 0; i < transactionOutputs.getCount(); ++i) {
             final TransactionOutputIdentifier transactionOutputIdentifier = transactionOutputIdentifiers.get(i);
-            final TransactionOutput transactionOutput = transactionOutputs.get(i);
+            final UnspentTransactionOutput transactionOutput = transactionOutputs.get(i);
             if (transactionOutput == null) {
                 if (allTransactionOutputsWereLoaded) {
                     Logger.debug("Missing UTXO: " + transactionOutputIdentifier);
@@ -234,6 +225,32 @@ public class MutableUnspentTransactionOutputSet implements UnspentTransactionOut
             }
 
             _transactionOutputs.put(transactionOutputIdentifier, transactionOutput);
+
+            { // Use the UTXO's blockHeight and coinbase flag in order to avoid looking up the Block of its Transaction...
+                final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+
+                final Long transactionBlockHeight = transactionOutput.getBlockHeight();
+                if ( (transactionBlockHeight != null) && (transactionBlockHeight >= 0L) ) {
+                    _transactionBlockHeights.put(transactionHash, transactionBlockHeight);
+                    transactionsWithUnknownBlockHeights.remove(transactionHash);
+                }
+
+                final Boolean isCoinbase = transactionOutput.isCoinbase();
+                if (isCoinbase != null) {
+                    _transactionCoinbaseStatuses.put(transactionHash, isCoinbase);
+                }
+            }
+        }
+
+        if (! transactionsWithUnknownBlockHeights.isEmpty()) { // Load the BlockHeights for the unknown Transactions (the previous Transactions being spent by (and outside of) this block)...
+            final Map<Sha256Hash, BlockId> transactionBlockIds = transactionDatabaseManager.getBlockIds(blockchainSegmentId, JavaListWrapper.wrap(transactionsWithUnknownBlockHeights));
+            final HashSet<BlockId> uniqueBlockIds = new HashSet<BlockId>(transactionBlockIds.values());
+            final Map<BlockId, Long> blockHeights = blockHeaderDatabaseManager.getBlockHeights(JavaListWrapper.wrap(uniqueBlockIds));
+            for (final Sha256Hash transactionHash : transactionBlockIds.keySet()) {
+                final BlockId transactionBlockId = transactionBlockIds.get(transactionHash);
+                final Long transactionBlockHeight = blockHeights.get(transactionBlockId);
+                _transactionBlockHeights.put(transactionHash, transactionBlockHeight);
+            }
         }
 
         return allTransactionOutputsWereLoaded;
@@ -261,6 +278,9 @@ public class MutableUnspentTransactionOutputSet implements UnspentTransactionOut
     @Override
     public Boolean isCoinbaseTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) {
         final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+        final Boolean isCoinbase = _transactionCoinbaseStatuses.get(transactionHash);
+        if (isCoinbase != null) { return isCoinbase; }
+
         final Long blockHeight = _transactionBlockHeights.get(transactionHash);
         if (blockHeight == null) { return null; }
 
@@ -315,9 +335,17 @@ public class MutableUnspentTransactionOutputSet implements UnspentTransactionOut
         }
     }
 
+    /**
+     * Returns a copy of the set's current contents that is unaffected by subsequent updates.
+     */
+    public synchronized ImmutableUnspentTransactionOutputSet asConst() {
+        return new ImmutableUnspentTransactionOutputSet(this);
+    }
+
     public synchronized void clear() {
         _transactionOutputs.clear();
         _transactionBlockHeights.clear();
         _coinbaseTransactionHashesByBlockHeight.clear();
+        _transactionCoinbaseStatuses.clear();
     }
 }
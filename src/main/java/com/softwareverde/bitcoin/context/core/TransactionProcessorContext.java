@@ -8,6 +8,7 @@ import com.softwareverde.bitcoin.transaction.TransactionDeflater;
 import com.softwareverde.bitcoin.transaction.TransactionInflater;
 import com.softwareverde.bitcoin.transaction.validator.BlockOutputs;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidator;
+import com.softwareverde.concurrent.pool.ThreadPool;
 import com.softwareverde.network.time.VolatileNetworkTime;
 import com.softwareverde.util.type.time.SystemTime;
 
@@ -17,13 +18,15 @@ public class TransactionProcessorContext implements TransactionProcessor.Context
     protected final VolatileNetworkTime _networkTime;
     protected final SystemTime _systemTime;
     protected final TransactionValidatorFactory _transactionValidatorFactory;
+    protected final ThreadPool _threadPool;
 
-    public TransactionProcessorContext(final TransactionInflaters transactionInflaters, final FullNodeDatabaseManagerFactory databaseManagerFactory, final VolatileNetworkTime networkTime, final SystemTime systemTime, final TransactionValidatorFactory transactionValidatorFactory) {
+    public TransactionProcessorContext(final TransactionInflaters transactionInflaters, final FullNodeDatabaseManagerFactory databaseManagerFactory, final VolatileNetworkTime networkTime, final SystemTime systemTime, final TransactionValidatorFactory transactionValidatorFactory, final ThreadPool threadPool) {
         _transactionInflaters = transactionInflaters;
         _databaseManagerFactory = databaseManagerFactory;
         _networkTime = networkTime;
         _systemTime = systemTime;
         _transactionValidatorFactory = transactionValidatorFactory;
+        _threadPool = threadPool;
     }
 
     @Override
@@ -41,11 +44,21 @@ public class TransactionProcessorContext implements TransactionProcessor.Context
         return _systemTime;
     }
 
+    @Override
+    public ThreadPool getThreadPool() {
+        return _threadPool;
+    }
+
     @Override
     public TransactionValidator getTransactionValidator(final BlockOutputs blockOutputs, final TransactionValidator.Context transactionValidatorContext) {
         return _transactionValidatorFactory.getTransactionValidator(blockOutputs, transactionValidatorContext);
     }
 
+    @Override
+    public TransactionValidator getUnconfirmedTransactionValidator(final TransactionValidator.Context transactionValidatorContext) {
+        return _transactionValidatorFactory.getUnconfirmedTransactionValidator(transactionValidatorContext);
+    }
+
     @Override
     public TransactionInflater getTransactionInflater() {
         return _transactionInflaters.getTransactionInflater();
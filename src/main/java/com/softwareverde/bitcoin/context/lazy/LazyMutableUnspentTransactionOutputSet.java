@@ -2,6 +2,7 @@ package com.softwareverde.bitcoin.context.lazy;
 
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.context.core.ImmutableUnspentTransactionOutputSet;
 import com.softwareverde.bitcoin.context.core.MutableUnspentTransactionOutputSet;
 import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
@@ -117,6 +118,23 @@ public class LazyMutableUnspentTransactionOutputSet extends MutableUnspentTransa
         }
     }
 
+    /**
+     * Loads any pending outputs before copying the set.
+     *  Returns null if the pending outputs could not be loaded.
+     */
+    @Override
+    public synchronized ImmutableUnspentTransactionOutputSet asConst() {
+        synchronized (_lazyLoadTasks) {
+            if (! _lazyLoadTasks.isEmpty()) {
+                _loadOutputsForBlocks();
+            }
+
+            if (! _lazyLoadTasks.isEmpty()) { return null; } // If a task failed, then return null.
+        }
+
+        return super.asConst();
+    }
+
     @Override
     public synchronized void clear() {
         _lazyLoadTasks.clear();
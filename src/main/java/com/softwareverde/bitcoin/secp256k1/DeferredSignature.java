@@ -0,0 +1,43 @@
+package com.softwareverde.bitcoin.secp256k1;
+
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.secp256k1.Schnorr;
+import com.softwareverde.cryptography.secp256k1.key.PublicKey;
+import com.softwareverde.cryptography.secp256k1.signature.Signature;
+
+/**
+ * A signature whose verification was deferred during script execution.
+ *  The Transaction hash and input index are retained so that an invalid signature can be attributed to its input.
+ */
+public class DeferredSignature {
+    protected final Sha256Hash _transactionHash;
+    protected final Integer _transactionInputIndex;
+    protected final Signature _signature;
+    protected final PublicKey _publicKey;
+    protected final byte[] _message;
+
+    public DeferredSignature(final Sha256Hash transactionHash, final Integer transactionInputIndex, final Signature signature, final PublicKey publicKey, final byte[] message) {
+        _transactionHash = transactionHash;
+        _transactionInputIndex = transactionInputIndex;
+        _signature = signature;
+        _publicKey = publicKey;
+        _message = message;
+    }
+
+    public Sha256Hash getTransactionHash() {
+        return _transactionHash;
+    }
+
+    public Integer getTransactionInputIndex() {
+        return _transactionInputIndex;
+    }
+
+    public Boolean verify() {
+        if (_signature.getType() == Signature.Type.SCHNORR) {
+            return Schnorr.verifySignature(_signature, _publicKey, _message);
+        }
+        else {
+            return Secp256k1.verifySignature(_signature, _publicKey, _message);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.softwareverde.bitcoin.secp256k1;
+
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableList;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects the signatures deferred while executing the scripts of a Block's Transactions, so that they may be verified
+ *  together (and in parallel) once script execution is complete.
+ *  Only signatures whose failure would also fail the script may be deferred (i.e. CHECKSIGVERIFY, or CHECKSIG while NULLFAIL
+ *  is enforced), since script execution continues as if the signature were valid.
+ *  SignatureBatch is thread-safe.
+ */
+public class SignatureBatch {
+    protected final ConcurrentLinkedQueue<DeferredSignature> _deferredSignatures = new ConcurrentLinkedQueue<DeferredSignature>();
+
+    public SignatureBatch() { }
+
+    public void addSignature(final DeferredSignature deferredSignature) {
+        _deferredSignatures.add(deferredSignature);
+    }
+
+    public List<DeferredSignature> getSignatures() {
+        return new ImmutableList<DeferredSignature>(_deferredSignatures);
+    }
+
+    public Integer getSignatureCount() {
+        return _deferredSignatures.size();
+    }
+}
@@ -0,0 +1,204 @@
+package com.softwareverde.bitcoin.secp256k1;
+
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.secp256k1.Schnorr;
+import com.softwareverde.cryptography.secp256k1.key.PublicKey;
+import com.softwareverde.cryptography.secp256k1.signature.Signature;
+import com.softwareverde.cryptography.util.HashUtil;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded cache of signatures that have already been verified as valid.
+ *  Entries are the SHA-256 digest of a random salt and the (signature, public key, message) tuple; the salt is generated
+ *  per-instance so that peers cannot craft signatures that intentionally collide within the cache's buckets.
+ *  The cache is a fixed-size, set-associative table; once a bucket is full, a pseudo-random entry within that bucket is evicted.
+ *  Lookups and insertions are lock-free.  Entries may be torn by concurrent writers, but a torn entry can only match a digest
+ *  whose every word was inserted, so concurrent writes may cause cache misses but never a false-positive.
+ */
+public class SignatureCache {
+    public static final Long DEFAULT_MAX_BYTE_COUNT = (32L * 1024L * 1024L); // 32 MB
+    public static final Integer BYTES_PER_ENTRY = 32;
+
+    protected static final int LONGS_PER_ENTRY = (BYTES_PER_ENTRY / 8);
+    protected static final int ENTRIES_PER_BUCKET = 8;
+    protected static final int LONGS_PER_BUCKET = (LONGS_PER_ENTRY * ENTRIES_PER_BUCKET);
+
+    protected static long _readLong(final byte[] bytes, final int offset) {
+        long value = 0L;
+        for (int i = 0; i < 8; ++i) {
+            value = ((value << 8) | (bytes[offset + i] & 0xFFL));
+        }
+        return value;
+    }
+
+    protected final byte[] _salt = new byte[32];
+    protected final int _bucketCount;
+    protected final AtomicLongArray _entries;
+
+    protected final AtomicLong _hitCount = new AtomicLong(0L);
+    protected final AtomicLong _missCount = new AtomicLong(0L);
+
+    protected long[] _calculateDigest(final Signature signature, final PublicKey publicKey, final byte[] message) {
+        final byte[] signatureBytes = signature.encode().getBytes();
+        final byte[] publicKeyBytes = publicKey.getBytes();
+
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendBytes(_salt);
+        byteArrayBuilder.appendBytes(new byte[] { (byte) (signature.getType() == Signature.Type.SCHNORR ? 1 : 0) });
+        byteArrayBuilder.appendBytes(ByteUtil.integerToBytes(signatureBytes.length)); // Length-prefixed to prevent ambiguous concatenations...
+        byteArrayBuilder.appendBytes(signatureBytes);
+        byteArrayBuilder.appendBytes(ByteUtil.integerToBytes(publicKeyBytes.length));
+        byteArrayBuilder.appendBytes(publicKeyBytes);
+        byteArrayBuilder.appendBytes(message);
+
+        final byte[] hash = HashUtil.sha256(byteArrayBuilder.build());
+
+        final long[] digest = new long[LONGS_PER_ENTRY];
+        for (int i = 0; i < LONGS_PER_ENTRY; ++i) {
+            digest[i] = _readLong(hash, (i * 8));
+        }
+        return digest;
+    }
+
+    protected int _getBucketOffset(final long[] digest) {
+        final int bucketIndex = (int) ((digest[0] >>> 1) % _bucketCount);
+        return (bucketIndex * LONGS_PER_BUCKET);
+    }
+
+    protected boolean _entryEquals(final int entryOffset, final long[] digest) {
+        for (int i = 0; i < LONGS_PER_ENTRY; ++i) {
+            if (_entries.get(entryOffset + i) != digest[i]) { return false; }
+        }
+        return true;
+    }
+
+    protected boolean _isEntryEmpty(final int entryOffset) {
+        for (int i = 0; i < LONGS_PER_ENTRY; ++i) {
+            if (_entries.get(entryOffset + i) != 0L) { return false; }
+        }
+        return true;
+    }
+
+    protected boolean _contains(final long[] digest) {
+        final int bucketOffset = _getBucketOffset(digest);
+        for (int i = 0; i < ENTRIES_PER_BUCKET; ++i) {
+            final int entryOffset = (bucketOffset + (i * LONGS_PER_ENTRY));
+            if (_entryEquals(entryOffset, digest)) { return true; }
+        }
+        return false;
+    }
+
+    protected void _add(final long[] digest) {
+        final int bucketOffset = _getBucketOffset(digest);
+
+        Integer emptyEntryOffset = null;
+        for (int i = 0; i < ENTRIES_PER_BUCKET; ++i) {
+            final int entryOffset = (bucketOffset + (i * LONGS_PER_ENTRY));
+            if (_entryEquals(entryOffset, digest)) { return; }
+
+            if ( (emptyEntryOffset == null) && _isEntryEmpty(entryOffset) ) {
+                emptyEntryOffset = entryOffset;
+            }
+        }
+
+        final int entryOffset;
+        if (emptyEntryOffset != null) {
+            entryOffset = emptyEntryOffset;
+        }
+        else { // Evict an entry; the digest is salted, so its unused bits are a sufficient source of randomness...
+            final int evictedEntryIndex = (int) ((digest[1] >>> 1) % ENTRIES_PER_BUCKET);
+            entryOffset = (bucketOffset + (evictedEntryIndex * LONGS_PER_ENTRY));
+        }
+
+        for (int i = 0; i < LONGS_PER_ENTRY; ++i) {
+            _entries.set((entryOffset + i), digest[i]);
+        }
+    }
+
+    public SignatureCache() {
+        this(DEFAULT_MAX_BYTE_COUNT);
+    }
+
+    /**
+     * Creates a SignatureCache that uses approximately maxByteCount bytes of memory.
+     *  The cache always contains at least one bucket.
+     */
+    public SignatureCache(final Long maxByteCount) {
+        final long maxBucketCount = (Integer.MAX_VALUE / LONGS_PER_BUCKET);
+        final long bucketCount = (maxByteCount / (BYTES_PER_ENTRY * ENTRIES_PER_BUCKET));
+        _bucketCount = (int) Math.max(1L, Math.min(maxBucketCount, bucketCount));
+        _entries = new AtomicLongArray(_bucketCount * LONGS_PER_BUCKET);
+
+        final SecureRandom secureRandom = new SecureRandom();
+        secureRandom.nextBytes(_salt);
+    }
+
+    /**
+     * Returns true if the signature is valid for the publicKey and message.
+     *  If the signature has been previously cached then the (expensive) signature verification is skipped.
+     *  If shouldCacheValidSignature is true and the signature is valid, the signature is added to the cache.
+     *  Invalid signatures are never cached.
+     */
+    public Boolean verifySignature(final Signature signature, final PublicKey publicKey, final byte[] message, final Boolean shouldCacheValidSignature) {
+        final long[] digest = _calculateDigest(signature, publicKey, message);
+        if (_contains(digest)) {
+            _hitCount.incrementAndGet();
+            return true;
+        }
+        _missCount.incrementAndGet();
+
+        final Boolean signatureIsValid;
+        if (signature.getType() == Signature.Type.SCHNORR) {
+            signatureIsValid = Schnorr.verifySignature(signature, publicKey, message);
+        }
+        else {
+            signatureIsValid = Secp256k1.verifySignature(signature, publicKey, message);
+        }
+
+        if (signatureIsValid && shouldCacheValidSignature) {
+            _add(digest);
+        }
+
+        return signatureIsValid;
+    }
+
+    /**
+     * Returns true if the signature has been cached as valid for the publicKey and message.
+     *  The signature is not verified.
+     */
+    public Boolean isSignatureCached(final Signature signature, final PublicKey publicKey, final byte[] message) {
+        final long[] digest = _calculateDigest(signature, publicKey, message);
+        if (_contains(digest)) {
+            _hitCount.incrementAndGet();
+            return true;
+        }
+
+        _missCount.incrementAndGet();
+        return false;
+    }
+
+    public Long getHitCount() {
+        return _hitCount.get();
+    }
+
+    public Long getMissCount() {
+        return _missCount.get();
+    }
+
+    public Long getMaxByteCount() {
+        return (((long) _bucketCount) * ENTRIES_PER_BUCKET * BYTES_PER_ENTRY);
+    }
+
+    public void clear() {
+        final int longCount = _entries.length();
+        for (int i = 0; i < longCount; ++i) {
+            _entries.set(i, 0L);
+        }
+        _hitCount.set(0L);
+        _missCount.set(0L);
+    }
+}
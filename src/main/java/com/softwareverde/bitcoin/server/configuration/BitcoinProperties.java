@@ -8,6 +8,10 @@ public class BitcoinProperties {
     public static final String DATA_DIRECTORY_NAME = "network";
     public static final Integer PORT = 8333;
     public static final Integer RPC_PORT = 8334;
+    public static final String DATABASE_UTXO_STORE = "database";
+    public static final String MAPPED_UTXO_STORE = "mmap";
+    public static final String DATABASE_MEMORY_POOL_STORE = "database";
+    public static final String JVM_MEMORY_POOL_STORE = "memory";
 
     protected Integer _bitcoinPort;
     protected Integer _bitcoinRpcPort;
@@ -19,11 +23,17 @@ public class BitcoinProperties {
     protected Integer _minPeerCount;
     protected Integer _maxPeerCount;
     protected Integer _maxThreadCount;
+    protected Integer _networkThreadCount;
     protected Long _trustedBlockHeight;
     protected Boolean _shouldSkipNetworking;
     protected Long _maxUtxoCacheByteCount;
     protected Long _utxoCommitFrequency;
+    protected Long _utxoIncrementalCommitFrequency;
     protected Float _utxoPurgePercent;
+    protected Boolean _bulkUtxoCommitIsEnabled;
+    protected String _utxoStore;
+    protected String _memoryPoolStore;
+    protected Long _maxSignatureCacheByteCount;
     protected Boolean _bootstrapIsEnabled;
     protected Boolean _shouldReIndexPendingBlocks;
     protected Boolean _indexingModeIsEnabled;
@@ -31,6 +41,9 @@ public class BitcoinProperties {
     protected String _dataDirectory;
     protected Boolean _shouldRelayInvalidSlpTransactions;
     protected Boolean _deletePendingBlocksIsEnabled;
+    protected Boolean _blockCompressionIsEnabled;
+    protected String _utxoSnapshotFile;
+    protected String _utxoSnapshotHash;
     protected String _logDirectory;
     protected LogLevel _logLevel;
 
@@ -44,9 +57,13 @@ public class BitcoinProperties {
     public Integer getMinPeerCount() { return _minPeerCount; }
     public Integer getMaxPeerCount() { return _maxPeerCount; }
     public Integer getMaxThreadCount() { return _maxThreadCount; }
+    public Integer getNetworkThreadCount() { return _networkThreadCount; } // Zero disables the SocketSelector, using a dedicated read thread per peer.
     public Long getTrustedBlockHeight() { return _trustedBlockHeight; }
     public Boolean skipNetworking() { return _shouldSkipNetworking; }
     public Boolean isDeletePendingBlocksEnabled() { return _deletePendingBlocksIsEnabled; }
+    public Boolean isBlockCompressionEnabled() { return _blockCompressionIsEnabled; } // Only affects Blocks stored after it is enabled.
+    public String getUtxoSnapshotFile() { return _utxoSnapshotFile; } // May be null if unset.
+    public String getUtxoSnapshotHash() { return _utxoSnapshotHash; } // The snapshot is only loaded if its hash matches.
     public String getLogDirectory() { return _logDirectory; }
     public LogLevel getLogLevel() { return _logLevel; }
 
@@ -56,7 +73,12 @@ public class BitcoinProperties {
         return (maxUtxoCacheWithDoubleBufferByteCount / UnspentTransactionOutputDatabaseManager.BYTES_PER_UTXO);
     }
     public Long getUtxoCacheCommitFrequency() { return _utxoCommitFrequency; }
+    public Long getUtxoIncrementalCommitFrequency() { return _utxoIncrementalCommitFrequency; } // Zero disables incremental commits.
     public Float getUtxoCachePurgePercent() { return _utxoPurgePercent; }
+    public Boolean isBulkUtxoCommitEnabled() { return _bulkUtxoCommitIsEnabled; } // Only enabled when using the embedded database.
+    public String getUtxoStore() { return _utxoStore; } // Either DATABASE_UTXO_STORE or MAPPED_UTXO_STORE.
+    public String getMemoryPoolStore() { return _memoryPoolStore; } // Either DATABASE_MEMORY_POOL_STORE or JVM_MEMORY_POOL_STORE.
+    public Long getMaxSignatureCacheByteCount() { return _maxSignatureCacheByteCount; } // Zero disables the signature cache.
 
     public Boolean isIndexingModeEnabled() { return _indexingModeIsEnabled; }
     public Integer getMaxMessagesPerSecond() { return _maxMessagesPerSecond; }
@@ -6,7 +6,7 @@ import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.util.Util;
 
 public class BitcoinConstants {
-    protected static final Integer DATABASE_VERSION = 3;
+    protected static final Integer DATABASE_VERSION = 4;
 
     private static final String LOCKED_ERROR_MESSAGE = "Attempting to set SystemProperty after initialization.";
     private static Boolean LOCKED = false;
@@ -13,6 +13,12 @@ import com.softwareverde.bitcoin.server.message.type.bloomfilter.update.UpdateTr
 import com.softwareverde.bitcoin.server.message.type.bloomfilter.update.UpdateTransactionBloomFilterMessageInflater;
 import com.softwareverde.bitcoin.server.message.type.compact.EnableCompactBlocksMessage;
 import com.softwareverde.bitcoin.server.message.type.compact.EnableCompactBlocksMessageInflater;
+import com.softwareverde.bitcoin.server.message.type.compact.block.CompactBlockMessage;
+import com.softwareverde.bitcoin.server.message.type.compact.block.CompactBlockMessageInflater;
+import com.softwareverde.bitcoin.server.message.type.compact.request.RequestCompactBlockTransactionsMessage;
+import com.softwareverde.bitcoin.server.message.type.compact.request.RequestCompactBlockTransactionsMessageInflater;
+import com.softwareverde.bitcoin.server.message.type.compact.transaction.CompactBlockTransactionsMessage;
+import com.softwareverde.bitcoin.server.message.type.compact.transaction.CompactBlockTransactionsMessageInflater;
 import com.softwareverde.bitcoin.server.message.type.error.ErrorMessage;
 import com.softwareverde.bitcoin.server.message.type.error.ErrorMessageInflater;
 import com.softwareverde.bitcoin.server.message.type.node.address.BitcoinNodeIpAddressMessage;
@@ -97,6 +103,9 @@ public class BitcoinProtocolMessageFactory implements ProtocolMessageFactory {
         _commandInflaterMap.put(MessageType.ENABLE_NEW_BLOCKS_VIA_HEADERS, new NewBlocksViaHeadersMessageInflater());
         _commandInflaterMap.put(MessageType.REQUEST_DATA, new RequestDataMessageInflater(_masterInflater));
         _commandInflaterMap.put(MessageType.ENABLE_COMPACT_BLOCKS, new EnableCompactBlocksMessageInflater());
+        _commandInflaterMap.put(MessageType.COMPACT_BLOCK, new CompactBlockMessageInflater(_masterInflater, _masterInflater));
+        _commandInflaterMap.put(MessageType.REQUEST_COMPACT_BLOCK_TRANSACTIONS, new RequestCompactBlockTransactionsMessageInflater());
+        _commandInflaterMap.put(MessageType.COMPACT_BLOCK_TRANSACTIONS, new CompactBlockTransactionsMessageInflater(_masterInflater));
         _commandInflaterMap.put(MessageType.REQUEST_EXTRA_THIN_BLOCK, new RequestExtraThinBlockMessageInflater(_masterInflater, _masterInflater));
         _commandInflaterMap.put(MessageType.EXTRA_THIN_BLOCK, new ExtraThinBlockMessageInflater(_masterInflater, _masterInflater));
         _commandInflaterMap.put(MessageType.REQUEST_EXTRA_THIN_TRANSACTIONS, new RequestExtraThinTransactionsMessageInflater());
@@ -212,6 +221,18 @@ public class BitcoinProtocolMessageFactory implements ProtocolMessageFactory {
         return new EnableCompactBlocksMessage();
     }
 
+    public CompactBlockMessage newCompactBlockMessage() {
+        return new CompactBlockMessage(_masterInflater, _masterInflater);
+    }
+
+    public RequestCompactBlockTransactionsMessage newRequestCompactBlockTransactionsMessage() {
+        return new RequestCompactBlockTransactionsMessage();
+    }
+
+    public CompactBlockTransactionsMessage newCompactBlockTransactionsMessage() {
+        return new CompactBlockTransactionsMessage(_masterInflater);
+    }
+
     public RequestExtraThinBlockMessage newRequestExtraThinBlockMessage() {
         return new RequestExtraThinBlockMessage(_masterInflater);
     }
@@ -32,6 +32,9 @@ public class MessageType {
 
     public static final MessageType ENABLE_NEW_BLOCKS_VIA_HEADERS = new MessageType("sendheaders");
     public static final MessageType ENABLE_COMPACT_BLOCKS = new MessageType("sendcmpct");
+    public static final MessageType COMPACT_BLOCK = new MessageType("cmpctblock", true);
+    public static final MessageType REQUEST_COMPACT_BLOCK_TRANSACTIONS = new MessageType("getblocktxn");
+    public static final MessageType COMPACT_BLOCK_TRANSACTIONS = new MessageType("blocktxn", true);
 
     public static final MessageType REQUEST_EXTRA_THIN_BLOCK = new MessageType("get_xthin");
     public static final MessageType EXTRA_THIN_BLOCK = new MessageType("xthinblock", true);
@@ -27,6 +27,9 @@ public class MessageTypeInflater {
         messageTypes.add(MessageType.ERROR);
         messageTypes.add(MessageType.ENABLE_NEW_BLOCKS_VIA_HEADERS);
         messageTypes.add(MessageType.ENABLE_COMPACT_BLOCKS);
+        messageTypes.add(MessageType.COMPACT_BLOCK);
+        messageTypes.add(MessageType.REQUEST_COMPACT_BLOCK_TRANSACTIONS);
+        messageTypes.add(MessageType.COMPACT_BLOCK_TRANSACTIONS);
         messageTypes.add(MessageType.REQUEST_EXTRA_THIN_BLOCK);
         messageTypes.add(MessageType.EXTRA_THIN_BLOCK);
         messageTypes.add(MessageType.THIN_BLOCK);
@@ -7,7 +7,15 @@ import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.util.bytearray.ByteArrayBuilder;
 import com.softwareverde.util.bytearray.Endian;
 
+/**
+ * BIP152 "sendcmpct" message.
+ *  When isEnabled is true, the peer is requesting the high-bandwidth mode, in which new blocks are announced via
+ *  unsolicited cmpctblock messages; otherwise new blocks are announced via inv/headers and compact blocks are only
+ *  sent when requested.
+ */
 public class EnableCompactBlocksMessage extends BitcoinProtocolMessage {
+    public static final Integer VERSION = 1;
+
     protected Boolean _isEnabled;
     protected Integer _version;
 
@@ -34,13 +42,13 @@ public class EnableCompactBlocksMessage extends BitcoinProtocolMessage {
     @Override
     protected ByteArray _getPayload() {
         final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
-        byteArrayBuilder.appendBytes(ByteUtil.integerToBytes((_isEnabled ? 1 : 0)), Endian.LITTLE);
-        byteArrayBuilder.appendBytes(ByteUtil.integerToBytes(_version), Endian.LITTLE);
+        byteArrayBuilder.appendByte((byte) (_isEnabled ? 0x01 : 0x00));
+        byteArrayBuilder.appendBytes(ByteUtil.longToBytes(_version), Endian.LITTLE);
         return byteArrayBuilder;
     }
 
     @Override
     protected Integer _getPayloadByteCount() {
-        return 8;
+        return 9;
     }
 }
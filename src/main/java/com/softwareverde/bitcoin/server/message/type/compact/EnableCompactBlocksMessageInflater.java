@@ -15,11 +15,12 @@ public class EnableCompactBlocksMessageInflater extends BitcoinProtocolMessageIn
         final BitcoinProtocolMessageHeader protocolMessageHeader = _parseHeader(byteArrayReader, MessageType.ENABLE_COMPACT_BLOCKS);
         if (protocolMessageHeader == null) { return null; }
 
-        final Boolean isEnabled = (byteArrayReader.readInteger(4, Endian.LITTLE) > 0);
-        final Integer version = byteArrayReader.readInteger(4, Endian.LITTLE);
+        final Boolean isEnabled = (byteArrayReader.readByte() != 0x00);
+        final Long version = byteArrayReader.readLong(8, Endian.LITTLE);
+        if ( (version < 0L) || (version > Integer.MAX_VALUE) ) { return null; }
 
         enableCompactBlocksMessage.setIsEnabled(isEnabled);
-        enableCompactBlocksMessage.setVersion(version);
+        enableCompactBlocksMessage.setVersion(version.intValue());
 
         if (byteArrayReader.didOverflow()) { return null; }
 
@@ -0,0 +1,153 @@
+package com.softwareverde.bitcoin.server.message.type.compact.block;
+
+import com.softwareverde.bitcoin.block.compact.PrefilledTransaction;
+import com.softwareverde.bitcoin.block.compact.ShortTransactionIdHasher;
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.block.header.BlockHeaderDeflater;
+import com.softwareverde.bitcoin.block.header.BlockHeaderInflater;
+import com.softwareverde.bitcoin.inflater.BlockHeaderInflaters;
+import com.softwareverde.bitcoin.inflater.TransactionInflaters;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessage;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionDeflater;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+/**
+ * BIP152 "cmpctblock" message.
+ *  The block's Transactions are sent as 6-byte short ids, except for the prefilled Transactions (typically the coinbase),
+ *  which are sent in full.  Prefilled Transaction indexes are differentially encoded, as specified by BIP152.
+ */
+public class CompactBlockMessage extends BitcoinProtocolMessage {
+    protected final BlockHeaderInflaters _blockHeaderInflaters;
+    protected final TransactionInflaters _transactionInflaters;
+
+    protected BlockHeader _blockHeader;
+    protected Long _nonce = 0L;
+    protected List<Long> _shortTransactionIds = new MutableList<Long>(0);
+    protected List<PrefilledTransaction> _prefilledTransactions = new MutableList<PrefilledTransaction>(0);
+
+    public CompactBlockMessage(final BlockHeaderInflaters blockHeaderInflaters, final TransactionInflaters transactionInflaters) {
+        super(MessageType.COMPACT_BLOCK);
+
+        _blockHeaderInflaters = blockHeaderInflaters;
+        _transactionInflaters = transactionInflaters;
+    }
+
+    public BlockHeader getBlockHeader() {
+        return _blockHeader;
+    }
+
+    public Long getNonce() {
+        return _nonce;
+    }
+
+    public List<Long> getShortTransactionIds() {
+        return _shortTransactionIds;
+    }
+
+    public List<PrefilledTransaction> getPrefilledTransactions() {
+        return _prefilledTransactions;
+    }
+
+    public void setBlockHeader(final BlockHeader blockHeader) {
+        _blockHeader = blockHeader;
+    }
+
+    public void setNonce(final Long nonce) {
+        _nonce = nonce;
+    }
+
+    public void setShortTransactionIds(final List<Long> shortTransactionIds) {
+        _shortTransactionIds = shortTransactionIds.asConst();
+    }
+
+    /**
+     * Sets the prefilled Transactions of the compact block.
+     *  The PrefilledTransactions must be sorted by their index, in ascending order.
+     */
+    public void setPrefilledTransactions(final List<PrefilledTransaction> prefilledTransactions) {
+        _prefilledTransactions = prefilledTransactions.asConst();
+    }
+
+    @Override
+    protected ByteArray _getPayload() {
+        final BlockHeaderDeflater blockHeaderDeflater = _blockHeaderInflaters.getBlockHeaderDeflater();
+        final TransactionDeflater transactionDeflater = _transactionInflaters.getTransactionDeflater();
+
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+
+        { // Block Header...
+            byteArrayBuilder.appendBytes(blockHeaderDeflater.toBytes(_blockHeader));
+        }
+
+        { // Nonce...
+            byteArrayBuilder.appendBytes(ByteUtil.longToBytes(_nonce), Endian.LITTLE);
+        }
+
+        { // Short Transaction Ids...
+            final int shortTransactionIdCount = _shortTransactionIds.getCount();
+            byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(shortTransactionIdCount));
+            for (final Long shortTransactionId : _shortTransactionIds) {
+                final byte[] shortTransactionIdBytes = ByteUtil.longToBytes(shortTransactionId);
+                final int byteCount = ShortTransactionIdHasher.SHORT_TRANSACTION_ID_BYTE_COUNT;
+                byteArrayBuilder.appendBytes(ByteUtil.copyBytes(shortTransactionIdBytes, (8 - byteCount), byteCount), Endian.LITTLE);
+            }
+        }
+
+        { // Prefilled Transactions...
+            final int prefilledTransactionCount = _prefilledTransactions.getCount();
+            byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(prefilledTransactionCount));
+
+            int previousIndex = -1;
+            for (final PrefilledTransaction prefilledTransaction : _prefilledTransactions) {
+                final int index = prefilledTransaction.getIndex();
+                final Transaction transaction = prefilledTransaction.getTransaction();
+
+                byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(index - (previousIndex + 1)));
+                byteArrayBuilder.appendBytes(transactionDeflater.toBytes(transaction));
+
+                previousIndex = index;
+            }
+        }
+
+        return byteArrayBuilder;
+    }
+
+    @Override
+    protected Integer _getPayloadByteCount() {
+        final TransactionDeflater transactionDeflater = _transactionInflaters.getTransactionDeflater();
+
+        final int shortTransactionIdCount = _shortTransactionIds.getCount();
+        final byte[] shortTransactionIdCountBytes = ByteUtil.variableLengthIntegerToBytes(shortTransactionIdCount);
+
+        final int prefilledTransactionCount = _prefilledTransactions.getCount();
+        final byte[] prefilledTransactionCountBytes = ByteUtil.variableLengthIntegerToBytes(prefilledTransactionCount);
+
+        int prefilledTransactionsByteCount = 0;
+        int previousIndex = -1;
+        for (final PrefilledTransaction prefilledTransaction : _prefilledTransactions) {
+            final int index = prefilledTransaction.getIndex();
+            final Transaction transaction = prefilledTransaction.getTransaction();
+
+            prefilledTransactionsByteCount += ByteUtil.variableLengthIntegerToBytes(index - (previousIndex + 1)).length;
+            prefilledTransactionsByteCount += transactionDeflater.getByteCount(transaction);
+
+            previousIndex = index;
+        }
+
+        return (
+            BlockHeaderInflater.BLOCK_HEADER_BYTE_COUNT +
+            8 +
+            shortTransactionIdCountBytes.length +
+            (shortTransactionIdCount * ShortTransactionIdHasher.SHORT_TRANSACTION_ID_BYTE_COUNT) +
+            prefilledTransactionCountBytes.length +
+            prefilledTransactionsByteCount
+        );
+    }
+}
@@ -0,0 +1,87 @@
+package com.softwareverde.bitcoin.server.message.type.compact.block;
+
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.block.compact.PrefilledTransaction;
+import com.softwareverde.bitcoin.block.compact.ShortTransactionIdHasher;
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.block.header.BlockHeaderInflater;
+import com.softwareverde.bitcoin.inflater.BlockHeaderInflaters;
+import com.softwareverde.bitcoin.inflater.TransactionInflaters;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessageInflater;
+import com.softwareverde.bitcoin.server.message.header.BitcoinProtocolMessageHeader;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionInflater;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+public class CompactBlockMessageInflater extends BitcoinProtocolMessageInflater {
+    protected final BlockHeaderInflaters _blockHeaderInflaters;
+    protected final TransactionInflaters _transactionInflaters;
+
+    public CompactBlockMessageInflater(final BlockHeaderInflaters blockHeaderInflaters, final TransactionInflaters transactionInflaters) {
+        _blockHeaderInflaters = blockHeaderInflaters;
+        _transactionInflaters = transactionInflaters;
+    }
+
+    @Override
+    public CompactBlockMessage fromBytes(final byte[] bytes) {
+        final CompactBlockMessage compactBlockMessage = new CompactBlockMessage(_blockHeaderInflaters, _transactionInflaters);
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+
+        final BitcoinProtocolMessageHeader protocolMessageHeader = _parseHeader(byteArrayReader, MessageType.COMPACT_BLOCK);
+        if (protocolMessageHeader == null) { return null; }
+
+        final BlockHeaderInflater blockHeaderInflater = _blockHeaderInflaters.getBlockHeaderInflater();
+        final BlockHeader blockHeader = blockHeaderInflater.fromBytes(byteArrayReader);
+        if (blockHeader == null) { return null; }
+        compactBlockMessage.setBlockHeader(blockHeader);
+
+        final Long nonce = byteArrayReader.readLong(8, Endian.LITTLE);
+        compactBlockMessage.setNonce(nonce);
+
+        final Long shortTransactionIdCountLong = byteArrayReader.readVariableSizedInteger();
+        if ( (shortTransactionIdCountLong < 0L) || (shortTransactionIdCountLong > BlockInflater.MAX_TRANSACTION_COUNT) ) { return null; }
+        if (shortTransactionIdCountLong > (byteArrayReader.remainingByteCount() / ShortTransactionIdHasher.SHORT_TRANSACTION_ID_BYTE_COUNT)) { return null; }
+        final int shortTransactionIdCount = shortTransactionIdCountLong.intValue();
+
+        final ImmutableListBuilder<Long> shortTransactionIdsListBuilder = new ImmutableListBuilder<Long>(shortTransactionIdCount);
+        for (int i = 0; i < shortTransactionIdCount; ++i) {
+            final Long shortTransactionId = ByteUtil.bytesToLong(byteArrayReader.readBytes(ShortTransactionIdHasher.SHORT_TRANSACTION_ID_BYTE_COUNT, Endian.LITTLE));
+            shortTransactionIdsListBuilder.add(shortTransactionId);
+        }
+        compactBlockMessage.setShortTransactionIds(shortTransactionIdsListBuilder.build());
+
+        final Long prefilledTransactionCountLong = byteArrayReader.readVariableSizedInteger();
+        if ( (prefilledTransactionCountLong < 0L) || (prefilledTransactionCountLong > BlockInflater.MAX_TRANSACTION_COUNT) ) { return null; }
+        if (prefilledTransactionCountLong > byteArrayReader.remainingByteCount()) { return null; } // The count cannot exceed the remaining bytes...
+        final int prefilledTransactionCount = prefilledTransactionCountLong.intValue();
+
+        final long transactionCount = (((long) shortTransactionIdCount) + prefilledTransactionCount);
+        if (transactionCount > BlockInflater.MAX_TRANSACTION_COUNT) { return null; }
+
+        final TransactionInflater transactionInflater = _transactionInflaters.getTransactionInflater();
+        final ImmutableListBuilder<PrefilledTransaction> prefilledTransactionsListBuilder = new ImmutableListBuilder<PrefilledTransaction>(prefilledTransactionCount);
+        long previousIndex = -1L;
+        for (int i = 0; i < prefilledTransactionCount; ++i) {
+            final long indexOffset = byteArrayReader.readVariableSizedInteger();
+            if (indexOffset < 0L) { return null; }
+
+            final long index = (previousIndex + 1L + indexOffset);
+            if (index >= transactionCount) { return null; }
+
+            final Transaction transaction = transactionInflater.fromBytes(byteArrayReader);
+            if (transaction == null) { return null; }
+
+            prefilledTransactionsListBuilder.add(new PrefilledTransaction((int) index, transaction));
+            previousIndex = index;
+        }
+        compactBlockMessage.setPrefilledTransactions(prefilledTransactionsListBuilder.build());
+
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        return compactBlockMessage;
+    }
+}
@@ -0,0 +1,78 @@
+package com.softwareverde.bitcoin.server.message.type.compact.request;
+
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessage;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+/**
+ * BIP152 "getblocktxn" message.
+ *  Requests the Transactions at the provided indexes of a previously received compact block.
+ *  The indexes are differentially encoded, and therefore must be unique and sorted in ascending order.
+ */
+public class RequestCompactBlockTransactionsMessage extends BitcoinProtocolMessage {
+    protected Sha256Hash _blockHash;
+    protected List<Integer> _transactionIndexes = new MutableList<Integer>(0);
+
+    public RequestCompactBlockTransactionsMessage() {
+        super(MessageType.REQUEST_COMPACT_BLOCK_TRANSACTIONS);
+    }
+
+    public Sha256Hash getBlockHash() {
+        return _blockHash;
+    }
+
+    public List<Integer> getTransactionIndexes() {
+        return _transactionIndexes;
+    }
+
+    public void setBlockHash(final Sha256Hash blockHash) {
+        _blockHash = blockHash;
+    }
+
+    public void setTransactionIndexes(final List<Integer> transactionIndexes) {
+        _transactionIndexes = transactionIndexes.asConst();
+    }
+
+    @Override
+    protected ByteArray _getPayload() {
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+
+        { // Block Hash...
+            byteArrayBuilder.appendBytes(_blockHash, Endian.LITTLE);
+        }
+
+        { // Transaction Indexes...
+            final int transactionIndexCount = _transactionIndexes.getCount();
+            byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(transactionIndexCount));
+
+            int previousIndex = -1;
+            for (final Integer index : _transactionIndexes) {
+                byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(index - (previousIndex + 1)));
+                previousIndex = index;
+            }
+        }
+
+        return byteArrayBuilder;
+    }
+
+    @Override
+    protected Integer _getPayloadByteCount() {
+        final int transactionIndexCount = _transactionIndexes.getCount();
+        final byte[] transactionIndexCountBytes = ByteUtil.variableLengthIntegerToBytes(transactionIndexCount);
+
+        int transactionIndexesByteCount = 0;
+        int previousIndex = -1;
+        for (final Integer index : _transactionIndexes) {
+            transactionIndexesByteCount += ByteUtil.variableLengthIntegerToBytes(index - (previousIndex + 1)).length;
+            previousIndex = index;
+        }
+
+        return (Sha256Hash.BYTE_COUNT + transactionIndexCountBytes.length + transactionIndexesByteCount);
+    }
+}
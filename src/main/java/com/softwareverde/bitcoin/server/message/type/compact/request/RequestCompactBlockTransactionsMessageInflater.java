@@ -0,0 +1,48 @@
+package com.softwareverde.bitcoin.server.message.type.compact.request;
+
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessageInflater;
+import com.softwareverde.bitcoin.server.message.header.BitcoinProtocolMessageHeader;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.cryptography.hash.sha256.MutableSha256Hash;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.Endian;
+
+public class RequestCompactBlockTransactionsMessageInflater extends BitcoinProtocolMessageInflater {
+    @Override
+    public RequestCompactBlockTransactionsMessage fromBytes(final byte[] bytes) {
+        final RequestCompactBlockTransactionsMessage requestCompactBlockTransactionsMessage = new RequestCompactBlockTransactionsMessage();
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+
+        final BitcoinProtocolMessageHeader protocolMessageHeader = _parseHeader(byteArrayReader, MessageType.REQUEST_COMPACT_BLOCK_TRANSACTIONS);
+        if (protocolMessageHeader == null) { return null; }
+
+        final Sha256Hash blockHash = MutableSha256Hash.wrap(byteArrayReader.readBytes(32, Endian.LITTLE));
+        requestCompactBlockTransactionsMessage.setBlockHash(blockHash);
+
+        final Long transactionIndexCountLong = byteArrayReader.readVariableSizedInteger();
+        if ( (transactionIndexCountLong < 0L) || (transactionIndexCountLong > BlockInflater.MAX_TRANSACTION_COUNT) ) { return null; }
+        if (transactionIndexCountLong > byteArrayReader.remainingByteCount()) { return null; } // Each index is at least one byte...
+        final int transactionIndexCount = transactionIndexCountLong.intValue();
+
+        final ImmutableListBuilder<Integer> transactionIndexesListBuilder = new ImmutableListBuilder<Integer>(transactionIndexCount);
+        long previousIndex = -1L;
+        for (int i = 0; i < transactionIndexCount; ++i) {
+            final long indexOffset = byteArrayReader.readVariableSizedInteger();
+            if (indexOffset < 0L) { return null; }
+
+            final long index = (previousIndex + 1L + indexOffset);
+            if (index >= BlockInflater.MAX_TRANSACTION_COUNT) { return null; }
+
+            transactionIndexesListBuilder.add((int) index);
+            previousIndex = index;
+        }
+        requestCompactBlockTransactionsMessage.setTransactionIndexes(transactionIndexesListBuilder.build());
+
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        return requestCompactBlockTransactionsMessage;
+    }
+}
@@ -0,0 +1,53 @@
+package com.softwareverde.bitcoin.server.message.type.compact.transaction;
+
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.inflater.TransactionInflaters;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessageInflater;
+import com.softwareverde.bitcoin.server.message.header.BitcoinProtocolMessageHeader;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionInflater;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.cryptography.hash.sha256.MutableSha256Hash;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.Endian;
+
+public class CompactBlockTransactionsMessageInflater extends BitcoinProtocolMessageInflater {
+    protected final TransactionInflaters _transactionInflaters;
+
+    public CompactBlockTransactionsMessageInflater(final TransactionInflaters transactionInflaters) {
+        _transactionInflaters = transactionInflaters;
+    }
+
+    @Override
+    public CompactBlockTransactionsMessage fromBytes(final byte[] bytes) {
+        final CompactBlockTransactionsMessage compactBlockTransactionsMessage = new CompactBlockTransactionsMessage(_transactionInflaters);
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+
+        final BitcoinProtocolMessageHeader protocolMessageHeader = _parseHeader(byteArrayReader, MessageType.COMPACT_BLOCK_TRANSACTIONS);
+        if (protocolMessageHeader == null) { return null; }
+
+        final Sha256Hash blockHash = MutableSha256Hash.wrap(byteArrayReader.readBytes(32, Endian.LITTLE));
+        compactBlockTransactionsMessage.setBlockHash(blockHash);
+
+        final Long transactionCountLong = byteArrayReader.readVariableSizedInteger();
+        if ( (transactionCountLong < 0L) || (transactionCountLong > BlockInflater.MAX_TRANSACTION_COUNT) ) { return null; }
+        if (transactionCountLong > byteArrayReader.remainingByteCount()) { return null; } // The count cannot exceed the remaining bytes...
+        final int transactionCount = transactionCountLong.intValue();
+
+        final TransactionInflater transactionInflater = _transactionInflaters.getTransactionInflater();
+        final ImmutableListBuilder<Transaction> transactionListBuilder = new ImmutableListBuilder<Transaction>(transactionCount);
+        for (int i = 0; i < transactionCount; ++i) {
+            final Transaction transaction = transactionInflater.fromBytes(byteArrayReader);
+            if (transaction == null) { return null; }
+
+            transactionListBuilder.add(transaction);
+        }
+        compactBlockTransactionsMessage.setTransactions(transactionListBuilder.build());
+
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        return compactBlockTransactionsMessage;
+    }
+}
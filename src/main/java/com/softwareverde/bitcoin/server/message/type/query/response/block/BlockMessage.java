@@ -12,6 +12,7 @@ public class BlockMessage extends BitcoinProtocolMessage {
 
     protected final BlockInflaters _blockInflaters;
     protected Block _block;
+    protected ByteArray _blockBytes;
 
     public BlockMessage(final BlockInflaters blockInflaters) {
         super(MessageType.BLOCK);
@@ -25,10 +26,25 @@ public class BlockMessage extends BitcoinProtocolMessage {
 
     public void setBlock(final Block block) {
         _block = block;
+        _blockBytes = null;
+    }
+
+    /**
+     * Sets the already-serialized Block as the message's payload.
+     *  The bytes are transmitted as-is, which avoids inflating and re-deflating Blocks that are served directly from disk.
+     *  BlockMessage::getBlock returns null for messages constructed this way.
+     */
+    public void setBlockBytes(final ByteArray blockBytes) {
+        _blockBytes = blockBytes;
+        _block = null;
     }
 
     @Override
     protected ByteArray _getPayload() {
+        if (_blockBytes != null) {
+            return _blockBytes;
+        }
+
         if (_block == null) {
             return new MutableByteArray(0);
         }
@@ -39,6 +55,7 @@ public class BlockMessage extends BitcoinProtocolMessage {
 
     @Override
     protected Integer _getPayloadByteCount() {
+        if (_blockBytes != null) { return _blockBytes.getByteCount(); }
         if (_block == null) { return 0; }
 
         return _block.getByteCount();
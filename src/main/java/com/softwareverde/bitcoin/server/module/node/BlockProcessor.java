@@ -35,6 +35,9 @@ import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDa
 import com.softwareverde.bitcoin.server.module.node.database.indexer.BlockchainIndexerDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.TransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManagerCore;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.mempool.MemoryPool;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.BlockUndoData;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputManager;
 import com.softwareverde.bitcoin.server.module.node.store.BlockStore;
@@ -42,10 +45,12 @@ import com.softwareverde.bitcoin.server.module.node.sync.blockloader.BlockLoader
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.bitcoin.transaction.validator.BlockOutputs;
+import com.softwareverde.bitcoin.transaction.validator.ScriptExecutionCache;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidationResult;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidator;
 import com.softwareverde.concurrent.Pin;
 import com.softwareverde.concurrent.pool.SimpleThreadPool;
+import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
@@ -55,6 +60,7 @@ import com.softwareverde.logging.Logger;
 import com.softwareverde.network.time.VolatileNetworkTime;
 import com.softwareverde.util.Container;
 import com.softwareverde.util.RotatingQueue;
+import com.softwareverde.util.Util;
 import com.softwareverde.util.timer.MilliTimer;
 import com.softwareverde.util.timer.NanoTimer;
 
@@ -92,8 +98,12 @@ public class BlockProcessor {
     protected final Container<Float> _averageTransactionsPerSecond = new Container<Float>(0F);
 
     protected Long _utxoCommitFrequency = 2016L;
+    protected Long _utxoIncrementalCommitFrequency = 0L;
     protected Integer _maxThreadCount = 4;
     protected Long _trustedBlockHeight = 0L;
+    protected Long _utxoSnapshotBlockHeight = 0L;
+    protected Sha256Hash _utxoSnapshotBlockHash = null;
+    protected ScriptExecutionCache _scriptExecutionCache = null;
 
     protected final Long _startTime;
 
@@ -112,10 +122,35 @@ public class BlockProcessor {
         _utxoCommitFrequency = utxoCommitFrequency;
     }
 
+    /**
+     * Sets the number of blocks between incremental UTXO commits; zero disables incremental commits.
+     *  See UnspentTransactionOutputManager.
+     */
+    public void setUtxoIncrementalCommitFrequency(final Long utxoIncrementalCommitFrequency) {
+        _utxoIncrementalCommitFrequency = utxoIncrementalCommitFrequency;
+    }
+
     public void setTrustedBlockHeight(final Long trustedBlockHeight) {
         _trustedBlockHeight = trustedBlockHeight;
     }
 
+    /**
+     * Sets the height and hash of the Block the UTXO set was loaded from (see UtxoSnapshotManager).
+     *  Blocks at or below this height precede the UTXO set; they are stored, but are not validated against nor applied to the UTXO set.
+     *  Those Blocks are instead validated in the background by UtxoSnapshotValidator.
+     */
+    public void setUtxoSnapshotBlock(final Long utxoSnapshotBlockHeight, final Sha256Hash utxoSnapshotBlockHash) {
+        _utxoSnapshotBlockHeight = Util.coalesce(utxoSnapshotBlockHeight, 0L);
+        _utxoSnapshotBlockHash = utxoSnapshotBlockHash;
+    }
+
+    /**
+     * Sets the ScriptExecutionCache that is cleared whenever the head Block is switched to a different chain.
+     */
+    public void setScriptExecutionCache(final ScriptExecutionCache scriptExecutionCache) {
+        _scriptExecutionCache = scriptExecutionCache;
+    }
+
     protected static class ProcessBlockHeaderResult {
         protected final BlockId _blockId;
         protected final Long _blockHeight;
@@ -196,11 +231,35 @@ public class BlockProcessor {
         }
     }
 
+    /**
+     * Loads the Block's undo data from the BlockStore.
+     *  Returns null if the undo data was not stored or is corrupt, in which case the spent UTXOs must be restored from their originating Transactions.
+     */
+    protected BlockUndoData _getBlockUndoData(final BlockStore blockStore, final Block block, final Long blockHeight) {
+        if (blockStore == null) { return null; }
+
+        final Sha256Hash blockHash = block.getHash();
+        final ByteArray blockUndoDataBytes = blockStore.getBlockUndoData(blockHash, blockHeight);
+        if (blockUndoDataBytes == null) { return null; }
+
+        final BlockUndoData blockUndoData = BlockUndoData.fromBytes(blockUndoDataBytes, BlockUndoData.getSpentTransactionOutputIdentifiers(block));
+        if (blockUndoData == null) {
+            Logger.debug("Unable to inflate undo data for Block: " + blockHash);
+        }
+        return blockUndoData;
+    }
+
     protected void _switchHeadBlock(final DatabaseManagerFactory databaseManagerFactory, final FullNodeDatabaseManager databaseManager, final Long blockHeight, final BlockId blockId, final Block block, final BlockId originalHeadBlockId, final BlockchainSegmentId newHeadBlockchainSegmentId, final VolatileNetworkTime networkTime) throws DatabaseException {
         final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
         final FullNodeBlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
         final FullNodeTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
-        final UnspentTransactionOutputManager unspentTransactionOutputManager = new UnspentTransactionOutputManager(databaseManager, _utxoCommitFrequency);
+        final UnspentTransactionOutputManager unspentTransactionOutputManager = new UnspentTransactionOutputManager(databaseManager, _utxoCommitFrequency, _utxoIncrementalCommitFrequency);
+        final BlockStore blockStore = _context.getBlockStore();
+
+        final ScriptExecutionCache scriptExecutionCache = _scriptExecutionCache;
+        if (scriptExecutionCache != null) { // Cached script executions were validated against the old chain's upgrade schedule...
+            scriptExecutionCache.clear();
+        }
 
         BlockId nextBlockId;
         final MilliTimer timer = new MilliTimer();
@@ -220,7 +279,8 @@ public class BlockProcessor {
 
                 { // Remove UTXOs from the UTXO set, and re-add spent UTXOs...
                     Logger.trace("Removing Block from UTXO Set: " + nextBlock.getHash() + " @ " + undoBlockHeight);
-                    unspentTransactionOutputManager.removeBlockFromUtxoSet(nextBlock, undoBlockHeight);
+                    final BlockUndoData blockUndoData = _getBlockUndoData(blockStore, nextBlock, undoBlockHeight);
+                    unspentTransactionOutputManager.removeBlockFromUtxoSet(nextBlock, undoBlockHeight, blockUndoData);
                 }
 
                 { // Add non-coinbase transactions to the mempool...
@@ -319,7 +379,7 @@ public class BlockProcessor {
             @Override
             public void run() {
                 try {
-                    final UnspentTransactionOutputManager unspentTransactionOutputManager = new UnspentTransactionOutputManager(databaseManager, _utxoCommitFrequency);
+                    final UnspentTransactionOutputManager unspentTransactionOutputManager = new UnspentTransactionOutputManager(databaseManager, _utxoCommitFrequency, _utxoIncrementalCommitFrequency);
                     unspentTransactionOutputManager.applyBlockToUtxoSet(block, blockHeight, _context.getDatabaseManagerFactory());
                 }
                 catch (final DatabaseException exception) {
@@ -389,11 +449,23 @@ public class BlockProcessor {
             }
         }
 
+        final boolean blockPrecedesUtxoSet = (blockIsConnectedToUtxoSet && (blockHeight <= _utxoSnapshotBlockHeight));
+        if (blockPrecedesUtxoSet && (_utxoSnapshotBlockHash != null) && Util.areEqual(blockHeight, _utxoSnapshotBlockHeight)) {
+            if (! Util.areEqual(_utxoSnapshotBlockHash, blockHash)) {
+                Logger.warn("Block " + blockHash + " does not match the UTXO snapshot Block " + _utxoSnapshotBlockHash + ".");
+                return ProcessBlockResult.invalid(block, blockHeight, "Block does not match the UTXO snapshot.");
+            }
+        }
+
         TransactionUtil.startTransaction(databaseConnection);
         {
             final UnspentTransactionOutputContext unspentTransactionOutputContext;
             {
-                if ( blockIsConnectedToUtxoSet && (preLoadedUnspentTransactionOutputContext != null) ) {
+                if (blockPrecedesUtxoSet) { // The outputs spent by Blocks preceding the loaded UTXO snapshot are not available...
+                    unspentTransactionOutputContext = new MutableUnspentTransactionOutputSet();
+                    Logger.debug("Skipping UTXOs for blockHeight preceding UTXO snapshot: " + blockHeight);
+                }
+                else if ( blockIsConnectedToUtxoSet && (preLoadedUnspentTransactionOutputContext != null) ) {
                     unspentTransactionOutputContext = preLoadedUnspentTransactionOutputContext;
                     Logger.debug("Using preLoadedUnspentTransactionOutputs for blockHeight: " + blockHeight);
                 }
@@ -422,7 +494,7 @@ public class BlockProcessor {
                 }
 
                 blockValidator.setMaxThreadCount(_maxThreadCount);
-                blockValidator.setTrustedBlockHeight(_trustedBlockHeight);
+                blockValidator.setTrustedBlockHeight(Math.max(_trustedBlockHeight, _utxoSnapshotBlockHeight));
                 blockValidator.setShouldLogValidBlocks(true);
 
                 blockValidationTimer.start();
@@ -448,7 +520,7 @@ public class BlockProcessor {
                 final DatabaseConnectionFactory databaseConnectionFactory = databaseManagerFactory.getDatabaseConnectionFactory();
 
                 final AsyncFuture utxoFuture;
-                if (blockIsConnectedToUtxoSet && (blockHeight > 0L)) { // Maintain the UTXO (Unspent Transaction Output) set (and exclude UTXOs from the genesis block)...
+                if (blockIsConnectedToUtxoSet && (! blockPrecedesUtxoSet) && (blockHeight > 0L)) { // Maintain the UTXO (Unspent Transaction Output) set (and exclude UTXOs from the genesis block)...
                     Logger.debug("Applying " + blockHash + " @ " + blockHeight + " to UTXO set.");
                     utxoFuture = _applyBlockToUtxoSetAsync(blockHeight, block, databaseManager);
                 }
@@ -462,6 +534,16 @@ public class BlockProcessor {
                 if (transactionsStoredSuccessfully) {
                     if (blockStore != null) {
                         blockStore.storeBlock(block, blockHeight);
+
+                        if ( (blockHeight > 0L) && (! blockPrecedesUtxoSet) ) { // Record the coins spent by the Block so that it may be disconnected without consulting the originating Transactions...
+                            final BlockUndoData blockUndoData = BlockUndoData.fromBlock(block, blockHeight, unspentTransactionOutputContext);
+                            if (blockUndoData != null) {
+                                blockStore.storeBlockUndoData(blockHash, blockHeight, blockUndoData.getBytes());
+                            }
+                            else {
+                                Logger.warn("Unable to create undo data for Block: " + blockHash + " @ " + blockHeight);
+                            }
+                        }
                     }
                 }
                 else {
@@ -596,6 +678,11 @@ public class BlockProcessor {
             Logger.info("Error validating Block: " + blockHash, exception);
             UnspentTransactionOutputManager.invalidateUncommittedUtxoSet(); // Mark the UTXO set as broken/invalid.
 
+            final MemoryPool memoryPool = FullNodeTransactionDatabaseManagerCore.getMemoryPool();
+            if (memoryPool != null) { // The MemoryPool is not rolled back with the database, so it may reflect a chain that was never committed...
+                memoryPool.clear();
+            }
+
             try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
                 final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
                 final BlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
@@ -606,7 +693,7 @@ public class BlockProcessor {
                     headBlockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(newHeadBlockId);
                 }
 
-                final UnspentTransactionOutputManager unspentTransactionOutputManager = new UnspentTransactionOutputManager(databaseManager, _utxoCommitFrequency);
+                final UnspentTransactionOutputManager unspentTransactionOutputManager = new UnspentTransactionOutputManager(databaseManager, _utxoCommitFrequency, _utxoIncrementalCommitFrequency);
 
                 unspentTransactionOutputManager.clearUncommittedUtxoSet(); // Clear the UTXO set's invalidation state before rebuilding.
 
@@ -632,6 +719,42 @@ public class BlockProcessor {
         }
     }
 
+    /**
+     * Speculatively executes the scripts of a Block that has not been processed yet, typically while its predecessors are still being processed.
+     *  Successful script executions are cached within the ScriptExecutionCache so that the Block's eventual validation via BlockProcessor::processBlock
+     *  does not execute them again; the result of prevalidation is never used to accept or reject the Block.
+     * The UnspentTransactionOutputContext must include every output spent by the block, including the outputs created by its unprocessed predecessors.
+     */
+    public void prevalidateBlock(final Block block, final Long blockHeight, final UnspentTransactionOutputContext unspentTransactionOutputContext) {
+        if (_scriptExecutionCache == null) { return; }
+        if (blockHeight <= Math.max(_trustedBlockHeight, _utxoSnapshotBlockHeight)) { return; } // Scripts are not executed for trusted blocks...
+
+        final FullNodeDatabaseManagerFactory databaseManagerFactory = _context.getDatabaseManagerFactory();
+        try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+
+            final BlockId blockId = blockHeaderDatabaseManager.getBlockHeaderId(block.getHash());
+            if (blockId == null) { return; }
+
+            final BlockchainSegmentId blockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(blockId);
+
+            final TransactionInflaters transactionInflaters = _context;
+            final VolatileNetworkTime networkTime = _context.getNetworkTime();
+            final MedianBlockTimeContext medianBlockTimeContext = new CachingMedianBlockTimeContext(blockchainSegmentId, databaseManager);
+            final TransactionValidatorContext transactionValidatorContext = new TransactionValidatorContext(transactionInflaters, networkTime, medianBlockTimeContext, unspentTransactionOutputContext);
+            final TransactionValidator transactionValidator = _transactionValidatorFactory.getSpeculativeTransactionValidator(BlockOutputs.fromBlock(block), transactionValidatorContext);
+
+            final List<Transaction> transactions = block.getTransactions();
+            for (int i = 1; i < transactions.getCount(); ++i) { // Exclude the coinbase...
+                final Transaction transaction = transactions.get(i);
+                transactionValidator.validateTransaction(blockHeight, transaction);
+            }
+        }
+        catch (final DatabaseException exception) {
+            Logger.debug(exception);
+        }
+    }
+
     public Container<Float> getAverageTransactionsPerSecondContainer() {
         return _averageTransactionsPerSecond;
     }
@@ -2,10 +2,15 @@ package com.softwareverde.bitcoin.server.module.node;
 
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bloomfilter.BloomFilter;
+import com.softwareverde.constable.list.List;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 
+import java.util.Map;
+
 public interface MemoryPoolEnquirer {
     BloomFilter getBloomFilter(Sha256Hash blockHash);
     Integer getMemoryPoolTransactionCount();
     Transaction getTransaction(Sha256Hash transactionHash);
+    List<Sha256Hash> getTransactionHashes();
+    Map<Sha256Hash, Transaction> getTransactions(List<Sha256Hash> transactionHashes);
 }
@@ -3,10 +3,12 @@ package com.softwareverde.bitcoin.server.module.node;
 import com.softwareverde.bitcoin.CoreInflater;
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.compact.CompactBlockAssembler;
 import com.softwareverde.bitcoin.block.header.BlockHeader;
 import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
 import com.softwareverde.bitcoin.context.TransactionOutputIndexerContext;
 import com.softwareverde.bitcoin.context.TransactionValidatorFactory;
+import com.softwareverde.bitcoin.context.UnspentTransactionOutputContext;
 import com.softwareverde.bitcoin.context.core.BlockDownloaderContext;
 import com.softwareverde.bitcoin.context.core.BlockProcessorContext;
 import com.softwareverde.bitcoin.context.core.BlockchainBuilderContext;
@@ -17,6 +19,7 @@ import com.softwareverde.bitcoin.inflater.BlockHeaderInflaters;
 import com.softwareverde.bitcoin.inflater.BlockInflaters;
 import com.softwareverde.bitcoin.inflater.MasterInflater;
 import com.softwareverde.bitcoin.inflater.TransactionInflaters;
+import com.softwareverde.bitcoin.secp256k1.SignatureCache;
 import com.softwareverde.bitcoin.server.Environment;
 import com.softwareverde.bitcoin.server.State;
 import com.softwareverde.bitcoin.server.configuration.BitcoinProperties;
@@ -36,6 +39,7 @@ import com.softwareverde.bitcoin.server.module.node.database.block.BlockDatabase
 import com.softwareverde.bitcoin.server.module.node.database.block.BlockRelationship;
 import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.fullnode.FullNodeBlockHeaderDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.block.pending.fullnode.FullNodePendingBlockDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
@@ -43,14 +47,24 @@ import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDa
 import com.softwareverde.bitcoin.server.module.node.database.node.BitcoinNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.node.fullnode.FullNodeBitcoinNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManagerCore;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.mempool.MemoryPool;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputJvmManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot.UtxoSnapshotManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot.UtxoSnapshotValidator;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.store.CommittedUtxoStore;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.store.MappedUtxoStore;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.pending.PendingTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.pending.orphan.OrphanPool;
 import com.softwareverde.bitcoin.server.module.node.handler.BlockInventoryMessageHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.MemoryPoolEnquirerHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.RequestDataHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.SpvUnconfirmedTransactionsHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.SynchronizationStatusHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.block.RequestBlockHashesHandler;
+import com.softwareverde.bitcoin.server.module.node.handler.block.RequestCompactBlockTransactionsHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.block.RequestBlockHeadersHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.block.RequestSpvBlocksHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.transaction.QueryUnconfirmedTransactionsHandler;
@@ -72,6 +86,7 @@ import com.softwareverde.bitcoin.server.module.node.rpc.handler.QueryBlockchainH
 import com.softwareverde.bitcoin.server.module.node.rpc.handler.RpcDataHandler;
 import com.softwareverde.bitcoin.server.module.node.rpc.handler.ServiceInquisitor;
 import com.softwareverde.bitcoin.server.module.node.rpc.handler.ShutdownHandler;
+import com.softwareverde.bitcoin.server.module.node.rpc.handler.SignatureCacheInquisitor;
 import com.softwareverde.bitcoin.server.module.node.rpc.handler.ThreadPoolInquisitor;
 import com.softwareverde.bitcoin.server.module.node.rpc.handler.UtxoCacheHandler;
 import com.softwareverde.bitcoin.server.module.node.store.PendingBlockStoreCore;
@@ -95,6 +110,7 @@ import com.softwareverde.bitcoin.server.node.BitcoinNodeFactory;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.bitcoin.transaction.validator.BlockOutputs;
+import com.softwareverde.bitcoin.transaction.validator.ScriptExecutionCache;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidator;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidatorCore;
 import com.softwareverde.concurrent.pool.MainThreadPool;
@@ -116,6 +132,7 @@ import com.softwareverde.network.p2p.node.address.NodeIpAddress;
 import com.softwareverde.network.socket.BinarySocket;
 import com.softwareverde.network.socket.BinarySocketServer;
 import com.softwareverde.network.socket.JsonSocketServer;
+import com.softwareverde.network.socket.SocketSelector;
 import com.softwareverde.network.time.MutableNetworkTime;
 import com.softwareverde.util.Util;
 import com.softwareverde.util.timer.MilliTimer;
@@ -143,6 +160,7 @@ public class NodeModule {
 
     protected final BitcoinNodeManager _bitcoinNodeManager;
     protected final BinarySocketServer _socketServer;
+    protected final SocketSelector _socketSelector; // May be null if disabled.
     protected final NodeRpcHandler _nodeRpcHandler;
     protected final JsonSocketServer _jsonRpcSocketServer;
     protected final BlockHeaderDownloader _blockHeaderDownloader;
@@ -153,6 +171,7 @@ public class NodeModule {
     protected final BlockchainBuilder _blockchainBuilder;
     protected final BlockchainIndexer _blockchainIndexer;
     protected final SlpTransactionProcessor _slpTransactionProcessor;
+    protected final UtxoSnapshotValidator _utxoSnapshotValidator; // May be null if the UTXO set was not loaded from a snapshot.
     protected final RequestDataHandler _requestDataHandler;
     protected final RequestDataHandlerMonitor _transactionWhitelist;
     protected final List<SleepyService> _allServices;
@@ -199,6 +218,11 @@ public class NodeModule {
             _blockchainIndexer.stop();
         }
 
+        if (_utxoSnapshotValidator != null) {
+            Logger.info("[Stopping UTXO Snapshot Validator]");
+            _utxoSnapshotValidator.stop();
+        }
+
         Logger.info("[Stopping Transaction Processor]");
         _transactionProcessor.stop();
 
@@ -223,6 +247,11 @@ public class NodeModule {
         Logger.info("[Stopping Socket Server]");
         _socketServer.stop();
 
+        if (_socketSelector != null) {
+            Logger.info("[Stopping Socket Selector]");
+            _socketSelector.stop();
+        }
+
         Logger.info("[Committing UTXO Set]");
         {
             final Database database = _environment.getDatabase();
@@ -233,13 +262,29 @@ public class NodeModule {
                 final MilliTimer utxoCommitTimer = new MilliTimer();
                 utxoCommitTimer.start();
                 Logger.info("Committing UTXO set.");
-                unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(databaseManagerFactory, true);
+                unspentTransactionOutputDatabaseManager.commitDirtyUnspentTransactionOutputs(databaseManagerFactory, true); // Only the UTXOs modified since the last commit are written, if incremental commits are enabled.
                 utxoCommitTimer.stop();
                 Logger.debug("Commit Timer: " + utxoCommitTimer.getMillisecondsElapsed() + "ms.");
             }
             catch (final DatabaseException exception) {
                 Logger.warn(exception);
             }
+
+            final CommittedUtxoStore committedUtxoStore = UnspentTransactionOutputJvmManager.getCommittedUtxoStore();
+            if (committedUtxoStore != null) {
+                try {
+                    committedUtxoStore.close();
+                }
+                catch (final DatabaseException exception) {
+                    Logger.warn(exception);
+                }
+            }
+        }
+
+        final MemoryPool memoryPool = FullNodeTransactionDatabaseManagerCore.getMemoryPool();
+        if (memoryPool != null) {
+            Logger.info("[Closing MemoryPool Journal]");
+            memoryPool.close();
         }
 
         Logger.info("[Shutting Down Thread Server]");
@@ -262,6 +307,9 @@ public class NodeModule {
 
         try { _databaseMaintenanceThread.join(30000L); } catch (final InterruptedException exception) { }
 
+        Logger.info("[Closing Block Store]");
+        _blockStore.close();
+
         Logger.flush();
 
         synchronized (_isShuttingDown) {
@@ -291,6 +339,7 @@ public class NodeModule {
                     }
                 }
             };
+            _blockStore.setBlockCompressionEnabled(bitcoinProperties.isBlockCompressionEnabled());
         }
 
         _checkpointConfiguration = new CheckpointConfiguration();
@@ -303,6 +352,17 @@ public class NodeModule {
         _mainThreadPool = new MainThreadPool(Math.max(32 + (maxPeerCount * 8), 256), 5000L);
         _rpcThreadPool = new MainThreadPool(32, 15000L);
 
+        { // Initialize the SocketSelector, which multiplexes peer IO across a fixed number of threads...
+            final Integer networkThreadCount = bitcoinProperties.getNetworkThreadCount();
+            if (networkThreadCount > 0) {
+                _socketSelector = new SocketSelector(networkThreadCount);
+                BinarySocket.setSocketSelector(_socketSelector);
+            }
+            else {
+                _socketSelector = null;
+            }
+        }
+
         _mainThreadPool.setShutdownCallback(new Runnable() {
             @Override
             public void run() {
@@ -324,6 +384,19 @@ public class NodeModule {
             }
         });
 
+        if (Util.areEqual(BitcoinProperties.MAPPED_UTXO_STORE, bitcoinProperties.getUtxoStore())) { // Store the committed UTXO set outside of the database...
+            final String utxoStoreDirectory = (bitcoinProperties.getDataDirectory() + "/" + BitcoinProperties.DATA_DIRECTORY_NAME + "/utxo");
+            try {
+                UnspentTransactionOutputJvmManager.setCommittedUtxoStore(new MappedUtxoStore(new File(utxoStoreDirectory)));
+            }
+            catch (final DatabaseException exception) {
+                Logger.error("Unable to open UTXO store: " + utxoStoreDirectory, exception);
+                throw new RuntimeException(exception); // Falling back to the database's committed set would mismatch the committed block height.
+            }
+        }
+        UnspentTransactionOutputJvmManager.setBulkCommitEnabled(bitcoinProperties.isBulkUtxoCommitEnabled());
+        UnspentTransactionOutputJvmManager.setIncrementalCommitsEnabled(Util.coalesce(bitcoinProperties.getUtxoIncrementalCommitFrequency(), 0L) > 0L);
+
         final Database database = _environment.getDatabase();
         final DatabaseConnectionFactory databaseConnectionFactory = _environment.getDatabaseConnectionFactory();
         final FullNodeDatabaseManagerFactory databaseManagerFactory = new FullNodeDatabaseManagerFactory(
@@ -349,6 +422,30 @@ public class NodeModule {
             }
         }
 
+        if (Util.areEqual(BitcoinProperties.JVM_MEMORY_POOL_STORE, bitcoinProperties.getMemoryPoolStore())) { // Store unconfirmed Transactions within the JVM instead of the database...
+            final File memoryPoolJournalFile = new File(bitcoinProperties.getDataDirectory() + "/" + BitcoinProperties.DATA_DIRECTORY_NAME + "/mempool.journal");
+            final MemoryPool memoryPool = new MemoryPool(memoryPoolJournalFile);
+            FullNodeTransactionDatabaseManagerCore.setMemoryPool(memoryPool);
+            PendingTransactionDatabaseManager.setOrphanPool(new OrphanPool()); // Orphans are released as soon as their parents are accepted into the MemoryPool...
+
+            final List<Transaction> restoredTransactions = memoryPool.getRestoredTransactions();
+            if (restoredTransactions.isEmpty()) {
+                memoryPool.openJournal();
+            }
+            else {
+                try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
+                    final FullNodeTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
+                    transactionDatabaseManager.storeUnconfirmedTransactions(restoredTransactions);
+                    Logger.info("Restored " + restoredTransactions.getCount() + " unconfirmed transactions.");
+
+                    memoryPool.openJournal(); // The previous journal is only replaced once its Transactions are within the pool again...
+                }
+                catch (final DatabaseException exception) {
+                    Logger.warn("Unable to restore the MemoryPool; the journal will not be updated until restart.", exception);
+                }
+            }
+        }
+
         final SynchronizationStatusHandler synchronizationStatusHandler = new SynchronizationStatusHandler(databaseManagerFactory);
         final MemoryPoolEnquirer memoryPoolEnquirer = new MemoryPoolEnquirerHandler(databaseManagerFactory);
 
@@ -417,6 +514,21 @@ public class NodeModule {
             nodeInitializerContext.requestDataHandler = _transactionWhitelist;
             nodeInitializerContext.requestSpvBlocksHandler = new RequestSpvBlocksHandler(databaseManagerFactory, spvUnconfirmedTransactionsHandler);
             nodeInitializerContext.requestSlpTransactionsHandler = new RequestSlpTransactionsHandler(databaseManagerFactory);
+            nodeInitializerContext.requestCompactBlockTransactionsHandler = new RequestCompactBlockTransactionsHandler(databaseManagerFactory);
+            nodeInitializerContext.compactBlockAssembler = new CompactBlockAssembler(memoryPoolEnquirer, new CompactBlockAssembler.BlockHeaderEnquirer() {
+                @Override
+                public Boolean isBlockHeaderKnown(final Sha256Hash blockHash) {
+                    try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
+                        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+                        final BlockId blockId = blockHeaderDatabaseManager.getBlockHeaderId(blockHash);
+                        return (blockId != null);
+                    }
+                    catch (final DatabaseException exception) {
+                        Logger.debug(exception);
+                        return false;
+                    }
+                }
+            });
             nodeInitializerContext.requestUnconfirmedTransactionsHandler = new QueryUnconfirmedTransactionsHandler(databaseManagerFactory);
 
             nodeInitializerContext.requestPeersHandler = new BitcoinNode.RequestPeersHandler() {
@@ -486,10 +598,29 @@ public class NodeModule {
         }
 
         // final NodeModuleContext context = new NodeModuleContext(_masterInflater, _blockStore, databaseManagerFactory, _bitcoinNodeManager, synchronizationStatusHandler, _medianBlockTime, _systemTime, _mainThreadPool, _mutableNetworkTime);
+        final SignatureCache signatureCache;
+        { // Initialize the SignatureCache...
+            final Long maxSignatureCacheByteCount = bitcoinProperties.getMaxSignatureCacheByteCount();
+            signatureCache = ((maxSignatureCacheByteCount > 0L) ? new SignatureCache(maxSignatureCacheByteCount) : null);
+        }
+
+        final ScriptExecutionCache scriptExecutionCache = new ScriptExecutionCache();
+
+        // Signatures and script executions are cached when Transactions are accepted into the mempool or when preloaded Blocks are speculatively validated, and consulted (but not cached) during Block validation...
         final TransactionValidatorFactory transactionValidatorFactory = new TransactionValidatorFactory() {
             @Override
             public TransactionValidator getTransactionValidator(final BlockOutputs blockOutputs, final TransactionValidator.Context transactionValidatorContext) {
-                return new TransactionValidatorCore(blockOutputs, transactionValidatorContext);
+                return new TransactionValidatorCore(blockOutputs, transactionValidatorContext, signatureCache, scriptExecutionCache, false);
+            }
+
+            @Override
+            public TransactionValidator getUnconfirmedTransactionValidator(final TransactionValidator.Context transactionValidatorContext) {
+                return new TransactionValidatorCore(null, transactionValidatorContext, signatureCache, scriptExecutionCache, true);
+            }
+
+            @Override
+            public TransactionValidator getSpeculativeTransactionValidator(final BlockOutputs blockOutputs, final TransactionValidator.Context transactionValidatorContext) {
+                return new TransactionValidatorCore(blockOutputs, transactionValidatorContext, signatureCache, scriptExecutionCache, true);
             }
         };
 
@@ -498,8 +629,47 @@ public class NodeModule {
         }
 
         { // Initialize the TransactionProcessor...
-            final TransactionProcessorContext transactionProcessorContext = new TransactionProcessorContext(_masterInflater, databaseManagerFactory, _mutableNetworkTime, _systemTime, transactionValidatorFactory);
+            final TransactionProcessorContext transactionProcessorContext = new TransactionProcessorContext(_masterInflater, databaseManagerFactory, _mutableNetworkTime, _systemTime, transactionValidatorFactory, _mainThreadPool);
             _transactionProcessor = new TransactionProcessor(transactionProcessorContext);
+            _transactionProcessor.setMaxThreadCount(bitcoinProperties.getMaxThreadCount());
+        }
+
+        final Long utxoSnapshotBlockHeight;
+        final Sha256Hash utxoSnapshotBlockHash;
+        { // Load the UTXO snapshot, if configured, and determine the height of the Block the UTXO set was loaded from...
+            final String utxoSnapshotFile = bitcoinProperties.getUtxoSnapshotFile();
+            Long snapshotBlockHeight = 0L;
+            Sha256Hash snapshotBlockHash = null;
+            try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
+                if ( (utxoSnapshotFile != null) && (! utxoSnapshotFile.trim().isEmpty()) ) {
+                    final String utxoSnapshotHash = bitcoinProperties.getUtxoSnapshotHash();
+                    final Sha256Hash expectedSnapshotHash = (utxoSnapshotHash != null ? Sha256Hash.fromHexString(utxoSnapshotHash.trim()) : null);
+                    if (expectedSnapshotHash == null) {
+                        Logger.warn("Not loading UTXO snapshot; bitcoin.utxoSnapshotHash is not set.");
+                    }
+                    else if (UtxoSnapshotManager.getSnapshotBlockHeight(databaseManager) < 1L) {
+                        Logger.info("[Loading UTXO Snapshot]");
+                        final UtxoSnapshotManager utxoSnapshotManager = new UtxoSnapshotManager(databaseManager, databaseManagerFactory);
+                        utxoSnapshotManager.loadSnapshot(new File(utxoSnapshotFile.trim()), expectedSnapshotHash);
+                    }
+                }
+
+                snapshotBlockHeight = UtxoSnapshotManager.getSnapshotBlockHeight(databaseManager);
+                snapshotBlockHash = UtxoSnapshotManager.getSnapshotBlockHash(databaseManager);
+            }
+            catch (final Exception exception) {
+                Logger.warn("Unable to load UTXO snapshot.", exception);
+            }
+            utxoSnapshotBlockHeight = snapshotBlockHeight;
+            utxoSnapshotBlockHash = snapshotBlockHash;
+        }
+
+        if (utxoSnapshotBlockHeight > 0L) { // Validate the loaded UTXO snapshot by replaying the Blocks preceding it...
+            _utxoSnapshotValidator = new UtxoSnapshotValidator(databaseManagerFactory, _masterInflater, transactionValidatorFactory, _mutableNetworkTime);
+            _utxoSnapshotValidator.setMaxThreadCount(bitcoinProperties.getMaxThreadCount());
+        }
+        else {
+            _utxoSnapshotValidator = null;
         }
 
         final BlockProcessor blockProcessor;
@@ -507,8 +677,11 @@ public class NodeModule {
             final BlockProcessor.Context blockProcessorContext = new BlockProcessorContext(_masterInflater, _masterInflater, _blockStore, databaseManagerFactory, _mutableNetworkTime, synchronizationStatusHandler, transactionValidatorFactory);
             blockProcessor = new BlockProcessor(blockProcessorContext);
             blockProcessor.setUtxoCommitFrequency(bitcoinProperties.getUtxoCacheCommitFrequency());
+            blockProcessor.setUtxoIncrementalCommitFrequency(bitcoinProperties.getUtxoIncrementalCommitFrequency());
             blockProcessor.setMaxThreadCount(bitcoinProperties.getMaxThreadCount());
             blockProcessor.setTrustedBlockHeight(bitcoinProperties.getTrustedBlockHeight());
+            blockProcessor.setUtxoSnapshotBlock(utxoSnapshotBlockHeight, utxoSnapshotBlockHash);
+            blockProcessor.setScriptExecutionCache(scriptExecutionCache);
         }
 
         final BlockDownloadRequester blockDownloadRequester;
@@ -522,7 +695,13 @@ public class NodeModule {
         { // Initialize BlockchainBuilder...
             final PendingBlockLoaderContext pendingBlockLoaderContext = new PendingBlockLoaderContext(_masterInflater, databaseManagerFactory, _mainThreadPool);
             final PendingBlockLoader pendingBlockLoader = new PendingBlockLoader(pendingBlockLoaderContext, 8);
-            final Long trustedBlockHeight = bitcoinProperties.getTrustedBlockHeight();
+            pendingBlockLoader.setBlockPrevalidator(new PendingBlockLoader.BlockPrevalidator() {
+                @Override
+                public void prevalidateBlock(final Block block, final Long blockHeight, final UnspentTransactionOutputContext unspentTransactionOutputContext) {
+                    blockProcessor.prevalidateBlock(block, blockHeight, unspentTransactionOutputContext);
+                }
+            });
+            final Long trustedBlockHeight = Math.max(bitcoinProperties.getTrustedBlockHeight(), utxoSnapshotBlockHeight);
             pendingBlockLoader.setLoadUnspentOutputsAfterBlockHeight((trustedBlockHeight >= 0) ? trustedBlockHeight : null);
 
             final BlockDownloader.StatusMonitor blockDownloaderStatusMonitor = _blockDownloader.getStatusMonitor();
@@ -571,6 +750,10 @@ public class NodeModule {
 
                     _blockchainIndexer.wakeUp();
 
+                    if (_utxoSnapshotValidator != null) {
+                        _utxoSnapshotValidator.wakeUp();
+                    }
+
                     final Long blockHeaderDownloaderBlockHeight = _blockHeaderDownloader.getBlockHeight();
                     if (blockHeaderDownloaderBlockHeight <= blockHeight) {
                         _blockHeaderDownloader.wakeUp();
@@ -610,7 +793,10 @@ public class NodeModule {
                                     final BitcoinNode bitcoinNode = bitcoinNodeMap.get(nodeId);
                                     if (bitcoinNode == null) { continue; }
 
-                                    if (bitcoinNode.isNewBlocksViaHeadersEnabled()) {
+                                    if (bitcoinNode.isNewBlocksViaCompactBlocksEnabled()) {
+                                        bitcoinNode.transmitCompactBlock(block);
+                                    }
+                                    else if (bitcoinNode.isNewBlocksViaHeadersEnabled()) {
                                         bitcoinNode.transmitBlockHeader(block);
                                     }
                                     else {
@@ -740,6 +926,7 @@ public class NodeModule {
         _allServices = new ImmutableList<SleepyService>(
             _blockchainIndexer,
             _slpTransactionProcessor,
+            _utxoSnapshotValidator,
             _transactionProcessor,
             _transactionDownloader,
             _blockchainBuilder,
@@ -797,6 +984,9 @@ public class NodeModule {
                 rpcSocketServerHandler.setQueryAddressHandler(queryAddressHandler);
                 rpcSocketServerHandler.setThreadPoolInquisitor(threadPoolInquisitor);
                 rpcSocketServerHandler.setServiceInquisitor(serviceInquisitor);
+                if (signatureCache != null) {
+                    rpcSocketServerHandler.setSignatureCacheInquisitor(new SignatureCacheInquisitor(signatureCache));
+                }
                 rpcSocketServerHandler.setDataHandler(rpcDataHandler);
                 rpcSocketServerHandler.setMetadataHandler(metadataHandler);
                 rpcSocketServerHandler.setQueryBlockchainHandler(queryBlockchainHandler);
@@ -934,6 +1124,17 @@ public class NodeModule {
             }
         }
 
+        { // Load the BlockIndex...
+            Logger.info("[Loading Block Index]");
+            try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
+                final FullNodeBlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+                blockHeaderDatabaseManager.loadBlockIndex();
+            }
+            catch (final DatabaseException exception) {
+                Logger.warn(exception);
+            }
+        }
+
         final boolean reIndexPendingBlocks;
         {
             final Boolean configParameter = _bitcoinProperties.shouldReIndexPendingBlocks();
@@ -1003,7 +1204,8 @@ public class NodeModule {
                 final BlockchainSegmentId headBlockchainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
 
                 final Long utxoCommitFrequency = _bitcoinProperties.getUtxoCacheCommitFrequency();
-                final UnspentTransactionOutputManager unspentTransactionOutputManager = new UnspentTransactionOutputManager(databaseManager, utxoCommitFrequency);
+                final Long utxoIncrementalCommitFrequency = _bitcoinProperties.getUtxoIncrementalCommitFrequency();
+                final UnspentTransactionOutputManager unspentTransactionOutputManager = new UnspentTransactionOutputManager(databaseManager, utxoCommitFrequency, utxoIncrementalCommitFrequency);
 
                 final BlockLoader blockLoader = new BlockLoader(headBlockchainSegmentId, 8, databaseManagerFactory, _mainThreadPool);
 
@@ -1020,6 +1222,11 @@ public class NodeModule {
             }
         }
 
+        if (_socketSelector != null) {
+            Logger.info("[Starting Socket Selector]");
+            _socketSelector.start();
+        }
+
         if (! _bitcoinProperties.skipNetworking()) {
             Logger.info("[Starting Node Manager]");
             _bitcoinNodeManager.start();
@@ -1123,6 +1330,11 @@ public class NodeModule {
             _slpTransactionProcessor.start();
         }
 
+        if (_utxoSnapshotValidator != null) {
+            Logger.info("[Starting UTXO Snapshot Validator]");
+            _utxoSnapshotValidator.start();
+        }
+
         _uptimeTimer.start();
         _databaseMaintenanceThread.start();
 
@@ -18,9 +18,12 @@ import com.softwareverde.bitcoin.server.module.node.database.blockchain.Blockcha
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.store.BlockStore;
+import com.softwareverde.bitcoin.server.module.node.store.BlockTransactionIndex;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.TransactionInflater;
 import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
 import com.softwareverde.constable.list.mutable.MutableList;
@@ -135,6 +138,31 @@ public class FullNodeBlockDatabaseManager implements BlockDatabaseManager {
         return row.getInteger("transaction_count");
     }
 
+    /**
+     * Returns the Block's BlockTransactionIndex, or null if the index is unavailable.
+     */
+    protected BlockTransactionIndex _getBlockTransactionIndex(final BlockId blockId) throws DatabaseException {
+        if (_blockStore == null) { return null; }
+
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+        final Sha256Hash blockHash = blockHeaderDatabaseManager.getBlockHash(blockId);
+        final Long blockHeight = blockHeaderDatabaseManager.getBlockHeight(blockId);
+        if ( (blockHash == null) || (blockHeight == null) ) { return null; }
+
+        return _blockStore.getBlockTransactionIndex(blockHash, blockHeight);
+    }
+
+    /**
+     * Reads the Transaction at transactionIndex from the Block's serialization via the Block's BlockTransactionIndex.
+     */
+    protected Transaction _getTransaction(final Sha256Hash blockHash, final Long blockHeight, final BlockTransactionIndex blockTransactionIndex, final Integer transactionIndex) {
+        final ByteArray transactionData = _blockStore.readFromBlock(blockHash, blockHeight, blockTransactionIndex.getDiskOffset(transactionIndex), blockTransactionIndex.getByteCount(transactionIndex));
+        if (transactionData == null) { return null; }
+
+        final TransactionInflater transactionInflater = new TransactionInflater();
+        return transactionInflater.fromBytes(transactionData);
+    }
+
     protected List<TransactionId> _getTransactionIds(final BlockId blockId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
@@ -194,6 +222,20 @@ public class FullNodeBlockDatabaseManager implements BlockDatabaseManager {
         return _getBlock(blockId);
     }
 
+    /**
+     * Returns the serialized Block as stored within the BlockStore, without inflating it.
+     *  Returns null if the Block's transactions have not been stored.
+     */
+    public ByteArray getRawBlock(final BlockId blockId) throws DatabaseException {
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+
+        if (! _hasTransactions(blockId)) { return null; }
+
+        final Sha256Hash blockHash = blockHeaderDatabaseManager.getBlockHash(blockId);
+        final Long blockHeight = blockHeaderDatabaseManager.getBlockHeight(blockId);
+        return _blockStore.readRawBlock(blockHash, blockHeight);
+    }
+
     /**
      * Inserts the Block (and BlockHeader if it does not exist) (including its transactions) into the database.
      *  If the BlockHeader has already been stored, this will update the existing BlockHeader.
@@ -354,6 +396,120 @@ public class FullNodeBlockDatabaseManager implements BlockDatabaseManager {
 
     @Override
     public Integer getTransactionCount(final BlockId blockId) throws DatabaseException {
+        final BlockTransactionIndex blockTransactionIndex = _getBlockTransactionIndex(blockId);
+        if (blockTransactionIndex != null) {
+            return blockTransactionIndex.getTransactionCount();
+        }
+
         return _getTransactionCount(blockId);
     }
+
+    /**
+     * Returns the hashes of the Block's Transactions, in Block order.
+     *  The BlockTransactionIndex is used if available, otherwise the hashes are loaded from the database.
+     */
+    public List<Sha256Hash> getTransactionHashes(final BlockId blockId) throws DatabaseException {
+        final BlockTransactionIndex blockTransactionIndex = _getBlockTransactionIndex(blockId);
+        if (blockTransactionIndex != null) {
+            return blockTransactionIndex.getTransactionHashes();
+        }
+
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT transactions.hash FROM block_transactions INNER JOIN transactions ON transactions.id = block_transactions.transaction_id WHERE block_transactions.block_id = ? ORDER BY block_transactions.`index` ASC")
+                .setParameter(blockId)
+        );
+
+        final ImmutableListBuilder<Sha256Hash> listBuilder = new ImmutableListBuilder<Sha256Hash>(rows.size());
+        for (final Row row : rows) {
+            listBuilder.add(Sha256Hash.copyOf(row.getBytes("hash")));
+        }
+        return listBuilder.build();
+    }
+
+    /**
+     * Returns the Transaction from within the Block, or null if the Block does not contain the Transaction.
+     *  The Transaction is located via the Block's BlockTransactionIndex if available, otherwise via the database.
+     */
+    public Transaction getTransaction(final BlockId blockId, final Sha256Hash transactionHash) throws DatabaseException {
+        final BlockTransactionIndex blockTransactionIndex = _getBlockTransactionIndex(blockId);
+        if (blockTransactionIndex == null) {
+            final FullNodeTransactionDatabaseManager transactionDatabaseManager = _databaseManager.getTransactionDatabaseManager();
+            final TransactionId transactionId = transactionDatabaseManager.getTransactionId(transactionHash);
+            if (transactionId == null) { return null; }
+
+            return transactionDatabaseManager.getTransaction(transactionId);
+        }
+
+        final Integer transactionIndex = blockTransactionIndex.indexOf(transactionHash);
+        if (transactionIndex == null) { return null; }
+
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+        final Sha256Hash blockHash = blockHeaderDatabaseManager.getBlockHash(blockId);
+        final Long blockHeight = blockHeaderDatabaseManager.getBlockHeight(blockId);
+        return _getTransaction(blockHash, blockHeight, blockTransactionIndex, transactionIndex);
+    }
+
+    /**
+     * Returns up to transactionCount of the Block's Transactions, in Block order, beginning with the Transaction at startIndex.
+     *  The Transactions are read individually via the Block's BlockTransactionIndex if available, otherwise the Block is loaded.
+     *  Returns null if the Block's transactions have not been stored.
+     */
+    public List<Transaction> getTransactions(final BlockId blockId, final Integer startIndex, final Integer transactionCount) throws DatabaseException {
+        final BlockTransactionIndex blockTransactionIndex = _getBlockTransactionIndex(blockId);
+        if (blockTransactionIndex == null) {
+            final Block block = _getBlock(blockId);
+            if (block == null) { return null; }
+
+            final List<Transaction> transactions = block.getTransactions();
+            final int endIndex = Math.min(transactions.getCount(), (startIndex + transactionCount));
+
+            final ImmutableListBuilder<Transaction> listBuilder = new ImmutableListBuilder<Transaction>(Math.max(0, (endIndex - startIndex)));
+            for (int i = startIndex; i < endIndex; ++i) {
+                listBuilder.add(transactions.get(i));
+            }
+            return listBuilder.build();
+        }
+
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+        final Sha256Hash blockHash = blockHeaderDatabaseManager.getBlockHash(blockId);
+        final Long blockHeight = blockHeaderDatabaseManager.getBlockHeight(blockId);
+
+        final int endIndex = Math.min(blockTransactionIndex.getTransactionCount(), (startIndex + transactionCount));
+
+        final ImmutableListBuilder<Transaction> listBuilder = new ImmutableListBuilder<Transaction>(Math.max(0, (endIndex - startIndex)));
+        for (int i = startIndex; i < endIndex; ++i) {
+            final Transaction transaction = _getTransaction(blockHash, blockHeight, blockTransactionIndex, i);
+            if (transaction == null) { return null; }
+
+            listBuilder.add(transaction);
+        }
+        return listBuilder.build();
+    }
+
+    /**
+     * Returns the merkle proof of the Transaction within the Block (see Block::getPartialMerkleTree), or null if the Block does not contain the Transaction.
+     *  If the BlockTransactionIndex is unavailable then the Block is loaded to build the proof.
+     */
+    public List<Sha256Hash> getPartialMerkleTree(final BlockId blockId, final Sha256Hash transactionHash) throws DatabaseException {
+        final BlockTransactionIndex blockTransactionIndex = _getBlockTransactionIndex(blockId);
+        if (blockTransactionIndex != null) {
+            final Integer transactionIndex = blockTransactionIndex.indexOf(transactionHash);
+            if (transactionIndex == null) { return null; }
+
+            return blockTransactionIndex.getPartialMerkleTree(transactionIndex);
+        }
+
+        final Block block = _getBlock(blockId);
+        if (block == null) { return null; }
+
+        int transactionIndex = 0;
+        for (final Transaction transaction : block.getTransactions()) {
+            if (Util.areEqual(transactionHash, transaction.getHash())) {
+                return block.getPartialMerkleTree(transactionIndex);
+            }
+            transactionIndex += 1;
+        }
+        return null;
+    }
 }
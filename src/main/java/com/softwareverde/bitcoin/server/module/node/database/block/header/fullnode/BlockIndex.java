@@ -0,0 +1,570 @@
+package com.softwareverde.bitcoin.server.module.node.database.block.header.fullnode;
+
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.block.header.MutableBlockHeader;
+import com.softwareverde.bitcoin.block.header.difficulty.Difficulty;
+import com.softwareverde.bitcoin.block.header.difficulty.work.ChainWork;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
+import com.softwareverde.bitcoin.merkleroot.MerkleRoot;
+import com.softwareverde.bitcoin.merkleroot.MutableMerkleRoot;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A memory-resident index of the BlockHeaders stored within the blocks table, keyed by BlockId and by block hash.
+ *  BlockIds are (mostly) contiguous auto-increment values, so each field is stored within a primitive array indexed by
+ *  the BlockId; block hashes are resolved to BlockIds via an open-addressed (linear probing) table of BlockIds.
+ *  Each indexed block also retains a skip-pointer to one of its distant ancestors (see BlockIndex::_getSkipBlockHeight),
+ *  which allows any ancestor of an indexed block to be found in O(log n) steps.
+ *  With the exception of the BlockchainSegmentId, the indexed fields of a block are immutable once it has been stored.
+ *  BlockchainSegmentIds change when a BlockchainSegment is split, so their caching is coordinated via
+ *  BlockIndex::beginBlockchainSegmentInvalidation and BlockIndex::endBlockchainSegmentInvalidation.
+ *  All getters return null if the requested value is not indexed.
+ */
+public class BlockIndex {
+    protected static final int HASH_BYTE_COUNT = Sha256Hash.BYTE_COUNT;
+    protected static final int DIFFICULTY_BYTE_COUNT = 4;
+    protected static final int MIN_CAPACITY = 1024;
+    protected static final float GROWTH_FACTOR = 1.5F;
+
+    /**
+     * Clears the lowest set bit of value.
+     */
+    protected static int _invertLowestOne(final int value) {
+        return (value & (value - 1));
+    }
+
+    /**
+     * Returns the height of the ancestor that the block at blockHeight skips to.
+     *  Heights are chosen so that any ancestor may be reached within O(log n) skips/steps.
+     */
+    protected static int _getSkipBlockHeight(final int blockHeight) {
+        if (blockHeight < 2) { return 0; }
+
+        // Odd heights skip to a height with one fewer set bit than even heights do, which creates a mix of long and short skips...
+        if ((blockHeight & 1) != 0) {
+            return (_invertLowestOne(_invertLowestOne(blockHeight - 1)) + 1);
+        }
+        return _invertLowestOne(blockHeight);
+    }
+
+    protected static int _calculateHashCode(final byte[] bytes, final int offset) {
+        long hashCode = 0L;
+        for (int i = 0; i < HASH_BYTE_COUNT; ++i) {
+            hashCode = ((hashCode * 31L) + (bytes[offset + i] & 0xFFL));
+        }
+        hashCode ^= (hashCode >>> 33);
+        hashCode *= 0xFF51AFD7ED558CCDL;
+        hashCode ^= (hashCode >>> 33);
+        return (int) hashCode;
+    }
+
+    protected final ReentrantReadWriteLock.ReadLock _readLock;
+    protected final ReentrantReadWriteLock.WriteLock _writeLock;
+
+    protected int _capacity = 0;
+    protected int _blockCount = 0;
+
+    protected int[] _blockHeights = new int[0]; // The blockHeight is stored with an offset of one; zero indicates the BlockId is not indexed.
+    protected int[] _previousBlockIds = new int[0];
+    protected int[] _skipBlockIds = new int[0];
+    protected long[] _versions = new long[0];
+    protected long[] _timestamps = new long[0];
+    protected long[] _nonces = new long[0];
+    protected long[] _medianBlockTimes = new long[0];
+    protected long[] _blockchainSegmentIds = new long[0]; // Zero indicates the BlockchainSegmentId is not cached.
+    protected byte[] _blockHashes = new byte[0];
+    protected byte[] _merkleRoots = new byte[0];
+    protected byte[] _chainWorks = new byte[0];
+    protected byte[] _difficulties = new byte[0];
+
+    protected int[] _hashTable = new int[MIN_CAPACITY]; // Contains BlockIds; zero indicates an empty slot.
+    protected int _hashTableMask = (MIN_CAPACITY - 1);
+
+    protected long _blockchainSegmentGeneration = 0L;
+    protected int _blockchainSegmentInvalidationCount = 0;
+
+    protected boolean _isIndexed(final long blockId) {
+        if (blockId < 1L) { return false; }
+        if (blockId >= _capacity) { return false; }
+        return (_blockHeights[(int) blockId] != 0);
+    }
+
+    protected boolean _isIndexed(final BlockId blockId) {
+        if (blockId == null) { return false; }
+        return _isIndexed(blockId.longValue());
+    }
+
+    protected void _ensureCapacity(final int blockId) {
+        if (blockId < _capacity) { return; }
+
+        final int newCapacity = Math.max(MIN_CAPACITY, Math.max((blockId + 1), (int) Math.min(Integer.MAX_VALUE / HASH_BYTE_COUNT, (long) (_capacity * GROWTH_FACTOR))));
+        _blockHeights = Arrays.copyOf(_blockHeights, newCapacity);
+        _previousBlockIds = Arrays.copyOf(_previousBlockIds, newCapacity);
+        _skipBlockIds = Arrays.copyOf(_skipBlockIds, newCapacity);
+        _versions = Arrays.copyOf(_versions, newCapacity);
+        _timestamps = Arrays.copyOf(_timestamps, newCapacity);
+        _nonces = Arrays.copyOf(_nonces, newCapacity);
+        _medianBlockTimes = Arrays.copyOf(_medianBlockTimes, newCapacity);
+        _blockchainSegmentIds = Arrays.copyOf(_blockchainSegmentIds, newCapacity);
+        _blockHashes = Arrays.copyOf(_blockHashes, (newCapacity * HASH_BYTE_COUNT));
+        _merkleRoots = Arrays.copyOf(_merkleRoots, (newCapacity * HASH_BYTE_COUNT));
+        _chainWorks = Arrays.copyOf(_chainWorks, (newCapacity * HASH_BYTE_COUNT));
+        _difficulties = Arrays.copyOf(_difficulties, (newCapacity * DIFFICULTY_BYTE_COUNT));
+        _capacity = newCapacity;
+    }
+
+    protected boolean _blockHashEquals(final int blockId, final byte[] blockHash) {
+        final int offset = (blockId * HASH_BYTE_COUNT);
+        for (int i = 0; i < HASH_BYTE_COUNT; ++i) {
+            if (_blockHashes[offset + i] != blockHash[i]) { return false; }
+        }
+        return true;
+    }
+
+    protected int _getHashTableSlot(final byte[] blockHash) {
+        int slot = (_calculateHashCode(blockHash, 0) & _hashTableMask);
+        while (true) {
+            final int blockId = _hashTable[slot];
+            if (blockId == 0) { return slot; }
+            if (_blockHashEquals(blockId, blockHash)) { return slot; }
+            slot = ((slot + 1) & _hashTableMask);
+        }
+    }
+
+    protected void _addToHashTable(final int blockId) {
+        if ((_blockCount * 2L) >= _hashTable.length) {
+            _resizeHashTable(_hashTable.length * 2);
+        }
+
+        int slot = (_calculateHashCode(_blockHashes, (blockId * HASH_BYTE_COUNT)) & _hashTableMask);
+        while (_hashTable[slot] != 0) {
+            slot = ((slot + 1) & _hashTableMask);
+        }
+        _hashTable[slot] = blockId;
+    }
+
+    /**
+     * Removes the blockId from the hash table via backward-shift deletion, which preserves the probe sequence of the
+     *  remaining BlockIds without the use of tombstones.
+     */
+    protected void _removeFromHashTable(final int blockId) {
+        final byte[] blockHash = Arrays.copyOfRange(_blockHashes, (blockId * HASH_BYTE_COUNT), ((blockId + 1) * HASH_BYTE_COUNT));
+        int slot = _getHashTableSlot(blockHash);
+        if (_hashTable[slot] != blockId) { return; }
+
+        _hashTable[slot] = 0;
+        int nextSlot = ((slot + 1) & _hashTableMask);
+        while (_hashTable[nextSlot] != 0) {
+            final int nextBlockId = _hashTable[nextSlot];
+            final int idealSlot = (_calculateHashCode(_blockHashes, (nextBlockId * HASH_BYTE_COUNT)) & _hashTableMask);
+            if (((nextSlot - idealSlot) & _hashTableMask) >= ((nextSlot - slot) & _hashTableMask)) {
+                _hashTable[slot] = nextBlockId;
+                _hashTable[nextSlot] = 0;
+                slot = nextSlot;
+            }
+            nextSlot = ((nextSlot + 1) & _hashTableMask);
+        }
+    }
+
+    protected void _resizeHashTable(final int newSize) {
+        _hashTable = new int[newSize];
+        _hashTableMask = (newSize - 1);
+
+        for (int blockId = 1; blockId < _capacity; ++blockId) {
+            if (_blockHeights[blockId] == 0) { continue; }
+
+            int slot = (_calculateHashCode(_blockHashes, (blockId * HASH_BYTE_COUNT)) & _hashTableMask);
+            while (_hashTable[slot] != 0) {
+                slot = ((slot + 1) & _hashTableMask);
+            }
+            _hashTable[slot] = blockId;
+        }
+    }
+
+    /**
+     * Returns the BlockId of the ancestor of blockId at ancestorBlockHeight, or zero if the ancestor is not reachable
+     *  via indexed blocks.
+     */
+    protected int _getAncestorBlockId(final int blockId, final int ancestorBlockHeight) {
+        if (! _isIndexed(blockId)) { return 0; }
+
+        int walkBlockId = blockId;
+        int walkBlockHeight = (_blockHeights[blockId] - 1);
+        if (ancestorBlockHeight > walkBlockHeight) { return 0; }
+        if (ancestorBlockHeight < 0) { return 0; }
+
+        while (walkBlockHeight > ancestorBlockHeight) {
+            final int skipBlockHeight = _getSkipBlockHeight(walkBlockHeight);
+            final int previousSkipBlockHeight = _getSkipBlockHeight(walkBlockHeight - 1);
+            final int skipBlockId = _skipBlockIds[walkBlockId];
+
+            // Only take the skip if it does not overshoot, and if the parent's skip would not be a better choice...
+            final boolean shouldSkip = ( (skipBlockHeight == ancestorBlockHeight) || ( (skipBlockHeight > ancestorBlockHeight) && (! ( (previousSkipBlockHeight < (skipBlockHeight - 2)) && (previousSkipBlockHeight >= ancestorBlockHeight) )) ) );
+            if ( shouldSkip && _isIndexed(skipBlockId) ) {
+                walkBlockId = skipBlockId;
+                walkBlockHeight = skipBlockHeight;
+            }
+            else {
+                walkBlockId = _previousBlockIds[walkBlockId];
+                walkBlockHeight -= 1;
+            }
+
+            if (! _isIndexed(walkBlockId)) { return 0; }
+        }
+
+        return walkBlockId;
+    }
+
+    public BlockIndex() {
+        final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+        _readLock = readWriteLock.readLock();
+        _writeLock = readWriteLock.writeLock();
+    }
+
+    /**
+     * Adds (or replaces) the block to the index.
+     *  nullableBlockchainSegmentId is only cached if no BlockchainSegment invalidation has occurred since
+     *  blockchainSegmentGeneration was acquired (via BlockIndex::getBlockchainSegmentGeneration), and if no invalidation is
+     *  currently in progress.
+     *  Blocks whose BlockId or blockHeight cannot be represented by the index are ignored.
+     */
+    public void putBlock(final BlockId blockId, final Sha256Hash blockHash, final BlockId nullablePreviousBlockId, final Long blockHeight, final Long version, final MerkleRoot merkleRoot, final Long timestamp, final Difficulty difficulty, final Long nonce, final MedianBlockTime medianBlockTime, final ChainWork chainWork, final BlockchainSegmentId nullableBlockchainSegmentId, final Long blockchainSegmentGeneration) {
+        if ( (blockId.longValue() < 1L) || (blockId.longValue() >= (Integer.MAX_VALUE / HASH_BYTE_COUNT)) ) { return; }
+        if ( (blockHeight < 0L) || (blockHeight >= Integer.MAX_VALUE) ) { return; }
+
+        final int id = ((int) blockId.longValue());
+        final int previousId = (nullablePreviousBlockId != null ? ((int) nullablePreviousBlockId.longValue()) : 0);
+        final int height = ((int) blockHeight.longValue());
+        final byte[] blockHashBytes = blockHash.getBytes();
+
+        _writeLock.lock();
+        try {
+            _ensureCapacity(id);
+
+            final boolean wasIndexed = _isIndexed(id);
+            if (wasIndexed) {
+                _removeFromHashTable(id);
+                _blockCount -= 1;
+            }
+
+            _blockHeights[id] = (height + 1);
+            _previousBlockIds[id] = previousId;
+            _versions[id] = version;
+            _timestamps[id] = timestamp;
+            _nonces[id] = nonce;
+            _medianBlockTimes[id] = medianBlockTime.getCurrentTimeInSeconds();
+            System.arraycopy(blockHashBytes, 0, _blockHashes, (id * HASH_BYTE_COUNT), HASH_BYTE_COUNT);
+            System.arraycopy(merkleRoot.getBytes(), 0, _merkleRoots, (id * HASH_BYTE_COUNT), HASH_BYTE_COUNT);
+            System.arraycopy(chainWork.getBytes(), 0, _chainWorks, (id * HASH_BYTE_COUNT), HASH_BYTE_COUNT);
+            System.arraycopy(difficulty.encode().getBytes(), 0, _difficulties, (id * DIFFICULTY_BYTE_COUNT), DIFFICULTY_BYTE_COUNT);
+
+            final boolean blockchainSegmentIdIsCurrent = ( (_blockchainSegmentInvalidationCount == 0) && (_blockchainSegmentGeneration == blockchainSegmentGeneration) );
+            _blockchainSegmentIds[id] = ( (blockchainSegmentIdIsCurrent && (nullableBlockchainSegmentId != null)) ? nullableBlockchainSegmentId.longValue() : 0L );
+
+            // The skip-pointer can only be calculated if the parent is indexed; blocks are typically indexed in ascending order...
+            _skipBlockIds[id] = (_isIndexed(previousId) ? _getAncestorBlockId(previousId, _getSkipBlockHeight(height)) : 0);
+
+            _blockCount += 1;
+            _addToHashTable(id);
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    public void removeBlock(final BlockId blockId) {
+        _writeLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return; }
+
+            final int id = ((int) blockId.longValue());
+            _removeFromHashTable(id);
+            _blockHeights[id] = 0;
+            _blockCount -= 1;
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    public Boolean containsBlock(final BlockId blockId) {
+        _readLock.lock();
+        try {
+            return _isIndexed(blockId);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public BlockId getBlockId(final Sha256Hash blockHash) {
+        if (blockHash == null) { return null; }
+        final byte[] blockHashBytes = blockHash.getBytes();
+
+        _readLock.lock();
+        try {
+            final int slot = _getHashTableSlot(blockHashBytes);
+            final int blockId = _hashTable[slot];
+            if (blockId == 0) { return null; }
+            return BlockId.wrap((long) blockId);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public Sha256Hash getBlockHash(final BlockId blockId) {
+        _readLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return null; }
+
+            final int offset = (((int) blockId.longValue()) * HASH_BYTE_COUNT);
+            return Sha256Hash.wrap(Arrays.copyOfRange(_blockHashes, offset, (offset + HASH_BYTE_COUNT)));
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public Long getBlockHeight(final BlockId blockId) {
+        _readLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return null; }
+            return (_blockHeights[((int) blockId.longValue())] - 1L);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the BlockId of the block's parent.
+     *  Since the genesis block does not have a parent, BlockIndex::containsBlock must be used to differentiate the
+     *  genesis block from a block that is not indexed.
+     */
+    public BlockId getPreviousBlockId(final BlockId blockId) {
+        _readLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return null; }
+
+            final int previousBlockId = _previousBlockIds[((int) blockId.longValue())];
+            if (previousBlockId == 0) { return null; }
+            return BlockId.wrap((long) previousBlockId);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public Long getTimestamp(final BlockId blockId) {
+        _readLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return null; }
+            return _timestamps[((int) blockId.longValue())];
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public MedianBlockTime getMedianBlockTime(final BlockId blockId) {
+        _readLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return null; }
+            return MedianBlockTime.fromSeconds(_medianBlockTimes[((int) blockId.longValue())]);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public ChainWork getChainWork(final BlockId blockId) {
+        _readLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return null; }
+
+            final int offset = (((int) blockId.longValue()) * HASH_BYTE_COUNT);
+            return ChainWork.wrap(Arrays.copyOfRange(_chainWorks, offset, (offset + HASH_BYTE_COUNT)));
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public BlockchainSegmentId getBlockchainSegmentId(final BlockId blockId) {
+        _readLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return null; }
+
+            final long blockchainSegmentId = _blockchainSegmentIds[((int) blockId.longValue())];
+            if (blockchainSegmentId == 0L) { return null; }
+            return BlockchainSegmentId.wrap(blockchainSegmentId);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the BlockHeader of the block.
+     *  Returns null if either the block or its parent is not indexed.
+     */
+    public BlockHeader getBlockHeader(final BlockId blockId) {
+        _readLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return null; }
+            final int id = ((int) blockId.longValue());
+
+            final Sha256Hash previousBlockHash;
+            {
+                final int previousBlockId = _previousBlockIds[id];
+                if (previousBlockId == 0) {
+                    previousBlockHash = Sha256Hash.EMPTY_HASH;
+                }
+                else {
+                    if (! _isIndexed(previousBlockId)) { return null; }
+
+                    final int offset = (previousBlockId * HASH_BYTE_COUNT);
+                    previousBlockHash = Sha256Hash.wrap(Arrays.copyOfRange(_blockHashes, offset, (offset + HASH_BYTE_COUNT)));
+                }
+            }
+
+            final int hashOffset = (id * HASH_BYTE_COUNT);
+            final MerkleRoot merkleRoot = MutableMerkleRoot.wrap(Arrays.copyOfRange(_merkleRoots, hashOffset, (hashOffset + HASH_BYTE_COUNT)));
+
+            final int difficultyOffset = (id * DIFFICULTY_BYTE_COUNT);
+            final ByteArray encodedDifficulty = MutableByteArray.wrap(Arrays.copyOfRange(_difficulties, difficultyOffset, (difficultyOffset + DIFFICULTY_BYTE_COUNT)));
+
+            final MutableBlockHeader blockHeader = new MutableBlockHeader();
+            blockHeader.setVersion(_versions[id]);
+            blockHeader.setPreviousBlockHash(previousBlockHash);
+            blockHeader.setMerkleRoot(merkleRoot);
+            blockHeader.setTimestamp(_timestamps[id]);
+            blockHeader.setDifficulty(Difficulty.decode(encodedDifficulty));
+            blockHeader.setNonce(_nonces[id]);
+            return blockHeader;
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the BlockId of the nth-parent of blockId, where n is parentCount.
+     *  Returns null if the ancestor is not reachable via indexed blocks, or if parentCount exceeds the block's height.
+     */
+    public BlockId getAncestorBlockId(final BlockId blockId, final Integer parentCount) {
+        _readLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return null; }
+
+            final int id = ((int) blockId.longValue());
+            final int ancestorBlockHeight = ((_blockHeights[id] - 1) - parentCount);
+            final int ancestorBlockId = _getAncestorBlockId(id, ancestorBlockHeight);
+            if (ancestorBlockId == 0) { return null; }
+            return BlockId.wrap((long) ancestorBlockId);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current BlockchainSegment generation.
+     *  The generation must be acquired before querying a BlockchainSegmentId from the database that is later provided
+     *  to BlockIndex::putBlock, so that a BlockchainSegmentId invalidated in the meantime is not cached.
+     */
+    public Long getBlockchainSegmentGeneration() {
+        _readLock.lock();
+        try {
+            return _blockchainSegmentGeneration;
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the start of a (possibly uncommitted) change to the BlockchainSegmentIds of the blocks table.
+     *  Until the change is ended via BlockIndex::endBlockchainSegmentInvalidation, no new BlockchainSegmentIds are cached,
+     *  since a concurrent reader may have read the value from before the change was committed.
+     */
+    public void beginBlockchainSegmentInvalidation() {
+        _writeLock.lock();
+        try {
+            _blockchainSegmentInvalidationCount += 1;
+            _blockchainSegmentGeneration += 1L;
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the end of a change started via BlockIndex::beginBlockchainSegmentInvalidation.
+     *  The change must either be committed or rolled back before its invalidation is ended.
+     */
+    public void endBlockchainSegmentInvalidation() {
+        _writeLock.lock();
+        try {
+            _blockchainSegmentInvalidationCount = Math.max(0, (_blockchainSegmentInvalidationCount - 1));
+            _blockchainSegmentGeneration += 1L;
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    public void clearBlockchainSegmentId(final BlockId blockId) {
+        _writeLock.lock();
+        try {
+            if (! _isIndexed(blockId)) { return; }
+            _blockchainSegmentIds[((int) blockId.longValue())] = 0L;
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    public void clearBlockchainSegmentIds() {
+        _writeLock.lock();
+        try {
+            Arrays.fill(_blockchainSegmentIds, 0L);
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    public Integer getBlockCount() {
+        _readLock.lock();
+        try {
+            return _blockCount;
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public void clear() {
+        _writeLock.lock();
+        try {
+            Arrays.fill(_blockHeights, 0);
+            Arrays.fill(_blockchainSegmentIds, 0L);
+            _hashTable = new int[MIN_CAPACITY];
+            _hashTableMask = (MIN_CAPACITY - 1);
+            _blockCount = 0;
+            _blockchainSegmentGeneration += 1L;
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+}
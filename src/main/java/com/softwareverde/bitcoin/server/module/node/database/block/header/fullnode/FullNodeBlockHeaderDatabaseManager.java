@@ -34,19 +34,143 @@ import com.softwareverde.logging.Logger;
 import com.softwareverde.util.Container;
 import com.softwareverde.util.Util;
 
+import java.sql.Connection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 
 public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseManager {
+    protected static final String BLOCK_INDEX_COLUMNS = "id, hash, previous_block_id, block_height, blockchain_segment_id, merkle_root, version, timestamp, median_block_time, difficulty, nonce, chain_work";
+    protected static final Integer MAX_PENDING_BLOCK_INDEX_COUNT = 65536;
+    protected static final Integer BLOCK_INDEX_LOAD_BATCH_SIZE = 8192;
+
+    /**
+     * The BlockIndex is shared by every FullNodeBlockHeaderDatabaseManager.
+     *  Blocks are only added to the BlockIndex once their rows are known to be committed; blocks inserted (or read) while
+     *  this manager's connection has an open transaction are indexed when the manager is closed, and only if the
+     *  transaction was not left open.  This prevents the BlockIndex from containing blocks that are later rolled back.
+     */
+    protected static final BlockIndex BLOCK_INDEX = new BlockIndex();
+
     protected final DatabaseManager _databaseManager;
     protected final CheckpointConfiguration _checkpointConfiguration;
 
+    protected final HashSet<Long> _pendingBlockIndexIds = new HashSet<Long>();
+    protected final HashSet<Long> _invalidatedBlockchainSegmentBlockIds = new HashSet<Long>();
+    protected Boolean _isInvalidatingBlockchainSegments = false;
+    protected Boolean _shouldInvalidateAllBlockchainSegments = false;
+
     public FullNodeBlockHeaderDatabaseManager(final DatabaseManager databaseManager, final CheckpointConfiguration checkpointConfiguration) {
         _databaseManager = databaseManager;
         _checkpointConfiguration = checkpointConfiguration;
     }
 
+    /**
+     * Returns true if the rows read by this manager's connection are known to be committed.
+     *  Rows are not considered committed if the connection has an open transaction (which may be rolled back), or if the
+     *  connection may read other connections' uncommitted rows.
+     */
+    protected Boolean _areReadsCommitted() {
+        try {
+            final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+            final Connection connection = databaseConnection.getRawConnection();
+            if (connection == null) { return false; }
+
+            if (! connection.getAutoCommit()) { return false; }
+            return (connection.getTransactionIsolation() != Connection.TRANSACTION_READ_UNCOMMITTED);
+        }
+        catch (final Exception exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Marks the block to be added to the BlockIndex when this manager is closed.
+     */
+    protected void _queueBlockIndexUpdate(final BlockId blockId) {
+        if (blockId == null) { return; }
+        if (_pendingBlockIndexIds.size() >= MAX_PENDING_BLOCK_INDEX_COUNT) { return; }
+
+        _pendingBlockIndexIds.add(blockId.longValue());
+    }
+
+    protected void _indexBlock(final Row row, final Long blockchainSegmentGeneration) {
+        final Long medianBlockTimeInSeconds = row.getLong("median_block_time");
+        if (medianBlockTimeInSeconds == null) { return; }
+
+        final BlockId blockId = BlockId.wrap(row.getLong("id"));
+        final Sha256Hash blockHash = Sha256Hash.wrap(row.getBytes("hash"));
+        final BlockId previousBlockId = BlockId.wrap(row.getLong("previous_block_id"));
+        final Long blockHeight = row.getLong("block_height");
+        final BlockchainSegmentId blockchainSegmentId = BlockchainSegmentId.wrap(row.getLong("blockchain_segment_id"));
+        final MerkleRoot merkleRoot = MutableMerkleRoot.copyOf(row.getBytes("merkle_root"));
+        final Long version = row.getLong("version");
+        final Long timestamp = row.getLong("timestamp");
+        final MedianBlockTime medianBlockTime = MedianBlockTime.fromSeconds(medianBlockTimeInSeconds);
+        final Difficulty difficulty = Difficulty.decode(MutableByteArray.wrap(row.getBytes("difficulty")));
+        final Long nonce = row.getLong("nonce");
+        final ChainWork chainWork = ChainWork.wrap(row.getBytes("chain_work"));
+        if ( (difficulty == null) || (chainWork == null) ) { return; }
+
+        BLOCK_INDEX.putBlock(blockId, blockHash, previousBlockId, blockHeight, version, merkleRoot, timestamp, difficulty, nonce, medianBlockTime, chainWork, blockchainSegmentId, blockchainSegmentGeneration);
+    }
+
+    protected void _indexBlocks(final List<BlockId> blockIds) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+        final BatchRunner<BlockId> batchRunner = new BatchRunner<BlockId>(batchSize, false);
+        batchRunner.run(blockIds, new BatchRunner.Batch<BlockId>() {
+            @Override
+            public void run(final List<BlockId> blockIds) throws Exception {
+                final Long blockchainSegmentGeneration = BLOCK_INDEX.getBlockchainSegmentGeneration();
+                final java.util.List<Row> rows = databaseConnection.query(
+                    new Query("SELECT " + BLOCK_INDEX_COLUMNS + " FROM blocks WHERE id IN (?) ORDER BY id ASC")
+                        .setInClauseParameters(blockIds, ValueExtractor.IDENTIFIER)
+                );
+
+                for (final Row row : rows) {
+                    _indexBlock(row, blockchainSegmentGeneration);
+                }
+            }
+        });
+    }
+
+    /**
+     * Invalidates the cached BlockchainSegmentIds of blockIds, whose BlockchainSegmentId is being set to blockchainSegmentId.
+     *  If blockchainSegmentId is not the BlockchainSegment of the first block's parent, then a new BlockchainSegment was
+     *  created, which may have split its parent's BlockchainSegment; since a split moves an arbitrary set of blocks, every
+     *  cached BlockchainSegmentId is invalidated.
+     *  The invalidation remains in progress until the manager is closed, at which point the change has been either committed
+     *  or rolled back.
+     */
+    protected void _invalidateBlockchainSegmentIds(final List<BlockId> blockIds, final BlockchainSegmentId blockchainSegmentId) throws DatabaseException {
+        if (blockIds.isEmpty()) { return; }
+
+        if (! _isInvalidatingBlockchainSegments) {
+            BLOCK_INDEX.beginBlockchainSegmentInvalidation();
+            _isInvalidatingBlockchainSegments = true;
+        }
+
+        for (final BlockId blockId : blockIds) {
+            BLOCK_INDEX.clearBlockchainSegmentId(blockId);
+            _invalidatedBlockchainSegmentBlockIds.add(blockId.longValue());
+        }
+
+        final BlockId firstBlockId = blockIds.get(0);
+        final BlockId parentBlockId = _getPreviousBlockId(firstBlockId);
+        final BlockchainSegmentId parentBlockchainSegmentId = (parentBlockId != null ? _getBlockchainSegmentId(parentBlockId) : null);
+        if (! Util.areEqual(parentBlockchainSegmentId, blockchainSegmentId)) {
+            BLOCK_INDEX.clearBlockchainSegmentIds();
+            _shouldInvalidateAllBlockchainSegments = true;
+        }
+    }
+
     protected Long _getBlockHeight(final BlockId blockId) throws DatabaseException {
+        final Long cachedBlockHeight = BLOCK_INDEX.getBlockHeight(blockId);
+        if (cachedBlockHeight != null) { return cachedBlockHeight; }
+        _queueBlockIndexUpdate(blockId);
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -61,6 +185,10 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
     }
 
     protected Long _getBlockTimestamp(final BlockId blockId) throws DatabaseException {
+        final Long cachedTimestamp = BLOCK_INDEX.getTimestamp(blockId);
+        if (cachedTimestamp != null) { return cachedTimestamp; }
+        _queueBlockIndexUpdate(blockId);
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -75,6 +203,9 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
     }
 
     protected BlockId _getBlockHeaderId(final Sha256Hash blockHash) throws DatabaseException {
+        final BlockId cachedBlockId = BLOCK_INDEX.getBlockId(blockHash);
+        if (cachedBlockId != null) { return cachedBlockId; }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -85,12 +216,18 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
         if (rows.isEmpty()) { return null; }
 
         final Row row = rows.get(0);
-        return BlockId.wrap(row.getLong("id"));
+        final BlockId blockId = BlockId.wrap(row.getLong("id"));
+        _queueBlockIndexUpdate(blockId);
+        return blockId;
     }
 
     protected Sha256Hash _getBlockHash(final BlockId blockId) throws DatabaseException {
         if (blockId == null) { return null; }
 
+        final Sha256Hash cachedBlockHash = BLOCK_INDEX.getBlockHash(blockId);
+        if (cachedBlockHash != null) { return cachedBlockHash; }
+        _queueBlockIndexUpdate(blockId);
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
         final java.util.List<Row> rows = databaseConnection.query(
             new Query("SELECT id, hash FROM blocks WHERE id = ?")
@@ -104,6 +241,10 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
     }
 
     protected BlockHeader _inflateBlockHeader(final BlockId blockId) throws DatabaseException {
+        final BlockHeader cachedBlockHeader = BLOCK_INDEX.getBlockHeader(blockId);
+        if (cachedBlockHeader != null) { return cachedBlockHeader; }
+        _queueBlockIndexUpdate(blockId);
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -156,6 +297,9 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
         final Long previousBlockHeight = _getBlockHeight(previousBlockId);
         final Long blockHeight = (previousBlockHeight == null ? 0 : (previousBlockHeight + 1));
 
+        BLOCK_INDEX.removeBlock(blockId);
+        _queueBlockIndexUpdate(blockId);
+
         databaseConnection.executeSql(
             new Query("UPDATE blocks SET hash = ?, previous_block_id = ?, block_height = ?, merkle_root = ?, version = ?, timestamp = ?, difficulty = ?, nonce = ? WHERE id = ?")
                 .setParameter(blockHeader.getHash())
@@ -185,6 +329,10 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
     }
 
     protected ChainWork _getChainWork(final BlockId blockId) throws DatabaseException {
+        final ChainWork cachedChainWork = BLOCK_INDEX.getChainWork(blockId);
+        if (cachedChainWork != null) { return cachedChainWork; }
+        _queueBlockIndexUpdate(blockId);
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -242,7 +390,9 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
                 .setParameter(chainWork)
         );
 
-        return BlockId.wrap(insertId);
+        final BlockId blockId = BlockId.wrap(insertId);
+        _queueBlockIndexUpdate(blockId);
+        return blockId;
     }
 
     protected List<BlockId> _insertBlockHeaders(final List<BlockHeader> blockHeaders) throws DatabaseException {
@@ -334,6 +484,7 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
                     final BlockId blockId = BlockId.wrap(previousBlockId);
                     blockIds.add(blockId);
                     lastInsertedBlockId.value = blockId;
+                    _queueBlockIndexUpdate(blockId);
 
                     i += 1;
                 }
@@ -348,6 +499,8 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
     protected void _setBlockchainSegmentId(final BlockId blockId, final BlockchainSegmentId blockchainSegmentId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
+        _invalidateBlockchainSegmentIds(new ImmutableList<BlockId>(blockId), blockchainSegmentId);
+
         databaseConnection.executeSql(
             new Query("UPDATE blocks SET blockchain_segment_id = ? WHERE id = ?")
                 .setParameter(blockchainSegmentId)
@@ -357,6 +510,8 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
 
     protected void _setBlockchainSegmentIds(final List<BlockId> blockIds, final BlockchainSegmentId blockchainSegmentId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        _invalidateBlockchainSegmentIds(blockIds, blockchainSegmentId);
+
         final int maxBatchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
 
         int batchStartIndex = 0;
@@ -379,6 +534,10 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
     }
 
     protected BlockchainSegmentId _getBlockchainSegmentId(final BlockId blockId) throws DatabaseException {
+        final BlockchainSegmentId cachedBlockchainSegmentId = BLOCK_INDEX.getBlockchainSegmentId(blockId);
+        if (cachedBlockchainSegmentId != null) { return cachedBlockchainSegmentId; }
+        _queueBlockIndexUpdate(blockId);
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -413,6 +572,26 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
         return blockchainDatabaseManager.areBlockchainSegmentsConnected(blockchainSegmentId1, blockchainSegmentId, blockRelationship);
     }
 
+    /**
+     * Returns the BlockId of the block at blockHeight that is within blockchainSegmentId or one of its ancestor BlockchainSegments.
+     *  Since a block at any height has exactly one ancestor at a lower height, the ancestor is resolved with a single query
+     *  via the BlockchainSegments' nested-set bounds.
+     *  Returns null if the ancestor cannot be uniquely resolved (e.g. the BlockchainSegments have not yet been numbered).
+     */
+    protected BlockId _getAncestorBlockIdAtHeight(final BlockchainSegmentId blockchainSegmentId, final Long blockHeight) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT blocks.id FROM blocks INNER JOIN blockchain_segments ON blockchain_segments.id = blocks.blockchain_segment_id INNER JOIN (SELECT nested_set_left, nested_set_right FROM blockchain_segments WHERE id = ?) AS descendant_blockchain_segment ON (blockchain_segments.nested_set_left <= descendant_blockchain_segment.nested_set_left AND blockchain_segments.nested_set_right >= descendant_blockchain_segment.nested_set_right) WHERE blocks.block_height = ? LIMIT 2")
+                .setParameter(blockchainSegmentId)
+                .setParameter(blockHeight)
+        );
+        if (rows.size() != 1) { return null; }
+
+        final Row row = rows.get(0);
+        return BlockId.wrap(row.getLong("id"));
+    }
+
     protected BlockId _getChildBlockId(final BlockchainSegmentId blockchainSegmentId, final BlockId previousBlockId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
         final BlockchainDatabaseManager blockchainDatabaseManager = _databaseManager.getBlockchainDatabaseManager();
@@ -486,6 +665,11 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
     }
 
     protected BlockId _getPreviousBlockId(final BlockId blockId) throws DatabaseException {
+        if (BLOCK_INDEX.containsBlock(blockId)) {
+            return BLOCK_INDEX.getPreviousBlockId(blockId);
+        }
+        _queueBlockIndexUpdate(blockId);
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -499,6 +683,10 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
     }
 
     protected MedianBlockTime _getMedianBlockTime(final BlockId blockId) throws DatabaseException {
+        final MedianBlockTime cachedMedianBlockTime = BLOCK_INDEX.getMedianBlockTime(blockId);
+        if (cachedMedianBlockTime != null) { return cachedMedianBlockTime; }
+        _queueBlockIndexUpdate(blockId);
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -656,9 +844,22 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final HashMap<BlockId, Long> blockHeights = new HashMap<BlockId, Long>(blockIds.getCount());
+        final MutableList<BlockId> unindexedBlockIds = new MutableList<BlockId>(0);
+        for (final BlockId blockId : blockIds) {
+            final Long blockHeight = BLOCK_INDEX.getBlockHeight(blockId);
+            if (blockHeight != null) {
+                blockHeights.put(blockId, blockHeight);
+            }
+            else {
+                unindexedBlockIds.add(blockId);
+                _queueBlockIndexUpdate(blockId);
+            }
+        }
+        if (unindexedBlockIds.isEmpty()) { return blockHeights; }
+
         final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
         final BatchRunner<BlockId> batchRunner = new BatchRunner<BlockId>(batchSize, false);
-        batchRunner.run(blockIds, new BatchRunner.Batch<BlockId>() {
+        batchRunner.run(unindexedBlockIds, new BatchRunner.Batch<BlockId>() {
             @Override
             public void run(final List<BlockId> blockIds) throws Exception {
                 final java.util.List<Row> rows = databaseConnection.query(
@@ -730,13 +931,25 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
      */
     @Override
     public List<Sha256Hash> getBlockHashes(final List<BlockId> blockIds) throws DatabaseException {
+        final HashMap<BlockId, Sha256Hash> hashesMap = new HashMap<BlockId, Sha256Hash>(blockIds.getCount());
+        final MutableList<BlockId> unindexedBlockIds = new MutableList<BlockId>(0);
+        for (final BlockId blockId : blockIds) {
+            final Sha256Hash blockHash = BLOCK_INDEX.getBlockHash(blockId);
+            if (blockHash != null) {
+                hashesMap.put(blockId, blockHash);
+            }
+            else {
+                unindexedBlockIds.add(blockId);
+                _queueBlockIndexUpdate(blockId);
+            }
+        }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-        final java.util.List<Row> rows = databaseConnection.query(
+        final java.util.List<Row> rows = (unindexedBlockIds.isEmpty() ? new java.util.ArrayList<Row>(0) : databaseConnection.query(
             new Query("SELECT id, hash FROM blocks WHERE id IN (?)")
-                .setInClauseParameters(blockIds, ValueExtractor.IDENTIFIER)
-        );
+                .setInClauseParameters(unindexedBlockIds, ValueExtractor.IDENTIFIER)
+        ));
 
-        final HashMap<BlockId, Sha256Hash> hashesMap = new HashMap<BlockId, Sha256Hash>(rows.size());
         for (final Row row : rows) {
             final BlockId blockId = BlockId.wrap(row.getLong("id"));
             final Sha256Hash blockHash = Sha256Hash.copyOf(row.getBytes("hash"));
@@ -765,7 +978,22 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
             return _getPreviousBlockId(blockId);
         }
 
-        // TODO: Use blockHeight and blockChainSegmentId for constant-time lookups...
+        final BlockId cachedAncestorBlockId = BLOCK_INDEX.getAncestorBlockId(blockId, parentCount);
+        if (cachedAncestorBlockId != null) { return cachedAncestorBlockId; }
+
+        { // Resolve the ancestor by its height within the block's BlockchainSegment or one of its parent BlockchainSegments...
+            final Long blockHeight = _getBlockHeight(blockId);
+            if (blockHeight == null) { return null; }
+            if (parentCount > blockHeight) { return null; }
+
+            final BlockchainSegmentId blockchainSegmentId = _getBlockchainSegmentId(blockId);
+            if (blockchainSegmentId != null) {
+                final BlockId ancestorBlockId = _getAncestorBlockIdAtHeight(blockchainSegmentId, (blockHeight - parentCount));
+                if (ancestorBlockId != null) { return ancestorBlockId; }
+            }
+        }
+
+        // The BlockchainSegment may not be assigned yet (or its nested-set numbering is not yet updated), so walk the chain...
         BlockId nextBlockId = blockId;
         for (int i = 0; i < parentCount; ++i) {
             final BlockHeader blockHeader = _inflateBlockHeader(nextBlockId);
@@ -842,6 +1070,66 @@ public class FullNodeBlockHeaderDatabaseManager implements BlockHeaderDatabaseMa
         return null;
     }
 
+    /**
+     * Loads every stored BlockHeader into the (shared) BlockIndex.
+     *  Blocks are loaded in ascending order of their BlockId, so that each block's parent is indexed before the block itself.
+     *  This function should not be invoked while the manager's connection has an open transaction.
+     */
+    public void loadBlockIndex() throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        long lastBlockId = 0L;
+        while (true) {
+            final Long blockchainSegmentGeneration = BLOCK_INDEX.getBlockchainSegmentGeneration();
+            final java.util.List<Row> rows = databaseConnection.query(
+                new Query("SELECT " + BLOCK_INDEX_COLUMNS + " FROM blocks WHERE id > ? ORDER BY id ASC LIMIT " + BLOCK_INDEX_LOAD_BATCH_SIZE)
+                    .setParameter(lastBlockId)
+            );
+            if (rows.isEmpty()) { break; }
+
+            for (final Row row : rows) {
+                _indexBlock(row, blockchainSegmentGeneration);
+                lastBlockId = row.getLong("id");
+            }
+        }
+    }
+
+    /**
+     * Indexes the blocks that were stored or read by this manager, and ends any BlockchainSegment invalidation started by
+     *  this manager.  This function is invoked when the manager's DatabaseManager is closed.
+     *  If the connection still has an open transaction then its changes are about to be rolled back, so none of the
+     *  pending blocks are indexed.
+     */
+    public void updateBlockIndex() throws DatabaseException {
+        final Boolean readsAreCommitted = _areReadsCommitted();
+
+        if (_isInvalidatingBlockchainSegments) {
+            // Readers may have cached the pre-commit BlockchainSegmentIds before the change was committed, so invalidate them again...
+            if (_shouldInvalidateAllBlockchainSegments) {
+                BLOCK_INDEX.clearBlockchainSegmentIds();
+            }
+            else {
+                for (final Long blockId : _invalidatedBlockchainSegmentBlockIds) {
+                    BLOCK_INDEX.clearBlockchainSegmentId(BlockId.wrap(blockId));
+                }
+            }
+            BLOCK_INDEX.endBlockchainSegmentInvalidation();
+
+            _isInvalidatingBlockchainSegments = false;
+            _shouldInvalidateAllBlockchainSegments = false;
+            _invalidatedBlockchainSegmentBlockIds.clear();
+        }
+
+        if ( readsAreCommitted && (! _pendingBlockIndexIds.isEmpty()) ) {
+            final MutableList<BlockId> blockIds = new MutableList<BlockId>(_pendingBlockIndexIds.size());
+            for (final Long blockId : _pendingBlockIndexIds) {
+                blockIds.add(BlockId.wrap(blockId));
+            }
+            _indexBlocks(blockIds);
+        }
+        _pendingBlockIndexIds.clear();
+    }
+
     @Override
     public Boolean isBlockInvalid(final Sha256Hash blockHash) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
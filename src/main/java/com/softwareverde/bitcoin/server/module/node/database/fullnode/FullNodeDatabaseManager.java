@@ -175,6 +175,13 @@ public class FullNodeDatabaseManager implements DatabaseManager {
 
     @Override
     public void close() throws DatabaseException {
-        _databaseConnection.close();
+        try {
+            if (_blockHeaderDatabaseManager != null) {
+                _blockHeaderDatabaseManager.updateBlockIndex();
+            }
+        }
+        finally {
+            _databaseConnection.close();
+        }
     }
 }
@@ -19,14 +19,19 @@ public interface FullNodeTransactionDatabaseManager extends TransactionDatabaseM
     List<TransactionId> storeTransactionHashes(List<Transaction> transactions, DatabaseConnectionFactory databaseConnectionFactory, Integer maxConnectionCount) throws DatabaseException;
     Boolean previousOutputsExist(Transaction transaction) throws DatabaseException;
 
+    // "Returns null if the Transaction could not be added to the memory pool (i.e. the pool is full)..."
     TransactionId storeUnconfirmedTransaction(Transaction transaction) throws DatabaseException;
+
+    // "Returns the TransactionIds of the Transactions added to the memory pool; Transactions that could not be added are excluded..."
     List<TransactionId> storeUnconfirmedTransactions(List<Transaction> transactions) throws DatabaseException;
+
     void addToUnconfirmedTransactions(TransactionId transactionId) throws DatabaseException;
     void addToUnconfirmedTransactions(List<TransactionId> transactionIds) throws DatabaseException;
     void removeFromUnconfirmedTransactions(TransactionId transactionId) throws DatabaseException;
     void removeFromUnconfirmedTransactions(List<TransactionId> transactionIds) throws DatabaseException;
     Boolean isUnconfirmedTransaction(TransactionId transactionId) throws DatabaseException;
     List<TransactionId> getUnconfirmedTransactionIds() throws DatabaseException;
+    List<Sha256Hash> getUnconfirmedTransactionHashes() throws DatabaseException;
 
     // "Select transactions that are unconfirmed that spend an output spent by any of these transactionIds..."
     List<TransactionId> getUnconfirmedTransactionsDependingOnSpentInputsOf(List<Transaction> transactions) throws DatabaseException;
@@ -17,8 +17,11 @@ import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDa
 import com.softwareverde.bitcoin.server.module.node.database.indexer.BlockchainIndexerDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.TransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.input.UnconfirmedTransactionInputDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.mempool.MemoryPool;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.output.UnconfirmedTransactionOutputDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.store.BlockStore;
+import com.softwareverde.bitcoin.server.module.node.store.BlockTransactionIndex;
 import com.softwareverde.bitcoin.slp.SlpTokenId;
 import com.softwareverde.bitcoin.transaction.MutableTransaction;
 import com.softwareverde.bitcoin.transaction.Transaction;
@@ -30,6 +33,7 @@ import com.softwareverde.bitcoin.transaction.locktime.ImmutableLockTime;
 import com.softwareverde.bitcoin.transaction.locktime.LockTime;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.UnconfirmedTransactionOutputId;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.JavaListWrapper;
@@ -52,6 +56,26 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransactionDatabaseManager {
+    protected static final Container<MemoryPool> MEMORY_POOL = new Container<MemoryPool>(null); // null indicates the memory pool is stored within the unconfirmed_transactions tables.
+
+    /**
+     * Sets the in-memory pool of unconfirmed Transactions; if null, unconfirmed Transactions are stored within the database.
+     *  The pool must be set before any unconfirmed Transactions are stored and remains owned (and closed) by the caller.
+     */
+    public static void setMemoryPool(final MemoryPool memoryPool) {
+        TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.lock();
+        try {
+            MEMORY_POOL.value = memoryPool;
+        }
+        finally {
+            TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.unlock();
+        }
+    }
+
+    public static MemoryPool getMemoryPool() {
+        return MEMORY_POOL.value;
+    }
+
     protected final SystemTime _systemTime = new SystemTime();
     protected final FullNodeDatabaseManager _databaseManager;
     protected final MasterInflater _masterInflater;
@@ -165,6 +189,11 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
     }
 
     protected Transaction _getUnconfirmedTransaction(final TransactionId transactionId) throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        if (memoryPool != null) {
+            return memoryPool.getTransaction(transactionId);
+        }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -205,10 +234,27 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
         return transaction;
     }
 
-    protected Transaction _getTransaction(final TransactionId transactionId) throws DatabaseException {
+    /**
+     * Reads the serialized Transaction from the stored Block, located via the Block's BlockTransactionIndex.
+     *  Returns null if the Block has no index or does not contain the Transaction.
+     */
+    protected ByteArray _readIndexedTransaction(final Sha256Hash blockHash, final Long blockHeight, final Sha256Hash transactionHash) {
+        final BlockTransactionIndex blockTransactionIndex = _blockStore.getBlockTransactionIndex(blockHash, blockHeight);
+        if (blockTransactionIndex == null) { return null; }
+
+        final Integer transactionIndex = blockTransactionIndex.indexOf(transactionHash);
+        if (transactionIndex == null) { return null; }
+
+        return _blockStore.readFromBlock(blockHash, blockHeight, blockTransactionIndex.getDiskOffset(transactionIndex), blockTransactionIndex.getByteCount(transactionIndex));
+    }
+
+    /**
+     * Reads the serialized Transaction from the stored Block, located via its block_transactions.disk_offset.
+     *  Only used for Blocks stored before the BlockTransactionIndex existed.
+     */
+    protected ByteArray _readTransactionAtDiskOffset(final TransactionId transactionId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
-        // Attempt to load the Transaction from a Block on disk...
         final java.util.List<Row> rows = databaseConnection.query(
             new Query("SELECT blocks.hash AS block_hash, blocks.block_height, block_transactions.disk_offset, transactions.byte_count FROM transactions INNER JOIN block_transactions ON transactions.id = block_transactions.transaction_id INNER JOIN blocks ON blocks.id = block_transactions.block_id WHERE transactions.id = ? LIMIT 1")
                 .setParameter(transactionId)
@@ -221,14 +267,67 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
         final Long diskOffset = row.getLong("disk_offset");
         final Integer byteCount = row.getInteger("byte_count");
 
-        final ByteArray transactionData = _blockStore.readFromBlock(blockHash, blockHeight, diskOffset, byteCount);
+        return _blockStore.readFromBlock(blockHash, blockHeight, diskOffset, byteCount);
+    }
+
+    protected Transaction _getTransaction(final TransactionId transactionId) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        // Attempt to load the Transaction from a Block on disk...
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT blocks.hash AS block_hash, blocks.block_height, transactions.hash AS transaction_hash FROM transactions INNER JOIN block_transactions ON transactions.id = block_transactions.transaction_id INNER JOIN blocks ON blocks.id = block_transactions.block_id WHERE transactions.id = ? LIMIT 1")
+                .setParameter(transactionId)
+        );
+        if (rows.isEmpty()) { return null; }
+
+        final Row row = rows.get(0);
+        final Sha256Hash blockHash = Sha256Hash.copyOf(row.getBytes("block_hash"));
+        final Long blockHeight = row.getLong("block_height");
+        final Sha256Hash transactionHash = Sha256Hash.copyOf(row.getBytes("transaction_hash"));
+
+        final ByteArray indexedTransactionData = _readIndexedTransaction(blockHash, blockHeight, transactionHash);
+        final ByteArray transactionData = (indexedTransactionData != null ? indexedTransactionData : _readTransactionAtDiskOffset(transactionId));
         if (transactionData == null) { return null; }
 
         final TransactionInflater transactionInflater = _masterInflater.getTransactionInflater();
         return transactionInflater.fromBytes(transactionData);
     }
 
+    protected List<TransactionId> _getUnconfirmedTransactionsDependingOn(final MemoryPool memoryPool, final List<TransactionId> transactionIds) throws DatabaseException {
+        if (transactionIds.isEmpty()) { return new MutableList<TransactionId>(0); }
+
+        final MutableList<Sha256Hash> transactionHashes = new MutableList<Sha256Hash>(transactionIds.getCount());
+        final MutableList<TransactionId> removedTransactionIds = new MutableList<TransactionId>();
+        for (final TransactionId transactionId : transactionIds) {
+            final Transaction transaction = memoryPool.getTransaction(transactionId);
+            if (transaction != null) {
+                transactionHashes.add(transaction.getHash());
+            }
+            else {
+                removedTransactionIds.add(transactionId);
+            }
+        }
+
+        if (! removedTransactionIds.isEmpty()) { // The Transactions are typically no longer within the pool (i.e. they were just removed)...
+            final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+            final java.util.List<Row> rows = databaseConnection.query(
+                new Query("SELECT hash FROM transactions WHERE id IN (?)")
+                    .setInClauseParameters(removedTransactionIds, ValueExtractor.IDENTIFIER)
+            );
+            for (final Row row : rows) {
+                transactionHashes.add(Sha256Hash.copyOf(row.getBytes("hash")));
+            }
+        }
+
+        return memoryPool.getChildTransactionIds(transactionHashes);
+    }
+
     protected List<TransactionId> _getUnconfirmedTransactionsDependingOn(final List<TransactionId> transactionIds) throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        if (memoryPool != null) {
+            return _getUnconfirmedTransactionsDependingOn(memoryPool, transactionIds);
+        }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -371,6 +470,82 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
         return transactionIds.build();
     }
 
+    /**
+     * Calculates the fee of the Transaction from the outputs of the MemoryPool and the UTXO set.
+     *  Returns null if any of the Transaction's previous outputs could not be found.
+     */
+    protected Long _calculateUnconfirmedTransactionFee(final MemoryPool memoryPool, final Transaction transaction) throws DatabaseException {
+        long totalInputAmount = 0L;
+
+        final MutableList<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>();
+        for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+            final TransactionOutputIdentifier transactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
+            final TransactionOutput transactionOutput = memoryPool.getTransactionOutput(transactionOutputIdentifier);
+            if (transactionOutput != null) {
+                totalInputAmount += transactionOutput.getAmount();
+            }
+            else {
+                unspentTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+            }
+        }
+
+        if (! unspentTransactionOutputIdentifiers.isEmpty()) {
+            final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _databaseManager.getUnspentTransactionOutputDatabaseManager();
+            final List<UnspentTransactionOutput> unspentTransactionOutputs = unspentTransactionOutputDatabaseManager.getUnspentTransactionOutputs(unspentTransactionOutputIdentifiers);
+            for (final UnspentTransactionOutput unspentTransactionOutput : unspentTransactionOutputs) {
+                if (unspentTransactionOutput == null) { return null; }
+                totalInputAmount += unspentTransactionOutput.getAmount();
+            }
+        }
+
+        final Long totalOutputValue = transaction.getTotalOutputValue();
+        return (totalInputAmount - totalOutputValue);
+    }
+
+    /**
+     * Adds the Transactions to the memory pool, whether it is stored within the JVM or the database.
+     *  The fees of the Transactions are calculated before acquiring UNCONFIRMED_TRANSACTIONS_WRITE_LOCK, since the UTXO set's lock must not be acquired while it is held.
+     *  Returns the TransactionIds of the Transactions within the memory pool; Transactions rejected by a full MemoryPool are excluded.
+     */
+    protected List<TransactionId> _addToUnconfirmedTransactions(final List<TransactionId> transactionIds, final List<Transaction> transactions) throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        final MutableList<TransactionId> addedTransactionIds = new MutableList<TransactionId>(transactionIds.getCount());
+
+        final MutableList<Long> transactionFees = new MutableList<Long>(transactions.getCount());
+        if (memoryPool != null) {
+            for (int i = 0; i < transactions.getCount(); ++i) {
+                final TransactionId transactionId = transactionIds.get(i);
+                final Transaction transaction = transactions.get(i);
+                final Boolean isUnconfirmedTransaction = memoryPool.containsTransaction(transactionId);
+                transactionFees.add(isUnconfirmedTransaction ? null : _calculateUnconfirmedTransactionFee(memoryPool, transaction));
+            }
+        }
+
+        TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.lock();
+        try {
+            for (int i = 0; i < transactions.getCount(); ++i) {
+                final TransactionId transactionId = transactionIds.get(i);
+                final Transaction transaction = transactions.get(i);
+
+                if (memoryPool != null) {
+                    final Long transactionFee = transactionFees.get(i);
+                    final Boolean wasAdded = memoryPool.addTransaction(transactionId, transaction, transactionFee);
+                    if ( (! wasAdded) && (! memoryPool.containsTransaction(transactionId)) ) { continue; } // The MemoryPool is full...
+                }
+                else {
+                    _storeUnconfirmedTransaction(transactionId, transaction);
+                }
+
+                addedTransactionIds.add(transactionId);
+            }
+        }
+        finally {
+            TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.unlock();
+        }
+
+        return addedTransactionIds;
+    }
+
     public FullNodeTransactionDatabaseManagerCore(final FullNodeDatabaseManager databaseManager, final BlockStore blockStore, final MasterInflater masterInflater) {
         _databaseManager = databaseManager;
         _masterInflater = masterInflater;
@@ -401,17 +576,18 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
 
                 // TODO: remove non-deterministic group-by clause.
                 final java.util.List<Row> rows = databaseConnection.query(
-                    new Query("SELECT blocks.hash AS block_hash, blocks.block_height, block_transactions.disk_offset, transactions.byte_count FROM transactions INNER JOIN block_transactions ON transactions.id = block_transactions.transaction_id INNER JOIN blocks ON blocks.id = block_transactions.block_id WHERE transactions.hash IN (?) GROUP BY transactions.hash")
-                        .setInClauseParameters(transactionHashes, ValueExtractor.SHA256_HASH)
+                    new Query("SELECT blocks.hash AS block_hash, blocks.block_height, transactions.id AS transaction_id, transactions.hash AS transaction_hash FROM transactions INNER JOIN block_transactions ON transactions.id = block_transactions.transaction_id INNER JOIN blocks ON blocks.id = block_transactions.block_id WHERE transactions.hash IN (?) GROUP BY transactions.hash")
+                        .setInClauseParameters(batchItems, ValueExtractor.SHA256_HASH)
                 );
 
                 for (final Row row : rows) {
                     final Sha256Hash blockHash = Sha256Hash.copyOf(row.getBytes("block_hash"));
                     final Long blockHeight = row.getLong("block_height");
-                    final Long diskOffset = row.getLong("disk_offset");
-                    final Integer byteCount = row.getInteger("byte_count");
+                    final TransactionId transactionId = TransactionId.wrap(row.getLong("transaction_id"));
+                    final Sha256Hash transactionHash = Sha256Hash.copyOf(row.getBytes("transaction_hash"));
 
-                    final ByteArray transactionData = _blockStore.readFromBlock(blockHash, blockHeight, diskOffset, byteCount);
+                    final ByteArray indexedTransactionData = _readIndexedTransaction(blockHash, blockHeight, transactionHash);
+                    final ByteArray transactionData = (indexedTransactionData != null ? indexedTransactionData : _readTransactionAtDiskOffset(transactionId));
                     if (transactionData == null) {
                         Logger.debug("Unable to load transaction from block.");
                         errorContainer.value = true;
@@ -426,7 +602,6 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
                         return;
                     }
 
-                    final Sha256Hash transactionHash = transaction.getHash();
                     transactions.put(transactionHash, transaction);
                 }
             }
@@ -435,10 +610,11 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
         if (errorContainer.value) { return null; }
 
         // Check for unconfirmed Transactions...
+        final MemoryPool memoryPool = MEMORY_POOL.value;
         for (final Sha256Hash transactionHash : transactionHashes) {
             if (transactions.containsKey(transactionHash)) { continue; }
 
-            final TransactionId transactionId = _getTransactionId(transactionHash);
+            final TransactionId transactionId = (memoryPool != null ? memoryPool.getTransactionId(transactionHash) : _getTransactionId(transactionHash));
             final Transaction unconfirmedTransaction = _getUnconfirmedTransaction(transactionId);
             if (unconfirmedTransaction != null) {
                 transactions.put(transactionHash, unconfirmedTransaction);
@@ -480,36 +656,33 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
     public TransactionId storeUnconfirmedTransaction(final Transaction transaction) throws DatabaseException {
         final TransactionId transactionId = _storeTransactionHash(transaction);
 
-        TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.lock();
-        try {
-            _storeUnconfirmedTransaction(transactionId, transaction);
-        }
-        finally {
-            TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.unlock();
-        }
+        final MutableList<TransactionId> transactionIds = new MutableList<TransactionId>(1);
+        transactionIds.add(transactionId);
+        final MutableList<Transaction> transactions = new MutableList<Transaction>(1);
+        transactions.add(transaction);
+
+        final List<TransactionId> addedTransactionIds = _addToUnconfirmedTransactions(transactionIds, transactions);
+        if (addedTransactionIds.isEmpty()) { return null; }
+
         return transactionId;
     }
 
     @Override
     public List<TransactionId> storeUnconfirmedTransactions(final List<Transaction> transactions) throws DatabaseException {
-
-        TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.lock();
         final MutableList<TransactionId> transactionIds = new MutableList<TransactionId>(transactions.getCount());
-        try {
-            for (final Transaction transaction : transactions) {
-                final TransactionId transactionId = _storeTransactionHash(transaction);
-                _storeUnconfirmedTransaction(transactionId, transaction);
-                transactionIds.add(transactionId);
-            }
-        }
-        finally {
-            TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.unlock();
+        for (final Transaction transaction : transactions) {
+            final TransactionId transactionId = _storeTransactionHash(transaction);
+            transactionIds.add(transactionId);
         }
-        return transactionIds;
+
+        return _addToUnconfirmedTransactions(transactionIds, transactions);
     }
 
     @Override
     public void addToUnconfirmedTransactions(final TransactionId transactionId) throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        if ( (memoryPool != null) && memoryPool.containsTransaction(transactionId) ) { return; }
+
         final Transaction transaction;
         {
             final Transaction onDiskTransaction = _getTransaction(transactionId);
@@ -524,20 +697,24 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
             throw new DatabaseException("Unable to load transaction: " + transactionId);
         }
 
-        TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.lock();
-        try {
-            _storeUnconfirmedTransaction(transactionId, transaction);
-        }
-        finally {
-            TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.unlock();
-        }
+        final MutableList<TransactionId> transactionIds = new MutableList<TransactionId>(1);
+        transactionIds.add(transactionId);
+        final MutableList<Transaction> transactions = new MutableList<Transaction>(1);
+        transactions.add(transaction);
+
+        _addToUnconfirmedTransactions(transactionIds, transactions);
     }
 
     @Override
     public void addToUnconfirmedTransactions(final List<TransactionId> transactionIds) throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+
+        final MutableList<TransactionId> newTransactionIds = new MutableList<TransactionId>(transactionIds.getCount());
         final MutableList<Transaction> transactions = new MutableList<Transaction>(transactionIds.getCount());
 
         for (final TransactionId transactionId : transactionIds) {
+            if ( (memoryPool != null) && memoryPool.containsTransaction(transactionId) ) { continue; }
+
             final Transaction transaction;
             {
                 final Transaction onDiskTransaction = _getTransaction(transactionId);
@@ -553,28 +730,27 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
                 throw new DatabaseException("Unable to load transaction: " + transactionId);
             }
 
+            newTransactionIds.add(transactionId);
             transactions.add(transaction);
         }
 
-        TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.lock();
-        try {
-            for (int i = 0; i < transactions.getCount(); ++i) {
-                final TransactionId transactionId = transactionIds.get(i);
-                final Transaction transaction = transactions.get(i);
-
-                _storeUnconfirmedTransaction(transactionId, transaction);
-            }
-        }
-        finally {
-            TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.unlock();
-        }
+        _addToUnconfirmedTransactions(newTransactionIds, transactions);
     }
 
     @Override
     public void removeFromUnconfirmedTransactions(final TransactionId transactionId) throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+
         TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.lock();
         try {
-            _deleteFromUnconfirmedTransactions(transactionId);
+            if (memoryPool != null) {
+                final MutableList<TransactionId> transactionIds = new MutableList<TransactionId>(1);
+                transactionIds.add(transactionId);
+                memoryPool.removeTransactions(transactionIds);
+            }
+            else {
+                _deleteFromUnconfirmedTransactions(transactionId);
+            }
         }
         finally {
             TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.unlock();
@@ -583,9 +759,16 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
 
     @Override
     public void removeFromUnconfirmedTransactions(final List<TransactionId> transactionIds) throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+
         TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.lock();
         try {
-            _deleteFromUnconfirmedTransactions(transactionIds);
+            if (memoryPool != null) {
+                memoryPool.removeTransactions(transactionIds);
+            }
+            else {
+                _deleteFromUnconfirmedTransactions(transactionIds);
+            }
         }
         finally {
             TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_WRITE_LOCK.unlock();
@@ -594,6 +777,11 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
 
     @Override
     public Boolean isUnconfirmedTransaction(final TransactionId transactionId) throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        if (memoryPool != null) {
+            return memoryPool.containsTransaction(transactionId);
+        }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_READ_LOCK.lock();
@@ -612,6 +800,11 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
 
     @Override
     public List<TransactionId> getUnconfirmedTransactionIds() throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        if (memoryPool != null) {
+            return memoryPool.getTransactionIds();
+        }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_READ_LOCK.lock();
@@ -633,6 +826,34 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
         return listBuilder.build();
     }
 
+    @Override
+    public List<Sha256Hash> getUnconfirmedTransactionHashes() throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        if (memoryPool != null) {
+            return memoryPool.getTransactionHashes();
+        }
+
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_READ_LOCK.lock();
+        final java.util.List<Row> rows;
+        try {
+            rows = databaseConnection.query(
+                new Query("SELECT transactions.hash FROM unconfirmed_transactions INNER JOIN transactions ON transactions.id = unconfirmed_transactions.transaction_id")
+            );
+        }
+        finally {
+            TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_READ_LOCK.unlock();
+        }
+
+        final ImmutableListBuilder<Sha256Hash> listBuilder = new ImmutableListBuilder<Sha256Hash>(rows.size());
+        for (final Row row : rows) {
+            final Sha256Hash transactionHash = Sha256Hash.copyOf(row.getBytes("hash"));
+            listBuilder.add(transactionHash);
+        }
+        return listBuilder.build();
+    }
+
     @Override
     public List<TransactionId> getUnconfirmedTransactionsDependingOnSpentInputsOf(final List<Transaction> transactions) throws DatabaseException {
         if (transactions.isEmpty()) { return new MutableList<TransactionId>(0); }
@@ -646,6 +867,19 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
             }
         }
 
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        if (memoryPool != null) {
+            TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_READ_LOCK.lock();
+            try {
+                final MutableList<TransactionId> transactionIds = new MutableList<TransactionId>(memoryPool.getSpendingTransactionIds(transactionOutputIdentifiers));
+                transactionIds.addAll(_getUnconfirmedTransactionsDependingOn(memoryPool, transactionIds));
+                return transactionIds;
+            }
+            finally {
+                TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_READ_LOCK.unlock();
+            }
+        }
+
         TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_READ_LOCK.lock();
         java.util.List<Row> rows = new ArrayList<Row>(0);
         try {
@@ -687,6 +921,11 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
 
     @Override
     public Integer getUnconfirmedTransactionCount() throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        if (memoryPool != null) {
+            return memoryPool.getTransactionCount();
+        }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         TransactionDatabaseManager.UNCONFIRMED_TRANSACTIONS_READ_LOCK.lock();
@@ -706,6 +945,13 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
 
     @Override
     public Long calculateTransactionFee(final Transaction transaction) throws DatabaseException {
+        final MemoryPool memoryPool = MEMORY_POOL.value;
+        if (memoryPool != null) { // Use the fee calculated when the Transaction was added to the pool, if available...
+            final TransactionId transactionId = memoryPool.getTransactionId(transaction.getHash());
+            final Long transactionFee = (transactionId != null ? memoryPool.getTransactionFee(transactionId) : null);
+            if (transactionFee != null) { return transactionFee; }
+        }
+
         long totalInputAmount = 0L;
         {
             final List<TransactionInput> transactionInputs = transaction.getTransactionInputs();
@@ -0,0 +1,616 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.mempool;
+
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionDeflater;
+import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.TransactionInflater;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The set of unconfirmed Transactions, held within the JVM instead of the unconfirmed_transactions tables.
+ *  Transactions are indexed by their TransactionId and hash, the outputs they spend (i.e. to detect double-spends), and the
+ *  hashes of the Transactions they spend from (i.e. to find their dependents, regardless of the order they were added).
+ *  The total byte count and fees of the pool are maintained as Transactions are added and removed; Transactions are rejected
+ *  once the pool's byte count would exceed its maximum.
+ *
+ *  If a journal file is provided, every addition and removal is appended to the journal so that the pool may be restored
+ *  after a restart (see ::getRestoredTransactions); the journal is never read while the node is running.
+ *  The journal is left untouched until ::openJournal is invoked, so that a failed restore does not lose the previous pool.
+ *  Journal records:
+ *      [1] ADD_RECORD, [4] Byte Count, [Byte Count] Transaction
+ *      [1] REMOVE_RECORD, [32] Transaction Hash
+ *  An incomplete record (i.e. from a crash) ends the journal.
+ */
+public class MemoryPool implements AutoCloseable {
+    protected static final byte ADD_RECORD = 0x01;
+    protected static final byte REMOVE_RECORD = 0x02;
+    protected static final Integer MIN_COMPACTION_RECORD_COUNT = 4096;
+
+    public static final Long DEFAULT_MAX_BYTE_COUNT = (300L * 1024L * 1024L);
+
+    protected static class Entry {
+        public final TransactionId transactionId;
+        public final Transaction transaction;
+        public final Integer byteCount;
+        public final Long fee; // May be null if the fee could not be calculated.
+
+        public Entry(final TransactionId transactionId, final Transaction transaction, final Long fee) {
+            this.transactionId = transactionId;
+            this.transaction = transaction;
+            this.byteCount = transaction.getByteCount();
+            this.fee = fee;
+        }
+    }
+
+    /**
+     * Reads the Transactions still within the pool when the journal was last written, in the order they were added.
+     */
+    protected static List<Transaction> _readJournal(final File journalFile) {
+        final LinkedHashMap<Sha256Hash, Transaction> transactions = new LinkedHashMap<Sha256Hash, Transaction>();
+        if (! journalFile.exists()) { return new MutableList<Transaction>(0); }
+
+        final TransactionInflater transactionInflater = new TransactionInflater();
+        try (final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            while (true) {
+                final int recordType = inputStream.read();
+                if (recordType < 0) { break; }
+
+                if (recordType == ADD_RECORD) {
+                    final int byteCount = inputStream.readInt();
+                    if (byteCount <= 0) { break; }
+
+                    final byte[] bytes = new byte[byteCount];
+                    inputStream.readFully(bytes);
+
+                    final Transaction transaction = transactionInflater.fromBytes(bytes);
+                    if (transaction == null) { break; }
+
+                    final Transaction constTransaction = transaction.asConst();
+                    transactions.put(constTransaction.getHash(), constTransaction);
+                }
+                else if (recordType == REMOVE_RECORD) {
+                    final byte[] bytes = new byte[Sha256Hash.BYTE_COUNT];
+                    inputStream.readFully(bytes);
+                    transactions.remove(Sha256Hash.wrap(bytes));
+                }
+                else {
+                    Logger.debug("Unknown MemoryPool journal record: " + recordType);
+                    break;
+                }
+            }
+        }
+        catch (final EOFException exception) {
+            Logger.debug("Discarding incomplete MemoryPool journal record.");
+        }
+        catch (final IOException exception) {
+            Logger.warn("Unable to read MemoryPool journal: " + journalFile.getAbsolutePath(), exception);
+        }
+
+        return new MutableList<Transaction>(transactions.values());
+    }
+
+    protected final ReentrantReadWriteLock.ReadLock _readLock;
+    protected final ReentrantReadWriteLock.WriteLock _writeLock;
+
+    protected final HashMap<TransactionId, Entry> _entries = new HashMap<TransactionId, Entry>();
+    protected final HashMap<Sha256Hash, TransactionId> _transactionIds = new HashMap<Sha256Hash, TransactionId>();
+    protected final HashMap<TransactionOutputIdentifier, TransactionId> _spendingTransactionIds = new HashMap<TransactionOutputIdentifier, TransactionId>();
+    protected final HashMap<Sha256Hash, HashSet<TransactionId>> _childTransactionIds = new HashMap<Sha256Hash, HashSet<TransactionId>>(); // Keyed by the hash of the spent Transaction, which may not be within the pool.
+    protected final Long _maxByteCount;
+    protected long _byteCount = 0L;
+    protected long _totalFee = 0L;
+
+    protected final File _journalFile;
+    protected final TransactionDeflater _transactionDeflater = new TransactionDeflater();
+    protected DataOutputStream _journalOutputStream;
+    protected long _journalRecordCount = 0L;
+    protected List<Transaction> _restoredTransactions;
+
+    protected void _openJournal() throws IOException {
+        _journalOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(_journalFile, true)));
+    }
+
+    protected void _closeJournal() {
+        final DataOutputStream journalOutputStream = _journalOutputStream;
+        if (journalOutputStream == null) { return; }
+
+        _journalOutputStream = null;
+        try {
+            journalOutputStream.close();
+        }
+        catch (final IOException exception) {
+            Logger.debug(exception);
+        }
+    }
+
+    protected void _writeAddRecord(final DataOutputStream outputStream, final Transaction transaction) throws IOException {
+        final ByteArray bytes = _transactionDeflater.toBytes(transaction);
+        outputStream.writeByte(ADD_RECORD);
+        outputStream.writeInt(bytes.getByteCount());
+        outputStream.write(bytes.getBytes());
+        _journalRecordCount += 1L;
+    }
+
+    /**
+     * Rewrites the journal with only the Transactions currently within the pool, then reopens it for appending.
+     *  The rewritten journal replaces the previous journal only once it is complete, so a crash mid-rewrite leaves the previous journal intact.
+     */
+    protected void _compactJournal() throws IOException {
+        _closeJournal();
+
+        final File temporaryJournalFile = new File(_journalFile.getPath() + ".tmp");
+        _journalRecordCount = 0L;
+        try (final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryJournalFile, false)))) {
+            for (final Entry entry : _entries.values()) {
+                _writeAddRecord(outputStream, entry.transaction);
+            }
+        }
+        Files.move(temporaryJournalFile.toPath(), _journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        _openJournal();
+    }
+
+    /**
+     * Journal failures are logged rather than thrown; the in-memory pool remains authoritative and only restart persistence is lost.
+     */
+    protected void _journalAddition(final List<Entry> entries) {
+        if (_journalOutputStream == null) { return; }
+
+        try {
+            for (final Entry entry : entries) {
+                _writeAddRecord(_journalOutputStream, entry.transaction);
+            }
+            _journalOutputStream.flush();
+        }
+        catch (final IOException exception) {
+            Logger.warn("Unable to write MemoryPool journal; disabling journal.", exception);
+            _closeJournal();
+        }
+    }
+
+    protected void _journalRemoval(final List<Entry> entries) {
+        if (_journalOutputStream == null) { return; }
+
+        try {
+            if (_journalRecordCount >= Math.max(MIN_COMPACTION_RECORD_COUNT, (_entries.size() * 2L))) {
+                _compactJournal();
+                return;
+            }
+
+            for (final Entry entry : entries) {
+                final Sha256Hash transactionHash = entry.transaction.getHash();
+                _journalOutputStream.writeByte(REMOVE_RECORD);
+                _journalOutputStream.write(transactionHash.getBytes());
+                _journalRecordCount += 1L;
+            }
+            _journalOutputStream.flush();
+        }
+        catch (final IOException exception) {
+            Logger.warn("Unable to write MemoryPool journal; disabling journal.", exception);
+            _closeJournal();
+        }
+    }
+
+    protected Entry _addTransaction(final TransactionId transactionId, final Transaction transaction, final Long fee) {
+        if (_entries.containsKey(transactionId)) { return null; }
+
+        final Transaction constTransaction = transaction.asConst();
+        final Entry entry = new Entry(transactionId, constTransaction, fee);
+        _entries.put(transactionId, entry);
+        _transactionIds.put(constTransaction.getHash(), transactionId);
+
+        for (final TransactionInput transactionInput : constTransaction.getTransactionInputs()) {
+            final TransactionOutputIdentifier transactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
+            _spendingTransactionIds.put(transactionOutputIdentifier, transactionId);
+
+            final Sha256Hash previousTransactionHash = transactionOutputIdentifier.getTransactionHash();
+            HashSet<TransactionId> childTransactionIds = _childTransactionIds.get(previousTransactionHash);
+            if (childTransactionIds == null) {
+                childTransactionIds = new HashSet<TransactionId>(1);
+                _childTransactionIds.put(previousTransactionHash, childTransactionIds);
+            }
+            childTransactionIds.add(transactionId);
+        }
+
+        _byteCount += entry.byteCount;
+        if (fee != null) {
+            _totalFee += fee;
+        }
+        return entry;
+    }
+
+    protected Entry _removeTransaction(final TransactionId transactionId) {
+        final Entry entry = _entries.remove(transactionId);
+        if (entry == null) { return null; }
+
+        final Transaction transaction = entry.transaction;
+        _transactionIds.remove(transaction.getHash());
+
+        for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+            final TransactionOutputIdentifier transactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
+            _spendingTransactionIds.remove(transactionOutputIdentifier, transactionId); // A conflicting Transaction may have replaced this spender...
+
+            final Sha256Hash previousTransactionHash = transactionOutputIdentifier.getTransactionHash();
+            final HashSet<TransactionId> childTransactionIds = _childTransactionIds.get(previousTransactionHash);
+            if (childTransactionIds != null) {
+                childTransactionIds.remove(transactionId);
+                if (childTransactionIds.isEmpty()) {
+                    _childTransactionIds.remove(previousTransactionHash);
+                }
+            }
+        }
+
+        _byteCount -= entry.byteCount;
+        if (entry.fee != null) {
+            _totalFee -= entry.fee;
+        }
+        return entry;
+    }
+
+    public MemoryPool() {
+        this(null);
+    }
+
+    public MemoryPool(final File journalFile) {
+        this(journalFile, DEFAULT_MAX_BYTE_COUNT);
+    }
+
+    /**
+     * Creates a pool journaled to journalFile, which may be null.
+     *  If the journal already exists, its Transactions are available via ::getRestoredTransactions;
+     *  the restored Transactions are not added to the pool since they must first be assigned TransactionIds.
+     *  Changes are not journaled until ::openJournal is invoked.
+     */
+    public MemoryPool(final File journalFile, final Long maxByteCount) {
+        final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+        _readLock = readWriteLock.readLock();
+        _writeLock = readWriteLock.writeLock();
+
+        _maxByteCount = maxByteCount;
+        _journalFile = journalFile;
+        if (journalFile != null) {
+            _restoredTransactions = _readJournal(journalFile);
+        }
+        else {
+            _restoredTransactions = new MutableList<Transaction>(0);
+        }
+    }
+
+    /**
+     * Rewrites the journal with the Transactions currently within the pool and journals all subsequent changes.
+     *  Should be invoked once the restored Transactions have been added back to the pool; until then, the previous journal is preserved.
+     */
+    public void openJournal() {
+        if (_journalFile == null) { return; }
+
+        _writeLock.lock();
+        try {
+            if (_journalOutputStream != null) { return; }
+
+            _compactJournal();
+        }
+        catch (final IOException exception) {
+            Logger.warn("Unable to open MemoryPool journal: " + _journalFile.getAbsolutePath(), exception);
+            _closeJournal();
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the Transactions read from the journal when the pool was created; subsequent invocations return an empty list.
+     */
+    public List<Transaction> getRestoredTransactions() {
+        _writeLock.lock();
+        try {
+            final List<Transaction> restoredTransactions = _restoredTransactions;
+            _restoredTransactions = new MutableList<Transaction>(0);
+            return restoredTransactions;
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the Transaction to the pool; the fee may be null if it is unknown.
+     *  Returns false if the Transaction was already within the pool or the pool is full.
+     *  A Transaction spending an output already spent within the pool becomes that output's spender.
+     */
+    public Boolean addTransaction(final TransactionId transactionId, final Transaction transaction, final Long fee) {
+        _writeLock.lock();
+        try {
+            if (_entries.containsKey(transactionId)) { return false; }
+
+            final Integer byteCount = transaction.getByteCount();
+            if ( (_maxByteCount != null) && ((_byteCount + byteCount) > _maxByteCount) ) {
+                Logger.debug("MemoryPool full; not adding Transaction: " + transaction.getHash());
+                return false;
+            }
+
+            final Entry entry = _addTransaction(transactionId, transaction, fee);
+            if (entry == null) { return false; }
+
+            final MutableList<Entry> entries = new MutableList<Entry>(1);
+            entries.add(entry);
+            _journalAddition(entries);
+            return true;
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    public void removeTransactions(final List<TransactionId> transactionIds) {
+        _writeLock.lock();
+        try {
+            final MutableList<Entry> entries = new MutableList<Entry>(transactionIds.getCount());
+            for (final TransactionId transactionId : transactionIds) {
+                final Entry entry = _removeTransaction(transactionId);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+            if (! entries.isEmpty()) {
+                _journalRemoval(entries);
+            }
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes every Transaction from the pool and truncates the journal.
+     *  Used when the pool can no longer be trusted to reflect the chain (e.g. after a failed block was rolled back).
+     */
+    public void clear() {
+        _writeLock.lock();
+        try {
+            _entries.clear();
+            _transactionIds.clear();
+            _spendingTransactionIds.clear();
+            _childTransactionIds.clear();
+            _byteCount = 0L;
+            _totalFee = 0L;
+
+            if (_journalOutputStream != null) {
+                try {
+                    _compactJournal();
+                }
+                catch (final IOException exception) {
+                    Logger.warn("Unable to write MemoryPool journal; disabling journal.", exception);
+                    _closeJournal();
+                }
+            }
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    public Boolean containsTransaction(final TransactionId transactionId) {
+        _readLock.lock();
+        try {
+            return _entries.containsKey(transactionId);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public Transaction getTransaction(final TransactionId transactionId) {
+        _readLock.lock();
+        try {
+            final Entry entry = _entries.get(transactionId);
+            if (entry == null) { return null; }
+
+            return entry.transaction;
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public TransactionId getTransactionId(final Sha256Hash transactionHash) {
+        _readLock.lock();
+        try {
+            return _transactionIds.get(transactionHash);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the fee of the Transaction, or null if the Transaction is not within the pool or its fee is unknown.
+     */
+    public Long getTransactionFee(final TransactionId transactionId) {
+        _readLock.lock();
+        try {
+            final Entry entry = _entries.get(transactionId);
+            if (entry == null) { return null; }
+
+            return entry.fee;
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the output if it was created by a Transaction within the pool, regardless of whether it has been spent.
+     */
+    public TransactionOutput getTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) {
+        _readLock.lock();
+        try {
+            final TransactionId transactionId = _transactionIds.get(transactionOutputIdentifier.getTransactionHash());
+            if (transactionId == null) { return null; }
+
+            final Entry entry = _entries.get(transactionId);
+            final List<TransactionOutput> transactionOutputs = entry.transaction.getTransactionOutputs();
+            final Integer outputIndex = transactionOutputIdentifier.getOutputIndex();
+            if ( (outputIndex < 0) || (outputIndex >= transactionOutputs.getCount()) ) { return null; }
+
+            return transactionOutputs.get(outputIndex);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public Boolean isTransactionOutputSpent(final TransactionOutputIdentifier transactionOutputIdentifier) {
+        _readLock.lock();
+        try {
+            return _spendingTransactionIds.containsKey(transactionOutputIdentifier);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the Transactions within the pool that spend any of the provided outputs.
+     */
+    public List<TransactionId> getSpendingTransactionIds(final Collection<TransactionOutputIdentifier> transactionOutputIdentifiers) {
+        final LinkedHashSet<TransactionId> transactionIds = new LinkedHashSet<TransactionId>();
+
+        _readLock.lock();
+        try {
+            for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+                final TransactionId transactionId = _spendingTransactionIds.get(transactionOutputIdentifier);
+                if (transactionId != null) {
+                    transactionIds.add(transactionId);
+                }
+            }
+        }
+        finally {
+            _readLock.unlock();
+        }
+
+        return new MutableList<TransactionId>(transactionIds);
+    }
+
+    /**
+     * Returns the Transactions within the pool that spend an output of any of the provided Transactions.
+     *  The provided Transactions do not need to be within the pool (i.e. they may have just been removed).
+     */
+    public List<TransactionId> getChildTransactionIds(final List<Sha256Hash> transactionHashes) {
+        final LinkedHashSet<TransactionId> transactionIds = new LinkedHashSet<TransactionId>();
+
+        _readLock.lock();
+        try {
+            for (final Sha256Hash transactionHash : transactionHashes) {
+                final HashSet<TransactionId> childTransactionIds = _childTransactionIds.get(transactionHash);
+                if (childTransactionIds != null) {
+                    transactionIds.addAll(childTransactionIds);
+                }
+            }
+        }
+        finally {
+            _readLock.unlock();
+        }
+
+        return new MutableList<TransactionId>(transactionIds);
+    }
+
+    public List<TransactionId> getTransactionIds() {
+        _readLock.lock();
+        try {
+            return new MutableList<TransactionId>(_entries.keySet());
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public List<Sha256Hash> getTransactionHashes() {
+        _readLock.lock();
+        try {
+            return new MutableList<Sha256Hash>(_transactionIds.keySet());
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public Integer getTransactionCount() {
+        _readLock.lock();
+        try {
+            return _entries.size();
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    public Long getMaxByteCount() {
+        return _maxByteCount;
+    }
+
+    /**
+     * Returns the total serialized size of the Transactions within the pool.
+     */
+    public Long getByteCount() {
+        _readLock.lock();
+        try {
+            return _byteCount;
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total fees of the Transactions within the pool, excluding Transactions with an unknown fee.
+     */
+    public Long getTotalFee() {
+        _readLock.lock();
+        try {
+            return _totalFee;
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the journal; the pool remains usable, but subsequent changes are not journaled.
+     */
+    @Override
+    public void close() {
+        _writeLock.lock();
+        try {
+            _closeJournal();
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+}
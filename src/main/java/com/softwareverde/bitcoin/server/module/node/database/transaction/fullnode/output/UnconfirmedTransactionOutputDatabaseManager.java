@@ -5,6 +5,8 @@ import com.softwareverde.bitcoin.server.database.query.BatchedInsertQuery;
 import com.softwareverde.bitcoin.server.database.query.Query;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.TransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManagerCore;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.mempool.MemoryPool;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
@@ -110,7 +112,27 @@ public class UnconfirmedTransactionOutputDatabaseManager {
         return UnconfirmedTransactionOutputId.wrap(row.getLong("id"));
     }
 
+    /**
+     * Returns the output if it was created by an unconfirmed Transaction, or null if not found.
+     */
+    public TransactionOutput getUnconfirmedTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException {
+        final MemoryPool memoryPool = FullNodeTransactionDatabaseManagerCore.getMemoryPool();
+        if (memoryPool != null) {
+            return memoryPool.getTransactionOutput(transactionOutputIdentifier);
+        }
+
+        final UnconfirmedTransactionOutputId transactionOutputId = this.getUnconfirmedTransactionOutputId(transactionOutputIdentifier);
+        if (transactionOutputId == null) { return null; }
+
+        return this.getUnconfirmedTransactionOutput(transactionOutputId);
+    }
+
     public Boolean isTransactionOutputSpent(final TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException {
+        final MemoryPool memoryPool = FullNodeTransactionDatabaseManagerCore.getMemoryPool();
+        if (memoryPool != null) {
+            return memoryPool.isTransactionOutputSpent(transactionOutputIdentifier);
+        }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
         final java.util.List<Row> rows = databaseConnection.query(
             new Query("SELECT * FROM unconfirmed_transaction_inputs WHERE previous_transaction_hash = ? AND previous_transaction_output_index = ?")
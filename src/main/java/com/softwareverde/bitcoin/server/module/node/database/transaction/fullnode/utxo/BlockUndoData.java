@@ -0,0 +1,178 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.context.UnspentTransactionOutputContext;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScriptCompressor;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.Util;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+import java.util.HashMap;
+
+/**
+ * The coins (amount, locking script, block height, and coinbase flag) spent by a Block, in the order of the Block's non-coinbase inputs.
+ *  Undo data is recorded when the Block is connected so that disconnecting the Block during a reorg can restore the spent
+ *  outputs to the UTXO set without loading the Transactions that created them.
+ *
+ *  Serialized format:
+ *      [VarInt] Coin Count
+ *      For each coin:
+ *          [VarInt] ((Block Height + 1) * 2) + Is Coinbase; zero denotes an unknown Block Height.
+ *          [8] Amount (little-endian)
+ *          [VarInt] Compressed Locking Script Byte Count
+ *          [...] Compressed Locking Script (see LockingScriptCompressor)
+ */
+public class BlockUndoData {
+    protected final List<UnspentTransactionOutput> _spentTransactionOutputs;
+
+    /**
+     * Returns the identifiers of the outputs spent by the Block, in the order of its non-coinbase inputs.
+     */
+    public static List<TransactionOutputIdentifier> getSpentTransactionOutputIdentifiers(final Block block) {
+        final List<Transaction> transactions = block.getTransactions();
+
+        final ImmutableListBuilder<TransactionOutputIdentifier> transactionOutputIdentifiers = new ImmutableListBuilder<TransactionOutputIdentifier>();
+        for (int i = 1; i < transactions.getCount(); ++i) { // Exclude the coinbase...
+            final Transaction transaction = transactions.get(i);
+            for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                transactionOutputIdentifiers.add(TransactionOutputIdentifier.fromTransactionInput(transactionInput));
+            }
+        }
+        return transactionOutputIdentifiers.build();
+    }
+
+    /**
+     * Creates the undo data for the Block from the outputs it spends, as provided by unspentTransactionOutputContext.
+     *  Outputs created within the Block itself are not available within the context, so they are taken from the Block's own
+     *  Transactions at blockHeight (the Block's Transactions are not required to be topologically ordered).
+     *  Returns null if any spent output is neither available within the context nor created by the Block.
+     */
+    public static BlockUndoData fromBlock(final Block block, final Long blockHeight, final UnspentTransactionOutputContext unspentTransactionOutputContext) {
+        final List<Transaction> transactions = block.getTransactions();
+        final List<TransactionOutputIdentifier> transactionOutputIdentifiers = BlockUndoData.getSpentTransactionOutputIdentifiers(block);
+
+        HashMap<Sha256Hash, Integer> blockTransactionIndexes = null; // Lazily indexed only when the Block spends its own outputs...
+
+        final ImmutableListBuilder<UnspentTransactionOutput> spentTransactionOutputs = new ImmutableListBuilder<UnspentTransactionOutput>(transactionOutputIdentifiers.getCount());
+        for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+            final TransactionOutput transactionOutput = unspentTransactionOutputContext.getTransactionOutput(transactionOutputIdentifier);
+            if (transactionOutput != null) {
+                final Long outputBlockHeight = unspentTransactionOutputContext.getBlockHeight(transactionOutputIdentifier);
+                final Boolean isCoinbase = unspentTransactionOutputContext.isCoinbaseTransactionOutput(transactionOutputIdentifier);
+                spentTransactionOutputs.add(new ImmutableUnspentTransactionOutput(transactionOutput, outputBlockHeight, isCoinbase));
+                continue;
+            }
+
+            if (blockTransactionIndexes == null) {
+                blockTransactionIndexes = new HashMap<Sha256Hash, Integer>(transactions.getCount());
+                for (int i = 0; i < transactions.getCount(); ++i) {
+                    final Transaction transaction = transactions.get(i);
+                    blockTransactionIndexes.put(transaction.getHash(), i);
+                }
+            }
+
+            final Integer transactionIndex = blockTransactionIndexes.get(transactionOutputIdentifier.getTransactionHash());
+            if (transactionIndex == null) { return null; }
+
+            final Transaction transaction = transactions.get(transactionIndex);
+            final List<TransactionOutput> transactionOutputs = transaction.getTransactionOutputs();
+            final int outputIndex = transactionOutputIdentifier.getOutputIndex();
+            if ( (outputIndex < 0) || (outputIndex >= transactionOutputs.getCount()) ) { return null; }
+
+            final MutableTransactionOutput blockTransactionOutput = new MutableTransactionOutput(transactionOutputs.get(outputIndex));
+            blockTransactionOutput.setIndex(outputIndex); // The Transaction's outputs are not guaranteed to be indexed...
+
+            final boolean isCoinbase = (transactionIndex == 0);
+            spentTransactionOutputs.add(new ImmutableUnspentTransactionOutput(blockTransactionOutput, blockHeight, isCoinbase));
+        }
+
+        return new BlockUndoData(spentTransactionOutputs.build());
+    }
+
+    /**
+     * Inflates serialized undo data; the outputs' indexes are restored from transactionOutputIdentifiers,
+     *  which must be the identifiers returned by BlockUndoData::getSpentTransactionOutputIdentifiers for the same Block.
+     *  Returns null if the data is malformed or does not match the provided identifiers.
+     */
+    public static BlockUndoData fromBytes(final ByteArray bytes, final List<TransactionOutputIdentifier> transactionOutputIdentifiers) {
+        final LockingScriptCompressor lockingScriptCompressor = new LockingScriptCompressor();
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+
+        final long coinCount = byteArrayReader.readVariableSizedInteger();
+        if (coinCount != transactionOutputIdentifiers.getCount()) { return null; }
+
+        final ImmutableListBuilder<UnspentTransactionOutput> spentTransactionOutputs = new ImmutableListBuilder<UnspentTransactionOutput>((int) coinCount);
+        for (int i = 0; i < coinCount; ++i) {
+            final TransactionOutputIdentifier transactionOutputIdentifier = transactionOutputIdentifiers.get(i);
+
+            final long heightAndCoinbaseFlag = byteArrayReader.readVariableSizedInteger();
+            final Long blockHeight = ((heightAndCoinbaseFlag >> 1) - 1L);
+            final Boolean isCoinbase = ((heightAndCoinbaseFlag & 0x01L) != 0L);
+
+            final Long amount = byteArrayReader.readLong(8, Endian.LITTLE);
+
+            final int compressedLockingScriptByteCount = byteArrayReader.readVariableSizedInteger().intValue();
+            if ( (compressedLockingScriptByteCount < 0) || (compressedLockingScriptByteCount > byteArrayReader.remainingByteCount()) ) { return null; }
+            final ByteArray compressedLockingScript = MutableByteArray.wrap(byteArrayReader.readBytes(compressedLockingScriptByteCount));
+            final LockingScript lockingScript = lockingScriptCompressor.decompress(compressedLockingScript);
+            if (lockingScript == null) { return null; }
+
+            final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+            transactionOutput.setIndex(transactionOutputIdentifier.getOutputIndex());
+            transactionOutput.setAmount(amount);
+            transactionOutput.setLockingScript(lockingScript);
+            spentTransactionOutputs.add(new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, isCoinbase));
+        }
+
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        return new BlockUndoData(spentTransactionOutputs.build());
+    }
+
+    public BlockUndoData(final List<UnspentTransactionOutput> spentTransactionOutputs) {
+        _spentTransactionOutputs = spentTransactionOutputs.asConst();
+    }
+
+    /**
+     * Returns the outputs spent by the Block, in the order of its non-coinbase inputs.
+     */
+    public List<UnspentTransactionOutput> getSpentTransactionOutputs() {
+        return _spentTransactionOutputs;
+    }
+
+    public ByteArray getBytes() {
+        final LockingScriptCompressor lockingScriptCompressor = new LockingScriptCompressor();
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+
+        byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(_spentTransactionOutputs.getCount()));
+        for (final UnspentTransactionOutput spentTransactionOutput : _spentTransactionOutputs) {
+            final Long blockHeight = Util.coalesce(spentTransactionOutput.getBlockHeight(), UnspentTransactionOutput.UNKNOWN_BLOCK_HEIGHT);
+            final boolean isCoinbase = Util.coalesce(spentTransactionOutput.isCoinbase(), false);
+            final long heightAndCoinbaseFlag = (((Math.max(blockHeight, UnspentTransactionOutput.UNKNOWN_BLOCK_HEIGHT) + 1L) << 1) | (isCoinbase ? 0x01L : 0x00L));
+            byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(heightAndCoinbaseFlag));
+
+            byteArrayBuilder.appendBytes(ByteUtil.longToBytes(spentTransactionOutput.getAmount()), Endian.LITTLE);
+
+            final ByteArray compressedLockingScript = lockingScriptCompressor.compress(spentTransactionOutput.getLockingScript());
+            byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(compressedLockingScript.getByteCount()));
+            byteArrayBuilder.appendBytes(compressedLockingScript);
+        }
+
+        return MutableByteArray.wrap(byteArrayBuilder.build());
+    }
+}
@@ -1,7 +1,7 @@
 package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo;
 
 import com.softwareverde.bitcoin.server.module.node.database.DatabaseManagerFactory;
-import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.database.DatabaseException;
@@ -11,7 +11,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public interface UnspentTransactionOutputDatabaseManager {
     Long DEFAULT_MAX_UTXO_CACHE_COUNT = 500000L;
     Float DEFAULT_PURGE_PERCENT = 0.5F;
-    Long BYTES_PER_UTXO = 128L; // NOTE: This value is larger than the actual size.  // TODO: Research a more accurate UTXO byte count.
+    Long BYTES_PER_UTXO = 128L; // NOTE: Each UTXO occupies an 84-byte off-heap slot (see UtxoMap); the table is kept between ~53% and 80% full, averaging ~128 bytes per UTXO.
 
     interface SpentState {
         Boolean isSpent();
@@ -51,6 +51,12 @@ public interface UnspentTransactionOutputDatabaseManager {
     void markTransactionOutputsAsSpent(List<TransactionOutputIdentifier> spentTransactionOutputIdentifiers) throws DatabaseException;
     void insertUnspentTransactionOutputs(List<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers, Long blockHeight) throws DatabaseException;
 
+    /**
+     * Inserts the provided UTXOs along with their coins (amount, locking script, and coinbase flag) so that they may later be loaded without their originating Transaction.
+     *  unspentTransactionOutputs must be parallel to unspentTransactionOutputIdentifiers.
+     */
+    void insertUnspentTransactionOutputs(List<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers, List<UnspentTransactionOutput> unspentTransactionOutputs, Long blockHeight) throws DatabaseException;
+
     /**
      * Marks the provided UTXOs as spent, logically removing them from the UTXO set, and forces the outputs to be synchronized to disk on the next UTXO commit.
      */
@@ -61,9 +67,16 @@ public interface UnspentTransactionOutputDatabaseManager {
      */
     void undoSpendingOfTransactionOutputs(List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException;
 
-    TransactionOutput getUnspentTransactionOutput(TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException;
+    /**
+     * Re-inserts the provided UTXOs into the UTXO set along with their coins (i.e. from the spending Block's BlockUndoData), so that their
+     *  original Transactions and blockHeights do not need to be looked up.  spentTransactionOutputs must be parallel to transactionOutputIdentifiers.
+     *  These UTXOs will be synchronized to disk during the next UTXO commit.
+     */
+    void undoSpendingOfTransactionOutputs(List<TransactionOutputIdentifier> transactionOutputIdentifiers, List<UnspentTransactionOutput> spentTransactionOutputs) throws DatabaseException;
 
-    List<TransactionOutput> getUnspentTransactionOutputs(List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException;
+    UnspentTransactionOutput getUnspentTransactionOutput(TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException;
+
+    List<UnspentTransactionOutput> getUnspentTransactionOutputs(List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException;
 
     /**
      * Flushes all queued UTXO set changes to disk.  The UTXO set is locked for the duration of this call.
@@ -71,6 +84,13 @@ public interface UnspentTransactionOutputDatabaseManager {
     void commitUnspentTransactionOutputs(DatabaseManagerFactory databaseManagerFactory) throws DatabaseException;
     void commitUnspentTransactionOutputs(DatabaseManagerFactory databaseManagerFactory, Boolean blockUntilComplete) throws DatabaseException;
 
+    /**
+     * Flushes only the UTXOs modified since the previous commit to disk, without purging the in-memory UTXO set.
+     *  Unless blockUntilComplete is set, the commit is skipped if the previous commit is still in progress; its changes are included within the next commit.
+     *  If incremental commits are not enabled (or the modified UTXOs are not yet known), this is equivalent to ::commitUnspentTransactionOutputs.
+     */
+    void commitDirtyUnspentTransactionOutputs(DatabaseManagerFactory databaseManagerFactory, Boolean blockUntilComplete) throws DatabaseException;
+
     Long getUncommittedUnspentTransactionOutputCount() throws DatabaseException;
     Long getUncommittedUnspentTransactionOutputCount(Boolean noLock) throws DatabaseException;
 
@@ -11,16 +11,27 @@ import com.softwareverde.bitcoin.server.module.node.database.DatabaseManagerFact
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.TransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.BulkUtxoCommitter;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.JvmSpentState;
-import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoEntry;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoKey;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoKeySet;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoMap;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoValue;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.store.CommittedUtxoStore;
 import com.softwareverde.bitcoin.server.module.node.store.BlockStore;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScriptCompressor;
 import com.softwareverde.bitcoin.util.Util;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
 import com.softwareverde.constable.list.mutable.MutableList;
@@ -36,10 +47,9 @@ import com.softwareverde.util.timer.MilliTimer;
 import com.softwareverde.util.timer.NanoTimer;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -107,9 +117,71 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
 
 
     protected static final long UNKNOWN_BLOCK_HEIGHT = -1L;
-    protected static final TreeMap<UtxoKey, UtxoValue> UTXO_SET = new TreeMap<UtxoKey, UtxoValue>(UtxoKey.COMPARATOR);
-    protected static final TreeMap<UtxoKey, UtxoValue> DOUBLE_BUFFER = new TreeMap<UtxoKey, UtxoValue>(UtxoKey.COMPARATOR);
+    protected static final UtxoMap UTXO_SET = new UtxoMap(); // Stored off-heap; see UtxoMap.
+    protected static final UtxoMap DOUBLE_BUFFER = new UtxoMap();
     protected static Thread DOUBLE_BUFFER_THREAD = null;
+    protected static final Container<BulkUtxoCommitter> BULK_UTXO_COMMITTER = new Container<BulkUtxoCommitter>(null); // null indicates the batched commit is used.
+    protected static final Container<CommittedUtxoStore> COMMITTED_UTXO_STORE = new Container<CommittedUtxoStore>(null); // null indicates the committed set is stored within the committed_unspent_transaction_outputs table.
+
+    /*
+            Incremental commits:
+                When enabled, the key of every UTXO modified within the UTXO_SET is also recorded within DIRTY_UTXO_KEYS.
+                An incremental commit moves only the dirty UTXOs into the double-buffer (rather than iterating the whole UTXO_SET),
+                does not purge the cache, and never waits for a previous commit; if the previous commit is still in progress
+                then the incremental commit is skipped and its dirty UTXOs are included within the next one.
+                The committed block height therefore trails the head by only a few blocks, so recovering from a crash replays
+                few blocks, and a full commit (with its purge) only occurs once the cache is full.
+                DIRTY_UTXO_KEYS is only complete once the UTXO_SET has been cleared or fully committed since tracking began;
+                until then, incremental commits fall back to full commits.
+                DIRTY_UTXO_KEYS holds at most one key per UTXO modified since the last commit, so while incremental commits are
+                enabled the UTXO cache's budget reserves BYTES_PER_DIRTY_UTXO_KEY for each cached UTXO (see ::_getMaxUtxoCount).
+         */
+    protected static final UtxoKeySet DIRTY_UTXO_KEYS = new UtxoKeySet(); // Only the keys are stored; the current value is always read from the UTXO_SET.
+    protected static final Long BYTES_PER_DIRTY_UTXO_KEY = 56L; // NOTE: Each key occupies a 36-byte off-heap slot (see UtxoKeySet) at the same load factors as the UTXO_SET, averaging ~56 bytes per key.
+    protected static Boolean INCREMENTAL_COMMITS_ARE_ENABLED = false;
+    protected static Boolean DIRTY_UTXO_KEYS_ARE_COMPLETE = false;
+
+    /**
+     * Enables committing the UTXO set via LOAD DATA LOCAL INFILE (see BulkUtxoCommitter) instead of batched queries.
+     *  The database server and connection must both permit local infiles.
+     */
+    public static void setBulkCommitEnabled(final Boolean isEnabled) {
+        BULK_UTXO_COMMITTER.value = (Util.coalesce(isEnabled, false) ? new BulkUtxoCommitter() : null);
+    }
+
+    /**
+     * Sets the storage engine for the committed UTXO set; if null, the committed set is stored within the database.
+     *  The store must be set before the UTXO set is loaded and remains owned (and closed) by the caller.
+     */
+    public static void setCommittedUtxoStore(final CommittedUtxoStore committedUtxoStore) {
+        UTXO_WRITE_MUTEX.lock();
+        try {
+            COMMITTED_UTXO_STORE.value = committedUtxoStore;
+        }
+        finally {
+            UTXO_WRITE_MUTEX.unlock();
+        }
+    }
+
+    public static CommittedUtxoStore getCommittedUtxoStore() {
+        return COMMITTED_UTXO_STORE.value;
+    }
+
+    /**
+     * Enables tracking the UTXOs modified since the last commit, which is required for incremental commits.
+     *  See ::commitDirtyUnspentTransactionOutputs.
+     */
+    public static void setIncrementalCommitsEnabled(final Boolean isEnabled) {
+        UTXO_WRITE_MUTEX.lock();
+        try {
+            INCREMENTAL_COMMITS_ARE_ENABLED = Util.coalesce(isEnabled, false);
+            DIRTY_UTXO_KEYS.clear();
+            DIRTY_UTXO_KEYS_ARE_COMPLETE = (INCREMENTAL_COMMITS_ARE_ENABLED && UTXO_SET.isEmpty());
+        }
+        finally {
+            UTXO_WRITE_MUTEX.unlock();
+        }
+    }
 
     protected final Long _maxUtxoCount;
     protected final MasterInflater _masterInflater;
@@ -120,14 +192,29 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     protected long _minBlockHeight = Long.MAX_VALUE;
     protected long _maxBlockHeight = 0L;
 
+    /**
+     * Returns the maximum number of UTXOs within the UTXO_SET.
+     *  While incremental commits are enabled, the budget of _maxUtxoCount is shared with DIRTY_UTXO_KEYS.
+     */
+    protected Long _getMaxUtxoCount() {
+        if (! INCREMENTAL_COMMITS_ARE_ENABLED) { return _maxUtxoCount; }
+
+        final long bytesPerUtxo = UnspentTransactionOutputDatabaseManager.BYTES_PER_UTXO;
+        return ((_maxUtxoCount * bytesPerUtxo) / (bytesPerUtxo + BYTES_PER_DIRTY_UTXO_KEY));
+    }
+
     protected void _clearUncommittedUtxoSet() {
         UNCOMMITTED_UTXO_BLOCK_HEIGHT.value = null;
         UTXO_SET.clear();
+        DIRTY_UTXO_KEYS.clear();
+        DIRTY_UTXO_KEYS_ARE_COMPLETE = INCREMENTAL_COMMITS_ARE_ENABLED;
     }
 
     protected void _invalidateUncommittedUtxoSet() {
         UNCOMMITTED_UTXO_BLOCK_HEIGHT.value = -1L;
         UTXO_SET.clear();
+        DIRTY_UTXO_KEYS.clear();
+        DIRTY_UTXO_KEYS_ARE_COMPLETE = false;
     }
 
     protected void _invalidateUncommittedUtxoSetAndRethrow(final Exception exception) throws DatabaseException {
@@ -146,6 +233,11 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     }
 
     protected static Long _getCommittedUnspentTransactionOutputBlockHeight(final DatabaseConnection databaseConnection) throws DatabaseException {
+        final CommittedUtxoStore committedUtxoStore = COMMITTED_UTXO_STORE.value;
+        if (committedUtxoStore != null) {
+            return committedUtxoStore.getCommittedBlockHeight();
+        }
+
         final java.util.List<Row> rows = databaseConnection.query(
             new Query("SELECT value FROM properties WHERE `key` = ?")
                 .setParameter(COMMITTED_UTXO_BLOCK_HEIGHT_KEY)
@@ -156,8 +248,26 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         return Util.coalesce(row.getLong("value"), 0L);
     }
 
+    protected static void _putAll(final UtxoMap utxoMap, final List<UtxoEntry> utxoEntries) {
+        for (final UtxoEntry utxoEntry : utxoEntries) {
+            utxoMap.put(utxoEntry.getUtxoKey(), utxoEntry.getUtxoValue());
+        }
+    }
+
+    /**
+     * Records the UtxoEntries as modified since the last commit, if incremental commits are enabled.
+     *  Keys of UTXOs subsequently removed from the UTXO_SET remain marked, and are skipped during the next commit.
+     */
+    protected static void _markAsDirty(final List<UtxoEntry> utxoEntries) {
+        if (! INCREMENTAL_COMMITS_ARE_ENABLED) { return; }
+
+        for (final UtxoEntry utxoEntry : utxoEntries) {
+            DIRTY_UTXO_KEYS.add(utxoEntry.getUtxoKey());
+        }
+    }
+
     protected void _markTransactionOutputsAsSpent(final List<TransactionOutputIdentifier> spentTransactionOutputIdentifiers) {
-        final TreeMap<UtxoKey, UtxoValue> queuedUpdates = new TreeMap<UtxoKey, UtxoValue>(UtxoKey.COMPARATOR);
+        final MutableList<UtxoEntry> queuedUpdates = new MutableList<UtxoEntry>();
         for (final TransactionOutputIdentifier transactionOutputIdentifier : spentTransactionOutputIdentifiers) {
             final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
             final UtxoValue utxoValue = UTXO_SET.remove(utxoKey);
@@ -171,7 +281,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                     newSpentState.setIsFlushMandatory(true);
 
                     final UtxoValue newUtxoValue = new UtxoValue(newSpentState, utxoValue.blockHeight);
-                    queuedUpdates.put(utxoKey, newUtxoValue);
+                    queuedUpdates.add(new UtxoEntry(utxoKey, newUtxoValue));
                 }
                 else { } // The UTXO was never written to disk, therefore it can be removed.
             }
@@ -182,43 +292,111 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                 newSpentState.setIsFlushMandatory(true);
 
                 final UtxoValue newUtxoValue = new UtxoValue(newSpentState, UNKNOWN_BLOCK_HEIGHT);
-                queuedUpdates.put(utxoKey, newUtxoValue);
+                queuedUpdates.add(new UtxoEntry(utxoKey, newUtxoValue));
             }
         }
-        UTXO_SET.putAll(queuedUpdates);
+        _putAll(UTXO_SET, queuedUpdates);
+        _markAsDirty(queuedUpdates);
     }
 
-    protected void _insertUnspentTransactionOutputs(final List<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers, final Long blockHeight) {
+    protected static UnspentTransactionOutput _inflateUnspentTransactionOutput(final Integer outputIndex, final Long blockHeight, final Boolean isCoinbase, final Long amount, final ByteArray compressedLockingScript) {
+        final LockingScriptCompressor lockingScriptCompressor = new LockingScriptCompressor();
+        final LockingScript lockingScript = lockingScriptCompressor.decompress(compressedLockingScript);
+        if (lockingScript == null) { return null; }
+
+        final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+        transactionOutput.setIndex(outputIndex);
+        transactionOutput.setAmount(amount);
+        transactionOutput.setLockingScript(lockingScript);
+        return new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, isCoinbase);
+    }
+
+    /**
+     * Returns the UnspentTransactionOutput stored within utxoValue, or null if utxoValue does not contain its coin.
+     */
+    protected static UnspentTransactionOutput _inflateUnspentTransactionOutput(final Integer outputIndex, final UtxoValue utxoValue) {
+        if (! utxoValue.hasCoin()) { return null; }
+        return _inflateUnspentTransactionOutput(outputIndex, utxoValue.blockHeight, utxoValue.isCoinbase, utxoValue.amount, MutableByteArray.wrap(utxoValue.compressedLockingScript));
+    }
+
+    /**
+     * Returns the blockHeight stored within the committed_unspent_transaction_outputs row.
+     *  Since UNKNOWN_BLOCK_HEIGHT is committed as zero, zero is interpreted as unknown.
+     */
+    protected static Long _getBlockHeight(final Row row) {
+        final Long blockHeight = row.getLong("block_height");
+        if ( (blockHeight == null) || (blockHeight <= 0L) ) { return UNKNOWN_BLOCK_HEIGHT; }
+        return blockHeight;
+    }
+
+    /**
+     * Returns the UnspentTransactionOutput stored within the committed_unspent_transaction_outputs row, or null if the row was committed without its coin.
+     */
+    protected static UnspentTransactionOutput _inflateUnspentTransactionOutput(final Integer outputIndex, final Row row) {
+        final Long amount = row.getLong("amount");
+        final byte[] compressedLockingScript = row.getBytes("locking_script");
+        if ( (amount == null) || (compressedLockingScript == null) ) { return null; }
+
+        final Boolean isCoinbase = row.getBoolean("is_coinbase");
+        return _inflateUnspentTransactionOutput(outputIndex, _getBlockHeight(row), isCoinbase, amount, MutableByteArray.wrap(compressedLockingScript));
+    }
+
+    protected void _insertUnspentTransactionOutputs(final List<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers, final List<UnspentTransactionOutput> unspentTransactionOutputs, final Long blockHeight) {
+        final int unspentStateCode;
         final UtxoValue utxoValue;
-        { // Share the same value reference for batched UTXOs when applicable to conserve memory.
+        { // Share the same value reference for batched UTXOs without coins when applicable to conserve memory.
             final JvmSpentState spentState = new JvmSpentState();
             spentState.setIsSpent(false);
             spentState.setIsFlushedToDisk(false);
             spentState.setIsFlushMandatory(false);
+            unspentStateCode = spentState.intValue();
             utxoValue = new UtxoValue(spentState, blockHeight);
         }
 
-        final TreeMap<UtxoKey, UtxoValue> queuedUpdates = new TreeMap<UtxoKey, UtxoValue>(UtxoKey.COMPARATOR);
-        for (final TransactionOutputIdentifier transactionOutputIdentifier : unspentTransactionOutputIdentifiers) {
+        final int mandatoryFlushUnspentStateCode;
+        {
+            final JvmSpentState spentState = new JvmSpentState();
+            spentState.setIsSpent(false);
+            spentState.setIsFlushedToDisk(false);
+            spentState.setIsFlushMandatory(true);
+            mandatoryFlushUnspentStateCode = spentState.intValue();
+        }
+
+        final LockingScriptCompressor lockingScriptCompressor = new LockingScriptCompressor();
+        final MutableList<UtxoEntry> queuedUpdates = new MutableList<UtxoEntry>();
+        final int transactionOutputCount = unspentTransactionOutputIdentifiers.getCount();
+        for (int i = 0; i < transactionOutputCount; ++i) {
+            final TransactionOutputIdentifier transactionOutputIdentifier = unspentTransactionOutputIdentifiers.get(i);
+            final UnspentTransactionOutput unspentTransactionOutput = (unspentTransactionOutputs != null ? unspentTransactionOutputs.get(i) : null);
+
             final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
             final UtxoValue existingUtxoValue = UTXO_SET.get(utxoKey);
 
-            UtxoValue customUtxoValue = null;
+            boolean isFlushMandatory = false;
             if (existingUtxoValue != null) {
                 final JvmSpentState existingSpentState = existingUtxoValue.getSpentState();
                 if (existingSpentState.isFlushMandatory()) { // Preserve the mandatoryFlush flag in case of a reorg...
-                    final JvmSpentState newJvmSpentState = new JvmSpentState();
-                    newJvmSpentState.setIsSpent(false);
-                    newJvmSpentState.setIsFlushedToDisk(false);
-                    newJvmSpentState.setIsFlushMandatory(true);
-
-                    customUtxoValue = new UtxoValue(newJvmSpentState, blockHeight);
+                    isFlushMandatory = true;
                 }
             }
 
-            queuedUpdates.put(utxoKey, (customUtxoValue != null ? customUtxoValue : utxoValue));
+            final UtxoValue newUtxoValue;
+            if (unspentTransactionOutput != null) {
+                final ByteArray compressedLockingScript = lockingScriptCompressor.compress(unspentTransactionOutput.getLockingScript());
+                final Boolean isCoinbase = Util.coalesce(unspentTransactionOutput.isCoinbase(), false);
+                newUtxoValue = new UtxoValue((isFlushMandatory ? mandatoryFlushUnspentStateCode : unspentStateCode), blockHeight, isCoinbase, unspentTransactionOutput.getAmount(), compressedLockingScript.getBytes());
+            }
+            else if (isFlushMandatory) {
+                newUtxoValue = new UtxoValue(mandatoryFlushUnspentStateCode, blockHeight);
+            }
+            else {
+                newUtxoValue = utxoValue;
+            }
+
+            queuedUpdates.add(new UtxoEntry(utxoKey, newUtxoValue));
         }
-        UTXO_SET.putAll(queuedUpdates);
+        _putAll(UTXO_SET, queuedUpdates);
+        _markAsDirty(queuedUpdates);
 
         if (blockHeight != UNKNOWN_BLOCK_HEIGHT) {
             _maxBlockHeight = Math.max(blockHeight, _maxBlockHeight);
@@ -227,7 +405,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     }
 
     protected void _undoCreationOfTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) {
-        final TreeMap<UtxoKey, UtxoValue> queuedUpdates = new TreeMap<UtxoKey, UtxoValue>(UtxoKey.COMPARATOR);
+        final MutableList<UtxoEntry> queuedUpdates = new MutableList<UtxoEntry>();
         for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
             final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
             final UtxoValue utxoValue = UTXO_SET.remove(utxoKey); // Remove the UTXO from the set.
@@ -244,44 +422,66 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                 newSpentState.setIsFlushMandatory(true);
 
                 final UtxoValue newUtxoValue = new UtxoValue(newSpentState, (utxoValue != null ? utxoValue.blockHeight : UNKNOWN_BLOCK_HEIGHT));
-                queuedUpdates.put(utxoKey, newUtxoValue);
+                queuedUpdates.add(new UtxoEntry(utxoKey, newUtxoValue));
             }
         }
-        UTXO_SET.putAll(queuedUpdates);
+        _putAll(UTXO_SET, queuedUpdates);
+        _markAsDirty(queuedUpdates);
     }
 
-    protected void _undoSpendingOfTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) {
-        final TreeMap<UtxoKey, UtxoValue> queuedUpdates = new TreeMap<UtxoKey, UtxoValue>(UtxoKey.COMPARATOR);
-        for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+    /**
+     * Re-inserts the provided UTXOs as unspent.
+     *  If spentTransactionOutputs is provided, it must be parallel to transactionOutputIdentifiers, and the re-inserted UTXOs retain their coins.
+     */
+    protected void _undoSpendingOfTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers, final List<UnspentTransactionOutput> spentTransactionOutputs) {
+        final LockingScriptCompressor lockingScriptCompressor = new LockingScriptCompressor();
+
+        final MutableList<UtxoEntry> queuedUpdates = new MutableList<UtxoEntry>();
+        for (int i = 0; i < transactionOutputIdentifiers.getCount(); ++i) {
+            final TransactionOutputIdentifier transactionOutputIdentifier = transactionOutputIdentifiers.get(i);
+            final UnspentTransactionOutput spentTransactionOutput = (spentTransactionOutputs != null ? spentTransactionOutputs.get(i) : null);
+
             final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
             final UtxoValue utxoValue = UTXO_SET.remove(utxoKey);
-            if (utxoValue != null) { // Utxos are removed if they are new and unsynchronized to disk, therefore if the Utxo exists then it was synchronized to disk.
-                final JvmSpentState spentState = utxoValue.getSpentState();
-                if (spentState.isFlushedToDisk() || spentState.isFlushMandatory()) {
-                    final JvmSpentState newSpentState = new JvmSpentState();
-                    newSpentState.setIsSpent(false);
-                    newSpentState.setIsFlushedToDisk(false);
-                    newSpentState.setIsFlushMandatory(true);
+            if ( (utxoValue != null) && (! utxoValue.getSpentState().isFlushedToDisk()) && (! utxoValue.getSpentState().isFlushMandatory()) ) {
+                continue; // The UTXO was freshly created and not synchronized, so removing alone is sufficient.
+            }
 
-                    final UtxoValue newUtxoValue = new UtxoValue(newSpentState, utxoValue.blockHeight);
-                    queuedUpdates.put(utxoKey, newUtxoValue);
+            final JvmSpentState newSpentState = new JvmSpentState();
+            newSpentState.setIsSpent(false);
+            newSpentState.setIsFlushedToDisk(false);
+            newSpentState.setIsFlushMandatory(true); // Either the UTXO was synchronized to disk, or it is unknown if the UTXO was flushed to disk.
+
+            final long blockHeight;
+            { // Prefer the known blockHeight of the cached UTXO, then the blockHeight recorded within the undo data...
+                final Long spentTransactionOutputBlockHeight = (spentTransactionOutput != null ? spentTransactionOutput.getBlockHeight() : null);
+                if ( (utxoValue != null) && (utxoValue.blockHeight != UNKNOWN_BLOCK_HEIGHT) ) {
+                    blockHeight = utxoValue.blockHeight;
+                }
+                else {
+                    blockHeight = Util.coalesce(spentTransactionOutputBlockHeight, UNKNOWN_BLOCK_HEIGHT);
                 }
-                else { } // The UTXO was freshly created and not synchronized, so removing alone is sufficient.
             }
-            else {
-                final JvmSpentState newSpentState = new JvmSpentState();
-                newSpentState.setIsSpent(false);
-                newSpentState.setIsFlushedToDisk(false);
-                newSpentState.setIsFlushMandatory(true); // It is unknown if the UTXO was flushed to disk.
 
-                final UtxoValue newUtxoValue = new UtxoValue(newSpentState, UNKNOWN_BLOCK_HEIGHT);
-                queuedUpdates.put(utxoKey, newUtxoValue);
+            final UtxoValue newUtxoValue;
+            if (spentTransactionOutput != null) {
+                final ByteArray compressedLockingScript = lockingScriptCompressor.compress(spentTransactionOutput.getLockingScript());
+                final Boolean isCoinbase = Util.coalesce(spentTransactionOutput.isCoinbase(), false);
+                newUtxoValue = new UtxoValue(newSpentState, blockHeight, isCoinbase, spentTransactionOutput.getAmount(), compressedLockingScript.getBytes());
             }
+            else {
+                newUtxoValue = new UtxoValue(newSpentState, blockHeight);
+            }
+            queuedUpdates.add(new UtxoEntry(utxoKey, newUtxoValue));
         }
-        UTXO_SET.putAll(queuedUpdates);
+        _putAll(UTXO_SET, queuedUpdates);
+        _markAsDirty(queuedUpdates);
     }
 
-    protected static void commitDoubleBufferedUnspentTransactionOutputs(final Long newCommittedBlockHeight, final DatabaseManager databaseManager) throws Exception {
+    /**
+     * Writes the contents of the DOUBLE_BUFFER to disk via batched UPDATE/INSERT queries.
+     */
+    protected static void _commitDoubleBufferViaBatchedQueries(final DatabaseManager databaseManager) throws Exception {
         final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
 
         final int maxUtxoPerBatch = Math.min(1024, databaseManager.getMaxQueryBatchSize());
@@ -317,23 +517,35 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         final AtomicLong onDiskInsertExecutionTime = new AtomicLong(0L);
         final AtomicInteger onDiskInsertItemCount = new AtomicInteger(0);
         final AtomicInteger onDiskInsertBatchCount = new AtomicInteger(0);
-        final BatchRunner.Batch<UnspentTransactionOutput> onDiskUtxoInsertBatch = new BatchRunner.Batch<UnspentTransactionOutput>() {
+        final BatchRunner.Batch<UtxoEntry> onDiskUtxoInsertBatch = new BatchRunner.Batch<UtxoEntry>() {
             @Override
-            public void run(final List<UnspentTransactionOutput> batchItems) throws Exception {
+            public void run(final List<UtxoEntry> batchItems) throws Exception {
                 onDiskInsertBatchCount.incrementAndGet();
 
                 // NOTE: block_height is currently unused, however the field could become useful during re-loading UTXOs
                 //  into the cache based on recency, to facilitate UTXO commitments, and to facilitate more intelligent reorgs.
 
                 // NOTE: updating is_spent to zero on a duplicate key is required in order to undo a block that has been committed to disk.
-                final Query batchedInsertQuery = new BatchedInsertQuery("INSERT INTO committed_unspent_transaction_outputs (transaction_hash, `index`, block_height) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE is_spent = 0");
-                for (final UnspentTransactionOutput transactionOutputIdentifier : batchItems) {
+                //  A coin is never overwritten with NULL since reorged UTXOs are re-inserted without their coin.
+                final Query batchedInsertQuery = new BatchedInsertQuery("INSERT INTO committed_unspent_transaction_outputs (transaction_hash, `index`, block_height, is_coinbase, amount, locking_script) VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE is_spent = 0, is_coinbase = COALESCE(VALUES(is_coinbase), is_coinbase), amount = COALESCE(VALUES(amount), amount), locking_script = COALESCE(VALUES(locking_script), locking_script)");
+                for (final UtxoEntry utxoEntry : batchItems) {
                     onDiskInsertItemCount.incrementAndGet();
 
-                    final long blockHeight = transactionOutputIdentifier.getBlockHeight();
-                    batchedInsertQuery.setParameter(transactionOutputIdentifier.getTransactionHash());
-                    batchedInsertQuery.setParameter(transactionOutputIdentifier.getOutputIndex());
+                    final UtxoValue utxoValue = utxoEntry.getUtxoValue();
+                    final long blockHeight = utxoEntry.getBlockHeight();
+                    batchedInsertQuery.setParameter(utxoEntry.getTransactionHash());
+                    batchedInsertQuery.setParameter(utxoEntry.getOutputIndex());
                     batchedInsertQuery.setParameter(Math.max(blockHeight, 0L)); // block_height is an UNSIGNED INT; in the case of a reorg UTXO, the UTXO height can be set to -1, so 0 is used as a compatible placeholder.
+                    if (utxoValue.hasCoin()) {
+                        batchedInsertQuery.setParameter(utxoValue.isCoinbase);
+                        batchedInsertQuery.setParameter(utxoValue.amount);
+                        batchedInsertQuery.setParameter(utxoValue.compressedLockingScript);
+                    }
+                    else {
+                        batchedInsertQuery.setNullParameter();
+                        batchedInsertQuery.setNullParameter();
+                        batchedInsertQuery.setNullParameter();
+                    }
                 }
                 final NanoTimer nanoTimer = new NanoTimer();
                 nanoTimer.start();
@@ -350,15 +562,14 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         final int startSize = DOUBLE_BUFFER.size();
         int i = 0;
         final JvmSpentState transientSpentState = new JvmSpentState(); // Re-initialize the same instance instead of creating many objects.
-        final Iterator<Map.Entry<UtxoKey, UtxoValue>> iterator = DOUBLE_BUFFER.entrySet().iterator();
+        final UtxoMap.Cursor cursor = DOUBLE_BUFFER.iterate();
 
         final MutableList<UtxoKey> nextDeleteBatch = new MutableList<UtxoKey>(maxUtxoPerBatch);
-        final MutableList<UnspentTransactionOutput> nextInsertBatch = new MutableList<UnspentTransactionOutput>(maxUtxoPerBatch);
+        final MutableList<UtxoEntry> nextInsertBatch = new MutableList<UtxoEntry>(maxUtxoPerBatch);
 
-        while (iterator.hasNext()) {
-            final Map.Entry<UtxoKey, UtxoValue> entry = iterator.next();
-            final UtxoKey utxoKey = entry.getKey();
-            final UtxoValue utxoValue = entry.getValue();
+        while (cursor.next()) {
+            final UtxoKey utxoKey = cursor.getKey();
+            final UtxoValue utxoValue = cursor.getValue();
 
             transientSpentState.initialize(utxoValue.spentStateCode);
 
@@ -368,8 +579,8 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             }
             else {
                 // Insert the unspent UTXO to disk.
-                final UnspentTransactionOutput unspentTransactionOutput = new UnspentTransactionOutput(utxoKey, utxoValue);
-                nextInsertBatch.add(unspentTransactionOutput);
+                final UtxoEntry utxoEntry = new UtxoEntry(utxoKey, utxoValue);
+                nextInsertBatch.add(utxoEntry);
             }
 
             if (nextDeleteBatch.getCount() >= maxUtxoPerBatch) {
@@ -425,26 +636,51 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             ", onDiskInsertBatchCount=" + onDiskInsertBatchCount +
             ", totalTimeWaited=" + totalTimeWaited
         );
+    }
 
-        { // Save the committed set's block height...
-            databaseConnection.executeSql(
-                new Query("INSERT INTO properties (`key`, value) VALUES (?, ?) ON DUPLICATE KEY UPDATE value = VALUES (value)")
-                    .setParameter(COMMITTED_UTXO_BLOCK_HEIGHT_KEY)
-                    .setParameter(newCommittedBlockHeight)
-            );
+    protected static void commitDoubleBufferedUnspentTransactionOutputs(final Long newCommittedBlockHeight, final DatabaseManager databaseManager, final Boolean shouldCollectGarbage) throws Exception {
+        final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+
+        final CommittedUtxoStore committedUtxoStore = COMMITTED_UTXO_STORE.value;
+        if (committedUtxoStore != null) {
+            committedUtxoStore.commit(DOUBLE_BUFFER, newCommittedBlockHeight); // The store records the committed set's block height atomically with its contents.
+        }
+        else {
+            final BulkUtxoCommitter bulkUtxoCommitter = BULK_UTXO_COMMITTER.value;
+            if (bulkUtxoCommitter != null) {
+                bulkUtxoCommitter.commit(DOUBLE_BUFFER, databaseConnection);
+            }
+            else {
+                _commitDoubleBufferViaBatchedQueries(databaseManager);
+            }
+
+            { // Save the committed set's block height...
+                databaseConnection.executeSql(
+                    new Query("INSERT INTO properties (`key`, value) VALUES (?, ?) ON DUPLICATE KEY UPDATE value = VALUES (value)")
+                        .setParameter(COMMITTED_UTXO_BLOCK_HEIGHT_KEY)
+                        .setParameter(newCommittedBlockHeight)
+                );
+            }
         }
 
         synchronized (DOUBLE_BUFFER) {
             DOUBLE_BUFFER.clear();
         }
 
-        // This request for garbage collection is not strictly necessary but considering the drastic change in memory
-        // usage, it is useful to ensure a collection after the double-buffer is cleared, particularly in cases when
-        // periodic calls to gc aren't schedule (i.e. initial node boot).
-        System.gc();
+        if (shouldCollectGarbage) {
+            // This request for garbage collection is not strictly necessary but considering the drastic change in memory
+            // usage, it is useful to ensure a collection after the double-buffer is cleared, particularly in cases when
+            // periodic calls to gc aren't schedule (i.e. initial node boot).
+            System.gc();
+        }
     }
 
-    protected void _commitUnspentTransactionOutputs(final DatabaseManagerFactory databaseManagerFactory, final Boolean shouldBlockUntilComplete) throws DatabaseException {
+    /**
+     * Moves the UTXOs requiring flushing into the DOUBLE_BUFFER and starts the flusher thread.
+     *  If shouldOnlyCommitDirtyUtxos is set then only the UTXOs modified since the last commit are flushed and the UTXO_SET is not purged;
+     *  in this mode, if the previous commit is still in progress and shouldBlockUntilComplete is not set, the commit is skipped.
+     */
+    protected void _commitUnspentTransactionOutputs(final DatabaseManagerFactory databaseManagerFactory, final Boolean shouldBlockUntilComplete, final Boolean shouldOnlyCommitDirtyUtxos) throws DatabaseException {
         if (! UnspentTransactionOutputJvmManager.isUtxoCacheReady()) {
             // Prevent committing a UTXO set that has been invalidated or empty...
             Logger.warn("Not committing UTXO set due to invalidated or empty cache.");
@@ -454,6 +690,11 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         UTXO_WRITE_MUTEX.lock();
         try {
             synchronized (DOUBLE_BUFFER) {
+                if ( shouldOnlyCommitDirtyUtxos && (! shouldBlockUntilComplete) && (DOUBLE_BUFFER_THREAD != null) ) {
+                    Logger.debug("Deferring incremental UTXO commit; the previous commit is still in progress.");
+                    return;
+                }
+
                 while (DOUBLE_BUFFER_THREAD != null) { // Protect against spontaneous wake-ups..
                     DOUBLE_BUFFER.wait();
                 }
@@ -463,7 +704,12 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                     throw new DatabaseException("UTXO set invalidated.");
                 }
 
-                _commitUnspentTransactionOutputsToDoubleBuffer();
+                if (shouldOnlyCommitDirtyUtxos) {
+                    _commitDirtyUnspentTransactionOutputsToDoubleBuffer();
+                }
+                else {
+                    _commitUnspentTransactionOutputsToDoubleBuffer();
+                }
 
                 DOUBLE_BUFFER_THREAD = new Thread(new Runnable() {
                     @Override
@@ -475,7 +721,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                         try (final DatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
                             final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
                             TransactionUtil.startTransaction(databaseConnection);
-                            UnspentTransactionOutputJvmManager.commitDoubleBufferedUnspentTransactionOutputs(newCommittedBlockHeight, databaseManager);
+                            UnspentTransactionOutputJvmManager.commitDoubleBufferedUnspentTransactionOutputs(newCommittedBlockHeight, databaseManager, (! shouldOnlyCommitDirtyUtxos));
                             TransactionUtil.commitTransaction(databaseConnection);
                         }
                         catch (final Exception exception) {
@@ -515,8 +761,48 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         }
     }
 
+    /**
+     * Moves the UTXOs modified since the last commit into the DOUBLE_BUFFER, marking them as flushed within the UTXO_SET.
+     *  Unlike ::_commitUnspentTransactionOutputsToDoubleBuffer, the UTXO_SET is neither iterated nor purged.
+     */
+    protected void _commitDirtyUnspentTransactionOutputsToDoubleBuffer() {
+        final int flushedUnspentStateCode;
+        {
+            final JvmSpentState spentState = new JvmSpentState();
+            spentState.setIsSpent(false);
+            spentState.setIsFlushedToDisk(true);
+            spentState.setIsFlushMandatory(false);
+            flushedUnspentStateCode = spentState.intValue();
+        }
+
+        int dirtyUtxoCount = 0;
+        final JvmSpentState transientSpentState = new JvmSpentState(); // Re-initialize the same instance instead of creating many objects.
+        final UtxoKeySet.Cursor cursor = DIRTY_UTXO_KEYS.iterate();
+        while (cursor.next()) {
+            final UtxoKey utxoKey = cursor.getKey();
+            final UtxoValue utxoValue = UTXO_SET.get(utxoKey);
+            if (utxoValue == null) { continue; } // The UTXO was created and removed since the last commit, so it never needs to be written.
+
+            transientSpentState.initialize(utxoValue.spentStateCode);
+            if ( (! transientSpentState.isFlushedToDisk()) || transientSpentState.isFlushMandatory()) {
+                DOUBLE_BUFFER.put(utxoKey, utxoValue);
+                dirtyUtxoCount += 1;
+            }
+
+            if (transientSpentState.isSpent()) {
+                UTXO_SET.remove(utxoKey);
+            }
+            else {
+                UTXO_SET.setSpentStateCode(utxoKey, flushedUnspentStateCode);
+            }
+        }
+
+        DIRTY_UTXO_KEYS.clear();
+        Logger.debug("dirtyUtxoCount=" + dirtyUtxoCount);
+    }
+
     protected void _commitUnspentTransactionOutputsToDoubleBuffer() {
-        final int maxKeepCount = (int) (_maxUtxoCount * (1.0D - _purgePercent));
+        final int maxKeepCount = (int) (_getMaxUtxoCount() * (1.0D - _purgePercent));
 
         final long oldMinBlockHeight = _minBlockHeight;
         final long oldMaxBlockHeight = _maxBlockHeight;
@@ -536,14 +822,12 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             flushedUnspentStateCode = spentState.intValue();
         }
 
-        // TODO: Initialize UtxoValues to the same object to reduce memory footprint.
         int i = 0;
         final JvmSpentState transientSpentState = new JvmSpentState(); // Re-initialize the same instance instead of creating many objects.
-        final Iterator<Map.Entry<UtxoKey, UtxoValue>> iterator = UTXO_SET.entrySet().iterator();
-        while (iterator.hasNext()) {
-            final Map.Entry<UtxoKey, UtxoValue> entry = iterator.next();
-            final UtxoKey utxoKey = entry.getKey();
-            final UtxoValue utxoValue = entry.getValue();
+        final UtxoMap.Cursor cursor = UTXO_SET.iterate();
+        while (cursor.next()) {
+            final UtxoKey utxoKey = cursor.getKey();
+            final UtxoValue utxoValue = cursor.getValue();
 
             transientSpentState.initialize(utxoValue.spentStateCode);
             // Flush the UTXO to disk if the item should be flushed...
@@ -553,12 +837,12 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
 
             // Remove the UTXO from the cache if it is spent.
             if (transientSpentState.isSpent()) {
-                iterator.remove();
+                cursor.remove();
                 remainingPurgeCount -= 1;
             }
             else {
                 // Mark the UTXO as flushed and clear the mandatory-flush flag.
-                entry.setValue(new UtxoValue(flushedUnspentStateCode, utxoValue.blockHeight)); // TODO: cache/reuse UTXO values with the same blockHeight to reduce memory footprint.
+                cursor.setSpentStateCode(flushedUnspentStateCode);
 
                 boolean wasPurged = false;
                 if (remainingPurgeCount > 0) {
@@ -567,7 +851,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                     final double purgeAggressiveness = Math.min(1D, (( (double) remainingPurgeCount ) / iterationsRemaining)); // 0=purgeNothing, 1=purgeEverything
                     final long purgeDistanceThreshold = ( oldMinBlockHeight + ((long) (oldTotalBlockDistance * purgeAggressiveness)) );
                     if (utxoValue.blockHeight <= purgeDistanceThreshold) {
-                        iterator.remove();
+                        cursor.remove();
                         remainingPurgeCount -= 1;
                         wasPurged = true;
                     }
@@ -587,6 +871,10 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         _minBlockHeight = minBlockHeight;
         _maxBlockHeight = maxBlockHeight;
 
+        // Every UTXO requiring flushing has been moved to the double-buffer, so the dirty set is now complete (and empty).
+        DIRTY_UTXO_KEYS.clear();
+        DIRTY_UTXO_KEYS_ARE_COMPLETE = INCREMENTAL_COMMITS_ARE_ENABLED;
+
         // This request for garbage collection is not strictly necessary but considering the drastic change in memory
         // usage, it is useful to ensure a collection after the double-buffer is cleared, particularly in cases when
         // periodic calls to gc aren't schedule (i.e. initial node boot).
@@ -620,12 +908,18 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
 
     @Override
     public void insertUnspentTransactionOutputs(final List<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers, final Long blockHeight) throws DatabaseException {
+        this.insertUnspentTransactionOutputs(unspentTransactionOutputIdentifiers, null, blockHeight);
+    }
+
+    @Override
+    public void insertUnspentTransactionOutputs(final List<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers, final List<UnspentTransactionOutput> unspentTransactionOutputs, final Long blockHeight) throws DatabaseException {
         if (UnspentTransactionOutputJvmManager.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
         if (unspentTransactionOutputIdentifiers.isEmpty()) { return; }
+        if ( (unspentTransactionOutputs != null) && (unspentTransactionOutputs.getCount() != unspentTransactionOutputIdentifiers.getCount()) ) { throw new DatabaseException("UTXO identifier and output count mismatch."); }
 
         UTXO_WRITE_MUTEX.lock();
         try {
-            _insertUnspentTransactionOutputs(unspentTransactionOutputIdentifiers, blockHeight);
+            _insertUnspentTransactionOutputs(unspentTransactionOutputIdentifiers, unspentTransactionOutputs, blockHeight);
         }
         catch (final Exception exception) {
             _invalidateUncommittedUtxoSetAndRethrow(exception);
@@ -654,12 +948,20 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
 
     @Override
     public void undoSpendingOfTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException {
+        this.undoSpendingOfTransactionOutputs(transactionOutputIdentifiers, null);
+    }
+
+    @Override
+    public void undoSpendingOfTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers, final List<UnspentTransactionOutput> spentTransactionOutputs) throws DatabaseException {
         if (UnspentTransactionOutputJvmManager.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
         if (transactionOutputIdentifiers.isEmpty()) { return; }
+        if ( (spentTransactionOutputs != null) && (! Util.areEqual(spentTransactionOutputs.getCount(), transactionOutputIdentifiers.getCount())) ) {
+            throw new DatabaseException("Mismatched spent TransactionOutput count.");
+        }
 
         UTXO_WRITE_MUTEX.lock();
         try {
-            _undoSpendingOfTransactionOutputs(transactionOutputIdentifiers);
+            _undoSpendingOfTransactionOutputs(transactionOutputIdentifiers, spentTransactionOutputs);
         }
         catch (final Exception exception) {
             _invalidateUncommittedUtxoSetAndRethrow(exception);
@@ -670,12 +972,13 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     }
 
     @Override
-    public TransactionOutput getUnspentTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException {
+    public UnspentTransactionOutput getUnspentTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException {
         if (UnspentTransactionOutputJvmManager.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
 
         final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
         final Integer outputIndex = transactionOutputIdentifier.getOutputIndex();
 
+        final Long blockHeight;
         UTXO_READ_MUTEX.lock();
         try {
             final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
@@ -683,6 +986,11 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             if (utxoValue != null) {
                 final JvmSpentState spentState = utxoValue.getSpentState();
                 if (spentState.isSpent()) { return null; }
+
+                final UnspentTransactionOutput unspentTransactionOutput = _inflateUnspentTransactionOutput(outputIndex, utxoValue);
+                if (unspentTransactionOutput != null) { return unspentTransactionOutput; }
+
+                blockHeight = utxoValue.blockHeight;
             }
             else { // Possible cache miss
                 // Check the double-buffer before checking disk...
@@ -693,12 +1001,27 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                 if (doubleBufferedUtxoValue != null) {
                     final JvmSpentState spentState = doubleBufferedUtxoValue.getSpentState();
                     if (spentState.isSpent()) { return null; }
+
+                    final UnspentTransactionOutput unspentTransactionOutput = _inflateUnspentTransactionOutput(outputIndex, doubleBufferedUtxoValue);
+                    if (unspentTransactionOutput != null) { return unspentTransactionOutput; }
+
+                    blockHeight = doubleBufferedUtxoValue.blockHeight;
+                }
+                else if (COMMITTED_UTXO_STORE.value != null) {
+                    // check the committed store for the UTXO.
+                    final UtxoValue committedUtxoValue = COMMITTED_UTXO_STORE.value.get(utxoKey);
+                    if (committedUtxoValue == null) { return null; }
+
+                    final UnspentTransactionOutput unspentTransactionOutput = _inflateUnspentTransactionOutput(outputIndex, committedUtxoValue);
+                    if (unspentTransactionOutput != null) { return unspentTransactionOutput; }
+
+                    blockHeight = committedUtxoValue.blockHeight;
                 }
                 else {
                     // check the committed set for the UTXO.
                     final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
                     final java.util.List<Row> rows = databaseConnection.query(
-                        new Query("SELECT is_spent FROM committed_unspent_transaction_outputs WHERE transaction_hash = ? AND `index` = ? LIMIT 1")
+                        new Query("SELECT is_spent, block_height, is_coinbase, amount, locking_script FROM committed_unspent_transaction_outputs WHERE transaction_hash = ? AND `index` = ? LIMIT 1")
                             .setParameter(transactionHash)
                             .setParameter(outputIndex)
                     );
@@ -708,6 +1031,11 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                     final Row row = rows.get(0);
                     final Integer isSpent = row.getInteger("is_spent");
                     if (isSpent > 0) { return null; }
+
+                    final UnspentTransactionOutput unspentTransactionOutput = _inflateUnspentTransactionOutput(outputIndex, row);
+                    if (unspentTransactionOutput != null) { return unspentTransactionOutput; }
+
+                    blockHeight = _getBlockHeight(row);
                 }
             }
         }
@@ -718,6 +1046,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             UTXO_READ_MUTEX.unlock();
         }
 
+        // The UTXO was stored without its coin (e.g. it was created before coins were retained, or its LockingScript was too large for the cache), so it must be loaded from its Transaction.
         final FullNodeTransactionDatabaseManager transactionDatabaseManager = _databaseManager.getTransactionDatabaseManager();
         final TransactionId transactionId = transactionDatabaseManager.getTransactionId(transactionHash);
         if (transactionId == null) { return null; }
@@ -728,54 +1057,77 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         final List<TransactionOutput> transactionOutputs = transaction.getTransactionOutputs();
         if (outputIndex >= transactionOutputs.getCount()) { return null; }
 
-        return transactionOutputs.get(outputIndex);
+        final TransactionOutput transactionOutput = transactionOutputs.get(outputIndex);
+        return new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, Transaction.isCoinbaseTransaction(transaction));
     }
 
     @Override
-    public List<TransactionOutput> getUnspentTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException {
+    public List<UnspentTransactionOutput> getUnspentTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException {
         if (UnspentTransactionOutputJvmManager.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
-        if (transactionOutputIdentifiers.isEmpty()) { return new MutableList<TransactionOutput>(0); }
+        if (transactionOutputIdentifiers.isEmpty()) { return new MutableList<UnspentTransactionOutput>(0); }
 
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
         final TransactionDatabaseManager transactionDatabaseManager = _databaseManager.getTransactionDatabaseManager();
         final int transactionOutputIdentifierCount = transactionOutputIdentifiers.getCount();
 
         final MutableList<TransactionOutputIdentifier> cacheMissIdentifiers = new MutableList<TransactionOutputIdentifier>(transactionOutputIdentifierCount);
-        final HashSet<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers = new HashSet<TransactionOutputIdentifier>(transactionOutputIdentifierCount);
+        final HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> unspentTransactionOutputs = new HashMap<TransactionOutputIdentifier, UnspentTransactionOutput>(transactionOutputIdentifierCount);
+        final HashMap<TransactionOutputIdentifier, Long> coinlessUnspentTransactionOutputBlockHeights = new HashMap<TransactionOutputIdentifier, Long>(0); // UTXOs without a stored coin must be loaded from their Transaction.
 
         UTXO_READ_MUTEX.lock();
         try {
             { // Only return outputs that are in the UTXO set...
                 for (TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
                     final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
-                    final UtxoValue utxoValue = UTXO_SET.get(utxoKey);
-                    if (utxoValue != null) {
-                        final JvmSpentState spentState = utxoValue.getSpentState();
-                        if (! spentState.isSpent()) {
-                            unspentTransactionOutputIdentifiers.add(transactionOutputIdentifier);
-                        }
-                    }
-                    else { // Possible cache miss...
-                        // Check the double buffer first before queuing for disk-lookup...
-                        final UtxoValue doubleBufferedUtxoValue;
-                        synchronized (DOUBLE_BUFFER) {
-                            doubleBufferedUtxoValue = DOUBLE_BUFFER.get(utxoKey);
+                    final UtxoValue utxoValue;
+                    {
+                        final UtxoValue cachedUtxoValue = UTXO_SET.get(utxoKey);
+                        if (cachedUtxoValue != null) {
+                            utxoValue = cachedUtxoValue;
                         }
-                        if (doubleBufferedUtxoValue != null) {
-                            final JvmSpentState spentState = doubleBufferedUtxoValue.getSpentState();
-                            if (! spentState.isSpent()) {
-                                unspentTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+                        else { // Possible cache miss...
+                            // Check the double buffer first before queuing for disk-lookup...
+                            synchronized (DOUBLE_BUFFER) {
+                                utxoValue = DOUBLE_BUFFER.get(utxoKey);
                             }
                         }
-                        else { // Queue for disk lookup.
-                            cacheMissIdentifiers.add(transactionOutputIdentifier);
-                        }
+                    }
+
+                    if (utxoValue == null) { // Queue for disk lookup.
+                        cacheMissIdentifiers.add(transactionOutputIdentifier);
+                        continue;
+                    }
+
+                    final JvmSpentState spentState = utxoValue.getSpentState();
+                    if (spentState.isSpent()) { continue; }
+
+                    final UnspentTransactionOutput unspentTransactionOutput = _inflateUnspentTransactionOutput(transactionOutputIdentifier.getOutputIndex(), utxoValue);
+                    if (unspentTransactionOutput != null) {
+                        unspentTransactionOutputs.put(transactionOutputIdentifier, unspentTransactionOutput);
+                    }
+                    else {
+                        coinlessUnspentTransactionOutputBlockHeights.put(transactionOutputIdentifier, utxoValue.blockHeight);
                     }
                 }
             }
             { // Load UTXOs that weren't in the memory-cache but are in the greater UTXO set on disk...
                 final int cacheMissCount = cacheMissIdentifiers.getCount();
-                if (cacheMissCount > 0) {
+                final CommittedUtxoStore committedUtxoStore = COMMITTED_UTXO_STORE.value;
+                if ( (cacheMissCount > 0) && (committedUtxoStore != null) ) {
+                    for (final TransactionOutputIdentifier transactionOutputIdentifier : cacheMissIdentifiers) {
+                        final UtxoValue utxoValue = committedUtxoStore.get(new UtxoKey(transactionOutputIdentifier));
+                        if (utxoValue == null) { continue; }
+
+                        final UnspentTransactionOutput unspentTransactionOutput = _inflateUnspentTransactionOutput(transactionOutputIdentifier.getOutputIndex(), utxoValue);
+                        if (unspentTransactionOutput != null) {
+                            unspentTransactionOutputs.put(transactionOutputIdentifier, unspentTransactionOutput);
+                        }
+                        else {
+                            coinlessUnspentTransactionOutputBlockHeights.put(transactionOutputIdentifier, utxoValue.blockHeight);
+                        }
+                    }
+                }
+                else if (cacheMissCount > 0) {
                     final Integer batchSize = Math.min(512, _databaseManager.getMaxQueryBatchSize());
                     final BatchRunner<TransactionOutputIdentifier> batchRunner = new BatchRunner<TransactionOutputIdentifier>(batchSize, false);
 
@@ -784,7 +1136,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                         @Override
                         public void run(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws Exception {
                             rows.addAll(databaseConnection.query(
-                                new Query("SELECT transaction_hash, `index` FROM committed_unspent_transaction_outputs WHERE (transaction_hash, `index`) IN (?) AND is_spent = 0")
+                                new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM committed_unspent_transaction_outputs WHERE (transaction_hash, `index`) IN (?) AND is_spent = 0")
                                     .setExpandedInClauseParameters(transactionOutputIdentifiers, ValueExtractor.TRANSACTION_OUTPUT_IDENTIFIER)
                             ));
                         }
@@ -794,7 +1146,13 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                         final Integer outputIndex = row.getInteger("index");
 
                         final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
-                        unspentTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+                        final UnspentTransactionOutput unspentTransactionOutput = _inflateUnspentTransactionOutput(outputIndex, row);
+                        if (unspentTransactionOutput != null) {
+                            unspentTransactionOutputs.put(transactionOutputIdentifier, unspentTransactionOutput);
+                        }
+                        else {
+                            coinlessUnspentTransactionOutputBlockHeights.put(transactionOutputIdentifier, _getBlockHeight(row));
+                        }
                     }
                 }
             }
@@ -803,41 +1161,36 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             UTXO_READ_MUTEX.unlock();
         }
 
-        final Map<Sha256Hash, Transaction> transactions;
-        {
+        if (! coinlessUnspentTransactionOutputBlockHeights.isEmpty()) { // Load the coins that were not stored alongside their UTXO from their Transactions...
             final MutableList<Sha256Hash> transactionHashes;
             {
-                final HashSet<Sha256Hash> transactionHashSet = new HashSet<>(unspentTransactionOutputIdentifiers.size());
-                for (final TransactionOutputIdentifier transactionOutputIdentifier : unspentTransactionOutputIdentifiers) {
+                final HashSet<Sha256Hash> transactionHashSet = new HashSet<Sha256Hash>(coinlessUnspentTransactionOutputBlockHeights.size());
+                for (final TransactionOutputIdentifier transactionOutputIdentifier : coinlessUnspentTransactionOutputBlockHeights.keySet()) {
                     transactionHashSet.add(transactionOutputIdentifier.getTransactionHash());
                 }
-                transactionHashes = new MutableList<>(transactionHashSet);
+                transactionHashes = new MutableList<Sha256Hash>(transactionHashSet);
                 transactionHashes.sort(Sha256Hash.COMPARATOR);
             }
 
-            transactions = transactionDatabaseManager.getTransactions(transactionHashes);
-        }
-
-        final ImmutableListBuilder<TransactionOutput> transactionOutputsBuilder = new ImmutableListBuilder<TransactionOutput>(transactionOutputIdentifierCount);
-        for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
-            if (! unspentTransactionOutputIdentifiers.contains(transactionOutputIdentifier)) {
-                transactionOutputsBuilder.add(null);
-                continue;
-            }
+            final Map<Sha256Hash, Transaction> transactions = transactionDatabaseManager.getTransactions(transactionHashes);
+            for (final TransactionOutputIdentifier transactionOutputIdentifier : coinlessUnspentTransactionOutputBlockHeights.keySet()) {
+                final Transaction transaction = transactions.get(transactionOutputIdentifier.getTransactionHash());
+                if (transaction == null) { continue; }
 
-            final Integer outputIndex = transactionOutputIdentifier.getOutputIndex();
+                final Integer outputIndex = transactionOutputIdentifier.getOutputIndex();
+                final List<TransactionOutput> transactionOutputs = transaction.getTransactionOutputs();
+                if (outputIndex >= transactionOutputs.getCount()) { continue; }
 
-            final Transaction transaction = transactions.get(transactionOutputIdentifier.getTransactionHash());
-            if (transaction == null) {
-                transactionOutputsBuilder.add(null);
-                continue;
+                final TransactionOutput transactionOutput = transactionOutputs.get(outputIndex);
+                final Long blockHeight = coinlessUnspentTransactionOutputBlockHeights.get(transactionOutputIdentifier);
+                unspentTransactionOutputs.put(transactionOutputIdentifier, new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, Transaction.isCoinbaseTransaction(transaction)));
             }
+        }
 
-            final List<TransactionOutput> transactionOutputs = transaction.getTransactionOutputs();
-            if (outputIndex >= transactionOutputs.getCount()) { return null; }
-
-            final TransactionOutput transactionOutput = transactionOutputs.get(outputIndex);
-            transactionOutputsBuilder.add(transactionOutput);
+        final ImmutableListBuilder<UnspentTransactionOutput> transactionOutputsBuilder = new ImmutableListBuilder<UnspentTransactionOutput>(transactionOutputIdentifierCount);
+        for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+            final UnspentTransactionOutput unspentTransactionOutput = unspentTransactionOutputs.get(transactionOutputIdentifier);
+            transactionOutputsBuilder.add(unspentTransactionOutput);
         }
 
         return transactionOutputsBuilder.build();
@@ -858,7 +1211,28 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
 
         UTXO_WRITE_MUTEX.lock();
         try {
-            _commitUnspentTransactionOutputs(databaseManagerFactory, blockUntilComplete);
+            _commitUnspentTransactionOutputs(databaseManagerFactory, blockUntilComplete, false);
+        }
+        catch (final Exception exception) {
+            _invalidateUncommittedUtxoSetAndRethrow(exception);
+        }
+        finally {
+            UTXO_WRITE_MUTEX.unlock();
+        }
+    }
+
+    @Override
+    public void commitDirtyUnspentTransactionOutputs(final DatabaseManagerFactory databaseManagerFactory, final Boolean blockUntilComplete) throws DatabaseException {
+        if (! UnspentTransactionOutputJvmManager.isUtxoCacheReady()) {
+            // Prevent committing a UTXO set that has been invalidated or empty...
+            Logger.warn("Not committing UTXO set due to invalidated or empty cache.");
+            return;
+        }
+
+        UTXO_WRITE_MUTEX.lock();
+        try {
+            final Boolean shouldOnlyCommitDirtyUtxos = (INCREMENTAL_COMMITS_ARE_ENABLED && DIRTY_UTXO_KEYS_ARE_COMPLETE);
+            _commitUnspentTransactionOutputs(databaseManagerFactory, blockUntilComplete, shouldOnlyCommitDirtyUtxos);
         }
         catch (final Exception exception) {
             _invalidateUncommittedUtxoSetAndRethrow(exception);
@@ -956,6 +1330,12 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                 DOUBLE_BUFFER.clear();
             }
 
+            final CommittedUtxoStore committedUtxoStore = COMMITTED_UTXO_STORE.value;
+            if (committedUtxoStore != null) {
+                committedUtxoStore.clear();
+                return;
+            }
+
             final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
             databaseConnection.executeSql(
                 new Query("DELETE FROM committed_unspent_transaction_outputs")
@@ -984,6 +1364,6 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
 
     @Override
     public Long getMaxUtxoCount() {
-        return _maxUtxoCount;
+        return _getMaxUtxoCount();
     }
 }
@@ -10,7 +10,9 @@ import com.softwareverde.bitcoin.server.module.node.sync.blockloader.BlockLoader
 import com.softwareverde.bitcoin.server.module.node.sync.blockloader.PreloadedBlock;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.bitcoin.transaction.script.ScriptPatternMatcher;
 import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
@@ -37,6 +39,7 @@ public class UnspentTransactionOutputManager {
 
     protected final FullNodeDatabaseManager _databaseManager;
     protected final Long _commitFrequency;
+    protected final Long _incrementalCommitFrequency;
 
     protected void _buildUtxoSetUpToHeadBlock(final BlockLoader blockLoader, final DatabaseManagerFactory databaseManagerFactory) throws DatabaseException {
         final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
@@ -73,6 +76,12 @@ public class UnspentTransactionOutputManager {
         unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(databaseManagerFactory);
     }
 
+    protected void _commitDirtyUtxosToDisk(final DatabaseManagerFactory databaseManagerFactory) throws DatabaseException {
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _databaseManager.getUnspentTransactionOutputDatabaseManager();
+        Logger.debug("Incrementally committing UTXO set.");
+        unspentTransactionOutputDatabaseManager.commitDirtyUnspentTransactionOutputs(databaseManagerFactory, false);
+    }
+
     protected void _updateUtxoSetWithBlock(final Block block, final Long blockHeight, final DatabaseManagerFactory databaseManagerFactory) throws DatabaseException {
         final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _databaseManager.getUnspentTransactionOutputDatabaseManager();
         final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
@@ -89,6 +98,7 @@ public class UnspentTransactionOutputManager {
         int unspendableCount = 0;
         final MutableList<TransactionOutputIdentifier> spentTransactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>();
         final MutableList<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>();
+        final MutableList<UnspentTransactionOutput> unspentTransactionOutputs = new MutableList<UnspentTransactionOutput>();
         for (int i = 0; i < transactions.getCount(); ++i) {
             final Transaction transaction = transactions.get(i);
             final Sha256Hash transactionHash = transaction.getHash();
@@ -110,6 +120,7 @@ public class UnspentTransactionOutputManager {
                 if (isPossiblySpendable) {
                     final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(constTransactionHash, outputIndex);
                     unspentTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+                    unspentTransactionOutputs.add(new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, isCoinbase));
                 }
                 else {
                     unspendableCount += 1;
@@ -121,17 +132,26 @@ public class UnspentTransactionOutputManager {
 
         final int worstCaseNewUtxoCount = (unspentTransactionOutputIdentifiers.getCount() + spentTransactionOutputIdentifiers.getCount());
         final Long uncommittedUtxoCount = unspentTransactionOutputDatabaseManager.getUncommittedUnspentTransactionOutputCount();
-        if ( ((blockHeight % _commitFrequency) == 0L) || ( (uncommittedUtxoCount + worstCaseNewUtxoCount) >= unspentTransactionOutputDatabaseManager.getMaxUtxoCount()) ) {
+        final boolean incrementalCommitsAreEnabled = (_incrementalCommitFrequency > 0L);
+        final boolean isUtxoCacheFull = ( (uncommittedUtxoCount + worstCaseNewUtxoCount) >= unspentTransactionOutputDatabaseManager.getMaxUtxoCount() );
+        if ( ((! incrementalCommitsAreEnabled) && ((blockHeight % _commitFrequency) == 0L)) || isUtxoCacheFull ) {
             Logger.trace("((" + blockHeight + " % " + _commitFrequency + ") == 0) || ((" + uncommittedUtxoCount + " + " + worstCaseNewUtxoCount + ") >= " + unspentTransactionOutputDatabaseManager.getMaxUtxoCount() + ")");
             utxoCommitTimer.start();
             _commitInMemoryUtxoSetToDisk(databaseManagerFactory);
             utxoCommitTimer.stop();
             Logger.debug("Commit Timer: " + utxoCommitTimer.getMillisecondsElapsed() + "ms.");
         }
+        else if (incrementalCommitsAreEnabled && ((blockHeight % _incrementalCommitFrequency) == 0L)) {
+            // The purging commit is only required once the cache is full; otherwise the modified UTXOs are committed in the background.
+            utxoCommitTimer.start();
+            _commitDirtyUtxosToDisk(databaseManagerFactory);
+            utxoCommitTimer.stop();
+            Logger.trace("Incremental Commit Timer: " + utxoCommitTimer.getMillisecondsElapsed() + "ms.");
+        }
 
         utxoTimer.start();
 
-        unspentTransactionOutputDatabaseManager.insertUnspentTransactionOutputs(unspentTransactionOutputIdentifiers, blockHeight);
+        unspentTransactionOutputDatabaseManager.insertUnspentTransactionOutputs(unspentTransactionOutputIdentifiers, unspentTransactionOutputs, blockHeight);
         unspentTransactionOutputDatabaseManager.markTransactionOutputsAsSpent(spentTransactionOutputIdentifiers);
 
         utxoTimer.stop();
@@ -143,8 +163,18 @@ public class UnspentTransactionOutputManager {
     }
 
     public UnspentTransactionOutputManager(final FullNodeDatabaseManager databaseManager, final Long commitFrequency) {
+        this(databaseManager, commitFrequency, 0L);
+    }
+
+    /**
+     * If incrementalCommitFrequency is greater than zero, the UTXOs modified since the last commit are committed (without blocking)
+     *  every incrementalCommitFrequency blocks, and the full commit (which purges the in-memory set) only occurs once the cache is full.
+     *  Incremental commits require UnspentTransactionOutputJvmManager::setIncrementalCommitsEnabled.
+     */
+    public UnspentTransactionOutputManager(final FullNodeDatabaseManager databaseManager, final Long commitFrequency, final Long incrementalCommitFrequency) {
         _databaseManager = databaseManager;
         _commitFrequency = commitFrequency;
+        _incrementalCommitFrequency = Util.coalesce(incrementalCommitFrequency, 0L);
     }
 
     /**
@@ -217,6 +247,14 @@ public class UnspentTransactionOutputManager {
      * Removes UTXOs generated, and re-adds UTXOs spent, by the provided Block.
      */
     public void removeBlockFromUtxoSet(final Block block, final Long blockHeight) throws DatabaseException {
+        this.removeBlockFromUtxoSet(block, blockHeight, null);
+    }
+
+    /**
+     * Removes UTXOs generated, and re-adds UTXOs spent, by the provided Block.
+     *  If blockUndoData is provided, the spent UTXOs are restored from its coins instead of being looked up from their originating Transactions.
+     */
+    public void removeBlockFromUtxoSet(final Block block, final Long blockHeight, final BlockUndoData blockUndoData) throws DatabaseException {
         Logger.debug("Un-Applying Block from UTXO set: " + block.getHash());
 
         UnspentTransactionOutputDatabaseManager.UTXO_WRITE_MUTEX.lock();
@@ -246,7 +284,12 @@ public class UnspentTransactionOutputManager {
             }
 
             unspentTransactionOutputDatabaseManager.undoCreationOfTransactionOutputs(newOutputIdentifiers);
-            unspentTransactionOutputDatabaseManager.undoSpendingOfTransactionOutputs(previousOutputIdentifiers);
+            if (blockUndoData != null) {
+                unspentTransactionOutputDatabaseManager.undoSpendingOfTransactionOutputs(previousOutputIdentifiers, blockUndoData.getSpentTransactionOutputs());
+            }
+            else {
+                unspentTransactionOutputDatabaseManager.undoSpendingOfTransactionOutputs(previousOutputIdentifiers);
+            }
             unspentTransactionOutputDatabaseManager.setUncommittedUnspentTransactionOutputBlockHeight(blockHeight - 1L);
             Logger.trace("UTXO Block Height: " + (blockHeight - 1L) + " " + unspentTransactionOutputDatabaseManager.getUncommittedUnspentTransactionOutputBlockHeight());
         }
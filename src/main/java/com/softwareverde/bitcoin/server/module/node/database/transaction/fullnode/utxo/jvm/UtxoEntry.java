@@ -2,10 +2,10 @@ package com.softwareverde.bitcoin.server.module.node.database.transaction.fullno
 
 import java.util.Comparator;
 
-public class UnspentTransactionOutput {
-    public static final Comparator<UnspentTransactionOutput> COMPARATOR = new Comparator<UnspentTransactionOutput>() {
+public class UtxoEntry {
+    public static final Comparator<UtxoEntry> COMPARATOR = new Comparator<UtxoEntry>() {
         @Override
-        public int compare(final UnspentTransactionOutput o1, final UnspentTransactionOutput o2) {
+        public int compare(final UtxoEntry o1, final UtxoEntry o2) {
             return o1._utxoKey.compareTo(o2._utxoKey);
         }
     };
@@ -13,11 +13,19 @@ public class UnspentTransactionOutput {
     protected final UtxoKey _utxoKey;
     protected final UtxoValue _utxoValue;
 
-    public UnspentTransactionOutput(final UtxoKey utxoKey, final UtxoValue utxoValue) {
+    public UtxoEntry(final UtxoKey utxoKey, final UtxoValue utxoValue) {
         _utxoKey = utxoKey;
         _utxoValue = utxoValue;
     }
 
+    public UtxoKey getUtxoKey() {
+        return _utxoKey;
+    }
+
+    public UtxoValue getUtxoValue() {
+        return _utxoValue;
+    }
+
     public byte[] getTransactionHash() {
         return _utxoKey.transactionHash;
     }
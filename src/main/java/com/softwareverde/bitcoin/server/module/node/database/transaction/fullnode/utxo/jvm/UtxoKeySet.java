@@ -0,0 +1,242 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+
+/**
+ * An open-addressed (linear-probing) hash set of UTXO keys stored outside of the JVM heap.
+ *  Each key occupies a fixed-width slot of SLOT_BYTE_COUNT bytes:
+ *      [0, 32)  - the transaction hash
+ *      [32, 36) - the output index
+ *  Whether a slot is occupied is recorded within an on-heap bitset (one bit per slot), so that slots contain only the key.
+ *  Keys cannot be removed individually; the set is only ever cleared.
+ *  UtxoKeySet is not thread-safe.
+ */
+public class UtxoKeySet {
+    public static final int SLOT_BYTE_COUNT = (Sha256Hash.BYTE_COUNT + 4);
+
+    protected static final int OUTPUT_INDEX_OFFSET = Sha256Hash.BYTE_COUNT;
+    protected static final int SLOTS_PER_SEGMENT = (1 << 24); // ~600MB per segment; must remain below Integer.MAX_VALUE / SLOT_BYTE_COUNT.
+    protected static final long DEFAULT_INITIAL_CAPACITY = (1L << 16);
+    protected static final double MAX_LOAD_FACTOR = UtxoMap.MAX_LOAD_FACTOR;
+    protected static final double GROWTH_FACTOR = UtxoMap.GROWTH_FACTOR;
+
+    protected static final long HASH_SALT;
+    static {
+        final SecureRandom secureRandom = new SecureRandom();
+        HASH_SALT = secureRandom.nextLong();
+    }
+
+    protected final long _initialCapacity;
+    protected ByteBuffer[] _segments;
+    protected long[] _occupiedSlots;
+    protected long _capacity;
+    protected long _maxSize;
+    protected long _size;
+
+    protected void _initialize(final long capacity) {
+        final int segmentCount = (int) ((capacity + SLOTS_PER_SEGMENT - 1L) / SLOTS_PER_SEGMENT);
+        final ByteBuffer[] segments = new ByteBuffer[segmentCount];
+        long remainingSlotCount = capacity;
+        for (int i = 0; i < segmentCount; ++i) {
+            final int slotCount = (int) Math.min(remainingSlotCount, SLOTS_PER_SEGMENT);
+            segments[i] = ByteBuffer.allocateDirect(slotCount * SLOT_BYTE_COUNT).order(ByteOrder.nativeOrder());
+            remainingSlotCount -= slotCount;
+        }
+
+        _segments = segments;
+        _occupiedSlots = new long[(int) ((capacity + 63L) / 64L)];
+        _capacity = capacity;
+        _maxSize = (long) (capacity * MAX_LOAD_FACTOR);
+        _size = 0L;
+    }
+
+    protected ByteBuffer _getSegment(final long slotIndex) {
+        return _segments[(int) (slotIndex / SLOTS_PER_SEGMENT)];
+    }
+
+    protected static int _getSegmentOffset(final long slotIndex) {
+        return ((int) (slotIndex % SLOTS_PER_SEGMENT) * SLOT_BYTE_COUNT);
+    }
+
+    protected static boolean _isOccupied(final long[] occupiedSlots, final long slotIndex) {
+        return ((occupiedSlots[(int) (slotIndex >>> 6)] & (1L << slotIndex)) != 0L);
+    }
+
+    protected boolean _isOccupied(final long slotIndex) {
+        return _isOccupied(_occupiedSlots, slotIndex);
+    }
+
+    protected void _setOccupied(final long slotIndex) {
+        _occupiedSlots[(int) (slotIndex >>> 6)] |= (1L << slotIndex);
+    }
+
+    protected long _getHomeSlotIndex(final byte[] transactionHash, final int outputIndex) {
+        final long hash = UtxoMap._hash(HASH_SALT, UtxoMap._readHashPrefix(transactionHash), outputIndex);
+        return (((hash >>> 32) * _capacity) >>> 32); // Maps the hash onto [0, capacity) without requiring a power-of-two capacity.
+    }
+
+    protected long _nextSlotIndex(final long slotIndex) {
+        final long nextSlotIndex = (slotIndex + 1L);
+        return (nextSlotIndex < _capacity ? nextSlotIndex : 0L);
+    }
+
+    protected boolean _keyEquals(final long slotIndex, final byte[] transactionHash, final int outputIndex) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        final int offset = _getSegmentOffset(slotIndex);
+
+        if (segment.getInt(offset + OUTPUT_INDEX_OFFSET) != outputIndex) { return false; }
+        for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+            if (segment.get(offset + i) != transactionHash[i]) { return false; }
+        }
+        return true;
+    }
+
+    protected byte[] _readTransactionHash(final long slotIndex) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        final int offset = _getSegmentOffset(slotIndex);
+
+        final byte[] transactionHash = new byte[Sha256Hash.BYTE_COUNT];
+        for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+            transactionHash[i] = segment.get(offset + i);
+        }
+        return transactionHash;
+    }
+
+    protected int _readOutputIndex(final long slotIndex) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        return segment.getInt(_getSegmentOffset(slotIndex) + OUTPUT_INDEX_OFFSET);
+    }
+
+    /**
+     * Inserts the key without checking for its existence or the set's load.
+     */
+    protected void _insert(final byte[] transactionHash, final int outputIndex) {
+        long slotIndex = _getHomeSlotIndex(transactionHash, outputIndex);
+        while (_isOccupied(slotIndex)) {
+            slotIndex = _nextSlotIndex(slotIndex);
+        }
+
+        final ByteBuffer segment = _getSegment(slotIndex);
+        final int offset = _getSegmentOffset(slotIndex);
+        for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+            segment.put((offset + i), transactionHash[i]);
+        }
+        segment.putInt((offset + OUTPUT_INDEX_OFFSET), outputIndex);
+        _setOccupied(slotIndex);
+        _size += 1L;
+    }
+
+    protected void _resize(final long newCapacity) {
+        final ByteBuffer[] oldSegments = _segments;
+        final long[] oldOccupiedSlots = _occupiedSlots;
+        final long oldCapacity = _capacity;
+
+        _initialize(newCapacity);
+
+        for (long slotIndex = 0L; slotIndex < oldCapacity; ++slotIndex) {
+            if (! _isOccupied(oldOccupiedSlots, slotIndex)) { continue; }
+
+            final ByteBuffer oldSegment = oldSegments[(int) (slotIndex / SLOTS_PER_SEGMENT)];
+            final int offset = _getSegmentOffset(slotIndex);
+            final byte[] transactionHash = new byte[Sha256Hash.BYTE_COUNT];
+            for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+                transactionHash[i] = oldSegment.get(offset + i);
+            }
+            final int outputIndex = oldSegment.getInt(offset + OUTPUT_INDEX_OFFSET);
+
+            _insert(transactionHash, outputIndex);
+        }
+    }
+
+    public UtxoKeySet() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public UtxoKeySet(final Long initialCapacity) {
+        _initialCapacity = Math.max(64L, initialCapacity);
+        _initialize(_initialCapacity);
+    }
+
+    /**
+     * Adds the key to the set.  Returns false if the key was already within the set.
+     */
+    public boolean add(final UtxoKey utxoKey) {
+        long slotIndex = _getHomeSlotIndex(utxoKey.transactionHash, utxoKey.outputIndex);
+        while (_isOccupied(slotIndex)) {
+            if (_keyEquals(slotIndex, utxoKey.transactionHash, utxoKey.outputIndex)) { return false; }
+            slotIndex = _nextSlotIndex(slotIndex);
+        }
+
+        if ((_size + 1L) > _maxSize) {
+            _resize((long) (_capacity * GROWTH_FACTOR));
+        }
+
+        _insert(utxoKey.transactionHash, utxoKey.outputIndex);
+        return true;
+    }
+
+    public boolean contains(final UtxoKey utxoKey) {
+        long slotIndex = _getHomeSlotIndex(utxoKey.transactionHash, utxoKey.outputIndex);
+        while (_isOccupied(slotIndex)) {
+            if (_keyEquals(slotIndex, utxoKey.transactionHash, utxoKey.outputIndex)) { return true; }
+            slotIndex = _nextSlotIndex(slotIndex);
+        }
+        return false;
+    }
+
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, _size);
+    }
+
+    public boolean isEmpty() {
+        return (_size == 0L);
+    }
+
+    /**
+     * Returns the number of bytes currently reserved by the set, including its (on-heap) occupancy bitset.
+     */
+    public long getByteCount() {
+        return ((_capacity * SLOT_BYTE_COUNT) + (_occupiedSlots.length * 8L));
+    }
+
+    /**
+     * Removes all keys and releases the (possibly grown) off-heap memory back to the initial capacity.
+     *  The previous buffers are released once they are garbage-collected.
+     */
+    public void clear() {
+        _initialize(_initialCapacity);
+    }
+
+    /**
+     * Returns a Cursor that visits every key of the set.
+     *  The set must not be modified while the Cursor is in use.
+     */
+    public Cursor iterate() {
+        return new Cursor();
+    }
+
+    public class Cursor {
+        protected long _currentSlotIndex = -1L;
+
+        protected Cursor() { }
+
+        /**
+         * Advances the cursor to the next key.  Returns false once all keys have been visited.
+         */
+        public boolean next() {
+            while ((_currentSlotIndex + 1L) < _capacity) {
+                _currentSlotIndex += 1L;
+                if (_isOccupied(_currentSlotIndex)) { return true; }
+            }
+            return false;
+        }
+
+        public UtxoKey getKey() {
+            return new UtxoKey(_readTransactionHash(_currentSlotIndex), _readOutputIndex(_currentSlotIndex));
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScriptCompressor;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+
+/**
+ * An open-addressed (linear-probing) hash table of UTXO keys/values stored outside of the JVM heap.
+ *  Each entry occupies a fixed-width slot of SLOT_BYTE_COUNT bytes:
+ *      [0, 32)  - the transaction hash
+ *      [32, 36) - the output index
+ *      [36, 40) - the packed value: bits 0-2 are the JvmSpentState flags, bit 3 is the occupied flag, bit 4 is the coinbase flag, and bits 5-31 are (blockHeight + 1).
+ *      [40, 48) - the coin's amount
+ *      [48, 49) - the byte count of the coin's compressed locking script; zero if the coin is not retained
+ *      [49, 82) - the coin's compressed locking script (see LockingScriptCompressor)
+ *      [82, 84) - unused padding
+ *  Coins whose compressed locking script exceeds MAX_LOCKING_SCRIPT_BYTE_COUNT are stored without their coin.
+ *  Since no object is retained per entry, the map does not contribute to GC pressure regardless of its size.
+ *  Deletions use backward-shift deletion, so the table never accumulates tombstones.
+ *  UtxoMap is not thread-safe for concurrent writes; concurrent reads via ::get are safe while no writes occur.
+ */
+public class UtxoMap {
+    public static final int MAX_LOCKING_SCRIPT_BYTE_COUNT = LockingScriptCompressor.MAX_TEMPLATE_BYTE_COUNT;
+    public static final int SLOT_BYTE_COUNT = 84; // Must be a multiple of 4; see ::_copySlot.
+
+    protected static final int OUTPUT_INDEX_OFFSET = Sha256Hash.BYTE_COUNT;
+    protected static final int PACKED_VALUE_OFFSET = (OUTPUT_INDEX_OFFSET + 4);
+    protected static final int AMOUNT_OFFSET = (PACKED_VALUE_OFFSET + 4);
+    protected static final int LOCKING_SCRIPT_BYTE_COUNT_OFFSET = (AMOUNT_OFFSET + 8);
+    protected static final int LOCKING_SCRIPT_OFFSET = (LOCKING_SCRIPT_BYTE_COUNT_OFFSET + 1);
+
+    protected static final int SPENT_STATE_MASK = 0x07;
+    protected static final int OCCUPIED_FLAG = 0x08;
+    protected static final int COINBASE_FLAG = 0x10;
+    protected static final int BLOCK_HEIGHT_SHIFT = 5;
+    protected static final long MAX_BLOCK_HEIGHT = ((0xFFFFFFFFL >>> BLOCK_HEIGHT_SHIFT) - 1L);
+
+    protected static final int SLOTS_PER_SEGMENT = (1 << 24); // ~1.3GB per segment; must remain below Integer.MAX_VALUE / SLOT_BYTE_COUNT.
+    protected static final long DEFAULT_INITIAL_CAPACITY = (1L << 16);
+    protected static final double MAX_LOAD_FACTOR = 0.8D;
+    protected static final double GROWTH_FACTOR = 1.5D;
+
+    protected static final long HASH_SALT;
+    static {
+        final SecureRandom secureRandom = new SecureRandom();
+        HASH_SALT = secureRandom.nextLong();
+    }
+
+    protected static int _packValue(final int spentStateCode, final long blockHeight, final boolean isCoinbase) {
+        final long storedBlockHeight = (Math.min(blockHeight, MAX_BLOCK_HEIGHT) + 1L); // UNKNOWN_BLOCK_HEIGHT (-1) is stored as zero.
+        return (int) ( (storedBlockHeight << BLOCK_HEIGHT_SHIFT) | (isCoinbase ? COINBASE_FLAG : 0x00) | OCCUPIED_FLAG | (spentStateCode & SPENT_STATE_MASK) );
+    }
+
+    protected static int _unpackSpentStateCode(final int packedValue) {
+        return (packedValue & SPENT_STATE_MASK);
+    }
+
+    protected static long _unpackBlockHeight(final int packedValue) {
+        return (((packedValue & 0xFFFFFFFFL) >>> BLOCK_HEIGHT_SHIFT) - 1L);
+    }
+
+    protected static boolean _isOccupied(final int packedValue) {
+        return ((packedValue & OCCUPIED_FLAG) != 0x00);
+    }
+
+    protected static boolean _isCoinbase(final int packedValue) {
+        return ((packedValue & COINBASE_FLAG) != 0x00);
+    }
+
+    protected static boolean _canStoreCoin(final UtxoValue utxoValue) {
+        if (! utxoValue.hasCoin()) { return false; }
+        final int byteCount = utxoValue.compressedLockingScript.length;
+        return ( (byteCount > 0) && (byteCount <= MAX_LOCKING_SCRIPT_BYTE_COUNT) );
+    }
+
+    protected static long _hash(final long hashSalt, final long hashPrefix, final int outputIndex) {
+        long hash = (hashPrefix ^ hashSalt ^ (outputIndex * 0x9E3779B97F4A7C15L));
+        // MurmurHash3 fmix64 finalizer...
+        hash ^= (hash >>> 33);
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= (hash >>> 33);
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= (hash >>> 33);
+        return hash;
+    }
+
+    protected static long _readHashPrefix(final byte[] transactionHash) {
+        long value = 0L;
+        for (int i = 0; i < 8; ++i) {
+            value = ( (value << 8) | (transactionHash[i] & 0xFFL) );
+        }
+        return value;
+    }
+
+    protected final long _initialCapacity;
+    protected final long _hashSalt;
+    protected ByteBuffer[] _segments;
+    protected long _capacity;
+    protected long _maxSize;
+    protected long _size;
+
+    protected ByteBuffer[] _allocateSegments(final long capacity) {
+        final int segmentCount = (int) ((capacity + SLOTS_PER_SEGMENT - 1L) / SLOTS_PER_SEGMENT);
+        final ByteBuffer[] segments = new ByteBuffer[segmentCount];
+        long remainingSlotCount = capacity;
+        for (int i = 0; i < segmentCount; ++i) {
+            final int slotCount = (int) Math.min(remainingSlotCount, SLOTS_PER_SEGMENT);
+            segments[i] = ByteBuffer.allocateDirect(slotCount * SLOT_BYTE_COUNT).order(ByteOrder.nativeOrder()); // Direct buffers are zero-initialized, which denotes an empty slot.
+            remainingSlotCount -= slotCount;
+        }
+        return segments;
+    }
+
+    /**
+     * Invoked with the segments that the map no longer references, i.e. after a resize or clear.
+     *  Direct buffers are freed once they are garbage collected.
+     */
+    protected void _releaseSegments(final ByteBuffer[] segments) { }
+
+    protected void _initialize(final long capacity) {
+        _segments = _allocateSegments(capacity);
+        _capacity = capacity;
+        _maxSize = (long) (capacity * MAX_LOAD_FACTOR);
+        _size = 0L;
+    }
+
+    protected ByteBuffer _getSegment(final long slotIndex) {
+        return _segments[(int) (slotIndex / SLOTS_PER_SEGMENT)];
+    }
+
+    protected int _getSegmentOffset(final long slotIndex) {
+        return ((int) (slotIndex % SLOTS_PER_SEGMENT) * SLOT_BYTE_COUNT);
+    }
+
+    protected int _getPackedValue(final long slotIndex) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        return segment.getInt(_getSegmentOffset(slotIndex) + PACKED_VALUE_OFFSET);
+    }
+
+    protected void _setPackedValue(final long slotIndex, final int packedValue) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        segment.putInt((_getSegmentOffset(slotIndex) + PACKED_VALUE_OFFSET), packedValue);
+    }
+
+    protected long _getHomeSlotIndex(final long hashPrefix, final int outputIndex) {
+        final long hash = _hash(_hashSalt, hashPrefix, outputIndex);
+        return (((hash >>> 32) * _capacity) >>> 32); // Maps the hash onto [0, capacity) without requiring a power-of-two capacity.
+    }
+
+    protected long _getHomeSlotIndex(final long slotIndex) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        final int offset = _getSegmentOffset(slotIndex);
+
+        long hashPrefix = 0L;
+        for (int i = 0; i < 8; ++i) {
+            hashPrefix = ( (hashPrefix << 8) | (segment.get(offset + i) & 0xFFL) );
+        }
+        final int outputIndex = segment.getInt(offset + OUTPUT_INDEX_OFFSET);
+        return _getHomeSlotIndex(hashPrefix, outputIndex);
+    }
+
+    protected long _nextSlotIndex(final long slotIndex) {
+        final long nextSlotIndex = (slotIndex + 1L);
+        return (nextSlotIndex < _capacity ? nextSlotIndex : 0L);
+    }
+
+    protected boolean _keyEquals(final long slotIndex, final byte[] transactionHash, final int outputIndex) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        final int offset = _getSegmentOffset(slotIndex);
+
+        if (segment.getInt(offset + OUTPUT_INDEX_OFFSET) != outputIndex) { return false; }
+        for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+            if (segment.get(offset + i) != transactionHash[i]) { return false; }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the slot index containing the key, or -1 if the key is not within the map.
+     */
+    protected long _findSlotIndex(final byte[] transactionHash, final int outputIndex) {
+        long slotIndex = _getHomeSlotIndex(_readHashPrefix(transactionHash), outputIndex);
+        while (true) {
+            final int packedValue = _getPackedValue(slotIndex);
+            if (! _isOccupied(packedValue)) { return -1L; }
+            if (_keyEquals(slotIndex, transactionHash, outputIndex)) { return slotIndex; }
+
+            slotIndex = _nextSlotIndex(slotIndex);
+        }
+    }
+
+    protected void _writeValue(final long slotIndex, final UtxoValue utxoValue) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        final int offset = _getSegmentOffset(slotIndex);
+
+        final boolean canStoreCoin = _canStoreCoin(utxoValue);
+        if (canStoreCoin) {
+            final byte[] compressedLockingScript = utxoValue.compressedLockingScript;
+            segment.putLong((offset + AMOUNT_OFFSET), utxoValue.amount);
+            segment.put((offset + LOCKING_SCRIPT_BYTE_COUNT_OFFSET), (byte) compressedLockingScript.length);
+            for (int i = 0; i < compressedLockingScript.length; ++i) {
+                segment.put((offset + LOCKING_SCRIPT_OFFSET + i), compressedLockingScript[i]);
+            }
+        }
+        else {
+            segment.putLong((offset + AMOUNT_OFFSET), 0L);
+            segment.put((offset + LOCKING_SCRIPT_BYTE_COUNT_OFFSET), (byte) 0x00);
+        }
+
+        // The packed value (i.e. the occupied flag) is written last so that an interrupted write never exposes a new slot without its coin (see MappedUtxoStore).
+        final int packedValue = _packValue(utxoValue.spentStateCode, utxoValue.blockHeight, (canStoreCoin && utxoValue.isCoinbase));
+        segment.putInt((offset + PACKED_VALUE_OFFSET), packedValue);
+    }
+
+    protected void _writeSlot(final long slotIndex, final byte[] transactionHash, final int outputIndex, final UtxoValue utxoValue) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        final int offset = _getSegmentOffset(slotIndex);
+
+        for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+            segment.put((offset + i), transactionHash[i]);
+        }
+        segment.putInt((offset + OUTPUT_INDEX_OFFSET), outputIndex);
+        _writeValue(slotIndex, utxoValue);
+    }
+
+    protected static void _copySlot(final ByteBuffer fromSegment, final int fromOffset, final ByteBuffer toSegment, final int toOffset) {
+        for (int i = 0; i < SLOT_BYTE_COUNT; i += 4) {
+            if (i == PACKED_VALUE_OFFSET) { continue; }
+            toSegment.putInt((toOffset + i), fromSegment.getInt(fromOffset + i));
+        }
+        toSegment.putInt((toOffset + PACKED_VALUE_OFFSET), fromSegment.getInt(fromOffset + PACKED_VALUE_OFFSET)); // Written last; see ::_writeValue.
+    }
+
+    protected void _copySlot(final long fromSlotIndex, final long toSlotIndex) {
+        _copySlot(_getSegment(fromSlotIndex), _getSegmentOffset(fromSlotIndex), _getSegment(toSlotIndex), _getSegmentOffset(toSlotIndex));
+    }
+
+    protected UtxoKey _readKey(final long slotIndex) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        final int offset = _getSegmentOffset(slotIndex);
+
+        final byte[] transactionHash = new byte[Sha256Hash.BYTE_COUNT];
+        for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+            transactionHash[i] = segment.get(offset + i);
+        }
+        final int outputIndex = segment.getInt(offset + OUTPUT_INDEX_OFFSET);
+        return new UtxoKey(transactionHash, outputIndex);
+    }
+
+    protected UtxoValue _readValue(final long slotIndex) {
+        final ByteBuffer segment = _getSegment(slotIndex);
+        final int offset = _getSegmentOffset(slotIndex);
+
+        final int packedValue = segment.getInt(offset + PACKED_VALUE_OFFSET);
+        final int spentStateCode = _unpackSpentStateCode(packedValue);
+        final long blockHeight = _unpackBlockHeight(packedValue);
+
+        final int lockingScriptByteCount = (segment.get(offset + LOCKING_SCRIPT_BYTE_COUNT_OFFSET) & 0xFF);
+        if (lockingScriptByteCount == 0) {
+            return new UtxoValue(spentStateCode, blockHeight);
+        }
+
+        final long amount = segment.getLong(offset + AMOUNT_OFFSET);
+        final byte[] compressedLockingScript = new byte[lockingScriptByteCount];
+        for (int i = 0; i < lockingScriptByteCount; ++i) {
+            compressedLockingScript[i] = segment.get(offset + LOCKING_SCRIPT_OFFSET + i);
+        }
+        return new UtxoValue(spentStateCode, blockHeight, _isCoinbase(packedValue), amount, compressedLockingScript);
+    }
+
+    /**
+     * Removes the entry at slotIndex and shifts subsequent entries of its probe-cluster backwards to fill the gap.
+     *  Returns true if an entry was moved into slotIndex.
+     */
+    protected boolean _removeSlot(final long slotIndex) {
+        long emptySlotIndex = slotIndex;
+        _setPackedValue(emptySlotIndex, 0);
+        _size -= 1L;
+
+        long candidateSlotIndex = slotIndex;
+        while (true) {
+            candidateSlotIndex = _nextSlotIndex(candidateSlotIndex);
+
+            final int packedValue = _getPackedValue(candidateSlotIndex);
+            if (! _isOccupied(packedValue)) { break; }
+
+            final long homeSlotIndex = _getHomeSlotIndex(candidateSlotIndex);
+            final boolean canRemainInPlace;
+            if (emptySlotIndex <= candidateSlotIndex) {
+                canRemainInPlace = ( (emptySlotIndex < homeSlotIndex) && (homeSlotIndex <= candidateSlotIndex) );
+            }
+            else {
+                canRemainInPlace = ( (emptySlotIndex < homeSlotIndex) || (homeSlotIndex <= candidateSlotIndex) );
+            }
+            if (canRemainInPlace) { continue; }
+
+            _copySlot(candidateSlotIndex, emptySlotIndex);
+            _setPackedValue(candidateSlotIndex, 0);
+            emptySlotIndex = candidateSlotIndex;
+        }
+
+        return (emptySlotIndex != slotIndex);
+    }
+
+    protected void _resize(final long newCapacity) {
+        final ByteBuffer[] oldSegments = _segments;
+        final long oldCapacity = _capacity;
+        final long size = _size;
+
+        _initialize(newCapacity);
+
+        for (int i = 0; i < oldSegments.length; ++i) {
+            final ByteBuffer oldSegment = oldSegments[i];
+            final long slotCount = Math.min(SLOTS_PER_SEGMENT, (oldCapacity - (((long) i) * SLOTS_PER_SEGMENT)));
+            for (int j = 0; j < slotCount; ++j) {
+                final int offset = (j * SLOT_BYTE_COUNT);
+                final int packedValue = oldSegment.getInt(offset + PACKED_VALUE_OFFSET);
+                if (! _isOccupied(packedValue)) { continue; }
+
+                long hashPrefix = 0L;
+                for (int k = 0; k < 8; ++k) {
+                    hashPrefix = ( (hashPrefix << 8) | (oldSegment.get(offset + k) & 0xFFL) );
+                }
+                final int outputIndex = oldSegment.getInt(offset + OUTPUT_INDEX_OFFSET);
+
+                long slotIndex = _getHomeSlotIndex(hashPrefix, outputIndex);
+                while (_isOccupied(_getPackedValue(slotIndex))) {
+                    slotIndex = _nextSlotIndex(slotIndex);
+                }
+                _copySlot(oldSegment, offset, _getSegment(slotIndex), _getSegmentOffset(slotIndex));
+            }
+        }
+        _size = size;
+
+        _releaseSegments(oldSegments);
+    }
+
+    public UtxoMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public UtxoMap(final Long initialCapacity) {
+        _initialCapacity = Math.max(16L, initialCapacity);
+        _hashSalt = HASH_SALT;
+        _initialize(_initialCapacity);
+    }
+
+    /**
+     * Creates a UtxoMap over previously populated segments (e.g. memory-mapped from disk).
+     *  The hashSalt must be the salt the segments were populated with.
+     */
+    protected UtxoMap(final long hashSalt, final ByteBuffer[] segments, final long capacity, final long size) {
+        _initialCapacity = DEFAULT_INITIAL_CAPACITY;
+        _hashSalt = hashSalt;
+        _segments = segments;
+        _capacity = capacity;
+        _maxSize = (long) (capacity * MAX_LOAD_FACTOR);
+        _size = size;
+    }
+
+    public UtxoValue get(final UtxoKey utxoKey) {
+        final long slotIndex = _findSlotIndex(utxoKey.transactionHash, utxoKey.outputIndex);
+        if (slotIndex < 0L) { return null; }
+
+        return _readValue(slotIndex);
+    }
+
+    public void put(final UtxoKey utxoKey, final UtxoValue utxoValue) {
+        long slotIndex = _getHomeSlotIndex(_readHashPrefix(utxoKey.transactionHash), utxoKey.outputIndex);
+        while (true) {
+            final int existingPackedValue = _getPackedValue(slotIndex);
+            if (! _isOccupied(existingPackedValue)) { break; }
+            if (_keyEquals(slotIndex, utxoKey.transactionHash, utxoKey.outputIndex)) {
+                _writeValue(slotIndex, utxoValue);
+                return;
+            }
+
+            slotIndex = _nextSlotIndex(slotIndex);
+        }
+
+        if ((_size + 1L) > _maxSize) {
+            _resize((long) (_capacity * GROWTH_FACTOR));
+            this.put(utxoKey, utxoValue);
+            return;
+        }
+
+        _writeSlot(slotIndex, utxoKey.transactionHash, utxoKey.outputIndex, utxoValue);
+        _size += 1L;
+    }
+
+    /**
+     * Replaces the JvmSpentState flags of the entry while retaining its block height and coin.
+     *  Returns false if the key is not within the map.
+     */
+    public boolean setSpentStateCode(final UtxoKey utxoKey, final int spentStateCode) {
+        final long slotIndex = _findSlotIndex(utxoKey.transactionHash, utxoKey.outputIndex);
+        if (slotIndex < 0L) { return false; }
+
+        final int packedValue = _getPackedValue(slotIndex);
+        _setPackedValue(slotIndex, ((packedValue & (~ SPENT_STATE_MASK)) | (spentStateCode & SPENT_STATE_MASK)));
+        return true;
+    }
+
+    public UtxoValue remove(final UtxoKey utxoKey) {
+        final long slotIndex = _findSlotIndex(utxoKey.transactionHash, utxoKey.outputIndex);
+        if (slotIndex < 0L) { return null; }
+
+        final UtxoValue utxoValue = _readValue(slotIndex);
+        _removeSlot(slotIndex);
+        return utxoValue;
+    }
+
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, _size);
+    }
+
+    public boolean isEmpty() {
+        return (_size == 0L);
+    }
+
+    /**
+     * Returns the number of off-heap bytes currently reserved by the map.
+     */
+    public long getByteCount() {
+        return (_capacity * SLOT_BYTE_COUNT);
+    }
+
+    /**
+     * Removes all entries and releases the (possibly grown) off-heap memory back to the initial capacity.
+     *  The previous buffers are released once they are garbage-collected.
+     */
+    public void clear() {
+        final ByteBuffer[] oldSegments = _segments;
+        _initialize(_initialCapacity);
+        _releaseSegments(oldSegments);
+    }
+
+    /**
+     * Returns a Cursor that visits every entry of the map.
+     *  The map may only be modified via the Cursor while it is in use.
+     */
+    public Cursor iterate() {
+        return new Cursor();
+    }
+
+    public class Cursor {
+        protected final long _startSlotIndex;
+        protected long _visitedSlotCount = 0L;
+        protected long _currentSlotIndex = -1L;
+        protected boolean _shouldRevisitCurrentSlot = false;
+
+        protected Cursor() {
+            // Begin iterating immediately after an empty slot, so that no probe-cluster spans the start of the iteration.
+            //  This guarantees that backward-shifted entries are always moved into slots that have not yet been visited (or the current slot).
+            long startSlotIndex = 0L;
+            for (long i = 0L; i < _capacity; ++i) {
+                if (! _isOccupied(_getPackedValue(i))) {
+                    startSlotIndex = i;
+                    break;
+                }
+            }
+            _startSlotIndex = startSlotIndex;
+        }
+
+        /**
+         * Advances the cursor to the next entry.  Returns false once all entries have been visited.
+         */
+        public boolean next() {
+            if (_shouldRevisitCurrentSlot) {
+                _shouldRevisitCurrentSlot = false;
+                return true;
+            }
+
+            while (_visitedSlotCount < _capacity) {
+                _visitedSlotCount += 1L;
+                final long slotIndex = ((_startSlotIndex + _visitedSlotCount) % _capacity);
+                if (_isOccupied(_getPackedValue(slotIndex))) {
+                    _currentSlotIndex = slotIndex;
+                    return true;
+                }
+            }
+
+            _currentSlotIndex = -1L;
+            return false;
+        }
+
+        public UtxoKey getKey() {
+            return _readKey(_currentSlotIndex);
+        }
+
+        public UtxoValue getValue() {
+            return _readValue(_currentSlotIndex);
+        }
+
+        public void setValue(final UtxoValue utxoValue) {
+            _writeValue(_currentSlotIndex, utxoValue);
+        }
+
+        /**
+         * Replaces the JvmSpentState flags of the current entry while retaining its block height and coin.
+         */
+        public void setSpentStateCode(final int spentStateCode) {
+            final int packedValue = _getPackedValue(_currentSlotIndex);
+            _setPackedValue(_currentSlotIndex, ((packedValue & (~ SPENT_STATE_MASK)) | (spentStateCode & SPENT_STATE_MASK)));
+        }
+
+        /**
+         * Removes the current entry.  ::next must be invoked before accessing the next entry.
+         */
+        public void remove() {
+            _shouldRevisitCurrentSlot = _removeSlot(_currentSlotIndex);
+        }
+    }
+}
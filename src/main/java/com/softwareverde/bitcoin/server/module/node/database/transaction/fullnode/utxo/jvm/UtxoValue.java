@@ -4,17 +4,40 @@ public class UtxoValue {
     public final int spentStateCode;
     public final long blockHeight;
 
+    // The coin; only present when compressedLockingScript is not null.
+    public final boolean isCoinbase;
+    public final long amount;
+    public final byte[] compressedLockingScript;
+
     public UtxoValue(final JvmSpentState jvmSpentState, final long blockHeight) {
-        this.spentStateCode = jvmSpentState.intValue();
-        this.blockHeight = blockHeight;
+        this(jvmSpentState.intValue(), blockHeight);
     }
 
     public UtxoValue(final int spentStateCode, final long blockHeight) {
         this.spentStateCode = spentStateCode;
         this.blockHeight = blockHeight;
+        this.isCoinbase = false;
+        this.amount = 0L;
+        this.compressedLockingScript = null;
+    }
+
+    public UtxoValue(final JvmSpentState jvmSpentState, final long blockHeight, final boolean isCoinbase, final long amount, final byte[] compressedLockingScript) {
+        this(jvmSpentState.intValue(), blockHeight, isCoinbase, amount, compressedLockingScript);
+    }
+
+    public UtxoValue(final int spentStateCode, final long blockHeight, final boolean isCoinbase, final long amount, final byte[] compressedLockingScript) {
+        this.spentStateCode = spentStateCode;
+        this.blockHeight = blockHeight;
+        this.isCoinbase = isCoinbase;
+        this.amount = amount;
+        this.compressedLockingScript = compressedLockingScript;
     }
 
     public JvmSpentState getSpentState() {
         return new JvmSpentState(this.spentStateCode);
     }
-}
\ No newline at end of file
+
+    public boolean hasCoin() {
+        return (this.compressedLockingScript != null);
+    }
+}
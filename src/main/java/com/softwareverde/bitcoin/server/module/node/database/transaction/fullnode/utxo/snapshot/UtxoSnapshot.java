@@ -0,0 +1,129 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot;
+
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScriptCompressor;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+import com.softwareverde.util.Util;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+/**
+ * A UTXO snapshot is a deterministic serialization of the committed UTXO set at a particular Block.
+ *  UTXOs are sorted by (TransactionHash, OutputIndex), with TransactionHashes compared as unsigned bytes (i.e. the order of
+ *  committed_unspent_transaction_outputs' primary key), and grouped into fixed-size chunks so that each chunk can be verified
+ *  before it is loaded.  The snapshot hash commits to the Block, the UTXO count, and every chunk hash; two nodes with the same
+ *  UTXO set at the same Block produce byte-identical snapshots with identical hashes.
+ *
+ *  File format (big-endian unless noted):
+ *      Header:
+ *          [4] Magic, [4] Version, [32] Block Hash, [8] Block Height
+ *      For each chunk:
+ *          [4] UTXO Count, [4] Byte Count, [...] Entries
+ *      Trailer:
+ *          [8] UTXO Count, [4] Chunk Count, [32 * Chunk Count] Chunk Hashes, [32] Snapshot Hash, [8] Trailer Offset
+ *
+ *  Entry format:
+ *      [32] TransactionHash, [VarInt] OutputIndex, [VarInt] ((Block Height + 1) * 2) + Is Coinbase,
+ *      [8] Amount (little-endian), [VarInt] Compressed Locking Script Byte Count, [...] Compressed Locking Script
+ */
+public class UtxoSnapshot {
+    public static final Integer MAGIC = 0x5554584F; // "UTXO"
+    public static final Integer VERSION = 1;
+    public static final Integer HEADER_BYTE_COUNT = (4 + 4 + Sha256Hash.BYTE_COUNT + 8);
+    public static final Integer DEFAULT_CHUNK_UTXO_COUNT = 65536;
+
+    /**
+     * Compares the identifiers in snapshot order: TransactionHash (as unsigned bytes), then OutputIndex.
+     */
+    public static int compare(final TransactionOutputIdentifier transactionOutputIdentifier0, final TransactionOutputIdentifier transactionOutputIdentifier1) {
+        final Sha256Hash transactionHash0 = transactionOutputIdentifier0.getTransactionHash();
+        final Sha256Hash transactionHash1 = transactionOutputIdentifier1.getTransactionHash();
+        for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+            final int byte0 = (transactionHash0.getByte(i) & 0xFF);
+            final int byte1 = (transactionHash1.getByte(i) & 0xFF);
+            if (byte0 != byte1) {
+                return Integer.compare(byte0, byte1);
+            }
+        }
+
+        return Integer.compare(transactionOutputIdentifier0.getOutputIndex(), transactionOutputIdentifier1.getOutputIndex());
+    }
+
+    public static ByteArray serializeEntry(final TransactionOutputIdentifier transactionOutputIdentifier, final UnspentTransactionOutput unspentTransactionOutput, final LockingScriptCompressor lockingScriptCompressor) {
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+
+        byteArrayBuilder.appendBytes(transactionOutputIdentifier.getTransactionHash());
+        byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(transactionOutputIdentifier.getOutputIndex()));
+
+        final Long blockHeight = Util.coalesce(unspentTransactionOutput.getBlockHeight(), UnspentTransactionOutput.UNKNOWN_BLOCK_HEIGHT);
+        final boolean isCoinbase = Util.coalesce(unspentTransactionOutput.isCoinbase(), false);
+        final long heightAndCoinbaseFlag = (((Math.max(blockHeight, UnspentTransactionOutput.UNKNOWN_BLOCK_HEIGHT) + 1L) << 1) | (isCoinbase ? 0x01L : 0x00L));
+        byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(heightAndCoinbaseFlag));
+
+        byteArrayBuilder.appendBytes(ByteUtil.longToBytes(unspentTransactionOutput.getAmount()), Endian.LITTLE);
+
+        final ByteArray compressedLockingScript = lockingScriptCompressor.compress(unspentTransactionOutput.getLockingScript());
+        byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(compressedLockingScript.getByteCount()));
+        byteArrayBuilder.appendBytes(compressedLockingScript);
+
+        return MutableByteArray.wrap(byteArrayBuilder.build());
+    }
+
+    /**
+     * Inflates the next entry from the byteArrayReader.
+     *  Returns null if the entry is malformed.
+     */
+    public static UtxoSnapshotEntry readEntry(final ByteArrayReader byteArrayReader, final LockingScriptCompressor lockingScriptCompressor) {
+        final Sha256Hash transactionHash = Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT));
+        final Integer outputIndex = byteArrayReader.readVariableSizedInteger().intValue();
+
+        final long heightAndCoinbaseFlag = byteArrayReader.readVariableSizedInteger();
+        final Long blockHeight = ((heightAndCoinbaseFlag >> 1) - 1L);
+        final Boolean isCoinbase = ((heightAndCoinbaseFlag & 0x01L) != 0L);
+
+        final Long amount = byteArrayReader.readLong(8, Endian.LITTLE);
+
+        final int compressedLockingScriptByteCount = byteArrayReader.readVariableSizedInteger().intValue();
+        if ( (compressedLockingScriptByteCount < 0) || (compressedLockingScriptByteCount > byteArrayReader.remainingByteCount()) ) { return null; }
+        final ByteArray compressedLockingScript = MutableByteArray.wrap(byteArrayReader.readBytes(compressedLockingScriptByteCount));
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        final LockingScript lockingScript = lockingScriptCompressor.decompress(compressedLockingScript);
+        if (lockingScript == null) { return null; }
+
+        final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+        transactionOutput.setIndex(outputIndex);
+        transactionOutput.setAmount(amount);
+        transactionOutput.setLockingScript(lockingScript);
+
+        final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
+        return new UtxoSnapshotEntry(transactionOutputIdentifier, new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, isCoinbase));
+    }
+
+    public static Sha256Hash calculateChunkHash(final ByteArray chunkBytes) {
+        return HashUtil.sha256(chunkBytes);
+    }
+
+    public static Sha256Hash calculateSnapshotHash(final Sha256Hash blockHash, final Long blockHeight, final Long utxoCount, final List<Sha256Hash> chunkHashes) {
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendBytes(blockHash);
+        byteArrayBuilder.appendBytes(ByteUtil.longToBytes(blockHeight));
+        byteArrayBuilder.appendBytes(ByteUtil.longToBytes(utxoCount));
+        for (final Sha256Hash chunkHash : chunkHashes) {
+            byteArrayBuilder.appendBytes(chunkHash);
+        }
+        return HashUtil.sha256(MutableByteArray.wrap(byteArrayBuilder.build()));
+    }
+
+    protected UtxoSnapshot() { }
+}
@@ -0,0 +1,14 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot;
+
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+
+public class UtxoSnapshotEntry {
+    public final TransactionOutputIdentifier transactionOutputIdentifier;
+    public final UnspentTransactionOutput unspentTransactionOutput;
+
+    public UtxoSnapshotEntry(final TransactionOutputIdentifier transactionOutputIdentifier, final UnspentTransactionOutput unspentTransactionOutput) {
+        this.transactionOutputIdentifier = transactionOutputIdentifier;
+        this.unspentTransactionOutput = unspentTransactionOutput;
+    }
+}
@@ -0,0 +1,440 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot;
+
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.server.database.BatchRunner;
+import com.softwareverde.bitcoin.server.database.DatabaseConnection;
+import com.softwareverde.bitcoin.server.database.query.BatchedInsertQuery;
+import com.softwareverde.bitcoin.server.database.query.Query;
+import com.softwareverde.bitcoin.server.database.query.ValueExtractor;
+import com.softwareverde.bitcoin.server.module.node.database.DatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.DatabaseManagerFactory;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputJvmManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputManager;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScriptCompressor;
+import com.softwareverde.bitcoin.util.Util;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.database.row.Row;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.timer.MilliTimer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Creates and loads UTXO snapshots of the committed UTXO set.
+ *  A node that loads a snapshot taken at height H treats every Block at or below H as preceding its UTXO set:
+ *  those Blocks are stored but are neither validated against nor applied to the UTXO set (see BlockProcessor::setUtxoSnapshotBlock).
+ *  The loaded snapshot is therefore trusted until it is validated; its hash must be pinned by the operator (i.e. via bitcoin.utxoSnapshotHash).
+ *  Once loaded, UtxoSnapshotValidator replays the Blocks up to H in the background and compares the rebuilt UTXO set against the pinned hash.
+ */
+public class UtxoSnapshotManager {
+    public static final String SNAPSHOT_BLOCK_HEIGHT_KEY = "utxo_snapshot_block_height";
+    public static final String SNAPSHOT_BLOCK_HASH_KEY = "utxo_snapshot_block_hash";
+    public static final String SNAPSHOT_HASH_KEY = "utxo_snapshot_hash";
+    protected static final String COMMITTED_UTXO_BLOCK_HEIGHT_KEY = "committed_utxo_block_height";
+    protected static final Integer PAGE_SIZE = 8192;
+
+    protected static String _getProperty(final DatabaseConnection databaseConnection, final String key) throws DatabaseException {
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT value FROM properties WHERE `key` = ?")
+                .setParameter(key)
+        );
+        if (rows.isEmpty()) { return null; }
+
+        final Row row = rows.get(0);
+        return row.getString("value");
+    }
+
+    protected static void _setProperty(final DatabaseConnection databaseConnection, final String key, final Object value) throws DatabaseException {
+        databaseConnection.executeSql(
+            new Query("INSERT INTO properties (`key`, value) VALUES (?, ?) ON DUPLICATE KEY UPDATE value = VALUES (value)")
+                .setParameter(key)
+                .setParameter(value)
+        );
+    }
+
+    /**
+     * Returns the value of the key within the properties table, or null if the key is not set.
+     */
+    public static String getProperty(final DatabaseConnection databaseConnection, final String key) throws DatabaseException {
+        return _getProperty(databaseConnection, key);
+    }
+
+    /**
+     * Inserts or replaces the value of the key within the properties table.
+     */
+    public static void setProperty(final DatabaseConnection databaseConnection, final String key, final Object value) throws DatabaseException {
+        _setProperty(databaseConnection, key, value);
+    }
+
+    /**
+     * Returns the height of the loaded UTXO snapshot, or zero if the UTXO set was not loaded from a snapshot.
+     */
+    public static Long getSnapshotBlockHeight(final DatabaseManager databaseManager) throws DatabaseException {
+        final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+        final String value = _getProperty(databaseConnection, SNAPSHOT_BLOCK_HEIGHT_KEY);
+        return Util.coalesce(Util.parseLong(value), 0L);
+    }
+
+    /**
+     * Returns the hash of the Block the loaded UTXO snapshot was taken at, or null if the UTXO set was not loaded from a snapshot.
+     */
+    public static Sha256Hash getSnapshotBlockHash(final DatabaseManager databaseManager) throws DatabaseException {
+        final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+        final String value = _getProperty(databaseConnection, SNAPSHOT_BLOCK_HASH_KEY);
+        if (value == null) { return null; }
+        return Sha256Hash.fromHexString(value);
+    }
+
+    /**
+     * Returns the (pinned) hash of the loaded UTXO snapshot, or null if the UTXO set was not loaded from a snapshot.
+     */
+    public static Sha256Hash getSnapshotHash(final DatabaseManager databaseManager) throws DatabaseException {
+        final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+        final String value = _getProperty(databaseConnection, SNAPSHOT_HASH_KEY);
+        if (value == null) { return null; }
+        return Sha256Hash.fromHexString(value);
+    }
+
+    protected final FullNodeDatabaseManager _databaseManager;
+    protected final DatabaseManagerFactory _databaseManagerFactory;
+    protected final LockingScriptCompressor _lockingScriptCompressor = new LockingScriptCompressor();
+
+    protected static Long _getBlockHeight(final Row row) {
+        final Long blockHeight = row.getLong("block_height");
+        if ( (blockHeight == null) || (blockHeight <= 0L) ) { return UnspentTransactionOutput.UNKNOWN_BLOCK_HEIGHT; }
+        return blockHeight;
+    }
+
+    /**
+     * Returns the UTXO committed within the row, or null if the row does not contain its complete coin.
+     *  Rows committed by an older version lack their coin (and coinbase flag), and rows re-added after a reorg lack their
+     *  block height; since the block height and coinbase flag are included within the snapshot hash, neither may be guessed.
+     */
+    protected UnspentTransactionOutput _inflateUnspentTransactionOutput(final Integer outputIndex, final Row row) {
+        final Long amount = row.getLong("amount");
+        final byte[] compressedLockingScript = row.getBytes("locking_script");
+        final Boolean isCoinbase = row.getBoolean("is_coinbase");
+        final Long blockHeight = _getBlockHeight(row);
+        if ( (amount == null) || (compressedLockingScript == null) || (isCoinbase == null) ) { return null; }
+        if (Util.areEqual(blockHeight, UnspentTransactionOutput.UNKNOWN_BLOCK_HEIGHT)) { return null; }
+
+        final LockingScript lockingScript = _lockingScriptCompressor.decompress(MutableByteArray.wrap(compressedLockingScript));
+        if (lockingScript == null) { return null; }
+
+        final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+        transactionOutput.setIndex(outputIndex);
+        transactionOutput.setAmount(amount);
+        transactionOutput.setLockingScript(lockingScript);
+        return new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, isCoinbase);
+    }
+
+    /**
+     * Returns the height of the Block containing each Transaction, considering only the Blocks on the blockchainSegmentId's chain
+     *  at or below maxBlockHeight.  Transactions not found within such a Block are excluded from the returned map.
+     *  If a Transaction is contained by multiple such Blocks (i.e. a duplicate pre-BIP30 coinbase), the highest Block is used,
+     *  since its outputs replaced those of the earlier Block.
+     */
+    protected Map<Sha256Hash, Long> _getTransactionBlockHeights(final List<Sha256Hash> transactionHashes, final BlockchainSegmentId blockchainSegmentId, final Long maxBlockHeight) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+
+        final java.util.List<Row> rows = new ArrayList<Row>();
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+        final BatchRunner<Sha256Hash> batchRunner = new BatchRunner<Sha256Hash>(batchSize, false);
+        batchRunner.run(transactionHashes, new BatchRunner.Batch<Sha256Hash>() {
+            @Override
+            public void run(final List<Sha256Hash> transactionHashes) throws Exception {
+                rows.addAll(databaseConnection.query(
+                    new Query("SELECT transactions.hash AS transaction_hash, blocks.id AS block_id, blocks.block_height FROM block_transactions INNER JOIN blocks ON blocks.id = block_transactions.block_id INNER JOIN transactions ON transactions.id = block_transactions.transaction_id WHERE transactions.hash IN (?)")
+                        .setInClauseParameters(transactionHashes, ValueExtractor.SHA256_HASH)
+                ));
+            }
+        });
+
+        final HashMap<Sha256Hash, Long> transactionBlockHeights = new HashMap<Sha256Hash, Long>(transactionHashes.getCount());
+        for (final Row row : rows) {
+            final Sha256Hash transactionHash = Sha256Hash.copyOf(row.getBytes("transaction_hash"));
+            final BlockId blockId = BlockId.wrap(row.getLong("block_id"));
+            final Long blockHeight = row.getLong("block_height");
+            if (blockHeight > maxBlockHeight) { continue; }
+
+            final BlockId chainBlockId = blockHeaderDatabaseManager.getBlockIdAtHeight(blockchainSegmentId, blockHeight);
+            if (! Util.areEqual(blockId, chainBlockId)) { continue; } // The Block is not on the snapshot's chain...
+
+            final Long previousBlockHeight = transactionBlockHeights.get(transactionHash);
+            if ( (previousBlockHeight == null) || (blockHeight > previousBlockHeight) ) {
+                transactionBlockHeights.put(transactionHash, blockHeight);
+            }
+        }
+        return transactionBlockHeights;
+    }
+
+    /**
+     * Writes one page of the committed UTXO set, starting after the provided identifier (exclusive), to the utxoSnapshotWriter.
+     *  Rows committed without their complete coin are resolved from their Transaction and the snapshot Block's chain
+     *  (identified by blockchainSegmentId and blockHeight); if a row cannot be resolved, a DatabaseException is thrown.
+     *  Returns the last identifier written, or null if the page was empty.
+     */
+    protected TransactionOutputIdentifier _writeNextPage(final UtxoSnapshotWriter utxoSnapshotWriter, final TransactionOutputIdentifier previousTransactionOutputIdentifier, final BlockchainSegmentId blockchainSegmentId, final Long blockHeight) throws DatabaseException, IOException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final FullNodeTransactionDatabaseManager transactionDatabaseManager = _databaseManager.getTransactionDatabaseManager();
+
+        final java.util.List<Row> rows;
+        if (previousTransactionOutputIdentifier == null) {
+            rows = databaseConnection.query(
+                new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM committed_unspent_transaction_outputs WHERE is_spent = 0 ORDER BY transaction_hash ASC, `index` ASC LIMIT " + PAGE_SIZE)
+            );
+        }
+        else {
+            final Sha256Hash previousTransactionHash = previousTransactionOutputIdentifier.getTransactionHash();
+            rows = databaseConnection.query(
+                new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM committed_unspent_transaction_outputs WHERE is_spent = 0 AND (transaction_hash > ? OR (transaction_hash = ? AND `index` > ?)) ORDER BY transaction_hash ASC, `index` ASC LIMIT " + PAGE_SIZE)
+                    .setParameter(previousTransactionHash)
+                    .setParameter(previousTransactionHash)
+                    .setParameter(previousTransactionOutputIdentifier.getOutputIndex())
+            );
+        }
+        if (rows.isEmpty()) { return null; }
+
+        final MutableList<TransactionOutputIdentifier> transactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>(rows.size());
+        final MutableList<UnspentTransactionOutput> unspentTransactionOutputs = new MutableList<UnspentTransactionOutput>(rows.size());
+        final HashSet<Sha256Hash> unresolvedTransactionHashes = new HashSet<Sha256Hash>(0);
+        for (final Row row : rows) {
+            final Sha256Hash transactionHash = Sha256Hash.wrap(row.getBytes("transaction_hash"));
+            final Integer outputIndex = row.getInteger("index");
+            final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
+
+            final UnspentTransactionOutput unspentTransactionOutput = _inflateUnspentTransactionOutput(outputIndex, row);
+            if (unspentTransactionOutput == null) { // The row was committed without its complete coin (i.e. by an older version, or after a reorg)...
+                unresolvedTransactionHashes.add(transactionHash);
+            }
+
+            transactionOutputIdentifiers.add(transactionOutputIdentifier);
+            unspentTransactionOutputs.add(unspentTransactionOutput);
+        }
+
+        if (! unresolvedTransactionHashes.isEmpty()) { // The coin and coinbase flag are taken from the Transaction, and the block height from the snapshot Block's chain...
+            final MutableList<Sha256Hash> transactionHashes = new MutableList<Sha256Hash>(unresolvedTransactionHashes);
+            transactionHashes.sort(Sha256Hash.COMPARATOR);
+            final Map<Sha256Hash, Transaction> transactions = transactionDatabaseManager.getTransactions(transactionHashes);
+            final Map<Sha256Hash, Long> transactionBlockHeights = _getTransactionBlockHeights(transactionHashes, blockchainSegmentId, blockHeight);
+
+            for (int i = 0; i < unspentTransactionOutputs.getCount(); ++i) {
+                if (unspentTransactionOutputs.get(i) != null) { continue; }
+
+                final TransactionOutputIdentifier transactionOutputIdentifier = transactionOutputIdentifiers.get(i);
+                final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+                final Integer outputIndex = transactionOutputIdentifier.getOutputIndex();
+                final Transaction transaction = transactions.get(transactionHash);
+                final Long transactionBlockHeight = transactionBlockHeights.get(transactionHash);
+                final List<TransactionOutput> transactionOutputs = (transaction != null ? transaction.getTransactionOutputs() : null);
+                if ( (transactionOutputs == null) || (outputIndex >= transactionOutputs.getCount()) || (transactionBlockHeight == null) ) {
+                    throw new DatabaseException("Unable to resolve UTXO: " + transactionOutputIdentifier);
+                }
+
+                final TransactionOutput transactionOutput = transactionOutputs.get(outputIndex);
+                unspentTransactionOutputs.set(i, new ImmutableUnspentTransactionOutput(transactionOutput, transactionBlockHeight, Transaction.isCoinbaseTransaction(transaction)));
+            }
+        }
+
+        for (int i = 0; i < transactionOutputIdentifiers.getCount(); ++i) {
+            utxoSnapshotWriter.append(transactionOutputIdentifiers.get(i), unspentTransactionOutputs.get(i));
+        }
+
+        return transactionOutputIdentifiers.get(transactionOutputIdentifiers.getCount() - 1);
+    }
+
+    protected void _insertUnspentTransactionOutputs(final List<UtxoSnapshotEntry> entries) throws DatabaseException {
+        if (entries.isEmpty()) { return; }
+
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Integer maxBatchSize = _databaseManager.getMaxQueryBatchSize();
+
+        int index = 0;
+        while (index < entries.getCount()) {
+            final Query batchedInsertQuery = new BatchedInsertQuery("INSERT INTO committed_unspent_transaction_outputs (transaction_hash, `index`, block_height, is_coinbase, amount, locking_script) VALUES (?, ?, ?, ?, ?, ?)");
+            final int batchEndIndex = Math.min(index + maxBatchSize, entries.getCount());
+            for (; index < batchEndIndex; ++index) {
+                final UtxoSnapshotEntry entry = entries.get(index);
+                final TransactionOutputIdentifier transactionOutputIdentifier = entry.transactionOutputIdentifier;
+                final UnspentTransactionOutput unspentTransactionOutput = entry.unspentTransactionOutput;
+
+                batchedInsertQuery.setParameter(transactionOutputIdentifier.getTransactionHash());
+                batchedInsertQuery.setParameter(transactionOutputIdentifier.getOutputIndex());
+                batchedInsertQuery.setParameter(Math.max(unspentTransactionOutput.getBlockHeight(), 0L)); // Unknown heights are committed as zero; see UnspentTransactionOutputJvmManager.
+                batchedInsertQuery.setParameter(unspentTransactionOutput.isCoinbase());
+                batchedInsertQuery.setParameter(unspentTransactionOutput.getAmount());
+                batchedInsertQuery.setParameter(_lockingScriptCompressor.compress(unspentTransactionOutput.getLockingScript()));
+            }
+            databaseConnection.executeSql(batchedInsertQuery);
+        }
+    }
+
+    public UtxoSnapshotManager(final FullNodeDatabaseManager databaseManager, final DatabaseManagerFactory databaseManagerFactory) {
+        _databaseManager = databaseManager;
+        _databaseManagerFactory = databaseManagerFactory;
+    }
+
+    /**
+     * Commits the UTXO set and writes it to the file as a snapshot at the committed block height.
+     *  The UTXO set is locked for the duration of this call, so Blocks are not processed while the snapshot is written.
+     *  Returns the snapshot hash.
+     */
+    public Sha256Hash createSnapshot(final File file) throws DatabaseException, IOException {
+        if (UnspentTransactionOutputJvmManager.getCommittedUtxoStore() != null) { throw new DatabaseException("UTXO snapshots require the committed UTXO set to be stored within the database."); }
+
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _databaseManager.getUnspentTransactionOutputDatabaseManager();
+
+        final MilliTimer milliTimer = new MilliTimer();
+        milliTimer.start();
+
+        UnspentTransactionOutputManager.lockUtxoSet();
+        try {
+            unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_databaseManagerFactory, true);
+
+            final Long blockHeight = unspentTransactionOutputDatabaseManager.getCommittedUnspentTransactionOutputBlockHeight();
+            final Long uncommittedBlockHeight = unspentTransactionOutputDatabaseManager.getUncommittedUnspentTransactionOutputBlockHeight();
+            if ( (blockHeight < 1L) || (! Util.areEqual(blockHeight, uncommittedBlockHeight)) ) {
+                throw new DatabaseException("Unable to commit the UTXO set for snapshot.");
+            }
+
+            final BlockchainSegmentId blockchainSegmentId;
+            final Sha256Hash blockHash;
+            {
+                final BlockId headBlockId = _databaseManager.getBlockDatabaseManager().getHeadBlockId();
+                blockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(headBlockId);
+                final BlockId blockId = blockHeaderDatabaseManager.getBlockIdAtHeight(blockchainSegmentId, blockHeight);
+                blockHash = blockHeaderDatabaseManager.getBlockHash(blockId);
+                if (blockHash == null) { throw new DatabaseException("Unable to find Block at height: " + blockHeight); }
+            }
+
+            final Sha256Hash snapshotHash;
+            try (final UtxoSnapshotWriter utxoSnapshotWriter = new UtxoSnapshotWriter(new FileOutputStream(file), blockHash, blockHeight)) {
+                TransactionOutputIdentifier lastTransactionOutputIdentifier = null;
+                do {
+                    lastTransactionOutputIdentifier = _writeNextPage(utxoSnapshotWriter, lastTransactionOutputIdentifier, blockchainSegmentId, blockHeight);
+                } while (lastTransactionOutputIdentifier != null);
+
+                snapshotHash = utxoSnapshotWriter.finish();
+
+                milliTimer.stop();
+                Logger.info("Created UTXO snapshot of " + utxoSnapshotWriter.getUtxoCount() + " UTXOs at " + blockHash + " (" + blockHeight + ") in " + milliTimer.getMillisecondsElapsed() + "ms. Snapshot hash: " + snapshotHash);
+            }
+
+            return snapshotHash;
+        }
+        finally {
+            UnspentTransactionOutputManager.unlockUtxoSet();
+        }
+    }
+
+    /**
+     * Replaces the (empty) committed UTXO set with the UTXOs within the snapshot file.
+     *  The snapshot is only loaded if its hash matches expectedSnapshotHash and the node has not yet processed any Blocks beyond genesis.
+     *  If the BlockHeader at the snapshot's height is already known, it must match the snapshot's Block.
+     *  Returns false if the snapshot was not loaded; if an error occurs mid-load, the committed UTXO set is cleared.
+     */
+    public Boolean loadSnapshot(final File file, final Sha256Hash expectedSnapshotHash) throws DatabaseException, IOException {
+        if (UnspentTransactionOutputJvmManager.getCommittedUtxoStore() != null) { throw new DatabaseException("UTXO snapshots require the committed UTXO set to be stored within the database."); }
+
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _databaseManager.getUnspentTransactionOutputDatabaseManager();
+
+        final MilliTimer milliTimer = new MilliTimer();
+        milliTimer.start();
+
+        UnspentTransactionOutputManager.lockUtxoSet();
+        try (final UtxoSnapshotReader utxoSnapshotReader = new UtxoSnapshotReader(file)) {
+            final Sha256Hash snapshotHash = utxoSnapshotReader.getSnapshotHash();
+            if (! Util.areEqual(expectedSnapshotHash, snapshotHash)) {
+                Logger.warn("UTXO snapshot hash mismatch. Expected: " + expectedSnapshotHash + " Found: " + snapshotHash);
+                return false;
+            }
+
+            final Sha256Hash blockHash = utxoSnapshotReader.getBlockHash();
+            final Long blockHeight = utxoSnapshotReader.getBlockHeight();
+
+            { // Ensure the node has not started building its own UTXO set...
+                final Long committedBlockHeight = unspentTransactionOutputDatabaseManager.getCommittedUnspentTransactionOutputBlockHeight();
+                final BlockId headBlockId = _databaseManager.getBlockDatabaseManager().getHeadBlockId();
+                final Long headBlockHeight = Util.coalesce(blockHeaderDatabaseManager.getBlockHeight(headBlockId), 0L);
+                final java.util.List<Row> rows = databaseConnection.query(new Query("SELECT 1 FROM committed_unspent_transaction_outputs LIMIT 1"));
+                if ( (committedBlockHeight > 0L) || (headBlockHeight > 0L) || (! rows.isEmpty()) ) {
+                    Logger.info("Not loading UTXO snapshot; UTXO set is not empty.");
+                    return false;
+                }
+            }
+
+            { // Ensure the snapshot's Block is on the known header chain, if the header chain is that long...
+                final BlockId headBlockHeaderId = blockHeaderDatabaseManager.getHeadBlockHeaderId();
+                final BlockchainSegmentId blockchainSegmentId = (headBlockHeaderId != null ? blockHeaderDatabaseManager.getBlockchainSegmentId(headBlockHeaderId) : null);
+                final BlockId blockId = (blockchainSegmentId != null ? blockHeaderDatabaseManager.getBlockIdAtHeight(blockchainSegmentId, blockHeight) : null);
+                if (blockId != null) {
+                    final Sha256Hash headerChainBlockHash = blockHeaderDatabaseManager.getBlockHash(blockId);
+                    if (! Util.areEqual(blockHash, headerChainBlockHash)) {
+                        Logger.warn("UTXO snapshot Block " + blockHash + " is not on the head header chain at height " + blockHeight + ".");
+                        return false;
+                    }
+                }
+            }
+
+            Logger.info("Loading UTXO snapshot of " + utxoSnapshotReader.getUtxoCount() + " UTXOs at " + blockHash + " (" + blockHeight + ").");
+            try {
+                long loadedUtxoCount = 0L;
+                List<UtxoSnapshotEntry> entries;
+                while ((entries = utxoSnapshotReader.readNextChunk()) != null) {
+                    _insertUnspentTransactionOutputs(entries);
+                    loadedUtxoCount += entries.getCount();
+                    Logger.debug("Loaded " + loadedUtxoCount + " of " + utxoSnapshotReader.getUtxoCount() + " snapshot UTXOs.");
+                }
+                if (loadedUtxoCount != utxoSnapshotReader.getUtxoCount()) { throw new IOException("UTXO snapshot count mismatch."); }
+
+                _setProperty(databaseConnection, SNAPSHOT_HASH_KEY, snapshotHash.toString());
+                _setProperty(databaseConnection, SNAPSHOT_BLOCK_HASH_KEY, blockHash.toString());
+                _setProperty(databaseConnection, SNAPSHOT_BLOCK_HEIGHT_KEY, blockHeight);
+                _setProperty(databaseConnection, COMMITTED_UTXO_BLOCK_HEIGHT_KEY, blockHeight);
+            }
+            catch (final Exception exception) {
+                unspentTransactionOutputDatabaseManager.clearCommittedUtxoSet();
+                _setProperty(databaseConnection, SNAPSHOT_BLOCK_HEIGHT_KEY, 0L);
+
+                if (exception instanceof IOException) { throw (IOException) exception; }
+                if (exception instanceof DatabaseException) { throw (DatabaseException) exception; }
+                throw new DatabaseException(exception);
+            }
+
+            unspentTransactionOutputDatabaseManager.clearUncommittedUtxoSet(); // The in-memory set is rebuilt from the newly committed set...
+
+            milliTimer.stop();
+            Logger.info("Loaded UTXO snapshot in " + milliTimer.getMillisecondsElapsed() + "ms.");
+            return true;
+        }
+        finally {
+            UnspentTransactionOutputManager.unlockUtxoSet();
+        }
+    }
+}
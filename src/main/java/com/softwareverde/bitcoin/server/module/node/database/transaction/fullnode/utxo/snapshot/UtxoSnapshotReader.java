@@ -0,0 +1,148 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot;
+
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScriptCompressor;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Reads a UTXO snapshot (see UtxoSnapshot) from disk.
+ *  The header and trailer are read, and the snapshot hash is recomputed, when the reader is opened; each chunk is verified
+ *  against its hash within the trailer as it is read, so a corrupted chunk is never returned.
+ */
+public class UtxoSnapshotReader implements AutoCloseable {
+    protected static final Integer MAX_CHUNK_BYTE_COUNT = (256 * 1024 * 1024);
+
+    protected final RandomAccessFile _file;
+    protected final LockingScriptCompressor _lockingScriptCompressor = new LockingScriptCompressor();
+
+    protected Sha256Hash _blockHash;
+    protected Long _blockHeight;
+    protected Long _utxoCount;
+    protected List<Sha256Hash> _chunkHashes;
+    protected Sha256Hash _snapshotHash;
+    protected Long _trailerOffset;
+    protected Integer _nextChunkIndex = 0;
+
+    protected Sha256Hash _readHash() throws IOException {
+        final byte[] bytes = new byte[Sha256Hash.BYTE_COUNT];
+        _file.readFully(bytes);
+        return Sha256Hash.wrap(bytes);
+    }
+
+    protected void _readHeaderAndTrailer() throws IOException {
+        final long fileByteCount = _file.length();
+        if (fileByteCount < (UtxoSnapshot.HEADER_BYTE_COUNT + 8L)) { throw new IOException("Invalid UTXO snapshot."); }
+
+        _file.seek(0L);
+        final int magic = _file.readInt();
+        final int version = _file.readInt();
+        if ( (magic != UtxoSnapshot.MAGIC) || (version != UtxoSnapshot.VERSION) ) { throw new IOException("Unsupported UTXO snapshot."); }
+        _blockHash = _readHash();
+        _blockHeight = _file.readLong();
+
+        _file.seek(fileByteCount - 8L);
+        _trailerOffset = _file.readLong();
+        if ( (_trailerOffset < UtxoSnapshot.HEADER_BYTE_COUNT) || (_trailerOffset > (fileByteCount - 8L)) ) { throw new IOException("Invalid UTXO snapshot trailer."); }
+
+        _file.seek(_trailerOffset);
+        _utxoCount = _file.readLong();
+        final int chunkCount = _file.readInt();
+        final long expectedTrailerByteCount = (8L + 4L + (chunkCount * (long) Sha256Hash.BYTE_COUNT) + Sha256Hash.BYTE_COUNT + 8L);
+        if ( (chunkCount < 0) || ((_trailerOffset + expectedTrailerByteCount) != fileByteCount) ) { throw new IOException("Invalid UTXO snapshot trailer."); }
+
+        final ImmutableListBuilder<Sha256Hash> chunkHashes = new ImmutableListBuilder<Sha256Hash>(chunkCount);
+        for (int i = 0; i < chunkCount; ++i) {
+            chunkHashes.add(_readHash());
+        }
+        _chunkHashes = chunkHashes.build();
+        _snapshotHash = _readHash();
+
+        final Sha256Hash calculatedSnapshotHash = UtxoSnapshot.calculateSnapshotHash(_blockHash, _blockHeight, _utxoCount, _chunkHashes);
+        if (! Util.areEqual(calculatedSnapshotHash, _snapshotHash)) { throw new IOException("UTXO snapshot hash mismatch."); }
+
+        _file.seek(UtxoSnapshot.HEADER_BYTE_COUNT);
+    }
+
+    public UtxoSnapshotReader(final File file) throws IOException {
+        _file = new RandomAccessFile(file, "r");
+        try {
+            _readHeaderAndTrailer();
+        }
+        catch (final IOException exception) {
+            _file.close();
+            throw exception;
+        }
+    }
+
+    public Sha256Hash getBlockHash() {
+        return _blockHash;
+    }
+
+    public Long getBlockHeight() {
+        return _blockHeight;
+    }
+
+    public Long getUtxoCount() {
+        return _utxoCount;
+    }
+
+    public Integer getChunkCount() {
+        return _chunkHashes.getCount();
+    }
+
+    /**
+     * Returns the snapshot hash recorded within (and verified against) the snapshot's trailer.
+     */
+    public Sha256Hash getSnapshotHash() {
+        return _snapshotHash;
+    }
+
+    /**
+     * Returns the next chunk's UTXOs, or null once every chunk has been read.
+     *  Throws an IOException if the chunk does not match its hash or is malformed.
+     */
+    public List<UtxoSnapshotEntry> readNextChunk() throws IOException {
+        if (_nextChunkIndex >= _chunkHashes.getCount()) { return null; }
+
+        final int itemCount = _file.readInt();
+        final int byteCount = _file.readInt();
+        if ( (itemCount < 0) || (byteCount < 0) || (byteCount > MAX_CHUNK_BYTE_COUNT) || ((_file.getFilePointer() + byteCount) > _trailerOffset) ) {
+            throw new IOException("Invalid UTXO snapshot chunk: " + _nextChunkIndex);
+        }
+
+        final byte[] bytes = new byte[byteCount];
+        _file.readFully(bytes);
+        final ByteArray chunkBytes = MutableByteArray.wrap(bytes);
+
+        final Sha256Hash expectedChunkHash = _chunkHashes.get(_nextChunkIndex);
+        if (! Util.areEqual(expectedChunkHash, UtxoSnapshot.calculateChunkHash(chunkBytes))) {
+            throw new IOException("UTXO snapshot chunk hash mismatch: " + _nextChunkIndex);
+        }
+
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(chunkBytes);
+        final ImmutableListBuilder<UtxoSnapshotEntry> entries = new ImmutableListBuilder<UtxoSnapshotEntry>(itemCount);
+        for (int i = 0; i < itemCount; ++i) {
+            final UtxoSnapshotEntry entry = UtxoSnapshot.readEntry(byteArrayReader, _lockingScriptCompressor);
+            if (entry == null) { throw new IOException("Invalid UTXO snapshot entry within chunk: " + _nextChunkIndex); }
+            entries.add(entry);
+        }
+        if (byteArrayReader.remainingByteCount() > 0) { throw new IOException("Invalid UTXO snapshot chunk: " + _nextChunkIndex); }
+
+        _nextChunkIndex += 1;
+        return entries.build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        _file.close();
+    }
+}
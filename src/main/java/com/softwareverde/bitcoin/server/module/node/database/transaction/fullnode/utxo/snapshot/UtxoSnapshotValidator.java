@@ -0,0 +1,377 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.validator.BlockValidationResult;
+import com.softwareverde.bitcoin.block.validator.BlockValidator;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.context.TransactionValidatorFactory;
+import com.softwareverde.bitcoin.context.UnspentTransactionOutputContext;
+import com.softwareverde.bitcoin.context.lazy.LazyBlockValidatorContext;
+import com.softwareverde.bitcoin.inflater.TransactionInflaters;
+import com.softwareverde.bitcoin.server.database.BatchRunner;
+import com.softwareverde.bitcoin.server.database.DatabaseConnection;
+import com.softwareverde.bitcoin.server.database.query.BatchedInsertQuery;
+import com.softwareverde.bitcoin.server.database.query.Query;
+import com.softwareverde.bitcoin.server.database.query.ValueExtractor;
+import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.ScriptPatternMatcher;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScriptCompressor;
+import com.softwareverde.bitcoin.util.Util;
+import com.softwareverde.concurrent.service.GracefulSleepyService;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.database.row.Row;
+import com.softwareverde.database.util.TransactionUtil;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.network.time.VolatileNetworkTime;
+import com.softwareverde.util.timer.MilliTimer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Validates a loaded UTXO snapshot (see UtxoSnapshotManager) in the background.
+ *  Every Block from genesis up to the snapshot's height is fully validated and applied to a separate UTXO set
+ *  (utxo_snapshot_validation_outputs); once the snapshot's height is reached, the rebuilt set's snapshot hash is compared
+ *  against the pinned snapshot hash.  Progress is committed alongside each Block, so validation resumes after a restart.
+ *  Validation waits until the Blocks preceding the snapshot have been downloaded; a failure is logged and recorded as
+ *  the SNAPSHOT_VALIDATION_STATUS_KEY property, but does not stop the node.
+ */
+public class UtxoSnapshotValidator extends GracefulSleepyService {
+    public static final String VALIDATED_BLOCK_HEIGHT_KEY = "utxo_snapshot_validated_block_height";
+    public static final String SNAPSHOT_VALIDATION_STATUS_KEY = "utxo_snapshot_validation_status";
+    public static final String VALID_STATUS = "VALID";
+    public static final String INVALID_STATUS = "INVALID";
+
+    protected static class ValidationUnspentTransactionOutputContext implements UnspentTransactionOutputContext {
+        protected final HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> _unspentTransactionOutputs = new HashMap<TransactionOutputIdentifier, UnspentTransactionOutput>();
+
+        public void put(final TransactionOutputIdentifier transactionOutputIdentifier, final UnspentTransactionOutput unspentTransactionOutput) {
+            _unspentTransactionOutputs.put(transactionOutputIdentifier, unspentTransactionOutput);
+        }
+
+        @Override
+        public TransactionOutput getTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) {
+            return _unspentTransactionOutputs.get(transactionOutputIdentifier);
+        }
+
+        @Override
+        public Long getBlockHeight(final TransactionOutputIdentifier transactionOutputIdentifier) {
+            final UnspentTransactionOutput unspentTransactionOutput = _unspentTransactionOutputs.get(transactionOutputIdentifier);
+            if (unspentTransactionOutput == null) { return null; }
+            return unspentTransactionOutput.getBlockHeight();
+        }
+
+        @Override
+        public Sha256Hash getBlockHash(final TransactionOutputIdentifier transactionOutputIdentifier) {
+            return null; // The originating Block's hash is not stored within the validation set, and is not required for Block validation.
+        }
+
+        @Override
+        public Boolean isCoinbaseTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) {
+            final UnspentTransactionOutput unspentTransactionOutput = _unspentTransactionOutputs.get(transactionOutputIdentifier);
+            if (unspentTransactionOutput == null) { return null; }
+            return unspentTransactionOutput.isCoinbase();
+        }
+    }
+
+    protected static final OutputStream DISCARDING_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(final int b) { }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) { }
+    };
+
+    protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
+    protected final TransactionInflaters _transactionInflaters;
+    protected final TransactionValidatorFactory _transactionValidatorFactory;
+    protected final VolatileNetworkTime _networkTime;
+    protected final LockingScriptCompressor _lockingScriptCompressor = new LockingScriptCompressor();
+    protected final ScriptPatternMatcher _scriptPatternMatcher = new ScriptPatternMatcher();
+
+    protected Integer _maxThreadCount = 4;
+
+    protected UnspentTransactionOutput _inflateUnspentTransactionOutput(final Row row) {
+        final Integer outputIndex = row.getInteger("index");
+        final LockingScript lockingScript = _lockingScriptCompressor.decompress(MutableByteArray.wrap(row.getBytes("locking_script")));
+
+        final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+        transactionOutput.setIndex(outputIndex);
+        transactionOutput.setAmount(row.getLong("amount"));
+        transactionOutput.setLockingScript(lockingScript);
+        return new ImmutableUnspentTransactionOutput(transactionOutput, row.getLong("block_height"), row.getBoolean("is_coinbase"));
+    }
+
+    /**
+     * Loads the outputs spent by the Block from the validation set.
+     *  Outputs created by the Block itself are not loaded; BlockValidator resolves those from the Block.
+     */
+    protected ValidationUnspentTransactionOutputContext _loadSpentOutputs(final FullNodeDatabaseManager databaseManager, final Block block) throws DatabaseException {
+        final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+
+        final MutableList<TransactionOutputIdentifier> spentTransactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>();
+        final List<Transaction> transactions = block.getTransactions();
+        for (int i = 1; i < transactions.getCount(); ++i) {
+            final Transaction transaction = transactions.get(i);
+            for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                spentTransactionOutputIdentifiers.add(TransactionOutputIdentifier.fromTransactionInput(transactionInput));
+            }
+        }
+
+        final java.util.List<Row> rows = new ArrayList<Row>(spentTransactionOutputIdentifiers.getCount());
+        final Integer batchSize = Math.min(512, databaseManager.getMaxQueryBatchSize());
+        final BatchRunner<TransactionOutputIdentifier> batchRunner = new BatchRunner<TransactionOutputIdentifier>(batchSize, false);
+        batchRunner.run(spentTransactionOutputIdentifiers, new BatchRunner.Batch<TransactionOutputIdentifier>() {
+            @Override
+            public void run(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws Exception {
+                rows.addAll(databaseConnection.query(
+                    new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM utxo_snapshot_validation_outputs WHERE (transaction_hash, `index`) IN (?)")
+                        .setExpandedInClauseParameters(transactionOutputIdentifiers, ValueExtractor.TRANSACTION_OUTPUT_IDENTIFIER)
+                ));
+            }
+        });
+
+        final ValidationUnspentTransactionOutputContext unspentTransactionOutputContext = new ValidationUnspentTransactionOutputContext();
+        for (final Row row : rows) {
+            final Sha256Hash transactionHash = Sha256Hash.copyOf(row.getBytes("transaction_hash"));
+            final Integer outputIndex = row.getInteger("index");
+            unspentTransactionOutputContext.put(new TransactionOutputIdentifier(transactionHash, outputIndex), _inflateUnspentTransactionOutput(row));
+        }
+        return unspentTransactionOutputContext;
+    }
+
+    /**
+     * Applies the Block to the validation set in the same manner as UnspentTransactionOutputManager applies Blocks to the UTXO set:
+     *  provably unspendable outputs are excluded, and duplicate (pre-BIP30) coinbase outputs overwrite their predecessors.
+     */
+    protected void _applyBlock(final FullNodeDatabaseManager databaseManager, final Block block, final Long blockHeight) throws DatabaseException {
+        final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+        final Integer maxBatchSize = databaseManager.getMaxQueryBatchSize();
+
+        final MutableList<TransactionOutputIdentifier> spentTransactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>();
+        Query batchedInsertQuery = null;
+        int batchedInsertCount = 0;
+
+        final List<Transaction> transactions = block.getTransactions();
+        for (int i = 0; i < transactions.getCount(); ++i) {
+            final Transaction transaction = transactions.get(i);
+            final Sha256Hash transactionHash = transaction.getHash();
+            final boolean isCoinbase = (i == 0);
+
+            if (! isCoinbase) {
+                for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                    spentTransactionOutputIdentifiers.add(TransactionOutputIdentifier.fromTransactionInput(transactionInput));
+                }
+            }
+
+            int outputIndex = 0;
+            for (final TransactionOutput transactionOutput : transaction.getTransactionOutputs()) {
+                final LockingScript lockingScript = transactionOutput.getLockingScript();
+                if (! _scriptPatternMatcher.isProvablyUnspendable(lockingScript)) {
+                    if (batchedInsertQuery == null) {
+                        batchedInsertQuery = new BatchedInsertQuery("INSERT INTO utxo_snapshot_validation_outputs (transaction_hash, `index`, block_height, is_coinbase, amount, locking_script) VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE block_height = VALUES(block_height), is_coinbase = VALUES(is_coinbase), amount = VALUES(amount), locking_script = VALUES(locking_script)");
+                    }
+
+                    batchedInsertQuery.setParameter(transactionHash);
+                    batchedInsertQuery.setParameter(outputIndex);
+                    batchedInsertQuery.setParameter(blockHeight);
+                    batchedInsertQuery.setParameter(isCoinbase);
+                    batchedInsertQuery.setParameter(transactionOutput.getAmount());
+                    batchedInsertQuery.setParameter(_lockingScriptCompressor.compress(lockingScript));
+                    batchedInsertCount += 1;
+
+                    if (batchedInsertCount >= maxBatchSize) {
+                        databaseConnection.executeSql(batchedInsertQuery);
+                        batchedInsertQuery = null;
+                        batchedInsertCount = 0;
+                    }
+                }
+
+                outputIndex += 1;
+            }
+        }
+
+        if (batchedInsertQuery != null) {
+            databaseConnection.executeSql(batchedInsertQuery);
+        }
+
+        // Outputs are removed after they are inserted so that outputs spent within the same Block are not retained...
+        final Integer batchSize = Math.min(512, maxBatchSize);
+        final BatchRunner<TransactionOutputIdentifier> batchRunner = new BatchRunner<TransactionOutputIdentifier>(batchSize, false);
+        batchRunner.run(spentTransactionOutputIdentifiers, new BatchRunner.Batch<TransactionOutputIdentifier>() {
+            @Override
+            public void run(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws Exception {
+                databaseConnection.executeSql(
+                    new Query("DELETE FROM utxo_snapshot_validation_outputs WHERE (transaction_hash, `index`) IN (?)")
+                        .setExpandedInClauseParameters(transactionOutputIdentifiers, ValueExtractor.TRANSACTION_OUTPUT_IDENTIFIER)
+                );
+            }
+        });
+    }
+
+    /**
+     * Returns the snapshot hash of the validation set, as if it were a snapshot taken at the provided Block.
+     */
+    protected Sha256Hash _calculateSnapshotHash(final FullNodeDatabaseManager databaseManager, final Sha256Hash blockHash, final Long blockHeight) throws DatabaseException, IOException {
+        final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+
+        try (final UtxoSnapshotWriter utxoSnapshotWriter = new UtxoSnapshotWriter(DISCARDING_OUTPUT_STREAM, blockHash, blockHeight)) {
+            Row lastRow = null;
+            while (true) {
+                final java.util.List<Row> rows;
+                if (lastRow == null) {
+                    rows = databaseConnection.query(
+                        new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM utxo_snapshot_validation_outputs ORDER BY transaction_hash ASC, `index` ASC LIMIT " + UtxoSnapshotManager.PAGE_SIZE)
+                    );
+                }
+                else {
+                    final byte[] previousTransactionHash = lastRow.getBytes("transaction_hash");
+                    rows = databaseConnection.query(
+                        new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM utxo_snapshot_validation_outputs WHERE (transaction_hash > ? OR (transaction_hash = ? AND `index` > ?)) ORDER BY transaction_hash ASC, `index` ASC LIMIT " + UtxoSnapshotManager.PAGE_SIZE)
+                            .setParameter(previousTransactionHash)
+                            .setParameter(previousTransactionHash)
+                            .setParameter(lastRow.getInteger("index"))
+                    );
+                }
+                if (rows.isEmpty()) { break; }
+
+                for (final Row row : rows) {
+                    final Sha256Hash transactionHash = Sha256Hash.wrap(row.getBytes("transaction_hash"));
+                    final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, row.getInteger("index"));
+                    utxoSnapshotWriter.append(transactionOutputIdentifier, _inflateUnspentTransactionOutput(row));
+                }
+                lastRow = rows.get(rows.size() - 1);
+            }
+
+            return utxoSnapshotWriter.finish();
+        }
+    }
+
+    protected void _finishValidation(final FullNodeDatabaseManager databaseManager, final Boolean isValid) throws DatabaseException {
+        final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+        UtxoSnapshotManager.setProperty(databaseConnection, SNAPSHOT_VALIDATION_STATUS_KEY, (isValid ? VALID_STATUS : INVALID_STATUS));
+        databaseConnection.executeSql(new Query("DELETE FROM utxo_snapshot_validation_outputs"));
+    }
+
+    @Override
+    protected void _onStart() { }
+
+    @Override
+    protected Boolean _run() {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final FullNodeBlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
+
+            final Long snapshotBlockHeight = UtxoSnapshotManager.getSnapshotBlockHeight(databaseManager);
+            final Sha256Hash snapshotBlockHash = UtxoSnapshotManager.getSnapshotBlockHash(databaseManager);
+            final Sha256Hash snapshotHash = UtxoSnapshotManager.getSnapshotHash(databaseManager);
+            if ( (snapshotBlockHeight < 1L) || (snapshotBlockHash == null) || (snapshotHash == null) ) { return false; }
+
+            final String validationStatus = UtxoSnapshotManager.getProperty(databaseConnection, SNAPSHOT_VALIDATION_STATUS_KEY);
+            if (validationStatus != null) { return false; }
+
+            final Long validatedBlockHeight = Util.coalesce(Util.parseLong(UtxoSnapshotManager.getProperty(databaseConnection, VALIDATED_BLOCK_HEIGHT_KEY)), 0L);
+            if (validatedBlockHeight >= snapshotBlockHeight) {
+                final MilliTimer milliTimer = new MilliTimer();
+                milliTimer.start();
+                final Sha256Hash rebuiltSnapshotHash = _calculateSnapshotHash(databaseManager, snapshotBlockHash, snapshotBlockHeight);
+                milliTimer.stop();
+
+                final boolean isValid = Util.areEqual(snapshotHash, rebuiltSnapshotHash);
+                if (isValid) {
+                    Logger.info("UTXO snapshot " + snapshotHash + " validated at " + snapshotBlockHash + " (" + snapshotBlockHeight + ") in " + milliTimer.getMillisecondsElapsed() + "ms.");
+                }
+                else {
+                    Logger.error("UTXO snapshot is invalid. Pinned hash: " + snapshotHash + " Rebuilt hash: " + rebuiltSnapshotHash);
+                }
+                _finishValidation(databaseManager, isValid);
+                return false;
+            }
+
+            final Long blockHeight = (validatedBlockHeight + 1L); // The genesis Block's outputs are excluded from the UTXO set...
+            final BlockId snapshotBlockId = blockHeaderDatabaseManager.getBlockHeaderId(snapshotBlockHash);
+            if (snapshotBlockId == null) { return false; }
+            final BlockchainSegmentId blockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(snapshotBlockId);
+            final BlockId blockId = blockHeaderDatabaseManager.getBlockIdAtHeight(blockchainSegmentId, blockHeight);
+            if (blockId == null) { return false; }
+
+            final Block block = blockDatabaseManager.getBlock(blockId);
+            if (block == null) { // The Block has not been downloaded yet...
+                Logger.debug("UtxoSnapshotValidator waiting for Block at height: " + blockHeight);
+                return false;
+            }
+
+            TransactionUtil.startTransaction(databaseConnection);
+            try {
+                final ValidationUnspentTransactionOutputContext unspentTransactionOutputContext = _loadSpentOutputs(databaseManager, block);
+
+                final BlockValidationResult blockValidationResult;
+                {
+                    final BlockchainSegmentId blockBlockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(blockId);
+                    final LazyBlockValidatorContext blockValidatorContext = new LazyBlockValidatorContext(_transactionInflaters, blockBlockchainSegmentId, unspentTransactionOutputContext, _transactionValidatorFactory, databaseManager, _networkTime);
+                    blockValidatorContext.loadBlock(blockHeight, blockId, block);
+
+                    final BlockValidator blockValidator = new BlockValidator(blockValidatorContext);
+                    blockValidator.setMaxThreadCount(_maxThreadCount);
+                    blockValidator.setShouldLogValidBlocks(false);
+                    blockValidationResult = blockValidator.validateBlockTransactions(block, blockHeight);
+                }
+
+                if (! blockValidationResult.isValid) {
+                    TransactionUtil.rollbackTransaction(databaseConnection);
+                    Logger.error("UTXO snapshot is invalid. Block " + block.getHash() + " (" + blockHeight + ") failed validation: " + blockValidationResult.errorMessage);
+                    _finishValidation(databaseManager, false);
+                    return false;
+                }
+
+                _applyBlock(databaseManager, block, blockHeight);
+                UtxoSnapshotManager.setProperty(databaseConnection, VALIDATED_BLOCK_HEIGHT_KEY, blockHeight);
+                TransactionUtil.commitTransaction(databaseConnection);
+            }
+            catch (final Exception exception) {
+                TransactionUtil.rollbackTransaction(databaseConnection);
+                throw exception;
+            }
+
+            Logger.debug("UtxoSnapshotValidator validated Block " + block.getHash() + " (" + blockHeight + " of " + snapshotBlockHeight + ").");
+            return true;
+        }
+        catch (final Exception exception) {
+            Logger.warn("Unable to validate UTXO snapshot.", exception);
+            return false;
+        }
+    }
+
+    @Override
+    protected void _onSleep() { }
+
+    public UtxoSnapshotValidator(final FullNodeDatabaseManagerFactory databaseManagerFactory, final TransactionInflaters transactionInflaters, final TransactionValidatorFactory transactionValidatorFactory, final VolatileNetworkTime networkTime) {
+        _databaseManagerFactory = databaseManagerFactory;
+        _transactionInflaters = transactionInflaters;
+        _transactionValidatorFactory = transactionValidatorFactory;
+        _networkTime = networkTime;
+    }
+
+    public void setMaxThreadCount(final Integer maxThreadCount) {
+        _maxThreadCount = maxThreadCount;
+    }
+}
@@ -0,0 +1,120 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot;
+
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScriptCompressor;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams a UTXO snapshot (see UtxoSnapshot) to an OutputStream.
+ *  UTXOs must be appended in snapshot order (see UtxoSnapshot::compare); appending out of order fails so that the produced
+ *  snapshot is always deterministic.
+ */
+public class UtxoSnapshotWriter implements AutoCloseable {
+    protected final DataOutputStream _outputStream;
+    protected final Sha256Hash _blockHash;
+    protected final Long _blockHeight;
+    protected final Integer _chunkUtxoCount;
+    protected final LockingScriptCompressor _lockingScriptCompressor = new LockingScriptCompressor();
+    protected final MutableList<Sha256Hash> _chunkHashes = new MutableList<Sha256Hash>();
+
+    protected ByteArrayBuilder _chunkBytes = new ByteArrayBuilder();
+    protected Integer _chunkItemCount = 0;
+    protected Long _utxoCount = 0L;
+    protected Long _byteCount = 0L;
+    protected TransactionOutputIdentifier _previousTransactionOutputIdentifier = null;
+    protected Sha256Hash _snapshotHash = null;
+
+    protected void _writeChunk() throws IOException {
+        if (_chunkItemCount == 0) { return; }
+
+        final ByteArray chunkBytes = MutableByteArray.wrap(_chunkBytes.build());
+        _outputStream.writeInt(_chunkItemCount);
+        _outputStream.writeInt(chunkBytes.getByteCount());
+        _outputStream.write(chunkBytes.getBytes());
+        _byteCount += (4L + 4L + chunkBytes.getByteCount());
+
+        _chunkHashes.add(UtxoSnapshot.calculateChunkHash(chunkBytes));
+
+        _chunkBytes = new ByteArrayBuilder();
+        _chunkItemCount = 0;
+    }
+
+    public UtxoSnapshotWriter(final OutputStream outputStream, final Sha256Hash blockHash, final Long blockHeight) throws IOException {
+        this(outputStream, blockHash, blockHeight, UtxoSnapshot.DEFAULT_CHUNK_UTXO_COUNT);
+    }
+
+    public UtxoSnapshotWriter(final OutputStream outputStream, final Sha256Hash blockHash, final Long blockHeight, final Integer chunkUtxoCount) throws IOException {
+        _outputStream = new DataOutputStream(new BufferedOutputStream(outputStream));
+        _blockHash = blockHash.asConst();
+        _blockHeight = blockHeight;
+        _chunkUtxoCount = chunkUtxoCount;
+
+        _outputStream.writeInt(UtxoSnapshot.MAGIC);
+        _outputStream.writeInt(UtxoSnapshot.VERSION);
+        _outputStream.write(_blockHash.getBytes());
+        _outputStream.writeLong(_blockHeight);
+        _byteCount += UtxoSnapshot.HEADER_BYTE_COUNT;
+    }
+
+    public void append(final TransactionOutputIdentifier transactionOutputIdentifier, final UnspentTransactionOutput unspentTransactionOutput) throws IOException {
+        if (_snapshotHash != null) { throw new IOException("Snapshot has already been finished."); }
+
+        if (_previousTransactionOutputIdentifier != null) {
+            if (UtxoSnapshot.compare(_previousTransactionOutputIdentifier, transactionOutputIdentifier) >= 0) {
+                throw new IOException("UTXO appended out of order: " + transactionOutputIdentifier);
+            }
+        }
+        _previousTransactionOutputIdentifier = transactionOutputIdentifier;
+
+        _chunkBytes.appendBytes(UtxoSnapshot.serializeEntry(transactionOutputIdentifier, unspentTransactionOutput, _lockingScriptCompressor));
+        _chunkItemCount += 1;
+        _utxoCount += 1L;
+
+        if (_chunkItemCount >= _chunkUtxoCount) {
+            _writeChunk();
+        }
+    }
+
+    /**
+     * Writes the final chunk and the trailer, and returns the snapshot hash.
+     */
+    public Sha256Hash finish() throws IOException {
+        if (_snapshotHash != null) { return _snapshotHash; }
+
+        _writeChunk();
+
+        final Sha256Hash snapshotHash = UtxoSnapshot.calculateSnapshotHash(_blockHash, _blockHeight, _utxoCount, _chunkHashes);
+
+        final long trailerOffset = _byteCount;
+        _outputStream.writeLong(_utxoCount);
+        _outputStream.writeInt(_chunkHashes.getCount());
+        for (final Sha256Hash chunkHash : _chunkHashes) {
+            _outputStream.write(chunkHash.getBytes());
+        }
+        _outputStream.write(snapshotHash.getBytes());
+        _outputStream.writeLong(trailerOffset);
+        _outputStream.flush();
+
+        _snapshotHash = snapshotHash;
+        return snapshotHash;
+    }
+
+    public Long getUtxoCount() {
+        return _utxoCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        _outputStream.close();
+    }
+}
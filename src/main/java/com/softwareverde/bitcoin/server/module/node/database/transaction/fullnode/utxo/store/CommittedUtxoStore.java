@@ -0,0 +1,39 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.store;
+
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoKey;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoMap;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoValue;
+import com.softwareverde.database.DatabaseException;
+
+/**
+ * A storage engine for the committed (on-disk) UTXO set, used by UnspentTransactionOutputJvmManager in place of the
+ *  committed_unspent_transaction_outputs table.  Implementations must be thread-safe.
+ */
+public interface CommittedUtxoStore extends AutoCloseable {
+    /**
+     * Returns the block height of the UTXO set most recently committed via ::commit, or zero if the set is empty.
+     */
+    Long getCommittedBlockHeight();
+
+    /**
+     * Returns the committed UTXO, or null if the UTXO is not within the committed set.
+     *  The returned value may not contain its coin, in which case it must be loaded from its Transaction.
+     */
+    UtxoValue get(UtxoKey utxoKey) throws DatabaseException;
+
+    /**
+     * Atomically applies the entries of utxoMap to the committed set and records blockHeight as the committed block height.
+     *  Spent entries are removed from the set; unspent entries are inserted, although an entry without its coin never replaces a committed coin.
+     */
+    void commit(UtxoMap utxoMap, Long blockHeight) throws DatabaseException;
+
+    /**
+     * Removes every UTXO from the committed set and resets the committed block height to zero.
+     */
+    void clear() throws DatabaseException;
+
+    Long getUtxoCount();
+
+    @Override
+    void close() throws DatabaseException;
+}
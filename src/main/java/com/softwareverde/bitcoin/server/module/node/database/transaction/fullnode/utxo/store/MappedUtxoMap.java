@@ -0,0 +1,232 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.store;
+
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoMap;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A UtxoMap whose slots are memory-mapped from a table file instead of being allocated off-heap.
+ *  Growing (or clearing) the map creates a new table file with the next generation number; the previous file is left in place
+ *  so that the caller may atomically switch generations (see MappedUtxoStore) and then delete it.
+ *  Table files are always little-endian so that they remain valid regardless of the platform's native byte order.
+ *  Mappings are explicitly unmapped once they are replaced (or the map is closed) rather than left to the garbage collector,
+ *  so that the previous generation's file may be deleted and its pages released immediately; the caller must therefore
+ *  ensure the map is not read concurrently with a resize, clear, or close (see MappedUtxoStore).
+ */
+public class MappedUtxoMap extends UtxoMap {
+    protected static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public static File getTableFile(final File directory, final long generation) {
+        return new File(directory, "utxo-" + generation + ".dat");
+    }
+
+    /**
+     * Unmaps the MappedByteBuffer.  The buffer must not be accessed afterwards.
+     *  If the JVM does not expose a means of unmapping, the mapping is left to be released by the garbage collector.
+     */
+    protected static void _unmap(final ByteBuffer byteBuffer) {
+        if (! (byteBuffer instanceof MappedByteBuffer)) { return; }
+
+        try {
+            try { // Java 9+...
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Method invokeCleanerMethod = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                final Field theUnsafeField = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafeField.setAccessible(true);
+                invokeCleanerMethod.invoke(theUnsafeField.get(null), byteBuffer);
+            }
+            catch (final NoSuchMethodException exception) { // Java 8...
+                final Method cleanerMethod = byteBuffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(byteBuffer);
+                if (cleaner != null) {
+                    final Method cleanMethod = cleaner.getClass().getMethod("clean");
+                    cleanMethod.setAccessible(true);
+                    cleanMethod.invoke(cleaner);
+                }
+            }
+        }
+        catch (final Exception exception) {
+            Logger.debug("Unable to unmap UTXO table segment.", exception);
+        }
+    }
+
+    protected static ByteBuffer[] _mapSegments(final File file, final long capacity) throws IOException {
+        final int segmentCount = (int) ((capacity + SLOTS_PER_SEGMENT - 1L) / SLOTS_PER_SEGMENT);
+        final ByteBuffer[] segments = new ByteBuffer[segmentCount];
+
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            final long byteCount = (capacity * SLOT_BYTE_COUNT);
+            if (randomAccessFile.length() != byteCount) {
+                randomAccessFile.setLength(byteCount); // Newly extended regions are zero-filled, which denotes an empty slot.
+            }
+
+            final FileChannel fileChannel = randomAccessFile.getChannel();
+            long remainingSlotCount = capacity;
+            long offset = 0L;
+            for (int i = 0; i < segmentCount; ++i) {
+                final int slotCount = (int) Math.min(remainingSlotCount, SLOTS_PER_SEGMENT);
+                final int segmentByteCount = (slotCount * SLOT_BYTE_COUNT);
+                segments[i] = fileChannel.map(FileChannel.MapMode.READ_WRITE, offset, segmentByteCount).order(BYTE_ORDER); // The mapping remains valid after the channel is closed.
+                remainingSlotCount -= slotCount;
+                offset += segmentByteCount;
+            }
+        }
+
+        return segments;
+    }
+
+    protected final File _directory;
+    protected long _generation;
+
+    @Override
+    protected ByteBuffer[] _allocateSegments(final long capacity) {
+        final long generation = (_generation + 1L);
+        final File file = MappedUtxoMap.getTableFile(_directory, generation);
+        if (file.exists() && (! file.delete())) { // A stale file from an interrupted resize.
+            throw new RuntimeException("Unable to delete stale UTXO table: " + file.getAbsolutePath());
+        }
+
+        try {
+            final ByteBuffer[] segments = _mapSegments(file, capacity);
+            _generation = generation;
+            return segments;
+        }
+        catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    protected void _releaseSegments(final ByteBuffer[] segments) {
+        for (final ByteBuffer segment : segments) {
+            _unmap(segment);
+        }
+    }
+
+    /**
+     * Maps the table file of the provided generation.
+     *  If size is null then the number of occupied slots is counted, which is required if the table was modified after size was recorded.
+     */
+    public MappedUtxoMap(final File directory, final long hashSalt, final long generation, final long capacity, final Long size) throws IOException {
+        super(hashSalt, _mapSegments(MappedUtxoMap.getTableFile(directory, generation), capacity), capacity, (size != null ? size : 0L));
+        _directory = directory;
+        _generation = generation;
+
+        if (size == null) {
+            _size = _countOccupiedSlots();
+        }
+    }
+
+    protected long _countOccupiedSlots() {
+        long size = 0L;
+        for (long i = 0L; i < _capacity; ++i) {
+            if (_isOccupied(_getPackedValue(i))) {
+                size += 1L;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Grows the table, if necessary, so that additionalCount entries may be inserted without resizing.
+     */
+    public void ensureCapacity(final long additionalCount) {
+        final long requiredSize = (_size + additionalCount);
+        if (requiredSize <= _maxSize) { return; }
+
+        final long newCapacity = Math.max((long) (_capacity * GROWTH_FACTOR), ((long) (requiredSize / MAX_LOAD_FACTOR) + 1L));
+        _resize(newCapacity);
+    }
+
+    /**
+     * Re-inserts every occupied slot into a new generation of the same capacity, and recounts the table's size.
+     *  Restores a table whose backward-shift deletion was interrupted: entries left beyond a gap in their probe-cluster become
+     *  reachable again, and an entry copied into its new slot before its previous slot was emptied is retained only once.
+     */
+    public void rebuild() {
+        final ByteBuffer[] oldSegments = _segments;
+        final long capacity = _capacity;
+
+        _initialize(capacity);
+
+        long size = 0L;
+        for (int i = 0; i < oldSegments.length; ++i) {
+            final ByteBuffer oldSegment = oldSegments[i];
+            final long slotCount = Math.min(SLOTS_PER_SEGMENT, (capacity - (((long) i) * SLOTS_PER_SEGMENT)));
+            for (int j = 0; j < slotCount; ++j) {
+                final int offset = (j * SLOT_BYTE_COUNT);
+                final int packedValue = oldSegment.getInt(offset + PACKED_VALUE_OFFSET);
+                if (! _isOccupied(packedValue)) { continue; }
+
+                final byte[] transactionHash = new byte[Sha256Hash.BYTE_COUNT];
+                for (int k = 0; k < Sha256Hash.BYTE_COUNT; ++k) {
+                    transactionHash[k] = oldSegment.get(offset + k);
+                }
+                final int outputIndex = oldSegment.getInt(offset + OUTPUT_INDEX_OFFSET);
+
+                boolean isDuplicate = false;
+                long slotIndex = _getHomeSlotIndex(_readHashPrefix(transactionHash), outputIndex);
+                while (_isOccupied(_getPackedValue(slotIndex))) {
+                    if (_keyEquals(slotIndex, transactionHash, outputIndex)) {
+                        isDuplicate = true;
+                        break;
+                    }
+                    slotIndex = _nextSlotIndex(slotIndex);
+                }
+                if (isDuplicate) { continue; }
+
+                _copySlot(oldSegment, offset, _getSegment(slotIndex), _getSegmentOffset(slotIndex));
+                size += 1L;
+            }
+        }
+        _size = size;
+
+        _releaseSegments(oldSegments);
+    }
+
+    /**
+     * Writes any modified pages of the table to disk.
+     */
+    public void force() {
+        for (final ByteBuffer segment : _segments) {
+            ((MappedByteBuffer) segment).force();
+        }
+    }
+
+    /**
+     * Unmaps the table.  The map must not be used afterwards.
+     */
+    public void close() {
+        final ByteBuffer[] segments = _segments;
+        _segments = new ByteBuffer[0];
+        _capacity = 0L;
+        _releaseSegments(segments);
+    }
+
+    public long getGeneration() {
+        return _generation;
+    }
+
+    public long getCapacity() {
+        return _capacity;
+    }
+
+    public long getHashSalt() {
+        return _hashSalt;
+    }
+
+    public long getSize() {
+        return _size;
+    }
+}
@@ -0,0 +1,479 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.store;
+
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.JvmSpentState;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoKey;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoMap;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoValue;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.timer.MilliTimer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * An embedded, pure-Java CommittedUtxoStore backed by a memory-mapped hash table (see MappedUtxoMap).
+ *  The store's directory contains:
+ *      utxo.manifest   - the table's generation, capacity, size, and hash salt, the committed block height, whether a commit
+ *                        is being applied to the table, and the operating system's boot id; replaced atomically.
+ *      utxo-<n>.dat    - the table file of generation n; only the manifest's generation is valid.
+ *      utxo.journal    - the changes of an in-progress commit.
+ *  A commit first writes and syncs its changes to the journal, then marks the manifest as applying, applies the changes to the
+ *  table, syncs the table, and finally replaces the manifest and deletes the journal.  If the process stops before the manifest
+ *  is marked then an incomplete journal is discarded, and a complete journal is applied when the store is next opened, leaving
+ *  the table either at the previous or the journaled commit.
+ *  The table is modified in place, so if the process stops while a commit is being applied then the table contains only part of
+ *  the journal's changes, and backward-shift deletion may have left an entry in two slots or beyond a gap in its probe-cluster.
+ *  Since the journal is only deleted once the applied table is synced, the table is rebuilt into a new generation (see
+ *  MappedUtxoMap::rebuild) and the journal is applied again when the store is next opened; its changes are idempotent.
+ *  This relies upon every write to the mapped table having reached the operating system's page cache, which only holds if the
+ *  operating system has not restarted since the commit began (i.e. the process was killed, rather than the machine losing power),
+ *  so the boot id recorded within the manifest is compared to the current boot id.  If the operating system restarted (or its boot
+ *  id is unavailable) then the table may have lost some of its modified pages and cannot be trusted; it is instead cleared, which
+ *  causes the UTXO set to be rebuilt from the stored Blocks.
+ *  Growing, rebuilding, or clearing the table writes a new generation, so the previous generation remains valid until the manifest is replaced.
+ */
+public class MappedUtxoStore implements CommittedUtxoStore {
+    protected static final String MANIFEST_FILE_NAME = "utxo.manifest";
+    protected static final String JOURNAL_FILE_NAME = "utxo.journal";
+    protected static final int MANIFEST_MAGIC = 0x5554584D; // "UTXM"
+    protected static final int JOURNAL_MAGIC = 0x5554584A; // "UTXJ"
+    protected static final int VERSION = 3; // Version 1 manifests do not record whether a commit is being applied; version 2 manifests do not record the boot id.
+    protected static final File BOOT_ID_FILE = new File("/proc/sys/kernel/random/boot_id");
+    protected static final long INITIAL_CAPACITY = (1L << 20);
+
+    protected static final int IS_SPENT_FLAG = 0x01;
+    protected static final int IS_COINBASE_FLAG = 0x02;
+    protected static final int HAS_COIN_FLAG = 0x04;
+
+    protected static class JournalEntry {
+        public UtxoKey utxoKey;
+        public boolean isSpent;
+        public long blockHeight;
+        public boolean isCoinbase;
+        public long amount;
+        public byte[] compressedLockingScript;
+    }
+
+    protected final File _directory;
+    protected final File _manifestFile;
+    protected final File _journalFile;
+    protected final ReentrantReadWriteLock.ReadLock _readLock;
+    protected final ReentrantReadWriteLock.WriteLock _writeLock;
+    protected final int _unspentStateCode;
+
+    protected MappedUtxoMap _table;
+    protected Long _committedBlockHeight;
+    protected Boolean _isApplyingCommit = false;
+    protected String _bootId = MappedUtxoStore._readBootId();
+    protected String _manifestBootId = "";
+
+    /**
+     * Returns the identifier of the operating system's current boot, or an empty string if it is unavailable.
+     */
+    protected static String _readBootId() {
+        if (! BOOT_ID_FILE.isFile()) { return ""; }
+
+        try {
+            return new String(Files.readAllBytes(BOOT_ID_FILE.toPath()), StandardCharsets.UTF_8).trim();
+        }
+        catch (final IOException exception) {
+            Logger.debug("Unable to read boot id.", exception);
+            return "";
+        }
+    }
+
+    protected static void _sync(final FileOutputStream fileOutputStream) throws IOException {
+        fileOutputStream.flush();
+        fileOutputStream.getChannel().force(true);
+    }
+
+    protected static void _writeEntry(final DataOutputStream outputStream, final UtxoKey utxoKey, final boolean isSpent, final UtxoValue utxoValue) throws IOException {
+        outputStream.write(utxoKey.transactionHash);
+        outputStream.writeInt(utxoKey.outputIndex);
+
+        final boolean hasCoin = ( (! isSpent) && utxoValue.hasCoin() );
+        final int flags = ( (isSpent ? IS_SPENT_FLAG : 0x00) | ((hasCoin && utxoValue.isCoinbase) ? IS_COINBASE_FLAG : 0x00) | (hasCoin ? HAS_COIN_FLAG : 0x00) );
+        outputStream.writeByte(flags);
+        outputStream.writeLong(utxoValue.blockHeight);
+        if (hasCoin) {
+            outputStream.writeLong(utxoValue.amount);
+            outputStream.writeShort(utxoValue.compressedLockingScript.length);
+            outputStream.write(utxoValue.compressedLockingScript);
+        }
+    }
+
+    protected void _writeManifest() throws IOException {
+        final File temporaryFile = new File(_directory, MANIFEST_FILE_NAME + ".tmp");
+        try (final FileOutputStream fileOutputStream = new FileOutputStream(temporaryFile)) {
+            final CRC32 crc = new CRC32();
+            final DataOutputStream outputStream = new DataOutputStream(new CheckedOutputStream(fileOutputStream, crc));
+            outputStream.writeInt(MANIFEST_MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeLong(_table.getHashSalt());
+            outputStream.writeLong(_table.getGeneration());
+            outputStream.writeLong(_table.getCapacity());
+            outputStream.writeLong(_table.getSize());
+            outputStream.writeLong(_committedBlockHeight);
+            outputStream.writeBoolean(_isApplyingCommit);
+            outputStream.writeUTF(_bootId);
+            outputStream.flush();
+            new DataOutputStream(fileOutputStream).writeLong(crc.getValue());
+            _sync(fileOutputStream);
+        }
+        Files.move(temporaryFile.toPath(), _manifestFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    protected void _readManifest() throws IOException {
+        try (final DataInputStream fileInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(_manifestFile)))) {
+            final CRC32 crc = new CRC32();
+            final DataInputStream inputStream = new DataInputStream(new CheckedInputStream(fileInputStream, crc));
+            final int magic = inputStream.readInt();
+            final int version = inputStream.readInt();
+            if ( (magic != MANIFEST_MAGIC) || (version < 1) || (version > VERSION) ) { throw new IOException("Unsupported UTXO store manifest."); }
+
+            final long hashSalt = inputStream.readLong();
+            final long generation = inputStream.readLong();
+            final long capacity = inputStream.readLong();
+            final long size = inputStream.readLong();
+            final long committedBlockHeight = inputStream.readLong();
+            final boolean isApplyingCommit = ((version > 1) && inputStream.readBoolean());
+            final String bootId = ((version > 2) ? inputStream.readUTF() : "");
+            final long expectedCrc = crc.getValue();
+            if (fileInputStream.readLong() != expectedCrc) { throw new IOException("Corrupted UTXO store manifest."); }
+
+            final Long tableSize = ((version > 1) ? size : null); // Version 1 tables may have been modified by an interrupted commit, so their size is recounted.
+            _table = new MappedUtxoMap(_directory, hashSalt, generation, capacity, tableSize);
+            _committedBlockHeight = committedBlockHeight;
+            _isApplyingCommit = isApplyingCommit;
+            _manifestBootId = bootId;
+        }
+    }
+
+    /**
+     * Returns true if the journal is complete, i.e. it was entirely written and synced before the process stopped.
+     */
+    protected boolean _isJournalComplete() {
+        try (final DataInputStream fileInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(_journalFile)))) {
+            final CRC32 crc = new CRC32();
+            final DataInputStream inputStream = new DataInputStream(new CheckedInputStream(fileInputStream, crc));
+            if (inputStream.readInt() != JOURNAL_MAGIC) { return false; }
+            inputStream.readLong(); // Block height.
+            final long entryCount = inputStream.readLong();
+            for (long i = 0L; i < entryCount; ++i) {
+                _readEntry(inputStream);
+            }
+            final long expectedCrc = crc.getValue();
+            return (fileInputStream.readLong() == expectedCrc);
+        }
+        catch (final IOException exception) { // Includes EOFException for truncated journals.
+            return false;
+        }
+    }
+
+    protected static JournalEntry _readEntry(final DataInputStream inputStream) throws IOException {
+        final byte[] transactionHash = new byte[Sha256Hash.BYTE_COUNT];
+        inputStream.readFully(transactionHash);
+        final int outputIndex = inputStream.readInt();
+        final int flags = inputStream.readUnsignedByte();
+        final long blockHeight = inputStream.readLong();
+
+        final JournalEntry journalEntry = new JournalEntry();
+        journalEntry.utxoKey = new UtxoKey(transactionHash, outputIndex);
+        journalEntry.isSpent = ((flags & IS_SPENT_FLAG) != 0x00);
+        journalEntry.blockHeight = blockHeight;
+        if ((flags & HAS_COIN_FLAG) != 0x00) {
+            journalEntry.isCoinbase = ((flags & IS_COINBASE_FLAG) != 0x00);
+            journalEntry.amount = inputStream.readLong();
+            final int lockingScriptByteCount = inputStream.readUnsignedShort();
+            journalEntry.compressedLockingScript = new byte[lockingScriptByteCount];
+            inputStream.readFully(journalEntry.compressedLockingScript);
+        }
+        return journalEntry;
+    }
+
+    /**
+     * Writes and syncs the journal for the provided changes.
+     */
+    protected void _writeJournal(final UtxoMap utxoMap, final Long blockHeight) throws IOException {
+        try (final FileOutputStream fileOutputStream = new FileOutputStream(_journalFile)) {
+            final CRC32 crc = new CRC32();
+            final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fileOutputStream, crc), (1024 * 1024)));
+            outputStream.writeInt(JOURNAL_MAGIC);
+            outputStream.writeLong(blockHeight);
+            outputStream.writeLong(utxoMap.size());
+
+            final JvmSpentState transientSpentState = new JvmSpentState(); // Re-initialize the same instance instead of creating many objects.
+            final UtxoMap.Cursor cursor = utxoMap.iterate();
+            while (cursor.next()) {
+                final UtxoValue utxoValue = cursor.getValue();
+                transientSpentState.initialize(utxoValue.spentStateCode);
+                _writeEntry(outputStream, cursor.getKey(), transientSpentState.isSpent(), utxoValue);
+            }
+            outputStream.flush();
+
+            new DataOutputStream(fileOutputStream).writeLong(crc.getValue());
+            _sync(fileOutputStream);
+        }
+    }
+
+    /**
+     * Applies the (complete) journal to the table and returns its block height.  Must be invoked while holding the write lock.
+     */
+    protected long _applyJournal() throws IOException {
+        try (final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(_journalFile), (1024 * 1024)))) {
+            if (inputStream.readInt() != JOURNAL_MAGIC) { throw new IOException("Invalid UTXO store journal."); }
+            final long blockHeight = inputStream.readLong();
+            final long entryCount = inputStream.readLong();
+
+            final long generation = _table.getGeneration();
+            _table.ensureCapacity(entryCount);
+            if (_table.getGeneration() != generation) {
+                _table.force();
+                _writeManifest(); // Switch to the grown table before modifying it; the previous generation is deleted by ::_deleteStaleTables.
+            }
+
+            for (long i = 0L; i < entryCount; ++i) {
+                final JournalEntry journalEntry = _readEntry(inputStream);
+                if (journalEntry.isSpent) {
+                    _table.remove(journalEntry.utxoKey);
+                    continue;
+                }
+
+                final boolean hasCoin = (journalEntry.compressedLockingScript != null);
+                if (! hasCoin) { // A re-inserted UTXO without its coin never replaces the committed coin.
+                    final UtxoValue existingUtxoValue = _table.get(journalEntry.utxoKey);
+                    if ( (existingUtxoValue != null) && existingUtxoValue.hasCoin() ) { continue; }
+                }
+                _table.put(journalEntry.utxoKey, new UtxoValue(_unspentStateCode, journalEntry.blockHeight, journalEntry.isCoinbase, journalEntry.amount, journalEntry.compressedLockingScript));
+            }
+
+            return blockHeight;
+        }
+    }
+
+    protected void _deleteStaleTables() {
+        final long generation = _table.getGeneration();
+        final File[] files = _directory.listFiles();
+        if (files == null) { return; }
+
+        final String currentFileName = MappedUtxoMap.getTableFile(_directory, generation).getName();
+        for (final File file : files) {
+            final String fileName = file.getName();
+            if ( fileName.startsWith("utxo-") && fileName.endsWith(".dat") && (! fileName.equals(currentFileName)) ) {
+                if (! file.delete()) {
+                    Logger.debug("Unable to delete stale UTXO table: " + file.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the journal and then replaces the manifest.  Must be invoked while holding the write lock.
+     */
+    protected void _applyCommit() throws IOException {
+        _isApplyingCommit = true;
+        _writeManifest(); // Marks the table as untrusted until the applied changes are synced...
+
+        final long blockHeight = _applyJournal();
+        _table.force();
+
+        _committedBlockHeight = blockHeight;
+        _isApplyingCommit = false;
+        _writeManifest();
+    }
+
+    protected void _recoverJournal() throws IOException {
+        final boolean isSameBoot = ( (! _bootId.isEmpty()) && _bootId.equals(_manifestBootId) );
+        if ( _isApplyingCommit && isSameBoot && _journalFile.exists() && _isJournalComplete() ) { // The table retains every write of the interrupted commit, so the journal is applied again...
+            Logger.info("UTXO store was interrupted while applying a commit; rebuilding the table and replaying the journal.");
+            _table.rebuild();
+            _table.force();
+            _writeManifest(); // Switch to the rebuilt table (still marked as applying) before replaying; the previous generation is deleted by ::_deleteStaleTables.
+            _applyCommit();
+        }
+        else if (_isApplyingCommit) { // The table may have lost pages modified by the interrupted commit, so it is discarded...
+            Logger.warn("UTXO store was interrupted while applying a commit and its table cannot be trusted; the UTXO set will be rebuilt.");
+            _table.clear();
+            _table.force();
+            _committedBlockHeight = 0L;
+            _isApplyingCommit = false;
+            _writeManifest();
+        }
+        else if (! _journalFile.exists()) {
+            return;
+        }
+        else if (! _isJournalComplete()) {
+            Logger.info("Discarding incomplete UTXO store journal.");
+        }
+        else {
+            Logger.info("Recovering UTXO store from journal.");
+            _applyCommit(); // The table was not modified since the manifest was written, so the journal is applied to the committed table.
+        }
+
+        if (_journalFile.exists() && (! _journalFile.delete())) {
+            throw new IOException("Unable to delete UTXO store journal: " + _journalFile.getAbsolutePath());
+        }
+    }
+
+    public MappedUtxoStore(final File directory) throws DatabaseException {
+        _directory = directory;
+        _manifestFile = new File(directory, MANIFEST_FILE_NAME);
+        _journalFile = new File(directory, JOURNAL_FILE_NAME);
+
+        final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+        _readLock = readWriteLock.readLock();
+        _writeLock = readWriteLock.writeLock();
+
+        final JvmSpentState unspentState = new JvmSpentState();
+        unspentState.setIsSpent(false);
+        unspentState.setIsFlushedToDisk(true);
+        unspentState.setIsFlushMandatory(false);
+        _unspentStateCode = unspentState.intValue();
+
+        try {
+            if ( (! directory.isDirectory()) && (! directory.mkdirs()) ) {
+                throw new IOException("Unable to create UTXO store directory: " + directory.getAbsolutePath());
+            }
+
+            if (_manifestFile.exists()) {
+                _readManifest();
+            }
+            else {
+                final SecureRandom secureRandom = new SecureRandom();
+                final File tableFile = MappedUtxoMap.getTableFile(directory, 0L);
+                if (tableFile.exists() && (! tableFile.delete())) {
+                    throw new IOException("Unable to delete stale UTXO table: " + tableFile.getAbsolutePath());
+                }
+
+                _table = new MappedUtxoMap(directory, secureRandom.nextLong(), 0L, INITIAL_CAPACITY, 0L);
+                _committedBlockHeight = 0L;
+                _writeManifest();
+            }
+
+            _recoverJournal();
+            _deleteStaleTables();
+        }
+        catch (final IOException exception) {
+            throw new DatabaseException(exception);
+        }
+
+        Logger.info("Opened UTXO store: " + _table.getSize() + " UTXOs at block height " + _committedBlockHeight + ".");
+    }
+
+    @Override
+    public Long getCommittedBlockHeight() {
+        _readLock.lock();
+        try {
+            return _committedBlockHeight;
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    @Override
+    public UtxoValue get(final UtxoKey utxoKey) {
+        _readLock.lock();
+        try {
+            return _table.get(utxoKey);
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    @Override
+    public void commit(final UtxoMap utxoMap, final Long blockHeight) throws DatabaseException {
+        final MilliTimer journalTimer = new MilliTimer();
+        final MilliTimer applyTimer = new MilliTimer();
+
+        _writeLock.lock();
+        try {
+            journalTimer.start();
+            _writeJournal(utxoMap, blockHeight);
+            journalTimer.stop();
+
+            applyTimer.start();
+            _applyCommit();
+            applyTimer.stop();
+
+            if (! _journalFile.delete()) {
+                throw new IOException("Unable to delete UTXO store journal: " + _journalFile.getAbsolutePath());
+            }
+            _deleteStaleTables();
+        }
+        catch (final Exception exception) {
+            throw new DatabaseException(exception);
+        }
+        finally {
+            _writeLock.unlock();
+        }
+
+        Logger.debug("Committed " + utxoMap.size() + " UTXOs to UTXO store at block height " + blockHeight + "; journal=" + journalTimer.getMillisecondsElapsed() + "ms, apply=" + applyTimer.getMillisecondsElapsed() + "ms.");
+    }
+
+    @Override
+    public void clear() throws DatabaseException {
+        _writeLock.lock();
+        try {
+            _table.clear();
+            _table.force();
+            _committedBlockHeight = 0L;
+            _writeManifest();
+
+            if (_journalFile.exists() && (! _journalFile.delete())) {
+                throw new IOException("Unable to delete UTXO store journal: " + _journalFile.getAbsolutePath());
+            }
+            _deleteStaleTables();
+        }
+        catch (final Exception exception) {
+            throw new DatabaseException(exception);
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Long getUtxoCount() {
+        _readLock.lock();
+        try {
+            return _table.getSize();
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws DatabaseException {
+        _writeLock.lock();
+        try {
+            _table.force();
+            _writeManifest();
+            _table.close();
+        }
+        catch (final Exception exception) {
+            throw new DatabaseException(exception);
+        }
+        finally {
+            _writeLock.unlock();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.softwareverde.bitcoin.server.database.query.BatchedInsertQuery;
 import com.softwareverde.bitcoin.server.database.query.Query;
 import com.softwareverde.bitcoin.server.database.query.ValueExtractor;
 import com.softwareverde.bitcoin.server.module.node.database.DatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.pending.orphan.OrphanPool;
 import com.softwareverde.bitcoin.server.module.node.sync.transaction.pending.PendingTransaction;
 import com.softwareverde.bitcoin.server.module.node.sync.transaction.pending.PendingTransactionId;
 import com.softwareverde.bitcoin.transaction.Transaction;
@@ -21,6 +22,7 @@ import com.softwareverde.database.DatabaseException;
 import com.softwareverde.database.row.Row;
 import com.softwareverde.logging.Logger;
 import com.softwareverde.network.p2p.node.NodeId;
+import com.softwareverde.util.Container;
 import com.softwareverde.util.type.time.SystemTime;
 
 import java.util.HashMap;
@@ -39,6 +41,20 @@ public class PendingTransactionDatabaseManager {
         WRITE_LOCK = readWriteLock.writeLock();
     }
 
+    protected static final Container<OrphanPool> ORPHAN_POOL = new Container<OrphanPool>(null); // null indicates orphans are tracked via the pending_transactions_dependent_transactions table.
+
+    /**
+     * Sets the in-memory pool of orphaned Transactions; if null, orphans remain within the pending_transactions tables
+     *  and are retried once their dependencies exist (see ::updateTransactionDependencies).
+     */
+    public static void setOrphanPool(final OrphanPool orphanPool) {
+        ORPHAN_POOL.value = orphanPool;
+    }
+
+    public static OrphanPool getOrphanPool() {
+        return ORPHAN_POOL.value;
+    }
+
     protected final SystemTime _systemTime = new SystemTime();
     protected final DatabaseManager _databaseManager;
     protected final TransactionInflater _transactionInflater;
@@ -89,15 +105,21 @@ public class PendingTransactionDatabaseManager {
 
     protected List<PendingTransactionId> _storeTransactionHashes(final List<Sha256Hash> transactionHashes) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final OrphanPool orphanPool = ORPHAN_POOL.value;
 
         final Long currentTimestamp = _systemTime.getCurrentTimeInSeconds();
         final Long priority = currentTimestamp;
         final BatchedInsertQuery batchedInsertQuery = new BatchedInsertQuery("INSERT IGNORE INTO pending_transactions (hash, timestamp, priority) VALUES (?, ?, ?)");
+        int parameterCount = 0;
         for (final Sha256Hash transactionHash : transactionHashes) {
+            if ( (orphanPool != null) && orphanPool.containsOrphan(transactionHash) ) { continue; } // The Transaction has already been downloaded and is awaiting its parents...
+
+            parameterCount += 1;
             batchedInsertQuery.setParameter(transactionHash);
             batchedInsertQuery.setParameter(currentTimestamp);
             batchedInsertQuery.setParameter(priority);
         }
+        if (parameterCount == 0) { return new MutableList<PendingTransactionId>(0); }
 
         final Long firstPendingTransactionId = databaseConnection.executeSql(batchedInsertQuery);
         final Integer newRowCount = databaseConnection.getRowsAffectedCount();
@@ -252,6 +274,15 @@ public class PendingTransactionDatabaseManager {
 
     protected void _purgeExpiredOrphanedTransactions() throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        final OrphanPool orphanPool = ORPHAN_POOL.value;
+        if (orphanPool != null) {
+            final Integer purgedOrphanCount = orphanPool.purgeExpiredOrphans();
+            if (purgedOrphanCount > 0) {
+                Logger.debug("Purged " + purgedOrphanCount + " expired orphans.");
+            }
+        }
+
         final Long minimumTimestamp = (_systemTime.getCurrentTimeInSeconds() - MAX_ORPHANED_TRANSACTION_AGE_IN_SECONDS);
         final java.util.List<Row> rows = databaseConnection.query(
             new Query("SELECT pending_transactions.id FROM pending_transactions LEFT OUTER JOIN transactions ON transactions.hash = pending_transactions.hash WHERE (transactions.id IS NOT NULL) OR (pending_transactions.timestamp < ?)")
@@ -488,6 +519,8 @@ public class PendingTransactionDatabaseManager {
 
     /**
      * Returns a list of PendingTransactionIds that may be processed (i.e. their previous Outputs have been processed).
+     *  When an OrphanPool is set, orphans are removed from the pending_transactions tables and are instead released
+     *  by the pool once their parents arrive.
      */
     public List<PendingTransactionId> selectCandidatePendingTransactionIds() throws DatabaseException {
         try {
@@ -0,0 +1,213 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.pending.orphan;
+
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.ByteUtil;
+import com.softwareverde.util.type.time.SystemTime;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * The set of orphaned Transactions (i.e. Transactions spending outputs of Transactions that have not yet been seen),
+ *  held within the JVM instead of the pending_transactions_dependent_transactions table.
+ *  Orphans are indexed by each of their missing outputs, so that the arrival of a parent Transaction releases exactly the
+ *  orphans waiting on it (see ::releaseOrphans); an orphan is released once all of its missing outputs have arrived.
+ *  The pool is bounded by its orphan count, byte count, and the age of its orphans; the oldest orphans are evicted first.
+ */
+public class OrphanPool {
+    public static final Integer DEFAULT_MAX_ORPHAN_COUNT = 10000;
+    public static final Long DEFAULT_MAX_BYTE_COUNT = (32L * ByteUtil.Unit.Binary.MEBIBYTES);
+    public static final Long DEFAULT_MAX_ORPHAN_AGE_IN_SECONDS = (20L * 60L); // 20 Minutes...
+
+    protected static class Orphan {
+        public final Transaction transaction;
+        public final Integer byteCount;
+        public final Long timestamp;
+        public final HashSet<TransactionOutputIdentifier> missingTransactionOutputIdentifiers;
+
+        public Orphan(final Transaction transaction, final Long timestamp, final HashSet<TransactionOutputIdentifier> missingTransactionOutputIdentifiers) {
+            this.transaction = transaction;
+            this.byteCount = transaction.getByteCount();
+            this.timestamp = timestamp;
+            this.missingTransactionOutputIdentifiers = missingTransactionOutputIdentifiers;
+        }
+    }
+
+    protected final SystemTime _systemTime;
+    protected final Integer _maxOrphanCount;
+    protected final Long _maxByteCount;
+    protected final Long _maxOrphanAgeInSeconds;
+
+    protected final LinkedHashMap<Sha256Hash, Orphan> _orphans = new LinkedHashMap<Sha256Hash, Orphan>(); // Ordered from oldest to newest.
+    protected final HashMap<TransactionOutputIdentifier, HashSet<Sha256Hash>> _orphanHashesByMissingOutput = new HashMap<TransactionOutputIdentifier, HashSet<Sha256Hash>>();
+    protected long _byteCount = 0L;
+
+    protected void _removeOrphan(final Sha256Hash transactionHash) {
+        final Orphan orphan = _orphans.remove(transactionHash);
+        if (orphan == null) { return; }
+
+        for (final TransactionOutputIdentifier transactionOutputIdentifier : orphan.missingTransactionOutputIdentifiers) {
+            final HashSet<Sha256Hash> orphanHashes = _orphanHashesByMissingOutput.get(transactionOutputIdentifier);
+            if (orphanHashes == null) { continue; }
+
+            orphanHashes.remove(transactionHash);
+            if (orphanHashes.isEmpty()) {
+                _orphanHashesByMissingOutput.remove(transactionOutputIdentifier);
+            }
+        }
+
+        _byteCount -= orphan.byteCount;
+    }
+
+    protected int _purgeExpiredOrphans() {
+        final Long minimumTimestamp = (_systemTime.getCurrentTimeInSeconds() - _maxOrphanAgeInSeconds);
+
+        final MutableList<Sha256Hash> expiredOrphanHashes = new MutableList<Sha256Hash>();
+        for (final Orphan orphan : _orphans.values()) {
+            if (orphan.timestamp >= minimumTimestamp) { break; } // Orphans are ordered by age...
+            expiredOrphanHashes.add(orphan.transaction.getHash());
+        }
+
+        for (final Sha256Hash transactionHash : expiredOrphanHashes) {
+            _removeOrphan(transactionHash);
+        }
+        return expiredOrphanHashes.getCount();
+    }
+
+    public OrphanPool() {
+        this(DEFAULT_MAX_ORPHAN_COUNT, DEFAULT_MAX_BYTE_COUNT, DEFAULT_MAX_ORPHAN_AGE_IN_SECONDS, new SystemTime());
+    }
+
+    public OrphanPool(final Integer maxOrphanCount, final Long maxByteCount, final Long maxOrphanAgeInSeconds, final SystemTime systemTime) {
+        _maxOrphanCount = maxOrphanCount;
+        _maxByteCount = maxByteCount;
+        _maxOrphanAgeInSeconds = maxOrphanAgeInSeconds;
+        _systemTime = systemTime;
+    }
+
+    /**
+     * Adds the Transaction to the pool until each of its missingTransactionOutputIdentifiers have arrived.
+     *  Expired orphans, then the oldest orphans, are evicted to make room for the Transaction.
+     *  Returns false if the Transaction is already within the pool, has no missing outputs, or is larger than the pool.
+     */
+    public synchronized Boolean addOrphan(final Transaction transaction, final List<TransactionOutputIdentifier> missingTransactionOutputIdentifiers) {
+        final Sha256Hash transactionHash = transaction.getHash();
+        if (_orphans.containsKey(transactionHash)) { return false; }
+        if (missingTransactionOutputIdentifiers.isEmpty()) { return false; }
+
+        final Integer byteCount = transaction.getByteCount();
+        if (byteCount > _maxByteCount) { return false; }
+
+        _purgeExpiredOrphans();
+
+        final Iterator<Sha256Hash> oldestOrphanHashes = _orphans.keySet().iterator();
+        final MutableList<Sha256Hash> evictedOrphanHashes = new MutableList<Sha256Hash>();
+        {
+            int orphanCount = _orphans.size();
+            long totalByteCount = _byteCount;
+            while ( ((orphanCount + 1) > _maxOrphanCount) || ((totalByteCount + byteCount) > _maxByteCount) ) {
+                if (! oldestOrphanHashes.hasNext()) { break; }
+
+                final Sha256Hash orphanHash = oldestOrphanHashes.next();
+                final Orphan orphan = _orphans.get(orphanHash);
+                evictedOrphanHashes.add(orphanHash);
+                orphanCount -= 1;
+                totalByteCount -= orphan.byteCount;
+            }
+        }
+        for (final Sha256Hash orphanHash : evictedOrphanHashes) {
+            _removeOrphan(orphanHash);
+        }
+
+        final HashSet<TransactionOutputIdentifier> missingOutputs = new HashSet<TransactionOutputIdentifier>(missingTransactionOutputIdentifiers.getCount());
+        for (final TransactionOutputIdentifier transactionOutputIdentifier : missingTransactionOutputIdentifiers) {
+            missingOutputs.add(transactionOutputIdentifier);
+
+            HashSet<Sha256Hash> orphanHashes = _orphanHashesByMissingOutput.get(transactionOutputIdentifier);
+            if (orphanHashes == null) {
+                orphanHashes = new HashSet<Sha256Hash>(1);
+                _orphanHashesByMissingOutput.put(transactionOutputIdentifier, orphanHashes);
+            }
+            orphanHashes.add(transactionHash);
+        }
+
+        _orphans.put(transactionHash, new Orphan(transaction, _systemTime.getCurrentTimeInSeconds(), missingOutputs));
+        _byteCount += byteCount;
+        return true;
+    }
+
+    /**
+     * Marks the outputs of the parentTransactions as arrived, and removes and returns the orphans that are no longer
+     *  missing any outputs, in the order they were added.  Orphans still missing other outputs remain within the pool.
+     */
+    public synchronized List<Transaction> releaseOrphans(final List<Transaction> parentTransactions) {
+        if (_orphans.isEmpty()) { return new MutableList<Transaction>(0); }
+
+        final HashSet<Sha256Hash> candidateOrphanHashes = new HashSet<Sha256Hash>();
+        for (final Transaction parentTransaction : parentTransactions) {
+            final List<TransactionOutputIdentifier> transactionOutputIdentifiers = TransactionOutputIdentifier.fromTransactionOutputs(parentTransaction);
+            for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+                final HashSet<Sha256Hash> orphanHashes = _orphanHashesByMissingOutput.remove(transactionOutputIdentifier);
+                if (orphanHashes == null) { continue; }
+
+                for (final Sha256Hash orphanHash : orphanHashes) {
+                    final Orphan orphan = _orphans.get(orphanHash);
+                    orphan.missingTransactionOutputIdentifiers.remove(transactionOutputIdentifier);
+                    candidateOrphanHashes.add(orphanHash);
+                }
+            }
+        }
+
+        final MutableList<Transaction> releasedOrphans = new MutableList<Transaction>();
+        for (final Orphan orphan : _orphans.values()) {
+            if (releasedOrphans.getCount() >= candidateOrphanHashes.size()) { break; }
+
+            final Sha256Hash orphanHash = orphan.transaction.getHash();
+            if (! candidateOrphanHashes.contains(orphanHash)) { continue; }
+            if (! orphan.missingTransactionOutputIdentifiers.isEmpty()) { continue; }
+
+            releasedOrphans.add(orphan.transaction);
+        }
+
+        for (final Transaction transaction : releasedOrphans) {
+            _removeOrphan(transaction.getHash());
+        }
+        return releasedOrphans;
+    }
+
+    /**
+     * Returns the hashes of the Transactions the orphans are waiting on.
+     */
+    public synchronized List<Sha256Hash> getMissingTransactionHashes() {
+        final HashSet<Sha256Hash> missingTransactionHashes = new HashSet<Sha256Hash>();
+        for (final TransactionOutputIdentifier transactionOutputIdentifier : _orphanHashesByMissingOutput.keySet()) {
+            missingTransactionHashes.add(transactionOutputIdentifier.getTransactionHash());
+        }
+        return new MutableList<Sha256Hash>(missingTransactionHashes);
+    }
+
+    /**
+     * Removes orphans older than the pool's max age.  Returns the number of orphans removed.
+     */
+    public synchronized Integer purgeExpiredOrphans() {
+        return _purgeExpiredOrphans();
+    }
+
+    public synchronized Boolean containsOrphan(final Sha256Hash transactionHash) {
+        return _orphans.containsKey(transactionHash);
+    }
+
+    public synchronized Integer getOrphanCount() {
+        return _orphans.size();
+    }
+
+    public synchronized Long getByteCount() {
+        return _byteCount;
+    }
+}
@@ -1,9 +1,13 @@
 package com.softwareverde.bitcoin.server.module.node.database.transaction.slp;
 
 import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.server.database.BatchRunner;
 import com.softwareverde.bitcoin.server.database.DatabaseConnection;
 import com.softwareverde.bitcoin.server.database.query.Query;
+import com.softwareverde.bitcoin.server.database.query.ValueExtractor;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManagerCore;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.mempool.MemoryPool;
 import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
@@ -84,7 +88,58 @@ public class SlpTransactionDatabaseManagerCore implements SlpTransactionDatabase
         return result;
     }
 
+    /**
+     * Returns the unconfirmed SLP Transactions pending validation when the memory pool is not stored within the database.
+     */
+    protected List<TransactionId> _getUnconfirmedPendingValidationSlpTransactions(final MemoryPool memoryPool, final Integer maxCount) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        final List<TransactionId> unconfirmedTransactionIds = memoryPool.getTransactionIds();
+        final ImmutableListBuilder<TransactionId> transactionIds = new ImmutableListBuilder<TransactionId>(maxCount);
+        final int batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+        final BatchRunner<TransactionId> batchRunner = new BatchRunner<TransactionId>(batchSize, false);
+        batchRunner.run(unconfirmedTransactionIds, new BatchRunner.Batch<TransactionId>() {
+            @Override
+            public void run(final List<TransactionId> batchItems) throws Exception {
+                final int remainingCount = (maxCount - transactionIds.getCount());
+                if (remainingCount <= 0) { return; }
+
+                final java.util.List<Row> rows = databaseConnection.query(
+                    new Query(
+                        "SELECT " +
+                            "indexed_transaction_outputs.transaction_id " +
+                        "FROM " +
+                            "indexed_transaction_outputs " +
+                            "LEFT OUTER JOIN validated_slp_transactions " +
+                                "ON (validated_slp_transactions.transaction_id = indexed_transaction_outputs.transaction_id) " +
+                        "WHERE " +
+                            "indexed_transaction_outputs.transaction_id IN (?) " +
+                            "AND validated_slp_transactions.id IS NULL " +
+                            "AND indexed_transaction_outputs.slp_transaction_id IS NOT NULL " +
+                        "GROUP BY indexed_transaction_outputs.transaction_id ASC " +
+                        "LIMIT " + remainingCount
+                    )
+                        .setInClauseParameters(batchItems, ValueExtractor.IDENTIFIER)
+                );
+
+                for (final Row row : rows) {
+                    final TransactionId transactionId = TransactionId.wrap(row.getLong("transaction_id"));
+                    if (transactionId == null) { continue; }
+
+                    transactionIds.add(transactionId);
+                }
+            }
+        });
+
+        return transactionIds.build();
+    }
+
     protected List<TransactionId> _getUnconfirmedPendingValidationSlpTransactions(final Integer maxCount) throws DatabaseException {
+        final MemoryPool memoryPool = FullNodeTransactionDatabaseManagerCore.getMemoryPool();
+        if (memoryPool != null) {
+            return _getUnconfirmedPendingValidationSlpTransactions(memoryPool, maxCount);
+        }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final java.util.List<Row> rows = databaseConnection.query(
@@ -10,10 +10,14 @@ import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.bloomfilter.BloomFilter;
 import com.softwareverde.bloomfilter.MutableBloomFilter;
 import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.logging.Logger;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class MemoryPoolEnquirerHandler implements MemoryPoolEnquirer {
     protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
 
@@ -71,4 +75,40 @@ public class MemoryPoolEnquirerHandler implements MemoryPoolEnquirer {
 
         return null;
     }
+
+    @Override
+    public List<Sha256Hash> getTransactionHashes() {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final FullNodeTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
+            return transactionDatabaseManager.getUnconfirmedTransactionHashes();
+        }
+        catch (final DatabaseException exception) {
+            Logger.warn(exception);
+        }
+
+        return new MutableList<Sha256Hash>(0);
+    }
+
+    @Override
+    public Map<Sha256Hash, Transaction> getTransactions(final List<Sha256Hash> transactionHashes) {
+        final HashMap<Sha256Hash, Transaction> transactions = new HashMap<Sha256Hash, Transaction>(transactionHashes.getCount());
+
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final TransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
+            for (final Sha256Hash transactionHash : transactionHashes) {
+                final TransactionId transactionId = transactionDatabaseManager.getTransactionId(transactionHash);
+                if (transactionId == null) { continue; }
+
+                final Transaction transaction = transactionDatabaseManager.getTransaction(transactionId);
+                if (transaction == null) { continue; }
+
+                transactions.put(transactionHash, transaction);
+            }
+        }
+        catch (final DatabaseException exception) {
+            Logger.warn(exception);
+        }
+
+        return transactions;
+    }
 }
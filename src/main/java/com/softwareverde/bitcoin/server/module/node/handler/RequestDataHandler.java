@@ -13,6 +13,7 @@ import com.softwareverde.bitcoin.server.module.node.database.transaction.Transac
 import com.softwareverde.bitcoin.server.node.BitcoinNode;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
@@ -61,6 +62,7 @@ public class RequestDataHandler implements BitcoinNode.RequestDataHandler {
                 switch (inventoryItem.getItemType()) {
 
                     case MERKLE_BLOCK:
+                    case COMPACT_BLOCK:
                     case BLOCK: {
                         final NanoTimer getBlockDataTimer = new NanoTimer();
                         getBlockDataTimer.start();
@@ -72,19 +74,33 @@ public class RequestDataHandler implements BitcoinNode.RequestDataHandler {
                             continue;
                         }
 
-                        final Block block = blockDatabaseManager.getBlock(blockId);
+                        if (inventoryItem.getItemType() == InventoryItemType.BLOCK) {
+                            // Full blocks are served directly from their on-disk serialization, since inflating the Block only to deflate it again is wasted work...
+                            final ByteArray blockBytes = blockDatabaseManager.getRawBlock(blockId);
 
-                        if (block == null) {
-                            Logger.debug(bitcoinNode.getConnectionString() + " requested unknown block: " + blockHash);
-                            notFoundDataHashes.add(inventoryItem);
-                            continue;
-                        }
+                            if (blockBytes == null) {
+                                Logger.debug(bitcoinNode.getConnectionString() + " requested unknown block: " + blockHash);
+                                notFoundDataHashes.add(inventoryItem);
+                                continue;
+                            }
 
-                        if (inventoryItem.getItemType() == InventoryItemType.MERKLE_BLOCK) {
-                            bitcoinNode.transmitMerkleBlock(block);
+                            bitcoinNode.transmitRawBlock(blockBytes);
                         }
                         else {
-                            bitcoinNode.transmitBlock(block);
+                            final Block block = blockDatabaseManager.getBlock(blockId);
+
+                            if (block == null) {
+                                Logger.debug(bitcoinNode.getConnectionString() + " requested unknown block: " + blockHash);
+                                notFoundDataHashes.add(inventoryItem);
+                                continue;
+                            }
+
+                            if (inventoryItem.getItemType() == InventoryItemType.MERKLE_BLOCK) {
+                                bitcoinNode.transmitMerkleBlock(block);
+                            }
+                            else {
+                                bitcoinNode.transmitCompactBlock(block);
+                            }
                         }
 
                         getBlockDataTimer.stop();
@@ -0,0 +1,64 @@
+package com.softwareverde.bitcoin.server.module.node.handler.block;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
+import com.softwareverde.bitcoin.server.node.BitcoinNode;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.logging.Logger;
+
+/**
+ * Responds to BIP152 getblocktxn messages with the requested Transactions of the block.
+ */
+public class RequestCompactBlockTransactionsHandler implements BitcoinNode.RequestCompactBlockTransactionsHandler {
+    protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
+
+    public RequestCompactBlockTransactionsHandler(final FullNodeDatabaseManagerFactory databaseManagerFactory) {
+        _databaseManagerFactory = databaseManagerFactory;
+    }
+
+    @Override
+    public void run(final BitcoinNode bitcoinNode, final Sha256Hash blockHash, final List<Integer> transactionIndexes) {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final FullNodeBlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
+
+            final BlockId blockId = blockHeaderDatabaseManager.getBlockHeaderId(blockHash);
+            if (blockId == null) {
+                Logger.debug(bitcoinNode.getConnectionString() + " requested transactions of unknown block: " + blockHash);
+                return;
+            }
+
+            final Block block = blockDatabaseManager.getBlock(blockId);
+            if (block == null) {
+                Logger.debug(bitcoinNode.getConnectionString() + " requested transactions of unavailable block: " + blockHash);
+                return;
+            }
+
+            final List<Transaction> blockTransactions = block.getTransactions();
+            final int blockTransactionCount = blockTransactions.getCount();
+
+            final MutableList<Transaction> transactions = new MutableList<Transaction>(transactionIndexes.getCount());
+            for (final Integer transactionIndex : transactionIndexes) {
+                if (transactionIndex >= blockTransactionCount) {
+                    Logger.debug(bitcoinNode.getConnectionString() + " requested invalid transaction index: " + blockHash + ":" + transactionIndex);
+                    return;
+                }
+
+                transactions.add(blockTransactions.get(transactionIndex));
+            }
+
+            bitcoinNode.transmitCompactBlockTransactions(blockHash, transactions);
+        }
+        catch (final DatabaseException exception) {
+            Logger.warn(exception);
+        }
+    }
+}
@@ -48,6 +48,7 @@ import java.util.regex.Pattern;
 public class BitcoinNodeManager {
     public static final Long PING_AFTER_MS_IDLE = (5L * 60000L); // 5 Minutes
     public static final Integer MINIMUM_THIN_BLOCK_TRANSACTION_COUNT = 64;
+    public static final Integer MAX_HIGH_BANDWIDTH_COMPACT_BLOCK_PEER_COUNT = 3; // BIP152 recommends requesting high-bandwidth mode from at most three peers.
 
     public interface NewNodeCallback {
         void onNodeHandshakeComplete(BitcoinNode bitcoinNode);
@@ -151,6 +152,7 @@ public class BitcoinNodeManager {
     protected Boolean _transactionRelayIsEnabled = true;
     protected Boolean _slpValidityCheckingIsEnabled = false;
     protected Boolean _newBlocksViaHeadersIsEnabled = true;
+    protected Boolean _compactBlocksIsEnabled = true;
     protected MutableBloomFilter _bloomFilter = null;
     protected Runnable _onNodeListChanged;
     protected NewNodeCallback _newNodeCallback;
@@ -611,6 +613,40 @@ public class BitcoinNodeManager {
 
         final Ip ip = bitcoinNode.getIp();
         _banFilter.onNodeDisconnected(ip);
+
+        if (_compactBlocksIsEnabled && bitcoinNode.isHighBandwidthCompactBlocksRequested()) {
+            _promoteHighBandwidthCompactBlockPeer();
+        }
+    }
+
+    protected Integer _getHighBandwidthCompactBlockPeerCount() {
+        int highBandwidthPeerCount = 0;
+        final Map<NodeId, BitcoinNode> allNodes = _getAllHandshakedNodes();
+        for (final BitcoinNode bitcoinNode : allNodes.values()) {
+            if (bitcoinNode.isHighBandwidthCompactBlocksRequested()) {
+                highBandwidthPeerCount += 1;
+            }
+        }
+        return highBandwidthPeerCount;
+    }
+
+    /**
+     * Requests high-bandwidth compact block announcements from a connected peer that supports compact blocks, if fewer than
+     *  MAX_HIGH_BANDWIDTH_COMPACT_BLOCK_PEER_COUNT peers are currently in high-bandwidth mode.
+     */
+    protected void _promoteHighBandwidthCompactBlockPeer() {
+        final Integer highBandwidthPeerCount = _getHighBandwidthCompactBlockPeerCount();
+        if (highBandwidthPeerCount >= MAX_HIGH_BANDWIDTH_COMPACT_BLOCK_PEER_COUNT) { return; }
+
+        final Map<NodeId, BitcoinNode> allNodes = _getAllHandshakedNodes();
+        for (final BitcoinNode bitcoinNode : allNodes.values()) {
+            if (! bitcoinNode.isConnected()) { continue; }
+            if (! bitcoinNode.supportsCompactBlocks()) { continue; }
+            if (bitcoinNode.isHighBandwidthCompactBlocksRequested()) { continue; }
+
+            bitcoinNode.enableCompactBlocks(true);
+            return;
+        }
     }
 
     /**
@@ -907,6 +943,11 @@ public class BitcoinNodeManager {
             bitcoinNode.enableNewBlockViaHeaders();
         }
 
+        if (_compactBlocksIsEnabled) {
+            final Integer highBandwidthPeerCount = _getHighBandwidthCompactBlockPeerCount();
+            bitcoinNode.enableCompactBlocks(highBandwidthPeerCount < MAX_HIGH_BANDWIDTH_COMPACT_BLOCK_PEER_COUNT);
+        }
+
         final NewNodeCallback newNodeCallback = _newNodeCallback;
         if (newNodeCallback != null) {
             _threadPool.execute(new Runnable() {
@@ -1255,6 +1296,10 @@ public class BitcoinNodeManager {
         }
     }
 
+    public void enableCompactBlocks(final Boolean compactBlocksIsEnabled) {
+        _compactBlocksIsEnabled = compactBlocksIsEnabled;
+    }
+
     public void defineDnsSeeds(final List<String> dnsSeeds) {
         _dnsSeeds.addAll(dnsSeeds);
     }
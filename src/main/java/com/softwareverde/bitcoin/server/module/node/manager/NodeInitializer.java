@@ -1,5 +1,6 @@
 package com.softwareverde.bitcoin.server.module.node.manager;
 
+import com.softwareverde.bitcoin.block.compact.CompactBlockAssembler;
 import com.softwareverde.bitcoin.server.SynchronizationStatus;
 import com.softwareverde.bitcoin.server.message.BitcoinBinaryPacketFormat;
 import com.softwareverde.bitcoin.server.message.type.node.feature.LocalNodeFeatures;
@@ -20,6 +21,8 @@ public class NodeInitializer {
         public BitcoinNode.RequestDataHandler requestDataHandler;
         public BitcoinNode.RequestSpvBlocksHandler requestSpvBlocksHandler;
         public BitcoinNode.RequestSlpTransactionsHandler requestSlpTransactionsHandler;
+        public BitcoinNode.RequestCompactBlockTransactionsHandler requestCompactBlockTransactionsHandler;
+        public CompactBlockAssembler compactBlockAssembler;
         public ThreadPoolFactory threadPoolFactory;
         public LocalNodeFeatures localNodeFeatures;
         public BitcoinNode.RequestPeersHandler requestPeersHandler;
@@ -37,6 +40,8 @@ public class NodeInitializer {
     protected final BitcoinNode.RequestDataHandler _requestDataHandler;
     protected final BitcoinNode.RequestSpvBlocksHandler _requestSpvBlocksHandler;
     protected final BitcoinNode.RequestSlpTransactionsHandler _requestSlpTransactionsHandler;
+    protected final BitcoinNode.RequestCompactBlockTransactionsHandler _requestCompactBlockTransactionsHandler;
+    protected final CompactBlockAssembler _compactBlockAssembler;
     protected final ThreadPoolFactory _threadPoolFactory;
     protected final LocalNodeFeatures _localNodeFeatures;
     protected final BitcoinNode.RequestPeersHandler _requestPeersHandler;
@@ -53,6 +58,8 @@ public class NodeInitializer {
         bitcoinNode.setRequestDataHandler(_requestDataHandler);
         bitcoinNode.setRequestSpvBlocksHandler(_requestSpvBlocksHandler);
         bitcoinNode.setRequestSlpTransactionsHandler(_requestSlpTransactionsHandler);
+        bitcoinNode.setRequestCompactBlockTransactionsHandler(_requestCompactBlockTransactionsHandler);
+        bitcoinNode.setCompactBlockAssembler(_compactBlockAssembler);
         bitcoinNode.setSpvBlockInventoryAnnouncementHandler(_spvBlockInventoryAnnouncementHandler);
 
         bitcoinNode.setBlockInventoryMessageHandler(blockInventoryAnnouncementHandler);
@@ -77,6 +84,8 @@ public class NodeInitializer {
         _requestDataHandler = properties.requestDataHandler;
         _requestSpvBlocksHandler = properties.requestSpvBlocksHandler;
         _requestSlpTransactionsHandler = properties.requestSlpTransactionsHandler;
+        _requestCompactBlockTransactionsHandler = properties.requestCompactBlockTransactionsHandler;
+        _compactBlockAssembler = properties.compactBlockAssembler;
         _threadPoolFactory = properties.threadPoolFactory;
         _localNodeFeatures = properties.localNodeFeatures;
         _requestPeersHandler = properties.requestPeersHandler;
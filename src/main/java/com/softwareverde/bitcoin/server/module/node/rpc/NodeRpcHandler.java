@@ -84,6 +84,12 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
         Map<String, String> getServiceStatuses();
     }
 
+    public interface SignatureCacheInquisitor {
+        Long getHitCount();
+        Long getMissCount();
+        Long getMaxByteCount();
+    }
+
     public interface UtxoCacheHandler {
         Long getCachedUtxoCount();
         Long getMaxCachedUtxoCount();
@@ -91,6 +97,11 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
         Long getCommittedUtxoBlockHeight();
 
         void commitUtxoCache();
+
+        /**
+         * Writes a snapshot of the committed UTXO set to the file and returns the snapshot's hash, or null if the snapshot could not be created.
+         */
+        Sha256Hash createUtxoSnapshot(String filename);
     }
 
     public interface QueryBlockchainHandler {
@@ -223,6 +234,7 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
     protected QueryAddressHandler _queryAddressHandler = null;
     protected ThreadPoolInquisitor _threadPoolInquisitor = null;
     protected ServiceInquisitor _serviceInquisitor = null;
+    protected SignatureCacheInquisitor _signatureCacheInquisitor = null;
     protected DataHandler _dataHandler = null;
     protected MetadataHandler _metadataHandler = null;
     protected QueryBlockchainHandler _queryBlockchainHandler = null;
@@ -721,6 +733,15 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
             response.put("utxoCacheStatus", utxoCacheStatus);
         }
 
+        { // Signature Cache Status
+            final Json signatureCacheStatusJson = new Json();
+            final SignatureCacheInquisitor signatureCacheInquisitor = _signatureCacheInquisitor;
+            signatureCacheStatusJson.put("hitCount",        (signatureCacheInquisitor != null ? signatureCacheInquisitor.getHitCount() : null));
+            signatureCacheStatusJson.put("missCount",       (signatureCacheInquisitor != null ? signatureCacheInquisitor.getMissCount() : null));
+            signatureCacheStatusJson.put("maxByteCount",    (signatureCacheInquisitor != null ? signatureCacheInquisitor.getMaxByteCount() : null));
+            response.put("signatureCacheStatus", signatureCacheStatusJson);
+        }
+
         { // Server Load
             final Json serverLoadJson = new Json();
             final ThreadPoolInquisitor threadPoolInquisitor = _threadPoolInquisitor;
@@ -985,6 +1006,30 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
         response.put(WAS_SUCCESS_KEY, 1);
     }
 
+    // Requires POST: <file>
+    protected void _createUtxoSnapshot(final Json parameters, final Json response) {
+        final UtxoCacheHandler utxoCacheHandler = _utxoCacheHandler;
+        if (utxoCacheHandler == null) {
+            response.put(ERROR_MESSAGE_KEY, "Operation not supported.");
+            return;
+        }
+
+        if (! parameters.hasKey("file")) {
+            response.put(ERROR_MESSAGE_KEY, "Missing parameters. Required: file");
+            return;
+        }
+
+        final String filename = parameters.getString("file");
+        final Sha256Hash snapshotHash = utxoCacheHandler.createUtxoSnapshot(filename);
+        if (snapshotHash == null) {
+            response.put(ERROR_MESSAGE_KEY, "Unable to create UTXO snapshot.");
+            return;
+        }
+
+        response.put("snapshotHash", snapshotHash.toString());
+        response.put(WAS_SUCCESS_KEY, 1);
+    }
+
     // Requires POST: <host>, <port>
     protected void _addNode(final Json parameters, final Json response) {
         final NodeHandler nodeHandler = _nodeHandler;
@@ -1466,6 +1511,10 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
         _serviceInquisitor = serviceInquisitor;
     }
 
+    public void setSignatureCacheInquisitor(final SignatureCacheInquisitor signatureCacheInquisitor) {
+        _signatureCacheInquisitor = signatureCacheInquisitor;
+    }
+
     public void setDataHandler(final DataHandler dataHandler) {
         _dataHandler = dataHandler;
     }
@@ -1756,6 +1805,10 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
                                 _commitUtxoCache(parameters, response);
                             } break;
 
+                            case "CREATE_UTXO_SNAPSHOT": {
+                                _createUtxoSnapshot(parameters, response);
+                            } break;
+
                             case "ADD_NODE": {
                                 _addNode(parameters, response);
                             } break;
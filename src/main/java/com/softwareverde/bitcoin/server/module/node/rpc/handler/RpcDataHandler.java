@@ -28,6 +28,7 @@ import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDa
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.TransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManagerCore;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.slp.SlpTransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.rpc.NodeRpcHandler;
 import com.softwareverde.bitcoin.server.module.node.sync.BlockchainBuilder;
@@ -46,7 +47,6 @@ import com.softwareverde.bitcoin.transaction.validator.TransactionValidator;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidatorCore;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
-import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.database.util.TransactionUtil;
@@ -73,21 +73,10 @@ public class RpcDataHandler implements NodeRpcHandler.DataHandler {
     protected List<Transaction> _getBlockTransactions(final BlockId blockId, final Integer pageSize, final Integer pageNumber, final FullNodeDatabaseManager databaseManager) throws DatabaseException {
         if (blockId == null) { return null; }
 
-        final Block block = _getBlock(blockId, databaseManager);
-        if (block == null) { return null; }
-
-        final List<Transaction> transactions = block.getTransactions();
+        final FullNodeBlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
 
-        final MutableList<Transaction> returnedTransactions = new MutableList<Transaction>(pageSize);
         final int startIndex = (pageNumber * pageSize);
-        for (int i = 0; i < pageSize; ++i) {
-            final int readIndex = (startIndex + i);
-            if (readIndex >= transactions.getCount()) { break; }
-
-            final Transaction transaction = transactions.get(readIndex);
-            returnedTransactions.add(transaction);
-        }
-        return returnedTransactions;
+        return blockDatabaseManager.getTransactions(blockId, startIndex, pageSize); // Only the requested page is read from the Block...
     }
 
     public RpcDataHandler(final TransactionInflaters transactionInflaters, final FullNodeDatabaseManagerFactory databaseManagerFactory, final TransactionValidatorFactory transactionValidatorFactory, final TransactionDownloader transactionDownloader, final BlockchainBuilder blockchainBuilder, final BlockDownloader blockDownloader, final VolatileNetworkTime networkTime) {
@@ -516,12 +505,18 @@ public class RpcDataHandler implements NodeRpcHandler.DataHandler {
             final TransactionValidatorContext transactionValidatorContext = new TransactionValidatorContext(_transactionInflaters, _networkTime, medianBlockTimeContext, unconfirmedTransactionUtxoSet);
             final TransactionValidator transactionValidator = new TransactionValidatorCore(transactionValidatorContext);
 
+            final Boolean memoryPoolIsWithinJvm = (FullNodeTransactionDatabaseManagerCore.getMemoryPool() != null);
             try {
                 TransactionUtil.startTransaction(databaseConnection);
                 final BlockId headBlockId = blockHeaderDatabaseManager.getHeadBlockHeaderId();
                 final Long headBlockHeight = blockHeaderDatabaseManager.getBlockHeight(headBlockId);
 
-                transactionDatabaseManager.storeUnconfirmedTransaction(transaction);
+                if (memoryPoolIsWithinJvm) { // The MemoryPool is shared and unaffected by the rollback, so only the Transaction's hash is (temporarily) stored...
+                    transactionDatabaseManager.storeTransactionHash(transaction);
+                }
+                else {
+                    transactionDatabaseManager.storeUnconfirmedTransaction(transaction);
+                }
                 final TransactionValidationResult transactionValidationResult =  transactionValidator.validateTransaction((headBlockHeight + 1L), transaction);
 
                 if (transactionValidationResult.isValid && enableSlpValidation) {
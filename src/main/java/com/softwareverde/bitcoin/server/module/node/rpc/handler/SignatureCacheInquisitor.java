@@ -0,0 +1,27 @@
+package com.softwareverde.bitcoin.server.module.node.rpc.handler;
+
+import com.softwareverde.bitcoin.secp256k1.SignatureCache;
+import com.softwareverde.bitcoin.server.module.node.rpc.NodeRpcHandler;
+
+public class SignatureCacheInquisitor implements NodeRpcHandler.SignatureCacheInquisitor {
+    protected final SignatureCache _signatureCache;
+
+    public SignatureCacheInquisitor(final SignatureCache signatureCache) {
+        _signatureCache = signatureCache;
+    }
+
+    @Override
+    public Long getHitCount() {
+        return _signatureCache.getHitCount();
+    }
+
+    @Override
+    public Long getMissCount() {
+        return _signatureCache.getMissCount();
+    }
+
+    @Override
+    public Long getMaxByteCount() {
+        return _signatureCache.getMaxByteCount();
+    }
+}
@@ -3,10 +3,14 @@ package com.softwareverde.bitcoin.server.module.node.rpc.handler;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot.UtxoSnapshotManager;
 import com.softwareverde.bitcoin.server.module.node.rpc.NodeRpcHandler;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.logging.Logger;
 
+import java.io.File;
+
 public class UtxoCacheHandler implements NodeRpcHandler.UtxoCacheHandler {
     protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
 
@@ -73,4 +77,17 @@ public class UtxoCacheHandler implements NodeRpcHandler.UtxoCacheHandler {
             Logger.warn(exception);
         }
     }
+
+    @Override
+    public Sha256Hash createUtxoSnapshot(final String filename) {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final UtxoSnapshotManager utxoSnapshotManager = new UtxoSnapshotManager(databaseManager, _databaseManagerFactory);
+            Logger.info("Creating UTXO snapshot: " + filename);
+            return utxoSnapshotManager.createSnapshot(new File(filename));
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+            return null;
+        }
+    }
 }
@@ -0,0 +1,267 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockDeflater;
+import com.softwareverde.bitcoin.block.header.BlockHeaderInflater;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionDeflater;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.logging.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses serialized Blocks as a sequence of independently decompressible (deflate) chunks.
+ *  Chunks end on Transaction boundaries once they reach TARGET_CHUNK_BYTE_COUNT, so a range of the Block (i.e. a single
+ *  Transaction) can be read by decompressing only the chunk(s) that cover it.
+ *
+ *  Compressed Block format:
+ *      [4] Chunk Count
+ *      [8 * Chunk Count] For each chunk: [4] Uncompressed Byte Count, [4] Compressed Byte Count
+ *      [...] The compressed chunks, in order.
+ */
+public class BlockCompressor {
+    public interface Reader {
+        /**
+         * Returns byteCount bytes of the compressed Block, starting at diskOffset, or null if the bytes could not be read.
+         */
+        byte[] read(Long diskOffset, Integer byteCount);
+    }
+
+    public static final Integer TARGET_CHUNK_BYTE_COUNT = (64 * 1024);
+
+    protected static final Integer CHUNK_COUNT_BYTE_COUNT = 4;
+    protected static final Integer CHUNK_TABLE_ENTRY_BYTE_COUNT = 8;
+    protected static final Integer MAX_CHUNK_COUNT = (1024 * 1024);
+
+    protected static class ChunkTable {
+        public final int chunkCount;
+        public final long[] uncompressedOffsets;
+        public final long[] compressedOffsets; // Relative to the start of the compressed Block.
+        public final int[] uncompressedByteCounts;
+        public final int[] compressedByteCounts;
+
+        public ChunkTable(final int chunkCount) {
+            this.chunkCount = chunkCount;
+            this.uncompressedOffsets = new long[chunkCount];
+            this.compressedOffsets = new long[chunkCount];
+            this.uncompressedByteCounts = new int[chunkCount];
+            this.compressedByteCounts = new int[chunkCount];
+        }
+
+        public long getUncompressedByteCount() {
+            if (this.chunkCount == 0) { return 0L; }
+            final int lastIndex = (this.chunkCount - 1);
+            return (this.uncompressedOffsets[lastIndex] + this.uncompressedByteCounts[lastIndex]);
+        }
+    }
+
+    protected final Integer _compressionLevel;
+
+    protected static ChunkTable _readChunkTable(final Reader reader) {
+        final byte[] chunkCountBytes = reader.read(0L, CHUNK_COUNT_BYTE_COUNT);
+        if (chunkCountBytes == null) { return null; }
+
+        final int chunkCount = ByteBuffer.wrap(chunkCountBytes).getInt();
+        if ( (chunkCount < 0) || (chunkCount > MAX_CHUNK_COUNT) ) { return null; }
+
+        final byte[] chunkTableBytes = reader.read(CHUNK_COUNT_BYTE_COUNT.longValue(), (chunkCount * CHUNK_TABLE_ENTRY_BYTE_COUNT));
+        if (chunkTableBytes == null) { return null; }
+
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(chunkTableBytes);
+        final ChunkTable chunkTable = new ChunkTable(chunkCount);
+        long uncompressedOffset = 0L;
+        long compressedOffset = (CHUNK_COUNT_BYTE_COUNT + ((long) chunkCount * CHUNK_TABLE_ENTRY_BYTE_COUNT));
+        for (int i = 0; i < chunkCount; ++i) {
+            final int uncompressedByteCount = byteBuffer.getInt();
+            final int compressedByteCount = byteBuffer.getInt();
+            if ( (uncompressedByteCount < 0) || (compressedByteCount < 0) ) { return null; }
+
+            chunkTable.uncompressedOffsets[i] = uncompressedOffset;
+            chunkTable.compressedOffsets[i] = compressedOffset;
+            chunkTable.uncompressedByteCounts[i] = uncompressedByteCount;
+            chunkTable.compressedByteCounts[i] = compressedByteCount;
+
+            uncompressedOffset += uncompressedByteCount;
+            compressedOffset += compressedByteCount;
+        }
+
+        return chunkTable;
+    }
+
+    protected static byte[] _decompressChunk(final byte[] compressedBytes, final int compressedOffset, final int compressedByteCount, final int uncompressedByteCount) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressedBytes, compressedOffset, compressedByteCount);
+
+            final byte[] uncompressedBytes = new byte[uncompressedByteCount];
+            int byteCountInflated = 0;
+            while (byteCountInflated < uncompressedByteCount) {
+                final int byteCount = inflater.inflate(uncompressedBytes, byteCountInflated, (uncompressedByteCount - byteCountInflated));
+                if ( (byteCount == 0) && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()) ) { break; }
+                byteCountInflated += byteCount;
+            }
+
+            if (byteCountInflated != uncompressedByteCount) { return null; }
+            return uncompressedBytes;
+        }
+        catch (final DataFormatException exception) {
+            Logger.warn(exception);
+            return null;
+        }
+        finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Returns the offsets, relative to the start of the serialized Block, at which each of the Block's Transactions begin.
+     */
+    public static List<Long> getTransactionOffsets(final Block block, final BlockDeflater blockDeflater) {
+        final TransactionDeflater transactionDeflater = blockDeflater.getTransactionDeflater();
+        final List<Transaction> transactions = block.getTransactions();
+        final int transactionCount = transactions.getCount();
+
+        final MutableList<Long> transactionOffsets = new MutableList<Long>(transactionCount);
+        long offset = (BlockHeaderInflater.BLOCK_HEADER_BYTE_COUNT + ByteUtil.variableLengthIntegerToBytes(transactionCount).length);
+        for (final Transaction transaction : transactions) {
+            transactionOffsets.add(offset);
+            offset += transactionDeflater.getByteCount(transaction);
+        }
+
+        return transactionOffsets;
+    }
+
+    public BlockCompressor() {
+        this(Deflater.BEST_SPEED);
+    }
+
+    public BlockCompressor(final Integer compressionLevel) {
+        _compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Compresses the serialized Block.
+     *  transactionOffsets are the offsets at which chunks may be split (see BlockCompressor::getTransactionOffsets).
+     */
+    public ByteArray compress(final ByteArray blockBytes, final List<Long> transactionOffsets) {
+        final int blockByteCount = blockBytes.getByteCount();
+        final byte[] uncompressedBytes = blockBytes.getBytes();
+
+        final MutableList<Integer> chunkByteCounts = new MutableList<Integer>();
+        { // Split the Block into chunks ending on Transaction boundaries...
+            long chunkStartOffset = 0L;
+            for (final Long transactionOffset : transactionOffsets) {
+                if ((transactionOffset - chunkStartOffset) >= TARGET_CHUNK_BYTE_COUNT) {
+                    chunkByteCounts.add((int) (transactionOffset - chunkStartOffset));
+                    chunkStartOffset = transactionOffset;
+                }
+            }
+            if ( (chunkStartOffset < blockByteCount) || chunkByteCounts.isEmpty() ) {
+                chunkByteCounts.add((int) (blockByteCount - chunkStartOffset));
+            }
+        }
+
+        final int chunkCount = chunkByteCounts.getCount();
+        final ByteBuffer chunkTable = ByteBuffer.allocate(CHUNK_COUNT_BYTE_COUNT + (chunkCount * CHUNK_TABLE_ENTRY_BYTE_COUNT));
+        chunkTable.putInt(chunkCount);
+
+        final ByteArrayOutputStream compressedChunks = new ByteArrayOutputStream(blockByteCount / 2);
+        final Deflater deflater = new Deflater(_compressionLevel);
+        try {
+            final byte[] buffer = new byte[TARGET_CHUNK_BYTE_COUNT];
+            int chunkStartOffset = 0;
+            for (final Integer chunkByteCount : chunkByteCounts) {
+                deflater.reset();
+                deflater.setInput(uncompressedBytes, chunkStartOffset, chunkByteCount);
+                deflater.finish();
+
+                int compressedByteCount = 0;
+                while (! deflater.finished()) {
+                    final int byteCount = deflater.deflate(buffer);
+                    compressedChunks.write(buffer, 0, byteCount);
+                    compressedByteCount += byteCount;
+                }
+
+                chunkTable.putInt(chunkByteCount);
+                chunkTable.putInt(compressedByteCount);
+                chunkStartOffset += chunkByteCount;
+            }
+        }
+        finally {
+            deflater.end();
+        }
+
+        final byte[] chunkTableBytes = chunkTable.array();
+        final byte[] compressedChunksBytes = compressedChunks.toByteArray();
+
+        final MutableByteArray compressedBlock = new MutableByteArray(chunkTableBytes.length + compressedChunksBytes.length);
+        compressedBlock.setBytes(0, chunkTableBytes);
+        compressedBlock.setBytes(chunkTableBytes.length, compressedChunksBytes);
+        return compressedBlock;
+    }
+
+    /**
+     * Returns byteCount bytes of the uncompressed Block, starting at diskOffset, decompressing only the chunks covering the range.
+     *  Returns null if the range extends beyond the end of the Block or the compressed Block could not be read.
+     */
+    public ByteArray read(final Reader reader, final Long diskOffset, final Integer byteCount) {
+        final ChunkTable chunkTable = _readChunkTable(reader);
+        if (chunkTable == null) { return null; }
+
+        final long endOffset = (diskOffset + byteCount);
+        if ( (diskOffset < 0L) || (byteCount < 0) || (endOffset > chunkTable.getUncompressedByteCount()) ) { return null; }
+
+        final byte[] bytes = new byte[byteCount];
+        if (byteCount == 0) { return MutableByteArray.wrap(bytes); }
+
+        int firstChunkIndex = -1;
+        int lastChunkIndex = -1;
+        for (int i = 0; i < chunkTable.chunkCount; ++i) {
+            final long chunkStartOffset = chunkTable.uncompressedOffsets[i];
+            final long chunkEndOffset = (chunkStartOffset + chunkTable.uncompressedByteCounts[i]);
+            if ( (chunkEndOffset > diskOffset) && (chunkStartOffset < endOffset) ) {
+                if (firstChunkIndex < 0) { firstChunkIndex = i; }
+                lastChunkIndex = i;
+            }
+        }
+        if (firstChunkIndex < 0) { return null; }
+
+        // The covering chunks are contiguous, so they are read with a single read...
+        final long compressedStartOffset = chunkTable.compressedOffsets[firstChunkIndex];
+        final long compressedEndOffset = (chunkTable.compressedOffsets[lastChunkIndex] + chunkTable.compressedByteCounts[lastChunkIndex]);
+        final byte[] compressedBytes = reader.read(compressedStartOffset, (int) (compressedEndOffset - compressedStartOffset));
+        if (compressedBytes == null) { return null; }
+
+        for (int i = firstChunkIndex; i <= lastChunkIndex; ++i) {
+            final int compressedOffset = (int) (chunkTable.compressedOffsets[i] - compressedStartOffset);
+            final byte[] chunkBytes = _decompressChunk(compressedBytes, compressedOffset, chunkTable.compressedByteCounts[i], chunkTable.uncompressedByteCounts[i]);
+            if (chunkBytes == null) { return null; }
+
+            final long chunkStartOffset = chunkTable.uncompressedOffsets[i];
+            final long copyStartOffset = Math.max(chunkStartOffset, diskOffset);
+            final long copyEndOffset = Math.min((chunkStartOffset + chunkBytes.length), endOffset);
+            System.arraycopy(chunkBytes, (int) (copyStartOffset - chunkStartOffset), bytes, (int) (copyStartOffset - diskOffset), (int) (copyEndOffset - copyStartOffset));
+        }
+
+        return MutableByteArray.wrap(bytes);
+    }
+
+    /**
+     * Returns the entire uncompressed Block, or null if the compressed Block could not be read.
+     */
+    public ByteArray decompress(final Reader reader) {
+        final ChunkTable chunkTable = _readChunkTable(reader);
+        if (chunkTable == null) { return null; }
+
+        return this.read(reader, 0L, (int) chunkTable.getUncompressedByteCount());
+    }
+}
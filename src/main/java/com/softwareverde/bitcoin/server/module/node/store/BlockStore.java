@@ -11,5 +11,29 @@ public interface BlockStore {
     void removeBlock(Sha256Hash blockHash, Long blockHeight);
     MutableBlockHeader getBlockHeader(Sha256Hash blockHash, Long blockHeight);
     MutableBlock getBlock(Sha256Hash blockHash, Long blockHeight);
+
+    /**
+     * Returns the serialized Block exactly as it is stored on disk, without inflating it.
+     *  Returns null if the Block is not stored.
+     */
+    ByteArray readRawBlock(Sha256Hash blockHash, Long blockHeight);
+
     ByteArray readFromBlock(Sha256Hash blockHash, Long blockHeight, Long diskOffset, Integer byteCount);
+
+    /**
+     * Stores the Block's undo data (i.e. the serialized BlockUndoData), which is consumed when the Block is disconnected during a reorg.
+     *  Undo data is removed along with its Block via BlockStore::removeBlock.
+     */
+    Boolean storeBlockUndoData(Sha256Hash blockHash, Long blockHeight, ByteArray undoData);
+
+    /**
+     * Returns the Block's undo data, or null if it was not stored.
+     */
+    ByteArray getBlockUndoData(Sha256Hash blockHash, Long blockHeight);
+
+    /**
+     * Returns the index of the Block's Transactions, which is stored along with the Block via BlockStore::storeBlock.
+     *  Returns null if the index was not stored (i.e. the Block was stored by a previous version).
+     */
+    BlockTransactionIndex getBlockTransactionIndex(Sha256Hash blockHash, Long blockHeight);
 }
@@ -8,23 +8,45 @@ import com.softwareverde.bitcoin.block.header.BlockHeaderInflater;
 import com.softwareverde.bitcoin.block.header.MutableBlockHeader;
 import com.softwareverde.bitcoin.inflater.BlockHeaderInflaters;
 import com.softwareverde.bitcoin.inflater.BlockInflaters;
-import com.softwareverde.bitcoin.util.ByteBuffer;
 import com.softwareverde.bitcoin.util.IoUtil;
 import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.logging.Logger;
 
 import java.io.File;
-import java.io.RandomAccessFile;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores Blocks within append-only pack files (see PackedBlockFileStore).
+ *  Blocks stored by previous versions as one file per Block (within "<blockDataDirectory>/<blockHeight / 2016>/<blockHash>")
+ *  remain readable; those Blocks are served from their original files and are not migrated.
+ *  Offsets provided to BlockStore::readFromBlock are relative to the start of the Block, regardless of where it is stored.
+ *  Each stored Block is accompanied by its BlockTransactionIndex (within "<blockDataDirectory>/index/<blockHeight / 2016>/<blockHash>").
+ */
+public class BlockStoreCore implements BlockStore, AutoCloseable {
+    public static final Integer MAX_OPEN_BLOCK_FILE_COUNT = 256;
+    public static final Long MAX_CACHED_TRANSACTION_INDEX_BYTE_COUNT = (32L * 1024L * 1024L);
+    public static final String PACKED_BLOCK_DIRECTORY_NAME = "packed";
+    public static final String UNDO_DATA_DIRECTORY_NAME = "undo";
+    public static final String TRANSACTION_INDEX_DIRECTORY_NAME = "index";
 
-public class BlockStoreCore implements BlockStore {
     protected final BlockHeaderInflaters _blockHeaderInflaters;
     protected final BlockInflaters _blockInflaters;
     protected final String _blockDataDirectory;
     protected final Integer _blocksPerDirectoryCount = 2016; // About 2 weeks...
 
-    protected final ByteBuffer _byteBuffer = new ByteBuffer();
+    protected final FileChannelCache _fileChannelCache = new FileChannelCache(MAX_OPEN_BLOCK_FILE_COUNT);
+    protected final LinkedHashMap<Sha256Hash, BlockTransactionIndex> _blockTransactionIndexes = new LinkedHashMap<Sha256Hash, BlockTransactionIndex>(16, 0.75F, true); // Least-recently-used; guarded by its own monitor...
+    protected long _cachedBlockTransactionIndexByteCount = 0L; // The total byte count of the indexes within _blockTransactionIndexes; guarded by _blockTransactionIndexes.
+    protected final PackedBlockFileStore _packedBlockFileStore;
+    protected final BlockCompressor _blockCompressor = new BlockCompressor();
+    protected volatile Boolean _blockCompressionIsEnabled = false;
 
     protected String _getBlockDataDirectory(final Long blockHeight) {
         final String blockDataDirectory = _blockDataDirectory;
@@ -41,53 +63,184 @@ public class BlockStoreCore implements BlockStore {
         return (blockHeightDirectory + "/" + blockHash);
     }
 
-    protected ByteArray _readFromBlock(final Sha256Hash blockHash, final Long blockHeight, final Long diskOffset, final Integer byteCount) {
+    protected String _getBlockUndoDataDirectory(final Long blockHeight) {
         if (_blockDataDirectory == null) { return null; }
 
-        final String blockPath = _getBlockDataPath(blockHash, blockHeight);
-        if (blockPath == null) { return null; }
+        final long blockHeightDirectory = (blockHeight / _blocksPerDirectoryCount);
+        return (_blockDataDirectory + "/" + UNDO_DATA_DIRECTORY_NAME + "/" + blockHeightDirectory);
+    }
 
-        if (! IoUtil.fileExists(blockPath)) { return null; }
+    protected String _getBlockUndoDataPath(final Sha256Hash blockHash, final Long blockHeight) {
+        if (_blockDataDirectory == null) { return null; }
 
-        try {
-            final MutableByteArray byteArray = new MutableByteArray(byteCount);
+        final String blockUndoDataDirectory = _getBlockUndoDataDirectory(blockHeight);
+        return (blockUndoDataDirectory + "/" + blockHash);
+    }
 
-            try (final RandomAccessFile file = new RandomAccessFile(new File(blockPath), "r")) {
-                file.seek(diskOffset);
+    protected String _getBlockTransactionIndexDirectory(final Long blockHeight) {
+        if (_blockDataDirectory == null) { return null; }
 
-                final byte[] buffer;
-                synchronized (_byteBuffer) {
-                    buffer = _byteBuffer.getRecycledBuffer();
-                }
+        final long blockHeightDirectory = (blockHeight / _blocksPerDirectoryCount);
+        return (_blockDataDirectory + "/" + TRANSACTION_INDEX_DIRECTORY_NAME + "/" + blockHeightDirectory);
+    }
 
-                int totalBytesRead = 0;
-                while (totalBytesRead < byteCount) {
-                    final int byteCountRead = file.read(buffer);
-                    if (byteCountRead < 0) { break; }
+    protected String _getBlockTransactionIndexPath(final Sha256Hash blockHash, final Long blockHeight) {
+        if (_blockDataDirectory == null) { return null; }
 
-                    byteArray.setBytes(totalBytesRead, buffer);
-                    totalBytesRead += byteCountRead;
-                }
+        final String blockTransactionIndexDirectory = _getBlockTransactionIndexDirectory(blockHeight);
+        return (blockTransactionIndexDirectory + "/" + blockHash);
+    }
 
-                synchronized (_byteBuffer) {
-                    _byteBuffer.recycleBuffer(buffer);
+    /**
+     * Writes the Block's BlockTransactionIndex, unless it already exists.
+     *  Failing to store the index is not fatal; Transactions of Blocks without an index are located via the database.
+     */
+    protected void _storeBlockTransactionIndex(final Block block, final Long blockHeight, final BlockDeflater blockDeflater) {
+        final Sha256Hash blockHash = block.getHash();
+        final String blockTransactionIndexPath = _getBlockTransactionIndexPath(blockHash, blockHeight);
+        if (! IoUtil.isEmpty(blockTransactionIndexPath)) { return; }
+
+        { // Create the directory, if necessary...
+            final String indexDirectory = _getBlockTransactionIndexDirectory(blockHeight);
+            final File directory = new File(indexDirectory);
+            if (! directory.exists()) {
+                final boolean mkdirSuccessful = directory.mkdirs();
+                if (! mkdirSuccessful) {
+                    Logger.warn("Unable to create block transaction index directory: " + indexDirectory);
+                    return;
                 }
+            }
+        }
+
+        final BlockTransactionIndex blockTransactionIndex = BlockTransactionIndex.fromBlock(block, blockDeflater);
+        if (! IoUtil.putFileContents(blockTransactionIndexPath, blockTransactionIndex.getBytes())) {
+            Logger.warn("Unable to store block transaction index: " + blockHash);
+        }
+    }
+
+    /**
+     * Caches the parsed index, evicting the least-recently-used indexes until the cache is within MAX_CACHED_TRANSACTION_INDEX_BYTE_COUNT.
+     *  Indexes are bounded by their size rather than their count since a large Block's index may be several megabytes.
+     *  Must be called while synchronized on _blockTransactionIndexes.
+     */
+    protected void _cacheBlockTransactionIndex(final Sha256Hash blockHash, final BlockTransactionIndex blockTransactionIndex) {
+        final BlockTransactionIndex replacedBlockTransactionIndex = _blockTransactionIndexes.put(blockHash, blockTransactionIndex);
+        if (replacedBlockTransactionIndex != null) {
+            _cachedBlockTransactionIndexByteCount -= replacedBlockTransactionIndex.getByteCount();
+        }
+        _cachedBlockTransactionIndexByteCount += blockTransactionIndex.getByteCount();
+
+        final Iterator<Map.Entry<Sha256Hash, BlockTransactionIndex>> iterator = _blockTransactionIndexes.entrySet().iterator();
+        while ( (_cachedBlockTransactionIndexByteCount > MAX_CACHED_TRANSACTION_INDEX_BYTE_COUNT) && iterator.hasNext() ) {
+            final Map.Entry<Sha256Hash, BlockTransactionIndex> eldestEntry = iterator.next();
+            if (eldestEntry.getValue() == blockTransactionIndex) { break; } // Retain the newly cached index, even if it alone exceeds the limit...
+
+            _cachedBlockTransactionIndexByteCount -= eldestEntry.getValue().getByteCount();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Must be called while synchronized on _blockTransactionIndexes.
+     */
+    protected void _uncacheBlockTransactionIndex(final Sha256Hash blockHash) {
+        final BlockTransactionIndex blockTransactionIndex = _blockTransactionIndexes.remove(blockHash);
+        if (blockTransactionIndex != null) {
+            _cachedBlockTransactionIndexByteCount -= blockTransactionIndex.getByteCount();
+        }
+    }
+
+    protected PackedBlockFileStore.BlockLocation _getPackedBlockLocation(final Sha256Hash blockHash) {
+        if (_packedBlockFileStore == null) { return null; }
+        return _packedBlockFileStore.getBlockLocation(blockHash);
+    }
+
+    protected BlockCompressor.Reader _newCompressedBlockReader(final PackedBlockFileStore.BlockLocation blockLocation) {
+        final String packFilePath = _packedBlockFileStore.getPackFilePath(blockLocation.packFileIndex);
+        return new BlockCompressor.Reader() {
+            @Override
+            public byte[] read(final Long diskOffset, final Integer byteCount) {
+                if ( (diskOffset < 0L) || ((diskOffset + byteCount) > blockLocation.byteCount) ) { return null; }
+                return _fileChannelCache.read(packFilePath, (blockLocation.diskOffset + diskOffset), byteCount);
+            }
+        };
+    }
+
+    protected ByteArray _readFromBlock(final Sha256Hash blockHash, final Long blockHeight, final Long diskOffset, final Integer byteCount) {
+        if (_blockDataDirectory == null) { return null; }
 
-                if (totalBytesRead < byteCount) { return null; }
+        final PackedBlockFileStore.BlockLocation blockLocation = _getPackedBlockLocation(blockHash);
+        if (blockLocation != null) {
+            if (blockLocation.isCompressed) {
+                final BlockCompressor.Reader reader = _newCompressedBlockReader(blockLocation);
+                return _blockCompressor.read(reader, diskOffset, byteCount);
             }
 
-            return byteArray;
+            if ( (diskOffset < 0L) || ((diskOffset + byteCount) > blockLocation.byteCount) ) { return null; }
+
+            final String packFilePath = _packedBlockFileStore.getPackFilePath(blockLocation.packFileIndex);
+            final byte[] bytes = _fileChannelCache.read(packFilePath, (blockLocation.diskOffset + diskOffset), byteCount);
+            if (bytes == null) { return null; }
+
+            return MutableByteArray.wrap(bytes);
         }
-        catch (final Exception exception) {
-            Logger.warn(exception);
-            return null;
+
+        final String blockPath = _getBlockDataPath(blockHash, blockHeight);
+        if (blockPath == null) { return null; }
+
+        if (! IoUtil.fileExists(blockPath)) { return null; }
+
+        final byte[] bytes = _fileChannelCache.read(blockPath, diskOffset, byteCount);
+        if (bytes == null) { return null; }
+
+        return MutableByteArray.wrap(bytes);
+    }
+
+    /**
+     * Returns the Block's complete serialization, or null if the Block is not stored.
+     */
+    protected ByteArray _readBlock(final Sha256Hash blockHash, final Long blockHeight) {
+        if (_blockDataDirectory == null) { return null; }
+
+        final PackedBlockFileStore.BlockLocation blockLocation = _getPackedBlockLocation(blockHash);
+        if (blockLocation != null) {
+            if (blockLocation.isCompressed) {
+                final BlockCompressor.Reader reader = _newCompressedBlockReader(blockLocation);
+                return _blockCompressor.decompress(reader);
+            }
+
+            return _readFromBlock(blockHash, blockHeight, 0L, blockLocation.byteCount);
         }
+
+        final String blockPath = _getBlockDataPath(blockHash, blockHeight);
+        if (blockPath == null) { return null; }
+
+        if (! IoUtil.fileExists(blockPath)) { return null; }
+        final byte[] blockBytes = IoUtil.getFileContents(blockPath);
+        if (blockBytes == null) { return null; }
+
+        return MutableByteArray.wrap(blockBytes);
     }
 
     public BlockStoreCore(final String blockDataDirectory, final BlockHeaderInflaters blockHeaderInflaters, final BlockInflaters blockInflaters) {
         _blockDataDirectory = blockDataDirectory;
         _blockInflaters = blockInflaters;
         _blockHeaderInflaters = blockHeaderInflaters;
+
+        if (blockDataDirectory != null) {
+            final PackedBlockFileStore packedBlockFileStore = new PackedBlockFileStore(blockDataDirectory + "/" + PACKED_BLOCK_DIRECTORY_NAME);
+            try {
+                packedBlockFileStore.open();
+            }
+            catch (final IOException exception) {
+                Logger.warn("Unable to open packed block files; falling back to one file per block.", exception);
+                packedBlockFileStore.close();
+            }
+            _packedBlockFileStore = (packedBlockFileStore.isOpen() ? packedBlockFileStore : null);
+        }
+        else {
+            _packedBlockFileStore = null;
+        }
     }
 
     @Override
@@ -100,8 +253,32 @@ public class BlockStoreCore implements BlockStore {
         final String blockPath = _getBlockDataPath(blockHash, blockHeight);
         if (blockPath == null) { return false; }
 
+        final BlockDeflater blockDeflater = _blockInflaters.getBlockDeflater();
+        _storeBlockTransactionIndex(block, blockHeight, blockDeflater); // Also indexes Blocks that were stored before the index existed.
+
+        if (_getPackedBlockLocation(blockHash) != null) { return true; }
         if (! IoUtil.isEmpty(blockPath)) { return true; }
 
+        final ByteArray byteArray = blockDeflater.toBytes(block);
+
+        if (_packedBlockFileStore != null) {
+            try {
+                if (_blockCompressionIsEnabled) {
+                    final List<Long> transactionOffsets = BlockCompressor.getTransactionOffsets(block, blockDeflater);
+                    final ByteArray compressedBytes = _blockCompressor.compress(byteArray, transactionOffsets);
+                    _packedBlockFileStore.storeBlock(blockHash, compressedBytes, true);
+                }
+                else {
+                    _packedBlockFileStore.storeBlock(blockHash, byteArray, false);
+                }
+                return true;
+            }
+            catch (final IOException exception) {
+                Logger.warn("Unable to store packed block: " + blockHash, exception);
+                return false;
+            }
+        }
+
         { // Create the directory, if necessary...
             final String dataDirectory = _getBlockDataDirectory(blockHeight);
             final File directory = new File(dataDirectory);
@@ -114,9 +291,6 @@ public class BlockStoreCore implements BlockStore {
             }
         }
 
-        final BlockDeflater blockDeflater = _blockInflaters.getBlockDeflater();
-        final ByteArray byteArray = blockDeflater.toBytes(block);
-
         return IoUtil.putFileContents(blockPath, byteArray);
     }
 
@@ -124,11 +298,42 @@ public class BlockStoreCore implements BlockStore {
     public void removeBlock(final Sha256Hash blockHash, final Long blockHeight) {
         if (_blockDataDirectory == null) { return; }
 
+        { // Remove the Block's undo data, if any...
+            final String blockUndoDataPath = _getBlockUndoDataPath(blockHash, blockHeight);
+            if (IoUtil.fileExists(blockUndoDataPath)) {
+                final File file = new File(blockUndoDataPath);
+                file.delete();
+            }
+        }
+
+        { // Remove the Block's transaction index, if any...
+            synchronized (_blockTransactionIndexes) {
+                _uncacheBlockTransactionIndex(blockHash);
+            }
+
+            final String blockTransactionIndexPath = _getBlockTransactionIndexPath(blockHash, blockHeight);
+            if (IoUtil.fileExists(blockTransactionIndexPath)) {
+                final File file = new File(blockTransactionIndexPath);
+                file.delete();
+            }
+        }
+
+        if (_getPackedBlockLocation(blockHash) != null) {
+            try {
+                _packedBlockFileStore.removeBlock(blockHash);
+            }
+            catch (final IOException exception) {
+                Logger.warn("Unable to remove packed block: " + blockHash, exception);
+            }
+        }
+
         final String blockPath = _getBlockDataPath(blockHash, blockHeight);
         if (blockPath == null) { return; }
 
         if (! IoUtil.fileExists(blockPath)) { return; }
 
+        _fileChannelCache.closeFileChannel(blockPath);
+
         final File file = new File(blockPath);
         file.delete();
     }
@@ -137,10 +342,6 @@ public class BlockStoreCore implements BlockStore {
     public MutableBlockHeader getBlockHeader(final Sha256Hash blockHash, final Long blockHeight) {
         if (_blockDataDirectory == null) { return null; }
 
-        final String blockPath = _getBlockDataPath(blockHash, blockHeight);
-        if (blockPath == null) { return null; }
-
-        if (! IoUtil.fileExists(blockPath)) { return null; }
         final ByteArray blockBytes = _readFromBlock(blockHash, blockHeight, 0L, BlockHeaderInflater.BLOCK_HEADER_BYTE_COUNT);
         if (blockBytes == null) { return null; }
 
@@ -150,25 +351,104 @@ public class BlockStoreCore implements BlockStore {
 
     @Override
     public MutableBlock getBlock(final Sha256Hash blockHash, final Long blockHeight) {
-        if (_blockDataDirectory == null) { return null; }
-
-        final String blockPath = _getBlockDataPath(blockHash, blockHeight);
-        if (blockPath == null) { return null; }
-
-        if (! IoUtil.fileExists(blockPath)) { return null; }
-        final ByteArray blockBytes = MutableByteArray.wrap(IoUtil.getFileContents(blockPath));
+        final ByteArray blockBytes = _readBlock(blockHash, blockHeight);
         if (blockBytes == null) { return null; }
 
         final BlockInflater blockInflater = _blockInflaters.getBlockInflater();
         return blockInflater.fromBytes(blockBytes);
     }
 
+    @Override
+    public ByteArray readRawBlock(final Sha256Hash blockHash, final Long blockHeight) {
+        return _readBlock(blockHash, blockHeight);
+    }
+
     @Override
     public ByteArray readFromBlock(final Sha256Hash blockHash, final Long blockHeight, final Long diskOffset, final Integer byteCount) {
         return _readFromBlock(blockHash, blockHeight, diskOffset, byteCount);
     }
 
+    @Override
+    public Boolean storeBlockUndoData(final Sha256Hash blockHash, final Long blockHeight, final ByteArray undoData) {
+        if (_blockDataDirectory == null) { return false; }
+
+        { // Create the directory, if necessary...
+            final String undoDataDirectory = _getBlockUndoDataDirectory(blockHeight);
+            final File directory = new File(undoDataDirectory);
+            if (! directory.exists()) {
+                final boolean mkdirSuccessful = directory.mkdirs();
+                if (! mkdirSuccessful) {
+                    Logger.warn("Unable to create block undo data directory: " + undoDataDirectory);
+                    return false;
+                }
+            }
+        }
+
+        final String blockUndoDataPath = _getBlockUndoDataPath(blockHash, blockHeight);
+        return IoUtil.putFileContents(blockUndoDataPath, undoData);
+    }
+
+    @Override
+    public ByteArray getBlockUndoData(final Sha256Hash blockHash, final Long blockHeight) {
+        if (_blockDataDirectory == null) { return null; }
+
+        final String blockUndoDataPath = _getBlockUndoDataPath(blockHash, blockHeight);
+        if (! IoUtil.fileExists(blockUndoDataPath)) { return null; }
+
+        final byte[] undoData = IoUtil.getFileContents(blockUndoDataPath);
+        if (undoData == null) { return null; }
+
+        return MutableByteArray.wrap(undoData);
+    }
+
+    @Override
+    public BlockTransactionIndex getBlockTransactionIndex(final Sha256Hash blockHash, final Long blockHeight) {
+        if (_blockDataDirectory == null) { return null; }
+
+        synchronized (_blockTransactionIndexes) {
+            final BlockTransactionIndex blockTransactionIndex = _blockTransactionIndexes.get(blockHash);
+            if (blockTransactionIndex != null) { return blockTransactionIndex; }
+        }
+
+        final String blockTransactionIndexPath = _getBlockTransactionIndexPath(blockHash, blockHeight);
+        if (! IoUtil.fileExists(blockTransactionIndexPath)) { return null; }
+
+        final byte[] bytes = IoUtil.getFileContents(blockTransactionIndexPath); // Index files are read onto the heap rather than mapped; the cache is bounded by their byte count...
+        if (bytes == null) {
+            Logger.debug("Unable to read block transaction index: " + blockHash);
+            return null;
+        }
+
+        final BlockTransactionIndex blockTransactionIndex = BlockTransactionIndex.wrap(ByteBuffer.wrap(bytes));
+        if (blockTransactionIndex == null) { return null; }
+
+        synchronized (_blockTransactionIndexes) {
+            _cacheBlockTransactionIndex(blockHash, blockTransactionIndex);
+        }
+        return blockTransactionIndex;
+    }
+
+    /**
+     * When enabled, Blocks stored within pack files are compressed (see BlockCompressor).
+     *  Previously stored Blocks are unaffected; compressed and uncompressed Blocks may be read regardless of this setting.
+     */
+    public void setBlockCompressionEnabled(final Boolean blockCompressionIsEnabled) {
+        _blockCompressionIsEnabled = blockCompressionIsEnabled;
+    }
+
     public String getBlockDataDirectory() {
         return _blockDataDirectory;
     }
+
+    /**
+     * Syncs and closes the pack files, and closes the block files held open for random reads.
+     */
+    @Override
+    public void close() {
+        if (_packedBlockFileStore != null) {
+            _packedBlockFileStore.close();
+        }
+
+        _fileChannelCache.close();
+    }
 }
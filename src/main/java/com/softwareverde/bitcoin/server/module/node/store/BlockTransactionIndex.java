@@ -0,0 +1,181 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockDeflater;
+import com.softwareverde.bitcoin.block.header.BlockHeaderInflater;
+import com.softwareverde.bitcoin.block.merkleroot.Hashable;
+import com.softwareverde.bitcoin.block.merkleroot.MerkleTreeNode;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionDeflater;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A dense, per-Block index of the Block's Transactions, stored alongside the Block (see BlockStore::getBlockTransactionIndex).
+ *  The index locates each Transaction within the serialized Block without querying the block_transactions table, and
+ *  provides the Block's Transaction hashes (i.e. for merkle proofs) without inflating the Block.
+ *
+ *  Index format:
+ *      [4] Transaction Count
+ *      [40 * Transaction Count] For each Transaction, in Block order: [32] Transaction Hash, [4] Disk Offset, [4] Byte Count
+ *  Disk offsets are relative to the start of the (uncompressed) Block, as expected by BlockStore::readFromBlock.
+ */
+public class BlockTransactionIndex {
+    public static final Integer ENTRY_BYTE_COUNT = (Sha256Hash.BYTE_COUNT + 4 + 4);
+    protected static final Integer TRANSACTION_COUNT_BYTE_COUNT = 4;
+
+    protected static class TransactionHash implements Hashable {
+        protected final Sha256Hash _hash;
+
+        public TransactionHash(final Sha256Hash hash) {
+            _hash = hash;
+        }
+
+        @Override
+        public Sha256Hash getHash() {
+            return _hash;
+        }
+    }
+
+    /**
+     * Creates the index for the Block.
+     */
+    public static BlockTransactionIndex fromBlock(final Block block, final BlockDeflater blockDeflater) {
+        final TransactionDeflater transactionDeflater = blockDeflater.getTransactionDeflater();
+        final List<Transaction> transactions = block.getTransactions();
+        final int transactionCount = transactions.getCount();
+
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(TRANSACTION_COUNT_BYTE_COUNT + (transactionCount * ENTRY_BYTE_COUNT));
+        byteBuffer.putInt(transactionCount);
+
+        long diskOffset = (BlockHeaderInflater.BLOCK_HEADER_BYTE_COUNT + ByteUtil.variableLengthIntegerToBytes(transactionCount).length);
+        for (final Transaction transaction : transactions) {
+            final Sha256Hash transactionHash = transaction.getHash();
+            final int byteCount = transactionDeflater.getByteCount(transaction);
+
+            byteBuffer.put(transactionHash.getBytes());
+            byteBuffer.putInt((int) diskOffset);
+            byteBuffer.putInt(byteCount);
+            diskOffset += byteCount;
+        }
+
+        byteBuffer.flip();
+        return new BlockTransactionIndex(byteBuffer);
+    }
+
+    /**
+     * Wraps a serialized index (i.e. the contents of an index file).
+     *  Returns null if the buffer is not a complete index.
+     */
+    public static BlockTransactionIndex wrap(final ByteBuffer byteBuffer) {
+        if (byteBuffer.remaining() < TRANSACTION_COUNT_BYTE_COUNT) { return null; }
+
+        final int transactionCount = byteBuffer.getInt(byteBuffer.position());
+        if (transactionCount < 0) { return null; }
+
+        final long expectedByteCount = (TRANSACTION_COUNT_BYTE_COUNT + (((long) transactionCount) * ENTRY_BYTE_COUNT));
+        if (byteBuffer.remaining() != expectedByteCount) { return null; }
+
+        return new BlockTransactionIndex(byteBuffer.slice());
+    }
+
+    protected final ByteBuffer _byteBuffer;
+    protected final int _transactionCount;
+
+    protected int _getEntryOffset(final int transactionIndex) {
+        return (TRANSACTION_COUNT_BYTE_COUNT + (transactionIndex * ENTRY_BYTE_COUNT));
+    }
+
+    protected BlockTransactionIndex(final ByteBuffer byteBuffer) {
+        _byteBuffer = byteBuffer;
+        _transactionCount = byteBuffer.getInt(0);
+    }
+
+    /**
+     * Returns the size of the serialized index, in bytes.
+     */
+    public Integer getByteCount() {
+        return _byteBuffer.limit();
+    }
+
+    public Integer getTransactionCount() {
+        return _transactionCount;
+    }
+
+    public Sha256Hash getTransactionHash(final Integer transactionIndex) {
+        final int entryOffset = _getEntryOffset(transactionIndex);
+        final byte[] bytes = new byte[Sha256Hash.BYTE_COUNT];
+        for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+            bytes[i] = _byteBuffer.get(entryOffset + i);
+        }
+        return Sha256Hash.wrap(bytes);
+    }
+
+    public Long getDiskOffset(final Integer transactionIndex) {
+        final int entryOffset = _getEntryOffset(transactionIndex);
+        return (_byteBuffer.getInt(entryOffset + Sha256Hash.BYTE_COUNT) & 0xFFFFFFFFL);
+    }
+
+    public Integer getByteCount(final Integer transactionIndex) {
+        final int entryOffset = _getEntryOffset(transactionIndex);
+        return _byteBuffer.getInt(entryOffset + Sha256Hash.BYTE_COUNT + 4);
+    }
+
+    /**
+     * Returns the index of the Transaction within the Block, or null if the Block does not contain the Transaction.
+     *  Entries are compared by their first 8 bytes before being compared in full.
+     */
+    public Integer indexOf(final Sha256Hash transactionHash) {
+        final byte[] hashBytes = transactionHash.getBytes();
+        final long hashPrefix = ByteUtil.bytesToLong(ByteUtil.copyBytes(hashBytes, 0, 8));
+
+        for (int transactionIndex = 0; transactionIndex < _transactionCount; ++transactionIndex) {
+            final int entryOffset = _getEntryOffset(transactionIndex);
+            if (_byteBuffer.getLong(entryOffset) != hashPrefix) { continue; }
+
+            boolean isMatch = true;
+            for (int i = 8; i < Sha256Hash.BYTE_COUNT; ++i) {
+                if (_byteBuffer.get(entryOffset + i) != hashBytes[i]) {
+                    isMatch = false;
+                    break;
+                }
+            }
+            if (isMatch) { return transactionIndex; }
+        }
+
+        return null;
+    }
+
+    public List<Sha256Hash> getTransactionHashes() {
+        final ImmutableListBuilder<Sha256Hash> transactionHashes = new ImmutableListBuilder<Sha256Hash>(_transactionCount);
+        for (int i = 0; i < _transactionCount; ++i) {
+            transactionHashes.add(this.getTransactionHash(i));
+        }
+        return transactionHashes.build();
+    }
+
+    /**
+     * Returns the merkle proof for the Transaction at transactionIndex, as provided by Block::getPartialMerkleTree.
+     */
+    public List<Sha256Hash> getPartialMerkleTree(final Integer transactionIndex) {
+        final MerkleTreeNode<TransactionHash> merkleTree = new MerkleTreeNode<TransactionHash>();
+        for (int i = 0; i < _transactionCount; ++i) {
+            merkleTree.addItem(new TransactionHash(this.getTransactionHash(i)));
+        }
+        return merkleTree.getPartialTree(transactionIndex);
+    }
+
+    public ByteArray getBytes() {
+        final byte[] bytes = new byte[_byteBuffer.limit()];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = _byteBuffer.get(i);
+        }
+        return MutableByteArray.wrap(bytes);
+    }
+}
@@ -0,0 +1,139 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, least-recently-used cache of read-only FileChannels.
+ *  Reads are positional (FileChannel::read(ByteBuffer, position)), so concurrent readers of the same file do not contend
+ *  on a shared file pointer; the cache's monitor is only held while looking up or inserting a channel.
+ *  When a channel is evicted while another thread is still reading from it, that read is retried with a newly opened channel.
+ */
+public class FileChannelCache implements AutoCloseable {
+    protected static final Integer MAX_READ_ATTEMPT_COUNT = 2;
+
+    protected final Integer _maxOpenFileCount;
+    protected final LinkedHashMap<String, FileChannel> _fileChannels;
+
+    protected static void _closeFileChannel(final FileChannel fileChannel) {
+        try {
+            fileChannel.close();
+        }
+        catch (final IOException exception) {
+            Logger.debug(exception);
+        }
+    }
+
+    protected FileChannel _getFileChannel(final String filePath) throws IOException {
+        synchronized (_fileChannels) {
+            final FileChannel fileChannel = _fileChannels.get(filePath);
+            if ( (fileChannel != null) && fileChannel.isOpen() ) {
+                return fileChannel;
+            }
+        }
+
+        // Opening the file is done outside of the lock so that a slow open does not stall reads of other (cached) files...
+        final FileChannel newFileChannel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.READ);
+
+        synchronized (_fileChannels) {
+            final FileChannel existingFileChannel = _fileChannels.get(filePath);
+            if ( (existingFileChannel != null) && existingFileChannel.isOpen() ) {
+                _closeFileChannel(newFileChannel);
+                return existingFileChannel;
+            }
+
+            _fileChannels.put(filePath, newFileChannel);
+            return newFileChannel;
+        }
+    }
+
+    public FileChannelCache(final Integer maxOpenFileCount) {
+        _maxOpenFileCount = maxOpenFileCount;
+        _fileChannels = new LinkedHashMap<String, FileChannel>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, FileChannel> eldestEntry) {
+                if (this.size() <= _maxOpenFileCount) { return false; }
+
+                _closeFileChannel(eldestEntry.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Reads byteCount bytes from the file, starting at diskOffset.
+     *  Returns null if the file does not exist or contains fewer than diskOffset + byteCount bytes.
+     */
+    public byte[] read(final String filePath, final Long diskOffset, final Integer byteCount) {
+        final byte[] bytes = new byte[byteCount];
+
+        for (int i = 0; i < MAX_READ_ATTEMPT_COUNT; ++i) {
+            try {
+                final FileChannel fileChannel = _getFileChannel(filePath);
+
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+                long position = diskOffset;
+                while (byteBuffer.hasRemaining()) {
+                    final int byteCountRead = fileChannel.read(byteBuffer, position);
+                    if (byteCountRead < 0) { return null; }
+
+                    position += byteCountRead;
+                }
+
+                return bytes;
+            }
+            catch (final ClosedChannelException exception) {
+                // The channel was evicted (and closed) by another thread; retry with a newly opened channel...
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            catch (final IOException exception) {
+                Logger.warn(exception);
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Closes the file's cached channel, if one is open.
+     *  Must be invoked before the file is deleted or replaced.
+     */
+    public void closeFileChannel(final String filePath) {
+        final FileChannel fileChannel;
+        synchronized (_fileChannels) {
+            fileChannel = _fileChannels.remove(filePath);
+        }
+
+        if (fileChannel != null) {
+            _closeFileChannel(fileChannel);
+        }
+    }
+
+    public Integer getOpenFileCount() {
+        synchronized (_fileChannels) {
+            return _fileChannels.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (_fileChannels) {
+            for (final FileChannel fileChannel : _fileChannels.values()) {
+                _closeFileChannel(fileChannel);
+            }
+            _fileChannels.clear();
+        }
+    }
+}
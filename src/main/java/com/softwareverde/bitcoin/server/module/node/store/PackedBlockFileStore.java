@@ -0,0 +1,290 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores Blocks within large, append-only pack files instead of one file per Block.
+ *  Each Block's location (pack file, offset, and length) is recorded within an append-only index file that is replayed on startup.
+ *  Removing a Block appends a tombstone to the index; the Block's bytes are not reclaimed from its pack file.
+ *  Writes are not synced individually; the pack file and index are synced together every BLOCKS_PER_SYNC_COUNT Blocks,
+ *  when a pack file is rolled over, and when the store is closed.  Index records that reference unsynced (i.e. truncated)
+ *  pack data are discarded during startup.
+ */
+public class PackedBlockFileStore implements AutoCloseable {
+    public static class BlockLocation {
+        public final Integer packFileIndex;
+        public final Long diskOffset;
+        public final Integer byteCount; // The number of bytes stored within the pack file, which is the compressed size if the Block is compressed.
+        public final Boolean isCompressed;
+
+        public BlockLocation(final Integer packFileIndex, final Long diskOffset, final Integer byteCount, final Boolean isCompressed) {
+            this.packFileIndex = packFileIndex;
+            this.diskOffset = diskOffset;
+            this.byteCount = byteCount;
+            this.isCompressed = isCompressed;
+        }
+    }
+
+    public static final Long MAX_PACK_FILE_BYTE_COUNT = (128L * 1024L * 1024L);
+    public static final Integer BLOCKS_PER_SYNC_COUNT = 16;
+
+    protected static final String INDEX_FILE_NAME = "blocks.idx";
+    protected static final Integer INDEX_RECORD_BYTE_COUNT = (Sha256Hash.BYTE_COUNT + 4 + 8 + 4 + 4);
+    protected static final Integer COMPRESSED_FLAG = 0x01;
+
+    protected final String _packFileDirectory;
+    protected final Long _maxPackFileByteCount;
+    protected final ConcurrentHashMap<Sha256Hash, BlockLocation> _blockLocations = new ConcurrentHashMap<Sha256Hash, BlockLocation>();
+
+    protected FileChannel _indexFile;
+    protected Long _indexFileByteCount = 0L;
+    protected FileChannel _packFile;
+    protected Integer _packFileIndex = 0;
+    protected Long _packFileByteCount = 0L;
+    protected Integer _unsyncedBlockCount = 0;
+
+    /**
+     * Writes the buffer at the provided position, independent of the FileChannel's current position.
+     *  If the write fails, the file is truncated back to the provided position so that the partially written bytes are discarded.
+     */
+    protected static void _writeFully(final FileChannel fileChannel, final ByteBuffer byteBuffer, final long position) throws IOException {
+        try {
+            long writePosition = position;
+            while (byteBuffer.hasRemaining()) {
+                writePosition += fileChannel.write(byteBuffer, writePosition);
+            }
+        }
+        catch (final IOException exception) {
+            try {
+                fileChannel.truncate(position);
+            }
+            catch (final IOException truncateException) {
+                exception.addSuppressed(truncateException);
+            }
+            throw exception;
+        }
+    }
+
+    protected static FileChannel _openForAppend(final String filePath) throws IOException {
+        final FileChannel fileChannel = FileChannel.open(new File(filePath).toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        fileChannel.position(fileChannel.size());
+        return fileChannel;
+    }
+
+    protected String _getIndexFilePath() {
+        return (_packFileDirectory + "/" + INDEX_FILE_NAME);
+    }
+
+    protected Long _getPackFileByteCount(final Integer packFileIndex) {
+        final File file = new File(this.getPackFilePath(packFileIndex));
+        if (! file.exists()) { return 0L; }
+        return file.length();
+    }
+
+    /**
+     * Replays the index file into memory.
+     *  Records that extend beyond the end of their pack file, and any trailing partial record, are discarded.
+     */
+    protected void _loadIndex() throws IOException {
+        final FileChannel indexFile = _openForAppend(_getIndexFilePath());
+        final long indexByteCount = indexFile.size();
+        final long validIndexByteCount = (indexByteCount - (indexByteCount % INDEX_RECORD_BYTE_COUNT));
+
+        final HashMap<Integer, Long> packFileByteCounts = new HashMap<Integer, Long>();
+        final ByteBuffer recordBuffer = ByteBuffer.allocate(INDEX_RECORD_BYTE_COUNT);
+        long position = 0L;
+        while (position < validIndexByteCount) {
+            recordBuffer.clear();
+            while (recordBuffer.hasRemaining()) {
+                final int byteCountRead = indexFile.read(recordBuffer, (position + recordBuffer.position()));
+                if (byteCountRead < 0) { throw new IOException("Unexpected end of block index."); }
+            }
+            recordBuffer.flip();
+            position += INDEX_RECORD_BYTE_COUNT;
+
+            final byte[] blockHashBytes = new byte[Sha256Hash.BYTE_COUNT];
+            recordBuffer.get(blockHashBytes);
+            final Sha256Hash blockHash = Sha256Hash.wrap(blockHashBytes);
+            final int packFileIndex = recordBuffer.getInt();
+            final long diskOffset = recordBuffer.getLong();
+            final int byteCount = recordBuffer.getInt();
+            final int flags = recordBuffer.getInt();
+
+            if (byteCount == 0) { // Tombstone...
+                _blockLocations.remove(blockHash);
+                continue;
+            }
+
+            Long packFileByteCount = packFileByteCounts.get(packFileIndex);
+            if (packFileByteCount == null) {
+                packFileByteCount = _getPackFileByteCount(packFileIndex);
+                packFileByteCounts.put(packFileIndex, packFileByteCount);
+            }
+
+            if ((diskOffset + byteCount) > packFileByteCount) {
+                Logger.debug("Discarding incomplete packed block: " + blockHash);
+                continue;
+            }
+
+            final boolean isCompressed = ((flags & COMPRESSED_FLAG) != 0);
+            _blockLocations.put(blockHash, new BlockLocation(packFileIndex, diskOffset, byteCount, isCompressed));
+            _packFileIndex = Math.max(_packFileIndex, packFileIndex);
+        }
+
+        if (validIndexByteCount != indexByteCount) {
+            indexFile.truncate(validIndexByteCount);
+        }
+        indexFile.position(validIndexByteCount);
+
+        _indexFile = indexFile;
+        _indexFileByteCount = validIndexByteCount;
+    }
+
+    protected void _openPackFile(final Integer packFileIndex) throws IOException {
+        _packFileIndex = packFileIndex;
+        _packFile = _openForAppend(this.getPackFilePath(packFileIndex));
+        _packFileByteCount = _packFile.size();
+    }
+
+    protected void _sync() throws IOException {
+        if (_packFile != null) {
+            _packFile.force(false);
+        }
+        if (_indexFile != null) {
+            _indexFile.force(false);
+        }
+        _unsyncedBlockCount = 0;
+    }
+
+    protected void _appendIndexRecord(final Sha256Hash blockHash, final Integer packFileIndex, final Long diskOffset, final Integer byteCount, final Boolean isCompressed) throws IOException {
+        final ByteBuffer recordBuffer = ByteBuffer.allocate(INDEX_RECORD_BYTE_COUNT);
+        recordBuffer.put(blockHash.getBytes());
+        recordBuffer.putInt(packFileIndex);
+        recordBuffer.putLong(diskOffset);
+        recordBuffer.putInt(byteCount);
+        recordBuffer.putInt(isCompressed ? COMPRESSED_FLAG : 0);
+        recordBuffer.flip();
+
+        _writeFully(_indexFile, recordBuffer, _indexFileByteCount);
+        _indexFileByteCount += INDEX_RECORD_BYTE_COUNT;
+    }
+
+    public PackedBlockFileStore(final String packFileDirectory) {
+        this(packFileDirectory, MAX_PACK_FILE_BYTE_COUNT);
+    }
+
+    public PackedBlockFileStore(final String packFileDirectory, final Long maxPackFileByteCount) {
+        _packFileDirectory = packFileDirectory;
+        _maxPackFileByteCount = maxPackFileByteCount;
+    }
+
+    /**
+     * Loads the index and opens the most recent pack file for appending.
+     *  Must be invoked before any other method.
+     */
+    public synchronized void open() throws IOException {
+        final File directory = new File(_packFileDirectory);
+        if (! directory.exists()) {
+            final boolean mkdirSuccessful = directory.mkdirs();
+            if (! mkdirSuccessful) {
+                throw new IOException("Unable to create packed block directory: " + _packFileDirectory);
+            }
+        }
+
+        _loadIndex();
+        _openPackFile(_packFileIndex);
+    }
+
+    public String getPackFilePath(final Integer packFileIndex) {
+        return (_packFileDirectory + "/" + String.format("blk%05d.dat", packFileIndex));
+    }
+
+    public BlockLocation getBlockLocation(final Sha256Hash blockHash) {
+        return _blockLocations.get(blockHash);
+    }
+
+    public BlockLocation storeBlock(final Sha256Hash blockHash, final ByteArray blockBytes) throws IOException {
+        return this.storeBlock(blockHash, blockBytes, false);
+    }
+
+    /**
+     * Appends the serialized Block to the current pack file, rolling over to a new pack file if the current one is full.
+     *  If isCompressed is set, blockBytes are expected to be the output of BlockCompressor::compress.
+     *  Returns the Block's existing location if the Block has already been stored.
+     */
+    public synchronized BlockLocation storeBlock(final Sha256Hash blockHash, final ByteArray blockBytes, final Boolean isCompressed) throws IOException {
+        final BlockLocation existingBlockLocation = _blockLocations.get(blockHash);
+        if (existingBlockLocation != null) { return existingBlockLocation; }
+
+        final int byteCount = blockBytes.getByteCount();
+        if ( (_packFileByteCount > 0L) && ((_packFileByteCount + byteCount) > _maxPackFileByteCount) ) {
+            _sync();
+            _packFile.close();
+            _openPackFile(_packFileIndex + 1);
+        }
+
+        final long diskOffset = _packFileByteCount;
+        _writeFully(_packFile, ByteBuffer.wrap(blockBytes.getBytes()), diskOffset); // Written at the recorded offset so that a failed write cannot shift subsequent Blocks...
+        _packFileByteCount += byteCount;
+
+        _appendIndexRecord(blockHash, _packFileIndex, diskOffset, byteCount, isCompressed);
+
+        _unsyncedBlockCount += 1;
+        if (_unsyncedBlockCount >= BLOCKS_PER_SYNC_COUNT) {
+            _sync();
+        }
+
+        final BlockLocation blockLocation = new BlockLocation(_packFileIndex, diskOffset, byteCount, isCompressed);
+        _blockLocations.put(blockHash, blockLocation);
+        return blockLocation;
+    }
+
+    public synchronized void removeBlock(final Sha256Hash blockHash) throws IOException {
+        final BlockLocation blockLocation = _blockLocations.remove(blockHash);
+        if (blockLocation == null) { return; }
+
+        _appendIndexRecord(blockHash, blockLocation.packFileIndex, blockLocation.diskOffset, 0, false);
+    }
+
+    public synchronized Boolean isOpen() {
+        return ( (_packFile != null) && (_indexFile != null) );
+    }
+
+    public Integer getBlockCount() {
+        return _blockLocations.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            _sync();
+        }
+        catch (final IOException exception) {
+            Logger.warn(exception);
+        }
+
+        for (final FileChannel fileChannel : new FileChannel[]{ _packFile, _indexFile }) {
+            if (fileChannel == null) { continue; }
+
+            try {
+                fileChannel.close();
+            }
+            catch (final IOException exception) {
+                Logger.debug(exception);
+            }
+        }
+
+        _packFile = null;
+        _indexFile = null;
+    }
+}
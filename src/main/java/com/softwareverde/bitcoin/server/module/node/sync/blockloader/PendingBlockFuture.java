@@ -60,9 +60,10 @@ public class PendingBlockFuture implements PreloadedPendingBlock {
 
     /**
      * Returns the TransactionOutputSet for the PendingBlock once it has been loaded, or null if it has not been loaded yet.
+     *  Synchronized since the set may be requested concurrently by the prevalidator and the BlockchainBuilder.
      */
     @Override
-    public MutableUnspentTransactionOutputSet getUnspentTransactionOutputSet() {
+    public synchronized MutableUnspentTransactionOutputSet getUnspentTransactionOutputSet() {
         if (! _pin.wasReleased()) { return null; }
         if (_unspentTransactionOutputSet == null) { return null; } // _unspentTransactionOutputSet may be set to null for blocks skipping validation...
         if (_wasUnspentTransactionOutputSetInvalidated) { return null; } // Force live-loading of UTXO sets if the set was explicitly invalidated (i.e. blockchain reorgs).
@@ -70,21 +71,23 @@ public class PendingBlockFuture implements PreloadedPendingBlock {
         // Update the UnspentTransactionOutputSet with the previously cached blocks...
         //  The previous Blocks that weren't processed at the time of the initial load are loaded into the UnspentTransactionOutputSet.
         while (! _predecessorBlocks.isEmpty()) {
-            final PendingBlockFuture pendingBlockFuture = _predecessorBlocks.removeFirst();
+            final PendingBlockFuture pendingBlockFuture = _predecessorBlocks.peekFirst();
             // Logger.trace(_blockHash + " outputs are being updated with " + pendingBlockFuture.getBlockHash() + " outputs.");
             try {
                 final Boolean wasAvailable = pendingBlockFuture.waitFor(500L); // TODO: Handle this scenario better and determine why this timeout can happen...
                 if (! wasAvailable) {
-                    return null;
+                    return null; // NOTE: The predecessor remains queued so that a subsequent invocation may still apply its outputs.
                 }
             }
             catch (final Exception exception) {
                 return null;
             }
+            _predecessorBlocks.removeFirst();
 
             final PendingBlock pendingBlock = pendingBlockFuture.getPendingBlock();
             if (pendingBlock == null) {
                 Logger.debug(_blockHash + " was unable to get a predecessor block.");
+                _wasUnspentTransactionOutputSetInvalidated = true; // The set is missing the predecessor's outputs...
                 return null;
             }
 
@@ -97,6 +100,7 @@ public class PendingBlockFuture implements PreloadedPendingBlock {
                 else {
                     if (_blockInflater == null) {
                         Logger.debug("No BlockInflater found. " + _blockHash + " was unable to get a predecessor block.");
+                        _wasUnspentTransactionOutputSetInvalidated = true; // The set is missing the predecessor's outputs...
                         return null;
                     }
                     previousBlock = pendingBlock.inflateBlock(_blockInflater);
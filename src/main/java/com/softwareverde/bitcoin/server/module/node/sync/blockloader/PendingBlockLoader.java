@@ -5,6 +5,7 @@ import com.softwareverde.bitcoin.block.BlockId;
 import com.softwareverde.bitcoin.block.BlockInflater;
 import com.softwareverde.bitcoin.context.MultiConnectionFullDatabaseContext;
 import com.softwareverde.bitcoin.context.ThreadPoolContext;
+import com.softwareverde.bitcoin.context.UnspentTransactionOutputContext;
 import com.softwareverde.bitcoin.context.core.MutableUnspentTransactionOutputSet;
 import com.softwareverde.bitcoin.context.lazy.LazyMutableUnspentTransactionOutputSet;
 import com.softwareverde.bitcoin.inflater.BlockInflaters;
@@ -27,9 +28,21 @@ import com.softwareverde.util.timer.MilliTimer;
 public class PendingBlockLoader {
     public interface Context extends BlockInflaters, ThreadPoolContext, MultiConnectionFullDatabaseContext { }
 
+    public interface BlockPrevalidator {
+        /**
+         * Speculatively validates the preloaded Block while its predecessors are still being processed.
+         *  unspentTransactionOutputContext includes the outputs created by the Block's unprocessed predecessors,
+         *  and is a copy that is not modified while the Block is prevalidated.
+         */
+        void prevalidateBlock(Block block, Long blockHeight, UnspentTransactionOutputContext unspentTransactionOutputContext);
+    }
+
+    protected static final Long PREVALIDATION_LOAD_TIMEOUT = 30000L;
+
     protected final Context _context;
     protected final CircleBuffer<PendingBlockFuture> _pendingBlockFutures;
     protected Long _loadUnspentOutputsAfterBlockHeight = null;
+    protected BlockPrevalidator _blockPrevalidator = null;
 
     /**
      * Preloads the block, specified by the pendingBlockId, and the unspentOutputs it requires.
@@ -90,6 +103,48 @@ public class PendingBlockLoader {
         return pendingBlockFuture;
     }
 
+    /**
+     * Prevalidates the preloaded block once it, and its predecessors, have been loaded.
+     *  Prevalidation overlaps script validation of the queued blocks with the processing (UTXO application and storage) of their predecessors.
+     */
+    protected void _asynchronouslyPrevalidatePendingBlock(final PendingBlockFuture pendingBlockFuture, final BlockPrevalidator blockPrevalidator) {
+        final ThreadPool threadPool = _context.getThreadPool();
+        threadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final Boolean wasLoaded = pendingBlockFuture.waitFor(PREVALIDATION_LOAD_TIMEOUT);
+                    if (! wasLoaded) { return; }
+
+                    final PendingBlock pendingBlock = pendingBlockFuture.getPendingBlock();
+                    final Long blockHeight = pendingBlockFuture.getBlockHeight();
+                    if ( (pendingBlock == null) || (blockHeight == null) ) { return; }
+
+                    final Block block = pendingBlock.getInflatedBlock();
+                    if (block == null) { return; }
+
+                    // The prevalidator reads a copy of the set, since the BlockchainBuilder may concurrently request (and update) the original...
+                    final MutableUnspentTransactionOutputSet unspentTransactionOutputSet = pendingBlockFuture.getUnspentTransactionOutputSet();
+                    if (unspentTransactionOutputSet == null) { return; }
+
+                    final UnspentTransactionOutputContext unspentTransactionOutputContext = unspentTransactionOutputSet.asConst();
+                    if (unspentTransactionOutputContext == null) { return; }
+
+                    final MilliTimer milliTimer = new MilliTimer();
+                    milliTimer.start();
+
+                    blockPrevalidator.prevalidateBlock(block, blockHeight, unspentTransactionOutputContext);
+
+                    milliTimer.stop();
+                    Logger.trace("Prevalidated block " + block.getHash() + " in: " + milliTimer.getMillisecondsElapsed() + "ms.");
+                }
+                catch (final Exception exception) {
+                    Logger.debug(exception);
+                }
+            }
+        });
+    }
+
     protected Long _getBlockHeight(final Sha256Hash blockHash, final DatabaseManager databaseManager) throws DatabaseException {
         final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
         final BlockId blockId = blockHeaderDatabaseManager.getBlockHeaderId(blockHash);
@@ -183,6 +238,11 @@ public class PendingBlockLoader {
 
                     _pendingBlockFutures.push(nextBlockFuture);
                     newFutureCount += 1;
+
+                    final BlockPrevalidator blockPrevalidator = _blockPrevalidator;
+                    if (blockPrevalidator != null) {
+                        _asynchronouslyPrevalidatePendingBlock(nextBlockFuture, blockPrevalidator);
+                    }
                 }
             }
         }
@@ -215,4 +275,12 @@ public class PendingBlockLoader {
     public void setLoadUnspentOutputsAfterBlockHeight(final Long blockHeight) {
         _loadUnspentOutputsAfterBlockHeight = blockHeight;
     }
+
+    /**
+     * Sets the BlockPrevalidator invoked for each block queued after the requested block.
+     *  Queued blocks are prevalidated concurrently, so several blocks are validated while the requested block is being processed.
+     */
+    public void setBlockPrevalidator(final BlockPrevalidator blockPrevalidator) {
+        _blockPrevalidator = blockPrevalidator;
+    }
 }
@@ -0,0 +1,101 @@
+package com.softwareverde.bitcoin.server.module.node.sync.transaction;
+
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Partitions Transactions into ordered batches whose Transactions are independent of one another:
+ *  no two Transactions within a batch spend the same output, and no Transaction within a batch spends the output of
+ *  another Transaction within the same batch.  The Transactions within a batch may therefore be validated concurrently,
+ *  as long as each batch is stored before the next batch is validated.
+ *  A Transaction is placed in the batch after its latest in-batch parent and after the latest already-placed Transaction
+ *  spending any of the same outputs.  A Transaction whose parent appears later within the list is deferred until its parent
+ *  has been placed, so it may be placed after a conflicting Transaction that originally followed it; conflicting Transactions
+ *  only retain their relative order when neither is deferred.
+ */
+public class IndependentTransactionBatcher {
+    public static List<List<Transaction>> batchIndependentTransactions(final List<Transaction> transactions) {
+        final HashSet<Sha256Hash> transactionHashes = new HashSet<Sha256Hash>(transactions.getCount());
+        for (final Transaction transaction : transactions) {
+            transactionHashes.add(transaction.getHash());
+        }
+
+        final MutableList<MutableList<Transaction>> batches = new MutableList<MutableList<Transaction>>();
+        final HashMap<Sha256Hash, Integer> transactionBatchIndexes = new HashMap<Sha256Hash, Integer>(transactions.getCount());
+        final HashMap<TransactionOutputIdentifier, Integer> spentOutputBatchIndexes = new HashMap<TransactionOutputIdentifier, Integer>();
+
+        List<Transaction> remainingTransactions = transactions;
+        while (! remainingTransactions.isEmpty()) {
+            final MutableList<Transaction> deferredTransactions = new MutableList<Transaction>(0);
+
+            for (final Transaction transaction : remainingTransactions) {
+                final Sha256Hash transactionHash = transaction.getHash();
+
+                int batchIndex = 0;
+                boolean isMissingParent = false;
+                for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                    final TransactionOutputIdentifier transactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
+                    final Sha256Hash previousTransactionHash = transactionOutputIdentifier.getTransactionHash();
+
+                    if ( transactionHashes.contains(previousTransactionHash) && (! transactionBatchIndexes.containsKey(previousTransactionHash)) ) {
+                        isMissingParent = true; // The parent appears later within the list; the child is placed once its parent has been placed.
+                        break;
+                    }
+
+                    final Integer parentBatchIndex = transactionBatchIndexes.get(previousTransactionHash);
+                    if (parentBatchIndex != null) {
+                        batchIndex = Math.max(batchIndex, (parentBatchIndex + 1));
+                    }
+
+                    final Integer conflictingBatchIndex = spentOutputBatchIndexes.get(transactionOutputIdentifier);
+                    if (conflictingBatchIndex != null) {
+                        batchIndex = Math.max(batchIndex, (conflictingBatchIndex + 1));
+                    }
+                }
+
+                if (isMissingParent) {
+                    deferredTransactions.add(transaction);
+                    continue;
+                }
+
+                while (batches.getCount() <= batchIndex) {
+                    batches.add(new MutableList<Transaction>());
+                }
+                batches.get(batchIndex).add(transaction);
+
+                transactionBatchIndexes.put(transactionHash, batchIndex);
+                for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                    final TransactionOutputIdentifier transactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
+                    spentOutputBatchIndexes.put(transactionOutputIdentifier, batchIndex);
+                }
+            }
+
+            if (deferredTransactions.getCount() == remainingTransactions.getCount()) {
+                // No progress was made (i.e. duplicate hashes); the remaining Transactions are processed serially.
+                for (final Transaction transaction : deferredTransactions) {
+                    final MutableList<Transaction> batch = new MutableList<Transaction>(1);
+                    batch.add(transaction);
+                    batches.add(batch);
+                }
+                break;
+            }
+
+            remainingTransactions = deferredTransactions;
+        }
+
+        final MutableList<List<Transaction>> independentBatches = new MutableList<List<Transaction>>(batches.getCount());
+        for (final MutableList<Transaction> batch : batches) {
+            independentBatches.add(batch);
+        }
+        return independentBatches;
+    }
+
+    protected IndependentTransactionBatcher() { }
+}
@@ -6,6 +6,7 @@ import com.softwareverde.bitcoin.context.MedianBlockTimeContext;
 import com.softwareverde.bitcoin.context.MultiConnectionFullDatabaseContext;
 import com.softwareverde.bitcoin.context.NetworkTimeContext;
 import com.softwareverde.bitcoin.context.SystemTimeContext;
+import com.softwareverde.bitcoin.context.ThreadPoolContext;
 import com.softwareverde.bitcoin.context.TransactionValidatorFactory;
 import com.softwareverde.bitcoin.context.UnspentTransactionOutputContext;
 import com.softwareverde.bitcoin.context.core.TransactionValidatorContext;
@@ -19,11 +20,15 @@ import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDa
 import com.softwareverde.bitcoin.server.module.node.database.indexer.BlockchainIndexerDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.pending.PendingTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.pending.orphan.OrphanPool;
 import com.softwareverde.bitcoin.server.module.node.sync.transaction.pending.PendingTransactionId;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidationResult;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidator;
+import com.softwareverde.concurrent.pool.ThreadPool;
 import com.softwareverde.concurrent.service.SleepyService;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
@@ -37,20 +42,185 @@ import com.softwareverde.util.timer.MilliTimer;
 import com.softwareverde.util.type.time.SystemTime;
 
 import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TransactionProcessor extends SleepyService {
-    public interface Context extends TransactionInflaters, MultiConnectionFullDatabaseContext, TransactionValidatorFactory, NetworkTimeContext, SystemTimeContext { }
+    public interface Context extends TransactionInflaters, MultiConnectionFullDatabaseContext, TransactionValidatorFactory, NetworkTimeContext, SystemTimeContext, ThreadPoolContext { }
 
     public interface Callback {
         void onNewTransactions(List<Transaction> transactions);
     }
 
     protected static final Long MIN_MILLISECONDS_BEFORE_ORPHAN_PURGE = 5000L;
+    protected static final Integer MIN_TRANSACTION_COUNT_PER_THREAD = 8;
 
     protected final Context _context;
 
     protected Long _lastOrphanPurgeTime;
     protected Callback _newTransactionProcessedCallback;
+    protected Integer _maxThreadCount = 4;
+
+    protected TransactionValidator _newTransactionValidator(final FullNodeDatabaseManager databaseManager) {
+        final VolatileNetworkTime networkTime = _context.getNetworkTime();
+        final TransactionInflaters transactionInflaters = _context;
+        final UnspentTransactionOutputContext unconfirmedTransactionUtxoSet = new LazyUnconfirmedTransactionUtxoSet(databaseManager, true);
+        final MedianBlockTimeContext medianBlockTimeContext = new LazyMedianBlockTimeContext(databaseManager);
+        final TransactionValidatorContext transactionValidatorContext = new TransactionValidatorContext(transactionInflaters, networkTime, medianBlockTimeContext, unconfirmedTransactionUtxoSet);
+        return _context.getUnconfirmedTransactionValidator(transactionValidatorContext);
+    }
+
+    /**
+     * Adds the Transaction to the OrphanPool, indexed by the outputs of its unknown parent Transactions.
+     *  Transactions whose parents are all known, but still cannot be stored (i.e. spending nonexistent outputs), are discarded.
+     */
+    protected void _addOrphan(final OrphanPool orphanPool, final FullNodeTransactionDatabaseManager transactionDatabaseManager, final Transaction transaction) throws DatabaseException {
+        final MutableList<TransactionOutputIdentifier> missingTransactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>();
+        for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+            final Sha256Hash previousTransactionHash = transactionInput.getPreviousOutputTransactionHash();
+            final TransactionId previousTransactionId = transactionDatabaseManager.getTransactionId(previousTransactionHash);
+            if (previousTransactionId == null) {
+                missingTransactionOutputIdentifiers.add(TransactionOutputIdentifier.fromTransactionInput(transactionInput));
+            }
+        }
+
+        final Boolean wasAdded = orphanPool.addOrphan(transaction, missingTransactionOutputIdentifiers);
+        if ( (! wasAdded) && missingTransactionOutputIdentifiers.isEmpty() ) {
+            Logger.debug("Discarding Transaction spending nonexistent outputs: " + transaction.getHash());
+        }
+    }
+
+    /**
+     * Releases the orphans whose parents have since been stored by other means (i.e. were included within a Block).
+     */
+    protected List<Transaction> _releaseOrphansOfExistingTransactions(final OrphanPool orphanPool, final FullNodeTransactionDatabaseManager transactionDatabaseManager) throws DatabaseException {
+        final MutableList<Transaction> parentTransactions = new MutableList<Transaction>();
+        for (final Sha256Hash transactionHash : orphanPool.getMissingTransactionHashes()) {
+            final TransactionId transactionId = transactionDatabaseManager.getTransactionId(transactionHash);
+            if (transactionId == null) { continue; }
+
+            final Transaction transaction = transactionDatabaseManager.getTransaction(transactionId);
+            if (transaction == null) { continue; }
+
+            parentTransactions.add(transaction);
+        }
+
+        return orphanPool.releaseOrphans(parentTransactions);
+    }
+
+    protected static void _putAll(final HashMap<Sha256Hash, Transaction> transactionMap, final List<Transaction> transactions) {
+        for (final Transaction transaction : transactions) {
+            transactionMap.put(transaction.getHash(), transaction);
+        }
+    }
+
+    /**
+     * Returns released orphans that were not processed (i.e. because the thread was interrupted or an exception occurred) to the OrphanPool,
+     *  and then clears unprocessedOrphans.
+     *  The orphans' parents are already known, so each is re-added as waiting on every output it spends; it is released
+     *  again once ::_releaseOrphansOfExistingTransactions finds its parents.
+     */
+    protected void _returnUnprocessedOrphans(final OrphanPool orphanPool, final HashMap<Sha256Hash, Transaction> unprocessedOrphans) {
+        if (orphanPool == null) { return; }
+
+        for (final Transaction transaction : unprocessedOrphans.values()) {
+            final List<TransactionInput> transactionInputs = transaction.getTransactionInputs();
+            final MutableList<TransactionOutputIdentifier> spentTransactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>(transactionInputs.getCount());
+            for (final TransactionInput transactionInput : transactionInputs) {
+                spentTransactionOutputIdentifiers.add(TransactionOutputIdentifier.fromTransactionInput(transactionInput));
+            }
+
+            orphanPool.addOrphan(transaction, spentTransactionOutputIdentifiers);
+        }
+        unprocessedOrphans.clear();
+    }
+
+    /**
+     * Validates the independent Transactions against the current UTXO set and MemoryPool.
+     *  The Transactions are distributed across the ThreadPool, each worker validating with its own database connection;
+     *  the calling thread also validates Transactions so that progress is made even if the ThreadPool is saturated.
+     *  A worker only opens its connection once it has claimed a Transaction, so a worker started after every Transaction was claimed does not open one.
+     *  The returned results are in the same order as the provided Transactions.
+     */
+    protected List<TransactionValidationResult> _validateTransactions(final List<Transaction> transactions, final Long blockHeight, final TransactionValidator transactionValidator) {
+        final int transactionCount = transactions.getCount();
+        final TransactionValidationResult[] transactionValidationResults = new TransactionValidationResult[transactionCount];
+        final AtomicInteger nextTransactionIndex = new AtomicInteger(0);
+        final CountDownLatch countDownLatch = new CountDownLatch(transactionCount);
+
+        final int threadCount = Math.min(Math.max(1, _maxThreadCount), Math.max(1, (transactionCount / MIN_TRANSACTION_COUNT_PER_THREAD)));
+        if (threadCount > 1) {
+            final FullNodeDatabaseManagerFactory databaseManagerFactory = _context.getDatabaseManagerFactory();
+            final ThreadPool threadPool = _context.getThreadPool();
+
+            for (int i = 1; i < threadCount; ++i) { // The calling thread is the remaining worker...
+                threadPool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        int transactionIndex = nextTransactionIndex.getAndIncrement();
+                        if (transactionIndex >= transactionCount) { return; } // The batch was completed before this worker started; a database connection is not needed...
+
+                        try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
+                            final TransactionValidator workerTransactionValidator = _newTransactionValidator(databaseManager);
+
+                            while (transactionIndex < transactionCount) {
+                                try {
+                                    final Transaction transaction = transactions.get(transactionIndex);
+                                    transactionValidationResults[transactionIndex] = workerTransactionValidator.validateTransaction(blockHeight, transaction);
+                                }
+                                catch (final Exception exception) {
+                                    Logger.debug(exception);
+                                }
+                                finally {
+                                    countDownLatch.countDown();
+                                }
+
+                                transactionIndex = nextTransactionIndex.getAndIncrement();
+                            }
+                        }
+                        catch (final Exception exception) {
+                            Logger.debug(exception);
+
+                            if (transactionIndex < transactionCount) { // The claimed Transaction was never validated (i.e. the connection could not be opened)...
+                                countDownLatch.countDown();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+
+        while (true) {
+            final int transactionIndex = nextTransactionIndex.getAndIncrement();
+            if (transactionIndex >= transactionCount) { break; }
+
+            final Transaction transaction = transactions.get(transactionIndex);
+            transactionValidationResults[transactionIndex] = transactionValidator.validateTransaction(blockHeight, transaction);
+            countDownLatch.countDown();
+        }
+
+        try {
+            countDownLatch.await(); // Only Transactions claimed by a running worker are awaited...
+        }
+        catch (final InterruptedException exception) {
+            final Thread currentThread = Thread.currentThread();
+            currentThread.interrupt(); // Do not consume the interrupted status...
+            return null;
+        }
+
+        final ImmutableListBuilder<TransactionValidationResult> listBuilder = new ImmutableListBuilder<TransactionValidationResult>(transactionCount);
+        for (int i = 0; i < transactionCount; ++i) {
+            final TransactionValidationResult transactionValidationResult = transactionValidationResults[i];
+            if (transactionValidationResult != null) {
+                listBuilder.add(transactionValidationResult);
+            }
+            else { // The worker failed while validating the Transaction; the Transaction is re-validated by the calling thread.
+                final Transaction transaction = transactions.get(i);
+                listBuilder.add(transactionValidator.validateTransaction(blockHeight, transaction));
+            }
+        }
+        return listBuilder.build();
+    }
 
     protected void _deletePendingTransaction(final FullNodeDatabaseManager databaseManager, final PendingTransactionId pendingTransactionId) {
         final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
@@ -72,11 +242,13 @@ public class TransactionProcessor extends SleepyService {
     @Override
     public Boolean _run() {
         final FullNodeDatabaseManagerFactory databaseManagerFactory = _context.getDatabaseManagerFactory();
-        final VolatileNetworkTime networkTime = _context.getNetworkTime();
         final SystemTime systemTime = _context.getSystemTime();
 
         final Thread thread = Thread.currentThread();
 
+        final OrphanPool orphanPool = PendingTransactionDatabaseManager.getOrphanPool();
+        final HashMap<Sha256Hash, Transaction> unprocessedOrphans = new HashMap<Sha256Hash, Transaction>(); // Released orphans that have been neither stored, rejected, nor returned to the OrphanPool.
+
         try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
             final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
             final PendingTransactionDatabaseManager pendingTransactionDatabaseManager = databaseManager.getPendingTransactionDatabaseManager();
@@ -84,17 +256,19 @@ public class TransactionProcessor extends SleepyService {
             final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
             final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
 
-            final TransactionInflaters transactionInflaters = _context;
-            final UnspentTransactionOutputContext unconfirmedTransactionUtxoSet = new LazyUnconfirmedTransactionUtxoSet(databaseManager, true);
-            final MedianBlockTimeContext medianBlockTimeContext = new LazyMedianBlockTimeContext(databaseManager);
-            final TransactionValidatorContext transactionValidatorContext = new TransactionValidatorContext(transactionInflaters, networkTime, medianBlockTimeContext, unconfirmedTransactionUtxoSet);
-            final TransactionValidator transactionValidator = _context.getUnconfirmedTransactionValidator(transactionValidatorContext);
+            final TransactionValidator transactionValidator = _newTransactionValidator(databaseManager);
+
+            List<Transaction> releasedOrphans = new MutableList<Transaction>(0);
 
             final Long now = systemTime.getCurrentTimeInMilliSeconds();
             if ((now - _lastOrphanPurgeTime) > MIN_MILLISECONDS_BEFORE_ORPHAN_PURGE) {
                 final MilliTimer purgeOrphanedTransactionsTimer = new MilliTimer();
                 purgeOrphanedTransactionsTimer.start();
                 pendingTransactionDatabaseManager.purgeExpiredOrphanedTransactions();
+                if (orphanPool != null) {
+                    releasedOrphans = _releaseOrphansOfExistingTransactions(orphanPool, transactionDatabaseManager);
+                    _putAll(unprocessedOrphans, releasedOrphans);
+                }
                 purgeOrphanedTransactionsTimer.stop();
                 Logger.info("Purge Orphaned Transactions: " + purgeOrphanedTransactionsTimer.getMillisecondsElapsed() + "ms");
                 _lastOrphanPurgeTime = systemTime.getCurrentTimeInMilliSeconds();
@@ -102,21 +276,38 @@ public class TransactionProcessor extends SleepyService {
 
             while (! thread.isInterrupted()) {
                 final List<PendingTransactionId> pendingTransactionIds = pendingTransactionDatabaseManager.selectCandidatePendingTransactionIds();
-                if (pendingTransactionIds.isEmpty()) { return false; }
+                if ( pendingTransactionIds.isEmpty() && releasedOrphans.isEmpty() ) { return false; }
 
                 final HashMap<Sha256Hash, PendingTransactionId> pendingTransactionIdMap = new HashMap<Sha256Hash, PendingTransactionId>(pendingTransactionIds.getCount());
                 final List<Transaction> transactionsToStore;
                 {
-                    final ImmutableListBuilder<Transaction> listBuilder = new ImmutableListBuilder<Transaction>(pendingTransactionIds.getCount());
+                    final ImmutableListBuilder<Transaction> listBuilder = new ImmutableListBuilder<Transaction>(releasedOrphans.getCount() + pendingTransactionIds.getCount());
+                    for (final Transaction transaction : releasedOrphans) { // Released orphans are no longer within the pending_transactions table...
+                        final Boolean transactionCanBeStored = transactionDatabaseManager.previousOutputsExist(transaction);
+                        if (! transactionCanBeStored) {
+                            _addOrphan(orphanPool, transactionDatabaseManager, transaction);
+                            unprocessedOrphans.remove(transaction.getHash());
+                            continue;
+                        }
+
+                        listBuilder.add(transaction);
+                    }
+
                     for (final PendingTransactionId pendingTransactionId : pendingTransactionIds) {
-                        if (thread.isInterrupted()) { return false; }
+                        if (thread.isInterrupted()) { return false; } // The released orphans are returned to the OrphanPool...
 
                         final Transaction transaction = pendingTransactionDatabaseManager.getPendingTransaction(pendingTransactionId);
                         if (transaction == null) { continue; }
 
                         final Boolean transactionCanBeStored = transactionDatabaseManager.previousOutputsExist(transaction);
                         if (! transactionCanBeStored) {
-                            pendingTransactionDatabaseManager.updateTransactionDependencies(transaction);
+                            if (orphanPool != null) {
+                                _addOrphan(orphanPool, transactionDatabaseManager, transaction);
+                                _deletePendingTransaction(databaseManager, pendingTransactionId);
+                            }
+                            else {
+                                pendingTransactionDatabaseManager.updateTransactionDependencies(transaction);
+                            }
                             continue;
                         }
 
@@ -133,46 +324,94 @@ public class TransactionProcessor extends SleepyService {
                 final MutableList<Transaction> validTransactions = new MutableList<Transaction>(transactionsToStore.getCount());
                 final MutableList<TransactionId> validTransactionIds = new MutableList<TransactionId>(transactionsToStore.getCount());
 
+                // Independent Transactions are validated concurrently; dependent or conflicting Transactions are deferred to a later batch,
+                //  which is validated only after the preceding batch has been stored (so that its outputs are available, or its spends are known).
+                final List<List<Transaction>> independentTransactionBatches = IndependentTransactionBatcher.batchIndependentTransactions(transactionsToStore);
+
                 int invalidTransactionCount = 0;
+                int rejectedTransactionCount = 0;
+                int largestBatchCount = 0;
+                long validationMilliseconds = 0L;
+                int processedBatchCount = 0;
                 final MilliTimer storeTransactionsTimer = new MilliTimer();
                 storeTransactionsTimer.start();
-                for (final Transaction transaction : transactionsToStore) {
+                for (final List<Transaction> transactionBatch : independentTransactionBatches) {
                     if (thread.isInterrupted()) { break; }
 
-                    final Sha256Hash transactionHash = transaction.getHash();
-                    final PendingTransactionId pendingTransactionId = pendingTransactionIdMap.get(transactionHash);
-                    if (pendingTransactionId == null) { continue; }
+                    largestBatchCount = Math.max(largestBatchCount, transactionBatch.getCount());
 
-                    // NOTE: The transaction cannot be stored before it is validated, otherwise the LazyUtxoSet will believe the output has already been spent (by itself).
-                    final TransactionValidationResult transactionValidationResult = transactionValidator.validateTransaction((headBlockHeight + 1L), transaction);
+                    // NOTE: The transactions cannot be stored before they are validated, otherwise the LazyUtxoSet will believe the output has already been spent (by itself).
+                    final MilliTimer validationTimer = new MilliTimer();
+                    validationTimer.start();
+                    final List<TransactionValidationResult> transactionValidationResults = _validateTransactions(transactionBatch, (headBlockHeight + 1L), transactionValidator);
+                    validationTimer.stop();
+                    validationMilliseconds += validationTimer.getMillisecondsElapsed();
+                    if (transactionValidationResults == null) { break; }
 
-                    if (! transactionValidationResult.isValid) {
-                        _deletePendingTransaction(databaseManager, pendingTransactionId);
+                    for (int i = 0; i < transactionBatch.getCount(); ++i) {
+                        final Transaction transaction = transactionBatch.get(i);
+                        final TransactionValidationResult transactionValidationResult = transactionValidationResults.get(i);
 
-                        invalidTransactionCount += 1;
-                        Logger.info("Invalid MemoryPool Transaction: " + transactionHash);
-                        Logger.info(transactionValidationResult.errorMessage);
-                        continue;
-                    }
+                        final Sha256Hash transactionHash = transaction.getHash();
+                        final PendingTransactionId pendingTransactionId = pendingTransactionIdMap.get(transactionHash); // Null for released orphans...
 
-                    TransactionUtil.startTransaction(databaseConnection);
-                    final TransactionId transactionId = transactionDatabaseManager.storeUnconfirmedTransaction(transaction);
-                    final boolean isUnconfirmedTransaction = (transactionDatabaseManager.getBlockId(blockchainSegmentId, transactionId) == null); // TODO: This check is likely redundant...
-                    if (isUnconfirmedTransaction) {
-                        transactionDatabaseManager.addToUnconfirmedTransactions(transactionId);
-                    }
-                    TransactionUtil.commitTransaction(databaseConnection);
+                        if (! transactionValidationResult.isValid) {
+                            if (pendingTransactionId != null) {
+                                _deletePendingTransaction(databaseManager, pendingTransactionId);
+                            }
+                            unprocessedOrphans.remove(transactionHash);
 
-                    _deletePendingTransaction(databaseManager, pendingTransactionId);
+                            invalidTransactionCount += 1;
+                            Logger.info("Invalid MemoryPool Transaction: " + transactionHash);
+                            Logger.info(transactionValidationResult.errorMessage);
+                            continue;
+                        }
+
+                        TransactionUtil.startTransaction(databaseConnection);
+                        final TransactionId transactionId = transactionDatabaseManager.storeUnconfirmedTransaction(transaction);
+                        if (transactionId == null) { // The MemoryPool is full; the Transaction is neither indexed nor relayed...
+                            TransactionUtil.commitTransaction(databaseConnection);
+
+                            if (pendingTransactionId != null) {
+                                _deletePendingTransaction(databaseManager, pendingTransactionId);
+                            }
+                            unprocessedOrphans.remove(transactionHash);
+
+                            rejectedTransactionCount += 1;
+                            continue;
+                        }
 
-                    validTransactions.add(transaction);
-                    validTransactionIds.add(transactionId);
+                        final boolean isUnconfirmedTransaction = (transactionDatabaseManager.getBlockId(blockchainSegmentId, transactionId) == null); // TODO: This check is likely redundant...
+                        if (isUnconfirmedTransaction) {
+                            transactionDatabaseManager.addToUnconfirmedTransactions(transactionId);
+                        }
+                        TransactionUtil.commitTransaction(databaseConnection);
+
+                        if (pendingTransactionId != null) {
+                            _deletePendingTransaction(databaseManager, pendingTransactionId);
+                        }
+                        unprocessedOrphans.remove(transactionHash);
+
+                        validTransactions.add(transaction);
+                        validTransactionIds.add(transactionId);
+                    }
+
+                    processedBatchCount += 1;
                 }
                 storeTransactionsTimer.stop();
 
+                if (processedBatchCount < independentTransactionBatches.getCount()) { // Pending Transactions remain within the pending_transactions table, but released orphans must be returned...
+                    _returnUnprocessedOrphans(orphanPool, unprocessedOrphans);
+                }
+
+                // The children waiting on the new Transactions are processed immediately, instead of on the next cycle...
+                releasedOrphans = (orphanPool != null ? orphanPool.releaseOrphans(validTransactions) : new MutableList<Transaction>(0));
+                _putAll(unprocessedOrphans, releasedOrphans);
+
                 blockchainIndexerDatabaseManager.queueTransactionsForProcessing(validTransactionIds);
 
-                Logger.info("Committed " + (transactionsToStore.getCount() - invalidTransactionCount) + " transactions to the MemoryPool in " + storeTransactionsTimer.getMillisecondsElapsed() + "ms. (" + String.format("%.2f", (transactionsToStore.getCount() / storeTransactionsTimer.getMillisecondsElapsed().floatValue() * 1000F)) + "tps) (" + invalidTransactionCount + " invalid)");
+                final long elapsedMilliseconds = Math.max(1L, storeTransactionsTimer.getMillisecondsElapsed());
+                Logger.info("Committed " + validTransactions.getCount() + " transactions to the MemoryPool in " + elapsedMilliseconds + "ms. (" + String.format("%.2f", (transactionsToStore.getCount() / (float) elapsedMilliseconds * 1000F)) + "tps) (" + invalidTransactionCount + " invalid) (" + rejectedTransactionCount + " rejected) (" + independentTransactionBatches.getCount() + " batches, largest " + largestBatchCount + ") (" + validationMilliseconds + "ms validating)" + (orphanPool != null ? (" (" + releasedOrphans.getCount() + " orphans released, " + orphanPool.getOrphanCount() + " remaining)") : ""));
 
                 final Callback newTransactionProcessedCallback = _newTransactionProcessedCallback;
                 if (newTransactionProcessedCallback != null) {
@@ -183,6 +422,9 @@ public class TransactionProcessor extends SleepyService {
         catch (final DatabaseException exception) {
             Logger.warn(exception);
         }
+        finally { // Orphans released but not processed (i.e. due to an interrupt or exception) are processed by the next run...
+            _returnUnprocessedOrphans(orphanPool, unprocessedOrphans);
+        }
 
         return false;
     }
@@ -195,6 +437,13 @@ public class TransactionProcessor extends SleepyService {
         _lastOrphanPurgeTime = 0L;
     }
 
+    /**
+     * Sets the maximum number of threads used to validate independent Transactions concurrently.
+     */
+    public void setMaxThreadCount(final Integer maxThreadCount) {
+        _maxThreadCount = maxThreadCount;
+    }
+
     public void setNewTransactionProcessedCallback(final Callback newTransactionProcessedCallback) {
         _newTransactionProcessedCallback = newTransactionProcessedCallback;
     }
@@ -5,6 +5,10 @@ import com.softwareverde.bitcoin.address.AddressInflater;
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.block.BlockInflater;
 import com.softwareverde.bitcoin.block.MerkleBlock;
+import com.softwareverde.bitcoin.block.compact.AssembleCompactBlockResult;
+import com.softwareverde.bitcoin.block.compact.CompactBlockAssembler;
+import com.softwareverde.bitcoin.block.compact.PrefilledTransaction;
+import com.softwareverde.bitcoin.block.compact.ShortTransactionIdHasher;
 import com.softwareverde.bitcoin.block.header.BlockHeader;
 import com.softwareverde.bitcoin.block.header.BlockHeaderWithTransactionCount;
 import com.softwareverde.bitcoin.block.header.ImmutableBlockHeaderWithTransactionCount;
@@ -21,6 +25,9 @@ import com.softwareverde.bitcoin.server.message.type.bloomfilter.clear.ClearTran
 import com.softwareverde.bitcoin.server.message.type.bloomfilter.set.SetTransactionBloomFilterMessage;
 import com.softwareverde.bitcoin.server.message.type.bloomfilter.update.UpdateTransactionBloomFilterMessage;
 import com.softwareverde.bitcoin.server.message.type.compact.EnableCompactBlocksMessage;
+import com.softwareverde.bitcoin.server.message.type.compact.block.CompactBlockMessage;
+import com.softwareverde.bitcoin.server.message.type.compact.request.RequestCompactBlockTransactionsMessage;
+import com.softwareverde.bitcoin.server.message.type.compact.transaction.CompactBlockTransactionsMessage;
 import com.softwareverde.bitcoin.server.message.type.error.ErrorMessage;
 import com.softwareverde.bitcoin.server.message.type.node.address.BitcoinNodeIpAddress;
 import com.softwareverde.bitcoin.server.message.type.node.address.BitcoinNodeIpAddressMessage;
@@ -88,11 +95,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class BitcoinNode extends Node {
     public static final Long MIN_MEGABYTES_PER_SECOND = (ByteUtil.Unit.Binary.MEBIBYTES / 8L); // 1mpbs, slower than 3G.
     public static final Long REQUEST_TIME_BUFFER = 1000L; // Max time, in ms, assumed it takes to respond to a request, ignoring ping.
+    public static final Integer MAX_PENDING_COMPACT_BLOCK_COUNT = 8; // The max number of partially-assembled compact blocks awaiting a blocktxn response.
+    public static final Long MAX_PENDING_COMPACT_BLOCK_AGE_MS = 15000L; // Max time, in ms, to wait for a blocktxn response before the pending compact block is abandoned.
 
     protected static final AddressInflater DEFAULT_ADDRESS_INFLATER = new AddressInflater();
 
@@ -177,6 +187,10 @@ public class BitcoinNode extends Node {
         void run(BitcoinNode bitcoinNode, Sha256Hash blockHash, List<ByteArray> transactionShortHashes);
     }
 
+    public interface RequestCompactBlockTransactionsHandler extends BitcoinNodeHandler {
+        void run(BitcoinNode bitcoinNode, Sha256Hash blockHash, List<Integer> transactionIndexes);
+    }
+
     public interface NewBloomFilterHandler extends BitcoinNodeHandler {
         void run(BitcoinNode bitcoinNode);
     }
@@ -202,6 +216,16 @@ public class BitcoinNode extends Node {
         public Long getCurrentBlockHeight() { return 0L; }
     };
 
+    protected static class PendingCompactBlock {
+        public final AssembleCompactBlockResult assembleCompactBlockResult;
+        public final Long requestTimestampMs;
+
+        public PendingCompactBlock(final AssembleCompactBlockResult assembleCompactBlockResult, final Long requestTimestampMs) {
+            this.assembleCompactBlockResult = assembleCompactBlockResult;
+            this.requestTimestampMs = requestTimestampMs;
+        }
+    }
+
     protected static class PendingRequest<T extends BitcoinNodeCallback> {
         public final RequestId requestId;
         public final T callback;
@@ -245,6 +269,7 @@ public class BitcoinNode extends Node {
     protected final Map<Sha256Hash, Set<PendingRequest<DownloadExtraThinBlockCallback>>> _downloadExtraThinBlockRequests = new HashMap<>();
     protected final Map<Sha256Hash, Set<PendingRequest<DownloadThinTransactionsCallback>>> _downloadThinTransactionsRequests = new HashMap<>();
     protected final Set<BlockInventoryAnnouncementHandler> _downloadAddressBlocksRequests = new HashSet<>();
+    protected final ConcurrentHashMap<Sha256Hash, PendingCompactBlock> _pendingCompactBlocks = new ConcurrentHashMap<>(); // Partially-assembled compact blocks awaiting a blocktxn response.
 
     protected final BitcoinProtocolMessageFactory _protocolMessageFactory;
     protected final LocalNodeFeatures _localNodeFeatures;
@@ -262,6 +287,10 @@ public class BitcoinNode extends Node {
 
     protected RequestExtraThinBlockHandler _requestExtraThinBlockCallback = null;
     protected RequestExtraThinTransactionHandler _requestExtraThinTransactionCallback = null;
+    protected RequestCompactBlockTransactionsHandler _requestCompactBlockTransactionsHandler = null;
+
+    protected CompactBlockAssembler _compactBlockAssembler = null;
+    protected volatile Block _unsolicitedCompactBlock = null; // The most recent block assembled from an unrequested (high-bandwidth) cmpctblock; retained so the subsequent request for the block is fulfilled without a round-trip.
 
     protected BitcoinSynchronizeVersionMessage _synchronizeVersionMessage = null;
 
@@ -270,6 +299,8 @@ public class BitcoinNode extends Node {
 
     protected Boolean _announceNewBlocksViaHeadersIsEnabled = false;
     protected Integer _compactBlocksVersion = null;
+    protected Boolean _announceNewBlocksViaCompactBlocksIsEnabled = false;
+    protected Boolean _highBandwidthCompactBlocksIsRequested = false;
     protected Boolean _slpTransactionsIsEnabled = false;
 
     protected NewBloomFilterHandler _onNewBloomFilterCallback = null;
@@ -395,6 +426,7 @@ public class BitcoinNode extends Node {
             _blockInventoryMessageHandler = null;
             _requestExtraThinBlockCallback = null;
             _requestExtraThinTransactionCallback = null;
+            _requestCompactBlockTransactionsHandler = null;
             _transactionsAnnouncementCallback = null;
             _spvBlockInventoryAnnouncementHandler = null;
         }
@@ -410,6 +442,9 @@ public class BitcoinNode extends Node {
         BitcoinNodeUtil.failPendingRequests(_threadPool, _downloadExtraThinBlockRequests, _failableRequests, this);
         BitcoinNodeUtil.failPendingRequests(_threadPool, _downloadThinTransactionsRequests, _failableRequests, this);
 
+        _pendingCompactBlocks.clear();
+        _unsolicitedCompactBlock = null;
+
         _failableRequests.clear();
     }
 
@@ -469,7 +504,37 @@ public class BitcoinNode extends Node {
         return _protocolMessageFactory.newNodeIpAddressMessage();
     }
 
+    /**
+     * Abandons the partially-assembled compact blocks whose blocktxn response was not received within MAX_PENDING_COMPACT_BLOCK_AGE_MS.
+     *  If the block was requested, the full block is requested instead.
+     */
+    protected void _purgeExpiredPendingCompactBlocks() {
+        final Long nowMs = _systemTime.getCurrentTimeInMilliSeconds();
+
+        final Iterator<Map.Entry<Sha256Hash, PendingCompactBlock>> iterator = _pendingCompactBlocks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Sha256Hash, PendingCompactBlock> entry = iterator.next();
+            final PendingCompactBlock pendingCompactBlock = entry.getValue();
+
+            final long pendingCompactBlockAgeMs = (nowMs - pendingCompactBlock.requestTimestampMs);
+            if (pendingCompactBlockAgeMs <= MAX_PENDING_COMPACT_BLOCK_AGE_MS) { continue; }
+
+            final Sha256Hash blockHash = entry.getKey();
+            if (_pendingCompactBlocks.remove(blockHash, pendingCompactBlock)) {
+                Logger.debug("Abandoning compact block " + blockHash + " from " + this.getConnectionString() + "; blocktxn response was not received.");
+                _threadPool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        _onCompactBlockAssemblyFailed(blockHash);
+                    }
+                });
+            }
+        }
+    }
+
     protected void _checkForFailedRequests() {
+        _purgeExpiredPendingCompactBlocks();
+
         final Long nowMs = _systemTime.getCurrentTimeInMilliSeconds();
 
         final Iterator<Map.Entry<RequestId, FailableRequest>> iterator = _failableRequests.entrySet().iterator();
@@ -625,10 +690,10 @@ public class BitcoinNode extends Node {
         _messageRouter.addRoute(MessageType.QUERY_UNCONFIRMED_TRANSACTIONS, (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onQueryUnconfirmedTransactionsReceived((QueryUnconfirmedTransactionsMessage) message); });
         _messageRouter.addRoute(MessageType.REQUEST_BLOCK_HEADERS,          (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onQueryBlockHeadersMessageReceived((RequestBlockHeadersMessage) message); });
         _messageRouter.addRoute(MessageType.ENABLE_NEW_BLOCKS_VIA_HEADERS,  (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _announceNewBlocksViaHeadersIsEnabled = true; });
-        _messageRouter.addRoute(MessageType.ENABLE_COMPACT_BLOCKS,          (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> {
-            final EnableCompactBlocksMessage enableCompactBlocksMessage = (EnableCompactBlocksMessage) message;
-            _compactBlocksVersion = (enableCompactBlocksMessage.isEnabled() ? enableCompactBlocksMessage.getVersion() : null);
-        });
+        _messageRouter.addRoute(MessageType.ENABLE_COMPACT_BLOCKS,          (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onEnableCompactBlocksMessageReceived((EnableCompactBlocksMessage) message); });
+        _messageRouter.addRoute(MessageType.COMPACT_BLOCK,                  (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onCompactBlockMessageReceived((CompactBlockMessage) message); });
+        _messageRouter.addRoute(MessageType.REQUEST_COMPACT_BLOCK_TRANSACTIONS,(final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onRequestCompactBlockTransactionsMessageReceived((RequestCompactBlockTransactionsMessage) message); });
+        _messageRouter.addRoute(MessageType.COMPACT_BLOCK_TRANSACTIONS,     (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onCompactBlockTransactionsMessageReceived((CompactBlockTransactionsMessage) message); });
         _messageRouter.addRoute(MessageType.REQUEST_EXTRA_THIN_BLOCK,       (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onRequestExtraThinBlockMessageReceived((RequestExtraThinBlockMessage) message); });
         _messageRouter.addRoute(MessageType.EXTRA_THIN_BLOCK,               (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onExtraThinBlockMessageReceived((ExtraThinBlockMessage) message); });
         _messageRouter.addRoute(MessageType.THIN_BLOCK,                     (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onThinBlockMessageReceived((ThinBlockMessage) message); });
@@ -1129,6 +1194,192 @@ public class BitcoinNode extends Node {
         }
     }
 
+    protected void _onEnableCompactBlocksMessageReceived(final EnableCompactBlocksMessage enableCompactBlocksMessage) {
+        final Integer version = enableCompactBlocksMessage.getVersion();
+        if (! Util.areEqual(EnableCompactBlocksMessage.VERSION, version)) { return; } // Only (non-segwit) version 1 compact blocks are supported; other versions are ignored, as specified by BIP152.
+
+        _compactBlocksVersion = version;
+        _announceNewBlocksViaCompactBlocksIsEnabled = enableCompactBlocksMessage.isEnabled();
+    }
+
+    protected void _onCompactBlockAssembled(final Block block) {
+        final Sha256Hash blockHash = block.getHash();
+        final Boolean wasRequested = BitcoinNodeUtil.executeAndClearCallbacks(_threadPool, _downloadBlockRequests, _failableRequests, blockHash, new CallbackExecutor<DownloadBlockCallback>() {
+            @Override
+            public void onResult(final PendingRequest<DownloadBlockCallback> pendingRequest) {
+                final DownloadBlockCallback callback = pendingRequest.callback;
+                callback.onResult(pendingRequest.requestId, BitcoinNode.this, block);
+            }
+        });
+
+        if (! wasRequested) {
+            _unsolicitedCompactBlock = block;
+        }
+    }
+
+    protected void _onCompactBlockAssemblyFailed(final Sha256Hash blockHash) {
+        final Boolean blockIsRequested;
+        synchronized (_downloadBlockRequests) {
+            blockIsRequested = _downloadBlockRequests.containsKey(blockHash);
+        }
+
+        if (blockIsRequested) {
+            Logger.debug("Unable to assemble compact block " + blockHash + " from " + this.getConnectionString() + "; requesting full block.");
+            _requestBlock(blockHash);
+        }
+    }
+
+    protected void _assembleCompactBlock(final CompactBlockAssembler compactBlockAssembler, final CompactBlockMessage compactBlockMessage) {
+        final BlockHeader blockHeader = compactBlockMessage.getBlockHeader();
+        final Sha256Hash blockHash = blockHeader.getHash();
+
+        final Long nonce = compactBlockMessage.getNonce();
+        final List<Long> shortTransactionIds = compactBlockMessage.getShortTransactionIds();
+        final List<PrefilledTransaction> prefilledTransactions = compactBlockMessage.getPrefilledTransactions();
+
+        final AssembleCompactBlockResult assembleCompactBlockResult = compactBlockAssembler.assembleCompactBlock(blockHeader, nonce, shortTransactionIds, prefilledTransactions);
+        if (assembleCompactBlockResult.wasSuccessful()) {
+            _onCompactBlockAssembled(assembleCompactBlockResult.block);
+            return;
+        }
+
+        if (assembleCompactBlockResult.canBeReassembled()) {
+            _purgeExpiredPendingCompactBlocks();
+        }
+
+        if ( assembleCompactBlockResult.canBeReassembled() && (_pendingCompactBlocks.size() < MAX_PENDING_COMPACT_BLOCK_COUNT) ) {
+            final Long nowMs = _systemTime.getCurrentTimeInMilliSeconds();
+            _pendingCompactBlocks.put(blockHash, new PendingCompactBlock(assembleCompactBlockResult, nowMs));
+            _requestCompactBlockTransactions(blockHash, assembleCompactBlockResult.missingTransactionIndexes);
+            return;
+        }
+
+        _onCompactBlockAssemblyFailed(blockHash);
+    }
+
+    protected void _onCompactBlockMessageReceived(final CompactBlockMessage compactBlockMessage) {
+        final BlockHeader blockHeader = compactBlockMessage.getBlockHeader();
+        final Sha256Hash blockHash = blockHeader.getHash();
+        final Boolean blockHeaderIsValid = blockHeader.isValid();
+
+        final Boolean wasRequested;
+        synchronized (_downloadBlockRequests) {
+            wasRequested = _downloadBlockRequests.containsKey(blockHash);
+        }
+
+        final CompactBlockAssembler compactBlockAssembler = _compactBlockAssembler;
+        final BlockInventoryAnnouncementHandler blockInventoryMessageHandler = (wasRequested ? null : _blockInventoryMessageHandler);
+
+        if (! blockHeaderIsValid) {
+            Logger.debug("Received invalid compact block header from " + this.getConnectionString() + ": " + blockHash);
+
+            BitcoinNodeUtil.executeAndClearCallbacks(_threadPool, _downloadBlockRequests, _failableRequests, blockHash, new CallbackExecutor<DownloadBlockCallback>() {
+                @Override
+                public void onResult(final PendingRequest<DownloadBlockCallback> pendingRequest) {
+                    final DownloadBlockCallback callback = pendingRequest.callback;
+                    callback.onResult(pendingRequest.requestId, BitcoinNode.this, null);
+                }
+            });
+        }
+        else {
+            // Unrequested compact blocks are only assembled from peers that were asked to relay via high-bandwidth mode, since
+            //  assembly scans the entire mempool; otherwise the compact block is only treated as a header announcement.
+            final Boolean mayAssembleUnrequestedCompactBlock = ( _highBandwidthCompactBlocksIsRequested && _synchronizationStatus.isBlockchainSynchronized() );
+
+            _threadPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final Boolean shouldAssembleCompactBlock;
+                    if (compactBlockAssembler == null) {
+                        shouldAssembleCompactBlock = false;
+                    }
+                    else if (wasRequested) {
+                        shouldAssembleCompactBlock = true;
+                    }
+                    else {
+                        // The header's parent must be known so that the compact block extends the known chain...
+                        shouldAssembleCompactBlock = ( mayAssembleUnrequestedCompactBlock && compactBlockAssembler.isParentBlockKnown(blockHeader) );
+                    }
+
+                    if (shouldAssembleCompactBlock) {
+                        _assembleCompactBlock(compactBlockAssembler, compactBlockMessage);
+                    }
+                    else if (wasRequested) {
+                        _requestBlock(blockHash);
+                    }
+
+                    // Unrequested compact blocks are new-block announcements (BIP152 high-bandwidth mode); the header is announced
+                    //  after the assembly attempt so that the resulting request for the block may be fulfilled by the assembled block.
+                    if (blockInventoryMessageHandler != null) {
+                        final MutableList<BlockHeader> blockHeaders = new MutableList<BlockHeader>(1);
+                        blockHeaders.add(blockHeader);
+                        blockInventoryMessageHandler.onNewHeaders(BitcoinNode.this, blockHeaders);
+                    }
+                }
+            });
+        }
+
+        final MessageType messageType = compactBlockMessage.getCommand();
+        final Integer byteCount = compactBlockMessage.getByteCount();
+        for (final BitcoinNodeObserver observer : _observers) {
+            observer.onDataReceived(BitcoinNode.this, messageType, byteCount, wasRequested);
+        }
+    }
+
+    protected void _onRequestCompactBlockTransactionsMessageReceived(final RequestCompactBlockTransactionsMessage requestCompactBlockTransactionsMessage) {
+        final RequestCompactBlockTransactionsHandler requestCompactBlockTransactionsHandler = _requestCompactBlockTransactionsHandler;
+
+        if (requestCompactBlockTransactionsHandler != null) {
+            final Sha256Hash blockHash = requestCompactBlockTransactionsMessage.getBlockHash();
+            final List<Integer> transactionIndexes = requestCompactBlockTransactionsMessage.getTransactionIndexes();
+
+            _threadPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    requestCompactBlockTransactionsHandler.run(BitcoinNode.this, blockHash, transactionIndexes);
+                }
+            });
+        }
+        else {
+            Logger.debug("No handler set for RequestCompactBlockTransactions message.");
+        }
+
+        final MessageType messageType = requestCompactBlockTransactionsMessage.getCommand();
+        for (final BitcoinNodeObserver observer : _observers) {
+            observer.onDataRequested(BitcoinNode.this, messageType);
+        }
+    }
+
+    protected void _onCompactBlockTransactionsMessageReceived(final CompactBlockTransactionsMessage compactBlockTransactionsMessage) {
+        final Sha256Hash blockHash = compactBlockTransactionsMessage.getBlockHash();
+        final List<Transaction> transactions = compactBlockTransactionsMessage.getTransactions();
+
+        final CompactBlockAssembler compactBlockAssembler = _compactBlockAssembler;
+        final PendingCompactBlock pendingCompactBlock = _pendingCompactBlocks.remove(blockHash);
+        final Boolean wasRequested = (pendingCompactBlock != null);
+
+        if ( wasRequested && (compactBlockAssembler != null) ) {
+            _threadPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final Block block = compactBlockAssembler.reassembleCompactBlock(pendingCompactBlock.assembleCompactBlockResult, transactions);
+                    if (block != null) {
+                        _onCompactBlockAssembled(block);
+                    }
+                    else {
+                        _onCompactBlockAssemblyFailed(blockHash);
+                    }
+                }
+            });
+        }
+
+        final MessageType messageType = compactBlockTransactionsMessage.getCommand();
+        final Integer byteCount = compactBlockTransactionsMessage.getByteCount();
+        for (final BitcoinNodeObserver observer : _observers) {
+            observer.onDataReceived(BitcoinNode.this, messageType, byteCount, wasRequested);
+        }
+    }
+
     protected void _onNotFoundMessageReceived(final NotFoundResponseMessage notFoundResponseMessage) {
         for (final InventoryItem inventoryItem : notFoundResponseMessage.getInventoryItems()) {
             final Sha256Hash itemHash = inventoryItem.getItemHash();
@@ -1305,6 +1556,37 @@ public class BitcoinNode extends Node {
         }
     }
 
+    protected Boolean _shouldRequestCompactBlock() {
+        if (_compactBlockAssembler == null) { return false; }
+        if (_compactBlocksVersion == null) { return false; }
+
+        // Compact blocks are only advantageous when the mempool is likely to contain the block's Transactions...
+        return _synchronizationStatus.isBlockchainSynchronized();
+    }
+
+    protected void _requestCompactBlock(final Sha256Hash blockHash) {
+        final RequestDataMessage requestDataMessage = _protocolMessageFactory.newRequestDataMessage();
+        requestDataMessage.addInventoryItem(new InventoryItem(InventoryItemType.COMPACT_BLOCK, blockHash));
+        _queueMessage(requestDataMessage);
+
+        final MessageType messageType = requestDataMessage.getCommand();
+        for (final BitcoinNodeObserver observer : _observers) {
+            observer.onDataRequested(BitcoinNode.this, messageType);
+        }
+    }
+
+    protected void _requestCompactBlockTransactions(final Sha256Hash blockHash, final List<Integer> transactionIndexes) {
+        final RequestCompactBlockTransactionsMessage requestCompactBlockTransactionsMessage = _protocolMessageFactory.newRequestCompactBlockTransactionsMessage();
+        requestCompactBlockTransactionsMessage.setBlockHash(blockHash);
+        requestCompactBlockTransactionsMessage.setTransactionIndexes(transactionIndexes);
+        _queueMessage(requestCompactBlockTransactionsMessage);
+
+        final MessageType messageType = requestCompactBlockTransactionsMessage.getCommand();
+        for (final BitcoinNodeObserver observer : _observers) {
+            observer.onDataRequested(BitcoinNode.this, messageType);
+        }
+    }
+
     protected void _requestMerkleBlock(final Sha256Hash blockHash) {
         final RequestDataMessage requestDataMessage = _protocolMessageFactory.newRequestDataMessage();
         requestDataMessage.addInventoryItem(new InventoryItem(InventoryItemType.MERKLE_BLOCK, blockHash));
@@ -1505,6 +1787,21 @@ public class BitcoinNode extends Node {
 
     public RequestId requestBlock(final Sha256Hash blockHash, final DownloadBlockCallback downloadBlockCallback) {
         final RequestId requestId = _newRequestId();
+
+        final Block unsolicitedCompactBlock = _unsolicitedCompactBlock;
+        if ( (unsolicitedCompactBlock != null) && Util.areEqual(blockHash, unsolicitedCompactBlock.getHash()) ) {
+            _unsolicitedCompactBlock = null;
+
+            _threadPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    downloadBlockCallback.onResult(requestId, BitcoinNode.this, unsolicitedCompactBlock);
+                }
+            });
+
+            return requestId;
+        }
+
         BitcoinNodeUtil.storeInMapSet(_downloadBlockRequests, blockHash, new PendingRequest<DownloadBlockCallback>(requestId, downloadBlockCallback));
         final Long requestStartBytesReceived = _connection.getTotalBytesReceivedCount();
         _failableRequests.put(requestId, new FailableRequest(requestStartBytesReceived, downloadBlockCallback, new Runnable() {
@@ -1518,7 +1815,12 @@ public class BitcoinNode extends Node {
             }
         }));
 
-        _requestBlock(blockHash);
+        if (_shouldRequestCompactBlock()) {
+            _requestCompactBlock(blockHash);
+        }
+        else {
+            _requestBlock(blockHash);
+        }
 
         return requestId;
     }
@@ -1736,6 +2038,54 @@ public class BitcoinNode extends Node {
         _queueMessage(blockMessage);
     }
 
+    /**
+     * Transmits the already-serialized Block, as read from the BlockStore, without inflating it.
+     */
+    public void transmitRawBlock(final ByteArray blockBytes) {
+        final BlockMessage blockMessage = _protocolMessageFactory.newBlockMessage();
+        blockMessage.setBlockBytes(blockBytes);
+        _queueMessage(blockMessage);
+    }
+
+    /**
+     * Transmits the Block as a BIP152 compact block.
+     *  The coinbase is prefilled; all other Transactions are sent as short ids salted with a random nonce.
+     */
+    public void transmitCompactBlock(final Block block) {
+        final Long nonce = ThreadLocalRandom.current().nextLong();
+        final ShortTransactionIdHasher shortTransactionIdHasher = new ShortTransactionIdHasher(block, nonce);
+
+        final List<Transaction> transactions = block.getTransactions();
+        final int transactionCount = transactions.getCount();
+
+        final ImmutableListBuilder<PrefilledTransaction> prefilledTransactions = new ImmutableListBuilder<PrefilledTransaction>(1);
+        final ImmutableListBuilder<Long> shortTransactionIds = new ImmutableListBuilder<Long>(Math.max(0, transactionCount - 1));
+        for (int i = 0; i < transactionCount; ++i) {
+            final Transaction transaction = transactions.get(i);
+            if (i == 0) { // The coinbase cannot be within the peer's mempool...
+                prefilledTransactions.add(new PrefilledTransaction(i, transaction));
+            }
+            else {
+                final Sha256Hash transactionHash = transaction.getHash();
+                shortTransactionIds.add(shortTransactionIdHasher.getShortTransactionId(transactionHash));
+            }
+        }
+
+        final CompactBlockMessage compactBlockMessage = _protocolMessageFactory.newCompactBlockMessage();
+        compactBlockMessage.setBlockHeader(block);
+        compactBlockMessage.setNonce(nonce);
+        compactBlockMessage.setShortTransactionIds(shortTransactionIds.build());
+        compactBlockMessage.setPrefilledTransactions(prefilledTransactions.build());
+        _queueMessage(compactBlockMessage);
+    }
+
+    public void transmitCompactBlockTransactions(final Sha256Hash blockHash, final List<Transaction> transactions) {
+        final CompactBlockTransactionsMessage compactBlockTransactionsMessage = _protocolMessageFactory.newCompactBlockTransactionsMessage();
+        compactBlockTransactionsMessage.setBlockHash(blockHash);
+        compactBlockTransactionsMessage.setTransactions(transactions);
+        _queueMessage(compactBlockTransactionsMessage);
+    }
+
     public void transmitMerkleBlock(final Block block) {
         final MutableBloomFilter bloomFilter = _bloomFilter;
         if (bloomFilter == null) {
@@ -1822,6 +2172,14 @@ public class BitcoinNode extends Node {
         _requestExtraThinBlockCallback = requestExtraThinBlockCallback;
     }
 
+    public void setRequestCompactBlockTransactionsHandler(final RequestCompactBlockTransactionsHandler requestCompactBlockTransactionsHandler) {
+        _requestCompactBlockTransactionsHandler = requestCompactBlockTransactionsHandler;
+    }
+
+    public void setCompactBlockAssembler(final CompactBlockAssembler compactBlockAssembler) {
+        _compactBlockAssembler = compactBlockAssembler;
+    }
+
     public void setTransactionsAnnouncementCallback(final TransactionInventoryAnnouncementHandler transactionsAnnouncementCallback) {
         _transactionsAnnouncementCallback = transactionsAnnouncementCallback;
     }
@@ -1834,6 +2192,21 @@ public class BitcoinNode extends Node {
         return _announceNewBlocksViaHeadersIsEnabled;
     }
 
+    public Boolean supportsCompactBlocks() {
+        return (_compactBlocksVersion != null);
+    }
+
+    /**
+     * Returns true if the peer requested new blocks be announced via unsolicited cmpctblock messages (BIP152 high-bandwidth mode).
+     */
+    public Boolean isNewBlocksViaCompactBlocksEnabled() {
+        return _announceNewBlocksViaCompactBlocksIsEnabled;
+    }
+
+    public Boolean isHighBandwidthCompactBlocksRequested() {
+        return _highBandwidthCompactBlocksIsRequested;
+    }
+
     public Boolean supportsExtraThinBlocks() {
         if (_synchronizeVersionMessage == null) { return false; }
 
@@ -1930,6 +2303,18 @@ public class BitcoinNode extends Node {
         _queueMessage(newBlocksViaHeadersMessage);
     }
 
+    /**
+     * Announces support for compact blocks to the peer.
+     *  If highBandwidthModeIsEnabled is true, the peer is requested to announce new blocks via unsolicited cmpctblock messages.
+     */
+    public void enableCompactBlocks(final Boolean highBandwidthModeIsEnabled) {
+        final EnableCompactBlocksMessage enableCompactBlocksMessage = _protocolMessageFactory.newEnableCompactBlocksMessage();
+        enableCompactBlocksMessage.setIsEnabled(highBandwidthModeIsEnabled);
+        enableCompactBlocksMessage.setVersion(EnableCompactBlocksMessage.VERSION);
+        _highBandwidthCompactBlocksIsRequested = highBandwidthModeIsEnabled;
+        _queueMessage(enableCompactBlocksMessage);
+    }
+
     public void getAddressBlocks(final List<Address> addresses) {
         _requestAddressBlocks(addresses);
     }
@@ -1989,6 +2374,7 @@ public class BitcoinNode extends Node {
         synchronized (_downloadExtraThinBlockRequests) { _downloadExtraThinBlockRequests.clear(); }
         synchronized (_downloadThinTransactionsRequests) { _downloadThinTransactionsRequests.clear(); }
         synchronized (_downloadAddressBlocksRequests) { _downloadAddressBlocksRequests.clear(); }
+        _pendingCompactBlocks.clear();
 
         _failableRequests.clear();
     }
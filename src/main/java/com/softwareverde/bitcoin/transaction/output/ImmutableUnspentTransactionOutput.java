@@ -0,0 +1,24 @@
+package com.softwareverde.bitcoin.transaction.output;
+
+import com.softwareverde.util.Util;
+
+public class ImmutableUnspentTransactionOutput extends ImmutableTransactionOutput implements UnspentTransactionOutput {
+    protected final Long _blockHeight;
+    protected final Boolean _isCoinbase;
+
+    public ImmutableUnspentTransactionOutput(final TransactionOutput transactionOutput, final Long blockHeight, final Boolean isCoinbase) {
+        super(transactionOutput);
+        _blockHeight = Util.coalesce(blockHeight, UNKNOWN_BLOCK_HEIGHT);
+        _isCoinbase = isCoinbase;
+    }
+
+    @Override
+    public Long getBlockHeight() {
+        return _blockHeight;
+    }
+
+    @Override
+    public Boolean isCoinbase() {
+        return _isCoinbase;
+    }
+}
@@ -0,0 +1,18 @@
+package com.softwareverde.bitcoin.transaction.output;
+
+/**
+ * A TransactionOutput that is a member of the UTXO set, along with the metadata required to validate its spending.
+ */
+public interface UnspentTransactionOutput extends TransactionOutput {
+    Long UNKNOWN_BLOCK_HEIGHT = -1L;
+
+    /**
+     * Returns the height of the Block that created this output, or UNKNOWN_BLOCK_HEIGHT if it is not known.
+     */
+    Long getBlockHeight();
+
+    /**
+     * Returns true if the output was created by a coinbase Transaction, or null if it is not known.
+     */
+    Boolean isCoinbase();
+}
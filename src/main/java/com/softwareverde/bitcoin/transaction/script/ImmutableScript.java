@@ -16,6 +16,7 @@ public class ImmutableScript implements Script, Const {
     protected static final ScriptInflater SCRIPT_INFLATER = new ScriptInflater();
 
     protected List<Operation> _cachedOperations;
+    protected Boolean _cachedContainsNonPushOperations;
     protected final ByteArray _bytes;
 
     protected void _requireCachedOperations() {
@@ -77,15 +78,20 @@ public class ImmutableScript implements Script, Const {
 
     @Override
     public Boolean containsNonPushOperations() {
+        if (_cachedContainsNonPushOperations != null) { return _cachedContainsNonPushOperations; }
+
         _requireCachedOperations();
 
+        boolean containsNonPushOperations = false;
         for (final Operation operation : _cachedOperations) {
             if (operation.getType() != PushOperation.TYPE) {
-                return true;
+                containsNonPushOperations = true;
+                break;
             }
         }
 
-        return false;
+        _cachedContainsNonPushOperations = containsNonPushOperations;
+        return containsNonPushOperations;
     }
 
     @Override
@@ -54,6 +54,37 @@ public class ScriptPatternMatcher {
         PAY_TO_SCRIPT_HASH_PATTERN = listBuilder.build();
     }
 
+    protected static final int PAY_TO_PUBLIC_KEY_HASH_BYTE_COUNT = 25;
+    protected static final int PAY_TO_SCRIPT_HASH_BYTE_COUNT = 23;
+
+    /**
+     * Returns true if the bytes are exactly: OP_DUP OP_HASH160 PUSH(20) <20-byte public-key-hash> OP_EQUALVERIFY OP_CHECKSIG
+     *  Since a 20-byte PUSH_DATA operation must be encoded as 0x14, this is equivalent to ::_matchesPayToPublicKeyHashFormat,
+     *  but does not require the Script's operations to be inflated.
+     */
+    protected Boolean _matchesPayToPublicKeyHashBytes(final ByteArray bytes) {
+        if (bytes.getByteCount() != PAY_TO_PUBLIC_KEY_HASH_BYTE_COUNT) { return false; }
+
+        if (! Opcode.COPY_1ST.matchesByte(bytes.getByte(0))) { return false; }
+        if (! Opcode.SHA_256_THEN_RIPEMD_160.matchesByte(bytes.getByte(1))) { return false; }
+        if (bytes.getByte(2) != 0x14) { return false; }
+        if (! Opcode.IS_EQUAL_THEN_VERIFY.matchesByte(bytes.getByte(23))) { return false; }
+        return Opcode.CHECK_SIGNATURE.matchesByte(bytes.getByte(24));
+    }
+
+    /**
+     * Returns true if the bytes are exactly: OP_HASH160 PUSH(20) <20-byte redeem-script-hash> OP_EQUAL
+     *  Since a 20-byte PUSH_DATA operation must be encoded as 0x14, this is equivalent to ::_matchesPayToScriptHashFormat,
+     *  but does not require the Script's operations to be inflated.
+     */
+    protected Boolean _matchesPayToScriptHashBytes(final ByteArray bytes) {
+        if (bytes.getByteCount() != PAY_TO_SCRIPT_HASH_BYTE_COUNT) { return false; }
+
+        if (! Opcode.SHA_256_THEN_RIPEMD_160.matchesByte(bytes.getByte(0))) { return false; }
+        if (bytes.getByte(1) != 0x14) { return false; }
+        return Opcode.IS_EQUAL.matchesByte(bytes.getByte(22));
+    }
+
     protected Boolean _matchesPattern(final List<Opcode> pattern, final List<Operation> scriptOperations) {
         final int opcodeCount = pattern.getCount();
         final int operationCount = scriptOperations.getCount();
@@ -241,7 +272,32 @@ public class ScriptPatternMatcher {
         return _matchesPayToScriptHashFormat(lockingScript);
     }
 
+    /**
+     * Returns ScriptType.PAY_TO_PUBLIC_KEY_HASH or ScriptType.PAY_TO_SCRIPT_HASH if the lockingScript is one of the standard
+     *  templates, otherwise null.  Unlike ::getScriptType, the lockingScript's operations are not inflated.
+     */
+    public ScriptType getStandardScriptType(final LockingScript lockingScript) {
+        final ByteArray bytes = lockingScript.getBytes();
+
+        if (_matchesPayToPublicKeyHashBytes(bytes)) {
+            return ScriptType.PAY_TO_PUBLIC_KEY_HASH;
+        }
+
+        if (_matchesPayToScriptHashBytes(bytes)) {
+            return ScriptType.PAY_TO_SCRIPT_HASH;
+        }
+
+        return null;
+    }
+
     public ScriptType getScriptType(final LockingScript lockingScript) {
+        if (lockingScript instanceof ImmutableScript) { // ImmutableScripts' bytes are available without deflating its operations...
+            final ScriptType standardScriptType = getStandardScriptType(lockingScript);
+            if (standardScriptType != null) {
+                return standardScriptType;
+            }
+        }
+
         final Boolean isPayToPublicKeyHash = _matchesPayToPublicKeyHashFormat(lockingScript);
         if (isPayToPublicKeyHash) {
             return ScriptType.PAY_TO_PUBLIC_KEY_HASH;
@@ -7,6 +7,7 @@ import com.softwareverde.bitcoin.transaction.script.ScriptType;
 import com.softwareverde.constable.bytearray.ByteArray;
 
 public class ImmutableLockingScript extends ImmutableScript implements LockingScript {
+    protected ScriptType _cachedScriptType;
 
     protected ImmutableLockingScript() {
         super();
@@ -22,8 +23,12 @@ public class ImmutableLockingScript extends ImmutableScript implements LockingSc
 
     @Override
     public ScriptType getScriptType() {
-        final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
-        return scriptPatternMatcher.getScriptType(this);
+        if (_cachedScriptType == null) {
+            final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
+            _cachedScriptType = scriptPatternMatcher.getScriptType(this);
+        }
+
+        return _cachedScriptType;
     }
 
     @Override
@@ -0,0 +1,139 @@
+package com.softwareverde.bitcoin.transaction.script.locking;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+
+/**
+ * Compresses the most common LockingScript templates into a compact, lossless form for storage within the UTXO set.
+ *  The first byte of the compressed form identifies its template:
+ *      0x00        - P2PKH; followed by the 20-byte public-key-hash.
+ *      0x01        - P2SH; followed by the 20-byte script-hash.
+ *      0x02, 0x03  - P2PK with a compressed public key; the compressed form is the 33-byte public key itself.
+ *      0x06        - Any other script; followed by the uncompressed script bytes.
+ */
+public class LockingScriptCompressor {
+    public static final int MAX_TEMPLATE_BYTE_COUNT = 33; // The largest compressed form of a templated script (i.e. P2PK).
+
+    protected static final byte PAY_TO_PUBLIC_KEY_HASH_TYPE = 0x00;
+    protected static final byte PAY_TO_SCRIPT_HASH_TYPE = 0x01;
+    protected static final byte PAY_TO_COMPRESSED_PUBLIC_KEY_EVEN_TYPE = 0x02;
+    protected static final byte PAY_TO_COMPRESSED_PUBLIC_KEY_ODD_TYPE = 0x03;
+    protected static final byte RAW_SCRIPT_TYPE = 0x06;
+
+    protected static final byte OP_DUP = (byte) 0x76;
+    protected static final byte OP_HASH160 = (byte) 0xA9;
+    protected static final byte OP_EQUAL = (byte) 0x87;
+    protected static final byte OP_EQUALVERIFY = (byte) 0x88;
+    protected static final byte OP_CHECKSIG = (byte) 0xAC;
+    protected static final byte PUSH_20 = (byte) 0x14;
+    protected static final byte PUSH_33 = (byte) 0x21;
+
+    protected static final int HASH_BYTE_COUNT = 20;
+    protected static final int COMPRESSED_PUBLIC_KEY_BYTE_COUNT = 33;
+
+    protected static Boolean _isPayToPublicKeyHash(final ByteArray bytes) {
+        if (bytes.getByteCount() != (HASH_BYTE_COUNT + 5)) { return false; }
+        if (bytes.getByte(0) != OP_DUP) { return false; }
+        if (bytes.getByte(1) != OP_HASH160) { return false; }
+        if (bytes.getByte(2) != PUSH_20) { return false; }
+        if (bytes.getByte(HASH_BYTE_COUNT + 3) != OP_EQUALVERIFY) { return false; }
+        return (bytes.getByte(HASH_BYTE_COUNT + 4) == OP_CHECKSIG);
+    }
+
+    protected static Boolean _isPayToScriptHash(final ByteArray bytes) {
+        if (bytes.getByteCount() != (HASH_BYTE_COUNT + 3)) { return false; }
+        if (bytes.getByte(0) != OP_HASH160) { return false; }
+        if (bytes.getByte(1) != PUSH_20) { return false; }
+        return (bytes.getByte(HASH_BYTE_COUNT + 2) == OP_EQUAL);
+    }
+
+    protected static Boolean _isPayToCompressedPublicKey(final ByteArray bytes) {
+        if (bytes.getByteCount() != (COMPRESSED_PUBLIC_KEY_BYTE_COUNT + 2)) { return false; }
+        if (bytes.getByte(0) != PUSH_33) { return false; }
+        final byte publicKeyPrefix = bytes.getByte(1);
+        if ( (publicKeyPrefix != PAY_TO_COMPRESSED_PUBLIC_KEY_EVEN_TYPE) && (publicKeyPrefix != PAY_TO_COMPRESSED_PUBLIC_KEY_ODD_TYPE) ) { return false; }
+        return (bytes.getByte(COMPRESSED_PUBLIC_KEY_BYTE_COUNT + 1) == OP_CHECKSIG);
+    }
+
+    public ByteArray compress(final LockingScript lockingScript) {
+        final ByteArray bytes = lockingScript.getBytes();
+
+        if (_isPayToPublicKeyHash(bytes)) {
+            final MutableByteArray compressedBytes = new MutableByteArray(HASH_BYTE_COUNT + 1);
+            compressedBytes.setByte(0, PAY_TO_PUBLIC_KEY_HASH_TYPE);
+            compressedBytes.setBytes(1, bytes.getBytes(3, HASH_BYTE_COUNT));
+            return compressedBytes;
+        }
+
+        if (_isPayToScriptHash(bytes)) {
+            final MutableByteArray compressedBytes = new MutableByteArray(HASH_BYTE_COUNT + 1);
+            compressedBytes.setByte(0, PAY_TO_SCRIPT_HASH_TYPE);
+            compressedBytes.setBytes(1, bytes.getBytes(2, HASH_BYTE_COUNT));
+            return compressedBytes;
+        }
+
+        if (_isPayToCompressedPublicKey(bytes)) {
+            return MutableByteArray.wrap(bytes.getBytes(1, COMPRESSED_PUBLIC_KEY_BYTE_COUNT));
+        }
+
+        final int byteCount = bytes.getByteCount();
+        final MutableByteArray compressedBytes = new MutableByteArray(byteCount + 1);
+        compressedBytes.setByte(0, RAW_SCRIPT_TYPE);
+        compressedBytes.setBytes(1, bytes.getBytes());
+        return compressedBytes;
+    }
+
+    /**
+     * Returns the LockingScript represented by compressedBytes, or null if the bytes are not a valid compressed LockingScript.
+     */
+    public LockingScript decompress(final ByteArray compressedBytes) {
+        final int byteCount = compressedBytes.getByteCount();
+        if (byteCount < 1) { return null; }
+
+        final byte type = compressedBytes.getByte(0);
+        switch (type) {
+            case PAY_TO_PUBLIC_KEY_HASH_TYPE: {
+                if (byteCount != (HASH_BYTE_COUNT + 1)) { return null; }
+
+                final MutableByteArray bytes = new MutableByteArray(HASH_BYTE_COUNT + 5);
+                bytes.setByte(0, OP_DUP);
+                bytes.setByte(1, OP_HASH160);
+                bytes.setByte(2, PUSH_20);
+                bytes.setBytes(3, compressedBytes.getBytes(1, HASH_BYTE_COUNT));
+                bytes.setByte((HASH_BYTE_COUNT + 3), OP_EQUALVERIFY);
+                bytes.setByte((HASH_BYTE_COUNT + 4), OP_CHECKSIG);
+                return new ImmutableLockingScript(bytes);
+            }
+
+            case PAY_TO_SCRIPT_HASH_TYPE: {
+                if (byteCount != (HASH_BYTE_COUNT + 1)) { return null; }
+
+                final MutableByteArray bytes = new MutableByteArray(HASH_BYTE_COUNT + 3);
+                bytes.setByte(0, OP_HASH160);
+                bytes.setByte(1, PUSH_20);
+                bytes.setBytes(2, compressedBytes.getBytes(1, HASH_BYTE_COUNT));
+                bytes.setByte((HASH_BYTE_COUNT + 2), OP_EQUAL);
+                return new ImmutableLockingScript(bytes);
+            }
+
+            case PAY_TO_COMPRESSED_PUBLIC_KEY_EVEN_TYPE:
+            case PAY_TO_COMPRESSED_PUBLIC_KEY_ODD_TYPE: {
+                if (byteCount != COMPRESSED_PUBLIC_KEY_BYTE_COUNT) { return null; }
+
+                final MutableByteArray bytes = new MutableByteArray(COMPRESSED_PUBLIC_KEY_BYTE_COUNT + 2);
+                bytes.setByte(0, PUSH_33);
+                bytes.setBytes(1, compressedBytes.getBytes());
+                bytes.setByte((COMPRESSED_PUBLIC_KEY_BYTE_COUNT + 1), OP_CHECKSIG);
+                return new ImmutableLockingScript(bytes);
+            }
+
+            case RAW_SCRIPT_TYPE: {
+                return new ImmutableLockingScript(MutableByteArray.wrap(compressedBytes.getBytes(1, (byteCount - 1))));
+            }
+
+            default: {
+                return null;
+            }
+        }
+    }
+}
@@ -7,7 +7,10 @@ import com.softwareverde.bitcoin.bip.HF20181115;
 import com.softwareverde.bitcoin.bip.HF20191115;
 import com.softwareverde.bitcoin.bip.HF20200515;
 import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
+import com.softwareverde.bitcoin.secp256k1.DeferredSignature;
 import com.softwareverde.bitcoin.secp256k1.Secp256k1;
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
+import com.softwareverde.bitcoin.secp256k1.SignatureCache;
 import com.softwareverde.bitcoin.server.main.BitcoinConstants;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
@@ -69,7 +72,31 @@ public class CryptographicOperation extends SubTypedOperation {
         super(value, TYPE, opcode);
     }
 
-    protected static Boolean verifySignature(final TransactionContext transactionContext, final PublicKey publicKey, final ScriptSignature scriptSignature, final List<ByteArray> bytesToExcludeFromScript) {
+    /**
+     * Adds the signature to the TransactionContext's SignatureBatch, to be verified after the script has finished executing.
+     *  The signature is not deferred if it is already cached as valid.
+     *  Returns true, since the script must continue executing as if the signature were valid.
+     */
+    protected static Boolean deferSignatureVerification(final TransactionContext transactionContext, final Signature signature, final PublicKey publicKey, final byte[] message) {
+        final SignatureCache signatureCache = transactionContext.getSignatureCache();
+        if (signatureCache != null) {
+            if (signatureCache.isSignatureCached(signature, publicKey, message)) { return true; }
+        }
+
+        final Transaction transaction = transactionContext.getTransaction();
+        final Integer transactionInputIndex = transactionContext.getTransactionInputIndex();
+
+        final SignatureBatch signatureBatch = transactionContext.getSignatureBatch();
+        signatureBatch.addSignature(new DeferredSignature(transaction.getHash(), transactionInputIndex, signature, publicKey, message));
+        return true;
+    }
+
+    /**
+     * Returns true if the signature is valid.
+     *  If signatureMayBeDeferred is true and the TransactionContext has a SignatureBatch, the signature's verification is
+     *  deferred and true is returned; signatureMayBeDeferred should only be true if an invalid signature would also fail the script.
+     */
+    protected static Boolean verifySignature(final TransactionContext transactionContext, final PublicKey publicKey, final ScriptSignature scriptSignature, final List<ByteArray> bytesToExcludeFromScript, final Boolean signatureMayBeDeferred) {
         final Transaction transaction = transactionContext.getTransaction();
         final Integer transactionInputIndexBeingSigned = transactionContext.getTransactionInputIndex();
         final TransactionOutput transactionOutputBeingSpent = transactionContext.getTransactionOutput();
@@ -87,7 +114,16 @@ public class CryptographicOperation extends SubTypedOperation {
         signatureContext.setLastCodeSeparatorIndex(transactionInputIndexBeingSigned, codeSeparatorIndex);
         signatureContext.setCurrentScript(currentScript);
         signatureContext.setBytesToExcludeFromScript(bytesToExcludeFromScript);
-        return transactionSigner.isSignatureValid(signatureContext, publicKey, scriptSignature);
+
+        final SignatureBatch signatureBatch = transactionContext.getSignatureBatch();
+        if ( signatureMayBeDeferred && (signatureBatch != null) ) {
+            final byte[] bytesForSigning = transactionSigner.getBytesForSigning(signatureContext);
+            return CryptographicOperation.deferSignatureVerification(transactionContext, scriptSignature.getSignature(), publicKey, bytesForSigning);
+        }
+
+        final SignatureCache signatureCache = transactionContext.getSignatureCache();
+        final Boolean shouldCacheSignatures = transactionContext.shouldCacheSignatures();
+        return transactionSigner.isSignatureValid(signatureContext, publicKey, scriptSignature, signatureCache, shouldCacheSignatures);
     }
 
     protected static Boolean validateStrictSignatureEncoding(final ScriptSignature scriptSignature, final ScriptSignatureContext scriptSignatureContext, final TransactionContext transactionContext) {
@@ -191,7 +227,15 @@ public class CryptographicOperation extends SubTypedOperation {
                     if (! publicKeyIsStrictlyEncoded) { return false; }
                 }
 
-                signatureIsValid = CryptographicOperation.verifySignature(transactionContext, publicKey, scriptSignature, bytesToRemoveFromScript);
+                final boolean signatureMayBeDeferred; // An invalid (non-empty) signature must fail the script in order for its verification to be deferred...
+                if (_opcode == Opcode.CHECK_SIGNATURE_THEN_VERIFY) {
+                    signatureMayBeDeferred = true;
+                }
+                else {
+                    signatureMayBeDeferred = (BitcoinConstants.immediatelyFailOnNonEmptyInvalidSignatures() && HF20171113.isEnabled(blockHeight));
+                }
+
+                signatureIsValid = CryptographicOperation.verifySignature(transactionContext, publicKey, scriptSignature, bytesToRemoveFromScript, signatureMayBeDeferred);
             }
             else {
                 // NOTE: An invalid scriptSignature is permitted, and just simply fails...
@@ -451,7 +495,7 @@ public class CryptographicOperation extends SubTypedOperation {
                             final Signature.Type signatureType = scriptSignature.getSignatureType();
                             if (signatureType != allowedSignatureType) { return false; }
 
-                            signatureIsValid = CryptographicOperation.verifySignature(transactionContext, publicKey, scriptSignature, bytesToRemoveFromScript);
+                            signatureIsValid = CryptographicOperation.verifySignature(transactionContext, publicKey, scriptSignature, bytesToRemoveFromScript, false);
                         }
                         else {
                             signatureIsValid = false; // NOTE: An invalid scriptSignature is permitted, and just simply fails...
@@ -543,8 +587,18 @@ public class CryptographicOperation extends SubTypedOperation {
             }
 
             final Signature signature = scriptSignature.getSignature();
+            final SignatureCache signatureCache = transactionContext.getSignatureCache();
+            final SignatureBatch signatureBatch = transactionContext.getSignatureBatch();
 
-            if (signature.getType() == Signature.Type.SCHNORR) {
+            final boolean signatureMayBeDeferred = ( (_opcode == Opcode.CHECK_DATA_SIGNATURE_THEN_VERIFY) || BitcoinConstants.immediatelyFailOnNonEmptyInvalidSignatures() );
+            if ( signatureMayBeDeferred && (signatureBatch != null) ) {
+                signatureIsValid = CryptographicOperation.deferSignatureVerification(transactionContext, signature, publicKey, messageHash.unwrap());
+            }
+            else if (signatureCache != null) {
+                final Boolean shouldCacheSignatures = transactionContext.shouldCacheSignatures();
+                signatureIsValid = signatureCache.verifySignature(signature, publicKey, messageHash.unwrap(), shouldCacheSignatures);
+            }
+            else if (signature.getType() == Signature.Type.SCHNORR) {
                 signatureIsValid = Schnorr.verifySignature(signature, publicKey, messageHash.unwrap());
             }
             else {
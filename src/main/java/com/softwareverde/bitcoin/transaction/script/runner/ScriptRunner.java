@@ -8,13 +8,18 @@ import com.softwareverde.bitcoin.transaction.script.Script;
 import com.softwareverde.bitcoin.transaction.script.ScriptPatternMatcher;
 import com.softwareverde.bitcoin.transaction.script.ScriptType;
 import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.transaction.script.opcode.CryptographicOperation;
 import com.softwareverde.bitcoin.transaction.script.opcode.Operation;
 import com.softwareverde.bitcoin.transaction.script.runner.context.MutableTransactionContext;
 import com.softwareverde.bitcoin.transaction.script.runner.context.TransactionContext;
 import com.softwareverde.bitcoin.transaction.script.stack.Stack;
 import com.softwareverde.bitcoin.transaction.script.stack.Value;
 import com.softwareverde.bitcoin.transaction.script.unlocking.UnlockingScript;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
+import com.softwareverde.cryptography.hash.ripemd160.Ripemd160Hash;
+import com.softwareverde.cryptography.util.HashUtil;
 import com.softwareverde.logging.Logger;
 
 /**
@@ -29,16 +34,99 @@ public class ScriptRunner {
 
     protected static final Boolean BITCOIN_ABC_QUIRK_ENABLED = true;
 
+    protected static final int PAY_TO_PUBLIC_KEY_HASH_HASH_INDEX = 3;
+    protected static final int PAY_TO_SCRIPT_HASH_HASH_INDEX = 2;
+    protected static final int HASH_BYTE_COUNT = 20;
+
+    /**
+     * Executes the standard P2PKH LockingScript without inflating its operations:
+     *  OP_DUP OP_HASH160 <20-byte public-key-hash> OP_EQUALVERIFY OP_CHECKSIG
+     *  Each step performs the same Stack operations as its generic Operation, so the result (and the Stack) is identical to
+     *  evaluating the Script's operations individually.  OP_CHECKSIG is delegated to its Operation since signature validation
+     *  requires the current Script.  The TransactionContext's current Script must already be set to the lockingScript.
+     */
+    protected Boolean _runPayToPublicKeyHashScript(final LockingScript lockingScript, final Stack stack, final ControlState controlState, final MutableTransactionContext mutableContext) {
+        final ByteArray lockingScriptBytes = lockingScript.getBytes();
+
+        { // OP_DUP
+            mutableContext.incrementCurrentScriptIndex();
+            stack.push(stack.peak());
+            if (stack.didOverflow()) { return false; }
+        }
+
+        { // OP_HASH160
+            mutableContext.incrementCurrentScriptIndex();
+            final Value input = stack.pop();
+            final Ripemd160Hash bytes = HashUtil.ripemd160(HashUtil.sha256(input));
+            stack.push(Value.fromBytes(bytes));
+            if (stack.didOverflow()) { return false; }
+        }
+
+        { // <20-byte public-key-hash>
+            mutableContext.incrementCurrentScriptIndex();
+            stack.push(Value.fromBytes(lockingScriptBytes.getBytes(PAY_TO_PUBLIC_KEY_HASH_HASH_INDEX, HASH_BYTE_COUNT)));
+        }
+
+        { // OP_EQUALVERIFY
+            mutableContext.incrementCurrentScriptIndex();
+            final Value value0 = stack.pop();
+            final Value value1 = stack.pop();
+            if (stack.didOverflow()) { return false; }
+            if (! ByteUtil.areEqual(value0, value1)) { return false; }
+        }
+
+        { // OP_CHECKSIG
+            mutableContext.incrementCurrentScriptIndex();
+            return CryptographicOperation.CHECK_SIGNATURE.applyTo(stack, controlState, mutableContext);
+        }
+    }
+
+    /**
+     * Executes the standard P2SH LockingScript without inflating its operations:
+     *  OP_HASH160 <20-byte redeem-script-hash> OP_EQUAL
+     *  Each step performs the same Stack operations as its generic Operation.
+     *  The TransactionContext's current Script must already be set to the lockingScript.
+     */
+    protected Boolean _runPayToScriptHashScript(final LockingScript lockingScript, final Stack stack, final MutableTransactionContext mutableContext) {
+        final ByteArray lockingScriptBytes = lockingScript.getBytes();
+
+        { // OP_HASH160
+            mutableContext.incrementCurrentScriptIndex();
+            final Value input = stack.pop();
+            final Ripemd160Hash bytes = HashUtil.ripemd160(HashUtil.sha256(input));
+            stack.push(Value.fromBytes(bytes));
+            if (stack.didOverflow()) { return false; }
+        }
+
+        { // <20-byte redeem-script-hash>
+            mutableContext.incrementCurrentScriptIndex();
+            stack.push(Value.fromBytes(lockingScriptBytes.getBytes(PAY_TO_SCRIPT_HASH_HASH_INDEX, HASH_BYTE_COUNT)));
+        }
+
+        { // OP_EQUAL
+            mutableContext.incrementCurrentScriptIndex();
+            final Value value0 = stack.pop();
+            final Value value1 = stack.pop();
+            if (stack.didOverflow()) { return false; }
+
+            stack.push(Value.fromBoolean(ByteUtil.areEqual(value0, value1)));
+            return true;
+        }
+    }
+
     public ScriptRunner() { }
 
     public Boolean runScript(final LockingScript lockingScript, final UnlockingScript unlockingScript, final TransactionContext transactionContext) {
         final MutableTransactionContext mutableContext = new MutableTransactionContext(transactionContext);
 
         final ControlState controlState = new ControlState();
+        final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
 
         if (lockingScript.getByteCount() > MAX_SCRIPT_BYTE_COUNT) { return false; }
         if (unlockingScript.getByteCount() > MAX_SCRIPT_BYTE_COUNT) { return false; }
 
+        final ScriptType lockingScriptType = scriptPatternMatcher.getStandardScriptType(lockingScript); // NOTE: Null if the LockingScript is not P2PKH or P2SH...
+
         final Stack traditionalStack;
         final Stack payToScriptHashStack;
 
@@ -73,20 +161,30 @@ public class ScriptRunner {
 
                 payToScriptHashStack = new Stack(traditionalStack);
 
-                final List<Operation> lockingScriptOperations = lockingScript.getOperations();
-                if (lockingScriptOperations == null) { return false; }
-
                 mutableContext.setCurrentScript(lockingScript);
-                for (final Operation operation : lockingScriptOperations) {
-                    mutableContext.incrementCurrentScriptIndex();
+                if (lockingScriptType == ScriptType.PAY_TO_PUBLIC_KEY_HASH) { // The standard templates are executed without inflating their operations...
+                    final Boolean wasSuccessful = _runPayToPublicKeyHashScript(lockingScript, traditionalStack, controlState, mutableContext);
+                    if (! wasSuccessful) { return false; }
+                }
+                else if (lockingScriptType == ScriptType.PAY_TO_SCRIPT_HASH) {
+                    final Boolean wasSuccessful = _runPayToScriptHashScript(lockingScript, traditionalStack, mutableContext);
+                    if (! wasSuccessful) { return false; }
+                }
+                else {
+                    final List<Operation> lockingScriptOperations = lockingScript.getOperations();
+                    if (lockingScriptOperations == null) { return false; }
 
-                    if (operation.failIfPresent()) { return false; }
+                    for (final Operation operation : lockingScriptOperations) {
+                        mutableContext.incrementCurrentScriptIndex();
 
-                    final Boolean shouldExecute = operation.shouldExecute(traditionalStack, controlState, mutableContext);
-                    if (! shouldExecute) { continue; }
+                        if (operation.failIfPresent()) { return false; }
 
-                    final Boolean wasSuccessful = operation.applyTo(traditionalStack, controlState, mutableContext);
-                    if (! wasSuccessful) { return false; }
+                        final Boolean shouldExecute = operation.shouldExecute(traditionalStack, controlState, mutableContext);
+                        if (! shouldExecute) { continue; }
+
+                        final Boolean wasSuccessful = operation.applyTo(traditionalStack, controlState, mutableContext);
+                        if (! wasSuccessful) { return false; }
+                    }
                 }
             }
             catch (final Exception exception) {
@@ -105,11 +203,10 @@ public class ScriptRunner {
         final boolean shouldRunPayToScriptHashScript;
         { // Pay-To-Script-Hash Validation
             final Boolean payToScriptHashValidationRulesAreEnabled = Bip16.isEnabled(mutableContext.getBlockHeight());
-            final Boolean scriptIsPayToScriptHash = (lockingScript.getScriptType() == ScriptType.PAY_TO_SCRIPT_HASH);
+            final Boolean scriptIsPayToScriptHash = (lockingScriptType == ScriptType.PAY_TO_SCRIPT_HASH);
 
             if (BITCOIN_ABC_QUIRK_ENABLED) {
                 // NOTE: Bitcoin ABC's 0.19 behavior does not run P2SH Scripts that match the Segwit format...
-                final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
                 final Boolean unlockingScriptIsSegregatedWitnessProgram = scriptPatternMatcher.matchesSegregatedWitnessProgram(unlockingScript);
                 shouldRunPayToScriptHashScript = ( payToScriptHashValidationRulesAreEnabled && scriptIsPayToScriptHash && (! unlockingScriptIsSegregatedWitnessProgram) );
             }
@@ -162,7 +259,6 @@ public class ScriptRunner {
             final Stack stack = (shouldRunPayToScriptHashScript ? payToScriptHashStack : traditionalStack);
             if (! stack.isEmpty()) {
                 if (HF20190515.isEnabled(transactionContext.getMedianBlockTime())) {
-                    final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
                     final Boolean unlockingScriptIsSegregatedWitnessProgram = scriptPatternMatcher.matchesSegregatedWitnessProgram(unlockingScript);
                     if (! (shouldRunPayToScriptHashScript && unlockingScriptIsSegregatedWitnessProgram)) { return false; }
                 }
@@ -2,6 +2,8 @@ package com.softwareverde.bitcoin.transaction.script.runner.context;
 
 import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
 import com.softwareverde.bitcoin.constable.util.ConstUtil;
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
+import com.softwareverde.bitcoin.secp256k1.SignatureCache;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
@@ -23,6 +25,10 @@ public class ImmutableTransactionContext implements TransactionContext, Const {
     protected Integer _scriptLastCodeSeparatorIndex;
     protected Integer _signatureOperationCount;
 
+    protected SignatureCache _signatureCache;
+    protected Boolean _shouldCacheSignatures;
+    protected SignatureBatch _signatureBatch;
+
     public ImmutableTransactionContext(final TransactionContext transactionContext) {
         _blockHeight = transactionContext.getBlockHeight();
         _medianBlockTime = ConstUtil.asConstOrNull(transactionContext.getMedianBlockTime());
@@ -37,6 +43,10 @@ public class ImmutableTransactionContext implements TransactionContext, Const {
         _scriptLastCodeSeparatorIndex = transactionContext.getScriptLastCodeSeparatorIndex();
 
         _signatureOperationCount = transactionContext.getSignatureOperationCount();
+
+        _signatureCache = transactionContext.getSignatureCache();
+        _shouldCacheSignatures = transactionContext.shouldCacheSignatures();
+        _signatureBatch = transactionContext.getSignatureBatch();
     }
 
     @Override
@@ -89,6 +99,21 @@ public class ImmutableTransactionContext implements TransactionContext, Const {
         return _signatureOperationCount;
     }
 
+    @Override
+    public SignatureCache getSignatureCache() {
+        return _signatureCache;
+    }
+
+    @Override
+    public Boolean shouldCacheSignatures() {
+        return _shouldCacheSignatures;
+    }
+
+    @Override
+    public SignatureBatch getSignatureBatch() {
+        return _signatureBatch;
+    }
+
     @Override
     public ImmutableTransactionContext asConst() {
         return this;
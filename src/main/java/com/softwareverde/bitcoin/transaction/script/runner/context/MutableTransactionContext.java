@@ -2,6 +2,8 @@ package com.softwareverde.bitcoin.transaction.script.runner.context;
 
 import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
 import com.softwareverde.bitcoin.constable.util.ConstUtil;
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
+import com.softwareverde.bitcoin.secp256k1.SignatureCache;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
@@ -45,6 +47,10 @@ public class MutableTransactionContext implements TransactionContext, Const {
     protected Integer _scriptLastCodeSeparatorIndex = 0;
     protected Integer _signatureOperationCount = 0;
 
+    protected SignatureCache _signatureCache = null;
+    protected Boolean _shouldCacheSignatures = false;
+    protected SignatureBatch _signatureBatch = null;
+
     public MutableTransactionContext() { }
 
     public MutableTransactionContext(final TransactionContext transactionContext) {
@@ -59,6 +65,10 @@ public class MutableTransactionContext implements TransactionContext, Const {
         _currentScript = ConstUtil.asConstOrNull(currentScript);
         _currentScriptIndex = transactionContext.getScriptIndex();
         _scriptLastCodeSeparatorIndex = transactionContext.getScriptLastCodeSeparatorIndex();
+
+        _signatureCache = transactionContext.getSignatureCache();
+        _shouldCacheSignatures = transactionContext.shouldCacheSignatures();
+        _signatureBatch = transactionContext.getSignatureBatch();
     }
 
     public void setBlockHeight(final Long blockHeight) {
@@ -106,6 +116,23 @@ public class MutableTransactionContext implements TransactionContext, Const {
         _signatureOperationCount += operationCount;
     }
 
+    /**
+     * Sets the SignatureCache consulted during signature verification.
+     *  If shouldCacheSignatures is true, valid signatures are added to the cache after being verified.
+     */
+    public void setSignatureCache(final SignatureCache signatureCache, final Boolean shouldCacheSignatures) {
+        _signatureCache = signatureCache;
+        _shouldCacheSignatures = shouldCacheSignatures;
+    }
+
+    /**
+     * Sets the SignatureBatch used to defer signature verification until after script execution.
+     *  If null, signatures are verified immediately.
+     */
+    public void setSignatureBatch(final SignatureBatch signatureBatch) {
+        _signatureBatch = signatureBatch;
+    }
+
     @Override
     public Long getBlockHeight() {
         return _blockHeight;
@@ -156,6 +183,21 @@ public class MutableTransactionContext implements TransactionContext, Const {
         return _signatureOperationCount;
     }
 
+    @Override
+    public SignatureCache getSignatureCache() {
+        return _signatureCache;
+    }
+
+    @Override
+    public Boolean shouldCacheSignatures() {
+        return _shouldCacheSignatures;
+    }
+
+    @Override
+    public SignatureBatch getSignatureBatch() {
+        return _signatureBatch;
+    }
+
     @Override
     public ImmutableTransactionContext asConst() {
         return new ImmutableTransactionContext(this);
@@ -1,6 +1,8 @@
 package com.softwareverde.bitcoin.transaction.script.runner.context;
 
 import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
+import com.softwareverde.bitcoin.secp256k1.SignatureCache;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
@@ -52,4 +54,22 @@ public interface TransactionContext extends Constable<ImmutableTransactionContex
      * Returns the total number of Signature operations executed thus far, as defined by HF20200515.
      */
     Integer getSignatureOperationCount();
+
+    /**
+     * Returns the cache of previously-verified signatures, or null if signature caching is disabled.
+     */
+    SignatureCache getSignatureCache();
+
+    /**
+     * Returns true if successfully verified signatures should be added to the SignatureCache.
+     *  Signatures are cached when accepting Transactions into the mempool, so that validating the Block that later
+     *  contains the Transaction may skip re-verifying them.
+     */
+    Boolean shouldCacheSignatures();
+
+    /**
+     * Returns the SignatureBatch that collects deferred signature verifications, or null if signatures must be verified immediately.
+     *  Signatures are only deferred when an invalid signature would also fail the script.
+     */
+    SignatureBatch getSignatureBatch();
 }
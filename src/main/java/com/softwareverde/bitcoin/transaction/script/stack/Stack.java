@@ -1,24 +1,43 @@
 package com.softwareverde.bitcoin.transaction.script.stack;
 
-import java.util.LinkedList;
-import java.util.List;
-
+import java.util.Arrays;
+
+/**
+ * The Script's primary stack (and its lazily-initialized altStack).
+ *  Values are stored within an array, with the top of the stack at the end, so that indexed operations (i.e. OP_PICK,
+ *  OP_ROLL, OP_CHECKMULTISIG) do not traverse the stack.  Since Values are immutable, copying a Stack (i.e. for P2SH
+ *  evaluation) shares the array with the original until either Stack is modified.
+ */
 public class Stack {
     public static final Value OVERFLOW_VALUE = Value.fromInteger(0L);
+    protected static final Integer INITIAL_CAPACITY = 16;
 
-    protected final List<Value> _values = new LinkedList<Value>();
+    protected Value[] _values;
+    protected int _itemCount = 0;
+    protected boolean _valuesAreShared = false;
     protected Boolean _didOverflow = false;
 
     protected Integer _maxItemCount = Integer.MAX_VALUE;
     protected Stack _altStack = null;
 
+    /**
+     * Ensures _values is owned by this Stack and can hold at least minimumCapacity items.
+     */
+    protected void _prepareForWrite(final int minimumCapacity) {
+        if ( _valuesAreShared || (minimumCapacity > _values.length) ) {
+            final int capacity = Math.max(minimumCapacity, (minimumCapacity > _values.length ? (_values.length * 2) : _values.length));
+            _values = Arrays.copyOf(_values, Math.max(capacity, INITIAL_CAPACITY));
+            _valuesAreShared = false;
+        }
+    }
+
     protected Value _peak(final Integer index) {
-        if ( (index < 0) || (index >= _values.size()) ) {
+        if ( (index < 0) || (index >= _itemCount) ) {
             _didOverflow = true;
             return OVERFLOW_VALUE;
         }
 
-        return _values.get(_values.size() - index - 1);
+        return _values[_itemCount - index - 1];
     }
 
     protected void _initAltStack() {
@@ -27,10 +46,15 @@ public class Stack {
         }
     }
 
-    public Stack() { }
+    public Stack() {
+        _values = new Value[INITIAL_CAPACITY];
+    }
 
     public Stack(final Stack stack) {
-        _values.addAll(stack._values);
+        _values = stack._values;
+        _itemCount = stack._itemCount;
+        _valuesAreShared = true;
+        stack._valuesAreShared = true;
         _didOverflow = stack._didOverflow;
         _maxItemCount = stack._maxItemCount;
         _altStack = ((stack._altStack != null) ? new Stack(stack._altStack) : null);
@@ -42,13 +66,15 @@ public class Stack {
             return;
         }
 
-        final int totalItemCount = (_values.size() + (_altStack != null ? _altStack.getSize() : 0));
+        final int totalItemCount = (_itemCount + (_altStack != null ? _altStack.getSize() : 0));
         if (totalItemCount >= _maxItemCount) {
             _didOverflow = true;
             return;
         }
 
-        _values.add(value);
+        _prepareForWrite(_itemCount + 1);
+        _values[_itemCount] = value;
+        _itemCount += 1;
     }
 
     public void pushToAltStack(final Value value) {
@@ -75,12 +101,17 @@ public class Stack {
     }
 
     public Value pop() {
-        if (_values.isEmpty()) {
+        if (_itemCount == 0) {
             _didOverflow = true;
             return OVERFLOW_VALUE;
         }
 
-        return _values.remove(_values.size() - 1);
+        _itemCount -= 1;
+        final Value value = _values[_itemCount];
+        if (! _valuesAreShared) {
+            _values[_itemCount] = null;
+        }
+        return value;
     }
 
     public Value popFromAltStack() {
@@ -89,12 +120,19 @@ public class Stack {
     }
 
     public Value pop(final Integer index) {
-        if ( (index < 0) || (index >= _values.size()) ) {
+        if ( (index < 0) || (index >= _itemCount) ) {
             _didOverflow = true;
             return OVERFLOW_VALUE;
         }
 
-        return _values.remove(_values.size() - index - 1);
+        _prepareForWrite(_itemCount);
+
+        final int valueIndex = (_itemCount - index - 1);
+        final Value value = _values[valueIndex];
+        System.arraycopy(_values, (valueIndex + 1), _values, valueIndex, index);
+        _itemCount -= 1;
+        _values[_itemCount] = null;
+        return value;
     }
 
     public Value popFromAltStack(final Integer index) {
@@ -107,7 +145,14 @@ public class Stack {
      *  The altStack is not affected.
      */
     public void clearStack() {
-        _values.clear();
+        if (_valuesAreShared) {
+            _values = new Value[INITIAL_CAPACITY];
+            _valuesAreShared = false;
+        }
+        else {
+            Arrays.fill(_values, 0, _itemCount, null);
+        }
+        _itemCount = 0;
     }
 
     /**
@@ -121,7 +166,7 @@ public class Stack {
     }
 
     public Boolean isEmpty() {
-        return _values.isEmpty();
+        return (_itemCount == 0);
     }
 
     public Boolean altStackIsEmpty() {
@@ -130,7 +175,7 @@ public class Stack {
     }
 
     public Integer getSize() {
-        return _values.size();
+        return _itemCount;
     }
 
     public Integer getAltStackSize() {
@@ -163,7 +208,7 @@ public class Stack {
     public String toString() {
         final StringBuilder stringBuilder = new StringBuilder();
 
-        for (int i = 0; i < _values.size(); ++i) {
+        for (int i = 0; i < _itemCount; ++i) {
             final Value value = _peak(i);
             stringBuilder.append(value.toString());
             stringBuilder.append("\n");
@@ -17,7 +17,21 @@ import com.softwareverde.util.StringUtil;
 
 public class Value extends ImmutableByteArray implements Const {
     public static Integer MAX_BYTE_COUNT = 520; // https://en.bitcoin.it/wiki/Script#Arithmetic
+
+    // Values are immutable, so the small integers pushed by OP_0 through OP_16 (and boolean results) are shared instead of reallocated.
+    protected static final long MIN_INTERNED_INTEGER = -1L;
+    protected static final long MAX_INTERNED_INTEGER = 16L;
+    protected static final Value[] INTERNED_INTEGERS;
+    static {
+        INTERNED_INTEGERS = new Value[(int) (MAX_INTERNED_INTEGER - MIN_INTERNED_INTEGER + 1L)];
+        for (long i = MIN_INTERNED_INTEGER; i <= MAX_INTERNED_INTEGER; ++i) {
+            INTERNED_INTEGERS[(int) (i - MIN_INTERNED_INTEGER)] = new Value(_longToBytes(i));
+        }
+    }
+
     public static final Value ZERO = Value.fromInteger(0L);
+    public static final Value TRUE = Value.fromInteger(1L);
+    public static final Value FALSE = ZERO;
 
     /**
      * Returns a new copy of littleEndianBytes as if it were a minimally encoded integer (despite being too long for a normal integer).
@@ -105,13 +119,16 @@ public class Value extends ImmutableByteArray implements Const {
     }
 
     public static Value fromInteger(final Long longValue) {
+        if ( (longValue >= MIN_INTERNED_INTEGER) && (longValue <= MAX_INTERNED_INTEGER) ) {
+            return INTERNED_INTEGERS[(int) (longValue - MIN_INTERNED_INTEGER)];
+        }
+
         final byte[] bytes = _longToBytes(longValue);
         return new Value(bytes);
     }
 
     public static Value fromBoolean(final Boolean booleanValue) {
-        final byte[] bytes = _longToBytes(booleanValue ? 1L : 0L);
-        return new Value(bytes);
+        return (booleanValue ? TRUE : FALSE);
     }
 
     public static Value fromBytes(final byte[] bytes) {
@@ -129,8 +146,26 @@ public class Value extends ImmutableByteArray implements Const {
         return ( (mostSignificantByte & ((byte) 0x80)) != ((byte) 0x00) );
     }
 
+    /**
+     * Decodes _bytes, a little-endian sign-magnitude integer of at most 8 bytes, without allocating.
+     */
+    protected long _decodeSmallInteger() {
+        final int byteCount = _bytes.length;
+        final int mostSignificantByteIndex = (byteCount - 1);
+
+        long value = 0L;
+        for (int i = 0; i < byteCount; ++i) {
+            final int b = ((i == mostSignificantByteIndex) ? (_bytes[i] & 0x7F) : (_bytes[i] & 0xFF));
+            value |= (((long) b) << (8 * i));
+        }
+
+        final boolean isNegative = ((_bytes[mostSignificantByteIndex] & 0x80) != 0x00);
+        return (isNegative ? -value : value);
+    }
+
     protected Integer _asInteger() {
         if (_bytes.length == 0) { return 0; }
+        if (_bytes.length <= 4) { return (int) _decodeSmallInteger(); }
 
         final byte[] bigEndianBytes = ByteUtil.reverseEndian(_bytes);
 
@@ -146,6 +181,7 @@ public class Value extends ImmutableByteArray implements Const {
 
     protected Long _asLong() {
         if (_bytes.length == 0) { return 0L; }
+        if (_bytes.length <= 8) { return _decodeSmallInteger(); }
 
         final byte[] bigEndianBytes = ByteUtil.reverseEndian(_bytes);
 
@@ -169,6 +205,22 @@ public class Value extends ImmutableByteArray implements Const {
         return false;
     }
 
+    /**
+     * Returns true if _bytes has no unnecessary trailing (most-significant) zero bytes, i.e. its value would be re-encoded identically.
+     *  The most-significant byte may only be zero (or negative-zero) if it is required to hold the sign bit.
+     */
+    protected boolean _isMinimallyEncoded() {
+        final int byteCount = _bytes.length;
+        if (byteCount == 0) { return true; }
+
+        final byte mostSignificantByte = _bytes[byteCount - 1];
+        if ((mostSignificantByte & 0x7F) != 0x00) { return true; }
+        if (byteCount == 1) { return false; }
+
+        final byte nextMostSignificantByte = _bytes[byteCount - 2];
+        return ((nextMostSignificantByte & 0x80) != 0x00);
+    }
+
     protected Value(final byte[] bytes) {
         super(bytes);
     }
@@ -190,12 +242,16 @@ public class Value extends ImmutableByteArray implements Const {
     }
 
     public Boolean isMinimallyEncodedInteger() {
+        if (_bytes.length <= 4) { return _isMinimallyEncoded(); }
+
         final Integer asInteger = _asInteger();
         final byte[] minimallyEncodedBytes = _longToBytes(asInteger.longValue());
         return ByteUtil.areEqual(minimallyEncodedBytes, _bytes);
     }
 
     public Boolean isMinimallyEncodedLong() {
+        if (_bytes.length <= 4) { return _isMinimallyEncoded(); }
+
         final Long asLong = _asLong();
         final byte[] minimallyEncodedBytes = _longToBytes(asLong);
         return ByteUtil.areEqual(minimallyEncodedBytes, _bytes);
@@ -1,6 +1,7 @@
 package com.softwareverde.bitcoin.transaction.signer;
 
 import com.softwareverde.bitcoin.secp256k1.Secp256k1;
+import com.softwareverde.bitcoin.secp256k1.SignatureCache;
 import com.softwareverde.bitcoin.transaction.MutableTransaction;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionDeflater;
@@ -341,6 +342,13 @@ public class TransactionSigner {
         return mutableTransaction;
     }
 
+    /**
+     * Returns the message (i.e. the hash of the signature preimage) that is signed by the signatureContext.
+     */
+    public byte[] getBytesForSigning(final SignatureContext signatureContext) {
+        return _getBytesForSigning(signatureContext);
+    }
+
     public boolean isSignatureValid(final SignatureContext signatureContext, final PublicKey publicKey, final ScriptSignature scriptSignature) {
         final byte[] bytesForSigning = _getBytesForSigning(signatureContext);
 
@@ -353,6 +361,21 @@ public class TransactionSigner {
         }
     }
 
+    /**
+     * Returns true if the scriptSignature is valid, consulting the signatureCache before verifying the signature.
+     *  If shouldCacheValidSignature is true and the signature is valid, the signature is added to the signatureCache.
+     *  If signatureCache is null, the signature is always verified.
+     */
+    public boolean isSignatureValid(final SignatureContext signatureContext, final PublicKey publicKey, final ScriptSignature scriptSignature, final SignatureCache signatureCache, final Boolean shouldCacheValidSignature) {
+        if (signatureCache == null) {
+            return this.isSignatureValid(signatureContext, publicKey, scriptSignature);
+        }
+
+        final byte[] bytesForSigning = _getBytesForSigning(signatureContext);
+        final Signature signature = scriptSignature.getSignature();
+        return signatureCache.verifySignature(signature, publicKey, bytesForSigning, shouldCacheValidSignature);
+    }
+
     public ScriptSignature createSignature(final SignatureContext signatureContext, final PrivateKey privateKey) {
         final byte[] bytesToSign = _getBytesForSigning(signatureContext);
         final Signature signature = Secp256k1.sign(privateKey, bytesToSign);
@@ -0,0 +1,120 @@
+package com.softwareverde.bitcoin.transaction.validator;
+
+import com.softwareverde.bitcoin.bip.Bip112;
+import com.softwareverde.bitcoin.bip.Bip16;
+import com.softwareverde.bitcoin.bip.Bip65;
+import com.softwareverde.bitcoin.bip.Bip66;
+import com.softwareverde.bitcoin.bip.Buip55;
+import com.softwareverde.bitcoin.bip.HF20171113;
+import com.softwareverde.bitcoin.bip.HF20181115;
+import com.softwareverde.bitcoin.bip.HF20190515;
+import com.softwareverde.bitcoin.bip.HF20191115;
+import com.softwareverde.bitcoin.bip.HF20200515;
+import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the Transactions whose every input has successfully executed its scripts.
+ *  A Transaction's hash commits to the outputs it spends, so the script execution result of a Transaction depends only
+ *  upon its hash and the set of script rules (flags) that were active when the scripts were executed.
+ *  Cached results are only returned when the flags match, and the cache is cleared whenever a new set of flags is cached
+ *  (i.e. when an upgrade activates) or when the blockchain is reorganized.
+ */
+public class ScriptExecutionCache {
+    public static final Integer DEFAULT_MAX_ITEM_COUNT = 250000;
+
+    protected static final int BIP16_FLAG       = (1 << 0);
+    protected static final int BIP65_FLAG       = (1 << 1);
+    protected static final int BIP66_FLAG       = (1 << 2);
+    protected static final int BIP112_FLAG      = (1 << 3);
+    protected static final int BUIP55_FLAG      = (1 << 4);
+    protected static final int HF20171113_FLAG  = (1 << 5);
+    protected static final int HF20181115_FLAG  = (1 << 6);
+    protected static final int HF20190515_FLAG  = (1 << 7);
+    protected static final int HF20191115_FLAG  = (1 << 8);
+    protected static final int HF20200515_FLAG  = (1 << 9);
+
+    /**
+     * Returns the set of script-affecting upgrades that are active for a Transaction within the block at blockHeight.
+     *  medianBlockTime is the MedianBlockTime of the block's parent.
+     */
+    public static Integer getScriptFlags(final Long blockHeight, final MedianBlockTime medianBlockTime) {
+        int scriptFlags = 0;
+        if (Bip16.isEnabled(blockHeight)) { scriptFlags |= BIP16_FLAG; }
+        if (Bip65.isEnabled(blockHeight)) { scriptFlags |= BIP65_FLAG; }
+        if (Bip66.isEnabled(blockHeight)) { scriptFlags |= BIP66_FLAG; }
+        if (Bip112.isEnabled(blockHeight)) { scriptFlags |= BIP112_FLAG; }
+        if (Buip55.isEnabled(blockHeight)) { scriptFlags |= BUIP55_FLAG; }
+        if (HF20171113.isEnabled(blockHeight)) { scriptFlags |= HF20171113_FLAG; }
+        if (HF20181115.isEnabled(blockHeight)) { scriptFlags |= HF20181115_FLAG; }
+        if (HF20190515.isEnabled(medianBlockTime)) { scriptFlags |= HF20190515_FLAG; }
+        if (HF20191115.isEnabled(medianBlockTime)) { scriptFlags |= HF20191115_FLAG; }
+        if (HF20200515.isEnabled(medianBlockTime)) { scriptFlags |= HF20200515_FLAG; }
+        return scriptFlags;
+    }
+
+    protected static Long _packValue(final Integer scriptFlags, final Integer signatureOperationCount) {
+        return ((((long) scriptFlags) << 32) | (signatureOperationCount & 0xFFFFFFFFL));
+    }
+
+    protected final Integer _maxItemCount;
+    protected final ConcurrentHashMap<Sha256Hash, Long> _cachedValues; // The scriptFlags are stored alongside the signatureOperationCount in case they change concurrently with a lookup.
+    protected Integer _scriptFlags = null;
+
+    public ScriptExecutionCache() {
+        this(DEFAULT_MAX_ITEM_COUNT);
+    }
+
+    public ScriptExecutionCache(final Integer maxItemCount) {
+        _maxItemCount = maxItemCount;
+        _cachedValues = new ConcurrentHashMap<Sha256Hash, Long>();
+    }
+
+    /**
+     * Returns the number of signature operations executed by the Transaction's scripts if every input of the Transaction
+     *  was previously executed successfully with the same scriptFlags.
+     *  Returns null if the Transaction's script execution result is not cached.
+     */
+    public Integer getSignatureOperationCount(final Sha256Hash transactionHash, final Integer scriptFlags) {
+        final Long cachedValue = _cachedValues.get(transactionHash);
+        if (cachedValue == null) { return null; }
+
+        final int cachedScriptFlags = (int) (cachedValue >>> 32);
+        if (cachedScriptFlags != scriptFlags) { return null; }
+
+        return (int) (cachedValue & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Marks every input of the Transaction as having successfully executed its scripts under scriptFlags.
+     *  If scriptFlags differs from the flags of the previously cached Transactions, the cache is cleared.
+     */
+    public synchronized void cacheValidTransaction(final Sha256Hash transactionHash, final Integer scriptFlags, final Integer signatureOperationCount) {
+        if (! scriptFlags.equals(_scriptFlags)) {
+            _cachedValues.clear();
+            _scriptFlags = scriptFlags;
+        }
+
+        if (_cachedValues.size() >= _maxItemCount) { // Evict an arbitrary Transaction...
+            final Iterator<Sha256Hash> iterator = _cachedValues.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        _cachedValues.put(transactionHash.asConst(), _packValue(scriptFlags, signatureOperationCount));
+    }
+
+    public Integer getItemCount() {
+        return _cachedValues.size();
+    }
+
+    public synchronized void clear() {
+        _cachedValues.clear();
+        _scriptFlags = null;
+    }
+}
@@ -4,6 +4,7 @@ import com.softwareverde.bitcoin.context.MedianBlockTimeContext;
 import com.softwareverde.bitcoin.context.NetworkTimeContext;
 import com.softwareverde.bitcoin.context.UnspentTransactionOutputContext;
 import com.softwareverde.bitcoin.inflater.TransactionInflaters;
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.locktime.SequenceNumber;
 
@@ -20,4 +21,14 @@ public interface TransactionValidator {
      *  For acceptance into the mempool, blockHeight should be 1 greater than the current blockchain's head blockHeight.
      */
     TransactionValidationResult validateTransaction(Long blockHeight, Transaction transaction);
+
+    /**
+     * Returns true iff the transaction would be valid for the provided blockHeight, excluding the signatures added to signatureBatch.
+     *  Signatures whose failure would fail the transaction's scripts may be added to the signatureBatch instead of being verified;
+     *  the transaction is only valid if every signature added to the signatureBatch is also valid.
+     *  Implementations that do not support deferred signature verification verify every signature immediately.
+     */
+    default TransactionValidationResult validateTransaction(final Long blockHeight, final Transaction transaction, final SignatureBatch signatureBatch) {
+        return this.validateTransaction(blockHeight, transaction);
+    }
 }
@@ -6,6 +6,8 @@ import com.softwareverde.bitcoin.bip.HF20181115;
 import com.softwareverde.bitcoin.bip.HF20200515;
 import com.softwareverde.bitcoin.block.validator.ValidationResult;
 import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
+import com.softwareverde.bitcoin.secp256k1.SignatureCache;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionDeflater;
 import com.softwareverde.bitcoin.transaction.TransactionInflater;
@@ -34,6 +36,9 @@ import java.util.HashSet;
 public class TransactionValidatorCore implements TransactionValidator {
     protected final Context _context;
     protected final BlockOutputs _blockOutputs;
+    protected final SignatureCache _signatureCache;
+    protected final ScriptExecutionCache _scriptExecutionCache;
+    protected final Boolean _shouldCacheValidationResults;
 
     protected Long _getCoinbaseMaturity() {
         return TransactionValidator.COINBASE_MATURITY;
@@ -231,12 +236,24 @@ public class TransactionValidatorCore implements TransactionValidator {
     }
 
     public TransactionValidatorCore(final BlockOutputs blockOutputs, final Context context) {
+        this(blockOutputs, context, null, null, false);
+    }
+
+    /**
+     * Creates a TransactionValidatorCore that consults the signatureCache and scriptExecutionCache during validation.
+     *  Either cache may be null.
+     *  If shouldCacheValidationResults is true, valid signatures and successful script executions are added to the caches;
+     *  this is intended for mempool acceptance, so that the Transaction's later inclusion within a Block is validated quickly.
+     */
+    public TransactionValidatorCore(final BlockOutputs blockOutputs, final Context context, final SignatureCache signatureCache, final ScriptExecutionCache scriptExecutionCache, final Boolean shouldCacheValidationResults) {
         _context = context;
         _blockOutputs = blockOutputs;
+        _signatureCache = signatureCache;
+        _scriptExecutionCache = scriptExecutionCache;
+        _shouldCacheValidationResults = shouldCacheValidationResults;
     }
 
-    @Override
-    public TransactionValidationResult validateTransaction(final Long blockHeight, final Transaction transaction) {
+    protected TransactionValidationResult _validateTransaction(final Long blockHeight, final Transaction transaction, final SignatureBatch signatureBatch) {
         final Sha256Hash transactionHash = transaction.getHash();
 
         final ScriptRunner scriptRunner = new ScriptRunner();
@@ -249,6 +266,8 @@ public class TransactionValidatorCore implements TransactionValidator {
         transactionContext.setMedianBlockTime(medianBlockTime);
 
         transactionContext.setTransaction(transaction);
+        transactionContext.setSignatureCache(_signatureCache, _shouldCacheValidationResults);
+        transactionContext.setSignatureBatch(signatureBatch);
 
         { // Enforce Transaction minimum byte count...
             if (HF20181115.isEnabled(blockHeight)) {
@@ -281,6 +300,10 @@ public class TransactionValidatorCore implements TransactionValidator {
             }
         }
 
+        final Integer scriptFlags = ScriptExecutionCache.getScriptFlags(blockHeight, medianBlockTime);
+        final Integer cachedSignatureOperationCount = (_scriptExecutionCache != null ? _scriptExecutionCache.getSignatureOperationCount(transactionHash, scriptFlags) : null);
+        final boolean shouldExecuteScripts = (cachedSignatureOperationCount == null);
+
         final long totalTransactionInputValue;
         {
             long totalInputValue = 0L;
@@ -330,23 +353,34 @@ public class TransactionValidatorCore implements TransactionValidator {
 
                 totalInputValue += transactionOutputBeingSpent.getAmount();
 
-                final LockingScript lockingScript = transactionOutputBeingSpent.getLockingScript();
-                final UnlockingScript unlockingScript = transactionInput.getUnlockingScript();
+                if (shouldExecuteScripts) { // The scripts are not executed if the Transaction has already been validated with the same script flags...
+                    final LockingScript lockingScript = transactionOutputBeingSpent.getLockingScript();
+                    final UnlockingScript unlockingScript = transactionInput.getUnlockingScript();
 
-                transactionContext.setTransactionInput(transactionInput);
-                transactionContext.setTransactionOutputBeingSpent(transactionOutputBeingSpent);
-                transactionContext.setTransactionInputIndex(i);
+                    transactionContext.setTransactionInput(transactionInput);
+                    transactionContext.setTransactionOutputBeingSpent(transactionOutputBeingSpent);
+                    transactionContext.setTransactionInputIndex(i);
 
-                final Boolean inputIsUnlocked = scriptRunner.runScript(lockingScript, unlockingScript, transactionContext);
-                if (! inputIsUnlocked) {
-                    final Json errorJson = _createInvalidTransactionReport("Transaction failed to unlock inputs.", transaction, transactionContext);
-                    return TransactionValidationResult.invalid(errorJson);
+                    final Boolean inputIsUnlocked = scriptRunner.runScript(lockingScript, unlockingScript, transactionContext);
+                    if (! inputIsUnlocked) {
+                        final Json errorJson = _createInvalidTransactionReport("Transaction failed to unlock inputs.", transaction, transactionContext);
+                        return TransactionValidationResult.invalid(errorJson);
+                    }
                 }
             }
 
             totalTransactionInputValue = totalInputValue;
         }
 
+        if (shouldExecuteScripts) {
+            if ( (_scriptExecutionCache != null) && _shouldCacheValidationResults && (signatureBatch == null) ) { // Scripts with deferred signatures have not yet been fully validated...
+                _scriptExecutionCache.cacheValidTransaction(transactionHash, scriptFlags, transactionContext.getSignatureOperationCount());
+            }
+        }
+        else {
+            transactionContext.incrementSignatureOperationCount(cachedSignatureOperationCount);
+        }
+
         { // Validate that the total input value is greater than or equal to the output value...
             final long totalTransactionOutputValue;
             {
@@ -385,4 +419,14 @@ public class TransactionValidatorCore implements TransactionValidator {
 
         return TransactionValidationResult.valid(signatureOperationCount);
     }
+
+    @Override
+    public TransactionValidationResult validateTransaction(final Long blockHeight, final Transaction transaction) {
+        return _validateTransaction(blockHeight, transaction, null);
+    }
+
+    @Override
+    public TransactionValidationResult validateTransaction(final Long blockHeight, final Transaction transaction, final SignatureBatch signatureBatch) {
+        return _validateTransaction(blockHeight, transaction, signatureBatch);
+    }
 }
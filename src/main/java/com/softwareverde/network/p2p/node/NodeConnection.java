@@ -7,11 +7,15 @@ import com.softwareverde.network.ip.Ip;
 import com.softwareverde.network.p2p.message.ProtocolMessage;
 import com.softwareverde.network.socket.BinaryPacketFormat;
 import com.softwareverde.network.socket.BinarySocket;
+import com.softwareverde.network.socket.SocketSelector;
 import com.softwareverde.util.Util;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class NodeConnection {
@@ -57,10 +61,10 @@ public class NodeConnection {
 
                 try {
                     attemptCount += 1;
-                    socket = new Socket(_host, _port);
+                    socket = _openSocket();
                     if (socket.isConnected()) { break; }
                 }
-                catch (final UnknownHostException exception) {
+                catch (final UnknownHostException | UnresolvedAddressException exception) {
                     Logger.info("Connection could not be established. Unknown host: " + _toString());
                     break;
                 }
@@ -128,6 +132,20 @@ public class NodeConnection {
         return (hostString + ":" + _port);
     }
 
+    /**
+     * Opens a blocking connection to the host.
+     *  When a SocketSelector is in use, the Socket is opened via a SocketChannel so that its reads may be multiplexed by the SocketSelector.
+     */
+    protected Socket _openSocket() throws IOException {
+        final SocketSelector socketSelector = BinarySocket.getSocketSelector();
+        if ( (socketSelector == null) || (! socketSelector.isRunning()) ) {
+            return new Socket(_host, _port);
+        }
+
+        final SocketChannel socketChannel = SocketChannel.open(new InetSocketAddress(_host, _port));
+        return socketChannel.socket();
+    }
+
     protected void _shutdownConnectionThread() {
         final Thread connectionThread = _connectionThread;
         if (connectionThread == null) { return; }
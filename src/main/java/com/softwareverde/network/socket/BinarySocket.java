@@ -1,34 +1,84 @@
 package com.softwareverde.network.socket;
 
 import com.softwareverde.concurrent.pool.ThreadPool;
+import com.softwareverde.logging.Logger;
 import com.softwareverde.util.ByteUtil;
 
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+
 public class BinarySocket extends Socket {
     public static Integer DEFAULT_BUFFER_PAGE_BYTE_COUNT = (1024 * 2);
     public static Integer DEFAULT_MAX_BUFFER_BYTE_COUNT = (int) (128L * ByteUtil.Unit.Binary.MEBIBYTES);
 
+    protected interface PacketReadThread extends ReadThread {
+        void setBufferPageByteCount(Integer pageSize);
+        void setBufferMaxByteCount(Integer bufferSize);
+        PacketBuffer getProtocolMessageBuffer();
+    }
+
+    protected static volatile SocketSelector _socketSelector = null;
+
+    /**
+     * Sets the SocketSelector used by subsequently-created BinarySockets.
+     *  When set, sockets backed by a SocketChannel are read by the SocketSelector's IO threads instead of a dedicated
+     *  read thread per socket.  Setting null restores the thread-per-socket behavior for new sockets.
+     */
+    public static void setSocketSelector(final SocketSelector socketSelector) {
+        _socketSelector = socketSelector;
+    }
+
+    public static SocketSelector getSocketSelector() {
+        return _socketSelector;
+    }
+
+    protected static PacketReadThread _newReadThread(final java.net.Socket socket, final BinaryPacketFormat binaryPacketFormat) {
+        final SocketSelector socketSelector = _socketSelector;
+        final SocketChannel socketChannel = socket.getChannel();
+        if ( (socketSelector != null) && (socketChannel != null) && socketSelector.isRunning() ) {
+            try {
+                return new SelectorSocketChannel(socketChannel, socketSelector, DEFAULT_BUFFER_PAGE_BYTE_COUNT, DEFAULT_MAX_BUFFER_BYTE_COUNT, binaryPacketFormat);
+            }
+            catch (final IOException exception) {
+                Logger.debug("Unable to use SocketSelector for socket; falling back to dedicated read thread.", exception);
+            }
+        }
+
+        return new BinarySocketReadThread(DEFAULT_BUFFER_PAGE_BYTE_COUNT, DEFAULT_MAX_BUFFER_BYTE_COUNT, binaryPacketFormat);
+    }
+
     protected final BinaryPacketFormat _binaryPacketFormat;
 
+    @Override
+    protected void _writeBytes(final byte[] bytes) throws IOException {
+        if (_readThread instanceof SelectorSocketChannel) {
+            ((SelectorSocketChannel) _readThread).write(bytes);
+        }
+        else {
+            super._writeBytes(bytes);
+        }
+    }
+
     public BinarySocket(final java.net.Socket socket, final BinaryPacketFormat binaryPacketFormat, final ThreadPool threadPool) {
-        super(socket, new BinarySocketReadThread(DEFAULT_BUFFER_PAGE_BYTE_COUNT, DEFAULT_MAX_BUFFER_BYTE_COUNT, binaryPacketFormat), threadPool);
+        super(socket, _newReadThread(socket, binaryPacketFormat), threadPool);
         _binaryPacketFormat = binaryPacketFormat;
     }
 
     public void setBufferPageByteCount(final Integer bufferSize) {
-        ((BinarySocketReadThread) _readThread).setBufferPageByteCount(bufferSize);
+        ((PacketReadThread) _readThread).setBufferPageByteCount(bufferSize);
     }
 
     public void setBufferMaxByteCount(final Integer totalMaxBufferSize) {
-        ((BinarySocketReadThread) _readThread).setBufferMaxByteCount(totalMaxBufferSize);
+        ((PacketReadThread) _readThread).setBufferMaxByteCount(totalMaxBufferSize);
     }
 
     public Integer getBufferPageByteCount() {
-        final PacketBuffer packetBuffer = ((BinarySocketReadThread) _readThread).getProtocolMessageBuffer();
+        final PacketBuffer packetBuffer = ((PacketReadThread) _readThread).getProtocolMessageBuffer();
         return packetBuffer.getPageByteCount();
     }
 
     public Integer getBufferMaxByteCount() {
-        final PacketBuffer packetBuffer = ((BinarySocketReadThread) _readThread).getProtocolMessageBuffer();
+        final PacketBuffer packetBuffer = ((PacketReadThread) _readThread).getProtocolMessageBuffer();
         return packetBuffer.getMaxByteCount();
     }
 
@@ -7,7 +7,7 @@ import com.softwareverde.network.p2p.message.ProtocolMessage;
 import java.io.IOException;
 import java.io.InputStream;
 
-public class BinarySocketReadThread extends Thread implements Socket.ReadThread {
+public class BinarySocketReadThread extends Thread implements BinarySocket.PacketReadThread {
     private static final LoggerInstance LOG = Logger.getInstance(BinarySocketReadThread.class);
 
     private final PacketBuffer _protocolMessageBuffer;
@@ -89,14 +89,17 @@ public class BinarySocketReadThread extends Thread implements Socket.ReadThread
         _callback = callback;
     }
 
+    @Override
     public void setBufferPageByteCount(final Integer pageSize) {
         _protocolMessageBuffer.setPageByteCount(pageSize);
     }
 
+    @Override
     public void setBufferMaxByteCount(final Integer bufferSize) {
         _protocolMessageBuffer.setMaxByteCount(bufferSize);
     }
 
+    @Override
     public PacketBuffer getProtocolMessageBuffer() {
         return _protocolMessageBuffer;
     }
@@ -2,7 +2,11 @@ package com.softwareverde.network.socket;
 
 import com.softwareverde.concurrent.pool.ThreadPool;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
 
 public class BinarySocketServer extends SocketServer<BinarySocket> {
 
@@ -33,6 +37,23 @@ public class BinarySocketServer extends SocketServer<BinarySocket> {
 
     protected final BinaryPacketFormat _binaryPacketFormat;
 
+    /**
+     * When a SocketSelector is running, the ServerSocket is opened via a ServerSocketChannel so that accepted Sockets are
+     *  backed by SocketChannels, which allows their reads to be multiplexed by the SocketSelector.
+     */
+    @Override
+    protected ServerSocket _openServerSocket() throws IOException {
+        final SocketSelector socketSelector = BinarySocket.getSocketSelector();
+        if ( (socketSelector == null) || (! socketSelector.isRunning()) ) {
+            return super._openServerSocket();
+        }
+
+        final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+        final ServerSocket serverSocket = serverSocketChannel.socket();
+        serverSocket.bind(new InetSocketAddress(_port));
+        return serverSocket;
+    }
+
     public BinarySocketServer(final Integer port, final BinaryPacketFormat binaryPacketFormat, final ThreadPool threadPool) {
         super(port, new BinarySocketFactory(binaryPacketFormat, threadPool), threadPool);
         _binaryPacketFormat = binaryPacketFormat;
@@ -0,0 +1,258 @@
+package com.softwareverde.network.socket;
+
+import com.softwareverde.logging.Logger;
+import com.softwareverde.logging.LoggerInstance;
+import com.softwareverde.network.p2p.message.ProtocolMessage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A BinarySocket reader driven by a SocketSelector's IO thread instead of a dedicated blocking thread.
+ *  Bytes are read from the non-blocking SocketChannel directly into the PacketBuffer's recycled pages.
+ *  Writes are performed on the caller's thread; when the socket's send-buffer is full, the caller waits until the
+ *  SocketSelector reports the channel as writable, preserving the blocking semantics of Socket::write.
+ */
+public class SelectorSocketChannel implements BinarySocket.PacketReadThread {
+    private static final LoggerInstance LOG = Logger.getInstance(SelectorSocketChannel.class);
+
+    protected static final Long WRITABLE_POLL_INTERVAL_MS = 1000L;
+
+    protected final SocketSelector _socketSelector;
+    protected final SocketChannel _socketChannel;
+    protected final PacketBuffer _protocolMessageBuffer;
+
+    protected final Object _writeMutex = new Object();
+    protected final Object _writableSignal = new Object();
+    protected Boolean _isWritable = true;
+
+    protected volatile SocketSelector.IoThread _ioThread = null;
+    protected volatile SelectionKey _selectionKey = null;
+    protected volatile Boolean _isClosed = false;
+    protected volatile Long _totalBytesReceived = 0L;
+
+    protected Callback _callback;
+
+    protected void _signalWritable() {
+        synchronized (_writableSignal) {
+            _isWritable = true;
+            _writableSignal.notifyAll();
+        }
+    }
+
+    protected void _setInterestOps(final int interestOps) {
+        final SocketSelector.IoThread ioThread = _ioThread;
+        if (ioThread == null) { return; }
+
+        ioThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                final SelectionKey selectionKey = _selectionKey;
+                if ( (selectionKey != null) && (selectionKey.isValid()) ) {
+                    selectionKey.interestOps(interestOps);
+                }
+            }
+        });
+    }
+
+    protected void _cancelSelectionKey() {
+        final SocketSelector.IoThread ioThread = _ioThread;
+        if (ioThread == null) { return; }
+
+        ioThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                final SelectionKey selectionKey = _selectionKey;
+                if (selectionKey != null) {
+                    selectionKey.cancel();
+                }
+            }
+        });
+    }
+
+    /**
+     * Blocks until the SocketSelector reports the channel as writable, the poll interval elapses, or the channel is closed.
+     */
+    protected void _awaitWritable() throws IOException {
+        synchronized (_writableSignal) {
+            _isWritable = false;
+        }
+
+        _setInterestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+
+        synchronized (_writableSignal) {
+            try {
+                if ( (! _isWritable) && (! _isClosed) ) {
+                    _writableSignal.wait(WRITABLE_POLL_INTERVAL_MS);
+                }
+            }
+            catch (final InterruptedException exception) {
+                throw new IOException("IO: Interrupted while awaiting writable socket.", exception);
+            }
+        }
+    }
+
+    protected void _exit() {
+        if (_isClosed) { return; }
+        _isClosed = true;
+
+        _cancelSelectionKey();
+        _signalWritable();
+
+        final Callback callback = _callback;
+        if (callback != null) {
+            callback.onExit();
+        }
+    }
+
+    /**
+     * The SocketChannel is placed into non-blocking mode; the socket's InputStream and OutputStream must not be used afterwards.
+     */
+    public SelectorSocketChannel(final SocketChannel socketChannel, final SocketSelector socketSelector, final Integer bufferPageSize, final Integer maxByteCount, final BinaryPacketFormat binaryPacketFormat) throws IOException {
+        _socketSelector = socketSelector;
+        _socketChannel = socketChannel;
+        _socketChannel.configureBlocking(false);
+
+        _protocolMessageBuffer = new PacketBuffer(binaryPacketFormat);
+        _protocolMessageBuffer.setPageByteCount(bufferPageSize);
+        _protocolMessageBuffer.setMaxByteCount(maxByteCount);
+    }
+
+    protected void setIoThread(final SocketSelector.IoThread ioThread) {
+        _ioThread = ioThread;
+    }
+
+    /**
+     * Invoked by the IO thread once the channel has been assigned to it.
+     */
+    protected void onRegister(final Selector selector) {
+        if (_isClosed) { return; }
+
+        try {
+            _selectionKey = _socketChannel.register(selector, SelectionKey.OP_READ, this);
+        }
+        catch (final Exception exception) {
+            LOG.debug(exception);
+            _exit();
+        }
+    }
+
+    /**
+     * Invoked by the IO thread when the channel has bytes available.
+     */
+    protected void onReadable() {
+        try {
+            final byte[] buffer = _protocolMessageBuffer.getRecycledBuffer();
+            final int bytesRead = _socketChannel.read(ByteBuffer.wrap(buffer));
+
+            if (bytesRead < 0) {
+                throw new IOException("IO: Remote socket closed the connection.");
+            }
+            if (bytesRead == 0) { return; }
+
+            _totalBytesReceived += bytesRead;
+
+            _protocolMessageBuffer.appendBytes(buffer, bytesRead);
+            _protocolMessageBuffer.evictCorruptedPackets();
+
+            while (_protocolMessageBuffer.hasMessage()) {
+                final ProtocolMessage message = _protocolMessageBuffer.popMessage();
+                _protocolMessageBuffer.evictCorruptedPackets();
+
+                final Callback callback = _callback;
+                if ( (callback != null) && (message != null) ) {
+                    callback.onNewMessage(message);
+                }
+            }
+        }
+        catch (final Exception exception) {
+            LOG.debug(exception);
+            _exit();
+        }
+    }
+
+    /**
+     * Invoked by the IO thread when a previously-full send-buffer has space available.
+     */
+    protected void onWritable() {
+        final SelectionKey selectionKey = _selectionKey;
+        if ( (selectionKey != null) && (selectionKey.isValid()) ) {
+            selectionKey.interestOps(SelectionKey.OP_READ);
+        }
+
+        _signalWritable();
+    }
+
+    public void write(final byte[] bytes) throws IOException {
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+
+        synchronized (_writeMutex) {
+            while (byteBuffer.hasRemaining()) {
+                if (_isClosed) {
+                    throw new IOException("IO: Socket closed.");
+                }
+
+                final int bytesWritten = _socketChannel.write(byteBuffer);
+                if (bytesWritten == 0) {
+                    _awaitWritable();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void setInputStream(final InputStream inputStream) {
+        // Nothing; the SocketChannel is read directly.
+    }
+
+    @Override
+    public void setCallback(final Callback callback) {
+        _callback = callback;
+    }
+
+    @Override
+    public void interrupt() {
+        _isClosed = true;
+        _cancelSelectionKey();
+        _signalWritable();
+    }
+
+    @Override
+    public void join() { } // Reads are performed by the SocketSelector's IO thread; there is no thread to join.
+
+    @Override
+    public void join(final long timeout) { }
+
+    @Override
+    public void start() {
+        final Boolean wasRegistered = _socketSelector.register(this);
+        if (! wasRegistered) {
+            LOG.debug("Unable to register socket; SocketSelector is not running.");
+            _exit();
+        }
+    }
+
+    @Override
+    public void setBufferPageByteCount(final Integer pageSize) {
+        _protocolMessageBuffer.setPageByteCount(pageSize);
+    }
+
+    @Override
+    public void setBufferMaxByteCount(final Integer bufferSize) {
+        _protocolMessageBuffer.setMaxByteCount(bufferSize);
+    }
+
+    @Override
+    public PacketBuffer getProtocolMessageBuffer() {
+        return _protocolMessageBuffer;
+    }
+
+    @Override
+    public Long getTotalBytesReceived() {
+        return _totalBytesReceived;
+    }
+}
@@ -182,17 +182,24 @@ public abstract class Socket {
         _socketClosedCallback = callback;
     }
 
+    /**
+     * Writes the bytes to the underlying socket, blocking until the write completes.
+     *  Intended for subclass extension.
+     */
+    protected void _writeBytes(final byte[] bytes) throws IOException {
+        synchronized (_rawOutputStreamWriteMutex) {
+            _rawOutputStream.write(bytes);
+            _rawOutputStream.flush();
+        }
+    }
+
     public Boolean write(final ProtocolMessage outboundMessage) {
         final ByteArray bytes = outboundMessage.getBytes();
         _totalBytesSent += bytes.getByteCount();
 
         try {
-            synchronized (_rawOutputStreamWriteMutex) {
-                _rawOutputStream.write(bytes.getBytes());
-                _rawOutputStream.flush();
-
-                return true;
-            }
+            _writeBytes(bytes.getBytes());
+            return true;
         }
         catch (final Exception exception) {
             Logger.debug(exception);
@@ -0,0 +1,152 @@
+package com.softwareverde.network.socket;
+
+import com.softwareverde.logging.Logger;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multiplexes the IO of many BinarySockets across a small, fixed number of threads via java.nio Selectors.
+ *  Each registered SelectorSocketChannel is assigned to a single IO thread (round-robin) for its lifetime,
+ *  so a socket's reads are always processed sequentially.
+ */
+public class SocketSelector {
+    protected class IoThread extends Thread {
+        protected final Selector _selector;
+        protected final ConcurrentLinkedQueue<Runnable> _pendingTasks = new ConcurrentLinkedQueue<Runnable>();
+
+        public IoThread(final Selector selector) {
+            _selector = selector;
+            this.setName("Socket Selector - IO Thread - " + this.getId());
+            this.setDaemon(true);
+        }
+
+        /**
+         * Executes the task on this IO thread before its next select.
+         *  Selector registration and interest changes are only performed via this method, since they may block while
+         *  another thread is within Selector::select.
+         */
+        public void execute(final Runnable task) {
+            _pendingTasks.offer(task);
+            _selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (! this.isInterrupted()) {
+                try {
+                    Runnable task;
+                    while ((task = _pendingTasks.poll()) != null) {
+                        task.run();
+                    }
+
+                    _selector.select();
+
+                    final Iterator<SelectionKey> selectedKeys = _selector.selectedKeys().iterator();
+                    while (selectedKeys.hasNext()) {
+                        final SelectionKey selectionKey = selectedKeys.next();
+                        selectedKeys.remove();
+
+                        final SelectorSocketChannel selectorSocketChannel = (SelectorSocketChannel) selectionKey.attachment();
+                        if (! selectionKey.isValid()) { continue; }
+
+                        if (selectionKey.isWritable()) {
+                            selectorSocketChannel.onWritable();
+                        }
+
+                        if (selectionKey.isValid() && selectionKey.isReadable()) {
+                            selectorSocketChannel.onReadable();
+                        }
+                    }
+                }
+                catch (final Exception exception) {
+                    if (this.isInterrupted()) { break; }
+                    Logger.debug(exception);
+                }
+            }
+
+            try {
+                _selector.close();
+            }
+            catch (final IOException exception) { }
+        }
+    }
+
+    public static final Integer DEFAULT_THREAD_COUNT = 2;
+
+    protected final Integer _threadCount;
+    protected final AtomicInteger _nextThreadIndex = new AtomicInteger(0);
+    protected IoThread[] _ioThreads = null;
+
+    public SocketSelector(final Integer threadCount) {
+        _threadCount = Math.max(1, threadCount);
+    }
+
+    public synchronized void start() {
+        if (_ioThreads != null) { return; }
+
+        final IoThread[] ioThreads = new IoThread[_threadCount];
+        try {
+            for (int i = 0; i < _threadCount; ++i) {
+                ioThreads[i] = new IoThread(Selector.open());
+            }
+        }
+        catch (final IOException exception) {
+            Logger.error("Unable to open Selector.", exception);
+            return;
+        }
+
+        for (final IoThread ioThread : ioThreads) {
+            ioThread.start();
+        }
+        _ioThreads = ioThreads;
+    }
+
+    public synchronized void stop() {
+        final IoThread[] ioThreads = _ioThreads;
+        if (ioThreads == null) { return; }
+        _ioThreads = null;
+
+        for (final IoThread ioThread : ioThreads) {
+            ioThread.interrupt();
+            ioThread._selector.wakeup();
+        }
+
+        for (final IoThread ioThread : ioThreads) {
+            try {
+                ioThread.join(5000L);
+            }
+            catch (final InterruptedException exception) {
+                break;
+            }
+        }
+    }
+
+    public Boolean isRunning() {
+        return (_ioThreads != null);
+    }
+
+    /**
+     * Registers the SelectorSocketChannel with one of the IO threads.
+     *  Returns false if the SocketSelector is not running.
+     */
+    protected Boolean register(final SelectorSocketChannel selectorSocketChannel) {
+        final IoThread[] ioThreads = _ioThreads;
+        if (ioThreads == null) { return false; }
+
+        final int threadIndex = ((_nextThreadIndex.getAndIncrement() & Integer.MAX_VALUE) % ioThreads.length);
+        final IoThread ioThread = ioThreads[threadIndex];
+        selectorSocketChannel.setIoThread(ioThread);
+        ioThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                selectorSocketChannel.onRegister(ioThread._selector);
+            }
+        });
+        return true;
+    }
+}
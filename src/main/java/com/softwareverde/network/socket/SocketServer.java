@@ -112,6 +112,14 @@ public class SocketServer<T extends Socket> {
         }
     }
 
+    /**
+     * Opens the ServerSocket used to accept new connections.
+     *  Intended for subclass extension.
+     */
+    protected java.net.ServerSocket _openServerSocket() throws IOException {
+        return new java.net.ServerSocket(_port);
+    }
+
     public SocketServer(final Integer port, final SocketFactory<T> socketFactory, final ThreadPool threadPool) {
         _port = port;
         _socketFactory = socketFactory;
@@ -130,7 +138,7 @@ public class SocketServer<T extends Socket> {
         _shouldContinue = true;
 
         try {
-            _socket = new java.net.ServerSocket(_port);
+            _socket = _openServerSocket();
 
             _serverThread = new ServerThread();
             _serverThread.start();
@@ -97,6 +97,20 @@ CREATE TABLE committed_unspent_transaction_outputs (
     `index` INT UNSIGNED NOT NULL,
     is_spent TINYINT(1) UNSIGNED NOT NULL DEFAULT 0,
     block_height INT UNSIGNED NOT NULL,
+    is_coinbase TINYINT(1) UNSIGNED NULL,
+    amount BIGINT UNSIGNED NULL,
+    locking_script BLOB NULL,
+    PRIMARY KEY (transaction_hash, `index`)
+) ENGINE=InnoDB DEFAULT CHARSET=LATIN1;
+
+-- The UTXO set rebuilt from genesis while validating a loaded UTXO snapshot (see UtxoSnapshotValidator).
+CREATE TABLE utxo_snapshot_validation_outputs (
+    transaction_hash BINARY(32) NOT NULL,
+    `index` INT UNSIGNED NOT NULL,
+    block_height INT UNSIGNED NOT NULL,
+    is_coinbase TINYINT(1) UNSIGNED NOT NULL,
+    amount BIGINT UNSIGNED NOT NULL,
+    locking_script BLOB NOT NULL,
     PRIMARY KEY (transaction_hash, `index`)
 ) ENGINE=InnoDB DEFAULT CHARSET=LATIN1;
 
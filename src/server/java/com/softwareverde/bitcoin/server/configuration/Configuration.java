@@ -1,11 +1,13 @@
 package com.softwareverde.bitcoin.server.configuration;
 
+import com.softwareverde.bitcoin.secp256k1.SignatureCache;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.json.Json;
 import com.softwareverde.logging.LogLevel;
 import com.softwareverde.logging.Logger;
+import com.softwareverde.network.socket.SocketSelector;
 import com.softwareverde.util.ByteUtil;
 import com.softwareverde.util.Util;
 
@@ -130,11 +132,26 @@ public class Configuration {
         _bitcoinProperties._minPeerCount = Util.parseInt(_properties.getProperty("bitcoin.minPeerCount", "8"));
         _bitcoinProperties._maxPeerCount = Util.parseInt(_properties.getProperty("bitcoin.maxPeerCount", "24"));
         _bitcoinProperties._maxThreadCount = Util.parseInt(_properties.getProperty("bitcoin.maxThreadCount", "4"));
+        _bitcoinProperties._networkThreadCount = Util.parseInt(_properties.getProperty("bitcoin.networkThreadCount", String.valueOf(SocketSelector.DEFAULT_THREAD_COUNT)));
         _bitcoinProperties._trustedBlockHeight = Util.parseLong(_properties.getProperty("bitcoin.trustedBlockHeight", "0"));
         _bitcoinProperties._shouldSkipNetworking = Util.parseBool(_properties.getProperty("bitcoin.skipNetworking", "0"));
         _bitcoinProperties._deletePendingBlocksIsEnabled = Util.parseBool(_properties.getProperty("bitcoin.deletePendingBlocks", "1"));
+        _bitcoinProperties._blockCompressionIsEnabled = Util.parseBool(_properties.getProperty("bitcoin.compressBlocks", "0"));
+        _bitcoinProperties._utxoSnapshotFile = _properties.getProperty("bitcoin.utxoSnapshotFile", null);
+        _bitcoinProperties._utxoSnapshotHash = _properties.getProperty("bitcoin.utxoSnapshotHash", null);
         _bitcoinProperties._maxUtxoCacheByteCount = Util.parseLong(_properties.getProperty("bitcoin.maxUtxoCacheByteCount", String.valueOf(UnspentTransactionOutputDatabaseManager.DEFAULT_MAX_UTXO_CACHE_COUNT * UnspentTransactionOutputDatabaseManager.BYTES_PER_UTXO)));
         _bitcoinProperties._utxoCommitFrequency = Util.parseLong(_properties.getProperty("bitcoin.utxoCommitFrequency", "50000"));
+        _bitcoinProperties._utxoIncrementalCommitFrequency = Math.max(0L, Util.parseLong(_properties.getProperty("bitcoin.utxoIncrementalCommitFrequency", "10")));
+        _bitcoinProperties._bulkUtxoCommitIsEnabled = (Util.parseBool(_properties.getProperty("bitcoin.bulkUtxoCommit", "0")) && _bitcoinDatabaseProperties.useEmbeddedDatabase());
+        {
+            final String utxoStore = _properties.getProperty("bitcoin.utxoStore", BitcoinProperties.DATABASE_UTXO_STORE).trim().toLowerCase();
+            _bitcoinProperties._utxoStore = (Util.areEqual(BitcoinProperties.MAPPED_UTXO_STORE, utxoStore) ? BitcoinProperties.MAPPED_UTXO_STORE : BitcoinProperties.DATABASE_UTXO_STORE);
+        }
+        {
+            final String memoryPoolStore = _properties.getProperty("bitcoin.memoryPoolStore", BitcoinProperties.JVM_MEMORY_POOL_STORE).trim().toLowerCase();
+            _bitcoinProperties._memoryPoolStore = (Util.areEqual(BitcoinProperties.DATABASE_MEMORY_POOL_STORE, memoryPoolStore) ? BitcoinProperties.DATABASE_MEMORY_POOL_STORE : BitcoinProperties.JVM_MEMORY_POOL_STORE);
+        }
+        _bitcoinProperties._maxSignatureCacheByteCount = Util.parseLong(_properties.getProperty("bitcoin.maxSignatureCacheByteCount", String.valueOf(SignatureCache.DEFAULT_MAX_BYTE_COUNT)));
         _bitcoinProperties._logDirectory = _properties.getProperty("bitcoin.logDirectory", "logs");
         _bitcoinProperties._logLevel = LogLevel.fromString(_properties.getProperty("bitcoin.logLevel", "INFO"));
 
@@ -39,7 +39,7 @@ public class HikariDatabaseConnectionPool implements DatabaseConnectionPool {
     protected final AtomicBoolean _isShutdown = new AtomicBoolean(false);
     protected final LoggerInstance _logger = Logger.getInstance(this.getClass());
 
-    protected void _initHikariDataSource(final DatabaseProperties databaseProperties) {
+    protected void _initHikariDataSource(final DatabaseProperties databaseProperties, final Boolean allowLoadLocalInfile) {
         // NOTE: Using the MariaDB driver causes an unbounded memory leak within MySQL 5.7 & 8 (and Percona 8).
         _dataSource.setDriverClassName(com.mysql.jdbc.Driver.class.getName());
 
@@ -62,6 +62,10 @@ public class HikariDatabaseConnectionPool implements DatabaseConnectionPool {
         _dataSource.setUsername(username);
         _dataSource.setPassword(password);
 
+        if (allowLoadLocalInfile) { // Permits the client to send local files to the server via LOAD DATA LOCAL INFILE (see BulkUtxoCommitter).
+            _dataSource.addDataSourceProperty("allowLoadLocalInfile", "true");
+        }
+
         // NOTE: Caching prepared statements are likely not the cause of a memory leak within MySQL, however it wasn't
         //  conclusively absolved, and since the performance benefit was not measured the caching is disabled.
 //        { // Enable prepared statement caching...
@@ -98,7 +102,11 @@ public class HikariDatabaseConnectionPool implements DatabaseConnectionPool {
     }
 
     public HikariDatabaseConnectionPool(final DatabaseProperties databaseProperties) {
-        _initHikariDataSource(databaseProperties);
+        this(databaseProperties, false);
+    }
+
+    public HikariDatabaseConnectionPool(final DatabaseProperties databaseProperties, final Boolean allowLoadLocalInfile) {
+        _initHikariDataSource(databaseProperties, allowLoadLocalInfile);
     }
 
     @Override
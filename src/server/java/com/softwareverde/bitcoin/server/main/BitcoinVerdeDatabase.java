@@ -16,6 +16,7 @@ import com.softwareverde.database.mysql.MysqlDatabaseInitializer;
 import com.softwareverde.database.mysql.embedded.DatabaseCommandLineArguments;
 import com.softwareverde.database.mysql.embedded.EmbeddedMysqlDatabase;
 import com.softwareverde.database.properties.DatabaseCredentials;
+import com.softwareverde.database.row.Row;
 import com.softwareverde.logging.Logger;
 
 import java.sql.Connection;
@@ -56,6 +57,26 @@ public class BitcoinVerdeDatabase implements Database {
                 return false; // Upgrading from Verde v1 (DB v1-v2) is not supported.
             }
 
+            if ( (currentVersion < 4) && (requiredVersion >= 4) ) { // v4 stores the coin (amount, compressed locking script, and coinbase flag) alongside each committed UTXO.
+                try {
+                    // The STRATUM database shares the database version but does not contain the UTXO set.
+                    final java.util.List<Row> rows = maintenanceDatabaseConnection.query("SELECT 1 FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'committed_unspent_transaction_outputs'", new String[0]);
+                    if (! rows.isEmpty()) {
+                        // Existing UTXOs are left without their coin; they are loaded from their Transaction until they are spent.
+                        maintenanceDatabaseConnection.executeDdl("ALTER TABLE committed_unspent_transaction_outputs ADD COLUMN is_coinbase TINYINT(1) UNSIGNED NULL, ADD COLUMN amount BIGINT UNSIGNED NULL, ADD COLUMN locking_script BLOB NULL");
+
+                        // The UTXO set rebuilt from genesis while validating a loaded UTXO snapshot (see UtxoSnapshotValidator).
+                        maintenanceDatabaseConnection.executeDdl("CREATE TABLE IF NOT EXISTS utxo_snapshot_validation_outputs (transaction_hash BINARY(32) NOT NULL, `index` INT UNSIGNED NOT NULL, block_height INT UNSIGNED NOT NULL, is_coinbase TINYINT(1) UNSIGNED NOT NULL, amount BIGINT UNSIGNED NOT NULL, locking_script BLOB NOT NULL, PRIMARY KEY (transaction_hash, `index`)) ENGINE=InnoDB DEFAULT CHARSET=LATIN1");
+                    }
+                }
+                catch (final DatabaseException exception) {
+                    Logger.warn(exception);
+                    return false;
+                }
+
+                return true;
+            }
+
             return false;
         }
     };
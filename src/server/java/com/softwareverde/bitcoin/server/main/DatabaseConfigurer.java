@@ -5,6 +5,7 @@ import com.softwareverde.bitcoin.server.configuration.DatabaseProperties;
 import com.softwareverde.database.mysql.embedded.DatabaseCommandLineArguments;
 import com.softwareverde.util.ByteUtil;
 import com.softwareverde.util.SystemUtil;
+import com.softwareverde.util.Util;
 
 public class DatabaseConfigurer {
     public static Long toNearestMegabyte(final Long byteCount) {
@@ -81,6 +82,10 @@ public class DatabaseConfigurer {
             // commandLineArguments.addArgument("--general-log=1");
             commandLineArguments.addArgument("--performance-schema=OFF");
         }
+
+        if ( (bitcoinProperties != null) && Util.coalesce(bitcoinProperties.isBulkUtxoCommitEnabled(), false) ) {
+            commandLineArguments.addArgument("--local-infile=1"); // Required for committing the UTXO set via LOAD DATA LOCAL INFILE.
+        }
     }
 
     protected DatabaseConfigurer() { }
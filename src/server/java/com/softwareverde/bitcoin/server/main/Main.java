@@ -236,7 +236,7 @@ public class Main {
                 }
                 Logger.info("[Database Online]");
 
-                final DatabaseConnectionPool databaseConnectionFactory = new HikariDatabaseConnectionPool(databaseProperties);
+                final DatabaseConnectionPool databaseConnectionFactory = new HikariDatabaseConnectionPool(databaseProperties, bitcoinProperties.isBulkUtxoCommitEnabled());
                 final Environment environment = new Environment(database, databaseConnectionFactory);
 
                 nodeModuleContainer.value = new NodeModule(bitcoinProperties, environment);
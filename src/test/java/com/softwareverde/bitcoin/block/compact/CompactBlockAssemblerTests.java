@@ -0,0 +1,178 @@
+package com.softwareverde.bitcoin.block.compact;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.block.MutableBlock;
+import com.softwareverde.bitcoin.server.module.node.MemoryPoolEnquirer;
+import com.softwareverde.bitcoin.test.BlockData;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bloomfilter.BloomFilter;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.HexUtil;
+import com.softwareverde.util.Util;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class CompactBlockAssemblerTests {
+    protected static class FakeMemoryPoolEnquirer implements MemoryPoolEnquirer {
+        protected final HashMap<Sha256Hash, Transaction> _transactions = new HashMap<Sha256Hash, Transaction>();
+
+        public void addTransaction(final Transaction transaction) {
+            _transactions.put(transaction.getHash(), transaction);
+        }
+
+        @Override
+        public BloomFilter getBloomFilter(final Sha256Hash blockHash) { return null; }
+
+        @Override
+        public Integer getMemoryPoolTransactionCount() { return _transactions.size(); }
+
+        @Override
+        public Transaction getTransaction(final Sha256Hash transactionHash) { return _transactions.get(transactionHash); }
+
+        @Override
+        public List<Sha256Hash> getTransactionHashes() {
+            final MutableList<Sha256Hash> transactionHashes = new MutableList<Sha256Hash>(_transactions.size());
+            for (final Sha256Hash transactionHash : _transactions.keySet()) {
+                transactionHashes.add(transactionHash);
+            }
+            return transactionHashes;
+        }
+
+        @Override
+        public Map<Sha256Hash, Transaction> getTransactions(final List<Sha256Hash> transactionHashes) {
+            final HashMap<Sha256Hash, Transaction> transactions = new HashMap<Sha256Hash, Transaction>();
+            for (final Sha256Hash transactionHash : transactionHashes) {
+                final Transaction transaction = _transactions.get(transactionHash);
+                if (transaction != null) {
+                    transactions.put(transactionHash, transaction);
+                }
+            }
+            return transactions;
+        }
+    }
+
+    protected static List<Long> _getShortTransactionIds(final Block block, final Long nonce) {
+        final ShortTransactionIdHasher shortTransactionIdHasher = new ShortTransactionIdHasher(block, nonce);
+
+        final List<Transaction> transactions = block.getTransactions();
+        final MutableList<Long> shortTransactionIds = new MutableList<Long>(transactions.getCount() - 1);
+        for (int i = 1; i < transactions.getCount(); ++i) {
+            final Transaction transaction = transactions.get(i);
+            shortTransactionIds.add(shortTransactionIdHasher.getShortTransactionId(transaction.getHash()));
+        }
+        return shortTransactionIds;
+    }
+
+    protected static List<PrefilledTransaction> _getPrefilledCoinbase(final Block block) {
+        final MutableList<PrefilledTransaction> prefilledTransactions = new MutableList<PrefilledTransaction>(1);
+        prefilledTransactions.add(new PrefilledTransaction(0, block.getCoinbaseTransaction()));
+        return prefilledTransactions;
+    }
+
+    @Test
+    public void should_assemble_compact_block_from_memory_pool() {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block block = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_170));
+        final Long nonce = 7L;
+
+        final FakeMemoryPoolEnquirer memoryPoolEnquirer = new FakeMemoryPoolEnquirer();
+        memoryPoolEnquirer.addTransaction(block.getTransactions().get(1));
+
+        final CompactBlockAssembler compactBlockAssembler = new CompactBlockAssembler(memoryPoolEnquirer);
+
+        // Action
+        final AssembleCompactBlockResult assembleCompactBlockResult = compactBlockAssembler.assembleCompactBlock(block, nonce, _getShortTransactionIds(block, nonce), _getPrefilledCoinbase(block));
+
+        // Assert
+        Assert.assertTrue(assembleCompactBlockResult.wasSuccessful());
+        Assert.assertEquals(block.getHash(), assembleCompactBlockResult.block.getHash());
+        Assert.assertEquals(block.getTransactions().getCount(), assembleCompactBlockResult.block.getTransactions().getCount());
+    }
+
+    @Test
+    public void should_reassemble_compact_block_with_missing_transactions() {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block block = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_170));
+        final Long nonce = 7L;
+
+        final FakeMemoryPoolEnquirer memoryPoolEnquirer = new FakeMemoryPoolEnquirer();
+        final CompactBlockAssembler compactBlockAssembler = new CompactBlockAssembler(memoryPoolEnquirer);
+
+        final AssembleCompactBlockResult assembleCompactBlockResult = compactBlockAssembler.assembleCompactBlock(block, nonce, _getShortTransactionIds(block, nonce), _getPrefilledCoinbase(block));
+        Assert.assertFalse(assembleCompactBlockResult.wasSuccessful());
+        Assert.assertTrue(assembleCompactBlockResult.canBeReassembled());
+        Assert.assertEquals(1, assembleCompactBlockResult.missingTransactionIndexes.getCount());
+        Assert.assertEquals(Integer.valueOf(1), assembleCompactBlockResult.missingTransactionIndexes.get(0));
+
+        final MutableList<Transaction> missingTransactions = new MutableList<Transaction>(1);
+        missingTransactions.add(block.getTransactions().get(1));
+
+        // Action
+        final Block reassembledBlock = compactBlockAssembler.reassembleCompactBlock(assembleCompactBlockResult, missingTransactions);
+
+        // Assert
+        Assert.assertNotNull(reassembledBlock);
+        Assert.assertEquals(block.getHash(), reassembledBlock.getHash());
+    }
+
+    @Test
+    public void should_not_reassemble_compact_block_with_incorrect_transactions() {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block block = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_170));
+        final Block otherBlock = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_2));
+        final Long nonce = 7L;
+
+        final FakeMemoryPoolEnquirer memoryPoolEnquirer = new FakeMemoryPoolEnquirer();
+        final CompactBlockAssembler compactBlockAssembler = new CompactBlockAssembler(memoryPoolEnquirer);
+
+        final AssembleCompactBlockResult assembleCompactBlockResult = compactBlockAssembler.assembleCompactBlock(block, nonce, _getShortTransactionIds(block, nonce), _getPrefilledCoinbase(block));
+
+        final MutableList<Transaction> incorrectTransactions = new MutableList<Transaction>(1);
+        incorrectTransactions.add(otherBlock.getCoinbaseTransaction());
+
+        // Action
+        final Block reassembledBlock = compactBlockAssembler.reassembleCompactBlock(assembleCompactBlockResult, incorrectTransactions);
+
+        // Assert
+        Assert.assertNull(reassembledBlock);
+    }
+
+    @Test
+    public void should_only_consider_parent_known_when_block_header_enquirer_knows_it() {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block block = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_170));
+        final Sha256Hash knownBlockHash = block.getPreviousBlockHash();
+
+        final FakeMemoryPoolEnquirer memoryPoolEnquirer = new FakeMemoryPoolEnquirer();
+        final CompactBlockAssembler compactBlockAssembler = new CompactBlockAssembler(memoryPoolEnquirer, new CompactBlockAssembler.BlockHeaderEnquirer() {
+            @Override
+            public Boolean isBlockHeaderKnown(final Sha256Hash blockHash) {
+                return Util.areEqual(knownBlockHash, blockHash);
+            }
+        });
+        final CompactBlockAssembler compactBlockAssemblerWithoutEnquirer = new CompactBlockAssembler(memoryPoolEnquirer);
+
+        final MutableBlock orphanedBlock = new MutableBlock(block);
+        orphanedBlock.setPreviousBlockHash(Sha256Hash.EMPTY_HASH);
+
+        // Action
+        final Boolean parentIsKnown = compactBlockAssembler.isParentBlockKnown(block);
+        final Boolean orphanedParentIsKnown = compactBlockAssembler.isParentBlockKnown(orphanedBlock);
+        final Boolean parentIsKnownWithoutEnquirer = compactBlockAssemblerWithoutEnquirer.isParentBlockKnown(block);
+
+        // Assert
+        Assert.assertTrue(parentIsKnown);
+        Assert.assertFalse(orphanedParentIsKnown);
+        Assert.assertFalse(parentIsKnownWithoutEnquirer);
+    }
+}
@@ -0,0 +1,59 @@
+package com.softwareverde.bitcoin.block.compact;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.test.BlockData;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.util.HexUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ShortTransactionIdHasherTests {
+    protected static final long K0 = 0x0706050403020100L;
+    protected static final long K1 = 0x0F0E0D0C0B0A0908L;
+
+    protected static byte[] _sequentialBytes(final int byteCount) {
+        final byte[] bytes = new byte[byteCount];
+        for (int i = 0; i < byteCount; ++i) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    @Test
+    public void should_calculate_siphash_reference_vectors() {
+        // Setup
+        // Reference vectors from the SipHash-2-4 paper, using the key 00 01 02 ... 0F and the message 00 01 02 ... (n-1).
+
+        // Action
+        final long emptyMessageHash = ShortTransactionIdHasher.sipHash(K0, K1, _sequentialBytes(0));
+        final long fifteenByteMessageHash = ShortTransactionIdHasher.sipHash(K0, K1, _sequentialBytes(15));
+        final long sixtyThreeByteMessageHash = ShortTransactionIdHasher.sipHash(K0, K1, _sequentialBytes(63));
+
+        // Assert
+        Assert.assertEquals(0x726FDB47DD0E0E31L, emptyMessageHash);
+        Assert.assertEquals(0xA129CA6149BE45E5L, fifteenByteMessageHash);
+        Assert.assertEquals(0x958A324CEB064572L, sixtyThreeByteMessageHash);
+    }
+
+    @Test
+    public void short_transaction_ids_should_be_six_bytes_and_depend_upon_the_nonce() {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block block = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_170));
+        final Transaction transaction = block.getTransactions().get(1);
+
+        final ShortTransactionIdHasher shortTransactionIdHasher = new ShortTransactionIdHasher(block, 1L);
+        final ShortTransactionIdHasher otherShortTransactionIdHasher = new ShortTransactionIdHasher(block, 2L);
+
+        // Action
+        final Long shortTransactionId = shortTransactionIdHasher.getShortTransactionId(transaction.getHash());
+        final Long repeatedShortTransactionId = shortTransactionIdHasher.getShortTransactionId(transaction.getHash());
+        final Long otherShortTransactionId = otherShortTransactionIdHasher.getShortTransactionId(transaction.getHash());
+
+        // Assert
+        Assert.assertEquals(0L, (shortTransactionId & 0xFFFF000000000000L));
+        Assert.assertEquals(shortTransactionId, repeatedShortTransactionId);
+        Assert.assertNotEquals(shortTransactionId, otherShortTransactionId);
+    }
+}
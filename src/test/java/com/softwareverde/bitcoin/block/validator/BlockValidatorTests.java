@@ -11,6 +11,7 @@ import com.softwareverde.bitcoin.block.header.difficulty.Difficulty;
 import com.softwareverde.bitcoin.block.header.difficulty.ImmutableDifficulty;
 import com.softwareverde.bitcoin.block.validator.difficulty.DifficultyCalculator;
 import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
 import com.softwareverde.bitcoin.test.BlockData;
 import com.softwareverde.bitcoin.test.UnitTest;
 import com.softwareverde.bitcoin.test.fake.FakeBlockValidatorContext;
@@ -29,6 +30,10 @@ import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.bitcoin.transaction.script.ImmutableScript;
 import com.softwareverde.bitcoin.transaction.script.ScriptBuilder;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.transaction.script.opcode.CryptographicOperation;
+import com.softwareverde.bitcoin.transaction.script.opcode.PushOperation;
+import com.softwareverde.bitcoin.transaction.script.signature.ScriptSignature;
 import com.softwareverde.bitcoin.transaction.script.signature.hashtype.HashType;
 import com.softwareverde.bitcoin.transaction.script.signature.hashtype.Mode;
 import com.softwareverde.bitcoin.transaction.script.unlocking.UnlockingScript;
@@ -120,6 +125,115 @@ public class BlockValidatorTests extends UnitTest {
         Assert.assertFalse(blockIsValid.isValid);
     }
 
+    /**
+     * Returns a (modified) Block02 containing a Transaction that spends one output locked by the lockingScript for each signingPrivateKey.
+     *  The spent outputs are created by a (modified) Block01; both Blocks are added to the blockValidatorContext.
+     *  Each input is unlocked by only its signature (preceded by an empty checkBits value if isMultiSignature is true).
+     */
+    protected static Block createBlockSpendingLockingScript(final FakeBlockValidatorContext blockValidatorContext, final LockingScript lockingScript, final Boolean isMultiSignature, final PrivateKey... signingPrivateKeys) {
+        final BlockInflater blockInflater = new BlockInflater();
+        final AddressInflater addressInflater = new AddressInflater();
+
+        final Block genesisBlock = inflateBlock(blockInflater, BlockData.MainChain.GENESIS_BLOCK);
+        blockValidatorContext.addBlock(genesisBlock, 0L);
+
+        final Transaction transactionToSpend;
+        { // The outputs are created by a non-coinbase Transaction so that they are not subject to the maturity rule; the Transaction itself is never validated...
+            final MutableTransaction mutableTransaction = new MutableTransaction();
+            mutableTransaction.setVersion(1L);
+            mutableTransaction.setLockTime(new ImmutableLockTime(LockTime.MIN_TIMESTAMP));
+            mutableTransaction.addTransactionInput(BlockValidatorTests.createTransactionInputThatSpendsTransaction(genesisBlock.getCoinbaseTransaction()));
+
+            for (int i = 0; i < signingPrivateKeys.length; ++i) {
+                final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+                transactionOutput.setAmount(1L * Transaction.SATOSHIS_PER_BITCOIN);
+                transactionOutput.setIndex(i);
+                transactionOutput.setLockingScript(lockingScript);
+                mutableTransaction.addTransactionOutput(transactionOutput);
+            }
+
+            transactionToSpend = mutableTransaction;
+        }
+
+        final Block modifiedBlock01;
+        {
+            final Block originalBlock01 = inflateBlock(blockInflater, BlockData.MainChain.BLOCK_1);
+
+            final Sha256Hash blockHash = originalBlock01.getHash();
+            final MutableBlock mutableBlock = new MutableBlock(originalBlock01) {
+                @Override
+                public Sha256Hash getHash() {
+                    return blockHash;
+                }
+
+                @Override
+                public Boolean isValid() {
+                    return true;
+                }
+            };
+
+            mutableBlock.addTransaction(transactionToSpend);
+            blockValidatorContext.addBlock(mutableBlock, 1L, MedianBlockTime.fromSeconds(MedianBlockTime.GENESIS_BLOCK_TIMESTAMP), null);
+            modifiedBlock01 = mutableBlock;
+        }
+
+        final Transaction signedTransaction;
+        {
+            final MutableTransaction unsignedTransaction = new MutableTransaction();
+            unsignedTransaction.setVersion(1L);
+            unsignedTransaction.setLockTime(new ImmutableLockTime(LockTime.MIN_TIMESTAMP));
+            for (int i = 0; i < signingPrivateKeys.length; ++i) {
+                final MutableTransactionInput transactionInput = new MutableTransactionInput();
+                transactionInput.setPreviousOutputTransactionHash(transactionToSpend.getHash());
+                transactionInput.setPreviousOutputIndex(i);
+                transactionInput.setSequenceNumber(SequenceNumber.MAX_SEQUENCE_NUMBER);
+                transactionInput.setUnlockingScript(UnlockingScript.EMPTY_SCRIPT);
+                unsignedTransaction.addTransactionInput(transactionInput);
+            }
+            unsignedTransaction.addTransactionOutput(BlockValidatorTests.createTransactionOutput(addressInflater.fromBase58Check("1HrXm9WZF7LBm3HCwCBgVS3siDbk5DYCuW"), (1L * Transaction.SATOSHIS_PER_BITCOIN)));
+
+            final TransactionSigner transactionSigner = new TransactionSigner();
+            final List<TransactionInput> transactionInputs = unsignedTransaction.getTransactionInputs();
+            final List<TransactionOutput> transactionOutputsBeingSpent = transactionToSpend.getTransactionOutputs();
+
+            final MutableTransaction mutableTransaction = new MutableTransaction(unsignedTransaction);
+            for (int i = 0; i < signingPrivateKeys.length; ++i) {
+                final SignatureContext signatureContext = new SignatureContext(unsignedTransaction, new HashType(Mode.SIGNATURE_HASH_ALL, true, false)); // BCH is not enabled at this block height...
+                signatureContext.setInputIndexBeingSigned(i);
+                signatureContext.setShouldSignInputScript(i, true, transactionOutputsBeingSpent.get(i));
+                final ScriptSignature scriptSignature = transactionSigner.createSignature(signatureContext, signingPrivateKeys[i]);
+
+                final ScriptBuilder scriptBuilder = new ScriptBuilder();
+                if (isMultiSignature) {
+                    scriptBuilder.pushOperation(PushOperation.PUSH_ZERO); // The checkBits (aka "nullDummy") value...
+                }
+                scriptBuilder.pushSignature(scriptSignature);
+
+                final MutableTransactionInput transactionInput = new MutableTransactionInput(transactionInputs.get(i));
+                transactionInput.setUnlockingScript(scriptBuilder.buildUnlockingScript());
+                mutableTransaction.setTransactionInput(i, transactionInput);
+            }
+            signedTransaction = mutableTransaction;
+        }
+
+        final MutableBlock mutableBlock = new MutableBlock(inflateBlock(blockInflater, BlockData.MainChain.BLOCK_2)) {
+            @Override
+            public Sha256Hash getHash() {
+                return Sha256Hash.fromHexString("0000000082B5015589A3FDF2D4BAFF403E6F0BE035A5D9742C1CAE6295464449"); // Block 3's hash (arbitrary)...
+            }
+
+            @Override
+            public Boolean isValid() {
+                return true;
+            }
+        };
+        mutableBlock.setPreviousBlockHash(modifiedBlock01.getHash());
+        mutableBlock.addTransaction(signedTransaction);
+
+        blockValidatorContext.addBlock(mutableBlock, 2L);
+        return mutableBlock;
+    }
+
     @Override @Before
     public void before() throws Exception {
         super.before();
@@ -527,4 +641,79 @@ public class BlockValidatorTests extends UnitTest {
 
         BlockValidatorTests.assertCoinbaseIsInvalid(invalidCoinbase);
     }
+
+    @Test
+    public void should_not_validate_block_with_invalid_deferred_check_signature_then_verify_signature() throws Exception {
+        // Setup
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final LockingScript lockingScript = new ScriptBuilder()
+            .pushBytes(privateKey.getPublicKey())
+            .pushOperation(CryptographicOperation.CHECK_SIGNATURE_THEN_VERIFY)
+            .pushInteger(1L)
+            .buildLockingScript();
+
+        final FakeBlockValidatorContext blockValidatorContext = new FakeBlockValidatorContext(NetworkTime.MAX_VALUE);
+        final BlockValidator blockValidator = new BlockValidator(blockValidatorContext);
+        blockValidator.setShouldDeferSignatureVerification(true);
+
+        // The second input is signed by the wrong key...
+        final Block block = BlockValidatorTests.createBlockSpendingLockingScript(blockValidatorContext, lockingScript, false, privateKey, PrivateKey.createNewKey());
+        final Transaction transaction = block.getTransactions().get(1);
+
+        { // Ensure both signatures are deferred rather than verified while the scripts are executed...
+            final SignatureBatch signatureBatch = new SignatureBatch();
+            final TransactionValidator transactionValidator = new TransactionValidatorCore(blockValidatorContext);
+            final TransactionValidationResult transactionValidationResult = transactionValidator.validateTransaction(2L, transaction, signatureBatch);
+            Assert.assertTrue(transactionValidationResult.isValid);
+            Assert.assertEquals(Integer.valueOf(2), signatureBatch.getSignatureCount());
+        }
+
+        // Action
+        final BlockValidationResult blockValidationResult = blockValidator.validateBlock(block, 2L);
+
+        // Assert
+        Assert.assertFalse(blockValidationResult.isValid);
+        Assert.assertEquals(1, blockValidationResult.invalidTransactions.getCount());
+        Assert.assertEquals(transaction.getHash(), blockValidationResult.invalidTransactions.get(0));
+        Assert.assertTrue(blockValidationResult.errorMessage.startsWith("Transactions contain invalid signatures."));
+        Assert.assertTrue(blockValidationResult.errorMessage.contains(transaction.getHash() + ":1: Invalid signature."));
+        Assert.assertFalse(blockValidationResult.errorMessage.contains(transaction.getHash() + ":0: Invalid signature."));
+    }
+
+    @Test
+    public void should_verify_legacy_check_multisignature_signature_inline_when_deferring_signatures() throws Exception {
+        // Setup
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final LockingScript lockingScript = new ScriptBuilder()
+            .pushInteger(1L)
+            .pushBytes(privateKey.getPublicKey())
+            .pushInteger(1L)
+            .pushOperation(CryptographicOperation.CHECK_MULTISIGNATURE)
+            .buildLockingScript();
+
+        final FakeBlockValidatorContext blockValidatorContext = new FakeBlockValidatorContext(NetworkTime.MAX_VALUE);
+        final BlockValidator blockValidator = new BlockValidator(blockValidatorContext);
+        blockValidator.setShouldDeferSignatureVerification(true);
+
+        // The input is signed by the wrong key...
+        final Block block = BlockValidatorTests.createBlockSpendingLockingScript(blockValidatorContext, lockingScript, true, PrivateKey.createNewKey());
+        final Transaction transaction = block.getTransactions().get(1);
+
+        { // Ensure the signature is verified while the script is executed, since an invalid signature does not necessarily fail a legacy CHECKMULTISIG...
+            final SignatureBatch signatureBatch = new SignatureBatch();
+            final TransactionValidator transactionValidator = new TransactionValidatorCore(blockValidatorContext);
+            final TransactionValidationResult transactionValidationResult = transactionValidator.validateTransaction(2L, transaction, signatureBatch);
+            Assert.assertFalse(transactionValidationResult.isValid);
+            Assert.assertEquals(Integer.valueOf(0), signatureBatch.getSignatureCount());
+        }
+
+        // Action
+        final BlockValidationResult blockValidationResult = blockValidator.validateBlock(block, 2L);
+
+        // Assert
+        Assert.assertFalse(blockValidationResult.isValid);
+        Assert.assertEquals(1, blockValidationResult.invalidTransactions.getCount());
+        Assert.assertEquals(transaction.getHash(), blockValidationResult.invalidTransactions.get(0));
+        Assert.assertTrue(blockValidationResult.errorMessage.startsWith("Transactions failed to unlock inputs."));
+    }
 }
@@ -0,0 +1,53 @@
+package com.softwareverde.bitcoin.block.validator.thread;
+
+import com.softwareverde.bitcoin.secp256k1.DeferredSignature;
+import com.softwareverde.bitcoin.secp256k1.Secp256k1;
+import com.softwareverde.bitcoin.secp256k1.SignatureBatch;
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.secp256k1.key.PrivateKey;
+import com.softwareverde.cryptography.secp256k1.key.PublicKey;
+import com.softwareverde.cryptography.secp256k1.signature.Signature;
+import com.softwareverde.cryptography.util.HashUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SignatureVerificationTaskHandlerTests extends UnitTest {
+    protected static byte[] _createMessage(final int i) {
+        return HashUtil.sha256(ByteUtil.integerToBytes(i));
+    }
+
+    @Test
+    public void should_report_the_input_of_each_invalid_signature() {
+        // Setup
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final PublicKey publicKey = privateKey.getPublicKey();
+        final Sha256Hash transactionHash = Sha256Hash.wrap(_createMessage(0));
+
+        final SignatureBatch signatureBatch = new SignatureBatch();
+        for (int i = 0; i < 4; ++i) {
+            final byte[] message = _createMessage(i);
+            final Signature signature = Secp256k1.sign(privateKey, message);
+            final byte[] signedMessage = ((i == 2) ? _createMessage(i + 100) : message);
+            signatureBatch.addSignature(new DeferredSignature(transactionHash, i, signature, publicKey, signedMessage));
+        }
+
+        final SignatureVerificationTaskHandler signatureVerificationTaskHandler = new SignatureVerificationTaskHandler();
+        signatureVerificationTaskHandler.init();
+
+        // Action
+        for (final DeferredSignature deferredSignature : signatureBatch.getSignatures()) {
+            signatureVerificationTaskHandler.executeTask(deferredSignature);
+        }
+        final List<DeferredSignature> invalidSignatures = signatureVerificationTaskHandler.getResult();
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(4), signatureBatch.getSignatureCount());
+        Assert.assertEquals(1, invalidSignatures.getCount());
+        final DeferredSignature invalidSignature = invalidSignatures.get(0);
+        Assert.assertEquals(transactionHash, invalidSignature.getTransactionHash());
+        Assert.assertEquals(Integer.valueOf(2), invalidSignature.getTransactionInputIndex());
+    }
+}
@@ -11,6 +11,8 @@ import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
 import com.softwareverde.bitcoin.server.module.node.database.block.BlockRelationship;
 import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.fullnode.BlockIndex;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.fullnode.FullNodeBlockHeaderDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.test.BlockData;
@@ -19,6 +21,7 @@ import com.softwareverde.bitcoin.util.ByteUtil;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.util.HexUtil;
+import com.softwareverde.util.ReflectionUtil;
 import com.softwareverde.util.Util;
 import org.junit.After;
 import org.junit.Assert;
@@ -183,6 +186,40 @@ public class BlockchainDatabaseManagerTests2 extends IntegrationTest {
         }
     }
 
+    @Test
+    public void should_return_ancestor_across_forked_blockchain_segments() throws DatabaseException {
+        // Setup
+        final Sha256Hash forkStartHash = _insertTestBlocks(10);
+        final Sha256Hash fork1Hash = _insertTestBlocks(forkStartHash, 4);
+        final Sha256Hash fork2Hash = _insertTestBlocks(forkStartHash, 3);
+
+        // Clear the BlockIndex so that the ancestors are resolved via the database...
+        final BlockIndex blockIndex = ReflectionUtil.getStaticValue(FullNodeBlockHeaderDatabaseManager.class, "BLOCK_INDEX");
+        blockIndex.clear();
+
+        // Action
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+
+            final BlockId forkStartId = blockHeaderDatabaseManager.getBlockHeaderId(forkStartHash);
+            final BlockId fork1Id = blockHeaderDatabaseManager.getBlockHeaderId(fork1Hash);
+            final BlockId fork2Id = blockHeaderDatabaseManager.getBlockHeaderId(fork2Hash);
+
+            final BlockId fork1AncestorBlockId = blockHeaderDatabaseManager.getAncestorBlockId(fork1Id, 4);
+            final BlockId fork2AncestorBlockId = blockHeaderDatabaseManager.getAncestorBlockId(fork2Id, 3);
+            final BlockId fork2FirstBlockId = blockHeaderDatabaseManager.getAncestorBlockId(fork2Id, 2);
+            final BlockId genesisBlockId = blockHeaderDatabaseManager.getAncestorBlockId(fork1Id, 14);
+
+            // Test
+            Assert.assertEquals(forkStartId, fork1AncestorBlockId);
+            Assert.assertEquals(forkStartId, fork2AncestorBlockId);
+            Assert.assertEquals(forkStartId, blockHeaderDatabaseManager.getAncestorBlockId(fork2FirstBlockId, 1));
+            Assert.assertNotEquals(blockHeaderDatabaseManager.getBlockchainSegmentId(fork1Id), blockHeaderDatabaseManager.getBlockchainSegmentId(fork2FirstBlockId));
+            Assert.assertEquals(BlockHeader.GENESIS_BLOCK_HASH, blockHeaderDatabaseManager.getBlockHash(genesisBlockId));
+            Assert.assertNull(blockHeaderDatabaseManager.getAncestorBlockId(fork1Id, 15));
+        }
+    }
+
     @Test
     public void should_correctly_report_connected_and_unconnected_blockchain_segments() throws DatabaseException {
         // Setup
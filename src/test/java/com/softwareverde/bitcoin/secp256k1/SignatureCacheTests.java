@@ -0,0 +1,113 @@
+package com.softwareverde.bitcoin.secp256k1;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.secp256k1.key.PrivateKey;
+import com.softwareverde.cryptography.secp256k1.key.PublicKey;
+import com.softwareverde.cryptography.secp256k1.signature.Signature;
+import com.softwareverde.cryptography.util.HashUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SignatureCacheTests extends UnitTest {
+    protected static byte[] _createMessage(final int i) {
+        return HashUtil.sha256(ByteUtil.integerToBytes(i));
+    }
+
+    @Test
+    public void should_skip_verification_of_cached_signature() {
+        // Setup
+        final SignatureCache signatureCache = new SignatureCache();
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final PublicKey publicKey = privateKey.getPublicKey();
+        final byte[] message = _createMessage(1);
+        final Signature signature = Secp256k1.sign(privateKey, message);
+
+        // Action
+        final Boolean firstResult = signatureCache.verifySignature(signature, publicKey, message, true);
+        final Boolean secondResult = signatureCache.verifySignature(signature, publicKey, message, false);
+
+        // Assert
+        Assert.assertTrue(firstResult);
+        Assert.assertTrue(secondResult);
+        Assert.assertEquals(Long.valueOf(1L), signatureCache.getMissCount());
+        Assert.assertEquals(Long.valueOf(1L), signatureCache.getHitCount());
+    }
+
+    @Test
+    public void should_not_cache_signature_when_not_requested() {
+        // Setup
+        final SignatureCache signatureCache = new SignatureCache();
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final PublicKey publicKey = privateKey.getPublicKey();
+        final byte[] message = _createMessage(2);
+        final Signature signature = Secp256k1.sign(privateKey, message);
+
+        // Action
+        signatureCache.verifySignature(signature, publicKey, message, false);
+        signatureCache.verifySignature(signature, publicKey, message, false);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(2L), signatureCache.getMissCount());
+        Assert.assertEquals(Long.valueOf(0L), signatureCache.getHitCount());
+    }
+
+    @Test
+    public void should_not_cache_invalid_signature() {
+        // Setup
+        final SignatureCache signatureCache = new SignatureCache();
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final PublicKey otherPublicKey = PrivateKey.createNewKey().getPublicKey();
+        final byte[] message = _createMessage(3);
+        final Signature signature = Secp256k1.sign(privateKey, message);
+
+        // Action
+        final Boolean firstResult = signatureCache.verifySignature(signature, otherPublicKey, message, true);
+        final Boolean secondResult = signatureCache.verifySignature(signature, otherPublicKey, message, true);
+
+        // Assert
+        Assert.assertFalse(firstResult);
+        Assert.assertFalse(secondResult);
+        Assert.assertEquals(Long.valueOf(0L), signatureCache.getHitCount());
+    }
+
+    @Test
+    public void should_not_match_cached_signature_for_different_message() {
+        // Setup
+        final SignatureCache signatureCache = new SignatureCache();
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final PublicKey publicKey = privateKey.getPublicKey();
+        final byte[] message = _createMessage(4);
+        final Signature signature = Secp256k1.sign(privateKey, message);
+        signatureCache.verifySignature(signature, publicKey, message, true);
+
+        // Action
+        final Boolean signatureIsValid = signatureCache.verifySignature(signature, publicKey, _createMessage(5), true);
+
+        // Assert
+        Assert.assertFalse(signatureIsValid);
+        Assert.assertEquals(Long.valueOf(0L), signatureCache.getHitCount());
+    }
+
+    @Test
+    public void should_remain_within_byte_budget() {
+        // Setup
+        final Long maxByteCount = (SignatureCache.BYTES_PER_ENTRY * 8L);
+        final SignatureCache signatureCache = new SignatureCache(maxByteCount);
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final PublicKey publicKey = privateKey.getPublicKey();
+
+        // Action
+        Signature lastSignature = null;
+        for (int i = 0; i < 32; ++i) {
+            final byte[] message = _createMessage(i);
+            lastSignature = Secp256k1.sign(privateKey, message);
+            signatureCache.verifySignature(lastSignature, publicKey, message, true);
+        }
+
+        // Assert
+        Assert.assertEquals(maxByteCount, signatureCache.getMaxByteCount());
+        Assert.assertTrue(signatureCache.verifySignature(lastSignature, publicKey, _createMessage(31), false));
+        Assert.assertEquals(Long.valueOf(1L), signatureCache.getHitCount());
+    }
+}
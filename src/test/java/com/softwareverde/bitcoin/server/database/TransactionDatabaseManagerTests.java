@@ -2,13 +2,18 @@ package com.softwareverde.bitcoin.server.database;
 
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManagerCore;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.mempool.MemoryPool;
+import com.softwareverde.bitcoin.test.util.TransactionTestUtil;
 import com.softwareverde.bitcoin.test.IntegrationTest;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.bitcoin.transaction.TransactionInflater;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -47,4 +52,37 @@ public class TransactionDatabaseManagerTests extends IntegrationTest {
             Assert.assertEquals(transactionId0, transactionIds.get(1));
         }
     }
+
+    @Test
+    public void should_not_return_transaction_id_when_memory_pool_is_full() throws Exception {
+        // Setup
+        final Transaction transaction0 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0), 1000L);
+        final Transaction transaction1 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 1), 1000L);
+        final Transaction transaction2 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 2), 1000L);
+
+        final MemoryPool memoryPool = new MemoryPool(null, (transaction0.getByteCount() + transaction1.getByteCount() - 1L));
+        FullNodeTransactionDatabaseManagerCore.setMemoryPool(memoryPool);
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final FullNodeTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
+
+            // Action
+            final TransactionId transactionId0 = transactionDatabaseManager.storeUnconfirmedTransaction(transaction0);
+            final TransactionId transactionId1 = transactionDatabaseManager.storeUnconfirmedTransaction(transaction1);
+            final TransactionId duplicateTransactionId0 = transactionDatabaseManager.storeUnconfirmedTransaction(transaction0);
+            final List<TransactionId> transactionIds = transactionDatabaseManager.storeUnconfirmedTransactions(new ImmutableList<Transaction>(transaction1, transaction2));
+
+            // Assert
+            Assert.assertNotNull(transactionId0);
+            Assert.assertNull(transactionId1);
+            Assert.assertEquals(transactionId0, duplicateTransactionId0); // A Transaction already within the pool is still reported as stored...
+            Assert.assertTrue(transactionIds.isEmpty());
+            Assert.assertEquals(Integer.valueOf(1), memoryPool.getTransactionCount());
+            Assert.assertTrue(memoryPool.containsTransaction(transactionId0));
+        }
+        finally {
+            FullNodeTransactionDatabaseManagerCore.setMemoryPool(null);
+            memoryPool.close();
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package com.softwareverde.bitcoin.server.message.type.query.response.block;
+
+import com.softwareverde.bitcoin.CoreInflater;
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.test.BlockData;
+import com.softwareverde.constable.bytearray.ByteArray;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockMessageTests {
+
+    @Test
+    public void raw_block_message_should_serialize_identically_to_inflated_block_message() {
+        // Setup
+        final CoreInflater coreInflater = new CoreInflater();
+        final ByteArray blockBytes = ByteArray.fromHexString(BlockData.MainChain.BLOCK_170);
+
+        final BlockInflater blockInflater = coreInflater.getBlockInflater();
+        final Block block = blockInflater.fromBytes(blockBytes);
+
+        final BlockMessage blockMessage = new BlockMessage(coreInflater);
+        blockMessage.setBlock(block);
+
+        final BlockMessage rawBlockMessage = new BlockMessage(coreInflater);
+
+        // Action
+        rawBlockMessage.setBlockBytes(blockBytes);
+
+        // Assert
+        Assert.assertEquals(blockMessage.getByteCount(), rawBlockMessage.getByteCount());
+        Assert.assertArrayEquals(blockMessage.getBytes().getBytes(), rawBlockMessage.getBytes().getBytes());
+
+        final BlockMessageInflater blockMessageInflater = new BlockMessageInflater(coreInflater);
+        final BlockMessage inflatedBlockMessage = blockMessageInflater.fromBytes(rawBlockMessage.getBytes().getBytes());
+        Assert.assertEquals(block.getHash(), inflatedBlockMessage.getBlock().getHash());
+    }
+}
@@ -1,5 +1,6 @@
 package com.softwareverde.bitcoin.server.module.node;
 
+import com.softwareverde.bitcoin.address.AddressInflater;
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.block.BlockDeflater;
 import com.softwareverde.bitcoin.block.BlockId;
@@ -11,6 +12,7 @@ import com.softwareverde.bitcoin.block.validator.BlockValidator;
 import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
 import com.softwareverde.bitcoin.context.core.BlockProcessorContext;
 import com.softwareverde.bitcoin.context.core.BlockchainBuilderContext;
+import com.softwareverde.bitcoin.context.core.ImmutableUnspentTransactionOutputSet;
 import com.softwareverde.bitcoin.context.core.MutableUnspentTransactionOutputSet;
 import com.softwareverde.bitcoin.context.core.PendingBlockLoaderContext;
 import com.softwareverde.bitcoin.inflater.BlockInflaters;
@@ -37,13 +39,18 @@ import com.softwareverde.bitcoin.test.BlockData;
 import com.softwareverde.bitcoin.test.FakeBlockStore;
 import com.softwareverde.bitcoin.test.IntegrationTest;
 import com.softwareverde.bitcoin.test.fake.FakeUnspentTransactionOutputContext;
+import com.softwareverde.bitcoin.test.util.BlockTestUtil;
+import com.softwareverde.bitcoin.test.util.TransactionTestUtil;
+import com.softwareverde.bitcoin.transaction.MutableTransaction;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.bitcoin.transaction.TransactionInflater;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.signer.TransactionOutputRepository;
 import com.softwareverde.bitcoin.transaction.validator.BlockOutputs;
+import com.softwareverde.bitcoin.transaction.validator.ScriptExecutionCache;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidator;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidatorCore;
 import com.softwareverde.bitcoin.util.IoUtil;
@@ -53,6 +60,7 @@ import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.secp256k1.key.PrivateKey;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.database.row.Row;
 import com.softwareverde.logging.LogLevel;
@@ -886,5 +894,128 @@ public class BlockProcessorTests extends IntegrationTest {
         }
     }
 
+    /**
+     * Returns a BlockProcessor whose speculative TransactionValidator caches its successful validations within the scriptExecutionCache.
+     *  Coinbase maturity is disabled so that Block04 may spend the coinbase of Block03.
+     */
+    protected BlockProcessor _createPrevalidatingBlockProcessor(final ScriptExecutionCache scriptExecutionCache) {
+        final BlockProcessorContext blockProcessorContext = new BlockProcessorContext(_masterInflater, _masterInflater, _blockStore, _fullNodeDatabaseManagerFactory, new MutableNetworkTime(), _synchronizationStatus, _transactionValidatorFactory) {
+            @Override
+            public TransactionValidator getSpeculativeTransactionValidator(final BlockOutputs blockOutputs, final TransactionValidator.Context transactionValidatorContext) {
+                return new TransactionValidatorCore(blockOutputs, transactionValidatorContext, null, scriptExecutionCache, true) {
+                    @Override
+                    protected Long _getCoinbaseMaturity() {
+                        return 0L;
+                    }
+                };
+            }
+        };
+
+        final BlockProcessor blockProcessor = new BlockProcessor(blockProcessorContext);
+        blockProcessor.setTrustedBlockHeight(BlockValidator.DO_NOT_TRUST_BLOCKS);
+        blockProcessor.setScriptExecutionCache(scriptExecutionCache);
+        return blockProcessor;
+    }
+
+    /**
+     * Returns a (fake) Block04 that spends the coinbase of fakeBlock03 with a signature created by the signingPrivateKey.
+     *  The headers of the genesis Block through Block04 are stored, but none of the Blocks are processed.
+     */
+    protected Block _createBlock04SpendingBlock03Coinbase(final Block fakeBlock03, final PrivateKey signingPrivateKey) throws Exception {
+        final AddressInflater addressInflater = new AddressInflater();
+        final BlockInflater blockInflater = _masterInflater.getBlockInflater();
+
+        final Transaction transactionToSpend = fakeBlock03.getCoinbaseTransaction();
+
+        final Transaction unsignedTransaction;
+        {
+            final TransactionInput transactionInput = TransactionTestUtil.createTransactionInput(new TransactionOutputIdentifier(transactionToSpend.getHash(), 0));
+            final TransactionOutput transactionOutput = TransactionTestUtil.createTransactionOutput(addressInflater.fromPrivateKey(signingPrivateKey, true));
+
+            final MutableTransaction mutableTransaction = TransactionTestUtil.createTransaction();
+            mutableTransaction.addTransactionInput(transactionInput);
+            mutableTransaction.addTransactionOutput(transactionOutput);
+            unsignedTransaction = mutableTransaction;
+        }
+
+        final TransactionOutputRepository transactionOutputRepository = TransactionTestUtil.createTransactionOutputRepository(transactionToSpend);
+        final Transaction signedTransaction = TransactionTestUtil.signTransaction(transactionOutputRepository, unsignedTransaction, signingPrivateKey);
+
+        final MutableBlock fakeBlock04 = BlockTestUtil.createBlock();
+        fakeBlock04.setPreviousBlockHash(fakeBlock03.getHash());
+        fakeBlock04.addTransaction(TransactionTestUtil.createCoinbaseTransactionSpendableByPrivateKey(PrivateKey.createNewKey()));
+        fakeBlock04.addTransaction(signedTransaction);
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            synchronized (BlockHeaderDatabaseManager.MUTEX) {
+                blockHeaderDatabaseManager.storeBlockHeader(blockInflater.fromBytes(ByteArray.fromHexString(BlockData.MainChain.GENESIS_BLOCK)));
+                blockHeaderDatabaseManager.storeBlockHeader(blockInflater.fromBytes(ByteArray.fromHexString(BlockData.MainChain.BLOCK_1)));
+                blockHeaderDatabaseManager.storeBlockHeader(blockInflater.fromBytes(ByteArray.fromHexString(BlockData.MainChain.BLOCK_2)));
+                blockHeaderDatabaseManager.storeBlockHeader(fakeBlock03);
+                blockHeaderDatabaseManager.storeBlockHeader(fakeBlock04);
+            }
+        }
+
+        return fakeBlock04;
+    }
+
+    protected static Block _createFakeBlock03(final PrivateKey privateKey) {
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block block02 = blockInflater.fromBytes(ByteArray.fromHexString(BlockData.MainChain.BLOCK_2));
+
+        final MutableBlock fakeBlock03 = BlockTestUtil.createBlock();
+        fakeBlock03.setPreviousBlockHash(block02.getHash());
+        fakeBlock03.addTransaction(TransactionTestUtil.createCoinbaseTransactionSpendableByPrivateKey(privateKey));
+        return fakeBlock03;
+    }
+
+    @Test
+    public void should_cache_scripts_prevalidated_against_predecessor_overlay() throws Exception {
+        // Setup
+        final ScriptExecutionCache scriptExecutionCache = new ScriptExecutionCache();
+        final BlockProcessor blockProcessor = _createPrevalidatingBlockProcessor(scriptExecutionCache);
+
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final Block fakeBlock03 = _createFakeBlock03(privateKey);
+        final Block fakeBlock04 = _createBlock04SpendingBlock03Coinbase(fakeBlock03, privateKey);
+
+        // Block03 has not been processed, so its outputs are only available via the overlay of its unprocessed predecessors...
+        final MutableUnspentTransactionOutputSet unspentTransactionOutputSet = new MutableUnspentTransactionOutputSet();
+        unspentTransactionOutputSet.update(fakeBlock03, 3L);
+        final ImmutableUnspentTransactionOutputSet predecessorOutputs = unspentTransactionOutputSet.asConst();
+
+        final TransactionOutputIdentifier spentTransactionOutputIdentifier = new TransactionOutputIdentifier(fakeBlock03.getCoinbaseTransaction().getHash(), 0);
+
+        // Action
+        unspentTransactionOutputSet.update(fakeBlock04, 4L); // Updates to the original set (e.g. by the BlockchainBuilder) do not affect the copy...
+        blockProcessor.prevalidateBlock(fakeBlock04, 4L, predecessorOutputs);
+
+        // Assert
+        Assert.assertNull(unspentTransactionOutputSet.getTransactionOutput(spentTransactionOutputIdentifier));
+        Assert.assertNotNull(predecessorOutputs.getTransactionOutput(spentTransactionOutputIdentifier));
+        Assert.assertEquals(Integer.valueOf(1), scriptExecutionCache.getItemCount());
+    }
+
+    @Test
+    public void should_not_cache_invalid_scripts_prevalidated_against_predecessor_overlay() throws Exception {
+        // Setup
+        final ScriptExecutionCache scriptExecutionCache = new ScriptExecutionCache();
+        final BlockProcessor blockProcessor = _createPrevalidatingBlockProcessor(scriptExecutionCache);
+
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final Block fakeBlock03 = _createFakeBlock03(privateKey);
+        final Block fakeBlock04 = _createBlock04SpendingBlock03Coinbase(fakeBlock03, PrivateKey.createNewKey()); // Signed by the wrong key...
+
+        final MutableUnspentTransactionOutputSet unspentTransactionOutputSet = new MutableUnspentTransactionOutputSet();
+        unspentTransactionOutputSet.update(fakeBlock03, 3L);
+
+        // Action
+        blockProcessor.prevalidateBlock(fakeBlock04, 4L, unspentTransactionOutputSet.asConst());
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(0), scriptExecutionCache.getItemCount());
+    }
+
     // TODO: Create a test that attempts to spend an output that does not exist, and ensure that output is not added to the mempool (i.e. that block was "unApplied" to the mempool).
 }
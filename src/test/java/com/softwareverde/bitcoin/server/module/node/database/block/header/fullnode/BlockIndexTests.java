@@ -0,0 +1,110 @@
+package com.softwareverde.bitcoin.server.module.node.database.block.header.fullnode;
+
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.block.header.difficulty.Difficulty;
+import com.softwareverde.bitcoin.block.header.difficulty.work.ChainWork;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
+import com.softwareverde.bitcoin.merkleroot.MutableMerkleRoot;
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockIndexTests extends UnitTest {
+    protected static Sha256Hash _createBlockHash(final long blockId) {
+        return Sha256Hash.wrap(HashUtil.sha256(ByteUtil.longToBytes(blockId)));
+    }
+
+    /**
+     * Indexes a chain of blockCount blocks, where the block at height N has BlockId (N + 1).
+     */
+    protected static void _indexChain(final BlockIndex blockIndex, final int blockCount, final BlockchainSegmentId blockchainSegmentId) {
+        final Long blockchainSegmentGeneration = blockIndex.getBlockchainSegmentGeneration();
+        for (long blockHeight = 0L; blockHeight < blockCount; ++blockHeight) {
+            final BlockId blockId = BlockId.wrap(blockHeight + 1L);
+            final BlockId previousBlockId = (blockHeight > 0L ? BlockId.wrap(blockHeight) : null);
+            blockIndex.putBlock(blockId, _createBlockHash(blockId.longValue()), previousBlockId, blockHeight, 1L, MutableMerkleRoot.wrap(new byte[32]), (1231006505L + blockHeight), Difficulty.BASE_DIFFICULTY, blockHeight, MedianBlockTime.fromSeconds(1231006505L + blockHeight), ChainWork.wrap(new byte[32]), blockchainSegmentId, blockchainSegmentGeneration);
+        }
+    }
+
+    @Test
+    public void should_lookup_indexed_block_by_hash_and_id() {
+        // Setup
+        final BlockIndex blockIndex = new BlockIndex();
+        _indexChain(blockIndex, 3, BlockchainSegmentId.wrap(1L));
+
+        // Action
+        final BlockId blockId = blockIndex.getBlockId(_createBlockHash(3L));
+        final BlockHeader blockHeader = blockIndex.getBlockHeader(blockId);
+
+        // Assert
+        Assert.assertEquals(BlockId.wrap(3L), blockId);
+        Assert.assertEquals(Long.valueOf(2L), blockIndex.getBlockHeight(blockId));
+        Assert.assertEquals(BlockId.wrap(2L), blockIndex.getPreviousBlockId(blockId));
+        Assert.assertEquals(_createBlockHash(2L), blockHeader.getPreviousBlockHash());
+        Assert.assertEquals(Difficulty.BASE_DIFFICULTY, blockHeader.getDifficulty());
+        Assert.assertNull(blockIndex.getBlockId(_createBlockHash(4L)));
+        Assert.assertEquals(Integer.valueOf(3), blockIndex.getBlockCount());
+    }
+
+    @Test
+    public void should_find_ancestors_of_long_chain() {
+        // Setup
+        final BlockIndex blockIndex = new BlockIndex();
+        final int blockCount = 10000;
+        _indexChain(blockIndex, blockCount, BlockchainSegmentId.wrap(1L));
+        final BlockId headBlockId = BlockId.wrap((long) blockCount);
+
+        // Action
+        final BlockId genesisBlockId = blockIndex.getAncestorBlockId(headBlockId, (blockCount - 1));
+        final BlockId ancestorBlockId = blockIndex.getAncestorBlockId(headBlockId, 4321);
+        final BlockId invalidAncestorBlockId = blockIndex.getAncestorBlockId(headBlockId, blockCount);
+
+        // Assert
+        Assert.assertEquals(BlockId.wrap(1L), genesisBlockId);
+        Assert.assertEquals(BlockId.wrap((long) (blockCount - 4321)), ancestorBlockId);
+        Assert.assertNull(invalidAncestorBlockId);
+    }
+
+    @Test
+    public void should_not_find_removed_block() {
+        // Setup
+        final BlockIndex blockIndex = new BlockIndex();
+        _indexChain(blockIndex, 3, BlockchainSegmentId.wrap(1L));
+
+        // Action
+        blockIndex.removeBlock(BlockId.wrap(2L));
+
+        // Assert
+        Assert.assertFalse(blockIndex.containsBlock(BlockId.wrap(2L)));
+        Assert.assertNull(blockIndex.getBlockId(_createBlockHash(2L)));
+        Assert.assertNull(blockIndex.getBlockHeader(BlockId.wrap(3L))); // The parent is no longer indexed...
+        Assert.assertNull(blockIndex.getAncestorBlockId(BlockId.wrap(3L), 2));
+        Assert.assertEquals(BlockId.wrap(3L), blockIndex.getBlockId(_createBlockHash(3L)));
+    }
+
+    @Test
+    public void should_not_cache_blockchain_segment_read_during_invalidation() {
+        // Setup
+        final BlockIndex blockIndex = new BlockIndex();
+        final Long blockchainSegmentGeneration = blockIndex.getBlockchainSegmentGeneration();
+        _indexChain(blockIndex, 1, BlockchainSegmentId.wrap(1L));
+
+        // Action
+        blockIndex.beginBlockchainSegmentInvalidation();
+        blockIndex.clearBlockchainSegmentIds();
+        blockIndex.putBlock(BlockId.wrap(2L), _createBlockHash(2L), BlockId.wrap(1L), 1L, 1L, MutableMerkleRoot.wrap(new byte[32]), 1231006506L, Difficulty.BASE_DIFFICULTY, 0L, MedianBlockTime.fromSeconds(1231006506L), ChainWork.wrap(new byte[32]), BlockchainSegmentId.wrap(1L), blockchainSegmentGeneration);
+        blockIndex.endBlockchainSegmentInvalidation();
+        blockIndex.putBlock(BlockId.wrap(3L), _createBlockHash(3L), BlockId.wrap(2L), 2L, 1L, MutableMerkleRoot.wrap(new byte[32]), 1231006507L, Difficulty.BASE_DIFFICULTY, 0L, MedianBlockTime.fromSeconds(1231006507L), ChainWork.wrap(new byte[32]), BlockchainSegmentId.wrap(1L), blockchainSegmentGeneration); // Read before the invalidation ended...
+
+        // Assert
+        Assert.assertNull(blockIndex.getBlockchainSegmentId(BlockId.wrap(1L)));
+        Assert.assertNull(blockIndex.getBlockchainSegmentId(BlockId.wrap(2L)));
+        Assert.assertNull(blockIndex.getBlockchainSegmentId(BlockId.wrap(3L)));
+        Assert.assertEquals(Long.valueOf(2L), blockIndex.getBlockHeight(BlockId.wrap(3L)));
+    }
+}
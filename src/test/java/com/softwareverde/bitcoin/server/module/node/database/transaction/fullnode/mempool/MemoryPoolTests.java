@@ -0,0 +1,245 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.mempool;
+
+import com.softwareverde.bitcoin.test.util.TransactionTestUtil;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashSet;
+
+public class MemoryPoolTests {
+    protected File _journalFile;
+
+    protected static List<TransactionId> _wrap(final TransactionId... transactionIds) {
+        final MutableList<TransactionId> list = new MutableList<TransactionId>(transactionIds.length);
+        for (final TransactionId transactionId : transactionIds) {
+            list.add(transactionId);
+        }
+        return list;
+    }
+
+    @Before
+    public void setup() throws Exception {
+        _journalFile = File.createTempFile("mempool", ".journal");
+        _journalFile.delete();
+    }
+
+    @After
+    public void teardown() {
+        _journalFile.delete();
+    }
+
+    @Test
+    public void should_index_spent_outputs_and_dependents_regardless_of_insertion_order() {
+        // Setup
+        final TransactionOutputIdentifier confirmedOutput = new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0);
+        final Transaction parentTransaction = TransactionTestUtil.createUnsignedTransaction(confirmedOutput, 1000L);
+        final Transaction childTransaction = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(parentTransaction.getHash(), 0), 900L);
+        final TransactionId parentTransactionId = TransactionId.wrap(1L);
+        final TransactionId childTransactionId = TransactionId.wrap(2L);
+
+        final MemoryPool memoryPool = new MemoryPool();
+
+        // Action
+        memoryPool.addTransaction(childTransactionId, childTransaction, 100L); // The child is added before its parent (i.e. during a reorg)...
+        memoryPool.addTransaction(parentTransactionId, parentTransaction, null);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(2), memoryPool.getTransactionCount());
+        Assert.assertEquals(Long.valueOf(parentTransaction.getByteCount() + childTransaction.getByteCount()), memoryPool.getByteCount());
+        Assert.assertEquals(Long.valueOf(100L), memoryPool.getTotalFee());
+        Assert.assertFalse(memoryPool.addTransaction(parentTransactionId, parentTransaction, null));
+
+        Assert.assertTrue(memoryPool.isTransactionOutputSpent(confirmedOutput));
+        Assert.assertTrue(memoryPool.isTransactionOutputSpent(new TransactionOutputIdentifier(parentTransaction.getHash(), 0)));
+        Assert.assertFalse(memoryPool.isTransactionOutputSpent(new TransactionOutputIdentifier(childTransaction.getHash(), 0)));
+        Assert.assertEquals(Long.valueOf(1000L), memoryPool.getTransactionOutput(new TransactionOutputIdentifier(parentTransaction.getHash(), 0)).getAmount());
+
+        final HashSet<TransactionOutputIdentifier> spentOutputs = new HashSet<TransactionOutputIdentifier>();
+        spentOutputs.add(confirmedOutput);
+        final List<TransactionId> spendingTransactionIds = memoryPool.getSpendingTransactionIds(spentOutputs);
+        Assert.assertEquals(1, spendingTransactionIds.getCount());
+        Assert.assertEquals(parentTransactionId, spendingTransactionIds.get(0));
+
+        final MutableList<Sha256Hash> parentTransactionHashes = new MutableList<Sha256Hash>();
+        parentTransactionHashes.add(parentTransaction.getHash());
+        final List<TransactionId> childTransactionIds = memoryPool.getChildTransactionIds(parentTransactionHashes);
+        Assert.assertEquals(1, childTransactionIds.getCount());
+        Assert.assertEquals(childTransactionId, childTransactionIds.get(0));
+    }
+
+    @Test
+    public void should_find_dependents_of_removed_transaction_and_release_accounting() {
+        // Setup
+        final TransactionOutputIdentifier confirmedOutput = new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0);
+        final Transaction parentTransaction = TransactionTestUtil.createUnsignedTransaction(confirmedOutput, 1000L);
+        final Transaction childTransaction = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(parentTransaction.getHash(), 0), 900L);
+        final TransactionId parentTransactionId = TransactionId.wrap(1L);
+        final TransactionId childTransactionId = TransactionId.wrap(2L);
+
+        final MemoryPool memoryPool = new MemoryPool();
+        memoryPool.addTransaction(parentTransactionId, parentTransaction, 50L);
+        memoryPool.addTransaction(childTransactionId, childTransaction, 100L);
+
+        // Action
+        memoryPool.removeTransactions(_wrap(parentTransactionId));
+
+        // Assert
+        Assert.assertFalse(memoryPool.containsTransaction(parentTransactionId));
+        Assert.assertFalse(memoryPool.isTransactionOutputSpent(confirmedOutput));
+        Assert.assertNull(memoryPool.getTransactionId(parentTransaction.getHash()));
+        Assert.assertEquals(Long.valueOf(childTransaction.getByteCount()), memoryPool.getByteCount());
+        Assert.assertEquals(Long.valueOf(100L), memoryPool.getTotalFee());
+
+        final MutableList<Sha256Hash> parentTransactionHashes = new MutableList<Sha256Hash>();
+        parentTransactionHashes.add(parentTransaction.getHash());
+        final List<TransactionId> childTransactionIds = memoryPool.getChildTransactionIds(parentTransactionHashes);
+        Assert.assertEquals(1, childTransactionIds.getCount());
+        Assert.assertEquals(childTransactionId, childTransactionIds.get(0));
+
+        memoryPool.removeTransactions(childTransactionIds);
+        Assert.assertEquals(Integer.valueOf(0), memoryPool.getTransactionCount());
+        Assert.assertEquals(Long.valueOf(0L), memoryPool.getByteCount());
+        Assert.assertTrue(memoryPool.getChildTransactionIds(parentTransactionHashes).isEmpty());
+    }
+
+    @Test
+    public void should_restore_remaining_transactions_from_journal() {
+        // Setup
+        final Transaction transaction0 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0), 1000L);
+        final Transaction transaction1 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 1), 1000L);
+
+        final MemoryPool memoryPool = new MemoryPool(_journalFile);
+        memoryPool.openJournal();
+        memoryPool.addTransaction(TransactionId.wrap(1L), transaction0, null);
+        memoryPool.addTransaction(TransactionId.wrap(2L), transaction1, null);
+        memoryPool.removeTransactions(_wrap(TransactionId.wrap(1L)));
+        memoryPool.close();
+
+        // Action
+        final MemoryPool restoredMemoryPool = new MemoryPool(_journalFile);
+        final List<Transaction> restoredTransactions = restoredMemoryPool.getRestoredTransactions();
+
+        // Assert
+        Assert.assertEquals(1, restoredTransactions.getCount());
+        Assert.assertEquals(transaction1.getHash(), restoredTransactions.get(0).getHash());
+        Assert.assertEquals(Integer.valueOf(0), restoredMemoryPool.getTransactionCount()); // Restored Transactions require TransactionIds before being added...
+        Assert.assertTrue(restoredMemoryPool.getRestoredTransactions().isEmpty());
+        restoredMemoryPool.close();
+    }
+
+    @Test
+    public void should_discard_incomplete_journal_record() throws Exception {
+        // Setup
+        final Transaction transaction0 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0), 1000L);
+        final Transaction transaction1 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 1), 1000L);
+
+        final MemoryPool memoryPool = new MemoryPool(_journalFile);
+        memoryPool.openJournal();
+        memoryPool.addTransaction(TransactionId.wrap(1L), transaction0, null);
+        memoryPool.addTransaction(TransactionId.wrap(2L), transaction1, null);
+        memoryPool.close();
+
+        final byte[] journalBytes = Files.readAllBytes(_journalFile.toPath());
+        Files.write(_journalFile.toPath(), ByteUtil.copyBytes(journalBytes, 0, (journalBytes.length - 1))); // Simulates a crash while writing the last record.
+
+        // Action
+        final MemoryPool restoredMemoryPool = new MemoryPool(_journalFile);
+        final List<Transaction> restoredTransactions = restoredMemoryPool.getRestoredTransactions();
+
+        // Assert
+        Assert.assertEquals(1, restoredTransactions.getCount());
+        Assert.assertEquals(transaction0.getHash(), restoredTransactions.get(0).getHash());
+        restoredMemoryPool.close();
+    }
+
+    @Test
+    public void should_preserve_journal_until_opened() {
+        // Setup
+        final Transaction transaction0 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0), 1000L);
+        final Transaction transaction1 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 1), 1000L);
+
+        final MemoryPool memoryPool = new MemoryPool(_journalFile);
+        memoryPool.openJournal();
+        memoryPool.addTransaction(TransactionId.wrap(1L), transaction0, null);
+        memoryPool.addTransaction(TransactionId.wrap(2L), transaction1, null);
+        memoryPool.close();
+
+        final MemoryPool failedMemoryPool = new MemoryPool(_journalFile);
+        Assert.assertEquals(2, failedMemoryPool.getRestoredTransactions().getCount());
+        failedMemoryPool.close(); // Simulates a failed restore; the journal is never opened.
+
+        final MemoryPool restoredMemoryPool = new MemoryPool(_journalFile);
+        final List<Transaction> restoredTransactions = restoredMemoryPool.getRestoredTransactions();
+        restoredMemoryPool.addTransaction(TransactionId.wrap(3L), restoredTransactions.get(1), null);
+
+        // Action
+        restoredMemoryPool.openJournal();
+        restoredMemoryPool.close();
+
+        // Assert
+        Assert.assertEquals(2, restoredTransactions.getCount());
+
+        final MemoryPool reopenedMemoryPool = new MemoryPool(_journalFile);
+        final List<Transaction> reopenedTransactions = reopenedMemoryPool.getRestoredTransactions();
+        Assert.assertEquals(1, reopenedTransactions.getCount());
+        Assert.assertEquals(transaction1.getHash(), reopenedTransactions.get(0).getHash());
+        reopenedMemoryPool.close();
+    }
+
+    @Test
+    public void should_remove_every_transaction_when_cleared() {
+        // Setup
+        final Transaction transaction0 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0), 1000L);
+        final Transaction transaction1 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(transaction0.getHash(), 0), 900L);
+
+        final MemoryPool memoryPool = new MemoryPool(_journalFile);
+        memoryPool.openJournal();
+        memoryPool.addTransaction(TransactionId.wrap(1L), transaction0, 50L);
+        memoryPool.addTransaction(TransactionId.wrap(2L), transaction1, 100L);
+
+        // Action
+        memoryPool.clear();
+        memoryPool.close();
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(0), memoryPool.getTransactionCount());
+        Assert.assertEquals(Long.valueOf(0L), memoryPool.getByteCount());
+        Assert.assertEquals(Long.valueOf(0L), memoryPool.getTotalFee());
+        Assert.assertFalse(memoryPool.isTransactionOutputSpent(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0)));
+        Assert.assertNull(memoryPool.getTransactionId(transaction1.getHash()));
+
+        final MemoryPool restoredMemoryPool = new MemoryPool(_journalFile);
+        Assert.assertTrue(restoredMemoryPool.getRestoredTransactions().isEmpty());
+        restoredMemoryPool.close();
+    }
+
+    @Test
+    public void should_not_add_transaction_exceeding_max_byte_count() {
+        // Setup
+        final Transaction transaction0 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0), 1000L);
+        final Transaction transaction1 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 1), 1000L);
+
+        final MemoryPool memoryPool = new MemoryPool(null, (transaction0.getByteCount() + transaction1.getByteCount() - 1L));
+
+        // Action
+        final Boolean transaction0WasAdded = memoryPool.addTransaction(TransactionId.wrap(1L), transaction0, null);
+        final Boolean transaction1WasAdded = memoryPool.addTransaction(TransactionId.wrap(2L), transaction1, null);
+
+        // Assert
+        Assert.assertTrue(transaction0WasAdded);
+        Assert.assertFalse(transaction1WasAdded);
+        Assert.assertEquals(Integer.valueOf(1), memoryPool.getTransactionCount());
+        Assert.assertEquals(Long.valueOf(transaction0.getByteCount()), memoryPool.getByteCount());
+    }
+}
@@ -0,0 +1,157 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo;
+
+import com.softwareverde.bitcoin.block.MutableBlock;
+import com.softwareverde.bitcoin.test.fake.FakeUnspentTransactionOutputContext;
+import com.softwareverde.bitcoin.test.util.TransactionTestUtil;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.ImmutableLockingScript;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.secp256k1.key.PrivateKey;
+import com.softwareverde.util.HexUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockUndoDataTests {
+    protected static UnspentTransactionOutput _createUnspentTransactionOutput(final Integer outputIndex, final Long amount, final String lockingScriptHexString, final Long blockHeight, final Boolean isCoinbase) {
+        final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+        transactionOutput.setIndex(outputIndex);
+        transactionOutput.setAmount(amount);
+        transactionOutput.setLockingScript(new ImmutableLockingScript(MutableByteArray.wrap(HexUtil.hexStringToByteArray(lockingScriptHexString))));
+        return new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, isCoinbase);
+    }
+
+    @Test
+    public void should_restore_spent_outputs_from_bytes() {
+        // Setup
+        final ImmutableListBuilder<TransactionOutputIdentifier> transactionOutputIdentifiers = new ImmutableListBuilder<TransactionOutputIdentifier>();
+        transactionOutputIdentifiers.add(new TransactionOutputIdentifier(Sha256Hash.fromHexString("0437CD7F8525CEED2324359C2D0BA26006D92D856A9C20FA0241106EE5A597C9"), 0));
+        transactionOutputIdentifiers.add(new TransactionOutputIdentifier(Sha256Hash.fromHexString("F4184FC596403B9D638783CF57ADFE4C75C605F6356FBC91338530E9831E9E16"), 7));
+        transactionOutputIdentifiers.add(new TransactionOutputIdentifier(Sha256Hash.fromHexString("A1075DB55D416D3CA199F55B6084E2115B9345E16C5CF302FC80E9D5FBF5D48D"), 1));
+
+        final ImmutableListBuilder<UnspentTransactionOutput> spentTransactionOutputs = new ImmutableListBuilder<UnspentTransactionOutput>();
+        spentTransactionOutputs.add(_createUnspentTransactionOutput(0, 50L * 100000000L, "410411DB93E1DCDB8A016B49840F8C53BC1EB68A382E97B1482ECAD7B148A6909A5CB2E0EADDFB84CCF9744464F82E160BFA9B8B64F9D4C03F999B8643F656B412A3AC", 9L, true));
+        spentTransactionOutputs.add(_createUnspentTransactionOutput(7, 12345L, "76A914ADEDB2E16DB029CA2482AC2E0CEFEB887DB37AFF88AC", 170L, false));
+        spentTransactionOutputs.add(_createUnspentTransactionOutput(1, 0L, "A914E9C3DD0C07AAC76179EBC76A6C78D4D67C6C160A87", UnspentTransactionOutput.UNKNOWN_BLOCK_HEIGHT, false));
+
+        final BlockUndoData blockUndoData = new BlockUndoData(spentTransactionOutputs.build());
+
+        // Action
+        final ByteArray bytes = blockUndoData.getBytes();
+        final BlockUndoData restoredBlockUndoData = BlockUndoData.fromBytes(bytes, transactionOutputIdentifiers.build());
+
+        // Assert
+        Assert.assertNotNull(restoredBlockUndoData);
+        final List<UnspentTransactionOutput> expectedTransactionOutputs = blockUndoData.getSpentTransactionOutputs();
+        final List<UnspentTransactionOutput> restoredTransactionOutputs = restoredBlockUndoData.getSpentTransactionOutputs();
+        Assert.assertEquals(expectedTransactionOutputs.getCount(), restoredTransactionOutputs.getCount());
+        for (int i = 0; i < expectedTransactionOutputs.getCount(); ++i) {
+            final UnspentTransactionOutput expectedTransactionOutput = expectedTransactionOutputs.get(i);
+            final UnspentTransactionOutput restoredTransactionOutput = restoredTransactionOutputs.get(i);
+
+            Assert.assertEquals(expectedTransactionOutput.getIndex(), restoredTransactionOutput.getIndex());
+            Assert.assertEquals(expectedTransactionOutput.getAmount(), restoredTransactionOutput.getAmount());
+            Assert.assertEquals(expectedTransactionOutput.getLockingScript().getBytes(), restoredTransactionOutput.getLockingScript().getBytes());
+            Assert.assertEquals(expectedTransactionOutput.getBlockHeight(), restoredTransactionOutput.getBlockHeight());
+            Assert.assertEquals(expectedTransactionOutput.isCoinbase(), restoredTransactionOutput.isCoinbase());
+        }
+    }
+
+    @Test
+    public void should_not_restore_spent_outputs_for_mismatched_identifiers() {
+        // Setup
+        final ImmutableListBuilder<UnspentTransactionOutput> spentTransactionOutputs = new ImmutableListBuilder<UnspentTransactionOutput>();
+        spentTransactionOutputs.add(_createUnspentTransactionOutput(0, 12345L, "76A914ADEDB2E16DB029CA2482AC2E0CEFEB887DB37AFF88AC", 170L, false));
+        final BlockUndoData blockUndoData = new BlockUndoData(spentTransactionOutputs.build());
+        final ByteArray bytes = blockUndoData.getBytes();
+
+        final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(Sha256Hash.fromHexString("0437CD7F8525CEED2324359C2D0BA26006D92D856A9C20FA0241106EE5A597C9"), 0);
+
+        final ImmutableListBuilder<TransactionOutputIdentifier> transactionOutputIdentifiers = new ImmutableListBuilder<TransactionOutputIdentifier>();
+        transactionOutputIdentifiers.add(transactionOutputIdentifier);
+
+        final ImmutableListBuilder<TransactionOutputIdentifier> mismatchedTransactionOutputIdentifiers = new ImmutableListBuilder<TransactionOutputIdentifier>();
+        mismatchedTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+        mismatchedTransactionOutputIdentifiers.add(new TransactionOutputIdentifier(Sha256Hash.fromHexString("F4184FC596403B9D638783CF57ADFE4C75C605F6356FBC91338530E9831E9E16"), 1));
+
+        // Action
+        final BlockUndoData mismatchedBlockUndoData = BlockUndoData.fromBytes(bytes, mismatchedTransactionOutputIdentifiers.build());
+        final BlockUndoData truncatedBlockUndoData = BlockUndoData.fromBytes(MutableByteArray.wrap(bytes.getBytes(0, bytes.getByteCount() - 1)), transactionOutputIdentifiers.build());
+
+        // Assert
+        Assert.assertNull(mismatchedBlockUndoData);
+        Assert.assertNull(truncatedBlockUndoData);
+    }
+
+    @Test
+    public void should_create_undo_data_for_outputs_spent_within_the_same_block() {
+        // Setup
+        final Long blockHeight = 200L;
+        final Transaction previousTransaction = TransactionTestUtil.createCoinbaseTransactionSpendableByPrivateKey(PrivateKey.createNewKey());
+        final TransactionOutputIdentifier previousTransactionOutputIdentifier = new TransactionOutputIdentifier(previousTransaction.getHash(), 0);
+
+        final FakeUnspentTransactionOutputContext unspentTransactionOutputContext = new FakeUnspentTransactionOutputContext();
+        unspentTransactionOutputContext.addTransaction(previousTransaction, Sha256Hash.EMPTY_HASH, 100L, false);
+
+        final Transaction coinbaseTransaction = TransactionTestUtil.createCoinbaseTransactionSpendableByPrivateKey(PrivateKey.createNewKey());
+        final Transaction transaction1 = TransactionTestUtil.createUnsignedTransaction(previousTransactionOutputIdentifier, 10L * Transaction.SATOSHIS_PER_BITCOIN);
+        final TransactionOutputIdentifier transaction1OutputIdentifier = new TransactionOutputIdentifier(transaction1.getHash(), 0);
+        final Transaction transaction2 = TransactionTestUtil.createUnsignedTransaction(transaction1OutputIdentifier, 5L * Transaction.SATOSHIS_PER_BITCOIN);
+
+        final MutableBlock block = new MutableBlock();
+        block.addTransaction(coinbaseTransaction);
+        block.addTransaction(transaction1);
+        block.addTransaction(transaction2);
+
+        // Action
+        final BlockUndoData blockUndoData = BlockUndoData.fromBlock(block, blockHeight, unspentTransactionOutputContext);
+
+        // Assert
+        Assert.assertNotNull(blockUndoData);
+        final List<UnspentTransactionOutput> spentTransactionOutputs = blockUndoData.getSpentTransactionOutputs();
+        Assert.assertEquals(2, spentTransactionOutputs.getCount());
+
+        final UnspentTransactionOutput previousTransactionOutput = spentTransactionOutputs.get(0);
+        Assert.assertEquals(Integer.valueOf(0), previousTransactionOutput.getIndex());
+        Assert.assertEquals(previousTransaction.getTransactionOutputs().get(0).getAmount(), previousTransactionOutput.getAmount());
+        Assert.assertEquals(Long.valueOf(100L), previousTransactionOutput.getBlockHeight());
+        Assert.assertFalse(previousTransactionOutput.isCoinbase());
+
+        final UnspentTransactionOutput transaction1Output = spentTransactionOutputs.get(1);
+        Assert.assertEquals(Integer.valueOf(0), transaction1Output.getIndex());
+        Assert.assertEquals(Long.valueOf(10L * Transaction.SATOSHIS_PER_BITCOIN), transaction1Output.getAmount());
+        Assert.assertEquals(transaction1.getTransactionOutputs().get(0).getLockingScript().getBytes(), transaction1Output.getLockingScript().getBytes());
+        Assert.assertEquals(blockHeight, transaction1Output.getBlockHeight());
+        Assert.assertFalse(transaction1Output.isCoinbase());
+
+        final ByteArray bytes = blockUndoData.getBytes();
+        final BlockUndoData restoredBlockUndoData = BlockUndoData.fromBytes(bytes, BlockUndoData.getSpentTransactionOutputIdentifiers(block));
+        Assert.assertNotNull(restoredBlockUndoData);
+        Assert.assertEquals(blockHeight, restoredBlockUndoData.getSpentTransactionOutputs().get(1).getBlockHeight());
+    }
+
+    @Test
+    public void should_not_create_undo_data_when_a_spent_output_is_unavailable() {
+        // Setup
+        final Transaction coinbaseTransaction = TransactionTestUtil.createCoinbaseTransactionSpendableByPrivateKey(PrivateKey.createNewKey());
+        final TransactionOutputIdentifier missingTransactionOutputIdentifier = new TransactionOutputIdentifier(Sha256Hash.fromHexString("0437CD7F8525CEED2324359C2D0BA26006D92D856A9C20FA0241106EE5A597C9"), 0);
+        final Transaction transaction = TransactionTestUtil.createUnsignedTransaction(missingTransactionOutputIdentifier, 10L * Transaction.SATOSHIS_PER_BITCOIN);
+
+        final MutableBlock block = new MutableBlock();
+        block.addTransaction(coinbaseTransaction);
+        block.addTransaction(transaction);
+
+        // Action
+        final BlockUndoData blockUndoData = BlockUndoData.fromBlock(block, 200L, new FakeUnspentTransactionOutputContext());
+
+        // Assert
+        Assert.assertNull(blockUndoData);
+    }
+}
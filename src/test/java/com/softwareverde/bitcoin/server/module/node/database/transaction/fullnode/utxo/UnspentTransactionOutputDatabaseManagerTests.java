@@ -26,6 +26,7 @@ public class UnspentTransactionOutputDatabaseManagerTests extends IntegrationTes
 
     @Override @After
     public void after() throws Exception {
+        UnspentTransactionOutputJvmManager.setIncrementalCommitsEnabled(false);
         super.after();
     }
 
@@ -41,6 +42,21 @@ public class UnspentTransactionOutputDatabaseManagerTests extends IntegrationTes
         return row.getLong("count");
     }
 
+    protected Long _getSpentUtxoCountOnDisk(final DatabaseConnection databaseConnection) throws DatabaseException {
+        final List<Row> rows = databaseConnection.query(new Query("SELECT COUNT(*) AS count FROM committed_unspent_transaction_outputs WHERE is_spent = 1"));
+        final Row row = rows.get(0);
+        return row.getLong("count");
+    }
+
+    protected static MutableList<TransactionOutputIdentifier> _createTransactionOutputIdentifiers(final int startIndex, final int count) {
+        final MutableList<TransactionOutputIdentifier> transactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>(count);
+        for (int i = startIndex; i < (startIndex + count); ++i) {
+            final Sha256Hash transactionHash = Sha256Hash.wrap(HashUtil.sha256(ByteUtil.integerToBytes(i)));
+            transactionOutputIdentifiers.add(new TransactionOutputIdentifier(transactionHash, 0));
+        }
+        return transactionOutputIdentifiers;
+    }
+
     @Test
     public void should_purge_utxo_set_by_half_once_full() throws Exception {
         // Setup
@@ -86,4 +102,38 @@ public class UnspentTransactionOutputDatabaseManagerTests extends IntegrationTes
             Assert.assertEquals(MAX_UTXO_COUNT, _getUtxoCountOnDisk(databaseConnection));
         }
     }
+
+    @Test
+    public void should_incrementally_commit_only_modified_utxos_without_purging() throws Exception {
+        // Setup
+        UnspentTransactionOutputJvmManager.setIncrementalCommitsEnabled(true);
+
+        final FullNodeDatabaseManager fullNodeDatabaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager();
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = new UnspentTransactionOutputJvmManager(MAX_UTXO_COUNT, 0.50F, fullNodeDatabaseManager, _blockStore, _masterInflater);
+        unspentTransactionOutputDatabaseManager.clearUncommittedUtxoSet();
+
+        final MutableList<TransactionOutputIdentifier> block1TransactionOutputIdentifiers = _createTransactionOutputIdentifiers(0, 8);
+        unspentTransactionOutputDatabaseManager.insertUnspentTransactionOutputs(block1TransactionOutputIdentifiers, 1L);
+        unspentTransactionOutputDatabaseManager.setUncommittedUnspentTransactionOutputBlockHeight(1L);
+        unspentTransactionOutputDatabaseManager.commitDirtyUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, true);
+
+        final MutableList<TransactionOutputIdentifier> spentTransactionOutputIdentifiers = new MutableList<TransactionOutputIdentifier>(2);
+        spentTransactionOutputIdentifiers.add(block1TransactionOutputIdentifiers.get(0));
+        spentTransactionOutputIdentifiers.add(block1TransactionOutputIdentifiers.get(1));
+        unspentTransactionOutputDatabaseManager.markTransactionOutputsAsSpent(spentTransactionOutputIdentifiers);
+        unspentTransactionOutputDatabaseManager.insertUnspentTransactionOutputs(_createTransactionOutputIdentifiers(8, 4), 2L);
+        unspentTransactionOutputDatabaseManager.setUncommittedUnspentTransactionOutputBlockHeight(2L);
+
+        // Action
+        unspentTransactionOutputDatabaseManager.commitDirtyUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, true);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(10L), _getUtxoCountInMemory()); // The spent UTXOs are removed, but the cache is not purged.
+        Assert.assertEquals(Long.valueOf(2L), unspentTransactionOutputDatabaseManager.getCommittedUnspentTransactionOutputBlockHeight());
+
+        try (final DatabaseConnection databaseConnection = _databaseConnectionFactory.newConnection()) {
+            Assert.assertEquals(Long.valueOf(12L), _getUtxoCountOnDisk(databaseConnection));
+            Assert.assertEquals(Long.valueOf(2L), _getSpentUtxoCountOnDisk(databaseConnection));
+        }
+    }
 }
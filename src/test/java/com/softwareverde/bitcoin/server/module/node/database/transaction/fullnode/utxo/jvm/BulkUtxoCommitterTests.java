@@ -0,0 +1,65 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import com.softwareverde.util.HexUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BulkUtxoCommitterTests {
+    protected static final String TRANSACTION_HASH = "0437CD7F8525CEED2324359C2D0BA26006D92D856A9C20FA0241106EE5A597C9";
+    protected static final String COMPRESSED_LOCKING_SCRIPT = "76A914ADEDB2E16DB029CA2482AC2E0CEFEB887DB37AFF88AC";
+
+    protected static UtxoKey _createUtxoKey() {
+        return new UtxoKey(HexUtil.hexStringToByteArray(TRANSACTION_HASH), 2);
+    }
+
+    @Test
+    public void should_stage_spent_utxo_as_hash_and_index() {
+        // Setup
+        final UtxoKey utxoKey = _createUtxoKey();
+
+        // Action
+        final String row = BulkUtxoCommitter.toSpentRow(utxoKey);
+
+        // Assert
+        Assert.assertEquals((TRANSACTION_HASH + "\t2\n").toUpperCase(), row.toUpperCase());
+    }
+
+    @Test
+    public void should_stage_unspent_utxo_with_coin() {
+        // Setup
+        final UtxoKey utxoKey = _createUtxoKey();
+        final UtxoValue utxoValue = new UtxoValue(new JvmSpentState(), 170L, true, 5000000000L, HexUtil.hexStringToByteArray(COMPRESSED_LOCKING_SCRIPT));
+
+        // Action
+        final String row = BulkUtxoCommitter.toUnspentRow(utxoKey, utxoValue);
+
+        // Assert
+        final String[] columns = row.substring(0, row.length() - 1).split("\t");
+        Assert.assertTrue(row.endsWith("\n"));
+        Assert.assertEquals(6, columns.length);
+        Assert.assertEquals(TRANSACTION_HASH, columns[0].toUpperCase());
+        Assert.assertEquals("2", columns[1]);
+        Assert.assertEquals("170", columns[2]);
+        Assert.assertEquals("1", columns[3]);
+        Assert.assertEquals("5000000000", columns[4]);
+        Assert.assertEquals(COMPRESSED_LOCKING_SCRIPT, columns[5].toUpperCase());
+    }
+
+    @Test
+    public void should_stage_unspent_utxo_without_coin_as_null_columns() {
+        // Setup
+        final UtxoKey utxoKey = _createUtxoKey();
+        final UtxoValue utxoValue = new UtxoValue(new JvmSpentState(), -1L);
+
+        // Action
+        final String row = BulkUtxoCommitter.toUnspentRow(utxoKey, utxoValue);
+
+        // Assert
+        final String[] columns = row.substring(0, row.length() - 1).split("\t");
+        Assert.assertEquals(6, columns.length);
+        Assert.assertEquals("0", columns[2]); // Unknown block heights are committed as zero.
+        Assert.assertEquals("\\N", columns[3]);
+        Assert.assertEquals("\\N", columns[4]);
+        Assert.assertEquals("\\N", columns[5]);
+    }
+}
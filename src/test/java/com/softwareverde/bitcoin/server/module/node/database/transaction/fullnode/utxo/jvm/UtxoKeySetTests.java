@@ -0,0 +1,77 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.util.HashUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+
+public class UtxoKeySetTests {
+    protected static UtxoKey _createUtxoKey(final int i) {
+        final byte[] transactionHash = HashUtil.sha256(ByteUtil.integerToBytes(i));
+        return new UtxoKey(transactionHash, (i % 3));
+    }
+
+    @Test
+    public void should_contain_added_keys_after_growing() {
+        // Setup
+        final UtxoKeySet utxoKeySet = new UtxoKeySet(16L);
+        final int itemCount = 10000;
+
+        // Action
+        for (int i = 0; i < itemCount; ++i) {
+            Assert.assertTrue(utxoKeySet.add(_createUtxoKey(i)));
+        }
+
+        // Assert
+        Assert.assertEquals(itemCount, utxoKeySet.size());
+        for (int i = 0; i < itemCount; ++i) {
+            Assert.assertTrue(utxoKeySet.contains(_createUtxoKey(i)));
+        }
+        Assert.assertFalse(utxoKeySet.contains(_createUtxoKey(itemCount)));
+    }
+
+    @Test
+    public void should_not_add_duplicate_key() {
+        // Setup
+        final UtxoKeySet utxoKeySet = new UtxoKeySet();
+        final UtxoKey utxoKey = _createUtxoKey(7);
+        utxoKeySet.add(utxoKey);
+
+        // Action
+        final boolean wasAdded = utxoKeySet.add(new UtxoKey(utxoKey.transactionHash.clone(), utxoKey.outputIndex));
+
+        // Assert
+        Assert.assertFalse(wasAdded);
+        Assert.assertEquals(1, utxoKeySet.size());
+    }
+
+    @Test
+    public void should_visit_every_key_and_be_empty_after_clear() {
+        // Setup
+        final UtxoKeySet utxoKeySet = new UtxoKeySet(16L);
+        final int itemCount = 1000;
+        for (int i = 0; i < itemCount; ++i) {
+            utxoKeySet.add(_createUtxoKey(i));
+        }
+        final long grownByteCount = utxoKeySet.getByteCount();
+
+        // Action
+        final HashSet<UtxoKey> visitedKeys = new HashSet<UtxoKey>();
+        final UtxoKeySet.Cursor cursor = utxoKeySet.iterate();
+        while (cursor.next()) {
+            visitedKeys.add(cursor.getKey());
+        }
+        utxoKeySet.clear();
+
+        // Assert
+        Assert.assertEquals(itemCount, visitedKeys.size());
+        for (int i = 0; i < itemCount; ++i) {
+            Assert.assertTrue(visitedKeys.contains(_createUtxoKey(i)));
+        }
+        Assert.assertTrue(utxoKeySet.isEmpty());
+        Assert.assertFalse(utxoKeySet.iterate().next());
+        Assert.assertTrue(utxoKeySet.getByteCount() < grownByteCount);
+    }
+}
@@ -0,0 +1,228 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.util.HashUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+public class UtxoMapTests {
+    protected static UtxoKey _createUtxoKey(final int i) {
+        final byte[] transactionHash = HashUtil.sha256(ByteUtil.integerToBytes(i));
+        return new UtxoKey(transactionHash, (i % 3));
+    }
+
+    protected static UtxoValue _createUtxoValue(final int i) {
+        final JvmSpentState spentState = new JvmSpentState();
+        spentState.setIsSpent((i % 2) == 0);
+        spentState.setIsFlushedToDisk((i % 3) == 0);
+        spentState.setIsFlushMandatory((i % 5) == 0);
+        return new UtxoValue(spentState, i);
+    }
+
+    @Test
+    public void should_retrieve_inserted_values_after_growing() {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap(16L);
+        final int itemCount = 10000;
+
+        // Action
+        for (int i = 0; i < itemCount; ++i) {
+            utxoMap.put(_createUtxoKey(i), _createUtxoValue(i));
+        }
+
+        // Assert
+        Assert.assertEquals(itemCount, utxoMap.size());
+        for (int i = 0; i < itemCount; ++i) {
+            final UtxoValue expectedValue = _createUtxoValue(i);
+            final UtxoValue utxoValue = utxoMap.get(_createUtxoKey(i));
+            Assert.assertNotNull(utxoValue);
+            Assert.assertEquals(expectedValue.spentStateCode, utxoValue.spentStateCode);
+            Assert.assertEquals(expectedValue.blockHeight, utxoValue.blockHeight);
+        }
+        Assert.assertNull(utxoMap.get(_createUtxoKey(itemCount)));
+    }
+
+    @Test
+    public void should_preserve_unknown_block_height() {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap();
+        final UtxoKey utxoKey = _createUtxoKey(1);
+
+        // Action
+        utxoMap.put(utxoKey, new UtxoValue(JvmSpentState.FORCE_FLUSH_FLAG, -1L));
+
+        // Assert
+        final UtxoValue utxoValue = utxoMap.get(utxoKey);
+        Assert.assertEquals(-1L, utxoValue.blockHeight);
+        Assert.assertEquals(JvmSpentState.FORCE_FLUSH_FLAG, utxoValue.spentStateCode);
+    }
+
+    @Test
+    public void should_overwrite_existing_value() {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap();
+        final UtxoKey utxoKey = _createUtxoKey(7);
+        utxoMap.put(utxoKey, new UtxoValue(0, 7L));
+
+        // Action
+        utxoMap.put(new UtxoKey(utxoKey.transactionHash.clone(), utxoKey.outputIndex), new UtxoValue(JvmSpentState.IS_SPENT_FLAG, 8L));
+
+        // Assert
+        Assert.assertEquals(1, utxoMap.size());
+        final UtxoValue utxoValue = utxoMap.get(utxoKey);
+        Assert.assertEquals(8L, utxoValue.blockHeight);
+        Assert.assertEquals(JvmSpentState.IS_SPENT_FLAG, utxoValue.spentStateCode);
+    }
+
+    @Test
+    public void should_find_remaining_values_after_removals() {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap(16L);
+        final int itemCount = 5000;
+        for (int i = 0; i < itemCount; ++i) {
+            utxoMap.put(_createUtxoKey(i), _createUtxoValue(i));
+        }
+
+        // Action
+        for (int i = 0; i < itemCount; i += 3) {
+            final UtxoValue removedValue = utxoMap.remove(_createUtxoKey(i));
+            Assert.assertNotNull(removedValue);
+        }
+
+        // Assert
+        for (int i = 0; i < itemCount; ++i) {
+            final UtxoValue utxoValue = utxoMap.get(_createUtxoKey(i));
+            if ((i % 3) == 0) {
+                Assert.assertNull(utxoValue);
+            }
+            else {
+                Assert.assertNotNull(utxoValue);
+                Assert.assertEquals(i, utxoValue.blockHeight);
+            }
+        }
+        Assert.assertEquals((itemCount - ((itemCount + 2) / 3)), utxoMap.size());
+    }
+
+    @Test
+    public void cursor_should_visit_every_entry_exactly_once_while_removing() {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap(16L);
+        final int itemCount = 5000;
+        final HashMap<Long, Integer> expectedBlockHeights = new HashMap<Long, Integer>();
+        for (int i = 0; i < itemCount; ++i) {
+            utxoMap.put(_createUtxoKey(i), _createUtxoValue(i));
+            expectedBlockHeights.put((long) i, i);
+        }
+
+        // Action
+        final HashSet<Long> visitedBlockHeights = new HashSet<Long>();
+        final UtxoMap.Cursor cursor = utxoMap.iterate();
+        while (cursor.next()) {
+            final UtxoValue utxoValue = cursor.getValue();
+            Assert.assertTrue(visitedBlockHeights.add(utxoValue.blockHeight));
+
+            if ((utxoValue.blockHeight % 2L) == 0L) {
+                cursor.remove();
+            }
+            else {
+                cursor.setValue(new UtxoValue(JvmSpentState.IS_FLUSHED_FLAG, utxoValue.blockHeight));
+            }
+        }
+
+        // Assert
+        Assert.assertEquals(expectedBlockHeights.keySet(), visitedBlockHeights);
+        Assert.assertEquals((itemCount / 2), utxoMap.size());
+        for (int i = 0; i < itemCount; ++i) {
+            final UtxoValue utxoValue = utxoMap.get(_createUtxoKey(i));
+            if ((i % 2) == 0) {
+                Assert.assertNull(utxoValue);
+            }
+            else {
+                Assert.assertEquals(JvmSpentState.IS_FLUSHED_FLAG, utxoValue.spentStateCode);
+            }
+        }
+    }
+
+    @Test
+    public void should_retain_coin_across_growth_and_spent_state_updates() {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap(16L);
+        final int itemCount = 1000;
+        for (int i = 0; i < itemCount; ++i) {
+            final byte[] compressedLockingScript = new byte[(i % UtxoMap.MAX_LOCKING_SCRIPT_BYTE_COUNT) + 1];
+            compressedLockingScript[0] = (byte) i;
+            utxoMap.put(_createUtxoKey(i), new UtxoValue(0, i, ((i % 7) == 0), (i * 1000L), compressedLockingScript));
+        }
+
+        // Action
+        final UtxoMap.Cursor cursor = utxoMap.iterate();
+        while (cursor.next()) {
+            cursor.setSpentStateCode(JvmSpentState.IS_FLUSHED_FLAG);
+        }
+
+        // Assert
+        for (int i = 0; i < itemCount; ++i) {
+            final UtxoValue utxoValue = utxoMap.get(_createUtxoKey(i));
+            Assert.assertTrue(utxoValue.hasCoin());
+            Assert.assertEquals(JvmSpentState.IS_FLUSHED_FLAG, utxoValue.spentStateCode);
+            Assert.assertEquals(i, utxoValue.blockHeight);
+            Assert.assertEquals(((i % 7) == 0), utxoValue.isCoinbase);
+            Assert.assertEquals((i * 1000L), utxoValue.amount);
+            Assert.assertEquals(((i % UtxoMap.MAX_LOCKING_SCRIPT_BYTE_COUNT) + 1), utxoValue.compressedLockingScript.length);
+            Assert.assertEquals((byte) i, utxoValue.compressedLockingScript[0]);
+        }
+    }
+
+    @Test
+    public void should_not_retain_coin_with_oversized_locking_script() {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap();
+        final UtxoKey utxoKey = _createUtxoKey(3);
+        final byte[] compressedLockingScript = new byte[UtxoMap.MAX_LOCKING_SCRIPT_BYTE_COUNT + 1];
+
+        // Action
+        utxoMap.put(utxoKey, new UtxoValue(0, 3L, true, 5000L, compressedLockingScript));
+
+        // Assert
+        final UtxoValue utxoValue = utxoMap.get(utxoKey);
+        Assert.assertFalse(utxoValue.hasCoin());
+        Assert.assertFalse(utxoValue.isCoinbase);
+        Assert.assertEquals(3L, utxoValue.blockHeight);
+    }
+
+    @Test
+    public void should_clear_coin_when_overwritten_without_coin() {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap();
+        final UtxoKey utxoKey = _createUtxoKey(5);
+        utxoMap.put(utxoKey, new UtxoValue(0, 5L, false, 5000L, new byte[21]));
+
+        // Action
+        utxoMap.put(utxoKey, new UtxoValue(JvmSpentState.IS_SPENT_FLAG, 5L));
+
+        // Assert
+        final UtxoValue utxoValue = utxoMap.get(utxoKey);
+        Assert.assertFalse(utxoValue.hasCoin());
+        Assert.assertEquals(JvmSpentState.IS_SPENT_FLAG, utxoValue.spentStateCode);
+    }
+
+    @Test
+    public void clear_should_remove_all_entries() {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap(16L);
+        for (int i = 0; i < 1000; ++i) {
+            utxoMap.put(_createUtxoKey(i), _createUtxoValue(i));
+        }
+
+        // Action
+        utxoMap.clear();
+
+        // Assert
+        Assert.assertEquals(0, utxoMap.size());
+        Assert.assertNull(utxoMap.get(_createUtxoKey(1)));
+        Assert.assertEquals((16L * UtxoMap.SLOT_BYTE_COUNT), utxoMap.getByteCount());
+    }
+}
@@ -0,0 +1,197 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot;
+
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.ImmutableLockingScript;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.HexUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+public class UtxoSnapshotTests {
+    protected static final Sha256Hash BLOCK_HASH = Sha256Hash.fromHexString("00000000000000000343E9875012F2062554C8752929892C82A0C0743AC7DCFD");
+    protected static final Long BLOCK_HEIGHT = 635259L;
+
+    protected static final TransactionOutputIdentifier[] TRANSACTION_OUTPUT_IDENTIFIERS = new TransactionOutputIdentifier[] {
+        new TransactionOutputIdentifier(Sha256Hash.fromHexString("0437CD7F8525CEED2324359C2D0BA26006D92D856A9C20FA0241106EE5A597C9"), 0),
+        new TransactionOutputIdentifier(Sha256Hash.fromHexString("0437CD7F8525CEED2324359C2D0BA26006D92D856A9C20FA0241106EE5A597C9"), 2),
+        new TransactionOutputIdentifier(Sha256Hash.fromHexString("A1075DB55D416D3CA199F55B6084E2115B9345E16C5CF302FC80E9D5FBF5D48D"), 1),
+        new TransactionOutputIdentifier(Sha256Hash.fromHexString("F4184FC596403B9D638783CF57ADFE4C75C605F6356FBC91338530E9831E9E16"), 7)
+    };
+
+    protected static UnspentTransactionOutput _createUnspentTransactionOutput(final Integer outputIndex, final Long amount, final String lockingScriptHexString, final Long blockHeight, final Boolean isCoinbase) {
+        final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+        transactionOutput.setIndex(outputIndex);
+        transactionOutput.setAmount(amount);
+        transactionOutput.setLockingScript(new ImmutableLockingScript(MutableByteArray.wrap(HexUtil.hexStringToByteArray(lockingScriptHexString))));
+        return new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, isCoinbase);
+    }
+
+    protected static UnspentTransactionOutput[] _createUnspentTransactionOutputs() {
+        return new UnspentTransactionOutput[] {
+            _createUnspentTransactionOutput(0, 50L * 100000000L, "410411DB93E1DCDB8A016B49840F8C53BC1EB68A382E97B1482ECAD7B148A6909A5CB2E0EADDFB84CCF9744464F82E160BFA9B8B64F9D4C03F999B8643F656B412A3AC", 9L, true),
+            _createUnspentTransactionOutput(2, 12345L, "76A914ADEDB2E16DB029CA2482AC2E0CEFEB887DB37AFF88AC", 170L, false),
+            _createUnspentTransactionOutput(1, 0L, "A914E9C3DD0C07AAC76179EBC76A6C78D4D67C6C160A87", UnspentTransactionOutput.UNKNOWN_BLOCK_HEIGHT, false),
+            _createUnspentTransactionOutput(7, 1L, "76A914ADEDB2E16DB029CA2482AC2E0CEFEB887DB37AFF88AC", 635259L, false)
+        };
+    }
+
+    protected File _file;
+
+    protected Sha256Hash _writeSnapshot(final Integer chunkUtxoCount) throws IOException {
+        final UnspentTransactionOutput[] unspentTransactionOutputs = _createUnspentTransactionOutputs();
+        try (final UtxoSnapshotWriter utxoSnapshotWriter = new UtxoSnapshotWriter(new FileOutputStream(_file), BLOCK_HASH, BLOCK_HEIGHT, chunkUtxoCount)) {
+            for (int i = 0; i < TRANSACTION_OUTPUT_IDENTIFIERS.length; ++i) {
+                utxoSnapshotWriter.append(TRANSACTION_OUTPUT_IDENTIFIERS[i], unspentTransactionOutputs[i]);
+            }
+            return utxoSnapshotWriter.finish();
+        }
+    }
+
+    @Before
+    public void setup() throws Exception {
+        _file = File.createTempFile("utxo", ".snapshot");
+    }
+
+    @After
+    public void tearDown() {
+        _file.delete();
+    }
+
+    @Test
+    public void should_read_written_snapshot() throws Exception {
+        // Setup
+        final Sha256Hash snapshotHash = _writeSnapshot(3);
+        final UnspentTransactionOutput[] expectedTransactionOutputs = _createUnspentTransactionOutputs();
+
+        // Action
+        final java.util.ArrayList<UtxoSnapshotEntry> entries = new java.util.ArrayList<UtxoSnapshotEntry>();
+        final UtxoSnapshotReader utxoSnapshotReader = new UtxoSnapshotReader(_file);
+        try {
+            List<UtxoSnapshotEntry> chunk;
+            while ((chunk = utxoSnapshotReader.readNextChunk()) != null) {
+                for (final UtxoSnapshotEntry entry : chunk) {
+                    entries.add(entry);
+                }
+            }
+        }
+        finally {
+            utxoSnapshotReader.close();
+        }
+
+        // Assert
+        Assert.assertEquals(snapshotHash, utxoSnapshotReader.getSnapshotHash());
+        Assert.assertEquals(BLOCK_HASH, utxoSnapshotReader.getBlockHash());
+        Assert.assertEquals(BLOCK_HEIGHT, utxoSnapshotReader.getBlockHeight());
+        Assert.assertEquals(Long.valueOf(TRANSACTION_OUTPUT_IDENTIFIERS.length), utxoSnapshotReader.getUtxoCount());
+        Assert.assertEquals(Integer.valueOf(2), utxoSnapshotReader.getChunkCount());
+
+        Assert.assertEquals(TRANSACTION_OUTPUT_IDENTIFIERS.length, entries.size());
+        for (int i = 0; i < entries.size(); ++i) {
+            final UtxoSnapshotEntry entry = entries.get(i);
+            final UnspentTransactionOutput expectedTransactionOutput = expectedTransactionOutputs[i];
+            final UnspentTransactionOutput unspentTransactionOutput = entry.unspentTransactionOutput;
+
+            Assert.assertEquals(TRANSACTION_OUTPUT_IDENTIFIERS[i], entry.transactionOutputIdentifier);
+            Assert.assertEquals(expectedTransactionOutput.getIndex(), unspentTransactionOutput.getIndex());
+            Assert.assertEquals(expectedTransactionOutput.getAmount(), unspentTransactionOutput.getAmount());
+            Assert.assertEquals(expectedTransactionOutput.getLockingScript().getBytes(), unspentTransactionOutput.getLockingScript().getBytes());
+            Assert.assertEquals(expectedTransactionOutput.getBlockHeight(), unspentTransactionOutput.getBlockHeight());
+            Assert.assertEquals(expectedTransactionOutput.isCoinbase(), unspentTransactionOutput.isCoinbase());
+        }
+    }
+
+    @Test
+    public void should_produce_deterministic_snapshot_hash() throws Exception {
+        // Setup
+        final Sha256Hash snapshotHash = _writeSnapshot(2);
+
+        // Action
+        final Sha256Hash otherSnapshotHash = _writeSnapshot(2);
+        final Sha256Hash differentlyChunkedSnapshotHash = _writeSnapshot(4);
+
+        // Assert
+        Assert.assertEquals(snapshotHash, otherSnapshotHash);
+        Assert.assertNotEquals(snapshotHash, differentlyChunkedSnapshotHash); // The chunk hashes are committed to, so the chunk size is part of the snapshot's identity.
+    }
+
+    @Test
+    public void should_reject_utxos_appended_out_of_order() throws Exception {
+        // Setup
+        final UnspentTransactionOutput[] unspentTransactionOutputs = _createUnspentTransactionOutputs();
+
+        // Action
+        IOException caughtException = null;
+        try (final UtxoSnapshotWriter utxoSnapshotWriter = new UtxoSnapshotWriter(new FileOutputStream(_file), BLOCK_HASH, BLOCK_HEIGHT)) {
+            utxoSnapshotWriter.append(TRANSACTION_OUTPUT_IDENTIFIERS[2], unspentTransactionOutputs[2]);
+            utxoSnapshotWriter.append(TRANSACTION_OUTPUT_IDENTIFIERS[1], unspentTransactionOutputs[1]);
+        }
+        catch (final IOException exception) {
+            caughtException = exception;
+        }
+
+        // Assert
+        Assert.assertNotNull(caughtException);
+    }
+
+    @Test
+    public void should_detect_corrupted_chunk() throws Exception {
+        // Setup
+        _writeSnapshot(3);
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(_file, "rw")) {
+            final long offset = (UtxoSnapshot.HEADER_BYTE_COUNT + 8L + 40L); // Within the first chunk's entries.
+            randomAccessFile.seek(offset);
+            final int value = randomAccessFile.read();
+            randomAccessFile.seek(offset);
+            randomAccessFile.write(value ^ 0xFF);
+        }
+
+        // Action
+        IOException caughtException = null;
+        try (final UtxoSnapshotReader utxoSnapshotReader = new UtxoSnapshotReader(_file)) {
+            utxoSnapshotReader.readNextChunk();
+        }
+        catch (final IOException exception) {
+            caughtException = exception;
+        }
+
+        // Assert
+        Assert.assertNotNull(caughtException);
+    }
+
+    @Test
+    public void should_detect_corrupted_trailer() throws Exception {
+        // Setup
+        _writeSnapshot(3);
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(_file, "rw")) {
+            final long offset = (randomAccessFile.length() - 8L - Sha256Hash.BYTE_COUNT - 1L); // The last byte of the final chunk hash.
+            randomAccessFile.seek(offset);
+            final int value = randomAccessFile.read();
+            randomAccessFile.seek(offset);
+            randomAccessFile.write(value ^ 0xFF);
+        }
+
+        // Action
+        IOException caughtException = null;
+        try (final UtxoSnapshotReader utxoSnapshotReader = new UtxoSnapshotReader(_file)) {
+            utxoSnapshotReader.getSnapshotHash();
+        }
+        catch (final IOException exception) {
+            caughtException = exception;
+        }
+
+        // Assert
+        Assert.assertNotNull(caughtException);
+    }
+}
@@ -0,0 +1,188 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.snapshot;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.server.database.DatabaseConnection;
+import com.softwareverde.bitcoin.server.database.query.Query;
+import com.softwareverde.bitcoin.server.main.BitcoinVerdeDatabase;
+import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputJvmManager;
+import com.softwareverde.bitcoin.test.BlockData;
+import com.softwareverde.bitcoin.test.IntegrationTest;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScriptCompressor;
+import com.softwareverde.bitcoin.util.Util;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.mysql.MysqlDatabaseConnection;
+import com.softwareverde.database.mysql.MysqlDatabaseConnectionFactory;
+import com.softwareverde.network.time.MutableNetworkTime;
+import com.softwareverde.util.Container;
+import com.softwareverde.util.HexUtil;
+import com.softwareverde.util.ReflectionUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+public class UtxoSnapshotValidatorTests extends IntegrationTest {
+    protected File _file;
+
+    @Override @Before
+    public void before() throws Exception {
+        super.before();
+        _file = File.createTempFile("utxo", ".snapshot");
+    }
+
+    @Override @After
+    public void after() throws Exception {
+        _file.delete();
+        super.after();
+    }
+
+    /**
+     * Reverts the UTXO schema to its v3 layout and then upgrades it to v4 via the DATABASE_UPGRADE_HANDLER.
+     */
+    protected Boolean _upgradeFromV3() throws Exception {
+        final MysqlDatabaseConnectionFactory databaseConnectionFactory = _database.getMysqlDatabaseConnectionFactory();
+        try (final MysqlDatabaseConnection databaseConnection = databaseConnectionFactory.newConnection()) {
+            databaseConnection.executeDdl("DROP TABLE utxo_snapshot_validation_outputs");
+            databaseConnection.executeDdl("ALTER TABLE committed_unspent_transaction_outputs DROP COLUMN is_coinbase, DROP COLUMN amount, DROP COLUMN locking_script");
+
+            return BitcoinVerdeDatabase.DATABASE_UPGRADE_HANDLER.onUpgrade(databaseConnection, 3, 4);
+        }
+    }
+
+    protected void _storeBlocks(final Block... blocks) throws Exception {
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final FullNodeBlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
+            synchronized (BlockHeaderDatabaseManager.MUTEX) {
+                for (final Block block : blocks) {
+                    blockDatabaseManager.storeBlock(block);
+                }
+            }
+        }
+    }
+
+    protected void _setSnapshot(final Sha256Hash snapshotHash, final Block block, final Long blockHeight) throws Exception {
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+            UtxoSnapshotManager.setProperty(databaseConnection, UtxoSnapshotManager.SNAPSHOT_HASH_KEY, snapshotHash.toString());
+            UtxoSnapshotManager.setProperty(databaseConnection, UtxoSnapshotManager.SNAPSHOT_BLOCK_HASH_KEY, block.getHash().toString());
+            UtxoSnapshotManager.setProperty(databaseConnection, UtxoSnapshotManager.SNAPSHOT_BLOCK_HEIGHT_KEY, blockHeight);
+        }
+    }
+
+    /**
+     * Runs the UtxoSnapshotValidator until it has nothing left to validate and returns the recorded validation status.
+     */
+    protected String _validateSnapshot() throws Exception {
+        final UtxoSnapshotValidator utxoSnapshotValidator = new UtxoSnapshotValidator(_fullNodeDatabaseManagerFactory, _masterInflater, _transactionValidatorFactory, new MutableNetworkTime());
+        while (utxoSnapshotValidator._run()) { }
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+            return UtxoSnapshotManager.getProperty(databaseConnection, UtxoSnapshotValidator.SNAPSHOT_VALIDATION_STATUS_KEY);
+        }
+    }
+
+    @Test
+    public void should_validate_snapshot_after_upgrading_from_v3() throws Exception {
+        // Setup
+        Assert.assertTrue(_upgradeFromV3());
+
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block genesisBlock = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.GENESIS_BLOCK));
+        final Block block1 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_1));
+
+        final Sha256Hash expectedSnapshotHash;
+        try (final UtxoSnapshotWriter utxoSnapshotWriter = new UtxoSnapshotWriter(UtxoSnapshotValidator.DISCARDING_OUTPUT_STREAM, block1.getHash(), 1L)) {
+            final Transaction coinbaseTransaction = block1.getCoinbaseTransaction();
+            utxoSnapshotWriter.append(new TransactionOutputIdentifier(coinbaseTransaction.getHash(), 0), new ImmutableUnspentTransactionOutput(coinbaseTransaction.getTransactionOutputs().get(0), 1L, true));
+            expectedSnapshotHash = utxoSnapshotWriter.finish();
+        }
+
+        _storeBlocks(genesisBlock, block1);
+        _setSnapshot(expectedSnapshotHash, block1, 1L);
+
+        // Action
+        final String validationStatus = _validateSnapshot();
+
+        // Assert
+        Assert.assertEquals(UtxoSnapshotValidator.VALID_STATUS, validationStatus);
+    }
+
+    @Test
+    public void should_create_snapshot_matching_replayed_set_when_committed_utxos_lack_their_height_or_coin() throws Exception {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block genesisBlock = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.GENESIS_BLOCK));
+        final Block block1 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_1));
+        final Block block2 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_2));
+        _storeBlocks(genesisBlock, block1, block2);
+
+        final LockingScriptCompressor lockingScriptCompressor = new LockingScriptCompressor();
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+
+            // Block 1's coinbase output was re-added after a reorg, so its block height was committed as unknown (zero)...
+            final Transaction block1CoinbaseTransaction = block1.getCoinbaseTransaction();
+            final TransactionOutput block1CoinbaseOutput = block1CoinbaseTransaction.getTransactionOutputs().get(0);
+            databaseConnection.executeSql(
+                new Query("INSERT INTO committed_unspent_transaction_outputs (transaction_hash, `index`, block_height, is_coinbase, amount, locking_script) VALUES (?, ?, ?, ?, ?, ?)")
+                    .setParameter(block1CoinbaseTransaction.getHash())
+                    .setParameter(0)
+                    .setParameter(0L)
+                    .setParameter(true)
+                    .setParameter(block1CoinbaseOutput.getAmount())
+                    .setParameter(lockingScriptCompressor.compress(block1CoinbaseOutput.getLockingScript()))
+            );
+
+            // Block 2's coinbase output was committed before v4, so it lacks its coin and coinbase flag...
+            final Transaction block2CoinbaseTransaction = block2.getCoinbaseTransaction();
+            databaseConnection.executeSql(
+                new Query("INSERT INTO committed_unspent_transaction_outputs (transaction_hash, `index`, block_height) VALUES (?, ?, ?)")
+                    .setParameter(block2CoinbaseTransaction.getHash())
+                    .setParameter(0)
+                    .setParameter(2L)
+            );
+
+            UtxoSnapshotManager.setProperty(databaseConnection, UtxoSnapshotManager.COMMITTED_UTXO_BLOCK_HEIGHT_KEY, 2L);
+        }
+
+        final Container<Long> uncommittedUtxoBlockHeight = ReflectionUtil.getStaticValue(UnspentTransactionOutputJvmManager.class, "UNCOMMITTED_UTXO_BLOCK_HEIGHT");
+        uncommittedUtxoBlockHeight.value = 2L;
+
+        // Action
+        final Sha256Hash snapshotHash;
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final UtxoSnapshotManager utxoSnapshotManager = new UtxoSnapshotManager(databaseManager, _fullNodeDatabaseManagerFactory);
+            snapshotHash = utxoSnapshotManager.createSnapshot(_file);
+        }
+        _setSnapshot(snapshotHash, block2, 2L);
+        final String validationStatus = _validateSnapshot();
+
+        // Assert
+        final List<UtxoSnapshotEntry> entries;
+        try (final UtxoSnapshotReader utxoSnapshotReader = new UtxoSnapshotReader(_file)) {
+            entries = utxoSnapshotReader.readNextChunk();
+        }
+
+        Assert.assertEquals(2, entries.getCount());
+        for (final UtxoSnapshotEntry entry : entries) {
+            final UnspentTransactionOutput unspentTransactionOutput = entry.unspentTransactionOutput;
+            final boolean isBlock1Coinbase = Util.areEqual(block1.getCoinbaseTransaction().getHash(), entry.transactionOutputIdentifier.getTransactionHash());
+            Assert.assertEquals(Long.valueOf(isBlock1Coinbase ? 1L : 2L), unspentTransactionOutput.getBlockHeight());
+            Assert.assertTrue(unspentTransactionOutput.isCoinbase());
+        }
+        Assert.assertEquals(UtxoSnapshotValidator.VALID_STATUS, validationStatus);
+    }
+}
@@ -0,0 +1,263 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.store;
+
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.JvmSpentState;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoKey;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoMap;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoValue;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.util.HashUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+public class MappedUtxoStoreTests {
+    protected File _directory;
+
+    protected static UtxoKey _createUtxoKey(final int i) {
+        final byte[] transactionHash = HashUtil.sha256(ByteUtil.integerToBytes(i));
+        return new UtxoKey(transactionHash, (i % 3));
+    }
+
+    protected static UtxoValue _createUnspentUtxoValue(final int i) {
+        final JvmSpentState spentState = new JvmSpentState();
+        spentState.setIsFlushMandatory(true);
+        final byte[] compressedLockingScript = ByteUtil.integerToBytes(i);
+        return new UtxoValue(spentState, i, ((i % 2) == 0), (i * 1000L), compressedLockingScript);
+    }
+
+    protected static UtxoValue _createSpentUtxoValue() {
+        final JvmSpentState spentState = new JvmSpentState();
+        spentState.setIsSpent(true);
+        spentState.setIsFlushMandatory(true);
+        return new UtxoValue(spentState, -1L);
+    }
+
+    protected static void _assertCoin(final int i, final UtxoValue utxoValue) {
+        Assert.assertNotNull(utxoValue);
+        Assert.assertTrue(utxoValue.hasCoin());
+        Assert.assertEquals(i, utxoValue.blockHeight);
+        Assert.assertEquals(((i % 2) == 0), utxoValue.isCoinbase);
+        Assert.assertEquals((i * 1000L), utxoValue.amount);
+        Assert.assertArrayEquals(ByteUtil.integerToBytes(i), utxoValue.compressedLockingScript);
+    }
+
+    protected static void _deleteDirectory(final File directory) {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Before
+    public void setup() throws Exception {
+        _directory = Files.createTempDirectory("utxo-store").toFile();
+    }
+
+    @After
+    public void teardown() {
+        _deleteDirectory(_directory);
+    }
+
+    @Test
+    public void should_restore_committed_utxos_after_reopening() throws Exception {
+        // Setup
+        final int itemCount = 1000;
+        final UtxoMap utxoMap = new UtxoMap();
+        for (int i = 0; i < itemCount; ++i) {
+            utxoMap.put(_createUtxoKey(i), _createUnspentUtxoValue(i));
+        }
+
+        final MappedUtxoStore mappedUtxoStore = new MappedUtxoStore(_directory);
+        mappedUtxoStore.commit(utxoMap, 7L);
+        mappedUtxoStore.close();
+
+        // Action
+        final MappedUtxoStore reopenedUtxoStore = new MappedUtxoStore(_directory);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(7L), reopenedUtxoStore.getCommittedBlockHeight());
+        Assert.assertEquals(Long.valueOf(itemCount), reopenedUtxoStore.getUtxoCount());
+        for (int i = 0; i < itemCount; ++i) {
+            _assertCoin(i, reopenedUtxoStore.get(_createUtxoKey(i)));
+        }
+        Assert.assertNull(reopenedUtxoStore.get(_createUtxoKey(itemCount)));
+        reopenedUtxoStore.close();
+    }
+
+    @Test
+    public void should_remove_spent_utxos_and_retain_committed_coins() throws Exception {
+        // Setup
+        final MappedUtxoStore mappedUtxoStore = new MappedUtxoStore(_directory);
+        {
+            final UtxoMap utxoMap = new UtxoMap();
+            utxoMap.put(_createUtxoKey(1), _createUnspentUtxoValue(1));
+            utxoMap.put(_createUtxoKey(2), _createUnspentUtxoValue(2));
+            mappedUtxoStore.commit(utxoMap, 1L);
+        }
+
+        final UtxoMap utxoMap = new UtxoMap();
+        utxoMap.put(_createUtxoKey(1), _createSpentUtxoValue());
+        utxoMap.put(_createUtxoKey(2), new UtxoValue(new JvmSpentState(), 2L)); // Re-inserted without its coin (i.e. via a reorg).
+        utxoMap.put(_createUtxoKey(3), _createSpentUtxoValue()); // Never committed.
+
+        // Action
+        mappedUtxoStore.commit(utxoMap, 2L);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(2L), mappedUtxoStore.getCommittedBlockHeight());
+        Assert.assertEquals(Long.valueOf(1L), mappedUtxoStore.getUtxoCount());
+        Assert.assertNull(mappedUtxoStore.get(_createUtxoKey(1)));
+        _assertCoin(2, mappedUtxoStore.get(_createUtxoKey(2)));
+        Assert.assertNull(mappedUtxoStore.get(_createUtxoKey(3)));
+        mappedUtxoStore.close();
+    }
+
+    @Test
+    public void should_replay_complete_journal_when_reopened() throws Exception {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap();
+        utxoMap.put(_createUtxoKey(1), _createUnspentUtxoValue(1));
+
+        final MappedUtxoStore mappedUtxoStore = new MappedUtxoStore(_directory);
+        mappedUtxoStore._writeJournal(utxoMap, 3L); // Simulates stopping after the journal was written but before it was applied.
+        mappedUtxoStore.close();
+
+        // Action
+        final MappedUtxoStore reopenedUtxoStore = new MappedUtxoStore(_directory);
+
+        // Assert
+        Assert.assertFalse(new File(_directory, MappedUtxoStore.JOURNAL_FILE_NAME).exists());
+        Assert.assertEquals(Long.valueOf(3L), reopenedUtxoStore.getCommittedBlockHeight());
+        _assertCoin(1, reopenedUtxoStore.get(_createUtxoKey(1)));
+        reopenedUtxoStore.close();
+    }
+
+    @Test
+    public void should_discard_incomplete_journal_when_reopened() throws Exception {
+        // Setup
+        final UtxoMap utxoMap = new UtxoMap();
+        utxoMap.put(_createUtxoKey(1), _createUnspentUtxoValue(1));
+
+        final MappedUtxoStore mappedUtxoStore = new MappedUtxoStore(_directory);
+        mappedUtxoStore._writeJournal(utxoMap, 3L);
+        mappedUtxoStore.close();
+
+        final File journalFile = new File(_directory, MappedUtxoStore.JOURNAL_FILE_NAME);
+        final byte[] journalBytes = Files.readAllBytes(journalFile.toPath());
+        Files.write(journalFile.toPath(), ByteUtil.copyBytes(journalBytes, 0, (journalBytes.length - 1))); // Truncate the checksum.
+
+        // Action
+        final MappedUtxoStore reopenedUtxoStore = new MappedUtxoStore(_directory);
+
+        // Assert
+        Assert.assertFalse(journalFile.exists());
+        Assert.assertEquals(Long.valueOf(0L), reopenedUtxoStore.getCommittedBlockHeight());
+        Assert.assertNull(reopenedUtxoStore.get(_createUtxoKey(1)));
+        reopenedUtxoStore.close();
+    }
+
+    @Test
+    public void should_clear_table_when_reopened_after_interrupted_apply_and_restart() throws Exception {
+        // Setup
+        final MappedUtxoStore mappedUtxoStore = new MappedUtxoStore(_directory);
+        {
+            final UtxoMap utxoMap = new UtxoMap();
+            utxoMap.put(_createUtxoKey(1), _createUnspentUtxoValue(1));
+            mappedUtxoStore.commit(utxoMap, 1L);
+        }
+
+        final UtxoMap utxoMap = new UtxoMap();
+        utxoMap.put(_createUtxoKey(2), _createUnspentUtxoValue(2));
+        mappedUtxoStore._writeJournal(utxoMap, 2L);
+        mappedUtxoStore._isApplyingCommit = true; // Simulates stopping while the journal was being applied to the table...
+        mappedUtxoStore._bootId = "previous-boot"; // ...and then restarting the operating system.
+        mappedUtxoStore.close();
+
+        // Action
+        final MappedUtxoStore reopenedUtxoStore = new MappedUtxoStore(_directory);
+
+        // Assert
+        Assert.assertFalse(new File(_directory, MappedUtxoStore.JOURNAL_FILE_NAME).exists());
+        Assert.assertEquals(Long.valueOf(0L), reopenedUtxoStore.getCommittedBlockHeight());
+        Assert.assertEquals(Long.valueOf(0L), reopenedUtxoStore.getUtxoCount());
+        Assert.assertNull(reopenedUtxoStore.get(_createUtxoKey(1)));
+        Assert.assertNull(reopenedUtxoStore.get(_createUtxoKey(2)));
+        reopenedUtxoStore.close();
+
+        final MappedUtxoStore rebuiltUtxoStore = new MappedUtxoStore(_directory); // The cleared table is no longer marked as applying.
+        Assert.assertEquals(Long.valueOf(0L), rebuiltUtxoStore.getCommittedBlockHeight());
+        rebuiltUtxoStore.close();
+    }
+
+    @Test
+    public void should_replay_journal_when_reopened_after_interrupted_apply() throws Exception {
+        Assume.assumeFalse(MappedUtxoStore._readBootId().isEmpty());
+
+        // Setup
+        final MappedUtxoStore mappedUtxoStore = new MappedUtxoStore(_directory);
+        {
+            final UtxoMap utxoMap = new UtxoMap();
+            utxoMap.put(_createUtxoKey(1), _createUnspentUtxoValue(1));
+            utxoMap.put(_createUtxoKey(3), _createUnspentUtxoValue(3));
+            mappedUtxoStore.commit(utxoMap, 1L);
+        }
+
+        final UtxoMap utxoMap = new UtxoMap();
+        utxoMap.put(_createUtxoKey(2), _createUnspentUtxoValue(2));
+        utxoMap.put(_createUtxoKey(3), _createSpentUtxoValue());
+        mappedUtxoStore._writeJournal(utxoMap, 2L);
+        mappedUtxoStore._isApplyingCommit = true;
+        mappedUtxoStore._writeManifest();
+        mappedUtxoStore._table.put(_createUtxoKey(2), _createUnspentUtxoValue(2)); // Simulates the process stopping after part of the journal was applied.
+        mappedUtxoStore.close();
+
+        // Action
+        final MappedUtxoStore reopenedUtxoStore = new MappedUtxoStore(_directory);
+
+        // Assert
+        Assert.assertFalse(new File(_directory, MappedUtxoStore.JOURNAL_FILE_NAME).exists());
+        Assert.assertEquals(Long.valueOf(2L), reopenedUtxoStore.getCommittedBlockHeight());
+        Assert.assertEquals(Long.valueOf(2L), reopenedUtxoStore.getUtxoCount());
+        _assertCoin(1, reopenedUtxoStore.get(_createUtxoKey(1)));
+        _assertCoin(2, reopenedUtxoStore.get(_createUtxoKey(2)));
+        Assert.assertNull(reopenedUtxoStore.get(_createUtxoKey(3)));
+        reopenedUtxoStore.close();
+
+        final MappedUtxoStore restoredUtxoStore = new MappedUtxoStore(_directory); // The replayed table is no longer marked as applying.
+        Assert.assertEquals(Long.valueOf(2L), restoredUtxoStore.getCommittedBlockHeight());
+        Assert.assertEquals(Long.valueOf(2L), restoredUtxoStore.getUtxoCount());
+        restoredUtxoStore.close();
+    }
+
+    @Test
+    public void should_grow_mapped_table_into_new_generation() throws Exception {
+        // Setup
+        final int itemCount = 1000;
+        final MappedUtxoMap mappedUtxoMap = new MappedUtxoMap(_directory, 1L, 0L, 16L, 0L);
+
+        // Action
+        mappedUtxoMap.ensureCapacity(itemCount);
+        for (int i = 0; i < itemCount; ++i) {
+            mappedUtxoMap.put(_createUtxoKey(i), _createUnspentUtxoValue(i));
+        }
+        mappedUtxoMap.force();
+
+        // Assert
+        Assert.assertEquals(1L, mappedUtxoMap.getGeneration());
+        Assert.assertTrue(MappedUtxoMap.getTableFile(_directory, 1L).exists());
+
+        final MappedUtxoMap remappedUtxoMap = new MappedUtxoMap(_directory, 1L, 1L, mappedUtxoMap.getCapacity(), null);
+        Assert.assertEquals(itemCount, remappedUtxoMap.getSize());
+        for (int i = 0; i < itemCount; ++i) {
+            _assertCoin(i, remappedUtxoMap.get(_createUtxoKey(i)));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.pending.orphan;
+
+import com.softwareverde.bitcoin.test.util.TransactionTestUtil;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.test.time.FakeSystemTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OrphanPoolTests {
+    protected static List<TransactionOutputIdentifier> _wrap(final TransactionOutputIdentifier... transactionOutputIdentifiers) {
+        final MutableList<TransactionOutputIdentifier> list = new MutableList<TransactionOutputIdentifier>(transactionOutputIdentifiers.length);
+        for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+            list.add(transactionOutputIdentifier);
+        }
+        return list;
+    }
+
+    protected static List<Transaction> _wrap(final Transaction transaction) {
+        final MutableList<Transaction> list = new MutableList<Transaction>(1);
+        list.add(transaction);
+        return list;
+    }
+
+    @Test
+    public void should_release_orphan_only_once_all_missing_outputs_arrive() {
+        // Setup
+        final Transaction parentTransaction0 = TransactionTestUtil.createUnsignedTransaction(_wrap(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0)), 1, 1000L);
+        final Transaction parentTransaction1 = TransactionTestUtil.createUnsignedTransaction(_wrap(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 1)), 1, 1000L);
+        final Transaction unrelatedTransaction = TransactionTestUtil.createUnsignedTransaction(_wrap(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 2)), 1, 1000L);
+
+        final List<TransactionOutputIdentifier> missingOutputs = _wrap(new TransactionOutputIdentifier(parentTransaction0.getHash(), 0), new TransactionOutputIdentifier(parentTransaction1.getHash(), 0));
+        final Transaction orphanTransaction = TransactionTestUtil.createUnsignedTransaction(missingOutputs, 1, 1000L);
+
+        final OrphanPool orphanPool = new OrphanPool();
+        Assert.assertTrue(orphanPool.addOrphan(orphanTransaction, missingOutputs));
+        Assert.assertFalse(orphanPool.addOrphan(orphanTransaction, missingOutputs));
+
+        // Action
+        final List<Transaction> releasedByUnrelatedTransaction = orphanPool.releaseOrphans(_wrap(unrelatedTransaction));
+        final List<Transaction> releasedByFirstParent = orphanPool.releaseOrphans(_wrap(parentTransaction0));
+        final List<Transaction> releasedBySecondParent = orphanPool.releaseOrphans(_wrap(parentTransaction1));
+
+        // Assert
+        Assert.assertTrue(releasedByUnrelatedTransaction.isEmpty());
+        Assert.assertTrue(releasedByFirstParent.isEmpty());
+        Assert.assertEquals(1, releasedBySecondParent.getCount());
+        Assert.assertEquals(orphanTransaction.getHash(), releasedBySecondParent.get(0).getHash());
+
+        Assert.assertFalse(orphanPool.containsOrphan(orphanTransaction.getHash()));
+        Assert.assertEquals(Integer.valueOf(0), orphanPool.getOrphanCount());
+        Assert.assertEquals(Long.valueOf(0L), orphanPool.getByteCount());
+        Assert.assertTrue(orphanPool.getMissingTransactionHashes().isEmpty());
+    }
+
+    @Test
+    public void should_evict_oldest_orphans_when_full() {
+        // Setup
+        final FakeSystemTime systemTime = new FakeSystemTime();
+        final OrphanPool orphanPool = new OrphanPool(2, OrphanPool.DEFAULT_MAX_BYTE_COUNT, OrphanPool.DEFAULT_MAX_ORPHAN_AGE_IN_SECONDS, systemTime);
+
+        final MutableList<Transaction> orphanTransactions = new MutableList<Transaction>();
+        for (int i = 0; i < 3; ++i) {
+            final List<TransactionOutputIdentifier> missingOutputs = _wrap(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, i));
+            orphanTransactions.add(TransactionTestUtil.createUnsignedTransaction(missingOutputs, 1, 1000L));
+        }
+
+        // Action
+        for (int i = 0; i < orphanTransactions.getCount(); ++i) {
+            final Transaction orphanTransaction = orphanTransactions.get(i);
+            orphanPool.addOrphan(orphanTransaction, _wrap(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, i)));
+        }
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(2), orphanPool.getOrphanCount());
+        Assert.assertFalse(orphanPool.containsOrphan(orphanTransactions.get(0).getHash()));
+        Assert.assertTrue(orphanPool.containsOrphan(orphanTransactions.get(1).getHash()));
+        Assert.assertTrue(orphanPool.containsOrphan(orphanTransactions.get(2).getHash()));
+    }
+
+    @Test
+    public void should_purge_expired_orphans() {
+        // Setup
+        final FakeSystemTime systemTime = new FakeSystemTime();
+        final OrphanPool orphanPool = new OrphanPool(OrphanPool.DEFAULT_MAX_ORPHAN_COUNT, OrphanPool.DEFAULT_MAX_BYTE_COUNT, 60L, systemTime);
+
+        final List<TransactionOutputIdentifier> missingOutputs0 = _wrap(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0));
+        final List<TransactionOutputIdentifier> missingOutputs1 = _wrap(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 1));
+        final Transaction orphanTransaction0 = TransactionTestUtil.createUnsignedTransaction(missingOutputs0, 1, 1000L);
+        final Transaction orphanTransaction1 = TransactionTestUtil.createUnsignedTransaction(missingOutputs1, 1, 1000L);
+
+        orphanPool.addOrphan(orphanTransaction0, missingOutputs0);
+        systemTime.advanceTimeInMilliseconds(45000L);
+        orphanPool.addOrphan(orphanTransaction1, missingOutputs1);
+        systemTime.advanceTimeInMilliseconds(30000L);
+
+        // Action
+        final Integer purgedOrphanCount = orphanPool.purgeExpiredOrphans();
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(1), purgedOrphanCount);
+        Assert.assertFalse(orphanPool.containsOrphan(orphanTransaction0.getHash()));
+        Assert.assertTrue(orphanPool.containsOrphan(orphanTransaction1.getHash()));
+        Assert.assertEquals(Long.valueOf(orphanTransaction1.getByteCount()), orphanPool.getByteCount());
+    }
+}
@@ -0,0 +1,117 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.mutable.MutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class BlockCompressorTests {
+    protected static class InMemoryReader implements BlockCompressor.Reader {
+        protected final byte[] _bytes;
+        public int readCount = 0;
+
+        public InMemoryReader(final ByteArray byteArray) {
+            _bytes = byteArray.getBytes();
+        }
+
+        @Override
+        public byte[] read(final Long diskOffset, final Integer byteCount) {
+            if ((diskOffset + byteCount) > _bytes.length) { return null; }
+
+            this.readCount += 1;
+            final byte[] bytes = new byte[byteCount];
+            System.arraycopy(_bytes, diskOffset.intValue(), bytes, 0, byteCount);
+            return bytes;
+        }
+    }
+
+    protected static byte[] _createBlockBytes(final int byteCount) {
+        // Partially random bytes, so that the data is compressible but not trivially so...
+        final Random random = new Random(1234L);
+        final byte[] bytes = new byte[byteCount];
+        for (int i = 0; i < byteCount; ++i) {
+            bytes[i] = ((i % 4 == 0) ? (byte) random.nextInt() : (byte) (i / 1024));
+        }
+        return bytes;
+    }
+
+    protected static MutableList<Long> _createTransactionOffsets(final int blockByteCount, final int transactionByteCount) {
+        final MutableList<Long> transactionOffsets = new MutableList<Long>();
+        for (long offset = 81L; offset < blockByteCount; offset += transactionByteCount) {
+            transactionOffsets.add(offset);
+        }
+        return transactionOffsets;
+    }
+
+    @Test
+    public void should_decompress_entire_block() {
+        // Setup
+        final byte[] blockBytes = _createBlockBytes(500000);
+        final BlockCompressor blockCompressor = new BlockCompressor();
+        final ByteArray compressedBytes = blockCompressor.compress(MutableByteArray.wrap(blockBytes), _createTransactionOffsets(blockBytes.length, 250));
+
+        // Action
+        final ByteArray decompressedBytes = blockCompressor.decompress(new InMemoryReader(compressedBytes));
+
+        // Assert
+        Assert.assertTrue(compressedBytes.getByteCount() < blockBytes.length);
+        Assert.assertArrayEquals(blockBytes, decompressedBytes.getBytes());
+    }
+
+    @Test
+    public void should_read_ranges_spanning_chunk_boundaries() {
+        // Setup
+        final byte[] blockBytes = _createBlockBytes(300000);
+        final BlockCompressor blockCompressor = new BlockCompressor();
+        final ByteArray compressedBytes = blockCompressor.compress(MutableByteArray.wrap(blockBytes), _createTransactionOffsets(blockBytes.length, 1000));
+
+        final long[] diskOffsets = new long[] { 0L, 80L, 65000L, 65536L, 131000L, 299000L };
+        final int[] byteCounts = new int[] { 80, 1000, 2000, 70000, 1, 1000 };
+
+        for (int i = 0; i < diskOffsets.length; ++i) {
+            final long diskOffset = diskOffsets[i];
+            final int byteCount = byteCounts[i];
+
+            // Action
+            final ByteArray bytes = blockCompressor.read(new InMemoryReader(compressedBytes), diskOffset, byteCount);
+
+            // Assert
+            final byte[] expectedBytes = new byte[byteCount];
+            System.arraycopy(blockBytes, (int) diskOffset, expectedBytes, 0, byteCount);
+            Assert.assertArrayEquals(expectedBytes, bytes.getBytes());
+        }
+    }
+
+    @Test
+    public void should_only_read_covering_chunk_for_small_range() {
+        // Setup
+        final byte[] blockBytes = _createBlockBytes(1000000);
+        final BlockCompressor blockCompressor = new BlockCompressor();
+        final ByteArray compressedBytes = blockCompressor.compress(MutableByteArray.wrap(blockBytes), _createTransactionOffsets(blockBytes.length, 500));
+        final InMemoryReader reader = new InMemoryReader(compressedBytes);
+
+        // Action
+        final ByteArray bytes = blockCompressor.read(reader, 700081L, 500);
+
+        // Assert
+        Assert.assertNotNull(bytes);
+        Assert.assertEquals(3, reader.readCount); // Chunk count, chunk table, and the single covering chunk...
+    }
+
+    @Test
+    public void should_return_null_when_reading_past_end_of_block() {
+        // Setup
+        final byte[] blockBytes = _createBlockBytes(1000);
+        final BlockCompressor blockCompressor = new BlockCompressor();
+        final ByteArray compressedBytes = blockCompressor.compress(MutableByteArray.wrap(blockBytes), _createTransactionOffsets(blockBytes.length, 100));
+
+        // Action
+        final ByteArray bytes = blockCompressor.read(new InMemoryReader(compressedBytes), 900L, 101);
+
+        // Assert
+        Assert.assertNull(bytes);
+    }
+}
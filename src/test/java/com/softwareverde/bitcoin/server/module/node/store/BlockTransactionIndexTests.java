@@ -0,0 +1,83 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockDeflater;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionDeflater;
+import com.softwareverde.bitcoin.util.IoUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class BlockTransactionIndexTests {
+    protected static Block _loadBlock() {
+        final BlockInflater blockInflater = new BlockInflater();
+        return blockInflater.fromBytes(ByteArray.fromHexString(IoUtil.getResource("/blocks/000000000000000003C6A342B3922672851C5EF677D90BDB8CF245817A536048")));
+    }
+
+    @Test
+    public void should_locate_each_transaction_within_the_serialized_block() {
+        // Setup
+        final Block block = _loadBlock();
+        final BlockDeflater blockDeflater = new BlockDeflater();
+        final TransactionDeflater transactionDeflater = new TransactionDeflater();
+        final ByteArray blockBytes = blockDeflater.toBytes(block);
+
+        // Action
+        final BlockTransactionIndex blockTransactionIndex = BlockTransactionIndex.wrap(ByteBuffer.wrap(BlockTransactionIndex.fromBlock(block, blockDeflater).getBytes().getBytes()));
+
+        // Assert
+        final List<Transaction> transactions = block.getTransactions();
+        Assert.assertNotNull(blockTransactionIndex);
+        Assert.assertEquals(Integer.valueOf(transactions.getCount()), blockTransactionIndex.getTransactionCount());
+
+        int transactionIndex = 0;
+        for (final Transaction transaction : transactions) {
+            final Long diskOffset = blockTransactionIndex.getDiskOffset(transactionIndex);
+            final Integer byteCount = blockTransactionIndex.getByteCount(transactionIndex);
+
+            Assert.assertEquals(transaction.getHash(), blockTransactionIndex.getTransactionHash(transactionIndex));
+            Assert.assertEquals(Integer.valueOf(transactionIndex), blockTransactionIndex.indexOf(transaction.getHash()));
+            Assert.assertEquals(transactionDeflater.toBytes(transaction), ByteArray.wrap(blockBytes.getBytes(diskOffset.intValue(), byteCount)));
+            transactionIndex += 1;
+        }
+
+        Assert.assertNull(blockTransactionIndex.indexOf(block.getHash()));
+    }
+
+    @Test
+    public void should_build_the_same_merkle_proof_as_the_block() {
+        // Setup
+        final Block block = _loadBlock();
+        final BlockTransactionIndex blockTransactionIndex = BlockTransactionIndex.fromBlock(block, new BlockDeflater());
+        final int transactionIndex = (block.getTransactionCount() - 1);
+
+        // Action
+        final List<Sha256Hash> partialMerkleTree = blockTransactionIndex.getPartialMerkleTree(transactionIndex);
+
+        // Assert
+        final List<Sha256Hash> expectedPartialMerkleTree = block.getPartialMerkleTree(transactionIndex);
+        Assert.assertEquals(expectedPartialMerkleTree.getCount(), partialMerkleTree.getCount());
+        for (int i = 0; i < expectedPartialMerkleTree.getCount(); ++i) {
+            Assert.assertEquals(expectedPartialMerkleTree.get(i), partialMerkleTree.get(i));
+        }
+    }
+
+    @Test
+    public void should_not_wrap_truncated_index() {
+        // Setup
+        final Block block = _loadBlock();
+        final byte[] bytes = BlockTransactionIndex.fromBlock(block, new BlockDeflater()).getBytes().getBytes();
+
+        // Action
+        final BlockTransactionIndex blockTransactionIndex = BlockTransactionIndex.wrap(ByteBuffer.wrap(bytes, 0, (bytes.length - 1)));
+
+        // Assert
+        Assert.assertNull(blockTransactionIndex);
+    }
+}
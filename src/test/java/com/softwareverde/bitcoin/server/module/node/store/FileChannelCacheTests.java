@@ -0,0 +1,88 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class FileChannelCacheTests {
+    protected static String _createFile(final byte[] bytes) throws IOException {
+        final File file = File.createTempFile("block", ".dat");
+        file.deleteOnExit();
+
+        try (final FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+            fileOutputStream.write(bytes);
+        }
+
+        return file.getAbsolutePath();
+    }
+
+    @Test
+    public void should_read_byte_range_from_file() throws Exception {
+        // Setup
+        final byte[] fileBytes = new byte[1024];
+        for (int i = 0; i < fileBytes.length; ++i) {
+            fileBytes[i] = (byte) i;
+        }
+        final String filePath = _createFile(fileBytes);
+
+        final FileChannelCache fileChannelCache = new FileChannelCache(4);
+
+        // Action
+        final byte[] bytes = fileChannelCache.read(filePath, 250L, 10);
+
+        // Assert
+        Assert.assertNotNull(bytes);
+        Assert.assertEquals(10, bytes.length);
+        for (int i = 0; i < bytes.length; ++i) {
+            Assert.assertEquals((byte) (250 + i), bytes[i]);
+        }
+
+        fileChannelCache.close();
+    }
+
+    @Test
+    public void should_return_null_when_reading_past_end_of_file() throws Exception {
+        // Setup
+        final String filePath = _createFile(new byte[32]);
+        final FileChannelCache fileChannelCache = new FileChannelCache(4);
+
+        // Action
+        final byte[] bytes = fileChannelCache.read(filePath, 16L, 32);
+
+        // Assert
+        Assert.assertNull(bytes);
+
+        fileChannelCache.close();
+    }
+
+    @Test
+    public void should_evict_least_recently_used_file_channels() throws Exception {
+        // Setup
+        final int maxOpenFileCount = 2;
+        final FileChannelCache fileChannelCache = new FileChannelCache(maxOpenFileCount);
+
+        final String[] filePaths = new String[5];
+        for (int i = 0; i < filePaths.length; ++i) {
+            filePaths[i] = _createFile(new byte[] { (byte) i });
+        }
+
+        // Action
+        for (int i = 0; i < filePaths.length; ++i) {
+            final byte[] bytes = fileChannelCache.read(filePaths[i], 0L, 1);
+            Assert.assertEquals((byte) i, bytes[0]);
+        }
+
+        // Assert
+        Assert.assertEquals(maxOpenFileCount, fileChannelCache.getOpenFileCount().intValue());
+
+        // Evicted files are transparently reopened...
+        final byte[] bytes = fileChannelCache.read(filePaths[0], 0L, 1);
+        Assert.assertEquals((byte) 0, bytes[0]);
+
+        fileChannelCache.close();
+        Assert.assertEquals(0, fileChannelCache.getOpenFileCount().intValue());
+    }
+}
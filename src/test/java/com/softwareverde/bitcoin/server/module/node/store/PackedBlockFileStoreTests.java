@@ -0,0 +1,174 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+public class PackedBlockFileStoreTests {
+    protected File _directory;
+
+    protected static Sha256Hash _createBlockHash(final int value) {
+        final byte[] bytes = new byte[Sha256Hash.BYTE_COUNT];
+        bytes[Sha256Hash.BYTE_COUNT - 1] = (byte) value;
+        return Sha256Hash.wrap(bytes);
+    }
+
+    protected static MutableByteArray _createBlockBytes(final int byteCount, final int value) {
+        final byte[] bytes = new byte[byteCount];
+        for (int i = 0; i < byteCount; ++i) {
+            bytes[i] = (byte) (value + i);
+        }
+        return MutableByteArray.wrap(bytes);
+    }
+
+    protected static void _deleteDirectory(final File directory) {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Before
+    public void setup() throws Exception {
+        _directory = Files.createTempDirectory("packed-blocks").toFile();
+    }
+
+    @After
+    public void teardown() {
+        _deleteDirectory(_directory);
+    }
+
+    @Test
+    public void should_append_blocks_and_restore_their_locations_after_reopening() throws Exception {
+        // Setup
+        final PackedBlockFileStore packedBlockFileStore = new PackedBlockFileStore(_directory.getAbsolutePath(), 1024L);
+        packedBlockFileStore.open();
+
+        final Sha256Hash blockHash0 = _createBlockHash(0);
+        final Sha256Hash blockHash1 = _createBlockHash(1);
+        final Sha256Hash blockHash2 = _createBlockHash(2);
+
+        // Action
+        final PackedBlockFileStore.BlockLocation blockLocation0 = packedBlockFileStore.storeBlock(blockHash0, _createBlockBytes(600, 0));
+        final PackedBlockFileStore.BlockLocation blockLocation1 = packedBlockFileStore.storeBlock(blockHash1, _createBlockBytes(300, 1));
+        final PackedBlockFileStore.BlockLocation blockLocation2 = packedBlockFileStore.storeBlock(blockHash2, _createBlockBytes(300, 2)); // Exceeds the max pack file size...
+        packedBlockFileStore.close();
+
+        final PackedBlockFileStore reopenedPackedBlockFileStore = new PackedBlockFileStore(_directory.getAbsolutePath(), 1024L);
+        reopenedPackedBlockFileStore.open();
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(0), blockLocation0.packFileIndex);
+        Assert.assertEquals(Long.valueOf(0L), blockLocation0.diskOffset);
+        Assert.assertEquals(Integer.valueOf(0), blockLocation1.packFileIndex);
+        Assert.assertEquals(Long.valueOf(600L), blockLocation1.diskOffset);
+        Assert.assertEquals(Integer.valueOf(1), blockLocation2.packFileIndex);
+        Assert.assertEquals(Long.valueOf(0L), blockLocation2.diskOffset);
+
+        Assert.assertEquals(Integer.valueOf(3), reopenedPackedBlockFileStore.getBlockCount());
+        final PackedBlockFileStore.BlockLocation restoredBlockLocation1 = reopenedPackedBlockFileStore.getBlockLocation(blockHash1);
+        Assert.assertEquals(blockLocation1.packFileIndex, restoredBlockLocation1.packFileIndex);
+        Assert.assertEquals(blockLocation1.diskOffset, restoredBlockLocation1.diskOffset);
+        Assert.assertEquals(blockLocation1.byteCount, restoredBlockLocation1.byteCount);
+
+        final FileChannelCache fileChannelCache = new FileChannelCache(4);
+        final byte[] bytes = fileChannelCache.read(reopenedPackedBlockFileStore.getPackFilePath(restoredBlockLocation1.packFileIndex), restoredBlockLocation1.diskOffset, restoredBlockLocation1.byteCount);
+        Assert.assertArrayEquals(_createBlockBytes(300, 1).getBytes(), bytes);
+
+        fileChannelCache.close();
+        reopenedPackedBlockFileStore.close();
+    }
+
+    @Test
+    public void should_not_restore_removed_blocks() throws Exception {
+        // Setup
+        final PackedBlockFileStore packedBlockFileStore = new PackedBlockFileStore(_directory.getAbsolutePath());
+        packedBlockFileStore.open();
+
+        final Sha256Hash blockHash0 = _createBlockHash(0);
+        final Sha256Hash blockHash1 = _createBlockHash(1);
+        packedBlockFileStore.storeBlock(blockHash0, _createBlockBytes(100, 0));
+        packedBlockFileStore.storeBlock(blockHash1, _createBlockBytes(100, 1));
+
+        // Action
+        packedBlockFileStore.removeBlock(blockHash0);
+        packedBlockFileStore.close();
+
+        final PackedBlockFileStore reopenedPackedBlockFileStore = new PackedBlockFileStore(_directory.getAbsolutePath());
+        reopenedPackedBlockFileStore.open();
+
+        // Assert
+        Assert.assertNull(packedBlockFileStore.getBlockLocation(blockHash0));
+        Assert.assertNull(reopenedPackedBlockFileStore.getBlockLocation(blockHash0));
+        Assert.assertNotNull(reopenedPackedBlockFileStore.getBlockLocation(blockHash1));
+
+        reopenedPackedBlockFileStore.close();
+    }
+
+    @Test
+    public void should_discard_index_records_of_truncated_pack_data() throws Exception {
+        // Setup
+        final PackedBlockFileStore packedBlockFileStore = new PackedBlockFileStore(_directory.getAbsolutePath());
+        packedBlockFileStore.open();
+
+        final Sha256Hash blockHash0 = _createBlockHash(0);
+        final Sha256Hash blockHash1 = _createBlockHash(1);
+        packedBlockFileStore.storeBlock(blockHash0, _createBlockBytes(100, 0));
+        packedBlockFileStore.storeBlock(blockHash1, _createBlockBytes(100, 1));
+        final String packFilePath = packedBlockFileStore.getPackFilePath(0);
+        packedBlockFileStore.close();
+
+        // Simulate a crash before the second block's data was synced...
+        try (final RandomAccessFile packFile = new RandomAccessFile(packFilePath, "rw")) {
+            packFile.setLength(150L);
+        }
+
+        // Action
+        final PackedBlockFileStore reopenedPackedBlockFileStore = new PackedBlockFileStore(_directory.getAbsolutePath());
+        reopenedPackedBlockFileStore.open();
+
+        // Assert
+        Assert.assertNotNull(reopenedPackedBlockFileStore.getBlockLocation(blockHash0));
+        Assert.assertNull(reopenedPackedBlockFileStore.getBlockLocation(blockHash1));
+
+        final PackedBlockFileStore.BlockLocation blockLocation = reopenedPackedBlockFileStore.storeBlock(blockHash1, _createBlockBytes(100, 1));
+        Assert.assertEquals(Long.valueOf(150L), blockLocation.diskOffset);
+
+        reopenedPackedBlockFileStore.close();
+    }
+
+    @Test
+    public void should_store_block_at_its_recorded_offset_after_a_partial_write() throws Exception {
+        // Setup
+        final PackedBlockFileStore packedBlockFileStore = new PackedBlockFileStore(_directory.getAbsolutePath());
+        packedBlockFileStore.open();
+
+        final Sha256Hash blockHash0 = _createBlockHash(0);
+        final Sha256Hash blockHash1 = _createBlockHash(1);
+        packedBlockFileStore.storeBlock(blockHash0, _createBlockBytes(100, 0));
+        packedBlockFileStore._packFile.write(ByteBuffer.wrap(new byte[37]), 100L); // Simulates the partially written bytes of a failed write that were not truncated...
+
+        // Action
+        final PackedBlockFileStore.BlockLocation blockLocation = packedBlockFileStore.storeBlock(blockHash1, _createBlockBytes(100, 1));
+        packedBlockFileStore.close();
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(100L), blockLocation.diskOffset);
+
+        final FileChannelCache fileChannelCache = new FileChannelCache(4);
+        final byte[] bytes = fileChannelCache.read(packedBlockFileStore.getPackFilePath(blockLocation.packFileIndex), blockLocation.diskOffset, blockLocation.byteCount);
+        Assert.assertArrayEquals(_createBlockBytes(100, 1).getBytes(), bytes);
+        fileChannelCache.close();
+    }
+}
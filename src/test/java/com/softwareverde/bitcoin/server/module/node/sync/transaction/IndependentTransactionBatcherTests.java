@@ -0,0 +1,86 @@
+package com.softwareverde.bitcoin.server.module.node.sync.transaction;
+
+import com.softwareverde.bitcoin.test.util.TransactionTestUtil;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndependentTransactionBatcherTests {
+    @Test
+    public void should_batch_unrelated_transactions_together() {
+        // Setup
+        final MutableList<Transaction> transactions = new MutableList<Transaction>();
+        for (int i = 0; i < 4; ++i) {
+            transactions.add(TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, i), 1000L));
+        }
+
+        // Action
+        final List<List<Transaction>> batches = IndependentTransactionBatcher.batchIndependentTransactions(transactions);
+
+        // Assert
+        Assert.assertEquals(1, batches.getCount());
+        Assert.assertEquals(4, batches.get(0).getCount());
+    }
+
+    @Test
+    public void should_place_children_after_their_parents_regardless_of_order() {
+        // Setup
+        final Transaction parentTransaction = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0), 1000L);
+        final Transaction childTransaction = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(parentTransaction.getHash(), 0), 900L);
+        final Transaction grandchildTransaction = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(childTransaction.getHash(), 0), 800L);
+        final Transaction unrelatedTransaction = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 1), 1000L);
+
+        final MutableList<Transaction> transactions = new MutableList<Transaction>();
+        transactions.add(grandchildTransaction);
+        transactions.add(childTransaction);
+        transactions.add(unrelatedTransaction);
+        transactions.add(parentTransaction);
+
+        // Action
+        final List<List<Transaction>> batches = IndependentTransactionBatcher.batchIndependentTransactions(transactions);
+
+        // Assert
+        Assert.assertEquals(3, batches.getCount());
+
+        Assert.assertEquals(2, batches.get(0).getCount());
+        Assert.assertEquals(unrelatedTransaction.getHash(), batches.get(0).get(0).getHash());
+        Assert.assertEquals(parentTransaction.getHash(), batches.get(0).get(1).getHash());
+
+        Assert.assertEquals(1, batches.get(1).getCount());
+        Assert.assertEquals(childTransaction.getHash(), batches.get(1).get(0).getHash());
+
+        Assert.assertEquals(1, batches.get(2).getCount());
+        Assert.assertEquals(grandchildTransaction.getHash(), batches.get(2).get(0).getHash());
+    }
+
+    @Test
+    public void should_serialize_transactions_spending_the_same_output() {
+        // Setup
+        final TransactionOutputIdentifier sharedOutput = new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 0);
+        final Transaction transaction0 = TransactionTestUtil.createUnsignedTransaction(sharedOutput, 1000L);
+        final Transaction transaction1 = TransactionTestUtil.createUnsignedTransaction(sharedOutput, 900L);
+        final Transaction transaction2 = TransactionTestUtil.createUnsignedTransaction(new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, 1), 1000L);
+
+        final MutableList<Transaction> transactions = new MutableList<Transaction>();
+        transactions.add(transaction0);
+        transactions.add(transaction1);
+        transactions.add(transaction2);
+
+        // Action
+        final List<List<Transaction>> batches = IndependentTransactionBatcher.batchIndependentTransactions(transactions);
+
+        // Assert
+        Assert.assertEquals(2, batches.getCount());
+
+        Assert.assertEquals(2, batches.get(0).getCount());
+        Assert.assertEquals(transaction0.getHash(), batches.get(0).get(0).getHash());
+        Assert.assertEquals(transaction2.getHash(), batches.get(0).get(1).getHash());
+
+        Assert.assertEquals(1, batches.get(1).getCount());
+        Assert.assertEquals(transaction1.getHash(), batches.get(1).get(0).getHash());
+    }
+}
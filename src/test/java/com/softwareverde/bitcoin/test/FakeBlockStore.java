@@ -6,6 +6,7 @@ import com.softwareverde.bitcoin.block.BlockDeflater;
 import com.softwareverde.bitcoin.block.MutableBlock;
 import com.softwareverde.bitcoin.block.header.MutableBlockHeader;
 import com.softwareverde.bitcoin.inflater.BlockInflaters;
+import com.softwareverde.bitcoin.server.module.node.store.BlockTransactionIndex;
 import com.softwareverde.bitcoin.server.module.node.store.PendingBlockStore;
 import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
@@ -17,6 +18,7 @@ public class FakeBlockStore implements PendingBlockStore {
 
     protected final HashMap<Sha256Hash, Block> _pendingBlocks = new HashMap<Sha256Hash, Block>();
     protected final HashMap<Sha256Hash, Block> _blocks = new HashMap<Sha256Hash, Block>();
+    protected final HashMap<Sha256Hash, ByteArray> _blockUndoData = new HashMap<Sha256Hash, ByteArray>();
 
     public FakeBlockStore() { }
 
@@ -54,6 +56,7 @@ public class FakeBlockStore implements PendingBlockStore {
     @Override
     public void removeBlock(final Sha256Hash blockHash, final Long blockHeight) {
         _blocks.remove(blockHash);
+        _blockUndoData.remove(blockHash);
     }
 
     @Override
@@ -72,6 +75,15 @@ public class FakeBlockStore implements PendingBlockStore {
         return new MutableBlock(block);
     }
 
+    @Override
+    public ByteArray readRawBlock(final Sha256Hash blockHash, final Long blockHeight) {
+        final Block block = _blocks.get(blockHash);
+        if (block == null) { return null; }
+
+        final BlockDeflater blockDeflater = _blockInflaters.getBlockDeflater();
+        return blockDeflater.toBytes(block);
+    }
+
     @Override
     public ByteArray readFromBlock(final Sha256Hash blockHash, final Long blockHeight, final Long diskOffset, final Integer byteCount) {
         final Block block = _blocks.get(blockHash);
@@ -82,8 +94,28 @@ public class FakeBlockStore implements PendingBlockStore {
         return ByteArray.wrap(byteArray.getBytes(diskOffset.intValue(), byteCount));
     }
 
+    @Override
+    public Boolean storeBlockUndoData(final Sha256Hash blockHash, final Long blockHeight, final ByteArray undoData) {
+        _blockUndoData.put(blockHash, undoData);
+        return true;
+    }
+
+    @Override
+    public ByteArray getBlockUndoData(final Sha256Hash blockHash, final Long blockHeight) {
+        return _blockUndoData.get(blockHash);
+    }
+
+    @Override
+    public BlockTransactionIndex getBlockTransactionIndex(final Sha256Hash blockHash, final Long blockHeight) {
+        final Block block = _blocks.get(blockHash);
+        if (block == null) { return null; }
+
+        return BlockTransactionIndex.fromBlock(block, _blockInflaters.getBlockDeflater());
+    }
+
     public void clear() {
         _pendingBlocks.clear();
         _blocks.clear();
+        _blockUndoData.clear();
     }
 }
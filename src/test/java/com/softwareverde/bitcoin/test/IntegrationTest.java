@@ -18,6 +18,8 @@ import com.softwareverde.bitcoin.server.database.ReadUncommittedDatabaseConnecti
 import com.softwareverde.bitcoin.server.database.pool.DatabaseConnectionPool;
 import com.softwareverde.bitcoin.server.database.query.Query;
 import com.softwareverde.bitcoin.server.main.BitcoinVerdeDatabase;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.fullnode.BlockIndex;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.fullnode.FullNodeBlockHeaderDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.database.spv.SpvDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputJvmManager;
@@ -166,6 +168,10 @@ public class IntegrationTest extends UnitTest {
                 UnspentTransactionOutputJvmManager.DOUBLE_BUFFER.clear();
             }
         };
+
+        // Clear the static BlockIndex.
+        final BlockIndex blockIndex = ReflectionUtil.getStaticValue(FullNodeBlockHeaderDatabaseManager.class, "BLOCK_INDEX");
+        blockIndex.clear();
     }
 
     @Override
@@ -21,6 +21,7 @@ import com.softwareverde.bitcoin.transaction.signer.SignatureContext;
 import com.softwareverde.bitcoin.transaction.signer.TransactionOutputRepository;
 import com.softwareverde.bitcoin.transaction.signer.TransactionSigner;
 import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.cryptography.secp256k1.key.PrivateKey;
 
@@ -34,6 +35,29 @@ public class TransactionTestUtil {
         return mutableTransaction;
     }
 
+    /**
+     * Creates an unsigned Transaction spending each of the provided outputs, with outputCount outputs of amount paying to a new Address.
+     */
+    public static Transaction createUnsignedTransaction(final List<TransactionOutputIdentifier> transactionOutputIdentifiersToSpend, final Integer outputCount, final Long amount) {
+        final AddressInflater addressInflater = new AddressInflater();
+        final Address address = addressInflater.fromPrivateKey(PrivateKey.createNewKey());
+
+        final MutableTransaction transaction = TransactionTestUtil.createTransaction();
+        for (final TransactionOutputIdentifier transactionOutputIdentifierToSpend : transactionOutputIdentifiersToSpend) {
+            transaction.addTransactionInput(TransactionTestUtil.createTransactionInput(transactionOutputIdentifierToSpend));
+        }
+        for (int i = 0; i < outputCount; ++i) {
+            transaction.addTransactionOutput(TransactionTestUtil.createTransactionOutput(amount, address));
+        }
+        return transaction.asConst();
+    }
+
+    public static Transaction createUnsignedTransaction(final TransactionOutputIdentifier transactionOutputIdentifierToSpend, final Long amount) {
+        final MutableList<TransactionOutputIdentifier> transactionOutputIdentifiersToSpend = new MutableList<TransactionOutputIdentifier>(1);
+        transactionOutputIdentifiersToSpend.add(transactionOutputIdentifierToSpend);
+        return TransactionTestUtil.createUnsignedTransaction(transactionOutputIdentifiersToSpend, 1, amount);
+    }
+
     public static HashMapTransactionOutputRepository createTransactionOutputRepository(final Transaction... transactionsToSpend) {
         final HashMapTransactionOutputRepository transactionOutputRepository = new HashMapTransactionOutputRepository();
         for (final Transaction transactionToSpend : transactionsToSpend) {
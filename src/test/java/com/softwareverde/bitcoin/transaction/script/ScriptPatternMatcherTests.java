@@ -191,4 +191,31 @@ public class ScriptPatternMatcherTests {
         // Assert
         Assert.assertFalse(isUnspendable);
     }
+
+    @Test
+    public void should_identify_standard_script_types_without_inflating_operations() {
+        // Setup
+        final LockingScript payToPublicKeyHashScript = new ImmutableLockingScript(MutableByteArray.wrap(HexUtil.hexStringToByteArray("76A914ADEDB2E16DB029CA2482AC2E0CEFEB887DB37AFF88AC")));
+        final LockingScript payToScriptHashScript = new ImmutableLockingScript(MutableByteArray.wrap(HexUtil.hexStringToByteArray("A914E9C3DD0C07AAC76179EBC76A6C78D4D67C6C160A87")));
+        final LockingScript nonMinimalPayToScriptHashScript = new ImmutableLockingScript(MutableByteArray.wrap(HexUtil.hexStringToByteArray("A94C14E9C3DD0C07AAC76179EBC76A6C78D4D67C6C160A87")));
+        final LockingScript mutablePayToPublicKeyHashScript = new MutableLockingScript(MutableByteArray.wrap(HexUtil.hexStringToByteArray("76A914ADEDB2E16DB029CA2482AC2E0CEFEB887DB37AFF88AC")));
+        final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
+
+        // Action
+        final ScriptType payToPublicKeyHashScriptType = scriptPatternMatcher.getStandardScriptType(payToPublicKeyHashScript);
+        final ScriptType payToScriptHashScriptType = scriptPatternMatcher.getStandardScriptType(payToScriptHashScript);
+        final ScriptType nonMinimalPayToScriptHashScriptType = scriptPatternMatcher.getStandardScriptType(nonMinimalPayToScriptHashScript);
+        final ScriptType mutablePayToPublicKeyHashScriptType = scriptPatternMatcher.getStandardScriptType(mutablePayToPublicKeyHashScript);
+
+        // Assert
+        Assert.assertEquals(ScriptType.PAY_TO_PUBLIC_KEY_HASH, payToPublicKeyHashScriptType);
+        Assert.assertEquals(ScriptType.PAY_TO_SCRIPT_HASH, payToScriptHashScriptType);
+        Assert.assertNull(nonMinimalPayToScriptHashScriptType);
+        Assert.assertEquals(ScriptType.PAY_TO_PUBLIC_KEY_HASH, mutablePayToPublicKeyHashScriptType);
+
+        // The inflated (generic) matchers must agree with the byte-level matchers...
+        Assert.assertEquals(payToPublicKeyHashScriptType, mutablePayToPublicKeyHashScript.getScriptType());
+        Assert.assertEquals(payToScriptHashScriptType, new MutableLockingScript(payToScriptHashScript).getScriptType());
+        Assert.assertEquals(ScriptType.CUSTOM_SCRIPT, new MutableLockingScript(nonMinimalPayToScriptHashScript).getScriptType());
+    }
 }
@@ -0,0 +1,64 @@
+package com.softwareverde.bitcoin.transaction.script.locking;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.util.HexUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LockingScriptCompressorTests {
+    protected static void _assertRoundTrip(final String lockingScriptHexString, final Integer expectedCompressedByteCount) {
+        // Setup
+        final LockingScript lockingScript = new ImmutableLockingScript(MutableByteArray.wrap(HexUtil.hexStringToByteArray(lockingScriptHexString)));
+        final LockingScriptCompressor lockingScriptCompressor = new LockingScriptCompressor();
+
+        // Action
+        final ByteArray compressedBytes = lockingScriptCompressor.compress(lockingScript);
+        final LockingScript decompressedLockingScript = lockingScriptCompressor.decompress(compressedBytes);
+
+        // Assert
+        Assert.assertEquals(expectedCompressedByteCount.intValue(), compressedBytes.getByteCount());
+        Assert.assertEquals(lockingScript.getBytes(), decompressedLockingScript.getBytes());
+    }
+
+    @Test
+    public void should_compress_pay_to_public_key_hash_script() {
+        _assertRoundTrip("76A914ADEDB2E16DB029CA2482AC2E0CEFEB887DB37AFF88AC", 21);
+    }
+
+    @Test
+    public void should_compress_pay_to_script_hash_script() {
+        _assertRoundTrip("A914E9C3DD0C07AAC76179EBC76A6C78D4D67C6C160A87", 21);
+    }
+
+    @Test
+    public void should_compress_pay_to_compressed_public_key_script() {
+        _assertRoundTrip("2102A1633CAFCC01EBFB6D78E39F687A1F0995C62FC95F51EAD10A02EE0BE551B5DCAC", 33);
+    }
+
+    @Test
+    public void should_store_uncompressed_public_key_script_as_raw_script() {
+        _assertRoundTrip("410496B538E853519C726A2C91E61EC11600AE1390813A627C66FB8BE7947BE63C52DA7589379515D4E0A604F8141781E62294721166BF621E73A82CBF2342C858EEAC", 68);
+    }
+
+    @Test
+    public void should_store_nonstandard_script_as_raw_script() {
+        _assertRoundTrip("76A9000088AC", 7);
+    }
+
+    @Test
+    public void should_not_decompress_invalid_bytes() {
+        // Setup
+        final LockingScriptCompressor lockingScriptCompressor = new LockingScriptCompressor();
+
+        // Action
+        final LockingScript emptyLockingScript = lockingScriptCompressor.decompress(new MutableByteArray(0));
+        final LockingScript truncatedLockingScript = lockingScriptCompressor.decompress(MutableByteArray.wrap(HexUtil.hexStringToByteArray("00ADEDB2E16D")));
+        final LockingScript unknownLockingScript = lockingScriptCompressor.decompress(MutableByteArray.wrap(HexUtil.hexStringToByteArray("09ADEDB2E16D")));
+
+        // Assert
+        Assert.assertNull(emptyLockingScript);
+        Assert.assertNull(truncatedLockingScript);
+        Assert.assertNull(unknownLockingScript);
+    }
+}
@@ -0,0 +1,90 @@
+package com.softwareverde.bitcoin.transaction.script.stack;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StackTests {
+    protected static Stack _createStack(final int itemCount) {
+        final Stack stack = new Stack();
+        for (int i = 0; i < itemCount; ++i) {
+            stack.push(Value.fromInteger((long) i));
+        }
+        return stack;
+    }
+
+    @Test
+    public void should_peak_and_pop_by_index_from_the_top_of_the_stack() {
+        // Setup
+        final Stack stack = _createStack(40); // Exceeds the initial capacity...
+
+        // Action
+        final Value peakedValue = stack.peak(3);
+        final Value poppedValue = stack.pop(3);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(36), peakedValue.asInteger());
+        Assert.assertEquals(Integer.valueOf(36), poppedValue.asInteger());
+        Assert.assertEquals(Integer.valueOf(39), stack.getSize());
+        Assert.assertEquals(Integer.valueOf(39), stack.peak(0).asInteger());
+        Assert.assertEquals(Integer.valueOf(37), stack.peak(2).asInteger());
+        Assert.assertEquals(Integer.valueOf(35), stack.peak(3).asInteger());
+        Assert.assertEquals(Integer.valueOf(0), stack.peak(38).asInteger());
+        Assert.assertFalse(stack.didOverflow());
+    }
+
+    @Test
+    public void should_overflow_when_index_is_out_of_range() {
+        // Setup
+        final Stack stack = _createStack(2);
+
+        // Action
+        final Value value = stack.pop(2);
+
+        // Assert
+        Assert.assertEquals(Stack.OVERFLOW_VALUE, value);
+        Assert.assertEquals(Integer.valueOf(2), stack.getSize());
+        Assert.assertTrue(stack.didOverflow());
+    }
+
+    @Test
+    public void should_not_modify_the_original_stack_when_the_copy_is_modified() {
+        // Setup
+        final Stack stack = _createStack(4);
+        final Stack copiedStack = new Stack(stack);
+
+        // Action
+        copiedStack.pop();
+        copiedStack.pop(1);
+        copiedStack.push(Value.fromInteger(100L));
+        stack.push(Value.fromInteger(200L));
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(3), copiedStack.getSize());
+        Assert.assertEquals(Integer.valueOf(100), copiedStack.peak(0).asInteger());
+        Assert.assertEquals(Integer.valueOf(2), copiedStack.peak(1).asInteger());
+        Assert.assertEquals(Integer.valueOf(0), copiedStack.peak(2).asInteger());
+
+        Assert.assertEquals(Integer.valueOf(5), stack.getSize());
+        Assert.assertEquals(Integer.valueOf(200), stack.peak(0).asInteger());
+        Assert.assertEquals(Integer.valueOf(3), stack.peak(1).asInteger());
+        Assert.assertEquals(Integer.valueOf(2), stack.peak(2).asInteger());
+        Assert.assertEquals(Integer.valueOf(1), stack.peak(3).asInteger());
+        Assert.assertEquals(Integer.valueOf(0), stack.peak(4).asInteger());
+    }
+
+    @Test
+    public void should_include_alt_stack_within_max_item_count() {
+        // Setup
+        final Stack stack = new Stack();
+        stack.setMaxItemCount(2);
+        stack.push(Value.fromInteger(1L));
+        stack.pushToAltStack(Value.fromInteger(2L));
+
+        // Action
+        stack.push(Value.fromInteger(3L));
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(1), stack.getSize());
+        Assert.assertTrue(stack.didOverflow());
+    }
+}
@@ -316,4 +316,32 @@ public class ValueTests {
         // Assert
         Assert.assertEquals(expectedEncoding, encodedValue);
     }
+
+    @Test
+    public void should_share_small_integer_values() {
+        // Action
+        final Value value0 = Value.fromInteger(16L);
+        final Value value1 = Value.fromInteger(16L);
+        final Value negativeValue = Value.fromInteger(-1L);
+
+        // Assert
+        Assert.assertSame(value0, value1);
+        Assert.assertSame(Value.ZERO, Value.fromBoolean(false));
+        Assert.assertSame(Value.fromInteger(1L), Value.fromBoolean(true));
+        Assert.assertEquals(Integer.valueOf(-1), negativeValue.asInteger());
+        TestUtil.assertEqual(HexUtil.hexStringToByteArray("10"), value0.getBytes());
+        TestUtil.assertEqual(HexUtil.hexStringToByteArray("81"), negativeValue.getBytes());
+    }
+
+    @Test
+    public void should_detect_non_minimally_encoded_integers() {
+        Assert.assertTrue(Value.fromBytes(HexUtil.hexStringToByteArray("")).isMinimallyEncodedInteger());
+        Assert.assertTrue(Value.fromBytes(HexUtil.hexStringToByteArray("01")).isMinimallyEncodedInteger());
+        Assert.assertTrue(Value.fromBytes(HexUtil.hexStringToByteArray("FF00")).isMinimallyEncodedInteger());
+        Assert.assertTrue(Value.fromBytes(HexUtil.hexStringToByteArray("FF80")).isMinimallyEncodedInteger());
+        Assert.assertFalse(Value.fromBytes(HexUtil.hexStringToByteArray("00")).isMinimallyEncodedInteger());
+        Assert.assertFalse(Value.fromBytes(HexUtil.hexStringToByteArray("80")).isMinimallyEncodedInteger());
+        Assert.assertFalse(Value.fromBytes(HexUtil.hexStringToByteArray("0100")).isMinimallyEncodedInteger());
+        Assert.assertFalse(Value.fromBytes(HexUtil.hexStringToByteArray("0180")).isMinimallyEncodedInteger());
+    }
 }
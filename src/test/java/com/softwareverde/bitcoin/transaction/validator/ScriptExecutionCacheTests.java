@@ -0,0 +1,81 @@
+package com.softwareverde.bitcoin.transaction.validator;
+
+import com.softwareverde.bitcoin.bip.HF20200515;
+import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScriptExecutionCacheTests extends UnitTest {
+    protected static Sha256Hash _createTransactionHash(final int i) {
+        return Sha256Hash.wrap(HashUtil.sha256(ByteUtil.integerToBytes(i)));
+    }
+
+    @Test
+    public void should_return_cached_signature_operation_count_for_matching_flags() {
+        // Setup
+        final ScriptExecutionCache scriptExecutionCache = new ScriptExecutionCache();
+        final Sha256Hash transactionHash = _createTransactionHash(1);
+        final Integer scriptFlags = ScriptExecutionCache.getScriptFlags(700000L, MedianBlockTime.MAX_VALUE);
+
+        // Action
+        scriptExecutionCache.cacheValidTransaction(transactionHash, scriptFlags, 7);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(7), scriptExecutionCache.getSignatureOperationCount(transactionHash, scriptFlags));
+        Assert.assertNull(scriptExecutionCache.getSignatureOperationCount(_createTransactionHash(2), scriptFlags));
+    }
+
+    @Test
+    public void should_not_return_cached_result_across_upgrade_activation() {
+        // Setup
+        final ScriptExecutionCache scriptExecutionCache = new ScriptExecutionCache();
+        final Sha256Hash transactionHash = _createTransactionHash(1);
+        final Integer preUpgradeScriptFlags = ScriptExecutionCache.getScriptFlags(700000L, MedianBlockTime.fromSeconds(HF20200515.ACTIVATION_BLOCK_TIME - 1L));
+        final Integer postUpgradeScriptFlags = ScriptExecutionCache.getScriptFlags(700000L, MedianBlockTime.fromSeconds(HF20200515.ACTIVATION_BLOCK_TIME));
+        scriptExecutionCache.cacheValidTransaction(transactionHash, preUpgradeScriptFlags, 0);
+
+        // Action
+        final Integer signatureOperationCount = scriptExecutionCache.getSignatureOperationCount(transactionHash, postUpgradeScriptFlags);
+
+        // Assert
+        Assert.assertNotEquals(preUpgradeScriptFlags, postUpgradeScriptFlags);
+        Assert.assertNull(signatureOperationCount);
+    }
+
+    @Test
+    public void should_clear_previous_results_when_flags_change() {
+        // Setup
+        final ScriptExecutionCache scriptExecutionCache = new ScriptExecutionCache();
+        final Integer preUpgradeScriptFlags = ScriptExecutionCache.getScriptFlags(1L, MedianBlockTime.fromSeconds(0L));
+        final Integer postUpgradeScriptFlags = ScriptExecutionCache.getScriptFlags(700000L, MedianBlockTime.MAX_VALUE);
+        scriptExecutionCache.cacheValidTransaction(_createTransactionHash(1), preUpgradeScriptFlags, 0);
+        scriptExecutionCache.cacheValidTransaction(_createTransactionHash(2), preUpgradeScriptFlags, 0);
+
+        // Action
+        scriptExecutionCache.cacheValidTransaction(_createTransactionHash(3), postUpgradeScriptFlags, 0);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(1), scriptExecutionCache.getItemCount());
+        Assert.assertNull(scriptExecutionCache.getSignatureOperationCount(_createTransactionHash(1), preUpgradeScriptFlags));
+    }
+
+    @Test
+    public void should_not_exceed_max_item_count() {
+        // Setup
+        final ScriptExecutionCache scriptExecutionCache = new ScriptExecutionCache(16);
+        final Integer scriptFlags = ScriptExecutionCache.getScriptFlags(700000L, MedianBlockTime.MAX_VALUE);
+
+        // Action
+        for (int i = 0; i < 100; ++i) {
+            scriptExecutionCache.cacheValidTransaction(_createTransactionHash(i), scriptFlags, i);
+        }
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(16), scriptExecutionCache.getItemCount());
+        Assert.assertEquals(Integer.valueOf(99), scriptExecutionCache.getSignatureOperationCount(_createTransactionHash(99), scriptFlags));
+    }
+}
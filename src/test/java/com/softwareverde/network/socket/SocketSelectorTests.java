@@ -0,0 +1,120 @@
+package com.softwareverde.network.socket;
+
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessage;
+import com.softwareverde.bitcoin.server.message.type.node.ping.BitcoinPingMessage;
+import com.softwareverde.concurrent.pool.MainThreadPool;
+import com.softwareverde.network.p2p.message.ProtocolMessage;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class SocketSelectorTests {
+    protected SocketSelector _socketSelector;
+    protected MainThreadPool _threadPool;
+
+    @Before
+    public void before() {
+        _threadPool = new MainThreadPool(4, 1000L);
+        _socketSelector = new SocketSelector(2);
+        _socketSelector.start();
+        BinarySocket.setSocketSelector(_socketSelector);
+    }
+
+    @After
+    public void after() {
+        BinarySocket.setSocketSelector(null);
+        _socketSelector.stop();
+        _threadPool.stop();
+    }
+
+    @Test
+    public void should_exchange_messages_between_selector_sockets() throws Exception {
+        // Setup
+        final int messageCount = 64;
+
+        final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.socket().bind(new InetSocketAddress("127.0.0.1", 0));
+        final int port = serverSocketChannel.socket().getLocalPort();
+
+        final SocketChannel clientSocketChannel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+        final SocketChannel acceptedSocketChannel = serverSocketChannel.accept();
+
+        final BinarySocket clientSocket = new BinarySocket(clientSocketChannel.socket(), BitcoinProtocolMessage.BINARY_PACKET_FORMAT, _threadPool);
+        final BinarySocket serverSocket = new BinarySocket(acceptedSocketChannel.socket(), BitcoinProtocolMessage.BINARY_PACKET_FORMAT, _threadPool);
+
+        final ConcurrentLinkedQueue<Long> receivedNonces = new ConcurrentLinkedQueue<Long>();
+        serverSocket.setMessageReceivedCallback(new Runnable() {
+            @Override
+            public void run() {
+                final ProtocolMessage protocolMessage = serverSocket.popMessage();
+                if (protocolMessage instanceof BitcoinPingMessage) {
+                    receivedNonces.add(((BitcoinPingMessage) protocolMessage).getNonce());
+                }
+            }
+        });
+        serverSocket.beginListening();
+        clientSocket.beginListening();
+
+        long expectedNonceSum = 0L;
+
+        // Action
+        for (int i = 0; i < messageCount; ++i) {
+            final BitcoinPingMessage pingMessage = new BitcoinPingMessage();
+            expectedNonceSum += pingMessage.getNonce();
+            Assert.assertTrue(clientSocket.write(pingMessage));
+        }
+
+        for (int i = 0; i < 50; ++i) {
+            if (receivedNonces.size() >= messageCount) { break; }
+            Thread.sleep(100L);
+        }
+
+        // Assert
+        Assert.assertEquals(messageCount, receivedNonces.size());
+
+        long nonceSum = 0L;
+        for (final Long nonce : receivedNonces) {
+            nonceSum += nonce;
+        }
+        Assert.assertEquals(expectedNonceSum, nonceSum);
+        Assert.assertEquals(clientSocket.getTotalBytesSentCount(), serverSocket.getTotalBytesReceivedCount());
+
+        clientSocket.close();
+        serverSocket.close();
+        serverSocketChannel.close();
+    }
+
+    @Test
+    public void should_detect_remote_disconnect() throws Exception {
+        // Setup
+        final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.socket().bind(new InetSocketAddress("127.0.0.1", 0));
+        final int port = serverSocketChannel.socket().getLocalPort();
+
+        final SocketChannel clientSocketChannel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+        final SocketChannel acceptedSocketChannel = serverSocketChannel.accept();
+
+        final BinarySocket serverSocket = new BinarySocket(acceptedSocketChannel.socket(), BitcoinProtocolMessage.BINARY_PACKET_FORMAT, _threadPool);
+        serverSocket.beginListening();
+        Assert.assertTrue(serverSocket.isConnected());
+
+        // Action
+        clientSocketChannel.close();
+
+        for (int i = 0; i < 50; ++i) {
+            if (! serverSocket.isConnected()) { break; }
+            Thread.sleep(100L);
+        }
+
+        // Assert
+        Assert.assertFalse(serverSocket.isConnected());
+
+        serverSocketChannel.close();
+    }
+}